@@ -36,6 +36,12 @@ public class AlterTable extends Expr {
   private String newColumnName;
   @Expose @SerializedName("NewColumnDef")
   private ColumnDefinition addNewColumn;
+  @Expose @SerializedName("PartitionColumnNames")
+  private String[] partitionColumns;
+  @Expose @SerializedName("PartitionColumnValues")
+  private String[] partitionValues;
+  @Expose @SerializedName("Location")
+  private String location;
   @Expose @SerializedName("AlterTableType")
   private AlterTableOpType alterTableOpType;
 
@@ -85,6 +91,34 @@ public class AlterTable extends Expr {
     this.addNewColumn = addNewColumn;
   }
 
+  public String[] getPartitionColumns() {
+    return partitionColumns;
+  }
+
+  public void setPartitionColumns(String[] partitionColumns) {
+    this.partitionColumns = partitionColumns;
+  }
+
+  public String[] getPartitionValues() {
+    return partitionValues;
+  }
+
+  public void setPartitionValues(String[] partitionValues) {
+    this.partitionValues = partitionValues;
+  }
+
+  public boolean hasLocation() {
+    return location != null;
+  }
+
+  public String getLocation() {
+    return location;
+  }
+
+  public void setLocation(String location) {
+    this.location = location;
+  }
+
   public AlterTableOpType getAlterTableOpType() {
     return alterTableOpType;
   }
@@ -100,6 +134,9 @@ public class AlterTable extends Expr {
         null != columnName ? Objects.hashCode(columnName) : columnName,
         null != newColumnName ? Objects.hashCode(newColumnName) : newColumnName,
         null != addNewColumn ? Objects.hashCode(addNewColumn) : addNewColumn,
+        null != partitionColumns ? Objects.hashCode(partitionColumns) : partitionColumns,
+        null != partitionValues ? Objects.hashCode(partitionValues) : partitionValues,
+        null != location ? Objects.hashCode(location) : location,
         null != alterTableOpType ? Objects.hashCode(alterTableOpType) : alterTableOpType);
 
   }
@@ -112,6 +149,9 @@ public class AlterTable extends Expr {
         TUtil.checkEquals(columnName, another.columnName) &&
         TUtil.checkEquals(newColumnName, another.newColumnName) &&
         TUtil.checkEquals(addNewColumn, another.addNewColumn) &&
+        TUtil.checkEquals(partitionColumns, another.partitionColumns) &&
+        TUtil.checkEquals(partitionValues, another.partitionValues) &&
+        TUtil.checkEquals(location, another.location) &&
         TUtil.checkEquals(alterTableOpType, another.alterTableOpType);
   }
 
@@ -122,7 +162,10 @@ public class AlterTable extends Expr {
     alter.newTableName = newTableName;
     alter.columnName = columnName;
     alter.newColumnName = newColumnName;
-    alter.addNewColumn = (ColumnDefinition) addNewColumn.clone();
+    alter.addNewColumn = addNewColumn != null ? (ColumnDefinition) addNewColumn.clone() : null;
+    alter.partitionColumns = partitionColumns;
+    alter.partitionValues = partitionValues;
+    alter.location = location;
     alter.alterTableOpType = alterTableOpType;
     return alter;
   }
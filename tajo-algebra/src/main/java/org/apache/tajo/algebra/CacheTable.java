@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.algebra;
+
+import com.google.common.base.Objects;
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * CACHE TABLE or UNCACHE TABLE statement
+ */
+public class CacheTable extends Expr {
+  @Expose @SerializedName("TableName")
+  private String tableName;
+  @Expose @SerializedName("IsCache")
+  private boolean cache;
+
+  public CacheTable(String tableName, boolean cache) {
+    super(OpType.CacheTable);
+    this.tableName = tableName;
+    this.cache = cache;
+  }
+
+  public String getTableName() {
+    return tableName;
+  }
+
+  /**
+   * @return True if it is CACHE TABLE, and false if it is UNCACHE TABLE.
+   */
+  public boolean isCache() {
+    return cache;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(tableName, cache);
+  }
+
+  @Override
+  boolean equalsTo(Expr expr) {
+    if (expr instanceof CacheTable) {
+      CacheTable another = (CacheTable) expr;
+      return tableName.equals(another.tableName) && cache == another.cache;
+    }
+    return false;
+  }
+
+  public Object clone() throws CloneNotSupportedException {
+    CacheTable cacheTable = (CacheTable) super.clone();
+    cacheTable.tableName = tableName;
+    cacheTable.cache = cache;
+    return cacheTable;
+  }
+}
@@ -19,20 +19,35 @@
 package org.apache.tajo.algebra;
 
 import com.google.common.base.Objects;
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
 
 public class Explain extends UnaryOperator {
+  /** If true, the statement is executed and the plan is annotated with its runtime statistics. */
+  @Expose @SerializedName("IsAnalyze")
+  private boolean analyze = false;
 
   public Explain(Expr operand) {
     super(OpType.Explain);
     setChild(operand);
   }
 
+  public Explain(Expr operand, boolean analyze) {
+    this(operand);
+    this.analyze = analyze;
+  }
+
+  public boolean isAnalyze() {
+    return analyze;
+  }
+
   public int hashCode() {
-    return Objects.hashCode(getChild());
+    return Objects.hashCode(getChild(), analyze);
   }
 
   @Override
   boolean equalsTo(Expr expr) {
-    return true;
+    Explain another = (Explain) expr;
+    return analyze == another.analyze;
   }
 }
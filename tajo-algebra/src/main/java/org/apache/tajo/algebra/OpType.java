@@ -54,6 +54,7 @@ public enum OpType {
   AlterTablespace(AlterTablespace.class),
   AlterTable(AlterTable.class),
   TruncateTable(TruncateTable.class),
+  CacheTable(CacheTable.class),
 
   // Insert or Update
   Insert(Insert.class),
@@ -51,13 +51,28 @@ public abstract class AbstractCatalogClient implements CatalogService {
   protected RpcConnectionPool pool;
   protected InetSocketAddress catalogServerAddr;
   protected TajoConf conf;
+  /** null if the cache is disabled */
+  private final CatalogCache cache;
 
   abstract CatalogProtocolService.BlockingInterface getStub(NettyClientBase client);
 
   public AbstractCatalogClient(TajoConf conf, InetSocketAddress catalogServerAddr) {
+    this(conf, catalogServerAddr, conf.getLongVar(TajoConf.ConfVars.CATALOG_CLIENT_CACHE_VERSION_CHECK_INTERVAL));
+  }
+
+  /**
+   * @param versionCheckIntervalMs The interval in which the cache is compared with the catalog version
+   *                               at most once
+   */
+  protected AbstractCatalogClient(TajoConf conf, InetSocketAddress catalogServerAddr, long versionCheckIntervalMs) {
     this.pool = RpcConnectionPool.getPool();
     this.catalogServerAddr = catalogServerAddr;
     this.conf = conf;
+    if (conf.getBoolVar(TajoConf.ConfVars.CATALOG_CLIENT_CACHE_ENABLED)) {
+      this.cache = new CatalogCache(versionCheckIntervalMs);
+    } else {
+      this.cache = null;
+    }
   }
 
   private InetSocketAddress getCatalogServerAddr() {
@@ -76,6 +91,40 @@ public abstract class AbstractCatalogClient implements CatalogService {
     }
   }
 
+  /**
+   * Makes the cache consistent with the catalog server if the cache has not been compared with the catalog version
+   * within the check interval. The lookups which miss the cache get the version with their results, so this asks
+   * the version only when the cached entries have been used for the whole interval.
+   *
+   * @return The stamp which the metadata fetched from now on are added to the cache with
+   */
+  private long validateCache() {
+    if (cache.needsCheck()) {
+      long serverVersion = CatalogCache.UNKNOWN_VERSION;
+      try {
+        serverVersion = new ServerCallable<Long>(pool, getCatalogServerAddr(), CatalogProtocol.class, false) {
+          public Long call(NettyClientBase client) throws ServiceException {
+            CatalogProtocolService.BlockingInterface stub = getStub(client);
+            return stub.getCatalogVersion(null, ProtoUtil.NULL_PROTO).getValue();
+          }
+        }.withRetries();
+      } catch (ServiceException e) {
+        LOG.warn("Cannot get the catalog version, so the cached metadata are dropped: " + e.getMessage());
+      }
+      cache.validate(serverVersion);
+    }
+    return cache.getInvalidations();
+  }
+
+  /**
+   * Drops the cached metadata after the catalog is modified through this client.
+   */
+  private void invalidateCache() {
+    if (cache != null) {
+      cache.invalidate();
+    }
+  }
+
   @Override
   public final Boolean createTablespace(final String tablespaceName, final String tablespaceUri) {
     try {
@@ -207,6 +256,8 @@ public abstract class AbstractCatalogClient implements CatalogService {
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return Boolean.FALSE;
+    } finally {
+      invalidateCache();
     }
   }
 
@@ -222,6 +273,8 @@ public abstract class AbstractCatalogClient implements CatalogService {
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return Boolean.FALSE;
+    } finally {
+      invalidateCache();
     }
   }
 
@@ -276,17 +329,33 @@ public abstract class AbstractCatalogClient implements CatalogService {
 
   @Override
   public final TableDesc getTableDesc(final String databaseName, final String tableName) {
+    long stamp = 0;
+    if (cache != null) {
+      stamp = validateCache();
+      TableDescProto cached = cache.getTable(databaseName, tableName);
+      if (cached != null) {
+        // TableDesc is mutable, so each caller gets its own instance
+        return CatalogUtil.newTableDesc(cached);
+      }
+    }
+
     try {
-      return new ServerCallable<TableDesc>(this.pool, getCatalogServerAddr(), CatalogProtocol.class, false) {
-        public TableDesc call(NettyClientBase client) throws ServiceException {
+      GetTableDescResponse response =
+          new ServerCallable<GetTableDescResponse>(this.pool, getCatalogServerAddr(), CatalogProtocol.class, false) {
+        public GetTableDescResponse call(NettyClientBase client) throws ServiceException {
           TableIdentifierProto.Builder builder = TableIdentifierProto.newBuilder();
           builder.setDatabaseName(databaseName);
           builder.setTableName(tableName);
 
           CatalogProtocolService.BlockingInterface stub = getStub(client);
-          return CatalogUtil.newTableDesc(stub.getTableDesc(null, builder.build()));
+          return stub.getTableDesc(null, builder.build());
         }
       }.withRetries();
+
+      if (cache != null) {
+        cache.putTable(stamp, response.getCatalogVersion(), databaseName, tableName, response.getTable());
+      }
+      return CatalogUtil.newTableDesc(response.getTable());
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return null;
@@ -429,6 +498,75 @@ public abstract class AbstractCatalogClient implements CatalogService {
     }
   }
 
+  @Override
+  public final List<PartitionDescProto> getPartitions(final String databaseName, final String tableName,
+                                                      @Nullable final String partitionNamePrefix) {
+    try {
+      return new ServerCallable<List<PartitionDescProto>>(pool, getCatalogServerAddr(), CatalogProtocol.class, false) {
+        public List<PartitionDescProto> call(NettyClientBase client) throws ServiceException {
+
+          GetPartitionsRequest.Builder builder = GetPartitionsRequest.newBuilder();
+          builder.setTableIdentifier(CatalogUtil.buildTableIdentifier(databaseName, tableName));
+          if (partitionNamePrefix != null) {
+            builder.setPartitionNamePrefix(partitionNamePrefix);
+          }
+
+          CatalogProtocolService.BlockingInterface stub = getStub(client);
+          return stub.getPartitionsOfTable(null, builder.build()).getPartitionList();
+        }
+      }.withRetries();
+    } catch (ServiceException e) {
+      LOG.error(e.getMessage(), e);
+      return null;
+    }
+  }
+
+  @Override
+  public final boolean addPartitions(final String databaseName, final String tableName,
+                                     final List<PartitionDescProto> partitions) {
+    try {
+      return new ServerCallable<Boolean>(pool, getCatalogServerAddr(), CatalogProtocol.class, false) {
+        public Boolean call(NettyClientBase client) throws ServiceException {
+
+          PartitionsProto.Builder builder = PartitionsProto.newBuilder();
+          builder.setTableIdentifier(CatalogUtil.buildTableIdentifier(databaseName, tableName));
+          builder.addAllPartition(partitions);
+
+          CatalogProtocolService.BlockingInterface stub = getStub(client);
+          return stub.addPartitions(null, builder.build()).getValue();
+        }
+      }.withRetries();
+    } catch (ServiceException e) {
+      LOG.error(e.getMessage(), e);
+      return false;
+    } finally {
+      invalidateCache();
+    }
+  }
+
+  @Override
+  public final boolean dropPartitions(final String databaseName, final String tableName,
+                                      final List<String> partitionNames) {
+    try {
+      return new ServerCallable<Boolean>(pool, getCatalogServerAddr(), CatalogProtocol.class, false) {
+        public Boolean call(NettyClientBase client) throws ServiceException {
+
+          DropPartitionsRequest.Builder builder = DropPartitionsRequest.newBuilder();
+          builder.setTableIdentifier(CatalogUtil.buildTableIdentifier(databaseName, tableName));
+          builder.addAllPartitionName(partitionNames);
+
+          CatalogProtocolService.BlockingInterface stub = getStub(client);
+          return stub.dropPartitions(null, builder.build()).getValue();
+        }
+      }.withRetries();
+    } catch (ServiceException e) {
+      LOG.error(e.getMessage(), e);
+      return false;
+    } finally {
+      invalidateCache();
+    }
+  }
+
   @Override
   public final Collection<String> getAllTableNames(final String databaseName) {
     try {
@@ -484,6 +622,8 @@ public abstract class AbstractCatalogClient implements CatalogService {
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return false;
+    } finally {
+      invalidateCache();
     }
   }
 
@@ -508,6 +648,8 @@ public abstract class AbstractCatalogClient implements CatalogService {
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return false;
+    } finally {
+      invalidateCache();
     }
   }
 
@@ -517,18 +659,33 @@ public abstract class AbstractCatalogClient implements CatalogService {
       throw new IllegalArgumentException(
           "tableName cannot be composed of multiple parts, but it is \"" + tableName + "\"");
     }
+    long stamp = 0;
+    if (cache != null) {
+      stamp = validateCache();
+      Boolean cached = cache.getTableExistence(databaseName, tableName);
+      if (cached != null) {
+        return cached;
+      }
+    }
+
     try {
-      return new ServerCallable<Boolean>(this.pool, getCatalogServerAddr(), CatalogProtocol.class, false) {
-        public Boolean call(NettyClientBase client) throws ServiceException {
+      ExistResponse response =
+          new ServerCallable<ExistResponse>(this.pool, getCatalogServerAddr(), CatalogProtocol.class, false) {
+        public ExistResponse call(NettyClientBase client) throws ServiceException {
 
           TableIdentifierProto.Builder builder = TableIdentifierProto.newBuilder();
           builder.setDatabaseName(databaseName);
           builder.setTableName(tableName);
 
           CatalogProtocolService.BlockingInterface stub = getStub(client);
-          return stub.existsTable(null, builder.build()).getValue();
+          return stub.existsTable(null, builder.build());
         }
       }.withRetries();
+
+      if (cache != null) {
+        cache.putTableExistence(stamp, response.getCatalogVersion(), databaseName, tableName, response.getExist());
+      }
+      return response.getExist();
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return false;
@@ -687,6 +844,8 @@ public abstract class AbstractCatalogClient implements CatalogService {
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return false;
+    } finally {
+      invalidateCache();
     }
   }
 
@@ -705,6 +864,8 @@ public abstract class AbstractCatalogClient implements CatalogService {
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return false;
+    } finally {
+      invalidateCache();
     }
   }
 
@@ -715,6 +876,36 @@ public abstract class AbstractCatalogClient implements CatalogService {
 
   @Override
   public final FunctionDesc getFunction(final String signature, FunctionType funcType, DataType... paramTypes) {
+    FunctionDescProto descProto = null;
+    long stamp = 0;
+    if (cache != null) {
+      stamp = validateCache();
+      descProto = cache.getFunction(signature, funcType, paramTypes);
+    }
+    if (descProto == null) {
+      GetFunctionMetaResponse response = fetchFunction(signature, funcType, paramTypes);
+      if (response != null) {
+        descProto = response.getFunction();
+        if (cache != null) {
+          cache.putFunction(stamp, response.getCatalogVersion(), signature, funcType, paramTypes, descProto);
+        }
+      }
+    }
+
+    if (descProto == null) {
+      throw new NoSuchFunctionException(signature, paramTypes);
+    }
+
+    try {
+      return new FunctionDesc(descProto);
+    } catch (ClassNotFoundException e) {
+      LOG.error(e);
+      throw new NoSuchFunctionException(signature, paramTypes);
+    }
+  }
+
+  private GetFunctionMetaResponse fetchFunction(final String signature, FunctionType funcType,
+                                                DataType... paramTypes) {
     final GetFunctionMetaRequest.Builder builder = GetFunctionMetaRequest.newBuilder();
     builder.setSignature(signature);
     if (funcType != null) {
@@ -724,10 +915,11 @@ public abstract class AbstractCatalogClient implements CatalogService {
       builder.addParameterTypes(type);
     }
 
-    FunctionDescProto descProto = null;
+    GetFunctionMetaResponse response = null;
     try {
-      descProto = new ServerCallable<FunctionDescProto>(this.pool, getCatalogServerAddr(), CatalogProtocol.class, false) {
-        public FunctionDescProto call(NettyClientBase client) throws ServiceException {
+      response = new ServerCallable<GetFunctionMetaResponse>(this.pool, getCatalogServerAddr(), CatalogProtocol.class,
+          false) {
+        public GetFunctionMetaResponse call(NettyClientBase client) throws ServiceException {
           try {
             CatalogProtocolService.BlockingInterface stub = getStub(client);
             return stub.getFunctionMeta(null, builder.build());
@@ -745,17 +937,7 @@ public abstract class AbstractCatalogClient implements CatalogService {
         LOG.error(e.getMessage(), e);
       }
     }
-
-    if (descProto == null) {
-      throw new NoSuchFunctionException(signature, paramTypes);
-    }
-
-    try {
-      return new FunctionDesc(descProto);
-    } catch (ClassNotFoundException e) {
-      LOG.error(e);
-      throw new NoSuchFunctionException(signature, paramTypes);
-    }
+    return response;
   }
 
   @Override
@@ -765,6 +947,15 @@ public abstract class AbstractCatalogClient implements CatalogService {
 
   @Override
   public final boolean containFunction(final String signature, FunctionType funcType, DataType... paramTypes) {
+    long stamp = 0;
+    if (cache != null) {
+      stamp = validateCache();
+      Boolean cached = cache.getFunctionExistence(signature, funcType, paramTypes);
+      if (cached != null) {
+        return cached;
+      }
+    }
+
     final ContainFunctionRequest.Builder builder =
         ContainFunctionRequest.newBuilder();
     if (funcType != null) {
@@ -776,12 +967,19 @@ public abstract class AbstractCatalogClient implements CatalogService {
     }
 
     try {
-      return new ServerCallable<Boolean>(this.pool, getCatalogServerAddr(), CatalogProtocol.class, false) {
-        public Boolean call(NettyClientBase client) throws ServiceException {
+      ExistResponse response =
+          new ServerCallable<ExistResponse>(this.pool, getCatalogServerAddr(), CatalogProtocol.class, false) {
+        public ExistResponse call(NettyClientBase client) throws ServiceException {
           CatalogProtocolService.BlockingInterface stub = getStub(client);
-          return stub.containFunction(null, builder.build()).getValue();
+          return stub.containFunction(null, builder.build());
         }
       }.withRetries();
+
+      if (cache != null) {
+        cache.putFunctionExistence(stamp, response.getCatalogVersion(), signature, funcType, paramTypes,
+            response.getExist());
+      }
+      return response.getExist();
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return false;
@@ -800,6 +998,8 @@ public abstract class AbstractCatalogClient implements CatalogService {
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return false;
+    } finally {
+      invalidateCache();
     }
   }
 
@@ -815,6 +1015,8 @@ public abstract class AbstractCatalogClient implements CatalogService {
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return false;
+    } finally {
+      invalidateCache();
     }
   }
 }
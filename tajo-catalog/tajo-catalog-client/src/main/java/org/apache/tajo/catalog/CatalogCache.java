@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.catalog;
+
+import org.apache.tajo.catalog.proto.CatalogProtos.FunctionDescProto;
+import org.apache.tajo.catalog.proto.CatalogProtos.FunctionType;
+import org.apache.tajo.catalog.proto.CatalogProtos.TableDescProto;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A client-side cache of table and function metadata.
+ *
+ * The catalog server increases its version whenever the catalog is modified. The cache remembers the version
+ * which its entries were fetched at, and it drops all entries once the server reports a newer version.
+ * Each fetched entry comes with the version which the server read it at, and adding it validates the cache
+ * with that version too. So, an entry fetched concurrently with a modification never survives the invalidation,
+ * and a lookup which misses the cache also puts off the next version check. An entry fetched at an older version
+ * than the cache's one is ignored, and it never moves the version backwards. An entry fetched before the owner
+ * client modified the catalog is not added either, because it may be older than the modification.
+ */
+class CatalogCache {
+  /** the version of an empty cache which has not been validated yet */
+  static final long UNKNOWN_VERSION = -1;
+
+  private final long checkIntervalMs;
+  private long version = UNKNOWN_VERSION;
+  private long lastCheckTime = 0;
+  /** the number of modifications through the owner client */
+  private long invalidations = 0;
+
+  private final Map<String, TableDescProto> tables = new ConcurrentHashMap<String, TableDescProto>();
+  private final Map<String, Boolean> tableExistences = new ConcurrentHashMap<String, Boolean>();
+  private final Map<String, FunctionDescProto> functions = new ConcurrentHashMap<String, FunctionDescProto>();
+  private final Map<String, Boolean> functionExistences = new ConcurrentHashMap<String, Boolean>();
+
+  CatalogCache(long checkIntervalMs) {
+    this.checkIntervalMs = checkIntervalMs;
+  }
+
+  /**
+   * @return True if the version of the cache should be compared with the server's one before the next lookup.
+   */
+  synchronized boolean needsCheck() {
+    return version == UNKNOWN_VERSION || System.currentTimeMillis() - lastCheckTime >= checkIntervalMs;
+  }
+
+  /**
+   * Drops all entries if the server version is newer than the cache version. An older server version is
+   * reported by a lookup which was delayed, so it is ignored.
+   *
+   * @param serverVersion The current version of the catalog server, or <code>UNKNOWN_VERSION</code>
+   *                      if it cannot be retrieved.
+   */
+  synchronized void validate(long serverVersion) {
+    if (serverVersion == UNKNOWN_VERSION || version == UNKNOWN_VERSION || serverVersion > version) {
+      clear();
+      version = serverVersion;
+    } else if (serverVersion < version) {
+      return;
+    }
+    lastCheckTime = System.currentTimeMillis();
+  }
+
+  /**
+   * Drops all entries. It is called when the catalog is modified through the owner client.
+   */
+  synchronized void invalidate() {
+    clear();
+    version = UNKNOWN_VERSION;
+    invalidations++;
+  }
+
+  /**
+   * @return The stamp which a lookup takes before it fetches an entry, and passes when it adds the entry.
+   */
+  synchronized long getInvalidations() {
+    return invalidations;
+  }
+
+  private void clear() {
+    tables.clear();
+    tableExistences.clear();
+    functions.clear();
+    functionExistences.clear();
+  }
+
+  private synchronized <T> void put(long stamp, long serverVersion, Map<String, T> map, String key, T value) {
+    if (stamp != invalidations) {
+      // the owner client modified the catalog while the entry was fetched
+      return;
+    }
+    validate(serverVersion);
+    if (serverVersion != UNKNOWN_VERSION && serverVersion == version) {
+      map.put(key, value);
+    }
+  }
+
+  TableDescProto getTable(String databaseName, String tableName) {
+    return tables.get(CatalogUtil.buildFQName(databaseName, tableName));
+  }
+
+  void putTable(long stamp, long serverVersion, String databaseName, String tableName, TableDescProto desc) {
+    put(stamp, serverVersion, tables, CatalogUtil.buildFQName(databaseName, tableName), desc);
+  }
+
+  Boolean getTableExistence(String databaseName, String tableName) {
+    return tableExistences.get(CatalogUtil.buildFQName(databaseName, tableName));
+  }
+
+  void putTableExistence(long stamp, long serverVersion, String databaseName, String tableName, boolean exists) {
+    put(stamp, serverVersion, tableExistences, CatalogUtil.buildFQName(databaseName, tableName), exists);
+  }
+
+  FunctionDescProto getFunction(String signature, FunctionType funcType, DataType... paramTypes) {
+    return functions.get(functionKey(signature, funcType, paramTypes));
+  }
+
+  void putFunction(long stamp, long serverVersion, String signature, FunctionType funcType,
+                   DataType [] paramTypes, FunctionDescProto desc) {
+    put(stamp, serverVersion, functions, functionKey(signature, funcType, paramTypes), desc);
+  }
+
+  Boolean getFunctionExistence(String signature, FunctionType funcType, DataType... paramTypes) {
+    return functionExistences.get(functionKey(signature, funcType, paramTypes));
+  }
+
+  void putFunctionExistence(long stamp, long serverVersion, String signature, FunctionType funcType,
+                            DataType [] paramTypes, boolean exists) {
+    put(stamp, serverVersion, functionExistences, functionKey(signature, funcType, paramTypes), exists);
+  }
+
+  private static String functionKey(String signature, FunctionType funcType, DataType [] paramTypes) {
+    StringBuilder sb = new StringBuilder(signature).append('/').append(funcType).append('(');
+    for (int i = 0; i < paramTypes.length; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(paramTypes[i].getType());
+      if (paramTypes[i].hasLength()) {
+        sb.append('[').append(paramTypes[i].getLength()).append(']');
+      }
+      if (paramTypes[i].hasCode()) {
+        sb.append('<').append(paramTypes[i].getCode()).append('>');
+      }
+    }
+    return sb.append(')').toString();
+  }
+}
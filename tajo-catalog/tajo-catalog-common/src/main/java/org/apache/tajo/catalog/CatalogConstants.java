@@ -33,6 +33,8 @@ public class CatalogConstants {
   public static final String CONNECTION_ID = "tajo.catalog.connection.id";
   public static final String CONNECTION_PASSWORD = "tajo.catalog.connection.password";
   public static final String CATALOG_URI="tajo.catalog.uri";
+  public static final String CONNECTION_POOL_MAX_IDLE = "tajo.catalog.connection-pool.max-idle";
+  public static final String STATEMENT_CACHE_SIZE = "tajo.catalog.statement-cache.size";
 
   public static final String DEPRECATED_CONNECTION_ID = "tajo.catalog.jdbc.connection.id";
   public static final String DEPRECATED_CONNECTION_PASSWORD = "tajo.catalog.jdbc.connection.password";
@@ -18,12 +18,14 @@
 
 package org.apache.tajo.catalog;
 
+import org.apache.tajo.annotation.Nullable;
 import org.apache.tajo.catalog.partition.PartitionMethodDesc;
 import org.apache.tajo.catalog.proto.CatalogProtos.ColumnProto;
 import org.apache.tajo.catalog.proto.CatalogProtos.DatabaseProto;
 import org.apache.tajo.catalog.proto.CatalogProtos.IndexProto;
 import org.apache.tajo.catalog.proto.CatalogProtos.TableDescriptorProto;
 import org.apache.tajo.catalog.proto.CatalogProtos.TableOptionProto;
+import org.apache.tajo.catalog.proto.CatalogProtos.PartitionDescProto;
 import org.apache.tajo.catalog.proto.CatalogProtos.TablePartitionProto;
 import org.apache.tajo.catalog.proto.CatalogProtos.TableStatsProto;
 import org.apache.tajo.common.TajoDataTypes.DataType;
@@ -186,6 +188,24 @@ public interface CatalogService {
   
   List<TablePartitionProto> getAllPartitions();
 
+  /**
+   * Get the partitions registered for a column-partitioned table.
+   *
+   * @param databaseName The database name
+   * @param tableName The table name
+   * @param partitionNamePrefix If it is given, only partitions whose names start with it are returned
+   *                            (e.g., 'col1=1/'). Otherwise, all partitions of the table are returned.
+   * @return The partitions ordered by their names. If the request fails, it returns null.
+   */
+  List<PartitionDescProto> getPartitions(String databaseName, String tableName, @Nullable String partitionNamePrefix);
+
+  /**
+   * Register partitions of a table. Partitions which are already registered are ignored.
+   */
+  boolean addPartitions(String databaseName, String tableName, List<PartitionDescProto> partitions);
+
+  boolean dropPartitions(String databaseName, String tableName, List<String> partitionNames);
+
   boolean createIndex(IndexDesc index);
 
   boolean existIndexByName(String databaseName, String indexName);
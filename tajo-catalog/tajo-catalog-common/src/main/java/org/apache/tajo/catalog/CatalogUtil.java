@@ -291,6 +291,8 @@ public class CatalogUtil {
       return StoreType.JSON;
     } else if (typeStr.equalsIgnoreCase(StoreType.HBASE.name())) {
       return StoreType.HBASE;
+    } else if (typeStr.equalsIgnoreCase(StoreType.CFILE.name())) {
+      return StoreType.CFILE;
     } else {
       return null;
     }
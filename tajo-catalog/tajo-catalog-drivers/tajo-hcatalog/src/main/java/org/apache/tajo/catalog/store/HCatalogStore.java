@@ -27,6 +27,7 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.metastore.TableType;
+import org.apache.hadoop.hive.metastore.Warehouse;
 import org.apache.hadoop.hive.metastore.api.*;
 import org.apache.hadoop.hive.serde.serdeConstants;
 import org.apache.hadoop.hive.serde2.columnar.ColumnarSerDe;
@@ -440,6 +441,8 @@ public class HCatalogStore extends CatalogConstants implements CatalogStore {
       table.setDbName(databaseName);
       table.setTableName(tableName);
       table.setParameters(new HashMap<String, String>(tableDesc.getMeta().getOptions().getAllKeyValus()));
+      // Partitions written by Hive or Tajo are not always registered in the metastore.
+      table.getParameters().remove(StorageConstants.PARTITIONS_REGISTERED);
       // TODO: set owner
       //table.setOwner();
 
@@ -749,7 +752,70 @@ public class HCatalogStore extends CatalogConstants implements CatalogStore {
 
   @Override
   public void dropPartitions(String tableName) throws CatalogException {
+    throw new CatalogException("dropPartitions(tableName) is not supported in HCatalogStore. " +
+        "Use dropPartitions(databaseName, tableName, partitionNames) instead.");
+  }
+
+  @Override
+  public List<CatalogProtos.PartitionDescProto> getPartitions(String databaseName, String tableName,
+                                                             String partitionNamePrefix) throws CatalogException {
+    HCatalogStoreClientPool.HCatalogStoreClient client = null;
+    List<CatalogProtos.PartitionDescProto> partitions = new ArrayList<CatalogProtos.PartitionDescProto>();
+
+    try {
+      client = clientPool.getClient();
+      org.apache.hadoop.hive.ql.metadata.Table table =
+          HCatalogUtil.getTable(client.getHiveClient(), databaseName, tableName);
+      List<FieldSchema> partitionKeys = table.getPartitionKeys();
+
+      for (Partition partition : client.getHiveClient().listPartitions(databaseName, tableName, (short) -1)) {
+        // Hive escapes partition names in the same way as Tajo (e.g., col1=abc/col2=def).
+        String partitionName = Warehouse.makePartName(partitionKeys, partition.getValues());
+        if (partitionNamePrefix != null && !partitionName.startsWith(partitionNamePrefix)) {
+          continue;
+        }
 
+        CatalogProtos.PartitionDescProto.Builder builder = CatalogProtos.PartitionDescProto.newBuilder();
+        builder.setPartitionName(partitionName);
+        builder.setOrdinalPosition(0);
+        builder.setPath(partition.getSd().getLocation());
+        partitions.add(builder.build());
+      }
+    } catch (NoSuchObjectException nsoe) {
+      throw new CatalogException("Table not found. - tableName:" + tableName, nsoe);
+    } catch (Exception e) {
+      throw new CatalogException(e);
+    } finally {
+      if (client != null) {
+        client.release();
+      }
+    }
+
+    return partitions;
+  }
+
+  @Override
+  public void dropPartitions(String databaseName, String tableName, List<String> partitionNames)
+      throws CatalogException {
+    HCatalogStoreClientPool.HCatalogStoreClient client = null;
+
+    try {
+      client = clientPool.getClient();
+      for (String partitionName : partitionNames) {
+        try {
+          // only the metadata is dropped. The data are removed by the caller if needed.
+          client.getHiveClient().dropPartition(databaseName, tableName, partitionName, false);
+        } catch (NoSuchObjectException nsoe) {
+          // the partition is not registered in the metastore.
+        }
+      }
+    } catch (Exception e) {
+      throw new CatalogException(e);
+    } finally {
+      if (client != null) {
+        client.release();
+      }
+    }
   }
 
 
@@ -19,11 +19,13 @@
 package org.apache.tajo.catalog.store;
 
 
+import com.google.common.collect.Lists;
 import org.apache.commons.lang.StringEscapeUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.metastore.HiveMetaStoreClient;
 import org.apache.tajo.catalog.CatalogUtil;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableDesc;
@@ -57,6 +59,7 @@ public class TestHCatalogStore {
   private static final String SUPPLIER = "supplier";
 
   private static HCatalogStore store;
+  private static HiveConf hiveConf;
   private static Path warehousePath;
 
   @BeforeClass
@@ -66,6 +69,7 @@ public class TestHCatalogStore {
 
     //create local hiveMeta
     HiveConf conf = new HiveConf();
+    hiveConf = conf;
     String jdbcUri = "jdbc:derby:;databaseName="+testPath.toUri().getPath()+"metastore_db;create=true";
     conf.set(HiveConf.ConfVars.METASTOREWAREHOUSE.varname, warehousePath.toUri().toString());
     conf.set(HiveConf.ConfVars.METASTORECONNECTURLKEY.varname, jdbcUri);
@@ -261,6 +265,56 @@ public class TestHCatalogStore {
     store.dropTable(DB_NAME, NATION);
   }
 
+  @Test
+  public void testGetAndDropPartitions() throws Exception {
+    TableMeta meta = new TableMeta(CatalogProtos.StoreType.CSV, new KeyValueSet());
+    meta.putOption(StorageConstants.PARTITIONS_REGISTERED, "true");
+
+    org.apache.tajo.catalog.Schema schema = new org.apache.tajo.catalog.Schema();
+    schema.addColumn("r_name", TajoDataTypes.Type.TEXT);
+
+    TableDesc table = new TableDesc(CatalogUtil.buildFQName(DB_NAME, REGION), schema, meta,
+        new Path(warehousePath, new Path(DB_NAME, REGION)).toUri());
+
+    org.apache.tajo.catalog.Schema expressionSchema = new org.apache.tajo.catalog.Schema();
+    expressionSchema.addColumn("r_regionkey", TajoDataTypes.Type.INT4);
+    table.setPartitionMethod(new PartitionMethodDesc(DB_NAME, REGION, CatalogProtos.PartitionType.COLUMN,
+        expressionSchema.getColumn(0).getQualifiedName(), expressionSchema));
+    store.createTable(table.getProto());
+
+    // the metastore does not know partitions written by Tajo.
+    TableDesc table1 = new TableDesc(store.getTable(DB_NAME, REGION));
+    assertFalse(table1.getMeta().getOptions().containsKey(StorageConstants.PARTITIONS_REGISTERED));
+    assertTrue(store.getPartitions(DB_NAME, REGION, null).isEmpty());
+
+    // partitions added by Hive
+    HiveMetaStoreClient hiveClient = new HiveMetaStoreClient(hiveConf);
+    try {
+      hiveClient.appendPartition(DB_NAME, REGION, "r_regionkey=1");
+      hiveClient.appendPartition(DB_NAME, REGION, "r_regionkey=10");
+      hiveClient.appendPartition(DB_NAME, REGION, "r_regionkey=2");
+    } finally {
+      hiveClient.close();
+    }
+
+    List<CatalogProtos.PartitionDescProto> partitions = store.getPartitions(DB_NAME, REGION, null);
+    assertEquals(3, partitions.size());
+    for (CatalogProtos.PartitionDescProto partition : partitions) {
+      assertTrue(partition.getPath().endsWith(partition.getPartitionName()));
+    }
+
+    partitions = store.getPartitions(DB_NAME, REGION, "r_regionkey=1/");
+    assertEquals(0, partitions.size());
+    partitions = store.getPartitions(DB_NAME, REGION, "r_regionkey=1");
+    assertEquals(2, partitions.size());
+
+    store.dropPartitions(DB_NAME, REGION, Lists.newArrayList("r_regionkey=1", "r_regionkey=3"));
+    partitions = store.getPartitions(DB_NAME, REGION, null);
+    assertEquals(2, partitions.size());
+
+    store.dropTable(DB_NAME, REGION);
+  }
+
 
   @Test
   public void testGetAllTableNames() throws Exception{
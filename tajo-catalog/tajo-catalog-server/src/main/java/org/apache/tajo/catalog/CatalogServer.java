@@ -42,6 +42,7 @@ import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.conf.TajoConf.ConfVars;
 import org.apache.tajo.rpc.BlockingRpcServer;
 import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos.BoolProto;
+import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos.LongProto;
 import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos.NullProto;
 import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos.StringProto;
 import org.apache.tajo.util.NetUtils;
@@ -54,6 +55,7 @@ import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -74,9 +76,20 @@ public class CatalogServer extends AbstractService {
 
   private final static Log LOG = LogFactory.getLog(CatalogServer.class);
   private TajoConf conf;
+  // the global lock. Modifications of tables take it in the shared mode with the locks of the tables.
   private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
   private final Lock rlock = lock.readLock();
   private final Lock wlock = lock.writeLock();
+  /** the number of stripes which the locks of tables are spread over */
+  private static final int TABLE_LOCK_STRIPES = 64;
+  private final ReentrantReadWriteLock [] tableLocks = new ReentrantReadWriteLock[TABLE_LOCK_STRIPES];
+  /**
+   * It is increased whenever the catalog is modified, so clients can tell whether their cached metadata are stale.
+   * It starts from the start time of the server in the upper bits, so the versions of a restarted server never
+   * collide with the ones which clients cached before the restart unless the old server made 2^20 modifications
+   * for each millisecond of its uptime.
+   */
+  private final AtomicLong catalogVersion = new AtomicLong(System.currentTimeMillis() << 20);
 
   private CatalogStore store;
   private Map<String, List<FunctionDescProto>> functions = new ConcurrentHashMap<String,
@@ -105,6 +118,9 @@ public class CatalogServer extends AbstractService {
     super(CatalogServer.class.getName());
     this.handler = new CatalogProtocolHandler();
     this.builtingFuncs = new ArrayList<FunctionDesc>();
+    for (int i = 0; i < TABLE_LOCK_STRIPES; i++) {
+      tableLocks[i] = new ReentrantReadWriteLock();
+    }
   }
 
   public CatalogServer(Collection<FunctionDesc> sqlFuncs) throws IOException {
@@ -220,8 +236,80 @@ public class CatalogServer extends AbstractService {
     return this.bindAddress;
   }
 
+  /**
+   * Takes the global lock in the shared mode and the locks of the given tables in the exclusive mode.
+   * So, modifications of different tables run concurrently, while modifications of tablespaces and databases
+   * take the global lock in the exclusive mode and exclude all others. Stripes are always locked in ascending
+   * order, so modifications of multiple tables cannot deadlock.
+   *
+   * @return The stripes which are locked
+   */
+  private int [] lockTables(String... qualifiedNames) {
+    SortedSet<Integer> stripes = new TreeSet<Integer>();
+    for (String name : qualifiedNames) {
+      stripes.add(getTableLockStripe(name));
+    }
+
+    rlock.lock();
+    int [] locked = new int[stripes.size()];
+    int i = 0;
+    for (int stripe : stripes) {
+      tableLocks[stripe].writeLock().lock();
+      locked[i++] = stripe;
+    }
+    return locked;
+  }
+
+  private void unlockTables(int [] stripes) {
+    for (int i = stripes.length - 1; i >= 0; i--) {
+      tableLocks[stripes[i]].writeLock().unlock();
+    }
+    rlock.unlock();
+  }
+
+  /**
+   * Takes the global lock and the lock of the given table in the shared mode. A read of a table consists of
+   * several queries to the store, and this lock keeps them from seeing a partial modification of the table.
+   *
+   * @return The stripe which is locked
+   */
+  private int lockTableForRead(String qualifiedName) {
+    int stripe = getTableLockStripe(qualifiedName);
+    rlock.lock();
+    tableLocks[stripe].readLock().lock();
+    return stripe;
+  }
+
+  private void unlockTableForRead(int stripe) {
+    tableLocks[stripe].readLock().unlock();
+    rlock.unlock();
+  }
+
+  private static int getTableLockStripe(String qualifiedName) {
+    return (qualifiedName.hashCode() & Integer.MAX_VALUE) % TABLE_LOCK_STRIPES;
+  }
+
+  /**
+   * @return The qualified names of the tables which an ALTER TABLE statement modifies
+   */
+  private static String [] renamedTableNames(String databaseName, AlterTableDescProto proto) {
+    if (proto.getAlterTableType() == AlterTableType.RENAME_TABLE && proto.hasNewTableName()) {
+      String newName = proto.getNewTableName();
+      if (!CatalogUtil.isFQTableName(newName)) {
+        newName = CatalogUtil.buildFQName(databaseName, newName);
+      }
+      return new String[] {proto.getTableName(), newName};
+    }
+    return new String[] {proto.getTableName()};
+  }
+
   public class CatalogProtocolHandler implements CatalogProtocolService.BlockingInterface {
 
+    @Override
+    public LongProto getCatalogVersion(RpcController controller, NullProto request) throws ServiceException {
+      return LongProto.newBuilder().setValue(catalogVersion.get()).build();
+    }
+
     @Override
     public BoolProto createTablespace(RpcController controller, CreateTablespaceRequest request) throws ServiceException {
       final String tablespaceName = request.getTablespaceName();
@@ -241,6 +329,7 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
+        catalogVersion.incrementAndGet();
         wlock.unlock();
       }
     }
@@ -266,6 +355,7 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
+        catalogVersion.incrementAndGet();
         wlock.unlock();
       }
     }
@@ -355,6 +445,7 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
+        catalogVersion.incrementAndGet();
         wlock.unlock();
       }
     }
@@ -381,6 +472,7 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
+        catalogVersion.incrementAndGet();
         wlock.unlock();
       }
     }
@@ -388,7 +480,7 @@ public class CatalogServer extends AbstractService {
     @Override
     public BoolProto updateTableStats(RpcController controller, UpdateTableStatsProto proto) throws
       ServiceException {
-      wlock.lock();
+      int [] lockedTables = lockTables(proto.getTableName());
       try {
         String [] split = CatalogUtil.splitTableName(proto.getTableName());
         if (!store.existTable(split[0], split[1])) {
@@ -399,7 +491,8 @@ public class CatalogServer extends AbstractService {
         LOG.error(e.getMessage(), e);
         return BOOL_FALSE;
       } finally {
-        wlock.unlock();
+        catalogVersion.incrementAndGet();
+        unlockTables(lockedTables);
         LOG.info("Table " + proto.getTableName() + " is updated in the catalog ("
           + bindAddressStr + ")");
       }
@@ -414,7 +507,7 @@ public class CatalogServer extends AbstractService {
         throw new ServiceException(split[0] + " is a system database.");
       }
       
-      wlock.lock();
+      int [] lockedTables = lockTables(renamedTableNames(split[0], proto));
       try {
         if (!store.existTable(split[0], split[1])) {
           throw new NoSuchTableException(proto.getTableName());
@@ -424,7 +517,8 @@ public class CatalogServer extends AbstractService {
         LOG.error(e.getMessage(), e);
         return BOOL_FALSE;
       } finally {
-        wlock.unlock();
+        catalogVersion.incrementAndGet();
+        unlockTables(lockedTables);
         LOG.info("Table " + proto.getTableName() + " is altered in the catalog ("
             + bindAddressStr + ")");
       }
@@ -452,6 +546,7 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
+        catalogVersion.incrementAndGet();
         wlock.unlock();
       }
     }
@@ -508,16 +603,21 @@ public class CatalogServer extends AbstractService {
     }
 
     @Override
-    public TableDescProto getTableDesc(RpcController controller,
-                                       TableIdentifierProto request) throws ServiceException {
+    public GetTableDescResponse getTableDesc(RpcController controller,
+                                             TableIdentifierProto request) throws ServiceException {
       String databaseName = request.getDatabaseName();
       String tableName = request.getTableName();
 
       if (metaDictionary.isSystemDatabase(databaseName)){
-        return metaDictionary.getTableDesc(tableName);
+        return GetTableDescResponse.newBuilder()
+            .setCatalogVersion(catalogVersion.get())
+            .setTable(metaDictionary.getTableDesc(tableName))
+            .build();
       } else {
-        rlock.lock();
+        int lockedTable = lockTableForRead(CatalogUtil.buildFQName(databaseName, tableName));
         try {
+          // the version is read before the table, so the table is never older than the version
+          long version = catalogVersion.get();
           boolean contain;
 
           contain = store.existDatabase(databaseName);
@@ -525,7 +625,10 @@ public class CatalogServer extends AbstractService {
           if (contain) {
             contain = store.existTable(databaseName, tableName);
             if (contain) {
-              return store.getTable(databaseName, tableName);
+              return GetTableDescResponse.newBuilder()
+                  .setCatalogVersion(version)
+                  .setTable(store.getTable(databaseName, tableName))
+                  .build();
             } else {
               throw new NoSuchTableException(tableName);
             }
@@ -536,7 +639,7 @@ public class CatalogServer extends AbstractService {
           LOG.error(e);
           throw new ServiceException(e);
         } finally {
-          rlock.unlock();
+          unlockTableForRead(lockedTable);
         }
       }
     }
@@ -591,7 +694,7 @@ public class CatalogServer extends AbstractService {
         throw new ServiceException(databaseName + " is a system database.");
       }
       
-      wlock.lock();
+      int [] lockedTables = lockTables(CatalogUtil.buildFQName(databaseName, tableName));
       try {
 
         boolean contain = store.existDatabase(databaseName);
@@ -611,7 +714,8 @@ public class CatalogServer extends AbstractService {
         LOG.error(e.getMessage(), e);
         return ProtoUtil.FALSE;
       } finally {
-        wlock.unlock();
+        catalogVersion.incrementAndGet();
+        unlockTables(lockedTables);
       }
 
       return ProtoUtil.TRUE;
@@ -627,7 +731,7 @@ public class CatalogServer extends AbstractService {
         throw new ServiceException(databaseName + " is a system database.");
       }
 
-      wlock.lock();
+      int [] lockedTables = lockTables(CatalogUtil.buildFQName(databaseName, tableName));
       try {
         boolean contain = store.existDatabase(databaseName);
 
@@ -646,17 +750,19 @@ public class CatalogServer extends AbstractService {
         LOG.error(e.getMessage(), e);
         return BOOL_FALSE;
       } finally {
-        wlock.unlock();
+        catalogVersion.incrementAndGet();
+        unlockTables(lockedTables);
       }
 
       return BOOL_TRUE;
     }
 
     @Override
-    public BoolProto existsTable(RpcController controller, TableIdentifierProto request)
+    public ExistResponse existsTable(RpcController controller, TableIdentifierProto request)
         throws ServiceException {
       String databaseName = request.getDatabaseName();
       String tableName = request.getTableName();
+      long version = catalogVersion.get();
 
       if (!metaDictionary.isSystemDatabase(databaseName)) {
         rlock.lock();
@@ -665,11 +771,7 @@ public class CatalogServer extends AbstractService {
           boolean contain = store.existDatabase(databaseName);
 
           if (contain) {
-            if (store.existTable(databaseName, tableName)) {
-              return BOOL_TRUE;
-            } else {
-              return BOOL_FALSE;
-            }
+            return newExistResponse(version, store.existTable(databaseName, tableName));
           } else {
             throw new NoSuchDatabaseException(databaseName);
           }
@@ -680,11 +782,7 @@ public class CatalogServer extends AbstractService {
           rlock.unlock();
         }
       } else {
-        if (metaDictionary.existTable(tableName)) {
-          return BOOL_TRUE;
-        } else {
-          return BOOL_FALSE;
-        }
+        return newExistResponse(version, metaDictionary.existTable(tableName));
       }
 
     }
@@ -748,7 +846,7 @@ public class CatalogServer extends AbstractService {
         throw new ServiceException(databaseName + " is a system databsae. It does not contain any partitioned tables.");
       }
       
-      rlock.lock();
+      int lockedTable = lockTableForRead(CatalogUtil.buildFQName(databaseName, tableName));
       try {
         boolean contain;
 
@@ -772,7 +870,7 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
-        rlock.unlock();
+        unlockTableForRead(lockedTable);
       }
     }
 
@@ -786,7 +884,7 @@ public class CatalogServer extends AbstractService {
         throw new ServiceException(databaseName + " is a system database. Partition Method does not support yet.");
       }
 
-      rlock.lock();
+      int lockedTable = lockTableForRead(CatalogUtil.buildFQName(databaseName, tableName));
       try {
         boolean contain;
 
@@ -810,7 +908,7 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
-        rlock.unlock();
+        unlockTableForRead(lockedTable);
       }
     }
 
@@ -822,7 +920,27 @@ public class CatalogServer extends AbstractService {
 
     @Override
     public BoolProto addPartitions(RpcController controller, PartitionsProto request) throws ServiceException {
-      return ProtoUtil.TRUE;
+      String databaseName = request.getTableIdentifier().getDatabaseName();
+      String tableName = request.getTableIdentifier().getTableName();
+
+      if (metaDictionary.isSystemDatabase(databaseName)) {
+        throw new ServiceException(databaseName + " is a system database. It does not contain any partitioned tables.");
+      }
+
+      int [] lockedTables = lockTables(CatalogUtil.buildFQName(databaseName, tableName));
+      try {
+        if (!store.existTable(databaseName, tableName)) {
+          throw new NoSuchTableException(databaseName, tableName);
+        }
+        store.addPartitions(request);
+        return ProtoUtil.TRUE;
+      } catch (Exception e) {
+        LOG.error(e);
+        throw new ServiceException(e);
+      } finally {
+        catalogVersion.incrementAndGet();
+        unlockTables(lockedTables);
+      }
     }
 
     @Override
@@ -849,6 +967,57 @@ public class CatalogServer extends AbstractService {
       return null;
     }
     
+    @Override
+    public PartitionsProto getPartitionsOfTable(RpcController controller, GetPartitionsRequest request)
+        throws ServiceException {
+      String databaseName = request.getTableIdentifier().getDatabaseName();
+      String tableName = request.getTableIdentifier().getTableName();
+
+      if (metaDictionary.isSystemDatabase(databaseName)) {
+        throw new ServiceException(databaseName + " is a system database. It does not contain any partitioned tables.");
+      }
+
+      int lockedTable = lockTableForRead(CatalogUtil.buildFQName(databaseName, tableName));
+      try {
+        if (!store.existTable(databaseName, tableName)) {
+          throw new NoSuchTableException(databaseName, tableName);
+        }
+
+        PartitionsProto.Builder builder = PartitionsProto.newBuilder();
+        builder.setTableIdentifier(request.getTableIdentifier());
+        builder.addAllPartition(store.getPartitions(databaseName, tableName,
+            request.hasPartitionNamePrefix() ? request.getPartitionNamePrefix() : null));
+        return builder.build();
+      } catch (Exception e) {
+        LOG.error(e);
+        throw new ServiceException(e);
+      } finally {
+        unlockTableForRead(lockedTable);
+      }
+    }
+
+    @Override
+    public BoolProto dropPartitions(RpcController controller, DropPartitionsRequest request)
+        throws ServiceException {
+      String databaseName = request.getTableIdentifier().getDatabaseName();
+      String tableName = request.getTableIdentifier().getTableName();
+
+      int [] lockedTables = lockTables(CatalogUtil.buildFQName(databaseName, tableName));
+      try {
+        if (!store.existTable(databaseName, tableName)) {
+          throw new NoSuchTableException(databaseName, tableName);
+        }
+        store.dropPartitions(databaseName, tableName, request.getPartitionNameList());
+        return ProtoUtil.TRUE;
+      } catch (Exception e) {
+        LOG.error(e);
+        throw new ServiceException(e);
+      } finally {
+        catalogVersion.incrementAndGet();
+        unlockTables(lockedTables);
+      }
+    }
+
     @Override
     public GetTablePartitionsProto getAllPartitions(RpcController controller, NullProto request) throws ServiceException {
       rlock.lock();
@@ -983,6 +1152,7 @@ public class CatalogServer extends AbstractService {
       } catch (Exception e) {
         LOG.error(e);
       } finally {
+        catalogVersion.incrementAndGet();
         wlock.unlock();
       }
 
@@ -1141,6 +1311,7 @@ public class CatalogServer extends AbstractService {
       }
 
       TUtil.putToNestedList(functions, funcDesc.getSignature().getName(), funcDesc);
+      catalogVersion.incrementAndGet();
       if (LOG.isDebugEnabled()) {
         LOG.info("Function " + signature + " is registered.");
       }
@@ -1157,14 +1328,16 @@ public class CatalogServer extends AbstractService {
       }
 
       functions.remove(request.getSignature());
+      catalogVersion.incrementAndGet();
       LOG.info(request.getSignature() + " is dropped.");
 
       return BOOL_TRUE;
     }
 
     @Override
-    public FunctionDescProto getFunctionMeta(RpcController controller, GetFunctionMetaRequest request)
+    public GetFunctionMetaResponse getFunctionMeta(RpcController controller, GetFunctionMetaRequest request)
         throws ServiceException {
+      long version = catalogVersion.get();
       FunctionDescProto function = null;
       if (request.hasFunctionType()) {
         if (containFunction(request.getSignature(), request.getFunctionType(), request.getParameterTypesList())) {
@@ -1177,13 +1350,14 @@ public class CatalogServer extends AbstractService {
       if (function == null) {
         throw new NoSuchFunctionException(request.getSignature(), request.getParameterTypesList());
       } else {
-        return function;
+        return GetFunctionMetaResponse.newBuilder().setCatalogVersion(version).setFunction(function).build();
       }
     }
 
     @Override
-    public BoolProto containFunction(RpcController controller, ContainFunctionRequest request)
+    public ExistResponse containFunction(RpcController controller, ContainFunctionRequest request)
         throws ServiceException {
+      long version = catalogVersion.get();
       boolean returnValue;
       if (request.hasFunctionType()) {
         returnValue = containFunction(request.getSignature(), request.getFunctionType(),
@@ -1191,10 +1365,14 @@ public class CatalogServer extends AbstractService {
       } else {
         returnValue = containFunction(request.getSignature(), request.getParameterTypesList());
       }
-      return BoolProto.newBuilder().setValue(returnValue).build();
+      return newExistResponse(version, returnValue);
     }
   }
 
+  private static ExistResponse newExistResponse(long catalogVersion, boolean exist) {
+    return ExistResponse.newBuilder().setCatalogVersion(catalogVersion).setExist(exist).build();
+  }
+
   private static class FunctionSignature {
     private String signature;
     private FunctionType type;
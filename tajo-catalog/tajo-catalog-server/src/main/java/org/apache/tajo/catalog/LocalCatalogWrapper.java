@@ -28,14 +28,14 @@ import java.io.IOException;
 
 /**
  * This class provides a catalog service interface in
- * local.
+ * local. It reads the catalog version without any RPC, so its cache is validated for every lookup.
  */
 public class LocalCatalogWrapper extends AbstractCatalogClient {
   private CatalogServer catalog;
   private CatalogProtocol.CatalogProtocolService.BlockingInterface stub;
 
   public LocalCatalogWrapper(final TajoConf conf) throws IOException {
-    super(conf, null);
+    super(conf, null, 0);
     this.catalog = new CatalogServer();
     this.catalog.init(conf);
     this.catalog.start();
@@ -47,7 +47,7 @@ public class LocalCatalogWrapper extends AbstractCatalogClient {
   }
 
   public LocalCatalogWrapper(final CatalogServer server, final TajoConf conf) {
-    super(conf, null);
+    super(conf, null, 0);
     this.catalog = server;
     this.stub = server.getHandler();
   }
@@ -45,7 +45,10 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Savepoint;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.*;
 
 import static org.apache.tajo.catalog.proto.CatalogProtos.AlterTablespaceProto.AlterTablespaceCommand;
@@ -59,7 +62,10 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
   protected final String connectionPassword;
   protected final String catalogUri;
 
-  private Connection conn;
+  public static final int DEFAULT_CONNECTION_POOL_MAX_IDLE = 8;
+  public static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
+  private final CatalogConnectionPool connectionPool;
   
   protected Map<String, Boolean> baseTableMaps = new HashMap<String, Boolean>();
   
@@ -128,9 +134,24 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
       throw new CatalogException("Cannot load Catalog driver " + catalogDriver, e);
     }
 
+    CatalogConnectionPool.ConnectionFactory connectionFactory = new CatalogConnectionPool.ConnectionFactory() {
+      @Override
+      public Connection createConnection() throws SQLException {
+        return AbstractDBStore.this.createConnection(AbstractDBStore.this.conf);
+      }
+
+      @Override
+      public boolean isValid(Connection conn, int timeout) {
+        return isConnValid(conn, timeout);
+      }
+    };
+    this.connectionPool = new CatalogConnectionPool(connectionFactory, 100,
+        conf.getInt(CONNECTION_POOL_MAX_IDLE, DEFAULT_CONNECTION_POOL_MAX_IDLE),
+        conf.getInt(STATEMENT_CACHE_SIZE, DEFAULT_STATEMENT_CACHE_SIZE));
+
     try {
       LOG.info("Trying to connect database (" + catalogUri + ")");
-      conn = createConnection(conf);
+      connectionPool.getConnection();
       LOG.info("Connected to database (" + catalogUri + ")");
     } catch (SQLException e) {
       throw new CatalogException("Cannot connect to database (" + catalogUri
@@ -180,7 +201,7 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
     return catalogUri;
   }
 
-  protected boolean isConnValid(int timeout) throws CatalogException {
+  protected boolean isConnValid(Connection conn, int timeout) throws CatalogException {
     boolean isValid = false;
 
     try {
@@ -191,17 +212,16 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
     return isValid;
   }
 
+  /**
+   * @return The connection bound to the current thread. The nested calls in a thread share the connection,
+   * so they are in the same transaction.
+   */
   public Connection getConnection() {
     try {
-      boolean isValid = isConnValid(100);
-      if (!isValid) {
-        CatalogUtil.closeQuietly(conn);
-        conn = createConnection(conf);
-      }
+      return connectionPool.getConnection();
     } catch (SQLException e) {
-      e.printStackTrace();
+      throw new CatalogException("Cannot connect to database (" + catalogUri + ")", e);
     }
-    return conn;
   }
 
   private int getSchemaVersion() {
@@ -1676,7 +1696,7 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
   }
 
   private static final String ADD_PARTITION_SQL =
-      "INSERT INTO " + TB_PARTTIONS + " (TID, PARTITION_NAME, ORDINAL_POSITION, PATH) VALUES (?,?,?,?)";
+      "INSERT INTO " + TB_PARTTIONS + " (TID, PARTITION_NAME, ORDINAL_POSITION, PARTITION_VALUE, PATH) VALUES (?,?,?,?,?)";
 
 
   @Override
@@ -1696,12 +1716,25 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
       int tableId = getTableId(databaseId, databaseName, tableName);
 
       conn = getConnection();
+      conn.setAutoCommit(false);
       pstmt = conn.prepareStatement(ADD_PARTITION_SQL);
-
       for (CatalogProtos.PartitionDescProto partition : partitionsProto.getPartitionList()) {
         addPartitionInternal(pstmt, tableId, partition);
       }
-      pstmt.executeBatch();
+
+      try {
+        pstmt.executeBatch();
+      } catch (SQLException se) {
+        if (!isUniqueViolation(se)) {
+          throw se;
+        }
+        // Partitions can be registered repeatedly (e.g., INSERT OVERWRITE into an existing partition).
+        // The unique constraint on (TID, PARTITION_NAME) rejects them. So, they are added one by one again,
+        // and the partitions which already exist are skipped.
+        conn.rollback();
+        pstmt.clearBatch();
+        addPartitionsIfAbsent(conn, pstmt, tableId, partitionsProto.getPartitionList());
+      }
       conn.commit();
     } catch (SQLException se) {
       if (conn != null) {
@@ -1717,12 +1750,54 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
     }
   }
 
-  private static void addPartitionInternal(PreparedStatement pstmt, int tableId, PartitionDescProto partition) throws
-      SQLException {
+  private static void addPartitionsIfAbsent(Connection conn, PreparedStatement pstmt, int tableId,
+                                            List<PartitionDescProto> partitions) throws SQLException {
+    for (PartitionDescProto partition : partitions) {
+      setPartitionParameters(pstmt, tableId, partition);
+      Savepoint savepoint = conn.setSavepoint();
+      try {
+        pstmt.executeUpdate();
+      } catch (SQLException se) {
+        if (!isUniqueViolation(se)) {
+          throw se;
+        }
+        // some DBMSs (e.g., PostgreSQL) abort the whole transaction on an error without rolling back to a savepoint.
+        conn.rollback(savepoint);
+      }
+      pstmt.clearParameters();
+    }
+  }
+
+  /**
+   * @return True if the exception or one of its chained exceptions is caused by an integrity constraint violation.
+   */
+  private static boolean isUniqueViolation(SQLException se) {
+    for (SQLException e = se; e != null; e = e.getNextException()) {
+      // SQLSTATE class 23 means an integrity constraint violation.
+      if (e instanceof SQLIntegrityConstraintViolationException || (e.getSQLState() != null &&
+          e.getSQLState().startsWith("23"))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void setPartitionParameters(PreparedStatement pstmt, int tableId, PartitionDescProto partition)
+      throws SQLException {
     pstmt.setInt(1, tableId);
     pstmt.setString(2, partition.getPartitionName());
     pstmt.setInt(3, partition.getOrdinalPosition());
-    pstmt.setString(4, partition.getPath());
+    if (partition.hasPartitionValue()) {
+      pstmt.setString(4, partition.getPartitionValue());
+    } else {
+      pstmt.setNull(4, Types.VARCHAR);
+    }
+    pstmt.setString(5, partition.getPath());
+  }
+
+  private static void addPartitionInternal(PreparedStatement pstmt, int tableId, PartitionDescProto partition) throws
+      SQLException {
+    setPartitionParameters(pstmt, tableId, partition);
     pstmt.addBatch();
     pstmt.clearParameters();
   }
@@ -1884,6 +1959,112 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
   }
 
 
+  @Override
+  public List<PartitionDescProto> getPartitions(String databaseName, String tableName,
+                                                @Nullable String partitionNamePrefix) throws CatalogException {
+    Connection conn = null;
+    PreparedStatement pstmt = null;
+    ResultSet res = null;
+
+    List<PartitionDescProto> partitions = new ArrayList<PartitionDescProto>();
+
+    try {
+      int databaseId = getDatabaseId(databaseName);
+      int tableId = getTableId(databaseId, databaseName, tableName);
+
+      // The prefix condition is evaluated with the unique index on (TID, PARTITION_NAME).
+      String sql = "SELECT PARTITION_NAME, ORDINAL_POSITION, PARTITION_VALUE, PATH FROM " + TB_PARTTIONS +
+          " WHERE " + COL_TABLES_PK + " = ? ";
+      if (partitionNamePrefix != null) {
+        // '!' is used as the escape character because the backslash is a special character in some DBMSs.
+        sql += "AND PARTITION_NAME LIKE ? ESCAPE '!' ";
+      }
+      sql += "ORDER BY PARTITION_NAME";
+
+      if (LOG.isDebugEnabled()) {
+        LOG.debug(sql);
+      }
+
+      conn = getConnection();
+      pstmt = conn.prepareStatement(sql);
+      pstmt.setInt(1, tableId);
+      if (partitionNamePrefix != null) {
+        pstmt.setString(2, escapeLikePattern(partitionNamePrefix) + "%");
+      }
+      res = pstmt.executeQuery();
+
+      while (res.next()) {
+        PartitionDescProto.Builder builder = PartitionDescProto.newBuilder();
+        builder.setPartitionName(res.getString("PARTITION_NAME"));
+        builder.setOrdinalPosition(res.getInt("ORDINAL_POSITION"));
+        String partitionValue = res.getString("PARTITION_VALUE");
+        if (partitionValue != null) {
+          builder.setPartitionValue(partitionValue);
+        }
+        builder.setPath(res.getString("PATH"));
+        partitions.add(builder.build());
+      }
+    } catch (SQLException se) {
+      throw new CatalogException(se);
+    } finally {
+      CatalogUtil.closeQuietly(pstmt, res);
+    }
+
+    return partitions;
+  }
+
+  private static String escapeLikePattern(String pattern) {
+    StringBuilder sb = new StringBuilder(pattern.length());
+    for (char c : pattern.toCharArray()) {
+      if (c == '!' || c == '%' || c == '_') {
+        sb.append('!');
+      }
+      sb.append(c);
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public void dropPartitions(String databaseName, String tableName, List<String> partitionNames)
+      throws CatalogException {
+    Connection conn = null;
+    PreparedStatement pstmt = null;
+
+    try {
+      int databaseId = getDatabaseId(databaseName);
+      int tableId = getTableId(databaseId, databaseName, tableName);
+
+      String sql = "DELETE FROM " + TB_PARTTIONS + " WHERE " + COL_TABLES_PK + " = ? AND PARTITION_NAME = ? ";
+
+      if (LOG.isDebugEnabled()) {
+        LOG.debug(sql);
+      }
+
+      conn = getConnection();
+      conn.setAutoCommit(false);
+      pstmt = conn.prepareStatement(sql);
+      for (String partitionName : partitionNames) {
+        pstmt.setInt(1, tableId);
+        pstmt.setString(2, partitionName);
+        pstmt.addBatch();
+        pstmt.clearParameters();
+      }
+      pstmt.executeBatch();
+      conn.commit();
+    } catch (SQLException se) {
+      if (conn != null) {
+        try {
+          conn.rollback();
+        } catch (SQLException e) {
+          LOG.error(e);
+        }
+      }
+      throw new CatalogException(se);
+    } finally {
+      CatalogUtil.closeQuietly(pstmt);
+    }
+  }
+
   @Override
   public void delPartition(String partitionName) throws CatalogException {
     Connection conn = null;
@@ -2356,7 +2537,7 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
 
 
   public void close() {
-    CatalogUtil.closeQuietly(conn);
+    connectionPool.close();
     LOG.info("Shutdown database (" + catalogUri + ")");
   }
 
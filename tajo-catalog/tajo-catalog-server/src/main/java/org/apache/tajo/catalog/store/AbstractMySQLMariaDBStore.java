@@ -52,11 +52,11 @@ public abstract class AbstractMySQLMariaDBStore extends AbstractDBStore  {
   }
 
   @Override
-  protected boolean isConnValid(int timeout) throws CatalogException {
+  protected boolean isConnValid(Connection conn, int timeout) throws CatalogException {
     boolean isValid = false;
 
     try {
-      isValid = super.isConnValid(timeout);
+      isValid = super.isConnValid(conn, timeout);
     } catch (NullPointerException e) {
       LOG.info("Conn abortion when checking isValid; retrieve false to create another Conn.");
     }
@@ -0,0 +1,306 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.catalog.store;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.catalog.CatalogUtil;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * A pool of JDBC connections of {@link AbstractDBStore}.
+ *
+ * A connection is bound to the thread which gets it first. So, the nested calls of a store operation share
+ * one transaction as they did with a single connection, while the operations of different threads run
+ * concurrently. When a thread terminates, its connection returns to the idle list and another thread reuses it.
+ *
+ * Each connection caches its prepared statements by SQL, and closing a cached statement only resets it.
+ * A transaction ends with <code>commit()</code> or <code>rollback()</code>, after which the connection goes back
+ * to the auto-commit mode. Otherwise, the following reads of the thread would see a snapshot of an old transaction.
+ */
+class CatalogConnectionPool {
+  private static final Log LOG = LogFactory.getLog(CatalogConnectionPool.class);
+
+  /** A bound connection which has not been used for this time is validated before it is used again. */
+  static final long VALIDATION_INTERVAL_MS = 5000;
+
+  interface ConnectionFactory {
+    Connection createConnection() throws SQLException;
+
+    boolean isValid(Connection conn, int timeout);
+  }
+
+  private final ConnectionFactory factory;
+  private final int validationTimeout;
+  private final int maxIdle;
+  private final int statementCacheSize;
+
+  private final Map<Thread, PooledConnection> bound = new HashMap<Thread, PooledConnection>();
+  private final LinkedList<PooledConnection> idle = new LinkedList<PooledConnection>();
+  private boolean closed = false;
+
+  CatalogConnectionPool(ConnectionFactory factory, int validationTimeout, int maxIdle, int statementCacheSize) {
+    this.factory = factory;
+    this.validationTimeout = validationTimeout;
+    this.maxIdle = maxIdle;
+    this.statementCacheSize = statementCacheSize;
+  }
+
+  /**
+   * @return The connection bound to the current thread. Closing it has no effect.
+   */
+  Connection getConnection() throws SQLException {
+    Thread current = Thread.currentThread();
+    PooledConnection pooled;
+    boolean fromIdle = false;
+    synchronized (this) {
+      if (closed) {
+        throw new SQLException("The connection pool is already closed");
+      }
+      pooled = bound.get(current);
+      if (pooled == null) {
+        reclaimDeadThreads();
+        pooled = idle.poll();
+        fromIdle = pooled != null;
+      }
+    }
+
+    if (pooled != null && pooled.needsValidation(fromIdle) && !factory.isValid(pooled.raw, validationTimeout)) {
+      LOG.info("The catalog connection is not valid anymore, so a new connection is created.");
+      pooled.closeQuietly();
+      pooled = null;
+    }
+    if (pooled == null) {
+      pooled = new PooledConnection(factory.createConnection());
+    }
+    pooled.lastUsed = System.currentTimeMillis();
+
+    synchronized (this) {
+      bound.put(current, pooled);
+    }
+    return pooled.proxy;
+  }
+
+  private void reclaimDeadThreads() {
+    Iterator<Map.Entry<Thread, PooledConnection>> it = bound.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<Thread, PooledConnection> entry = it.next();
+      if (!entry.getKey().isAlive()) {
+        it.remove();
+        PooledConnection pooled = entry.getValue();
+        if (idle.size() < maxIdle && pooled.reset()) {
+          idle.add(pooled);
+        } else {
+          pooled.closeQuietly();
+        }
+      }
+    }
+  }
+
+  synchronized int getConnectionNum() {
+    return bound.size() + idle.size();
+  }
+
+  synchronized void close() {
+    for (PooledConnection pooled : bound.values()) {
+      pooled.closeQuietly();
+    }
+    for (PooledConnection pooled : idle) {
+      pooled.closeQuietly();
+    }
+    bound.clear();
+    idle.clear();
+    closed = true;
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * A connection which is used only by its bound thread, so it does not need to be synchronized.
+   */
+  private class PooledConnection implements InvocationHandler {
+    private final Connection raw;
+    private final Connection proxy;
+    /** cached statements in the order of their last uses */
+    private final LinkedHashMap<String, CachedStatement> statements =
+        new LinkedHashMap<String, CachedStatement>(16, 0.75f, true);
+    private boolean autoCommit;
+    private long lastUsed;
+
+    PooledConnection(Connection raw) throws SQLException {
+      this.raw = raw;
+      this.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+          new Class<?>[] {Connection.class}, this);
+      this.autoCommit = raw.getAutoCommit();
+    }
+
+    boolean needsValidation(boolean fromIdle) {
+      // a connection in the middle of a transaction cannot be replaced
+      return autoCommit && (fromIdle || System.currentTimeMillis() - lastUsed > VALIDATION_INTERVAL_MS);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      int argNum = args == null ? 0 : args.length;
+
+      if (name.equals("prepareStatement") && argNum == 1) {
+        return prepareStatement((String) args[0]);
+      } else if (name.equals("setAutoCommit")) {
+        raw.setAutoCommit((Boolean) args[0]);
+        autoCommit = (Boolean) args[0];
+        return null;
+      } else if ((name.equals("commit") || name.equals("rollback")) && argNum == 0) {
+        if (autoCommit) {
+          // there is no transaction to end
+          return null;
+        }
+        try {
+          return CatalogConnectionPool.invoke(raw, method, args);
+        } finally {
+          raw.setAutoCommit(true);
+          autoCommit = true;
+        }
+      } else if (name.equals("close")) {
+        // the pool owns the connection
+        return null;
+      }
+      return CatalogConnectionPool.invoke(raw, method, args);
+    }
+
+    private PreparedStatement prepareStatement(String sql) throws SQLException {
+      CachedStatement cached = statements.get(sql);
+      if (cached != null) {
+        if (!cached.inUse) {
+          cached.inUse = true;
+          return cached.proxy;
+        }
+        // the same statement is executed in a nested call
+        return raw.prepareStatement(sql);
+      }
+
+      PreparedStatement stmt = raw.prepareStatement(sql);
+      if (statementCacheSize <= 0) {
+        return stmt;
+      }
+      cached = new CachedStatement(sql, stmt);
+      cached.inUse = true;
+      statements.put(sql, cached);
+      evictStatements();
+      return cached.proxy;
+    }
+
+    private void evictStatements() {
+      Iterator<CachedStatement> it = statements.values().iterator();
+      while (statements.size() > statementCacheSize && it.hasNext()) {
+        CachedStatement cached = it.next();
+        if (!cached.inUse) {
+          it.remove();
+          CatalogUtil.closeQuietly(cached.raw);
+        }
+      }
+    }
+
+    /**
+     * Makes the connection ready for another thread.
+     *
+     * @return False if the connection is broken.
+     */
+    boolean reset() {
+      try {
+        if (!autoCommit) {
+          raw.rollback();
+          raw.setAutoCommit(true);
+          autoCommit = true;
+        }
+        for (CachedStatement cached : statements.values()) {
+          cached.release();
+        }
+        return true;
+      } catch (SQLException e) {
+        return false;
+      }
+    }
+
+    void closeQuietly() {
+      for (CachedStatement cached : statements.values()) {
+        CatalogUtil.closeQuietly(cached.raw);
+      }
+      statements.clear();
+      CatalogUtil.closeQuietly(raw);
+    }
+
+    private class CachedStatement implements InvocationHandler {
+      private final String sql;
+      private final PreparedStatement raw;
+      private final PreparedStatement proxy;
+      private boolean inUse;
+
+      CachedStatement(String sql, PreparedStatement raw) {
+        this.sql = sql;
+        this.raw = raw;
+        this.proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+            new Class<?>[] {PreparedStatement.class}, this);
+      }
+
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (name.equals("close")) {
+          try {
+            release();
+          } catch (SQLException e) {
+            statements.remove(sql);
+            CatalogUtil.closeQuietly(raw);
+          }
+          return null;
+        } else if (name.equals("isClosed")) {
+          return !inUse;
+        }
+        return CatalogConnectionPool.invoke(raw, method, args);
+      }
+
+      /**
+       * Returns the statement to the cache instead of closing it.
+       */
+      void release() throws SQLException {
+        if (inUse) {
+          inUse = false;
+          raw.clearParameters();
+          raw.clearBatch();
+        }
+      }
+    }
+  }
+}
@@ -18,6 +18,7 @@
 
 package org.apache.tajo.catalog.store;
 
+import org.apache.tajo.annotation.Nullable;
 import org.apache.tajo.catalog.FunctionDesc;
 import org.apache.tajo.catalog.proto.CatalogProtos;
 import org.apache.tajo.catalog.proto.CatalogProtos.ColumnProto;
@@ -40,6 +41,10 @@ import static org.apache.tajo.catalog.proto.CatalogProtos.AlterTablespaceProto;
 import static org.apache.tajo.catalog.proto.CatalogProtos.PartitionMethodProto;
 import static org.apache.tajo.catalog.proto.CatalogProtos.TablespaceProto;
 
+/**
+ * A persistent storage of the catalog. CatalogServer calls the operations on different tables concurrently,
+ * so implementations must be thread-safe.
+ */
 public interface CatalogStore extends Closeable {
   /*************************** Tablespace ******************************/
   void createTablespace(String spaceName, String spaceUri) throws CatalogException;
@@ -102,6 +107,9 @@ public interface CatalogStore extends Closeable {
 
 
   /************************** PARTITIONS *****************************/
+  /**
+   * Add partitions of a table. Partitions which already exist are skipped.
+   */
   void addPartitions(CatalogProtos.PartitionsProto partitionsProto) throws CatalogException;
 
   void addPartition(String databaseName, String tableName,
@@ -120,6 +128,21 @@ public interface CatalogStore extends Closeable {
   void delPartition(String partitionName) throws CatalogException;
 
   void dropPartitions(String tableName) throws CatalogException;
+
+  /**
+   * Get partitions of a table which are ordered by their names.
+   *
+   * @param databaseName the database name
+   * @param tableName the table name
+   * @param partitionNamePrefix If it is given, only partitions whose names start with it are returned.
+   *                            For example, 'col1=1/' returns all sub partitions of 'col1=1'.
+   * @return the partitions
+   * @throws CatalogException
+   */
+  List<CatalogProtos.PartitionDescProto> getPartitions(String databaseName, String tableName,
+                                                      @Nullable String partitionNamePrefix) throws CatalogException;
+
+  void dropPartitions(String databaseName, String tableName, List<String> partitionNames) throws CatalogException;
   
   List<TablePartitionProto> getAllPartitions() throws CatalogException;
 
@@ -49,8 +49,8 @@ import static org.apache.tajo.catalog.proto.CatalogProtos.AlterTablespaceProto.A
 import static org.apache.tajo.catalog.proto.CatalogProtos.TablespaceProto;
 
 /**
- * CatalogServer guarantees that all operations are thread-safe.
- * So, we don't need to consider concurrency problem here.
+ * CatalogServer runs the modifications of different tables concurrently,
+ * so all operations are synchronized on the store.
  */
 public class MemStore implements CatalogStore {
   private final Map<String, String> tablespaces = Maps.newHashMap();
@@ -58,19 +58,21 @@ public class MemStore implements CatalogStore {
   private final Map<String, CatalogProtos.FunctionDescProto> functions = Maps.newHashMap();
   private final Map<String, Map<String, IndexDescProto>> indexes = Maps.newHashMap();
   private final Map<String, Map<String, IndexDescProto>> indexesByColumn = Maps.newHashMap();
+  /** (qualified table name, (partition name, partition)) */
+  private final Map<String, TreeMap<String, CatalogProtos.PartitionDescProto>> partitions = Maps.newHashMap();
 
   public MemStore(Configuration conf) {
   }
 
   
-  public void close() throws IOException {
+  public synchronized void close() throws IOException {
     databases.clear();
     functions.clear();
     indexes.clear();
   }
 
   @Override
-  public void createTablespace(String spaceName, String spaceUri) throws CatalogException {
+  public synchronized void createTablespace(String spaceName, String spaceUri) throws CatalogException {
     if (tablespaces.containsKey(spaceName)) {
       throw new AlreadyExistsTablespaceException(spaceName);
     }
@@ -79,12 +81,12 @@ public class MemStore implements CatalogStore {
   }
 
   @Override
-  public boolean existTablespace(String spaceName) throws CatalogException {
+  public synchronized boolean existTablespace(String spaceName) throws CatalogException {
     return tablespaces.containsKey(spaceName);
   }
 
   @Override
-  public void dropTablespace(String spaceName) throws CatalogException {
+  public synchronized void dropTablespace(String spaceName) throws CatalogException {
     if (!tablespaces.containsKey(spaceName)) {
       throw new NoSuchTablespaceException(spaceName);
     }
@@ -92,12 +94,12 @@ public class MemStore implements CatalogStore {
   }
 
   @Override
-  public Collection<String> getAllTablespaceNames() throws CatalogException {
+  public synchronized Collection<String> getAllTablespaceNames() throws CatalogException {
     return tablespaces.keySet();
   }
   
   @Override
-  public List<TablespaceProto> getTablespaces() throws CatalogException {
+  public synchronized List<TablespaceProto> getTablespaces() throws CatalogException {
     List<TablespaceProto> tablespaceList = TUtil.newList();
     int tablespaceId = 0;
     
@@ -113,7 +115,7 @@ public class MemStore implements CatalogStore {
   }
 
   @Override
-  public TablespaceProto getTablespace(String spaceName) throws CatalogException {
+  public synchronized TablespaceProto getTablespace(String spaceName) throws CatalogException {
     if (!tablespaces.containsKey(spaceName)) {
       throw new NoSuchTablespaceException(spaceName);
     }
@@ -125,7 +127,7 @@ public class MemStore implements CatalogStore {
   }
 
   @Override
-  public void alterTablespace(CatalogProtos.AlterTablespaceProto alterProto) throws CatalogException {
+  public synchronized void alterTablespace(CatalogProtos.AlterTablespaceProto alterProto) throws CatalogException {
     if (!tablespaces.containsKey(alterProto.getSpaceName())) {
       throw new NoSuchTablespaceException(alterProto.getSpaceName());
     }
@@ -141,7 +143,7 @@ public class MemStore implements CatalogStore {
   }
 
   @Override
-  public void createDatabase(String databaseName, String tablespaceName) throws CatalogException {
+  public synchronized void createDatabase(String databaseName, String tablespaceName) throws CatalogException {
     if (databases.containsKey(databaseName)) {
       throw new AlreadyExistsDatabaseException(databaseName);
     }
@@ -150,12 +152,12 @@ public class MemStore implements CatalogStore {
   }
 
   @Override
-  public boolean existDatabase(String databaseName) throws CatalogException {
+  public synchronized boolean existDatabase(String databaseName) throws CatalogException {
     return databases.containsKey(databaseName);
   }
 
   @Override
-  public void dropDatabase(String databaseName) throws CatalogException {
+  public synchronized void dropDatabase(String databaseName) throws CatalogException {
     if (!databases.containsKey(databaseName)) {
       throw new NoSuchDatabaseException(databaseName);
     }
@@ -163,12 +165,12 @@ public class MemStore implements CatalogStore {
   }
 
   @Override
-  public Collection<String> getAllDatabaseNames() throws CatalogException {
+  public synchronized Collection<String> getAllDatabaseNames() throws CatalogException {
     return databases.keySet();
   }
   
   @Override
-  public List<DatabaseProto> getAllDatabases() throws CatalogException {
+  public synchronized List<DatabaseProto> getAllDatabases() throws CatalogException {
     List<DatabaseProto> databaseList = new ArrayList<DatabaseProto>();
     int dbId = 0;
     
@@ -198,7 +200,7 @@ public class MemStore implements CatalogStore {
   }
 
   @Override
-  public void createTable(CatalogProtos.TableDescProto request) throws CatalogException {
+  public synchronized void createTable(CatalogProtos.TableDescProto request) throws CatalogException {
     String [] splitted = CatalogUtil.splitTableName(request.getTableName());
     if (splitted.length == 1) {
       throw new IllegalArgumentException("createTable() requires a qualified table name, but it is \""
@@ -217,7 +219,7 @@ public class MemStore implements CatalogStore {
   }
 
   @Override
-  public void updateTableStats(CatalogProtos.UpdateTableStatsProto request) throws CatalogException {
+  public synchronized void updateTableStats(CatalogProtos.UpdateTableStatsProto request) throws CatalogException {
     String [] splitted = CatalogUtil.splitTableName(request.getTableName());
     if (splitted.length == 1) {
       throw new IllegalArgumentException("createTable() requires a qualified table name, but it is \""
@@ -234,18 +236,19 @@ public class MemStore implements CatalogStore {
   }
 
   @Override
-  public boolean existTable(String dbName, String tbName) throws CatalogException {
+  public synchronized boolean existTable(String dbName, String tbName) throws CatalogException {
     Map<String, CatalogProtos.TableDescProto> database = checkAndGetDatabaseNS(databases, dbName);
 
     return database.containsKey(tbName);
   }
 
   @Override
-  public void dropTable(String dbName, String tbName) throws CatalogException {
+  public synchronized void dropTable(String dbName, String tbName) throws CatalogException {
     Map<String, CatalogProtos.TableDescProto> database = checkAndGetDatabaseNS(databases, dbName);
 
     if (database.containsKey(tbName)) {
       database.remove(tbName);
+      partitions.remove(CatalogUtil.buildFQName(dbName, tbName));
     } else {
       throw new NoSuchTableException(tbName);
     }
@@ -255,7 +258,7 @@ public class MemStore implements CatalogStore {
    * @see CatalogStore#alterTable(AlterTableDesc)
    */
   @Override
-  public void alterTable(CatalogProtos.AlterTableDescProto alterTableDescProto) throws CatalogException {
+  public synchronized void alterTable(CatalogProtos.AlterTableDescProto alterTableDescProto) throws CatalogException {
 
     String[] split = CatalogUtil.splitTableName(alterTableDescProto.getTableName());
     if (split.length == 1) {
@@ -285,6 +288,10 @@ public class MemStore implements CatalogStore {
             .setPath(newPath).build();
         database.remove(tableName);
         database.put(alterTableDescProto.getNewTableName(), newTableDescProto);
+        if (partitions.containsKey(CatalogUtil.buildFQName(databaseName, tableName))) {
+          partitions.put(CatalogUtil.buildFQName(databaseName, alterTableDescProto.getNewTableName()),
+              partitions.remove(CatalogUtil.buildFQName(databaseName, tableName)));
+        }
         break;
       case RENAME_COLUMN:
         schemaProto = tableDescProto.getSchema();
@@ -323,7 +330,7 @@ public class MemStore implements CatalogStore {
    * @see CatalogStore#getTable(java.lang.String)
    */
   @Override
-  public CatalogProtos.TableDescProto getTable(String databaseName, String tableName)
+  public synchronized CatalogProtos.TableDescProto getTable(String databaseName, String tableName)
       throws CatalogException {
     Map<String, CatalogProtos.TableDescProto> database = checkAndGetDatabaseNS(databases, databaseName);
 
@@ -344,13 +351,13 @@ public class MemStore implements CatalogStore {
    * @see CatalogStore#getAllTableNames()
    */
   @Override
-  public List<String> getAllTableNames(String databaseName) throws CatalogException {
+  public synchronized List<String> getAllTableNames(String databaseName) throws CatalogException {
     Map<String, CatalogProtos.TableDescProto> database = checkAndGetDatabaseNS(databases, databaseName);
     return new ArrayList<String>(database.keySet());
   }
   
   @Override
-  public List<TableDescriptorProto> getAllTables() throws CatalogException {
+  public synchronized List<TableDescriptorProto> getAllTables() throws CatalogException {
     List<TableDescriptorProto> tableList = new ArrayList<CatalogProtos.TableDescriptorProto>();
     int dbId = 0, tableId = 0;
     
@@ -380,7 +387,7 @@ public class MemStore implements CatalogStore {
   }
   
   @Override
-  public List<TableOptionProto> getAllTableOptions() throws CatalogException {
+  public synchronized List<TableOptionProto> getAllTableOptions() throws CatalogException {
     List<TableOptionProto> optionList = new ArrayList<CatalogProtos.TableOptionProto>();
     int tid = 0;
     
@@ -409,7 +416,7 @@ public class MemStore implements CatalogStore {
   }
   
   @Override
-  public List<TableStatsProto> getAllTableStats() throws CatalogException {
+  public synchronized List<TableStatsProto> getAllTableStats() throws CatalogException {
     List<TableStatsProto> statList = new ArrayList<CatalogProtos.TableStatsProto>();
     int tid = 0;
     
@@ -435,7 +442,7 @@ public class MemStore implements CatalogStore {
   }
   
   @Override
-  public List<ColumnProto> getAllColumns() throws CatalogException {
+  public synchronized List<ColumnProto> getAllColumns() throws CatalogException {
     List<ColumnProto> columnList = new ArrayList<CatalogProtos.ColumnProto>();
     int tid = 0;
     
@@ -462,12 +469,12 @@ public class MemStore implements CatalogStore {
   }
 
   @Override
-  public void addPartitionMethod(CatalogProtos.PartitionMethodProto partitionMethodProto) throws CatalogException {
+  public synchronized void addPartitionMethod(CatalogProtos.PartitionMethodProto partitionMethodProto) throws CatalogException {
     throw new RuntimeException("not supported!");
   }
 
   @Override
-  public CatalogProtos.PartitionMethodProto getPartitionMethod(String databaseName, String tableName)
+  public synchronized CatalogProtos.PartitionMethodProto getPartitionMethod(String databaseName, String tableName)
       throws CatalogException {
     Map<String, CatalogProtos.TableDescProto> database = checkAndGetDatabaseNS(databases, databaseName);
 
@@ -480,7 +487,7 @@ public class MemStore implements CatalogStore {
   }
 
   @Override
-  public boolean existPartitionMethod(String databaseName, String tableName)
+  public synchronized boolean existPartitionMethod(String databaseName, String tableName)
       throws CatalogException {
     Map<String, CatalogProtos.TableDescProto> database = checkAndGetDatabaseNS(databases, databaseName);
 
@@ -493,43 +500,101 @@ public class MemStore implements CatalogStore {
   }
 
   @Override
-  public void dropPartitionMethod(String databaseName, String tableName) throws CatalogException {
+  public synchronized void dropPartitionMethod(String databaseName, String tableName) throws CatalogException {
     throw new RuntimeException("not supported!");
   }
 
   @Override
-  public void addPartitions(CatalogProtos.PartitionsProto partitionDescList) throws CatalogException {
-    throw new RuntimeException("not supported!");
+  public synchronized void addPartitions(CatalogProtos.PartitionsProto partitionDescList) throws CatalogException {
+    String databaseName = partitionDescList.getTableIdentifier().getDatabaseName();
+    String tableName = partitionDescList.getTableIdentifier().getTableName();
+    Map<String, CatalogProtos.TableDescProto> database = checkAndGetDatabaseNS(databases, databaseName);
+    if (!database.containsKey(tableName)) {
+      throw new NoSuchTableException(tableName);
+    }
+
+    String qualifiedName = CatalogUtil.buildFQName(databaseName, tableName);
+    TreeMap<String, CatalogProtos.PartitionDescProto> partitionMap = partitions.get(qualifiedName);
+    if (partitionMap == null) {
+      partitionMap = new TreeMap<String, CatalogProtos.PartitionDescProto>();
+      partitions.put(qualifiedName, partitionMap);
+    }
+    for (CatalogProtos.PartitionDescProto partition : partitionDescList.getPartitionList()) {
+      if (!partitionMap.containsKey(partition.getPartitionName())) {
+        partitionMap.put(partition.getPartitionName(), partition);
+      }
+    }
+  }
+
+  @Override
+  public synchronized List<CatalogProtos.PartitionDescProto> getPartitions(String databaseName, String tableName,
+                                                             String partitionNamePrefix) throws CatalogException {
+    Map<String, CatalogProtos.TableDescProto> database = checkAndGetDatabaseNS(databases, databaseName);
+    if (!database.containsKey(tableName)) {
+      throw new NoSuchTableException(tableName);
+    }
+
+    TreeMap<String, CatalogProtos.PartitionDescProto> partitionMap =
+        partitions.get(CatalogUtil.buildFQName(databaseName, tableName));
+    List<CatalogProtos.PartitionDescProto> found = TUtil.newList();
+    if (partitionMap == null) {
+      return found;
+    }
+
+    if (partitionNamePrefix == null) {
+      found.addAll(partitionMap.values());
+    } else {
+      for (Map.Entry<String, CatalogProtos.PartitionDescProto> entry :
+          partitionMap.tailMap(partitionNamePrefix, true).entrySet()) {
+        if (!entry.getKey().startsWith(partitionNamePrefix)) {
+          break;
+        }
+        found.add(entry.getValue());
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public synchronized void dropPartitions(String databaseName, String tableName, List<String> partitionNames)
+      throws CatalogException {
+    TreeMap<String, CatalogProtos.PartitionDescProto> partitionMap =
+        partitions.get(CatalogUtil.buildFQName(databaseName, tableName));
+    if (partitionMap != null) {
+      for (String partitionName : partitionNames) {
+        partitionMap.remove(partitionName);
+      }
+    }
   }
 
   @Override
-  public void addPartition(String databaseName, String tableName, CatalogProtos.PartitionDescProto
+  public synchronized void addPartition(String databaseName, String tableName, CatalogProtos.PartitionDescProto
       partitionDescProto) throws CatalogException {
     throw new RuntimeException("not supported!");
   }
 
   @Override
-  public CatalogProtos.PartitionsProto getPartitions(String tableName) throws CatalogException {
+  public synchronized CatalogProtos.PartitionsProto getPartitions(String tableName) throws CatalogException {
     throw new RuntimeException("not supported!");
   }
 
   @Override
-  public CatalogProtos.PartitionDescProto getPartition(String partitionName) throws CatalogException {
+  public synchronized CatalogProtos.PartitionDescProto getPartition(String partitionName) throws CatalogException {
     throw new RuntimeException("not supported!");
   }
 
   @Override
-  public void delPartition(String partitionName) throws CatalogException {
+  public synchronized void delPartition(String partitionName) throws CatalogException {
     throw new RuntimeException("not supported!");
   }
 
   @Override
-  public void dropPartitions(String tableName) throws CatalogException {
+  public synchronized void dropPartitions(String tableName) throws CatalogException {
     throw new RuntimeException("not supported!");
   }
   
   @Override
-  public List<TablePartitionProto> getAllPartitions() throws CatalogException {
+  public synchronized List<TablePartitionProto> getAllPartitions() throws CatalogException {
     throw new UnsupportedOperationException();
   }
 
@@ -537,7 +602,7 @@ public class MemStore implements CatalogStore {
    * @see CatalogStore#createIndex(nta.catalog.proto.CatalogProtos.IndexDescProto)
    */
   @Override
-  public void createIndex(IndexDescProto proto) throws CatalogException {
+  public synchronized void createIndex(IndexDescProto proto) throws CatalogException {
     final String databaseName = proto.getTableIdentifier().getDatabaseName();
 
     Map<String, IndexDescProto> index = checkAndGetDatabaseNS(indexes, databaseName);
@@ -556,7 +621,7 @@ public class MemStore implements CatalogStore {
    * @see CatalogStore#dropIndex(java.lang.String)
    */
   @Override
-  public void dropIndex(String databaseName, String indexName) throws CatalogException {
+  public synchronized void dropIndex(String databaseName, String indexName) throws CatalogException {
     Map<String, IndexDescProto> index = checkAndGetDatabaseNS(indexes, databaseName);
     if (!index.containsKey(indexName)) {
       throw new NoSuchIndexException(indexName);
@@ -568,7 +633,7 @@ public class MemStore implements CatalogStore {
    * @see CatalogStore#getIndexByName(java.lang.String)
    */
   @Override
-  public IndexDescProto getIndexByName(String databaseName, String indexName) throws CatalogException {
+  public synchronized IndexDescProto getIndexByName(String databaseName, String indexName) throws CatalogException {
     Map<String, IndexDescProto> index = checkAndGetDatabaseNS(indexes, databaseName);
     if (!index.containsKey(indexName)) {
       throw new NoSuchIndexException(indexName);
@@ -581,7 +646,7 @@ public class MemStore implements CatalogStore {
    * @see CatalogStore#getIndexByName(java.lang.String, java.lang.String)
    */
   @Override
-  public IndexDescProto getIndexByColumn(String databaseName, String tableName, String columnName)
+  public synchronized IndexDescProto getIndexByColumn(String databaseName, String tableName, String columnName)
       throws CatalogException {
 
     Map<String, IndexDescProto> indexByColumn = checkAndGetDatabaseNS(indexesByColumn, databaseName);
@@ -593,20 +658,20 @@ public class MemStore implements CatalogStore {
   }
 
   @Override
-  public boolean existIndexByName(String databaseName, String indexName) throws CatalogException {
+  public synchronized boolean existIndexByName(String databaseName, String indexName) throws CatalogException {
     Map<String, IndexDescProto> index = checkAndGetDatabaseNS(indexes, databaseName);
     return index.containsKey(indexName);
   }
 
   @Override
-  public boolean existIndexByColumn(String databaseName, String tableName, String columnName)
+  public synchronized boolean existIndexByColumn(String databaseName, String tableName, String columnName)
       throws CatalogException {
     Map<String, IndexDescProto> indexByColumn = checkAndGetDatabaseNS(indexesByColumn, databaseName);
     return indexByColumn.containsKey(columnName);
   }
 
   @Override
-  public IndexDescProto[] getIndexes(String databaseName, String tableName) throws CatalogException {
+  public synchronized IndexDescProto[] getIndexes(String databaseName, String tableName) throws CatalogException {
     List<IndexDescProto> protos = new ArrayList<IndexDescProto>();
     Map<String, IndexDescProto> indexByColumn = checkAndGetDatabaseNS(indexesByColumn, databaseName);
     for (IndexDescProto proto : indexByColumn.values()) {
@@ -619,7 +684,7 @@ public class MemStore implements CatalogStore {
   }
   
   @Override
-  public List<IndexProto> getAllIndexes() throws CatalogException {
+  public synchronized List<IndexProto> getAllIndexes() throws CatalogException {
     List<IndexProto> indexList = new ArrayList<CatalogProtos.IndexProto>();
     Set<String> databases = indexes.keySet();
     
@@ -646,22 +711,22 @@ public class MemStore implements CatalogStore {
   }
 
   @Override
-  public void addFunction(FunctionDesc func) throws CatalogException {
+  public synchronized void addFunction(FunctionDesc func) throws CatalogException {
     // to be implemented
   }
 
   @Override
-  public void deleteFunction(FunctionDesc func) throws CatalogException {
+  public synchronized void deleteFunction(FunctionDesc func) throws CatalogException {
     // to be implemented
   }
 
   @Override
-  public void existFunction(FunctionDesc func) throws CatalogException {
+  public synchronized void existFunction(FunctionDesc func) throws CatalogException {
     // to be implemented
   }
 
   @Override
-  public List<String> getAllFunctionNames() throws CatalogException {
+  public synchronized List<String> getAllFunctionNames() throws CatalogException {
     // to be implemented
     return null;
   }
@@ -22,6 +22,7 @@ import com.google.common.collect.Sets;
 
 import org.apache.hadoop.fs.Path;
 import org.apache.tajo.TajoConstants;
+import org.apache.tajo.catalog.CatalogProtocol.CatalogProtocolService;
 import org.apache.tajo.catalog.dictionary.InfoSchemaMetadataDictionary;
 import org.apache.tajo.catalog.exception.CatalogException;
 import org.apache.tajo.catalog.exception.NoSuchFunctionException;
@@ -39,6 +40,7 @@ import org.apache.tajo.common.TajoDataTypes;
 import org.apache.tajo.common.TajoDataTypes.Type;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.function.Function;
+import org.apache.tajo.rpc.NettyClientBase;
 import org.apache.tajo.util.CommonTestingUtil;
 import org.apache.tajo.util.KeyValueSet;
 import org.apache.tajo.util.TUtil;
@@ -47,7 +49,12 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.tajo.TajoConstants.DEFAULT_DATABASE_NAME;
 import static org.apache.tajo.catalog.CatalogConstants.CATALOG_URI;
@@ -300,6 +307,135 @@ public class TestCatalog {
     assertFalse(catalog.existDatabase("tmpdb2"));
   }
   
+  @Test
+  public void testClientCacheInvalidation() throws Exception {
+    // each client has its own cache, and the other client modifies the catalog
+    CatalogService cachingClient = new LocalCatalogWrapper(server);
+    CatalogService otherClient = new LocalCatalogWrapper(server);
+
+    assertTrue(otherClient.createDatabase("cachedb", TajoConstants.DEFAULT_TABLESPACE_NAME));
+    assertFalse(cachingClient.existsTable("cachedb", "table1"));
+
+    assertTrue(otherClient.createTable(createMockupTable("cachedb", "table1")));
+    assertTrue(cachingClient.existsTable("cachedb", "table1"));
+
+    TableDesc cached = cachingClient.getTableDesc("cachedb", "table1");
+    cached.setExternal(false);
+    assertTrue(cachingClient.getTableDesc("cachedb", "table1").isExternal());
+
+    assertTrue(otherClient.dropTable("cachedb.table1"));
+    assertFalse(cachingClient.existsTable("cachedb", "table1"));
+    assertNull(cachingClient.getTableDesc("cachedb", "table1"));
+
+    assertTrue(cachingClient.dropDatabase("cachedb"));
+  }
+
+  @Test
+  public void testClientCacheVersionPiggyback() throws Exception {
+    final AtomicInteger versionChecks = new AtomicInteger(0);
+    final CatalogProtocolService.BlockingInterface handler = server.getHandler();
+    final CatalogProtocolService.BlockingInterface countingStub = (CatalogProtocolService.BlockingInterface)
+        Proxy.newProxyInstance(CatalogProtocolService.BlockingInterface.class.getClassLoader(),
+            new Class<?>[] {CatalogProtocolService.BlockingInterface.class}, new InvocationHandler() {
+              @Override
+              public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("getCatalogVersion")) {
+                  versionChecks.incrementAndGet();
+                }
+                try {
+                  return method.invoke(handler, args);
+                } catch (InvocationTargetException e) {
+                  throw e.getCause();
+                }
+              }
+            });
+    // a remote client which compares its cache with the catalog version only once in a minute
+    CatalogService remoteClient = new AbstractCatalogClient(server.getConf(), null, 60 * 1000) {
+      @Override
+      CatalogProtocolService.BlockingInterface getStub(NettyClientBase client) {
+        return countingStub;
+      }
+    };
+    CatalogService otherClient = new LocalCatalogWrapper(server);
+
+    assertTrue(otherClient.createDatabase("piggybackdb", TajoConstants.DEFAULT_TABLESPACE_NAME));
+    assertTrue(otherClient.createTable(createMockupTable("piggybackdb", "table1")));
+
+    // only the first lookup of an empty cache asks the version
+    assertTrue(remoteClient.existsTable("piggybackdb", "table1"));
+    assertNotNull(remoteClient.getTableDesc("piggybackdb", "table1"));
+    assertNotNull(remoteClient.getTableDesc("piggybackdb", "table1"));
+    assertTrue(remoteClient.existsTable("piggybackdb", "table1"));
+    assertEquals(1, versionChecks.get());
+
+    // the cached entries are used within the interval, until a lookup which misses the cache gets a new version
+    assertTrue(otherClient.dropTable("piggybackdb.table1"));
+    assertTrue(remoteClient.existsTable("piggybackdb", "table1"));
+    assertFalse(remoteClient.existsTable("piggybackdb", "table2"));
+    assertFalse(remoteClient.existsTable("piggybackdb", "table1"));
+    assertEquals(1, versionChecks.get());
+
+    // a modification through the client itself drops its cache at once
+    assertTrue(remoteClient.createTable(createMockupTable("piggybackdb", "table1")));
+    assertTrue(remoteClient.existsTable("piggybackdb", "table1"));
+    assertEquals(2, versionChecks.get());
+
+    assertTrue(otherClient.dropTable("piggybackdb.table1"));
+    assertTrue(otherClient.dropDatabase("piggybackdb"));
+  }
+
+  @Test
+  public void testConcurrentCreateAndDropTables() throws Exception {
+    assertTrue(catalog.createDatabase("concurrentdb", TajoConstants.DEFAULT_TABLESPACE_NAME));
+
+    final int threadNum = 8;
+    final int tableNumPerThread = 5;
+    final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+    Thread [] threads = new Thread[threadNum];
+    for (int i = 0; i < threadNum; i++) {
+      final int threadId = i;
+      threads[i] = new Thread() {
+        @Override
+        public void run() {
+          try {
+            for (int j = 0; j < tableNumPerThread; j++) {
+              String tableName = "table_" + threadId + "_" + j;
+              // createMockupTable() is not thread-safe because it shares schema1
+              Schema schema = new Schema();
+              schema.addColumn(FieldName1, Type.INT4);
+              TableDesc table = new TableDesc(CatalogUtil.buildFQName("concurrentdb", tableName), schema,
+                  new TableMeta(StoreType.CSV, new KeyValueSet()),
+                  new Path(CommonTestingUtil.getTestDir(), tableName).toUri(), true);
+              assertTrue(catalog.createTable(table));
+              assertTrue(catalog.existsTable("concurrentdb", tableName));
+              assertEquals(1, catalog.getTableDesc("concurrentdb", tableName).getSchema().size());
+            }
+            // drop the odd tables while the other threads are still creating theirs
+            for (int j = 1; j < tableNumPerThread; j += 2) {
+              String tableName = "table_" + threadId + "_" + j;
+              assertTrue(catalog.dropTable(CatalogUtil.buildFQName("concurrentdb", tableName)));
+              assertFalse(catalog.existsTable("concurrentdb", tableName));
+            }
+          } catch (Throwable t) {
+            errors.add(t);
+          }
+        }
+      };
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertTrue(errors.toString(), errors.isEmpty());
+    Collection<String> tableNames = catalog.getAllTableNames("concurrentdb");
+    assertEquals(threadNum * ((tableNumPerThread + 1) / 2), tableNames.size());
+    for (String tableName : tableNames) {
+      assertEquals(0, Integer.parseInt(tableName.substring(tableName.lastIndexOf('_') + 1)) % 2);
+    }
+    assertTrue(catalog.dropDatabase("concurrentdb"));
+  }
+
   @Test
   public void testCreateAndDropTableWithCharacterSensivity() throws Exception {
     String databaseName = "TestDatabase1";
@@ -808,6 +944,61 @@ public class TestCatalog {
     assertFalse(catalog.existsTable(tableName));
   }
 
+  @Test
+  public final void testAddGetAndDropPartitions() throws Exception {
+    Schema schema = new Schema();
+    schema.addColumn("id", Type.INT4)
+        .addColumn("name", Type.TEXT);
+
+    String simpleName = "partitionedtable";
+    String tableName = CatalogUtil.buildFQName(DEFAULT_DATABASE_NAME, simpleName);
+    TableMeta meta = CatalogUtil.newTableMeta(StoreType.CSV);
+
+    Schema partSchema = new Schema();
+    partSchema.addColumn("key1", Type.INT4);
+    partSchema.addColumn("key2", Type.TEXT);
+
+    PartitionMethodDesc partitionDesc =
+        new PartitionMethodDesc(DEFAULT_DATABASE_NAME, tableName,
+            CatalogProtos.PartitionType.COLUMN, "key1,key2", partSchema);
+
+    Path tablePath = new Path(CommonTestingUtil.getTestDir(), simpleName);
+    TableDesc desc = new TableDesc(tableName, schema, meta, tablePath.toUri());
+    desc.setPartitionMethod(partitionDesc);
+    catalog.createTable(desc);
+
+    List<CatalogProtos.PartitionDescProto> partitions = TUtil.newList();
+    for (String name : new String[] {"key1=1/key2=a", "key1=1/key2=b", "key1=10/key2=a", "key1=2/key2=a_b"}) {
+      partitions.add(CatalogProtos.PartitionDescProto.newBuilder()
+          .setPartitionName(name)
+          .setOrdinalPosition(0)
+          .setPath(new Path(tablePath, name).toString())
+          .build());
+    }
+    assertTrue(catalog.addPartitions(DEFAULT_DATABASE_NAME, simpleName, partitions));
+    // Adding the same partitions again must be ignored.
+    assertTrue(catalog.addPartitions(DEFAULT_DATABASE_NAME, simpleName, partitions.subList(0, 2)));
+
+    assertEquals(4, catalog.getPartitions(DEFAULT_DATABASE_NAME, simpleName, null).size());
+
+    List<CatalogProtos.PartitionDescProto> found = catalog.getPartitions(DEFAULT_DATABASE_NAME, simpleName, "key1=1/");
+    assertEquals(2, found.size());
+    assertEquals("key1=1/key2=a", found.get(0).getPartitionName());
+    assertEquals("key1=1/key2=b", found.get(1).getPartitionName());
+
+    // '_' must not be regarded as a wildcard.
+    assertEquals(0, catalog.getPartitions(DEFAULT_DATABASE_NAME, simpleName, "key1=2/key2=a_c").size());
+    assertEquals(1, catalog.getPartitions(DEFAULT_DATABASE_NAME, simpleName, "key1=2/key2=a_b").size());
+
+    assertTrue(catalog.dropPartitions(DEFAULT_DATABASE_NAME, simpleName, TUtil.newList("key1=1/key2=a")));
+    found = catalog.getPartitions(DEFAULT_DATABASE_NAME, simpleName, "key1=1/");
+    assertEquals(1, found.size());
+    assertEquals("key1=1/key2=b", found.get(0).getPartitionName());
+
+    catalog.dropTable(tableName);
+    assertFalse(catalog.existsTable(tableName));
+  }
+
   @Test
   public void testAlterTableName () throws Exception {
 
@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.catalog;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestCatalogCache {
+
+  @Test
+  public void testVersionNeverMovesBackwards() {
+    CatalogCache cache = new CatalogCache(60 * 1000);
+    long stamp = cache.getInvalidations();
+    assertTrue(cache.needsCheck());
+
+    cache.putTableExistence(stamp, 10, "db1", "table1", true);
+    assertEquals(Boolean.TRUE, cache.getTableExistence("db1", "table1"));
+    assertFalse(cache.needsCheck());
+
+    // a delayed lookup which was served at an older version neither clears the cache nor is added
+    cache.putTableExistence(stamp, 9, "db1", "table2", true);
+    assertNull(cache.getTableExistence("db1", "table2"));
+    assertEquals(Boolean.TRUE, cache.getTableExistence("db1", "table1"));
+
+    cache.validate(9);
+    assertEquals(Boolean.TRUE, cache.getTableExistence("db1", "table1"));
+
+    // the version is still 10, so an entry of the version is added
+    cache.putTableExistence(stamp, 10, "db1", "table2", false);
+    assertEquals(Boolean.FALSE, cache.getTableExistence("db1", "table2"));
+
+    // a newer version drops all entries which were fetched at older versions
+    cache.putTableExistence(stamp, 11, "db1", "table3", true);
+    assertNull(cache.getTableExistence("db1", "table1"));
+    assertNull(cache.getTableExistence("db1", "table2"));
+    assertEquals(Boolean.TRUE, cache.getTableExistence("db1", "table3"));
+
+    cache.validate(10);
+    assertEquals(Boolean.TRUE, cache.getTableExistence("db1", "table3"));
+
+    // an unknown version always drops all entries
+    cache.validate(CatalogCache.UNKNOWN_VERSION);
+    assertNull(cache.getTableExistence("db1", "table3"));
+    assertTrue(cache.needsCheck());
+  }
+
+  @Test
+  public void testIgnoreEntryFetchedBeforeInvalidation() {
+    CatalogCache cache = new CatalogCache(60 * 1000);
+    long stamp = cache.getInvalidations();
+    cache.putTableExistence(stamp, 10, "db1", "table1", true);
+
+    // the owner client modifies the catalog while another lookup is fetching an entry
+    cache.invalidate();
+    cache.putTableExistence(stamp, 11, "db1", "table2", true);
+    assertNull(cache.getTableExistence("db1", "table1"));
+    assertNull(cache.getTableExistence("db1", "table2"));
+
+    cache.putTableExistence(cache.getInvalidations(), 11, "db1", "table2", true);
+    assertEquals(Boolean.TRUE, cache.getTableExistence("db1", "table2"));
+  }
+}
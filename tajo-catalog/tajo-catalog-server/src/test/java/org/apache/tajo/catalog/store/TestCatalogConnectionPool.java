@@ -0,0 +1,249 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.catalog.store;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestCatalogConnectionPool {
+  private MockConnectionFactory factory;
+  private CatalogConnectionPool pool;
+
+  @Before
+  public void setUp() {
+    factory = new MockConnectionFactory();
+    pool = new CatalogConnectionPool(factory, 1, 2, 4);
+  }
+
+  @After
+  public void tearDown() {
+    pool.close();
+  }
+
+  @Test
+  public void testConnectionBoundToThread() throws Exception {
+    Connection conn = pool.getConnection();
+    assertSame(conn, pool.getConnection());
+    conn.close();
+    assertSame(conn, pool.getConnection());
+    assertFalse(factory.connections.get(0).closed);
+
+    final Connection [] other = new Connection[1];
+    Thread thread = new Thread() {
+      @Override
+      public void run() {
+        try {
+          other[0] = pool.getConnection();
+        } catch (SQLException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    };
+    thread.start();
+    thread.join();
+
+    assertNotNull(other[0]);
+    assertNotSame(conn, other[0]);
+    assertEquals(2, factory.connections.size());
+  }
+
+  @Test
+  public void testReuseConnectionOfDeadThread() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      Thread thread = new Thread() {
+        @Override
+        public void run() {
+          try {
+            Connection conn = pool.getConnection();
+            conn.setAutoCommit(false);
+            conn.prepareStatement("SELECT 1");
+            // the thread dies in the middle of the transaction
+          } catch (SQLException e) {
+            throw new RuntimeException(e);
+          }
+        }
+      };
+      thread.start();
+      thread.join();
+    }
+
+    // reclaims the connection of the last thread
+    pool.getConnection();
+
+    assertEquals(1, factory.connections.size());
+    MockConnection mock = factory.connections.get(0);
+    assertEquals(3, mock.rollbackNum);
+    assertTrue(mock.autoCommit);
+    // the statement left open by a dead thread is released and reused
+    assertEquals(1, mock.prepareNum);
+    assertEquals(1, pool.getConnectionNum());
+  }
+
+  @Test
+  public void testStatementCache() throws Exception {
+    Connection conn = pool.getConnection();
+    MockConnection mock = factory.connections.get(0);
+
+    PreparedStatement stmt = conn.prepareStatement("SELECT 1");
+    assertFalse(stmt.isClosed());
+    // a nested call executes the same statement while it is in use
+    PreparedStatement nested = conn.prepareStatement("SELECT 1");
+    assertNotSame(stmt, nested);
+    assertEquals(2, mock.prepareNum);
+    nested.close();
+    stmt.close();
+    assertTrue(stmt.isClosed());
+
+    assertSame(stmt, conn.prepareStatement("SELECT 1"));
+    assertEquals(2, mock.prepareNum);
+    stmt.close();
+
+    // the least recently used statements are evicted
+    for (int i = 0; i < 4; i++) {
+      conn.prepareStatement("SELECT " + (i + 2)).close();
+    }
+    assertEquals(6, mock.prepareNum);
+    assertNotSame(stmt, conn.prepareStatement("SELECT 1"));
+    assertEquals(7, mock.prepareNum);
+  }
+
+  @Test
+  public void testAutoCommitAfterTransaction() throws Exception {
+    Connection conn = pool.getConnection();
+    MockConnection mock = factory.connections.get(0);
+
+    conn.setAutoCommit(false);
+    assertFalse(mock.autoCommit);
+    conn.commit();
+    assertTrue(mock.autoCommit);
+    assertEquals(1, mock.commitNum);
+
+    conn.setAutoCommit(false);
+    conn.rollback();
+    assertTrue(mock.autoCommit);
+    assertEquals(1, mock.rollbackNum);
+
+    // no transaction to end in the auto-commit mode
+    conn.commit();
+    assertEquals(1, mock.commitNum);
+  }
+
+  @Test
+  public void testInvalidConnection() throws Exception {
+    Thread thread = new Thread() {
+      @Override
+      public void run() {
+        try {
+          pool.getConnection();
+        } catch (SQLException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    };
+    thread.start();
+    thread.join();
+
+    factory.connections.get(0).valid = false;
+    pool.getConnection();
+    assertEquals(2, factory.connections.size());
+    assertTrue(factory.connections.get(0).closed);
+  }
+
+  @Test(expected = SQLException.class)
+  public void testClose() throws Exception {
+    pool.getConnection();
+    pool.close();
+    assertTrue(factory.connections.get(0).closed);
+    pool.getConnection();
+  }
+
+  private static class MockConnectionFactory implements CatalogConnectionPool.ConnectionFactory {
+    final List<MockConnection> connections = new ArrayList<MockConnection>();
+
+    @Override
+    public synchronized Connection createConnection() throws SQLException {
+      MockConnection mock = new MockConnection();
+      connections.add(mock);
+      return mock.proxy;
+    }
+
+    @Override
+    public boolean isValid(Connection conn, int timeout) {
+      for (MockConnection mock : connections) {
+        if (mock.proxy == conn) {
+          return mock.valid;
+        }
+      }
+      return false;
+    }
+  }
+
+  private static class MockConnection implements InvocationHandler {
+    final Connection proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+        new Class<?>[] {Connection.class}, this);
+    boolean autoCommit = true;
+    boolean closed = false;
+    boolean valid = true;
+    int prepareNum;
+    int commitNum;
+    int rollbackNum;
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (name.equals("getAutoCommit")) {
+        return autoCommit;
+      } else if (name.equals("setAutoCommit")) {
+        autoCommit = (Boolean) args[0];
+      } else if (name.equals("commit")) {
+        commitNum++;
+      } else if (name.equals("rollback")) {
+        rollbackNum++;
+      } else if (name.equals("close")) {
+        closed = true;
+      } else if (name.equals("prepareStatement")) {
+        prepareNum++;
+        return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+            new Class<?>[] {PreparedStatement.class}, new InvocationHandler() {
+              @Override
+              public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                return method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+              }
+            });
+      } else if (name.equals("hashCode")) {
+        return System.identityHashCode(proxy);
+      } else if (name.equals("equals")) {
+        return proxy == args[0];
+      }
+      return null;
+    }
+  }
+}
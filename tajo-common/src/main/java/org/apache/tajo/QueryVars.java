@@ -29,6 +29,8 @@ public enum QueryVars implements ConfigKey {
   OUTPUT_OVERWRITE,
   OUTPUT_AS_DIRECTORY,
   OUTPUT_PER_FILE_SIZE,
+  EXPLAIN_ANALYZE,
+  TABLE_CACHE_ID,
   ;
 
   QueryVars() {
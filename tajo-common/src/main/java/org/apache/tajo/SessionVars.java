@@ -103,10 +103,21 @@ public enum SessionVars implements ConfigKey {
       Integer.class, Validators.min("1")),
   TABLE_PARTITION_PER_SHUFFLE_SIZE(ConfVars.$DIST_QUERY_TABLE_PARTITION_VOLUME,
       "shuffle output size for partition table write (mb)", DEFAULT, Long.class, Validators.min("1")),
+  SCAN_COMBINE_SIZE(ConfVars.$DIST_QUERY_SCAN_COMBINE_VOLUME,
+      "target input size (mb) of a scan task which combines small files. 0 means disabled.", DEFAULT, Long.class,
+      Validators.min("0")),
 
   GROUPBY_MULTI_LEVEL_ENABLED(ConfVars.$GROUPBY_MULTI_LEVEL_ENABLED, "Multiple level groupby enabled", DEFAULT,
       Boolean.class, Validators.bool()),
 
+  RUNTIME_FILTER_ENABLED(ConfVars.$DIST_QUERY_RUNTIME_FILTER_ENABLED, "runtime join filter enabled", DEFAULT,
+      Boolean.class, Validators.bool()),
+  RUNTIME_FILTER_BLOOM_SIZE(ConfVars.$DIST_QUERY_RUNTIME_FILTER_BLOOM_SIZE,
+      "bloom filter size (bytes) of a runtime join filter", DEFAULT, Integer.class, Validators.min("8")),
+
+  PARTITION_PRUNING_FROM_CATALOG(ConfVars.$PARTITION_PRUNING_FROM_CATALOG,
+      "prune partitions with the partition metadata in the catalog", DEFAULT, Boolean.class, Validators.bool()),
+
   // for physical Executors
   EXTSORT_BUFFER_SIZE(ConfVars.$EXECUTOR_EXTERNAL_SORT_BUFFER_SIZE, "sort buffer size for external sort (mb)", DEFAULT,
       Long.class, Validators.min("0")),
@@ -118,6 +129,12 @@ public enum SessionVars implements ConfigKey {
       DEFAULT, Long.class, Validators.min("0")),
   HASH_GROUPBY_SIZE_LIMIT(ConfVars.$EXECUTOR_GROUPBY_INMEMORY_HASH_THRESHOLD, "limited size for hash groupby (mb)",
       DEFAULT, Long.class, Validators.min("0")),
+  QUERY_MEMORY_LIMIT(ConfVars.$QUERY_MEMORY_LIMIT,
+      "Maximum memory (mb) which a query can use in each worker. 0 means the memory limit of a worker.", DEFAULT,
+      Long.class, Validators.min("0")),
+  INTRA_TASK_PARALLELISM(ConfVars.$EXECUTOR_INTRA_TASK_PARALLELISM,
+      "the number of threads which execute a task. 1 means a task runs in a single thread.", DEFAULT,
+      Integer.class, Validators.min("1")),
   MAX_OUTPUT_FILE_SIZE(ConfVars.$MAX_OUTPUT_FILE_SIZE, "Maximum per-output file size (mb). 0 means infinite.", DEFAULT,
       Long.class, Validators.min("0")),
   NULL_CHAR(ConfVars.$TEXT_NULL, "null char of text file output", DEFAULT),
@@ -170,6 +170,18 @@ public class TajoConf extends Configuration {
     WORKER_RESOURCE_DEDICATED_MEMORY_RATIO("tajo.worker.resource.dedicated-memory-ratio", 0.8f, 
         Validators.range("0.0f", "1.0f")),
 
+    // Tajo Worker Memory Manager
+    // The ratio of the max heap which the memory-hungry operators of all running tasks can use.
+    WORKER_MEMORY_MANAGER_HEAP_RATIO("tajo.worker.memory-manager.heap-ratio", 0.7f,
+        Validators.range("0.0f", "1.0f")),
+    // The off-heap bytes of broadcast tables which are cached and shared by tasks
+    WORKER_BROADCAST_CACHE_SIZE("tajo.worker.broadcast-cache.size-mb", 256, Validators.min("0")),
+    // The off-heap bytes of the table fragments which are cached by CACHE TABLE. 0 disables the cache.
+    WORKER_TABLE_CACHE_SIZE("tajo.worker.table-cache.size-mb", 512, Validators.min("0")),
+    // The max number of tasks which a task runner receives at once. The fetch of the next task overlaps
+    // the execution of the current task.
+    WORKER_TASK_RUNNER_MAX_ASSIGNED_TASKS("tajo.worker.task-runner.max-assigned-tasks", 4, Validators.min("1")),
+
     // Tajo Worker History
     WORKER_HISTORY_EXPIRE_PERIOD("tajo.worker.history.expire-interval-minutes", 12 * 60), // 12 hours
 
@@ -181,6 +193,11 @@ public class TajoConf extends Configuration {
 
     // Catalog
     CATALOG_ADDRESS("tajo.catalog.client-rpc.address", "localhost:26005", Validators.networkAddr()),
+    CATALOG_CLIENT_CACHE_ENABLED("tajo.catalog.client.cache.enabled", true, Validators.bool()),
+    // a remote client uses its cached metadata for this interval without asking the catalog version.
+    // zero means that it asks the version for every cached lookup.
+    CATALOG_CLIENT_CACHE_VERSION_CHECK_INTERVAL("tajo.catalog.client.cache.version-check-interval-ms", 1000L,
+        Validators.min("0")),
 
 
     // for Yarn Resource Manager ----------------------------------------------
@@ -194,6 +211,8 @@ public class TajoConf extends Configuration {
 
     // Query Configuration
     QUERY_SESSION_TIMEOUT("tajo.query.session.timeout-sec", 60, Validators.min("0")),
+    /** the number of threads which handle the task and task attempt events of a query, sharded by tasks */
+    QUERYMASTER_TASK_EVENT_DISPATCHER_NUM("tajo.querymaster.task-event.dispatcher-num", 4, Validators.min("1")),
 
     // Shuffle Configuration --------------------------------------------------
     PULLSERVER_PORT("tajo.pullserver.port", 0, Validators.range("0", "65535")),
@@ -210,6 +229,9 @@ public class TajoConf extends Configuration {
     // Storage Configuration --------------------------------------------------
     ROWFILE_SYNC_INTERVAL("rowfile.sync.interval", 100),
     MINIMUM_SPLIT_SIZE("tajo.min.split.size", (long) 1),
+    STORAGE_SPLIT_THREAD_NUM("tajo.storage.split.thread-num", 16, Validators.min("1")),
+    STORAGE_SPLIT_CACHE_MAX_ENTRIES("tajo.storage.split.cache.max-entries", 100000, Validators.min("0")),
+    STORAGE_SPLIT_CACHE_TTL("tajo.storage.split.cache.ttl-sec", (long) 600, Validators.min("0")),
     // for RCFile
     HIVEUSEEXPLICITRCFILEHEADER("tajo.exec.rcfile.use.explicit.header", true, Validators.bool()),
 
@@ -258,6 +280,8 @@ public class TajoConf extends Configuration {
         "org.apache.tajo.engine.planner.global.rewriter.BaseGlobalPlanRewriteRuleProvider"),
     EXECUTOR_EXTERNAL_SORT_THREAD_NUM("tajo.executor.external-sort.thread-num", 1),
     EXECUTOR_EXTERNAL_SORT_FANOUT("tajo.executor.external-sort.fanout-num", 8),
+    // the max number of sorted inputs merged at once. More inputs are merged by an external sort in multiple passes.
+    EXECUTOR_SORTED_INPUT_MERGE_MAX_INPUTS("tajo.executor.sorted-input-merge.max-inputs", 256),
 
     EXECUTOR_INNER_JOIN_INMEMORY_HASH_TABLE_SIZE("tajo.executor.join.inner.in-memory-table-num", (long)1000000),
 
@@ -306,9 +330,19 @@ public class TajoConf extends Configuration {
     $DIST_QUERY_JOIN_PARTITION_VOLUME("tajo.dist-query.join.partition-volume-mb", 128, Validators.min("1")),
     $DIST_QUERY_GROUPBY_PARTITION_VOLUME("tajo.dist-query.groupby.partition-volume-mb", 256, Validators.min("1")),
     $DIST_QUERY_TABLE_PARTITION_VOLUME("tajo.dist-query.table-partition.task-volume-mb", 256, Validators.min("1")),
+    // zero means that small files are not combined
+    $DIST_QUERY_SCAN_COMBINE_VOLUME("tajo.dist-query.scan.combine-volume-mb", 0L, Validators.min("0")),
 
     $GROUPBY_MULTI_LEVEL_ENABLED("tajo.dist-query.groupby.multi-level-aggr", true),
 
+    // for runtime join filters
+    $DIST_QUERY_RUNTIME_FILTER_ENABLED("tajo.dist-query.join.runtime-filter.enabled", true),
+    $DIST_QUERY_RUNTIME_FILTER_BLOOM_SIZE("tajo.dist-query.join.runtime-filter.bloom-size-bytes", 128 * 1024,
+        Validators.min("8")),
+
+    // for partition pruning
+    $PARTITION_PRUNING_FROM_CATALOG("tajo.plan.partition-pruning.from-catalog", true),
+
     // for physical Executors
     $EXECUTOR_EXTERNAL_SORT_BUFFER_SIZE("tajo.executor.external-sort.buffer-mb", 200L),
     $EXECUTOR_HASH_JOIN_SIZE_THRESHOLD("tajo.executor.join.common.in-memory-hash-threshold-bytes",
@@ -320,6 +354,9 @@ public class TajoConf extends Configuration {
     $EXECUTOR_GROUPBY_INMEMORY_HASH_THRESHOLD("tajo.executor.groupby.in-memory-hash-threshold-bytes",
         (long)256 * 1048576),
     $MAX_OUTPUT_FILE_SIZE("tajo.query.max-outfile-size-mb", 0), // zero means infinite
+    $QUERY_MEMORY_LIMIT("tajo.query.memory-limit-mb", 0L), // zero means the memory limit of a worker
+    // the number of threads which execute the operator pipeline of a task
+    $EXECUTOR_INTRA_TASK_PARALLELISM("tajo.executor.intra-task.parallelism", 1, Validators.min("1")),
     $CODEGEN("tajo.executor.codegen.enabled", false), // Runtime code generation
 
     // Client -----------------------------------------------------------------
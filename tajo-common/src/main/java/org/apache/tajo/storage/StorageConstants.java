@@ -88,6 +88,19 @@ public class StorageConstants {
   public static final String AVRO_SCHEMA_LITERAL = "avro.schema.literal";
   public static final String AVRO_SCHEMA_URL = "avro.schema.url";
 
+  // Partition properties -------------------------------------------------
+  /**
+   * It is set to true if every partition of a column-partitioned table is registered in the catalog.
+   * Only such a table prunes its partitions with the catalog instead of listing its directories.
+   */
+  public static final String PARTITIONS_REGISTERED = "partitions.registered";
+
+  // CFile properties -------------------------------------------------
+  public static final String CFILE_STRIPE_ROWS = "cfile.stripe.rows";
+  public static final String DEFAULT_CFILE_STRIPE_ROWS = "65536";
+  public static final String CFILE_DICTIONARY_MAX_SIZE = "cfile.dictionary.max-size";
+  public static final String DEFAULT_CFILE_DICTIONARY_MAX_SIZE = "4096";
+
   static {
     PARQUET_DEFAULT_BLOCK_SIZE = Integer.toString(DEFAULT_BLOCK_SIZE);
     PARQUET_DEFAULT_PAGE_SIZE = Integer.toString(DEFAULT_PAGE_SIZE);
@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.util;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * A simple Bloom filter over 32-bit hash values. Two filters can be merged only if
+ * they have the same number of bits and the same number of hash functions.
+ */
+public class BloomFilter {
+  private final long [] bits;
+  private final int numBits;
+  private final int numHashFunctions;
+
+  public BloomFilter(int numBits, int numHashFunctions) {
+    Preconditions.checkArgument(numBits > 0, "The number of bits must be positive");
+    Preconditions.checkArgument(numHashFunctions > 0, "The number of hash functions must be positive");
+    this.bits = new long[(numBits + 63) >>> 6];
+    this.numBits = bits.length << 6;
+    this.numHashFunctions = numHashFunctions;
+  }
+
+  public BloomFilter(long [] bits, int numHashFunctions) {
+    Preconditions.checkArgument(bits.length > 0, "The number of bits must be positive");
+    this.bits = bits;
+    this.numBits = bits.length << 6;
+    this.numHashFunctions = numHashFunctions;
+  }
+
+  public void add(int hash) {
+    long h = mix(hash);
+    int h1 = (int) h;
+    int h2 = (int) (h >>> 32);
+    for (int i = 1; i <= numHashFunctions; i++) {
+      int combined = h1 + (i * h2);
+      int idx = (combined & Integer.MAX_VALUE) % numBits;
+      bits[idx >>> 6] |= (1L << idx);
+    }
+  }
+
+  public boolean mightContain(int hash) {
+    long h = mix(hash);
+    int h1 = (int) h;
+    int h2 = (int) (h >>> 32);
+    for (int i = 1; i <= numHashFunctions; i++) {
+      int combined = h1 + (i * h2);
+      int idx = (combined & Integer.MAX_VALUE) % numBits;
+      if ((bits[idx >>> 6] & (1L << idx)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Merges other filter into this filter. After merging, this filter contains all keys of both.
+   */
+  public void merge(BloomFilter other) {
+    Preconditions.checkArgument(numBits == other.numBits && numHashFunctions == other.numHashFunctions,
+        "Bloom filters with different sizes cannot be merged");
+    for (int i = 0; i < bits.length; i++) {
+      bits[i] |= other.bits[i];
+    }
+  }
+
+  /**
+   * @return The ratio of set bits. As it gets closer to 1, the false positive rate gets higher.
+   */
+  public double getFillRatio() {
+    long setBits = 0;
+    for (long word : bits) {
+      setBits += Long.bitCount(word);
+    }
+    return (double) setBits / numBits;
+  }
+
+  public int getNumBits() {
+    return numBits;
+  }
+
+  public int getNumHashFunctions() {
+    return numHashFunctions;
+  }
+
+  public long [] getBits() {
+    return bits;
+  }
+
+  public void clear() {
+    Arrays.fill(bits, 0L);
+  }
+
+  /**
+   * The finalization step of 64-bit MurmurHash3. It spreads a 32-bit hash value into 64 bits
+   * so that two independent hash values can be derived from it.
+   */
+  private static long mix(int hash) {
+    long k = hash;
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+}
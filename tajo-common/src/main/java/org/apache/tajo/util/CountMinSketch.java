@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.util;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A count-min sketch which estimates the frequencies of 64-bit hash values.
+ * An estimate never underestimates the true frequency, and it overestimates at most
+ * <code>e / width * N</code> with the probability of <code>1 - exp(-depth)</code>,
+ * where <code>N</code> is the total count. Two sketches can be merged only if they have the same dimensions.
+ */
+public class CountMinSketch {
+  private final int depth;
+  private final int width;
+  private final long [] counts;
+  private long totalCount;
+
+  public CountMinSketch(int depth, int width) {
+    Preconditions.checkArgument(depth > 0 && width > 0, "The depth and width must be positive");
+    this.depth = depth;
+    this.width = width;
+    this.counts = new long[depth * width];
+  }
+
+  public CountMinSketch(int depth, int width, long [] counts) {
+    Preconditions.checkArgument(counts.length == depth * width, "The number of counters is mismatched");
+    this.depth = depth;
+    this.width = width;
+    this.counts = counts;
+    for (int i = 0; i < width; i++) {
+      totalCount += counts[i];
+    }
+  }
+
+  public int getDepth() {
+    return depth;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * @return The counters in row-major order
+   */
+  public long [] getCounts() {
+    return counts;
+  }
+
+  public long getTotalCount() {
+    return totalCount;
+  }
+
+  public void add(long hash, long count) {
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 0; i < depth; i++) {
+      counts[i * width + index(h1, h2, i)] += count;
+    }
+    totalCount += count;
+  }
+
+  public long estimate(long hash) {
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    long estimate = Long.MAX_VALUE;
+    for (int i = 0; i < depth; i++) {
+      estimate = Math.min(estimate, counts[i * width + index(h1, h2, i)]);
+    }
+    return estimate;
+  }
+
+  private int index(int h1, int h2, int row) {
+    int combined = h1 + (row * h2);
+    return (combined & Integer.MAX_VALUE) % width;
+  }
+
+  /**
+   * Merges other sketch into this sketch. After merging, this sketch counts the values of both.
+   */
+  public void merge(CountMinSketch other) {
+    Preconditions.checkArgument(depth == other.depth && width == other.width,
+        "Count-min sketches with different dimensions cannot be merged");
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] += other.counts[i];
+    }
+    totalCount += other.totalCount;
+  }
+}
@@ -0,0 +1,229 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.util;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * A HyperLogLog sketch which estimates the number of distinct 64-bit hash values.
+ * The standard error is about <code>1.04 / sqrt(2 ^ precision)</code>.
+ *
+ * A sketch starts with a sparse representation, which keeps only the non-zero registers in a sorted array.
+ * It is converted to the dense array of all registers when the sparse one gets larger than a quarter of it,
+ * so a sketch of a small group is much smaller than the dense registers.
+ * Two sketches can be merged only if they have the same precision.
+ */
+public class HyperLogLog {
+  public static final int MIN_PRECISION = 4;
+  public static final int MAX_PRECISION = 18;
+
+  private final int precision;
+  private final int registerNum;
+
+  /** each entry is (register index << 8 | rank), sorted by register index. null if dense. */
+  private int [] sparse;
+  private int sparseNum;
+  /** null if sparse */
+  private byte [] registers;
+
+  public HyperLogLog(int precision) {
+    Preconditions.checkArgument(precision >= MIN_PRECISION && precision <= MAX_PRECISION,
+        "The precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION);
+    this.precision = precision;
+    this.registerNum = 1 << precision;
+    this.sparse = new int[8];
+    this.sparseNum = 0;
+  }
+
+  /**
+   * Creates a dense sketch from registers
+   */
+  public HyperLogLog(int precision, byte [] registers) {
+    this(precision);
+    Preconditions.checkArgument(registers.length == registerNum, "The number of registers is mismatched");
+    this.sparse = null;
+    this.registers = registers;
+  }
+
+  /**
+   * Creates a sparse sketch from sparse entries
+   */
+  public HyperLogLog(int precision, int [] sparseEntries) {
+    this(precision);
+    this.sparse = sparseEntries.length > 0 ? sparseEntries.clone() : new int[8];
+    this.sparseNum = sparseEntries.length;
+  }
+
+  public int getPrecision() {
+    return precision;
+  }
+
+  public boolean isSparse() {
+    return registers == null;
+  }
+
+  /**
+   * @return The dense registers. It must be called only for a dense sketch.
+   */
+  public byte [] getRegisters() {
+    Preconditions.checkState(!isSparse(), "A sparse sketch does not have dense registers");
+    return registers;
+  }
+
+  /**
+   * @return The non-zero registers, each of which is (register index << 8 | rank).
+   * It must be called only for a sparse sketch.
+   */
+  public int [] getSparseEntries() {
+    Preconditions.checkState(isSparse(), "A dense sketch does not have sparse entries");
+    return Arrays.copyOf(sparse, sparseNum);
+  }
+
+  public void add(long hash) {
+    int index = (int) (hash >>> (64 - precision));
+    // the sentinel bit bounds the rank when the remaining bits are all zero
+    long remaining = (hash << precision) | (1L << (precision - 1));
+    int rank = Long.numberOfLeadingZeros(remaining) + 1;
+    update(index, rank);
+  }
+
+  private void update(int index, int rank) {
+    if (registers != null) {
+      if (registers[index] < rank) {
+        registers[index] = (byte) rank;
+      }
+      return;
+    }
+
+    int pos = findSparse(index);
+    if (pos >= 0) {
+      if ((sparse[pos] & 0xff) < rank) {
+        sparse[pos] = (index << 8) | rank;
+      }
+      return;
+    }
+
+    int insertAt = -(pos + 1);
+    if (sparseNum == sparse.length) {
+      sparse = Arrays.copyOf(sparse, sparse.length * 2);
+    }
+    System.arraycopy(sparse, insertAt, sparse, insertAt + 1, sparseNum - insertAt);
+    sparse[insertAt] = (index << 8) | rank;
+    sparseNum++;
+
+    // a sparse entry takes 4 bytes while a register takes a byte
+    if (sparseNum > registerNum / 4) {
+      toDense();
+    }
+  }
+
+  private int findSparse(int index) {
+    int low = 0;
+    int high = sparseNum - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int midIndex = sparse[mid] >>> 8;
+      if (midIndex < index) {
+        low = mid + 1;
+      } else if (midIndex > index) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  private void toDense() {
+    registers = new byte[registerNum];
+    for (int i = 0; i < sparseNum; i++) {
+      registers[sparse[i] >>> 8] = (byte) (sparse[i] & 0xff);
+    }
+    sparse = null;
+    sparseNum = 0;
+  }
+
+  /**
+   * Merges other sketch into this sketch. After merging, this sketch counts the values of both.
+   */
+  public void merge(HyperLogLog other) {
+    Preconditions.checkArgument(precision == other.precision,
+        "HyperLogLog sketches with different precisions cannot be merged");
+
+    if (other.isSparse()) {
+      for (int i = 0; i < other.sparseNum; i++) {
+        update(other.sparse[i] >>> 8, other.sparse[i] & 0xff);
+      }
+    } else {
+      if (isSparse()) {
+        toDense();
+      }
+      for (int i = 0; i < registerNum; i++) {
+        if (registers[i] < other.registers[i]) {
+          registers[i] = other.registers[i];
+        }
+      }
+    }
+  }
+
+  /**
+   * @return The estimated number of distinct values
+   */
+  public long estimate() {
+    double sum = 0;
+    int zeros = 0;
+    if (isSparse()) {
+      zeros = registerNum - sparseNum;
+      sum = zeros;
+      for (int i = 0; i < sparseNum; i++) {
+        sum += 1.0d / (1L << (sparse[i] & 0xff));
+      }
+    } else {
+      for (byte register : registers) {
+        if (register == 0) {
+          zeros++;
+        }
+        sum += 1.0d / (1L << register);
+      }
+    }
+
+    double estimate = alpha() * registerNum * registerNum / sum;
+    if (estimate <= 2.5d * registerNum && zeros > 0) {
+      // linear counting is more accurate for small cardinalities
+      estimate = registerNum * Math.log((double) registerNum / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  private double alpha() {
+    switch (precision) {
+    case 4:
+      return 0.673d;
+    case 5:
+      return 0.697d;
+    case 6:
+      return 0.709d;
+    default:
+      return 0.7213d / (1.0d + 1.079d / registerNum);
+    }
+  }
+}
@@ -583,6 +583,53 @@ public class NumberUtil {
     }
   }
 
+  /** the powers of ten which are exactly represented by floats */
+  private static final float [] FLOAT_POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f};
+
+  /**
+   * Parses the byte buffer argument as a float value. A decimal number of at most 7 digits (e.g., -1234.567)
+   * is computed exactly by a float division, and the others are parsed by {@link Float#parseFloat(String)}.
+   * So, the result is always the same as {@link Float#parseFloat(String)}, unlike a double value cast to a float.
+   *
+   * @return float, the value represented by the argument
+   * @throws NumberFormatException if the argument could not be parsed as a float
+   */
+  public static float parseFloat(ByteBuf bytes) {
+    int start = bytes.readerIndex();
+    int end = start + bytes.readableBytes();
+    int offset = start;
+
+    boolean negative = false;
+    if (offset < end && (bytes.getByte(offset) == '-' || bytes.getByte(offset) == '+')) {
+      negative = bytes.getByte(offset) == '-';
+      offset++;
+    }
+
+    int mantissa = 0;
+    int digits = 0;
+    int scale = -1; // the number of digits after the decimal point
+    for (; offset < end; offset++) {
+      byte b = bytes.getByte(offset);
+      if (isDigit(b) && digits < 7) { // 9,999,999 is less than 2^24, so the mantissa is exact
+        mantissa = mantissa * 10 + (b - '0');
+        digits++;
+        if (scale >= 0) {
+          scale++;
+        }
+      } else if (b == '.' && scale < 0) {
+        scale = 0;
+      } else {
+        break;
+      }
+    }
+
+    if (offset < end || digits == 0) {
+      return Float.parseFloat(bytes.toString(start, end - start, Charset.defaultCharset()));
+    }
+    float value = scale > 0 ? mantissa / FLOAT_POWERS_OF_TEN[scale] : mantissa;
+    return negative ? -value : value;
+  }
+
   /**
    * Parses the byte array argument as if it was a double value and returns the
    * result. Throws NumberFormatException if the byte buffer does not represent a
@@ -943,7 +990,7 @@ public class NumberUtil {
    */
   public static long parseLong(ByteBuf bytes, int start, int length, int radix) {
     if (!PlatformDependent.hasUnsafe()) {
-      return parseInt(bytes.array(), start, length);
+      return parseLong(bytes.array(), start, length);
     }
 
     if (bytes == null) {
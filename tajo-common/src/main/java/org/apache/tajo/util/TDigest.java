@@ -0,0 +1,258 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.util;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A merging t-digest which estimates quantiles of a stream of double values.
+ * It keeps a bounded number of centroids whose sizes are small near both tails,
+ * so the relative error of extreme quantiles is much smaller than that of the median.
+ *
+ * Added values are buffered and merged into the centroids in batches. Two digests can be merged
+ * by merging their centroids in the same way.
+ */
+public class TDigest {
+  public static final double DEFAULT_COMPRESSION = 100;
+
+  private final double compression;
+
+  private double [] means;
+  private double [] weights;
+  private int centroidNum = 0;
+  private double totalWeight = 0;
+
+  private double [] bufferedMeans;
+  private double [] bufferedWeights;
+  private int bufferedNum = 0;
+
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  public TDigest() {
+    this(DEFAULT_COMPRESSION);
+  }
+
+  public TDigest(double compression) {
+    Preconditions.checkArgument(compression >= 10, "The compression must be larger than or equal to 10");
+    this.compression = compression;
+    int capacity = (int) Math.ceil(compression) * 2;
+    this.means = new double[capacity];
+    this.weights = new double[capacity];
+    this.bufferedMeans = new double[capacity * 4];
+    this.bufferedWeights = new double[capacity * 4];
+  }
+
+  /**
+   * Creates a digest from centroids, which must be sorted by their means.
+   */
+  public TDigest(double compression, double min, double max, double [] means, double [] weights) {
+    this(compression);
+    Preconditions.checkArgument(means.length == weights.length, "The numbers of means and weights are mismatched");
+    if (means.length > this.means.length) {
+      this.means = new double[means.length];
+      this.weights = new double[means.length];
+    }
+    System.arraycopy(means, 0, this.means, 0, means.length);
+    System.arraycopy(weights, 0, this.weights, 0, weights.length);
+    this.centroidNum = means.length;
+    for (double weight : weights) {
+      totalWeight += weight;
+    }
+    this.min = min;
+    this.max = max;
+  }
+
+  public double getCompression() {
+    return compression;
+  }
+
+  public void add(double value) {
+    add(value, 1);
+  }
+
+  private void add(double mean, double weight) {
+    if (bufferedNum == bufferedMeans.length) {
+      compress();
+    }
+    bufferedMeans[bufferedNum] = mean;
+    bufferedWeights[bufferedNum] = weight;
+    bufferedNum++;
+    min = Math.min(min, mean);
+    max = Math.max(max, mean);
+  }
+
+  /**
+   * Merges other digest into this digest. After merging, this digest summarizes the values of both.
+   */
+  public void merge(TDigest other) {
+    other.compress();
+    for (int i = 0; i < other.centroidNum; i++) {
+      add(other.means[i], other.weights[i]);
+    }
+    if (other.centroidNum > 0) {
+      min = Math.min(min, other.min);
+      max = Math.max(max, other.max);
+    }
+  }
+
+  /**
+   * Merges the buffered values into the centroids.
+   */
+  private void compress() {
+    if (bufferedNum == 0) {
+      return;
+    }
+
+    int num = centroidNum + bufferedNum;
+    double [] allMeans = new double[num];
+    double [] allWeights = new double[num];
+    System.arraycopy(means, 0, allMeans, 0, centroidNum);
+    System.arraycopy(weights, 0, allWeights, 0, centroidNum);
+    System.arraycopy(bufferedMeans, 0, allMeans, centroidNum, bufferedNum);
+    System.arraycopy(bufferedWeights, 0, allWeights, centroidNum, bufferedNum);
+    sortByMeans(allMeans, allWeights);
+
+    double total = totalWeight;
+    for (int i = 0; i < bufferedNum; i++) {
+      total += bufferedWeights[i];
+    }
+
+    double [] newMeans = new double[Math.max(num, means.length)];
+    double [] newWeights = new double[newMeans.length];
+    int newNum = 0;
+    newMeans[0] = allMeans[0];
+    newWeights[0] = allWeights[0];
+    double weightSoFar = 0;
+
+    for (int i = 1; i < num; i++) {
+      double proposed = newWeights[newNum] + allWeights[i];
+      double q = (weightSoFar + proposed / 2) / total;
+      // a centroid near the tails must be smaller than one near the median
+      double maxWeight = 4 * total * q * (1 - q) / compression;
+      if (proposed <= maxWeight) {
+        newMeans[newNum] += (allMeans[i] - newMeans[newNum]) * allWeights[i] / proposed;
+        newWeights[newNum] = proposed;
+      } else {
+        weightSoFar += newWeights[newNum];
+        newNum++;
+        newMeans[newNum] = allMeans[i];
+        newWeights[newNum] = allWeights[i];
+      }
+    }
+
+    this.means = newMeans;
+    this.weights = newWeights;
+    this.centroidNum = newNum + 1;
+    this.totalWeight = total;
+    this.bufferedNum = 0;
+  }
+
+  private static void sortByMeans(double [] means, double [] weights) {
+    Integer [] order = new Integer[means.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    final double [] keys = means;
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer o1, Integer o2) {
+        return Double.compare(keys[o1], keys[o2]);
+      }
+    });
+
+    double [] sortedMeans = new double[means.length];
+    double [] sortedWeights = new double[weights.length];
+    for (int i = 0; i < order.length; i++) {
+      sortedMeans[i] = means[order[i]];
+      sortedWeights[i] = weights[order[i]];
+    }
+    System.arraycopy(sortedMeans, 0, means, 0, means.length);
+    System.arraycopy(sortedWeights, 0, weights, 0, weights.length);
+  }
+
+  public long size() {
+    compress();
+    return (long) totalWeight;
+  }
+
+  public double getMin() {
+    return min;
+  }
+
+  public double getMax() {
+    return max;
+  }
+
+  /**
+   * @return The means of centroids in ascending order
+   */
+  public double [] getMeans() {
+    compress();
+    return Arrays.copyOf(means, centroidNum);
+  }
+
+  /**
+   * @return The weights of centroids in the order of {@link #getMeans()}
+   */
+  public double [] getWeights() {
+    compress();
+    return Arrays.copyOf(weights, centroidNum);
+  }
+
+  /**
+   * Estimates the value at the given quantile.
+   *
+   * @param q A quantile between 0 and 1
+   * @return The estimated value, or NaN if no value is added.
+   */
+  public double quantile(double q) {
+    Preconditions.checkArgument(q >= 0 && q <= 1, "The quantile must be between 0 and 1");
+    compress();
+    if (centroidNum == 0) {
+      return Double.NaN;
+    } else if (centroidNum == 1) {
+      return means[0];
+    }
+
+    double index = q * totalWeight;
+    if (index < weights[0] / 2) {
+      // interpolate between the minimum and the center of the first centroid
+      return min + (means[0] - min) * index / (weights[0] / 2);
+    }
+
+    double weightSoFar = weights[0] / 2;
+    for (int i = 0; i < centroidNum - 1; i++) {
+      double delta = (weights[i] + weights[i + 1]) / 2;
+      if (weightSoFar + delta > index) {
+        return means[i] + (means[i + 1] - means[i]) * (index - weightSoFar) / delta;
+      }
+      weightSoFar += delta;
+    }
+
+    // interpolate between the center of the last centroid and the maximum
+    double lastHalf = weights[centroidNum - 1] / 2;
+    double ratio = Math.min(1, (index - weightSoFar) / lastHalf);
+    return means[centroidNum - 1] + (max - means[centroidNum - 1]) * ratio;
+  }
+}
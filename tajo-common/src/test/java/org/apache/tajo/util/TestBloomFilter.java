@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestBloomFilter {
+
+  @Test
+  public void testAddAndMightContain() {
+    BloomFilter filter = new BloomFilter(1 << 16, 3);
+    for (int i = 0; i < 1000; i++) {
+      filter.add(MurmurHash.hash(i));
+    }
+
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(filter.mightContain(MurmurHash.hash(i)));
+    }
+
+    int falsePositives = 0;
+    for (int i = 1000; i < 11000; i++) {
+      if (filter.mightContain(MurmurHash.hash(i))) {
+        falsePositives++;
+      }
+    }
+    // 1000 keys over 65536 bits with 3 hash functions are expected to yield about 0.01% false positives.
+    assertTrue(falsePositives < 100);
+  }
+
+  @Test
+  public void testMerge() {
+    BloomFilter filter1 = new BloomFilter(1 << 12, 3);
+    BloomFilter filter2 = new BloomFilter(1 << 12, 3);
+
+    for (int i = 0; i < 100; i++) {
+      filter1.add(MurmurHash.hash(i));
+      filter2.add(MurmurHash.hash(i + 100));
+    }
+    assertFalse(filter1.mightContain(MurmurHash.hash(150)) && filter1.mightContain(MurmurHash.hash(160)) &&
+        filter1.mightContain(MurmurHash.hash(170)));
+
+    filter1.merge(filter2);
+    for (int i = 0; i < 200; i++) {
+      assertTrue(filter1.mightContain(MurmurHash.hash(i)));
+    }
+
+    BloomFilter copied = new BloomFilter(filter1.getBits().clone(), filter1.getNumHashFunctions());
+    assertEquals(filter1.getNumBits(), copied.getNumBits());
+    assertEquals(filter1.getFillRatio(), copied.getFillRatio(), 0.0d);
+    for (int i = 0; i < 200; i++) {
+      assertTrue(copied.mightContain(MurmurHash.hash(i)));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMergeDifferentSize() {
+    BloomFilter filter1 = new BloomFilter(1 << 12, 3);
+    BloomFilter filter2 = new BloomFilter(1 << 13, 3);
+    filter1.merge(filter2);
+  }
+}
@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestHyperLogLog {
+
+  private static long hash(long value) {
+    return MurmurHash.hash64(value);
+  }
+
+  @Test
+  public void testSparseEstimate() {
+    HyperLogLog sketch = new HyperLogLog(14);
+    for (int i = 0; i < 1000; i++) {
+      sketch.add(hash(i));
+      sketch.add(hash(i)); // duplicated values must not be counted
+    }
+    assertTrue(sketch.isSparse());
+    assertEquals(1000, sketch.estimate(), 1000 * 0.02);
+  }
+
+  @Test
+  public void testDenseEstimate() {
+    HyperLogLog sketch = new HyperLogLog(14);
+    for (int i = 0; i < 1000000; i++) {
+      sketch.add(hash(i));
+    }
+    assertFalse(sketch.isSparse());
+    // the standard error of precision 14 is about 0.81%
+    assertEquals(1000000, sketch.estimate(), 1000000 * 0.03);
+  }
+
+  @Test
+  public void testMerge() {
+    HyperLogLog sparse = new HyperLogLog(14);
+    HyperLogLog dense = new HyperLogLog(14);
+    for (int i = 0; i < 500; i++) {
+      sparse.add(hash(i));
+    }
+    for (int i = 250; i < 100000; i++) {
+      dense.add(hash(i));
+    }
+
+    HyperLogLog copied = new HyperLogLog(14, sparse.getSparseEntries());
+    assertEquals(sparse.estimate(), copied.estimate());
+    copied.merge(new HyperLogLog(14, dense.getRegisters().clone()));
+    assertFalse(copied.isSparse());
+    assertEquals(100000, copied.estimate(), 100000 * 0.03);
+
+    dense.merge(sparse);
+    assertEquals(copied.estimate(), dense.estimate());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMergeDifferentPrecision() {
+    new HyperLogLog(12).merge(new HyperLogLog(14));
+  }
+}
@@ -18,6 +18,8 @@
 
 package org.apache.tajo.util;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.junit.Test;
 
 import java.util.Random;
@@ -90,4 +92,35 @@ public class TestNumberUtil {
     byte[] bytes5 = "0123456789.012345E012345".getBytes();
     assertEquals(6789.012345E01, NumberUtil.parseDouble(bytes5, 6, 14), 0.0);
   }
+
+  @Test
+  public void testParseFloat() {
+    String [] values = {"0", "-0", "1.5", "-1234.567", "+3.1415926", "0.1", "16777217", "1.00000017881393432617187499",
+        "3.4028235E38", "1e-45", " 7.25", "NaN", "-Infinity", "123456.7891", ".5", "5."};
+    for (String value : values) {
+      ByteBuf buf = Unpooled.copiedBuffer(value.getBytes());
+      assertEquals(value, Float.floatToIntBits(Float.parseFloat(value)),
+          Float.floatToIntBits(NumberUtil.parseFloat(buf)));
+      buf.release();
+    }
+
+    Random random = new Random();
+    for (int i = 0; i < 10000; i++) {
+      String value = Integer.toString(random.nextInt(20000000) - 10000000);
+      int point = random.nextInt(value.length() + 1);
+      value = value.substring(0, point) + "." + value.substring(point);
+      if (value.startsWith(".-")) {
+        continue;
+      }
+      ByteBuf buf = Unpooled.copiedBuffer(value.getBytes());
+      assertEquals(value, Float.floatToIntBits(Float.parseFloat(value)),
+          Float.floatToIntBits(NumberUtil.parseFloat(buf)));
+      buf.release();
+    }
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void testParseInvalidFloat() {
+    NumberUtil.parseFloat(Unpooled.copiedBuffer("1.2.3".getBytes()));
+  }
 }
@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestTDigest {
+
+  @Test
+  public void testQuantile() {
+    TDigest digest = new TDigest();
+    Random random = new Random(1234);
+    for (int i = 0; i < 100000; i++) {
+      digest.add(random.nextDouble() * 1000);
+    }
+
+    assertEquals(100000, digest.size());
+    assertTrue(digest.getMeans().length < 1000);
+    assertEquals(500, digest.quantile(0.5), 10);
+    assertEquals(990, digest.quantile(0.99), 2);
+    assertEquals(10, digest.quantile(0.01), 2);
+    assertEquals(digest.getMin(), digest.quantile(0), 0.0d);
+    assertEquals(digest.getMax(), digest.quantile(1), 0.0d);
+  }
+
+  @Test
+  public void testEmptyAndSingle() {
+    TDigest digest = new TDigest();
+    assertTrue(Double.isNaN(digest.quantile(0.5)));
+    digest.add(7);
+    assertEquals(7, digest.quantile(0.5), 0.0d);
+  }
+
+  @Test
+  public void testMerge() {
+    TDigest digest1 = new TDigest();
+    TDigest digest2 = new TDigest();
+    for (int i = 0; i < 50000; i++) {
+      digest1.add(i);
+      digest2.add(i + 50000);
+    }
+
+    TDigest copied = new TDigest(digest2.getCompression(), digest2.getMin(), digest2.getMax(),
+        digest2.getMeans(), digest2.getWeights());
+    digest1.merge(copied);
+    assertEquals(100000, digest1.size());
+    assertEquals(0, digest1.getMin(), 0.0d);
+    assertEquals(99999, digest1.getMax(), 0.0d);
+    assertEquals(50000, digest1.quantile(0.5), 500);
+    assertEquals(99000, digest1.quantile(0.99), 200);
+  }
+}
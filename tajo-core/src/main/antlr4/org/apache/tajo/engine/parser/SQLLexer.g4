@@ -197,10 +197,12 @@ WINDOW : W I N D O W;
 AVG : A V G;
 ADD: A D D;
 ALTER : A L T E R;
+ANALYZE : A N A L Y Z E;
 
 BETWEEN : B E T W E E N;
 BY : B Y;
 
+CACHE : C A C H E;
 CATALOG : C A T A L O G;
 CENTURY : C E N T U R Y;
 CHARACTER : C H A R A C T E R;
@@ -284,6 +286,7 @@ RANGE : R A N G E;
 RANK : R A N K;
 REGEXP : R E G E X P;
 RENAME : R E N A M E;
+REPAIR : R E P A I R;
 RESET : R E S E T;
 RLIKE : R L I K E;
 ROLLUP : R O L L U P;
@@ -311,6 +314,7 @@ TO : T O;
 TRUNCATE : T R U N C A T E;
 
 UNBOUNDED : U N B O U N D E D;
+UNCACHE : U N C A C H E;
 UNKNOWN : U N K N O W N;
 
 VALUES : V A L U E S;
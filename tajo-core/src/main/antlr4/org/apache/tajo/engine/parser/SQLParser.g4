@@ -39,7 +39,7 @@ sql
   ;
 
 explain_clause
-  : EXPLAIN
+  : EXPLAIN (ANALYZE)?
   ;
 
 statement
@@ -74,6 +74,7 @@ schema_statement
   | alter_tablespace_statement
   | alter_table_statement
   | truncate_table_statement
+  | cache_table_statement
   ;
 
 index_statement
@@ -200,6 +201,10 @@ truncate_table_statement
   : TRUNCATE (TABLE)? table_name (COMMA table_name)*
   ;
 
+cache_table_statement
+  : (CACHE | u=UNCACHE) TABLE table_name
+  ;
+
 /*
 ===============================================================================
   11.21 <data types>
@@ -228,8 +233,10 @@ nonreserved_keywords
   : ADD
   | AVG
   | ALTER
+  | ANALYZE
   | BETWEEN
   | BY
+  | CACHE
   | CATALOG
   | CENTURY
   | CHARACTER
@@ -297,6 +304,7 @@ nonreserved_keywords
   | RANK
   | REGEXP
   | RENAME
+  | REPAIR
   | RESET
   | RLIKE
   | ROLLUP
@@ -320,6 +328,7 @@ nonreserved_keywords
   | TRIM
   | TO
   | UNBOUNDED
+  | UNCACHE
   | UNKNOWN
   | VALUES
   | VAR_POP
@@ -1593,4 +1602,16 @@ alter_table_statement
   : ALTER TABLE table_name RENAME TO table_name
   | ALTER TABLE table_name RENAME COLUMN column_name TO column_name
   | ALTER TABLE table_name ADD COLUMN field_element
+  | ALTER TABLE table_name ADD PARTITION LEFT_PAREN partition_column_value_list RIGHT_PAREN
+    (LOCATION path=Character_String_Literal)?
+  | ALTER TABLE table_name DROP PARTITION LEFT_PAREN partition_column_value_list RIGHT_PAREN
+  | ALTER TABLE table_name REPAIR PARTITION
+  ;
+
+partition_column_value_list
+  : partition_column_value (COMMA partition_column_value)*
+  ;
+
+partition_column_value
+  : identifier EQUAL (Character_String_Literal | signed_numerical_literal | boolean_literal)
   ;
@@ -0,0 +1,38 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.exception;
+
+import org.apache.tajo.SessionVars;
+import org.apache.tajo.util.FileUtil;
+
+/**
+ * It is thrown when an operator cannot reserve memory from the memory budget of its task, query, or worker.
+ */
+public class MemoryExhaustedException extends RuntimeException {
+  private static final long serialVersionUID = -2585245839434562573L;
+
+  public MemoryExhaustedException(String poolName, long requested, long used, long limit) {
+    super("Memory exhausted in " + poolName + ": cannot reserve "
+        + FileUtil.humanReadableByteCount(requested, false) + " (used: "
+        + FileUtil.humanReadableByteCount(used, false) + ", limit: "
+        + (limit == Long.MAX_VALUE ? "unlimited" : FileUtil.humanReadableByteCount(limit, false))
+        + "). Increase the memory of workers or the session variable '"
+        + SessionVars.QUERY_MEMORY_LIMIT.keyname() + "'.");
+  }
+}
@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.builtin;
+
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.datum.ProtobufDatum;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.plan.function.AggFunction;
+import org.apache.tajo.plan.function.FunctionContext;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.util.TDigest;
+
+import static org.apache.tajo.InternalTypes.TDigestProto;
+
+/**
+ * approx_percentile(column, percentile) function. Each partial result is a t-digest,
+ * and the percentile is carried along with it to the final phase.
+ */
+@Description(
+  functionName = "approx_percentile",
+  description = "The approximate value at the given percentile between 0 and 1 of a set of numbers.",
+  example = "> SELECT approx_percentile(expr, 0.99);",
+  returnType = Type.FLOAT8,
+  paramTypes = {@ParamTypes(paramTypes = {Type.FLOAT8, Type.FLOAT8})}
+)
+public class ApproxPercentile extends AggFunction<Datum> {
+
+  public ApproxPercentile() {
+    super(new Column[] {
+        new Column("expr", Type.FLOAT8),
+        new Column("percentile", Type.FLOAT8)
+    });
+  }
+
+  public ApproxPercentile(Column[] definedArgs) {
+    super(definedArgs);
+  }
+
+  @Override
+  public FunctionContext newContext() {
+    return new TDigestContext();
+  }
+
+  /**
+   * @return The percentile which is given as the second parameter
+   */
+  protected double getPercentile(Tuple params) {
+    Datum percentile = params.get(1);
+    if (percentile.isNull()) {
+      throw new IllegalArgumentException("The percentile of approx_percentile() must not be NULL");
+    }
+    double value = percentile.asFloat8();
+    if (value < 0 || value > 1) {
+      throw new IllegalArgumentException("The percentile of approx_percentile() must be between 0 and 1");
+    }
+    return value;
+  }
+
+  @Override
+  public void eval(FunctionContext ctx, Tuple params) {
+    TDigestContext digestCtx = (TDigestContext) ctx;
+    if (Double.isNaN(digestCtx.percentile)) {
+      digestCtx.percentile = getPercentile(params);
+    }
+    Datum datum = params.get(0);
+    if (datum.isNotNull()) {
+      digestCtx.digest.add(datum.asFloat8());
+    }
+  }
+
+  @Override
+  public void merge(FunctionContext ctx, Tuple part) {
+    Datum d = part.get(0);
+    if (d instanceof NullDatum) {
+      return;
+    }
+    TDigestContext digestCtx = (TDigestContext) ctx;
+    TDigestProto proto = (TDigestProto) ((ProtobufDatum) d).get();
+    double [] means = new double[proto.getMeansCount()];
+    double [] weights = new double[proto.getWeightsCount()];
+    for (int i = 0; i < means.length; i++) {
+      means[i] = proto.getMeans(i);
+      weights[i] = proto.getWeights(i);
+    }
+    digestCtx.digest.merge(new TDigest(proto.getCompression(), proto.getMin(), proto.getMax(), means, weights));
+    if (proto.hasPercentile()) {
+      digestCtx.percentile = proto.getPercentile();
+    }
+  }
+
+  @Override
+  public Datum getPartialResult(FunctionContext ctx) {
+    TDigestContext digestCtx = (TDigestContext) ctx;
+    TDigest digest = digestCtx.digest;
+    TDigestProto.Builder builder = TDigestProto.newBuilder();
+    builder.setCompression(digest.getCompression());
+    builder.setMin(digest.getMin());
+    builder.setMax(digest.getMax());
+    for (double mean : digest.getMeans()) {
+      builder.addMeans(mean);
+    }
+    for (double weight : digest.getWeights()) {
+      builder.addWeights(weight);
+    }
+    if (!Double.isNaN(digestCtx.percentile)) {
+      builder.setPercentile(digestCtx.percentile);
+    }
+    return new ProtobufDatum(builder.build());
+  }
+
+  @Override
+  public DataType getPartialResultType() {
+    return CatalogUtil.newDataType(Type.PROTOBUF, TDigestProto.class.getName());
+  }
+
+  @Override
+  public Datum terminate(FunctionContext ctx) {
+    TDigestContext digestCtx = (TDigestContext) ctx;
+    if (digestCtx.digest.size() == 0 || Double.isNaN(digestCtx.percentile)) {
+      return NullDatum.get();
+    }
+    return DatumFactory.createFloat8(digestCtx.digest.quantile(digestCtx.percentile));
+  }
+
+  protected class TDigestContext implements FunctionContext {
+    TDigest digest = new TDigest();
+    double percentile = Double.NaN;
+  }
+}
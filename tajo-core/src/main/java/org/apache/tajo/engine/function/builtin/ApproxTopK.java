@@ -0,0 +1,290 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.builtin;
+
+import com.google.common.base.Charsets;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.datum.ProtobufDatum;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.plan.function.AggFunction;
+import org.apache.tajo.plan.function.FunctionContext;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.util.CountMinSketch;
+import org.apache.tajo.util.MurmurHash;
+
+import java.util.*;
+
+import static org.apache.tajo.InternalTypes.TopKSummaryProto;
+
+/**
+ * approx_top_k(column, k) function. In the first phase, the frequencies are counted by a count-min sketch, and
+ * a bounded number of candidates which have the highest estimated frequencies are kept. A partial result carries
+ * only the candidates, their estimated frequencies, and an upper bound of the frequency of the other values.
+ * The result is a JSON object of the top-k values and their estimated frequencies in descending order.
+ */
+@Description(
+  functionName = "approx_top_k",
+  description = "The approximate k most frequent non-NULL values and their frequencies.",
+  example = "> SELECT approx_top_k(expr, 10);",
+  returnType = Type.TEXT,
+  paramTypes = {@ParamTypes(paramTypes = {Type.ANY, Type.INT4})}
+)
+public class ApproxTopK extends AggFunction<Datum> {
+  public static final int DEPTH = 4;
+  public static final int WIDTH = 1024;
+  /** the number of candidates kept for each k, which makes the top-k robust to the order of values */
+  public static final int CANDIDATES_PER_K = 4;
+  public static final int MAX_K = 1000;
+
+  public ApproxTopK() {
+    super(new Column[] {
+        new Column("expr", Type.ANY),
+        new Column("k", Type.INT4)
+    });
+  }
+
+  @Override
+  public FunctionContext newContext() {
+    return new TopKContext();
+  }
+
+  @Override
+  public void eval(FunctionContext ctx, Tuple params) {
+    TopKContext topKCtx = (TopKContext) ctx;
+    if (topKCtx.k == 0) {
+      Datum k = params.get(1);
+      if (k.isNull() || k.asInt4() <= 0 || k.asInt4() > MAX_K) {
+        throw new IllegalArgumentException("The k of approx_top_k() must be between 1 and " + MAX_K);
+      }
+      topKCtx.k = k.asInt4();
+    }
+    if (topKCtx.sketch == null) {
+      topKCtx.sketch = new CountMinSketch(DEPTH, WIDTH);
+    }
+
+    Datum datum = params.get(0);
+    if (datum.isNotNull()) {
+      String value = datum.asChars();
+      byte [] bytes = value.getBytes(Charsets.UTF_8);
+      long hash = MurmurHash.hash64(bytes, bytes.length);
+      topKCtx.sketch.add(hash, 1);
+      topKCtx.offer(value, topKCtx.sketch.estimate(hash));
+    }
+  }
+
+  /**
+   * A value which is not reported by a partial result is assumed to have the upper bound of the partial result.
+   * So, merged estimates never underestimate the frequencies of the candidates.
+   */
+  @Override
+  public void merge(FunctionContext ctx, Tuple part) {
+    Datum d = part.get(0);
+    if (d instanceof NullDatum) {
+      return;
+    }
+    TopKContext topKCtx = (TopKContext) ctx;
+    TopKSummaryProto proto = (TopKSummaryProto) ((ProtobufDatum) d).get();
+    topKCtx.k = proto.getK();
+
+    long threshold = proto.getThreshold();
+    topKCtx.threshold += threshold;
+    for (int i = 0; i < proto.getCandidatesCount(); i++) {
+      String value = proto.getCandidates(i);
+      Long excess = topKCtx.candidates.get(value);
+      topKCtx.candidates.put(value, (excess == null ? 0 : excess) + proto.getCounts(i) - threshold);
+    }
+    topKCtx.prune();
+  }
+
+  @Override
+  public Datum getPartialResult(FunctionContext ctx) {
+    TopKContext topKCtx = (TopKContext) ctx;
+    if (topKCtx.k == 0) {
+      return NullDatum.get();
+    }
+    TopKSummaryProto.Builder builder = TopKSummaryProto.newBuilder();
+    builder.setK(topKCtx.k);
+    for (Map.Entry<String, Long> entry : topKCtx.candidates.entrySet()) {
+      builder.addCandidates(entry.getKey());
+      builder.addCounts(entry.getValue() + topKCtx.threshold);
+    }
+    builder.setThreshold(topKCtx.getUpperBoundOfOthers());
+    return new ProtobufDatum(builder.build());
+  }
+
+  @Override
+  public DataType getPartialResultType() {
+    return CatalogUtil.newDataType(Type.PROTOBUF, TopKSummaryProto.class.getName());
+  }
+
+  @Override
+  public Datum terminate(FunctionContext ctx) {
+    TopKContext topKCtx = (TopKContext) ctx;
+    if (topKCtx.candidates.isEmpty()) {
+      return NullDatum.get();
+    }
+
+    List<Map.Entry<String, Long>> entries = topKCtx.sortedCandidates();
+    StringBuilder sb = new StringBuilder("{");
+    for (int i = 0; i < Math.min(topKCtx.k, entries.size()); i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      appendQuoted(sb, entries.get(i).getKey()).append(": ").append(entries.get(i).getValue() + topKCtx.threshold);
+    }
+    return DatumFactory.createText(sb.append("}").toString());
+  }
+
+  /**
+   * Appends a value as a JSON string.
+   */
+  static StringBuilder appendQuoted(StringBuilder sb, String value) {
+    sb.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+      case '"':
+        sb.append("\\\"");
+        break;
+      case '\\':
+        sb.append("\\\\");
+        break;
+      case '\b':
+        sb.append("\\b");
+        break;
+      case '\f':
+        sb.append("\\f");
+        break;
+      case '\n':
+        sb.append("\\n");
+        break;
+      case '\r':
+        sb.append("\\r");
+        break;
+      case '\t':
+        sb.append("\\t");
+        break;
+      default:
+        if (c < 0x20) {
+          sb.append(String.format("\\u%04x", (int) c));
+        } else {
+          sb.append(c);
+        }
+      }
+    }
+    return sb.append('"');
+  }
+
+  protected class TopKContext implements FunctionContext {
+    int k = 0;
+    /** It counts the frequencies in the first phase. It is not a part of the partial result. */
+    CountMinSketch sketch = null;
+    /** the estimated frequency of each candidate minus {@link #threshold} */
+    Map<String, Long> candidates = new HashMap<String, Long>();
+    /** the sum of the upper bounds of the values which are not reported by the merged partial results */
+    long threshold = 0;
+    /** the largest estimate among the candidates pruned after merging */
+    long prunedMax = 0;
+    /** the candidate with the lowest estimate. Its estimate may have increased since it was found. */
+    String minValue = null;
+    long minCount = 0;
+
+    void offer(String value, long estimate) {
+      if (candidates.containsKey(value) || candidates.size() < maxCandidates()) {
+        candidates.put(value, estimate);
+        return;
+      }
+
+      if (minValue == null || estimate > minCount) {
+        // the estimates only increase, so the cached minimum must be refreshed before it is evicted
+        findMin();
+        if (estimate > minCount) {
+          candidates.remove(minValue);
+          candidates.put(value, estimate);
+          minValue = null;
+        }
+      }
+    }
+
+    private int maxCandidates() {
+      return k * CANDIDATES_PER_K;
+    }
+
+    private void findMin() {
+      minValue = null;
+      for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+        if (minValue == null || entry.getValue() < minCount) {
+          minValue = entry.getKey();
+          minCount = entry.getValue();
+        }
+      }
+    }
+
+    /**
+     * @return An upper bound of the estimated frequency of a value which is not a candidate
+     */
+    long getUpperBoundOfOthers() {
+      long bound = prunedMax;
+      if (sketch != null && candidates.size() >= maxCandidates()) {
+        // A value is evicted or rejected only if its estimate is not greater than the minimum,
+        // and the minimum never decreases.
+        findMin();
+        bound = Math.max(bound, minCount);
+      }
+      return bound + threshold;
+    }
+
+    /**
+     * Keeps only the candidates which have the highest estimates.
+     */
+    void prune() {
+      if (candidates.size() <= maxCandidates()) {
+        return;
+      }
+      List<Map.Entry<String, Long>> entries = sortedCandidates();
+      for (Map.Entry<String, Long> entry : entries.subList(maxCandidates(), entries.size())) {
+        prunedMax = Math.max(prunedMax, entry.getValue());
+        candidates.remove(entry.getKey());
+      }
+    }
+
+    /**
+     * @return The candidates in the descending order of their estimates, and in the order of values for ties
+     */
+    List<Map.Entry<String, Long>> sortedCandidates() {
+      List<Map.Entry<String, Long>> entries = new ArrayList<Map.Entry<String, Long>>(candidates.entrySet());
+      Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+        @Override
+        public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
+          int cmp = o2.getValue().compareTo(o1.getValue());
+          return cmp != 0 ? cmp : o1.getKey().compareTo(o2.getKey());
+        }
+      });
+      return entries;
+    }
+  }
+}
@@ -29,6 +29,8 @@ import org.apache.tajo.algebra.*;
 import org.apache.tajo.algebra.Aggregation.GroupType;
 import org.apache.tajo.algebra.LiteralValue.LiteralType;
 import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.FunctionDesc;
+import org.apache.tajo.catalog.proto.CatalogProtos.FunctionType;
 import org.apache.tajo.engine.parser.SQLParser.*;
 import org.apache.tajo.plan.util.PlannerUtil;
 import org.apache.tajo.storage.StorageConstants;
@@ -44,11 +46,29 @@ import static org.apache.tajo.common.TajoDataTypes.Type;
 import static org.apache.tajo.engine.parser.SQLParser.*;
 
 public class SQLAnalyzer extends SQLParserBaseVisitor<Expr> {
+  /**
+   * The names of aggregation functions which are not a part of the SQL standard set functions, such as
+   * approx_count_distinct. They are invoked like routines, but they must be planned as set functions.
+   */
+  private final Set<String> routineSetFunctions = new HashSet<String>();
+
   private SQLParser parser;
 
   public SQLAnalyzer() {
   }
 
+  /**
+   * @param functions The function descriptors of the catalog, which decide the aggregation functions
+   *                  invoked like routines.
+   */
+  public SQLAnalyzer(Collection<FunctionDesc> functions) {
+    for (FunctionDesc function : functions) {
+      if (function.getFuncType() == FunctionType.AGGREGATION || function.getFuncType() == FunctionType.UDA) {
+        routineSetFunctions.add(function.getFunctionName().toLowerCase());
+      }
+    }
+  }
+
   public Expr parse(String sql) {
     ANTLRInputStream input = new ANTLRInputStream(sql);
     SQLLexer lexer = new SQLLexer(input);
@@ -78,7 +98,7 @@ public class SQLAnalyzer extends SQLParserBaseVisitor<Expr> {
   public Expr visitSql(SqlContext ctx) {
     Expr statement = visit(ctx.statement());
     if (checkIfExist(ctx.explain_clause())) {
-      return new Explain(statement);
+      return new Explain(statement, checkIfExist(ctx.explain_clause().ANALYZE()));
     } else {
       return statement;
     }
@@ -1063,15 +1083,22 @@ public class SQLAnalyzer extends SQLParserBaseVisitor<Expr> {
   @Override
   public FunctionExpr visitRoutine_invocation(SQLParser.Routine_invocationContext ctx) {
     String signature = ctx.function_name().getText();
-    FunctionExpr function = new FunctionExpr(signature);
+    Expr[] argument_list = null;
     if (ctx.sql_argument_list() != null) {
       int numArgs = ctx.sql_argument_list().value_expression().size();
-      Expr[] argument_list = new Expr[numArgs];
+      argument_list = new Expr[numArgs];
       for (int i = 0; i < numArgs; i++) {
         argument_list[i] = visitValue_expression(ctx.sql_argument_list().
             value_expression().get(i));
       }
+    }
 
+    if (argument_list != null && routineSetFunctions.contains(signature.toLowerCase())) {
+      return new GeneralSetFunctionExpr(signature, false, argument_list);
+    }
+
+    FunctionExpr function = new FunctionExpr(signature);
+    if (argument_list != null) {
       function.setParams(argument_list);
     }
     return function;
@@ -1257,6 +1284,11 @@ public class SQLAnalyzer extends SQLParserBaseVisitor<Expr> {
     return new TruncateTable(tableNames);
   }
 
+  @Override
+  public Expr visitCache_table_statement(@NotNull SQLParser.Cache_table_statementContext ctx) {
+    return new CacheTable(ctx.table_name().getText(), ctx.u == null);
+  }
+
   private ColumnDefinition[] getDefinitions(SQLParser.Table_elementsContext ctx) {
     int size = ctx.field_element().size();
     ColumnDefinition[] elements = new ColumnDefinition[size];
@@ -1734,6 +1766,29 @@ public class SQLAnalyzer extends SQLParserBaseVisitor<Expr> {
       alterTable.setAddNewColumn(columnDefinition);
     }
 
+    if (checkIfExist(ctx.partition_column_value_list())) {
+      List<Partition_column_valueContext> partitionValues = ctx.partition_column_value_list().partition_column_value();
+      String[] columnNames = new String[partitionValues.size()];
+      String[] values = new String[partitionValues.size()];
+      for (int i = 0; i < partitionValues.size(); i++) {
+        Partition_column_valueContext value = partitionValues.get(i);
+        columnNames[i] = value.identifier().getText();
+        if (checkIfExist(value.Character_String_Literal())) {
+          values[i] = stripQuote(value.Character_String_Literal().getText());
+        } else if (checkIfExist(value.signed_numerical_literal())) {
+          values[i] = value.signed_numerical_literal().getText();
+        } else {
+          values[i] = String.valueOf(checkIfExist(value.boolean_literal().TRUE()));
+        }
+      }
+      alterTable.setPartitionColumns(columnNames);
+      alterTable.setPartitionValues(values);
+    }
+
+    if (checkIfExist(ctx.path)) {
+      alterTable.setLocation(stripQuote(ctx.path.getText()));
+    }
+
     alterTable.setAlterTableOpType(determineAlterTableType(ctx));
 
     return alterTable;
@@ -1745,6 +1800,9 @@ public class SQLAnalyzer extends SQLParserBaseVisitor<Expr> {
     final int COLUMN_MASK = 00000010;
     final int TO_MASK = 00000100;
     final int ADD_MASK = 00001000;
+    final int PARTITION_MASK = 00010000;
+    final int DROP_MASK = 00100000;
+    final int REPAIR_MASK = 01000000;
 
     int val = 00000000;
 
@@ -1763,6 +1821,15 @@ public class SQLAnalyzer extends SQLParserBaseVisitor<Expr> {
         if (((TerminalNode) ctx.getChild(idx)).getSymbol().getType() == ADD) {
           val = val | ADD_MASK;
         }
+        if (((TerminalNode) ctx.getChild(idx)).getSymbol().getType() == PARTITION) {
+          val = val | PARTITION_MASK;
+        }
+        if (((TerminalNode) ctx.getChild(idx)).getSymbol().getType() == DROP) {
+          val = val | DROP_MASK;
+        }
+        if (((TerminalNode) ctx.getChild(idx)).getSymbol().getType() == REPAIR) {
+          val = val | REPAIR_MASK;
+        }
       }
     }
     return evaluateAlterTableOperationTye(val);
@@ -1777,6 +1844,12 @@ public class SQLAnalyzer extends SQLParserBaseVisitor<Expr> {
         return AlterTableOpType.RENAME_COLUMN;
       case 520:
         return AlterTableOpType.ADD_COLUMN;
+      case 4608:
+        return AlterTableOpType.ADD_PARTITION;
+      case 36864:
+        return AlterTableOpType.DROP_PARTITION;
+      case 266240:
+        return AlterTableOpType.REPAIR_PARTITION;
       default:
         return null;
     }
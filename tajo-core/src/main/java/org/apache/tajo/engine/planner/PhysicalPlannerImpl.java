@@ -28,9 +28,11 @@ import com.google.common.collect.ObjectArrays;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IOUtils;
 import org.apache.tajo.SessionVars;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.SortSpec;
+import org.apache.tajo.catalog.TableMeta;
 import org.apache.tajo.catalog.proto.CatalogProtos;
 import org.apache.tajo.catalog.proto.CatalogProtos.SortSpecProto;
 import org.apache.tajo.conf.TajoConf;
@@ -52,6 +54,7 @@ import org.apache.tajo.storage.*;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.storage.fragment.Fragment;
 import org.apache.tajo.storage.fragment.FragmentConvertor;
+import org.apache.tajo.unit.StorageUnit;
 import org.apache.tajo.util.FileUtil;
 import org.apache.tajo.util.IndexUtil;
 import org.apache.tajo.util.TUtil;
@@ -59,6 +62,8 @@ import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Stack;
 
@@ -74,6 +79,9 @@ import static org.apache.tajo.ipc.TajoWorkerProtocol.SortEnforce;
 public class PhysicalPlannerImpl implements PhysicalPlanner {
   private static final Log LOG = LogFactory.getLog(PhysicalPlannerImpl.class);
   private static final int UNGENERATED_PID = -1;
+  /** the minimum bytes of a file range which is read by a thread of a task */
+  private static final long MIN_INTRA_TASK_SPLIT_SIZE = 16 * StorageUnit.MB;
+  private static final double SPLIT_SLOP = 1.1;   // 10% slop
 
   protected final TajoConf conf;
 
@@ -119,6 +127,16 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
 
   private PhysicalExec createPlanRecursive(TaskAttemptContext ctx, LogicalNode logicalNode, Stack<LogicalNode> stack)
       throws IOException {
+    PhysicalExec exec = createPlanForNode(ctx, logicalNode, stack);
+    if (exec != null) {
+      // it enables the runtime metrics of operators to be matched to the logical plan
+      exec.assignPlanNodeId(logicalNode.getPID());
+    }
+    return exec;
+  }
+
+  private PhysicalExec createPlanForNode(TaskAttemptContext ctx, LogicalNode logicalNode, Stack<LogicalNode> stack)
+      throws IOException {
     PhysicalExec leftExec;
     PhysicalExec rightExec;
 
@@ -895,7 +913,12 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
         return new SeqScanExec(ctx, scanNode, null);
       }
       FragmentProto [] fragments = ctx.getTables(scanNode.getCanonicalName());
-      return new ExternalSortExec(ctx, (SortNode) node.peek(), fragments);
+      // each fetched partition is already sorted, so they only need to be merged.
+      if (fragments.length <= ctx.getConf().getIntVar(TajoConf.ConfVars.EXECUTOR_SORTED_INPUT_MERGE_MAX_INPUTS)) {
+        return new SortedInputMergeExec(ctx, (SortNode) node.peek(), fragments);
+      } else {
+        return new ExternalSortExec(ctx, (SortNode) node.peek(), fragments);
+      }
     } else {
       Enforcer enforcer = ctx.getEnforcer();
 
@@ -956,10 +979,118 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
 
   private PhysicalExec createInMemoryHashAggregation(TaskAttemptContext ctx,GroupbyNode groupbyNode, PhysicalExec subOp)
       throws IOException {
+    int parallelism = ctx.getQueryContext().getInt(SessionVars.INTRA_TASK_PARALLELISM);
+    if (parallelism > 1 && subOp instanceof SeqScanExec) {
+      SeqScanExec [] scans = createParallelScans(ctx, (SeqScanExec) subOp, parallelism);
+      if (scans != null) {
+        LOG.info("The planner chooses [Parallel Hash Aggregation] with " + scans.length + " threads");
+        return new ParallelHashAggregateExec(ctx, groupbyNode, scans);
+      }
+    }
     LOG.info("The planner chooses [Hash Aggregation]");
     return new HashAggregateExec(ctx, groupbyNode, subOp);
   }
 
+  /**
+   * Divides the input of a scan into at most <code>parallelism</code> scans which have similar sizes.
+   * A large file fragment is split into byte ranges if its format allows it.
+   *
+   * @return The scans over disjoint parts of the input. Null if the input cannot be divided.
+   */
+  private SeqScanExec [] createParallelScans(TaskAttemptContext ctx, SeqScanExec scanExec, int parallelism)
+      throws IOException {
+    ScanNode scanNode = scanExec.getScanNode();
+    FragmentProto [] fragmentProtos = scanExec.getFragments();
+    if (scanNode.isBroadcastTable() || fragmentProtos == null) {
+      return null;
+    }
+
+    List<FileFragment> fragments = new ArrayList<FileFragment>();
+    long totalLength = 0;
+    for (Fragment fragment : FragmentConvertor.convert(ctx.getConf(), fragmentProtos)) {
+      if (!(fragment instanceof FileFragment)) {
+        return null;
+      }
+      fragments.add((FileFragment) fragment);
+      totalLength += ((FileFragment) fragment).getLength();
+    }
+
+    long splitSize = Math.max(MIN_INTRA_TASK_SPLIT_SIZE, totalLength / parallelism);
+    List<FileFragment> splits = new ArrayList<FileFragment>();
+    for (FileFragment fragment : fragments) {
+      if (fragment.getLength() > splitSize * SPLIT_SLOP && isSplittable(ctx, scanNode, fragment)) {
+        long start = fragment.getStartKey();
+        long remaining = fragment.getLength();
+        while (remaining > splitSize * SPLIT_SLOP) {
+          splits.add(new FileFragment(fragment.getTableName(), fragment.getPath(), start, splitSize,
+              fragment.getHosts()));
+          start += splitSize;
+          remaining -= splitSize;
+        }
+        splits.add(new FileFragment(fragment.getTableName(), fragment.getPath(), start, remaining,
+            fragment.getHosts()));
+      } else {
+        splits.add(fragment);
+      }
+    }
+
+    if (splits.size() < 2) {
+      return null;
+    }
+
+    // assign the largest split to the least loaded scan first
+    Collections.sort(splits, new Comparator<FileFragment>() {
+      @Override
+      public int compare(FileFragment o1, FileFragment o2) {
+        long diff = o2.getLength() - o1.getLength();
+        return diff > 0 ? 1 : (diff < 0 ? -1 : 0);
+      }
+    });
+    int scanNum = Math.min(parallelism, splits.size());
+    List<List<FileFragment>> groups = new ArrayList<List<FileFragment>>(scanNum);
+    long [] groupLengths = new long[scanNum];
+    for (int i = 0; i < scanNum; i++) {
+      groups.add(new ArrayList<FileFragment>());
+    }
+    for (FileFragment split : splits) {
+      int target = 0;
+      for (int i = 1; i < scanNum; i++) {
+        if (groupLengths[i] < groupLengths[target]) {
+          target = i;
+        }
+      }
+      groups.get(target).add(split);
+      groupLengths[target] += split.getLength();
+    }
+
+    SeqScanExec [] scans = new SeqScanExec[scanNum];
+    for (int i = 0; i < scanNum; i++) {
+      ScanNode clonedNode;
+      try {
+        // evaluation trees keep temporal states, so each thread needs its own plan
+        clonedNode = (ScanNode) scanNode.clone();
+      } catch (CloneNotSupportedException e) {
+        throw new IOException(e);
+      }
+      List<FileFragment> group = groups.get(i);
+      scans[i] = new SeqScanExec(ctx, clonedNode,
+          FragmentConvertor.toFragmentProtoArray(group.toArray(new FileFragment[group.size()])));
+    }
+    return scans;
+  }
+
+  private static boolean isSplittable(TaskAttemptContext ctx, ScanNode scanNode, FileFragment fragment)
+      throws IOException {
+    TableMeta meta = scanNode.getTableDesc().getMeta();
+    Scanner scanner = StorageManager.getStorageManager(ctx.getConf(), meta.getStoreType())
+        .getScanner(meta, scanNode.getPhysicalSchema(), fragment);
+    try {
+      return scanner.isSplittable();
+    } finally {
+      IOUtils.cleanup(LOG, scanner);
+    }
+  }
+
   private PhysicalExec createSortAggregation(TaskAttemptContext ctx, EnforceProperty property, GroupbyNode groupbyNode,
                                              PhysicalExec subOp) throws IOException {
 
@@ -1024,13 +1155,8 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
   public PhysicalExec createWindowAgg(TaskAttemptContext context,WindowAggNode windowAggNode, PhysicalExec subOp)
       throws IOException {
     PhysicalExec child = subOp;
-    if (windowAggNode.hasPartitionKeys()) {
-      Column[] grpColumns = windowAggNode.getPartitionKeys();
-      SortSpec[] sortSpecs = new SortSpec[grpColumns.length];
-      for (int i = 0; i < grpColumns.length; i++) {
-        sortSpecs[i] = new SortSpec(grpColumns[i], true, false);
-      }
-
+    SortSpec[] sortSpecs = WindowAggExec.getRequiredSortSpecs(windowAggNode);
+    if (sortSpecs.length > 0) {
       SortNode sortNode = LogicalPlan.createNodeWithoutPID(SortNode.class);
       sortNode.setSortSpecs(sortSpecs);
       sortNode.setInSchema(subOp.getSchema());
@@ -97,7 +97,7 @@ public class BNLJoinExec extends BinaryPhysicalExec {
     return plan;
   }
 
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
 
     if (leftTupleSlots.isEmpty()) {
       for (int k = 0; k < TUPLE_SLOT_SIZE; k++) {
@@ -73,7 +73,7 @@ public class BSTIndexScanExec extends PhysicalExec {
   }
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     if(initialize) {
       //TODO : more complicated condition
       Tuple key = new VTuple(datum.length);
@@ -81,6 +81,8 @@ public class BasicPhysicalExecutorVisitor<CONTEXT, RESULT> implements PhysicalEx
       return visitSortAggregate(context, (SortAggregateExec) exec, stack);
     } else if (exec instanceof SortBasedColPartitionStoreExec) {
       return visitSortBasedColPartitionStore(context, (SortBasedColPartitionStoreExec) exec, stack);
+    } else if (exec instanceof SortedInputMergeExec) {
+      return visitSortedInputMerge(context, (SortedInputMergeExec) exec, stack);
     } else if (exec instanceof StoreTableExec) {
       return visitStoreTable(context, (StoreTableExec) exec, stack);
     }
@@ -260,6 +262,12 @@ public class BasicPhysicalExecutorVisitor<CONTEXT, RESULT> implements PhysicalEx
     return visitUnaryExecutor(context, exec, stack);
   }
 
+  @Override
+  public RESULT visitSortedInputMerge(CONTEXT context, SortedInputMergeExec exec, Stack<PhysicalExec> stack)
+      throws PhysicalPlanningException {
+    return null;
+  }
+
   @Override
   public RESULT visitStoreTable(CONTEXT context, StoreTableExec exec, Stack<PhysicalExec> stack) throws PhysicalPlanningException {
     return visitUnaryExecutor(context, exec, stack);
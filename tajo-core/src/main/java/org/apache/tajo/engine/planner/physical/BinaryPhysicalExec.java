@@ -23,6 +23,8 @@ import org.apache.tajo.worker.TaskAttemptContext;
 import org.apache.tajo.catalog.Schema;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public abstract class BinaryPhysicalExec extends PhysicalExec {
   protected PhysicalExec leftChild;
@@ -47,6 +49,18 @@ public abstract class BinaryPhysicalExec extends PhysicalExec {
     return rightChild;
   }
 
+  @Override
+  public List<PhysicalExec> getChildren() {
+    List<PhysicalExec> children = new ArrayList<PhysicalExec>(2);
+    if (leftChild != null) {
+      children.add(leftChild);
+    }
+    if (rightChild != null) {
+      children.add(rightChild);
+    }
+    return children;
+  }
+
   @Override
   public void init() throws IOException {
     leftChild.init();
@@ -136,6 +136,7 @@ public abstract class ColPartitionStoreExec extends UnaryPhysicalExec {
 
   protected Appender getNextPartitionAppender(String partition) throws IOException {
     lastFileName = getDataFile(partition);
+    context.addWrittenPartition(partition);
     FileSystem fs = lastFileName.getFileSystem(context.getConf());
 
     if (fs.exists(lastFileName.getParent())) {
@@ -20,6 +20,7 @@ package org.apache.tajo.engine.planner.physical;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.Path;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.datum.Int2Datum;
@@ -28,13 +29,14 @@ import org.apache.tajo.plan.expr.AggregationFunctionCallEval;
 import org.apache.tajo.plan.function.FunctionContext;
 import org.apache.tajo.plan.logical.DistinctGroupbyNode;
 import org.apache.tajo.plan.logical.GroupbyNode;
+import org.apache.tajo.storage.MemoryUtil;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.worker.MemoryPool;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.Map.Entry;
 
 /**
  * This class incremented each row to more rows by grouping columns. In addition, the operator must creates each row
@@ -82,6 +84,9 @@ import java.util.Map.Entry;
  *  
  *  In addition, columns for NonDistinctGroupBy only can contains real value at first NodeSequence.
  *
+ *  Each DistinctHashAggregator keeps (grouping key, distinct key) pairs in a {@link SpillableAggregationTable}.
+ *  If the memory budget is exhausted, the pairs are spilled to sorted runs, so the output of each
+ *  DistinctHashAggregator is sorted by the grouping key and the distinct key.
  */
 
 public class DistinctGroupbyFirstAggregationExec extends PhysicalExec {
@@ -102,6 +107,8 @@ public class DistinctGroupbyFirstAggregationExec extends PhysicalExec {
 
   private int resultTupleLength;
 
+  private MemoryPool memoryPool;
+
   public DistinctGroupbyFirstAggregationExec(TaskAttemptContext context, DistinctGroupbyNode plan, PhysicalExec subOp)
       throws IOException {
     super(context, plan.getInSchema(), plan.getOutSchema());
@@ -130,14 +137,16 @@ public class DistinctGroupbyFirstAggregationExec extends PhysicalExec {
     }
     resultTupleLength = groupingKeyIndexes.length + 1;  //1 is Sequence Datum which indicates sequence of DistinctNode.
 
+    memoryPool = newMemoryPool();
+    Path spillDir = getExecutorTmpDir();
+
     List<GroupbyNode> groupbyNodes = plan.getSubPlans();
 
     List<DistinctHashAggregator> distinctAggrList = new ArrayList<DistinctHashAggregator>();
     int distinctSeq = 0;
     for (GroupbyNode eachGroupby: groupbyNodes) {
       if (eachGroupby.isDistinct()) {
-        DistinctHashAggregator aggregator = new DistinctHashAggregator(eachGroupby);
-        aggregator.setNodeSequence(distinctSeq++);
+        DistinctHashAggregator aggregator = new DistinctHashAggregator(eachGroupby, distinctSeq++, spillDir);
         distinctAggrList.add(aggregator);
         resultTupleLength += aggregator.getTupleLength();
       } else {
@@ -151,7 +160,7 @@ public class DistinctGroupbyFirstAggregationExec extends PhysicalExec {
   private int currentAggregatorIndex = 0;
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     if (!preparedData) {
       prepareInputData();
     }
@@ -182,7 +191,7 @@ public class DistinctGroupbyFirstAggregationExec extends PhysicalExec {
         groupingKey.put(i, tuple.get(groupingKeyIndexes[i]));
       }
       for (int i = 0; i < distinctAggregators.length; i++) {
-        distinctAggregators[i].compute(groupingKey, tuple);
+        distinctAggregators[i].compute(tuple);
       }
       if (nonDistinctHashAggregator != null) {
         nonDistinctHashAggregator.compute(groupingKey, tuple);
@@ -192,15 +201,42 @@ public class DistinctGroupbyFirstAggregationExec extends PhysicalExec {
       distinctAggregators[i].rescan();
     }
 
-    totalNumRows = distinctAggregators[0].distinctAggrDatas.size();
+    totalNumRows = distinctAggregators[0].table.size();
     preparedData = true;
   }
 
   @Override
   public void close() throws IOException {
+    if (distinctAggregators != null) {
+      for (DistinctHashAggregator aggregator : distinctAggregators) {
+        aggregator.close();
+      }
+    }
+    if (nonDistinctHashAggregator != null) {
+      nonDistinctHashAggregator.close();
+    }
+    if (memoryPool != null) {
+      memoryPool.close();
+    }
     child.close();
   }
 
+  @Override
+  public List<PhysicalExec> getChildren() {
+    return child == null ? Collections.<PhysicalExec>emptyList() : Collections.singletonList(child);
+  }
+
+  @Override
+  protected long getSpilledBytes() {
+    long spilledBytes = 0;
+    if (distinctAggregators != null) {
+      for (DistinctHashAggregator aggregator : distinctAggregators) {
+        spilledBytes += aggregator.table.getSpilledBytes();
+      }
+    }
+    return spilledBytes;
+  }
+
   @Override
   public TableStats getInputStats() {
     if (child != null) {
@@ -224,11 +260,13 @@ public class DistinctGroupbyFirstAggregationExec extends PhysicalExec {
   }
 
   @Override
-  public void rescan() {
+  public void rescan() throws IOException {
     finished = false;
     currentAggregatorIndex = 0;
-    for (int i = 0; i < distinctAggregators.length; i++) {
-      distinctAggregators[i].rescan();
+    if (preparedData) {
+      for (int i = 0; i < distinctAggregators.length; i++) {
+        distinctAggregators[i].rescan();
+      }
     }
   }
 
@@ -242,10 +280,14 @@ public class DistinctGroupbyFirstAggregationExec extends PhysicalExec {
     private int tupleLength;
 
     private Tuple dummyTuple;
+    /** The number of groups is much smaller than that of distinct pairs, so it does not spill. */
+    private final MemoryPool aggrMemoryPool;
+
     private NonDistinctHashAggregator(GroupbyNode groupbyNode) throws IOException {
       this.groupbyNode = groupbyNode;
 
       nonDistinctAggrDatas = new HashMap<Tuple, FunctionContext[]>();
+      aggrMemoryPool = memoryPool.newChild("non_distinct");
 
       if (groupbyNode.hasAggFunctions()) {
         aggFunctions = groupbyNode.getAggFunctions();
@@ -277,6 +319,8 @@ public class DistinctGroupbyFirstAggregationExec extends PhysicalExec {
           contexts[i] = aggFunctions[i].newContext();
           aggFunctions[i].merge(contexts[i], inSchema, tuple);
         }
+        aggrMemoryPool.reserve(MemoryUtil.calculateMemorySize(groupingKeyTuple) + HashAggregateExec.ENTRY_OVERHEAD
+            + HashAggregateExec.CONTEXT_SIZE * aggFunctionsNum);
         nonDistinctAggrDatas.put(groupingKeyTuple, contexts);
       }
     }
@@ -302,14 +346,18 @@ public class DistinctGroupbyFirstAggregationExec extends PhysicalExec {
     public Tuple getDummyTuple() {
       return dummyTuple;
     }
+
+    public void close() {
+      nonDistinctAggrDatas.clear();
+      aggrMemoryPool.close();
+    }
   }
 
   class DistinctHashAggregator {
     private GroupbyNode groupbyNode;
 
-    // GroupingKey -> DistinctKey
-    private Map<Tuple, Set<Tuple>> distinctAggrDatas;
-    private Iterator<Entry<Tuple, Set<Tuple>>> iterator = null;
+    // (GroupingKey, DistinctKey) pairs
+    private SpillableAggregationTable table;
 
     private int nodeSequence;
     private Int2Datum nodeSequenceDatum;
@@ -320,8 +368,10 @@ public class DistinctGroupbyFirstAggregationExec extends PhysicalExec {
     private Tuple dummyTuple;
     private boolean aggregatorFinished = false;
 
-    public DistinctHashAggregator(GroupbyNode groupbyNode) throws IOException {
+    public DistinctHashAggregator(GroupbyNode groupbyNode, int nodeSequence, Path spillDir) throws IOException {
       this.groupbyNode = groupbyNode;
+      this.nodeSequence = nodeSequence;
+      this.nodeSequenceDatum = new Int2Datum((short)nodeSequence);
 
       Set<Integer> groupingKeyIndexSet = new HashSet<Integer>();
       for (Integer eachIndex: groupingKeyIndexes) {
@@ -350,75 +400,58 @@ public class DistinctGroupbyFirstAggregationExec extends PhysicalExec {
         this.distinctKeyIndexes[index++] = eachId;
       }
 
-      this.distinctAggrDatas = new HashMap<Tuple, Set<Tuple>>();
       this.tupleLength = distinctKeyIndexes.length;
-    }
 
-    public void setNodeSequence(int nodeSequence) {
-      this.nodeSequence = nodeSequence;
-      this.nodeSequenceDatum = new Int2Datum((short)nodeSequence);
+      int [] pairKeyIndexes = new int[groupingKeyIndexes.length + distinctKeyIndexes.length];
+      System.arraycopy(groupingKeyIndexes, 0, pairKeyIndexes, 0, groupingKeyIndexes.length);
+      System.arraycopy(distinctKeyIndexes, 0, pairKeyIndexes, groupingKeyIndexes.length, distinctKeyIndexes.length);
+      this.table = new SpillableAggregationTable(context, inSchema, pairKeyIndexes, new AggregationFunctionCallEval[0],
+          memoryPool.newChild("distinct_" + nodeSequence), new Path(spillDir, "distinct_" + nodeSequence));
     }
 
     public int getTupleLength() {
       return tupleLength;
     }
 
-    public void compute(Tuple groupingKey, Tuple tuple) throws IOException {
-      Tuple distinctKeyTuple = new VTuple(distinctKeyIndexes.length);
-      for (int i = 0; i < distinctKeyIndexes.length; i++) {
-        distinctKeyTuple.put(i, tuple.get(distinctKeyIndexes[i]));
-      }
-
-      Set<Tuple> distinctEntry = distinctAggrDatas.get(groupingKey);
-      if (distinctEntry == null) {
-        distinctEntry = new HashSet<Tuple>();
-        distinctAggrDatas.put(groupingKey, distinctEntry);
-      }
-      distinctEntry.add(distinctKeyTuple);
+    public void compute(Tuple tuple) throws IOException {
+      table.compute(tuple);
     }
 
-    public void rescan() {
-      iterator = distinctAggrDatas.entrySet().iterator();
-      currentGroupingTuples = null;
+    public void rescan() throws IOException {
+      table.rewind();
+      currentGroupingKey = null;
       groupingKeyChanged = false;
       aggregatorFinished = false;
     }
 
     public void close() throws IOException {
-      distinctAggrDatas.clear();
-      distinctAggrDatas = null;
-      currentGroupingTuples = null;
-      iterator = null;
+      table.close();
+      currentGroupingKey = null;
     }
 
-    Entry<Tuple, Set<Tuple>> currentGroupingTuples;
-    Iterator<Tuple> distinctKeyIterator;
+    Tuple currentGroupingKey;
     boolean groupingKeyChanged = false;
 
-    public Tuple next() {
+    public Tuple next() throws IOException {
       if (aggregatorFinished) {
         return null;
       }
-      if (currentGroupingTuples == null) {
-        // first
-        if (!iterator.hasNext()) {
-          // Empty case
-          aggregatorFinished = true;
-          return null;
-        }
-        currentGroupingTuples = iterator.next();
-        groupingKeyChanged = true;
-        distinctKeyIterator = currentGroupingTuples.getValue().iterator();
+      Tuple pair = table.next();
+      if (pair == null) {
+        aggregatorFinished = true;
+        return null;
       }
-      if (!distinctKeyIterator.hasNext()) {
-        if (!iterator.hasNext()) {
-          aggregatorFinished = true;
-          return null;
-        }
-        currentGroupingTuples = iterator.next();
+
+      // pairs are sorted, so the pairs of a grouping key are contiguous
+      Tuple groupingKeyTuple = new VTuple(groupingKeyIndexes.length);
+      for (int i = 0; i < groupingKeyIndexes.length; i++) {
+        groupingKeyTuple.put(i, pair.get(i));
+      }
+      if (currentGroupingKey == null || !currentGroupingKey.equals(groupingKeyTuple)) {
+        currentGroupingKey = groupingKeyTuple;
         groupingKeyChanged = true;
-        distinctKeyIterator = currentGroupingTuples.getValue().iterator();
       }
+
       // node sequence, groupingKeys, 1'st distinctKeys, 2'st distinctKeys, ...
       // If n'st == this.nodeSequence set with real data, otherwise set with NullDatum
       Tuple tuple = new VTuple(resultTupleLength);
@@ -426,7 +459,6 @@ public class DistinctGroupbyFirstAggregationExec extends PhysicalExec {
       tuple.put(tupleIndex++, nodeSequenceDatum);
 
       // merge grouping key
-      Tuple groupingKeyTuple = currentGroupingTuples.getKey();
       int groupingKeyLength = groupingKeyTuple.size();
       for (int i = 0; i < groupingKeyLength; i++, tupleIndex++) {
         tuple.put(tupleIndex, groupingKeyTuple.get(i));
@@ -435,10 +467,8 @@ public class DistinctGroupbyFirstAggregationExec extends PhysicalExec {
       // merge distinctKey
       for (int i = 0; i < distinctAggregators.length; i++) {
         if (i == nodeSequence) {
-          Tuple distinctKeyTuple = distinctKeyIterator.next();
-          int distinctKeyLength = distinctKeyTuple.size();
-          for (int j = 0; j < distinctKeyLength; j++, tupleIndex++) {
-            tuple.put(tupleIndex, distinctKeyTuple.get(j));
+          for (int j = 0; j < distinctKeyIndexes.length; j++, tupleIndex++) {
+            tuple.put(tupleIndex, pair.get(groupingKeyLength + j));
           }
         } else {
           Tuple dummyTuple = distinctAggregators[i].getDummyTuple();
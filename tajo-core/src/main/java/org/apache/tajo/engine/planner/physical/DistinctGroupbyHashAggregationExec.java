@@ -18,23 +18,31 @@
 
 package org.apache.tajo.engine.planner.physical;
 
+import org.apache.hadoop.fs.Path;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.SortSpec;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.datum.NullDatum;
 import org.apache.tajo.plan.expr.AggregationFunctionCallEval;
-import org.apache.tajo.plan.function.FunctionContext;
 import org.apache.tajo.plan.logical.DistinctGroupbyNode;
 import org.apache.tajo.plan.logical.GroupbyNode;
+import org.apache.tajo.storage.BaseTupleComparator;
 import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.TupleComparator;
 import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.worker.MemoryPool;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.Map.Entry;
 
+/**
+ * Each HashAggregator keeps its groups in a {@link SpillableAggregationTable} keyed by the distinct grouping keys
+ * followed by its own grouping keys. The groups of all HashAggregators are read in the order of
+ * the distinct grouping keys, and then the groups of the same distinct grouping key are merged into output tuples.
+ */
 public class DistinctGroupbyHashAggregationExec extends PhysicalExec {
   private DistinctGroupbyNode plan;
   private boolean finished = false;
@@ -51,6 +59,10 @@ public class DistinctGroupbyHashAggregationExec extends PhysicalExec {
 
   private int[] resultColumnIdIndexes;
 
+  private final MemoryPool memoryPool;
+  /** compares the distinct grouping keys, which are the first columns of the groups of every HashAggregator */
+  private TupleComparator distinctGroupingKeyComparator;
+
   public DistinctGroupbyHashAggregationExec(TaskAttemptContext context, DistinctGroupbyNode plan, PhysicalExec subOp)
       throws IOException {
     super(context, plan.getInSchema(), plan.getOutSchema());
@@ -76,13 +88,28 @@ public class DistinctGroupbyHashAggregationExec extends PhysicalExec {
       distinctGroupingKeyIds[idx++] = intVal.intValue();
     }
 
+    if (distinctGroupingKeyIds.length > 0) {
+      Schema keySchema = new Schema();
+      SortSpec[] sortSpecs = new SortSpec[distinctGroupingKeyIds.length];
+      for (int i = 0; i < distinctGroupingKeyIds.length; i++) {
+        Column column = inSchema.getColumn(distinctGroupingKeyIds[i]);
+        keySchema.addColumn(column);
+        sortSpecs[i] = new SortSpec(column);
+      }
+      distinctGroupingKeyComparator = new BaseTupleComparator(keySchema, sortSpecs);
+    }
+
+    this.memoryPool = newMemoryPool();
+    Path spillDir = getExecutorTmpDir();
+
     List<GroupbyNode> groupbyNodes = plan.getSubPlans();
     groupbyNodeNum = groupbyNodes.size();
     this.hashAggregators = new HashAggregator[groupbyNodeNum];
 
     int index = 0;
     for (GroupbyNode eachGroupby: groupbyNodes) {
-      hashAggregators[index++] = new HashAggregator(eachGroupby);
+      hashAggregators[index] = new HashAggregator(eachGroupby, index, spillDir);
+      index++;
     }
 
     outputColumnNum = plan.getOutSchema().size();
@@ -108,7 +135,7 @@ public class DistinctGroupbyHashAggregationExec extends PhysicalExec {
   int currentAggregatedTupleSize = 0;
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     if (finished) {
       return null;
     }
@@ -124,7 +151,6 @@ public class DistinctGroupbyHashAggregationExec extends PhysicalExec {
     }
 
     Tuple distinctGroupingKey = null;
-    int nullCount = 0;
 
     //--------------------------------------------------------------------------------------
     // Output tuple
@@ -141,24 +167,16 @@ public class DistinctGroupbyHashAggregationExec extends PhysicalExec {
     // Groupby_Key2 | Distinct1_Column_V3 |                     |                          |
     //--------------------------------------------------------------------------------------
 
-    List<List<Tuple>> tupleSlots = new ArrayList<List<Tuple>>();
-
-    // aggregation with single grouping key
+    // find the smallest distinct grouping key among the next groups of all aggregators
+    Tuple smallestGroup = null;
     for (int i = 0; i < hashAggregators.length; i++) {
-      if (!hashAggregators[i].iterator.hasNext()) {
-        nullCount++;
-        tupleSlots.add(new ArrayList<Tuple>());
-        continue;
-      }
-      Entry<Tuple, Map<Tuple, FunctionContext[]>> entry = hashAggregators[i].iterator.next();
-      if (distinctGroupingKey == null) {
-        distinctGroupingKey = entry.getKey();
+      Tuple group = hashAggregators[i].peek();
+      if (group != null && (smallestGroup == null || compareDistinctGroupingKey(group, smallestGroup) < 0)) {
+        smallestGroup = group;
       }
-      List<Tuple> aggregatedTuples = hashAggregators[i].aggregate(entry.getValue());
-      tupleSlots.add(aggregatedTuples);
     }
 
-    if (nullCount == hashAggregators.length) {
+    if (smallestGroup == null) {
       finished = true;
       progress = 1.0f;
 
@@ -175,6 +193,16 @@ public class DistinctGroupbyHashAggregationExec extends PhysicalExec {
       }
     }
 
+    distinctGroupingKey = new VTuple(distinctGroupingKeyIds.length);
+    for (int i = 0; i < distinctGroupingKeyIds.length; i++) {
+      distinctGroupingKey.put(i, smallestGroup.get(i));
+    }
+
+    List<List<Tuple>> tupleSlots = new ArrayList<List<Tuple>>();
+    for (int i = 0; i < hashAggregators.length; i++) {
+      tupleSlots.add(hashAggregators[i].nextGroups(distinctGroupingKey));
+    }
+
 
     /*
     Tuple materialization example
@@ -281,7 +309,11 @@ public class DistinctGroupbyHashAggregationExec extends PhysicalExec {
       hashAggregators[i].initFetch();
     }
 
-    totalNumRows = hashAggregators[0].hashTable.size();
+    totalNumRows = hashAggregators.length > 0 ? (int) hashAggregators[0].table.size() : 0;
+  }
+
+  private int compareDistinctGroupingKey(Tuple group1, Tuple group2) {
+    return distinctGroupingKeyComparator == null ? 0 : distinctGroupingKeyComparator.compare(group1, group2);
   }
 
   @Override
@@ -292,6 +324,7 @@ public class DistinctGroupbyHashAggregationExec extends PhysicalExec {
         hashAggregators[i].close();
       }
     }
+    memoryPool.close();
     if (child != null) {
       child.close();
     }
@@ -303,8 +336,11 @@ public class DistinctGroupbyHashAggregationExec extends PhysicalExec {
 
   public void rescan() throws IOException {
     finished = false;
-    for (int i = 0; i < hashAggregators.length; i++) {
-      hashAggregators[i].initFetch();
+    currentAggregatedTuples = null;
+    if (!first) {
+      for (int i = 0; i < hashAggregators.length; i++) {
+        hashAggregators[i].initFetch();
+      }
     }
   }
 
@@ -320,6 +356,20 @@ public class DistinctGroupbyHashAggregationExec extends PhysicalExec {
     }
   }
 
+  public List<PhysicalExec> getChildren() {
+    return child == null ? Collections.<PhysicalExec>emptyList() : Collections.singletonList(child);
+  }
+
+  protected long getSpilledBytes() {
+    long spilledBytes = 0;
+    if (hashAggregators != null) {
+      for (HashAggregator aggregator : hashAggregators) {
+        spilledBytes += aggregator.table.getSpilledBytes();
+      }
+    }
+    return spilledBytes;
+  }
+
   public TableStats getInputStats() {
     if (child != null) {
       return child.getInputStats();
@@ -329,9 +379,10 @@ public class DistinctGroupbyHashAggregationExec extends PhysicalExec {
   }
 
   class HashAggregator {
-    // Outer's GroupBy Key -> Each GroupByNode's Key -> FunctionContext
-    private Map<Tuple, Map<Tuple, FunctionContext[]>> hashTable;
-    private Iterator<Entry<Tuple, Map<Tuple, FunctionContext[]>>> iterator = null;
+    // (Outer's GroupBy Key, Each GroupByNode's Key) -> FunctionContext
+    private SpillableAggregationTable table;
+    /** the next group which is not returned yet */
+    private Tuple nextGroup;
 
     private int groupingKeyIds[];
     private final int aggFunctionsNum;
@@ -343,10 +394,9 @@ public class DistinctGroupbyHashAggregationExec extends PhysicalExec {
 
     int tupleSize;
 
-    public HashAggregator(GroupbyNode groupbyNode) throws IOException {
+    public HashAggregator(GroupbyNode groupbyNode, int sequence, Path spillDir) throws IOException {
       this.groupbyNode = groupbyNode;
 
-      hashTable = new HashMap<Tuple, Map<Tuple, FunctionContext[]>>(10000);
       evalSchema = groupbyNode.getOutSchema();
 
       List<Integer> distinctGroupingKeyIdSet = new ArrayList<Integer>();
@@ -384,6 +434,9 @@ public class DistinctGroupbyHashAggregationExec extends PhysicalExec {
       }
 
       tupleSize = groupingKeyIds.length + aggFunctionsNum;
+
+      table = new SpillableAggregationTable(context, inSchema, groupingKeyIds, aggFunctions,
+          memoryPool.newChild("groupby_" + sequence), new Path(spillDir, "groupby_" + sequence));
     }
 
     public int getTupleSize() {
@@ -391,64 +444,34 @@ public class DistinctGroupbyHashAggregationExec extends PhysicalExec {
     }
 
     public void compute(Tuple tuple) throws IOException {
-      Tuple outerKeyTuple = new VTuple(distinctGroupingKeyIds.length);
-      for (int i = 0; i < distinctGroupingKeyIds.length; i++) {
-        outerKeyTuple.put(i, tuple.get(distinctGroupingKeyIds[i]));
-      }
-
-      Tuple keyTuple = new VTuple(groupingKeyIds.length);
-      for (int i = 0; i < groupingKeyIds.length; i++) {
-        keyTuple.put(i, tuple.get(groupingKeyIds[i]));
-      }
+      table.compute(tuple);
+    }
 
-      Map<Tuple, FunctionContext[]> distinctEntry = hashTable.get(outerKeyTuple);
-      if (distinctEntry == null) {
-        distinctEntry = new HashMap<Tuple, FunctionContext[]>();
-        hashTable.put(outerKeyTuple, distinctEntry);
-      }
-      FunctionContext[] contexts = distinctEntry.get(keyTuple);
-      if (contexts != null) {
-        for (int i = 0; i < aggFunctions.length; i++) {
-          aggFunctions[i].merge(contexts[i], inSchema, tuple);
-        }
-      } else { // if the key occurs firstly
-        contexts = new FunctionContext[aggFunctionsNum];
-        for (int i = 0; i < aggFunctionsNum; i++) {
-          contexts[i] = aggFunctions[i].newContext();
-          aggFunctions[i].merge(contexts[i], inSchema, tuple);
-        }
-        distinctEntry.put(keyTuple, contexts);
-      }
+    public void initFetch() throws IOException {
+      table.rewind();
+      nextGroup = table.next();
     }
 
-    public void initFetch() {
-      iterator = hashTable.entrySet().iterator();
+    public Tuple peek() {
+      return nextGroup;
     }
 
-    public List<Tuple> aggregate(Map<Tuple, FunctionContext[]> groupTuples) {
+    /**
+     * @return The aggregated tuples of the given distinct grouping key. Each tuple consists of grouping keys
+     * followed by the results of aggregation functions.
+     */
+    public List<Tuple> nextGroups(Tuple distinctGroupingKey) throws IOException {
       List<Tuple> aggregatedTuples = new ArrayList<Tuple>();
-
-      for (Entry<Tuple, FunctionContext[]> entry : groupTuples.entrySet()) {
-        Tuple tuple = new VTuple(groupingKeyIds.length + aggFunctionsNum);
-        Tuple groupbyKey = entry.getKey();
-        int index = 0;
-        for (; index < groupbyKey.size(); index++) {
-          tuple.put(index, groupbyKey.get(index));
-        }
-
-        FunctionContext[] contexts = entry.getValue();
-        for (int i = 0; i < aggFunctionsNum; i++, index++) {
-          tuple.put(index, aggFunctions[i].terminate(contexts[i]));
-        }
-        aggregatedTuples.add(tuple);
+      while (nextGroup != null && compareDistinctGroupingKey(nextGroup, distinctGroupingKey) == 0) {
+        aggregatedTuples.add(nextGroup);
+        nextGroup = table.next();
       }
       return aggregatedTuples;
     }
 
     public void close() throws IOException {
-      hashTable.clear();
-      hashTable = null;
-      iterator = null;
+      table.close();
+      nextGroup = null;
     }
   }
 }
@@ -165,7 +165,7 @@ public class DistinctGroupbySecondAggregationExec extends UnaryPhysicalExec {
   int prevSeq = -1;
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     if (finished) {
       return null;
     }
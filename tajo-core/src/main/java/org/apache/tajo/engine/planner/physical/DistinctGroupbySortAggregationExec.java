@@ -30,6 +30,8 @@ import org.apache.tajo.storage.VTuple;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 public class DistinctGroupbySortAggregationExec extends PhysicalExec {
   private DistinctGroupbyNode plan;
@@ -77,7 +79,7 @@ public class DistinctGroupbySortAggregationExec extends PhysicalExec {
   boolean first = true;
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     if (finished) {
       return null;
     }
@@ -195,6 +197,11 @@ public class DistinctGroupbySortAggregationExec extends PhysicalExec {
     }
   }
 
+  @Override
+  public List<PhysicalExec> getChildren() {
+    return Arrays.<PhysicalExec>asList(aggregateExecs);
+  }
+
   @Override
   public TableStats getInputStats() {
     return aggregateExecs[aggregateExecs.length - 1].getInputStats();
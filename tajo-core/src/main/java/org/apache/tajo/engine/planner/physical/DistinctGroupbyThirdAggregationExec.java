@@ -134,7 +134,7 @@ public class DistinctGroupbyThirdAggregationExec extends UnaryPhysicalExec {
   Tuple prevTuple = null;
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     if (finished) {
       return null;
     }
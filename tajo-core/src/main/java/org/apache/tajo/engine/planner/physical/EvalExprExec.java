@@ -42,7 +42,7 @@ public class EvalExprExec extends PhysicalExec {
   }
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     if (!executedOnce) {
       Target [] targets = plan.getTargets();
       Tuple t = new VTuple(targets.length);
@@ -44,12 +44,14 @@ import org.apache.tajo.storage.fragment.FragmentConvertor;
 import org.apache.tajo.unit.StorageUnit;
 import org.apache.tajo.util.FileUtil;
 import org.apache.tajo.util.TUtil;
+import org.apache.tajo.worker.MemoryPool;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.tajo.storage.RawFile.RawFileAppender;
 import static org.apache.tajo.storage.RawFile.RawFileScanner;
@@ -77,6 +79,8 @@ public class ExternalSortExec extends SortExec {
   private final int defaultFanout;
   /** It's the size of in-memory table. If memory consumption exceeds it, store the memory table into a disk. */
   private long sortBufferBytesNum;
+  /** The memory of the in-memory table is reserved from it. If it is exhausted, the memory table is stored too. */
+  private final MemoryPool memoryPool;
   /** the number of available cores */
   private final int allocatedCoreNum;
   /** If there are available multiple cores, it tries parallel merge. */
@@ -105,6 +109,8 @@ public class ExternalSortExec extends SortExec {
   private Scanner result;
   /** total bytes of input data */
   private long sortAndStoredBytes;
+  /** the bytes written to chunks and intermediate merged files. Merges are run by multiple threads. */
+  private final AtomicLong spilledBytes = new AtomicLong();
 
   private ExternalSortExec(final TaskAttemptContext context, final SortNode plan)
       throws PhysicalPlanningException {
@@ -122,6 +128,7 @@ public class ExternalSortExec extends SortExec {
     this.allocatedCoreNum = context.getConf().getIntVar(ConfVars.EXECUTOR_EXTERNAL_SORT_THREAD_NUM);
     this.executorService = Executors.newFixedThreadPool(this.allocatedCoreNum);
     this.inMemoryTable = new ArrayList<Tuple>(100000);
+    this.memoryPool = newMemoryPool();
 
     this.sortTmpDir = getExecutorTmpDir();
     localDirAllocator = new LocalDirAllocator(ConfVars.WORKER_TEMPORAL_DIR.varname);
@@ -179,6 +186,7 @@ public class ExternalSortExec extends SortExec {
       appender.addTuple(t);
     }
     appender.close();
+    spilledBytes.addAndGet(appender.getOffset());
     tupleBlock.clear();
     long chunkWriteEnd = System.currentTimeMillis();
 
@@ -206,19 +214,26 @@ public class ExternalSortExec extends SortExec {
     while (!context.isStopped() && (tuple = child.next()) != null) { // partition sort start
       Tuple vtuple = new VTuple(tuple);
       inMemoryTable.add(vtuple);
-      memoryConsumption += MemoryUtil.calculateMemorySize(vtuple);
+      long tupleSize = MemoryUtil.calculateMemorySize(vtuple);
+      memoryConsumption += tupleSize;
+      boolean memoryExhausted = !memoryPool.tryReserve(tupleSize);
 
-      if (memoryConsumption > sortBufferBytesNum) {
+      if (memoryConsumption > sortBufferBytesNum || memoryExhausted) {
         long runEndTime = System.currentTimeMillis();
         info(LOG, chunkId + " run loading time: " + (runEndTime - runStartTime) + " msec");
         runStartTime = runEndTime;
 
-        info(LOG, "Memory consumption exceeds " + sortBufferBytesNum + " bytes");
+        if (memoryExhausted) {
+          info(LOG, "Memory budget is exhausted: " + memoryPool);
+        } else {
+          info(LOG, "Memory consumption exceeds " + sortBufferBytesNum + " bytes");
+        }
         memoryResident = false;
 
         chunkPaths.add(sortAndStoreChunk(chunkId, inMemoryTable));
 
         memoryConsumption = 0;
+        memoryPool.releaseAll();
         chunkId++;
 
         // When the volume of sorting data once exceed the size of sort buffer,
@@ -242,6 +257,7 @@ public class ExternalSortExec extends SortExec {
           long start = System.currentTimeMillis();
           int rowNum = inMemoryTable.size();
           chunkPaths.add(sortAndStoreChunk(chunkId, inMemoryTable));
+          memoryPool.releaseAll();
           long end = System.currentTimeMillis();
           info(LOG, "Last Chunk #" + chunkId + " " + rowNum + " rows written (" + (end - start) + " msec)");
         }
@@ -266,7 +282,7 @@ public class ExternalSortExec extends SortExec {
   }
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
 
     if (!sorted) { // if not sorted, first sort all data
 
@@ -481,6 +497,7 @@ public class ExternalSortExec extends SortExec {
       }
       merger.close();
       output.close();
+      spilledBytes.addAndGet(output.getOffset());
       long mergeEndTime = System.currentTimeMillis();
       info(LOG, outputPath.getName() + " is written to a disk. ("
           + FileUtil.humanReadableByteCount(output.getOffset(), false)
@@ -866,6 +883,7 @@ public class ExternalSortExec extends SortExec {
       inMemoryTable.clear();
       inMemoryTable = null;
     }
+    memoryPool.close();
 
     if(executorService != null){
       executorService.shutdown();
@@ -902,4 +920,9 @@ public class ExternalSortExec extends SortExec {
       return inputStats;
     }
   }
+
+  @Override
+  protected long getSpilledBytes() {
+    return spilledBytes.get();
+  }
 }
@@ -20,8 +20,10 @@ package org.apache.tajo.engine.planner.physical;
 
 import org.apache.tajo.plan.function.FunctionContext;
 import org.apache.tajo.plan.logical.GroupbyNode;
+import org.apache.tajo.storage.MemoryUtil;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.worker.MemoryPool;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
@@ -34,15 +36,22 @@ import java.util.Map.Entry;
  * This is the hash-based GroupBy Operator.
  */
 public class HashAggregateExec extends AggregationExec {
+  /** the estimated bytes of a hash table entry and an aggregation context, excluding the key tuple */
+  static final long ENTRY_OVERHEAD = 64;
+  static final long CONTEXT_SIZE = 32;
+
   private Tuple tuple = null;
   private Map<Tuple, FunctionContext[]> hashTable;
   private boolean computed = false;
   private Iterator<Entry<Tuple, FunctionContext []>> iterator = null;
+  /** A hash table cannot be spilled, so it fails if this pool is exhausted. */
+  private final MemoryPool memoryPool;
 
   public HashAggregateExec(TaskAttemptContext ctx, GroupbyNode plan, PhysicalExec subOp) throws IOException {
     super(ctx, plan, subOp);
     hashTable = new HashMap<Tuple, FunctionContext []>(100000);
     this.tuple = new VTuple(plan.getOutSchema().size());
+    this.memoryPool = newMemoryPool();
   }
 
   private void compute() throws IOException {
@@ -66,6 +75,7 @@ public class HashAggregateExec extends AggregationExec {
           contexts[i] = aggFunctions[i].newContext();
           aggFunctions[i].merge(contexts[i], inSchema, tuple);
         }
+        memoryPool.reserve(MemoryUtil.calculateMemorySize(keyTuple) + ENTRY_OVERHEAD + CONTEXT_SIZE * aggFunctionsNum);
         hashTable.put(keyTuple, contexts);
       }
     }
@@ -82,7 +92,7 @@ public class HashAggregateExec extends AggregationExec {
   }
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     if(!computed) {
       compute();
       iterator = hashTable.entrySet().iterator();
@@ -121,5 +131,6 @@ public class HashAggregateExec extends AggregationExec {
     hashTable.clear();
     hashTable = null;
     iterator = null;
+    memoryPool.close();
   }
 }
@@ -61,10 +61,10 @@ public class HashBasedColPartitionStoreExec extends ColPartitionStoreExec {
   }
 
   /* (non-Javadoc)
-   * @see PhysicalExec#next()
+   * @see PhysicalExec#nextTuple()
    */
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     Tuple tuple;
     StringBuilder sb = new StringBuilder();
     while(!context.isStopped() && (tuple = child.next()) != null) {
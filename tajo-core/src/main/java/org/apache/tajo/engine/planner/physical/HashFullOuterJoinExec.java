@@ -27,8 +27,10 @@ import org.apache.tajo.catalog.SchemaUtil;
 import org.apache.tajo.plan.expr.EvalNode;
 import org.apache.tajo.plan.logical.JoinNode;
 import org.apache.tajo.storage.FrameTuple;
+import org.apache.tajo.storage.MemoryUtil;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.worker.MemoryPool;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
@@ -47,6 +49,8 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
   protected FrameTuple frameTuple;
   protected Tuple outTuple = null;
   protected Map<Tuple, List<Tuple>> tupleSlots;
+  // the memory of the hash table is reserved from it. A join fails if it is exhausted.
+  protected MemoryPool memoryPool;
   protected Iterator<Tuple> iterator = null;
   protected Tuple leftTuple;
   protected Tuple leftKeyTuple;
@@ -71,6 +75,7 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
     this.plan = plan;
     this.joinQual = plan.getJoinQual();
     this.tupleSlots = new HashMap<Tuple, List<Tuple>>(10000);
+    this.memoryPool = newMemoryPool();
 
     // this hashmap mirrors the evolution of the tupleSlots, with the same keys. For each join key,
     // we have a boolean flag, initially false (whether this join key had at least one match on the left operand)
@@ -136,7 +141,7 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
     return null;
   }
 
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     if (first) {
       loadRightToHashTable();
     }
@@ -209,6 +214,7 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
     Tuple keyTuple;
 
     while (!context.isStopped() && (tuple = rightChild.next()) != null) {
+      memoryPool.reserve(MemoryUtil.calculateMemorySize(tuple));
       keyTuple = new VTuple(joinKeyPairs.size());
       for (int i = 0; i < rightKeyList.length; i++) {
         keyTuple.put(i, tuple.get(rightKeyList[i]));
@@ -232,6 +238,7 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
     super.rescan();
 
     tupleSlots.clear();
+    memoryPool.releaseAll();
     first = true;
 
     finished = false;
@@ -242,6 +249,7 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
   @Override
   public void close() throws IOException {
     super.close();
+    memoryPool.close();
     tupleSlots.clear();
     matched.clear();
     tupleSlots = null;
@@ -18,16 +18,21 @@
 
 package org.apache.tajo.engine.planner.physical;
 
+import org.apache.tajo.SessionVars;
+import org.apache.tajo.algebra.JoinType;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.engine.planner.Projector;
+import org.apache.tajo.engine.utils.CachedBroadcastTable;
 import org.apache.tajo.plan.util.PlannerUtil;
 import org.apache.tajo.catalog.SchemaUtil;
 import org.apache.tajo.plan.expr.EvalNode;
 import org.apache.tajo.plan.logical.JoinNode;
 import org.apache.tajo.storage.FrameTuple;
+import org.apache.tajo.storage.MemoryUtil;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.worker.MemoryPool;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
@@ -45,6 +50,10 @@ public class HashJoinExec extends BinaryPhysicalExec {
   protected FrameTuple frameTuple;
   protected Tuple outTuple = null;
   protected Map<Tuple, List<Tuple>> tupleSlots;
+  // the memory of the hash table is reserved from it. A join fails if it is exhausted.
+  protected MemoryPool memoryPool;
+  // true if tupleSlots is the read-only hash index of a cached broadcast table which is shared by tasks
+  protected boolean sharedHashTable = false;
   protected Iterator<Tuple> iterator = null;
   protected Tuple leftTuple;
   protected Tuple leftKeyTuple;
@@ -54,6 +63,7 @@ public class HashJoinExec extends BinaryPhysicalExec {
 
   protected boolean finished = false;
   protected boolean shouldGetLeftTuple = true;
+  protected boolean runtimeFilterPushed = false;
 
   // projection
   protected final Projector projector;
@@ -65,6 +75,7 @@ public class HashJoinExec extends BinaryPhysicalExec {
     this.plan = plan;
     this.joinQual = plan.getJoinQual();
     this.tupleSlots = new HashMap<Tuple, List<Tuple>>(100000);
+    this.memoryPool = newMemoryPool();
 
     // HashJoin only can manage equi join key pairs.
     this.joinKeyPairs = PlannerUtil.getJoinKeyPairs(joinQual, leftExec.getSchema(),
@@ -102,7 +113,7 @@ public class HashJoinExec extends BinaryPhysicalExec {
   }
 
   long scanStartTime = 0;
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     if (first) {
       loadRightToHashTable();
       scanStartTime = System.currentTimeMillis();
@@ -156,7 +167,18 @@ public class HashJoinExec extends BinaryPhysicalExec {
     Tuple tuple;
     Tuple keyTuple;
 
-    while (!context.isStopped() && (tuple = rightChild.next()) != null) {
+    CachedBroadcastTable cachedTable = null;
+    if (rightChild instanceof SeqScanExec) {
+      cachedTable = ((SeqScanExec) rightChild).getCachedTable();
+    }
+    if (cachedTable != null) {
+      // the hash table is built once for all tasks which read the same broadcast table
+      tupleSlots = cachedTable.getHashIndex(rightKeyList);
+      sharedHashTable = true;
+    }
+
+    while (!sharedHashTable && (!context.isStopped() && (tuple = rightChild.next()) != null) {
+      memoryPool.reserve(MemoryUtil.calculateMemorySize(tuple));
       keyTuple = new VTuple(joinKeyPairs.size());
       for (int i = 0; i < rightKeyList.length; i++) {
         keyTuple.put(i, tuple.get(rightKeyList[i]));
@@ -174,13 +196,59 @@ public class HashJoinExec extends BinaryPhysicalExec {
     }
 
     first = false;
+
+    if (!runtimeFilterPushed && context.getQueryContext().getBool(SessionVars.RUNTIME_FILTER_ENABLED)) {
+      pushDownRuntimeFilter();
+      runtimeFilterPushed = true;
+    }
+  }
+
+  /**
+   * Builds a runtime filter from the keys of the in-memory hash table, and then pushes it into the scan of
+   * the left side. As a result, left rows that never match are dropped before they reach this join.
+   * It is only valid for inner and left semi joins because the other joins must keep unmatched left rows.
+   */
+  protected void pushDownRuntimeFilter() {
+    JoinType joinType = plan.getJoinType();
+    if ((joinType != JoinType.INNER && joinType != JoinType.LEFT_SEMI) || joinKeyPairs.isEmpty()
+        || !(leftChild instanceof SeqScanExec)) {
+      return;
+    }
+
+    Column [] leftKeys = new Column[joinKeyPairs.size()];
+    int [] keyIds = new int[joinKeyPairs.size()];
+    for (int i = 0; i < joinKeyPairs.size(); i++) {
+      leftKeys[i] = joinKeyPairs.get(i)[0];
+      Column rightKey = joinKeyPairs.get(i)[1];
+      if (!leftKeys[i].getDataType().equals(rightKey.getDataType())
+          || !RuntimeFilter.isSupportedType(rightKey.getDataType().getType())) {
+        return;
+      }
+      keyIds[i] = i;
+    }
+
+    // about 8 bits per distinct key, but not larger than the configured size
+    int maxBits = context.getQueryContext().getInt(SessionVars.RUNTIME_FILTER_BLOOM_SIZE) * 8;
+    int numBits = (int) Math.min((long) maxBits, Math.max(64L, (long) tupleSlots.size() * 8));
+    RuntimeFilter runtimeFilter = new RuntimeFilter(leftKeys, numBits);
+    for (Tuple keyTuple : tupleSlots.keySet()) {
+      runtimeFilter.add(keyTuple, keyIds);
+    }
+
+    ((SeqScanExec) leftChild).addRuntimeFilter(runtimeFilter);
   }
 
   @Override
   public void rescan() throws IOException {
     super.rescan();
 
-    tupleSlots.clear();
+    if (sharedHashTable) {
+      tupleSlots = new HashMap<Tuple, List<Tuple>>(100000);
+      sharedHashTable = false;
+    } else {
+      tupleSlots.clear();
+    }
+    memoryPool.releaseAll();
     first = true;
 
     finished = false;
@@ -191,8 +259,11 @@ public class HashJoinExec extends BinaryPhysicalExec {
   @Override
   public void close() throws IOException {
     super.close();
+    memoryPool.close();
     if (tupleSlots != null) {
-      tupleSlots.clear();
+      if (!sharedHashTable) {
+        tupleSlots.clear();
+      }
       tupleSlots = null;
     }
 
@@ -56,7 +56,7 @@ public class HashLeftAntiJoinExec extends HashJoinExec {
    * @return The tuple which is unmatched to a given join condition.
    * @throws IOException
    */
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     if (first) {
       loadRightToHashTable();
     }
@@ -31,8 +31,10 @@ import org.apache.tajo.plan.expr.EvalNode;
 import org.apache.tajo.plan.expr.EvalTreeUtil;
 import org.apache.tajo.plan.logical.JoinNode;
 import org.apache.tajo.storage.FrameTuple;
+import org.apache.tajo.storage.MemoryUtil;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.worker.MemoryPool;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
@@ -52,6 +54,8 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
   protected FrameTuple frameTuple;
   protected Tuple outTuple = null;
   protected Map<Tuple, List<Tuple>> tupleSlots;
+  // the memory of the hash table is reserved from it. A join fails if it is exhausted.
+  protected MemoryPool memoryPool;
   protected Iterator<Tuple> iterator = null;
   protected Tuple leftTuple;
   protected Tuple leftKeyTuple;
@@ -92,6 +96,7 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
     }
 
     this.tupleSlots = new HashMap<Tuple, List<Tuple>>(10000);
+    this.memoryPool = newMemoryPool();
 
     // HashJoin only can manage equi join key pairs.
     this.joinKeyPairs = PlannerUtil.getJoinKeyPairs(joinQual, leftChild.getSchema(),
@@ -130,7 +135,7 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
     }
   }
 
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     if (first) {
       loadRightToHashTable();
     }
@@ -205,6 +210,7 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
     Tuple keyTuple;
 
     while (!context.isStopped() && (tuple = rightChild.next()) != null) {
+      memoryPool.reserve(MemoryUtil.calculateMemorySize(tuple));
       keyTuple = new VTuple(joinKeyPairs.size());
       for (int i = 0; i < rightKeyList.length; i++) {
         keyTuple.put(i, tuple.get(rightKeyList[i]));
@@ -227,6 +233,7 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
     super.rescan();
 
     tupleSlots.clear();
+    memoryPool.releaseAll();
     first = true;
 
     finished = false;
@@ -238,6 +245,7 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
   @Override
   public void close() throws IOException {
     super.close();
+    memoryPool.close();
     tupleSlots.clear();
     tupleSlots = null;
     iterator = null;
@@ -62,7 +62,7 @@ public class HashLeftSemiJoinExec extends HashJoinExec {
    * @return The tuple which is firstly matched to a given join condition.
    * @throws java.io.IOException
    */
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     if (first) {
       loadRightToHashTable();
     }
@@ -21,6 +21,7 @@ package org.apache.tajo.engine.planner.physical;
 import com.google.common.base.Preconditions;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.SessionVars;
 import org.apache.tajo.catalog.CatalogUtil;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.TableMeta;
@@ -53,6 +54,7 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
   private final int [] shuffleKeyIds;
   private HashShuffleAppenderManager hashShuffleAppenderManager;
   private int numHashShuffleBufferTuples;
+  private RuntimeFilter runtimeFilter;
 
   public HashShuffleFileWriteExec(TaskAttemptContext context,
                                   final ShuffleFileWriteNode plan, final PhysicalExec child) throws IOException {
@@ -75,6 +77,11 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
     this.partitioner = new HashPartitioner(shuffleKeyIds, numShuffleOutputs);
     this.hashShuffleAppenderManager = context.getHashShuffleAppenderManager();
     this.numHashShuffleBufferTuples = context.getConf().getIntVar(ConfVars.SHUFFLE_HASH_APPENDER_BUFFER_SIZE);
+
+    if (context.isProduceRuntimeFilter()) {
+      int numBits = context.getQueryContext().getInt(SessionVars.RUNTIME_FILTER_BLOOM_SIZE) * 8;
+      this.runtimeFilter = new RuntimeFilter(this.plan.getShuffleKeys(), numBits);
+    }
   }
 
   @Override
@@ -97,7 +104,7 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
   long writtenBytes = 0L;
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     try {
       Tuple tuple;
       int partId;
@@ -108,6 +115,9 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
         numRows++;
 
         partId = partitioner.getPartition(tuple);
+        if (runtimeFilter != null) {
+          runtimeFilter.add(tuple, shuffleKeyIds);
+        }
         List<Tuple> partitionTupleList = partitionTuples.get(partId);
         if (partitionTupleList == null) {
           partitionTupleList = new ArrayList<Tuple>(1000);
@@ -142,6 +152,9 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
       aggregated.setNumBytes(writtenBytes);
       aggregated.setNumRows(numRows);
       context.setResultStats(aggregated);
+      if (runtimeFilter != null && !context.isStopped()) {
+        context.setProducedRuntimeFilter(runtimeFilter);
+      }
 
       partitionTuples.clear();
 
@@ -37,7 +37,7 @@ public class HavingExec extends UnaryPhysicalExec  {
   }
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     Tuple tuple;
     while (!context.isStopped() && (tuple = child.next()) != null) {
       if (qual.eval(inSchema, tuple).isTrue()) {
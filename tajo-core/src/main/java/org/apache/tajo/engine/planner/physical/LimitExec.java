@@ -37,7 +37,7 @@ public class LimitExec extends UnaryPhysicalExec {
   }
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     Tuple tuple = child.next();
     fetchCount++;
 
@@ -47,7 +47,7 @@ public class MemSortExec extends SortExec {
   }
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
 
     if (!sorted) {
       Tuple tuple;
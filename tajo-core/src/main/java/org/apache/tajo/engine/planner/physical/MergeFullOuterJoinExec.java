@@ -106,7 +106,7 @@ public class MergeFullOuterJoinExec extends BinaryPhysicalExec {
     return this.joinNode;
   }
 
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     Tuple previous;
 
     while (!context.isStopped()) {
@@ -99,7 +99,7 @@ public class MergeJoinExec extends BinaryPhysicalExec {
     return this.joinNode;
   }
 
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     Tuple previous;
 
     while (!context.isStopped()) {
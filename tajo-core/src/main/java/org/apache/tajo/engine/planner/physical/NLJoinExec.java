@@ -66,7 +66,7 @@ public class NLJoinExec extends BinaryPhysicalExec {
     return this.plan;
   }
 
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     while (!context.isStopped()) {
       if (needNewOuter) {
         outerTuple = leftChild.next();
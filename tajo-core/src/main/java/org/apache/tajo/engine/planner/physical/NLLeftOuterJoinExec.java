@@ -72,7 +72,7 @@ public class NLLeftOuterJoinExec extends BinaryPhysicalExec {
     return this.plan;
   }
 
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     while (!context.isStopped()) {
       if (needNextRightTuple) {
         leftTuple = leftChild.next();
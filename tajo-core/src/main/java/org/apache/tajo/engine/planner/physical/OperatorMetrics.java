@@ -0,0 +1,193 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import com.google.gson.annotations.Expose;
+import org.apache.tajo.common.ProtoObject;
+import org.apache.tajo.catalog.proto.CatalogProtos.OperatorMetricsProto;
+import org.apache.tajo.util.FileUtil;
+
+/**
+ * Runtime metrics of a physical operator. Wall and CPU times exclude the times spent in the child operators.
+ * The metrics of the same operator in different tasks are combined by {@link #merge(OperatorMetrics)}.
+ *
+ * The first call of an operator often does most of its work, e.g., building a hash table or sorting the input,
+ * so the times of the first call are also reported separately. They are included in the total times.
+ */
+public class OperatorMetrics implements ProtoObject<OperatorMetricsProto> {
+  @Expose private final int planNodeId;
+  @Expose private final String name;
+  @Expose private long inputRows;
+  @Expose private long outputRows;
+  @Expose private long wallTimeNanos;
+  @Expose private long cpuTimeNanos;
+  @Expose private long peakMemory;
+  @Expose private long spilledBytes;
+  @Expose private int taskNum = 1;
+  @Expose private long firstCallWallTimeNanos;
+  @Expose private long firstCallCpuTimeNanos;
+
+  public OperatorMetrics(int planNodeId, String name) {
+    this.planNodeId = planNodeId;
+    this.name = name;
+  }
+
+  public OperatorMetrics(OperatorMetricsProto proto) {
+    this.planNodeId = proto.getPlanNodeId();
+    this.name = proto.getName();
+    this.inputRows = proto.getInputRows();
+    this.outputRows = proto.getOutputRows();
+    this.wallTimeNanos = proto.getWallTimeNanos();
+    this.cpuTimeNanos = proto.getCpuTimeNanos();
+    this.peakMemory = proto.getPeakMemory();
+    this.spilledBytes = proto.getSpilledBytes();
+    this.taskNum = proto.getTaskNum();
+    this.firstCallWallTimeNanos = proto.getFirstCallWallTimeNanos();
+    this.firstCallCpuTimeNanos = proto.getFirstCallCpuTimeNanos();
+  }
+
+  public int getPlanNodeId() {
+    return planNodeId;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return The key which identifies the same operator across tasks
+   */
+  public String getKey() {
+    return planNodeId + ":" + name;
+  }
+
+  public long getInputRows() {
+    return inputRows;
+  }
+
+  public void setInputRows(long inputRows) {
+    this.inputRows = inputRows;
+  }
+
+  public long getOutputRows() {
+    return outputRows;
+  }
+
+  public void setOutputRows(long outputRows) {
+    this.outputRows = outputRows;
+  }
+
+  public long getWallTimeNanos() {
+    return wallTimeNanos;
+  }
+
+  public void setWallTimeNanos(long wallTimeNanos) {
+    this.wallTimeNanos = wallTimeNanos;
+  }
+
+  public long getCpuTimeNanos() {
+    return cpuTimeNanos;
+  }
+
+  public void setCpuTimeNanos(long cpuTimeNanos) {
+    this.cpuTimeNanos = cpuTimeNanos;
+  }
+
+  public long getPeakMemory() {
+    return peakMemory;
+  }
+
+  public void setPeakMemory(long peakMemory) {
+    this.peakMemory = peakMemory;
+  }
+
+  public long getSpilledBytes() {
+    return spilledBytes;
+  }
+
+  public void setSpilledBytes(long spilledBytes) {
+    this.spilledBytes = spilledBytes;
+  }
+
+  public int getTaskNum() {
+    return taskNum;
+  }
+
+  public long getFirstCallWallTimeNanos() {
+    return firstCallWallTimeNanos;
+  }
+
+  public void setFirstCallWallTimeNanos(long firstCallWallTimeNanos) {
+    this.firstCallWallTimeNanos = firstCallWallTimeNanos;
+  }
+
+  public long getFirstCallCpuTimeNanos() {
+    return firstCallCpuTimeNanos;
+  }
+
+  public void setFirstCallCpuTimeNanos(long firstCallCpuTimeNanos) {
+    this.firstCallCpuTimeNanos = firstCallCpuTimeNanos;
+  }
+
+  /**
+   * Adds the metrics of the same operator in another task. The peak memory is the largest one of the tasks.
+   */
+  public void merge(OperatorMetrics other) {
+    inputRows += other.inputRows;
+    outputRows += other.outputRows;
+    wallTimeNanos += other.wallTimeNanos;
+    cpuTimeNanos += other.cpuTimeNanos;
+    peakMemory = Math.max(peakMemory, other.peakMemory);
+    spilledBytes += other.spilledBytes;
+    taskNum += other.taskNum;
+    firstCallWallTimeNanos += other.firstCallWallTimeNanos;
+    firstCallCpuTimeNanos += other.firstCallCpuTimeNanos;
+  }
+
+  @Override
+  public OperatorMetricsProto getProto() {
+    return OperatorMetricsProto.newBuilder()
+        .setPlanNodeId(planNodeId)
+        .setName(name)
+        .setInputRows(inputRows)
+        .setOutputRows(outputRows)
+        .setWallTimeNanos(wallTimeNanos)
+        .setCpuTimeNanos(cpuTimeNanos)
+        .setPeakMemory(peakMemory)
+        .setSpilledBytes(spilledBytes)
+        .setTaskNum(taskNum)
+        .setFirstCallWallTimeNanos(firstCallWallTimeNanos)
+        .setFirstCallCpuTimeNanos(firstCallCpuTimeNanos)
+        .build();
+  }
+
+  @Override
+  public String toString() {
+    return name + (planNodeId >= 0 ? " (pid=" + planNodeId + ")" : "")
+        + " rows: " + inputRows + " -> " + outputRows
+        + ", wall: " + (wallTimeNanos / 1000000) + " ms"
+        + ", cpu: " + (cpuTimeNanos / 1000000) + " ms"
+        + " (first call wall: " + (firstCallWallTimeNanos / 1000000) + " ms"
+        + ", cpu: " + (firstCallCpuTimeNanos / 1000000) + " ms)"
+        + ", peak memory: " + FileUtil.humanReadableByteCount(peakMemory, false)
+        + ", spilled: " + FileUtil.humanReadableByteCount(spilledBytes, false)
+        + (taskNum > 1 ? ", tasks: " + taskNum : "");
+  }
+}
@@ -0,0 +1,319 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.plan.expr.AggregationFunctionCallEval;
+import org.apache.tajo.plan.function.FunctionContext;
+import org.apache.tajo.plan.logical.GroupbyNode;
+import org.apache.tajo.storage.MemoryUtil;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.worker.MemoryPool;
+import org.apache.tajo.worker.TaskAttemptContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The hash-based GroupBy operator which uses multiple threads in a task.
+ *
+ * The input fragments of a task are divided into as many scans as the parallelism, and each scan is read by
+ * its own thread. A thread routes tuples to one of the hash partitions by their grouping keys, and
+ * each partition has a separate hash table. Since a grouping key belongs to only one partition,
+ * the partitions are simply concatenated for the output.
+ */
+public class ParallelHashAggregateExec extends AggregationExec {
+  /** the number of tuples which are aggregated into a partition at a time */
+  private static final int BATCH_SIZE = 1024;
+
+  private final SeqScanExec [] scans;
+  private final Partition [] partitions;
+  private final MemoryPool memoryPool;
+  private ExecutorService executor;
+
+  private final Tuple outTuple;
+  private boolean computed = false;
+  private int currentPartition = 0;
+  private Iterator<Entry<Tuple, FunctionContext []>> iterator = null;
+
+  /**
+   * @param scans The scans which read disjoint parts of the input. The first one becomes the child.
+   */
+  public ParallelHashAggregateExec(TaskAttemptContext ctx, GroupbyNode plan, SeqScanExec [] scans)
+      throws IOException {
+    super(ctx, plan, scans[0]);
+    this.scans = scans;
+    this.partitions = new Partition[scans.length];
+    for (int i = 0; i < partitions.length; i++) {
+      partitions[i] = new Partition();
+    }
+    this.outTuple = new VTuple(plan.getOutSchema().size());
+    this.memoryPool = newMemoryPool();
+  }
+
+  /**
+   * A hash partition. Aggregation functions keep temporal states, so each partition has its own functions.
+   */
+  private class Partition {
+    private final Map<Tuple, FunctionContext []> hashTable = new HashMap<Tuple, FunctionContext []>();
+    private final AggregationFunctionCallEval [] functions = new AggregationFunctionCallEval[aggFunctionsNum];
+
+    Partition() {
+      for (int i = 0; i < aggFunctionsNum; i++) {
+        try {
+          functions[i] = (AggregationFunctionCallEval) aggFunctions[i].clone();
+        } catch (CloneNotSupportedException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    }
+
+    synchronized void aggregate(List<Tuple> keys, List<Tuple> tuples) {
+      for (int i = 0; i < tuples.size(); i++) {
+        Tuple keyTuple = keys.get(i);
+        Tuple tuple = tuples.get(i);
+
+        FunctionContext [] contexts = hashTable.get(keyTuple);
+        if (contexts == null) { // if the key occurs firstly
+          contexts = new FunctionContext[aggFunctionsNum];
+          for (int j = 0; j < aggFunctionsNum; j++) {
+            contexts[j] = functions[j].newContext();
+          }
+          memoryPool.reserve(MemoryUtil.calculateMemorySize(keyTuple) + HashAggregateExec.ENTRY_OVERHEAD +
+              HashAggregateExec.CONTEXT_SIZE * aggFunctionsNum);
+          hashTable.put(keyTuple, contexts);
+        }
+        for (int j = 0; j < aggFunctionsNum; j++) {
+          functions[j].merge(contexts[j], inSchema, tuple);
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads a scan, and aggregates its tuples into partitions in batches.
+   */
+  private class ScanAggregator implements Callable<Void> {
+    private final SeqScanExec scan;
+    private final List<Tuple> [] keyBatches;
+    private final List<Tuple> [] tupleBatches;
+
+    @SuppressWarnings("unchecked")
+    ScanAggregator(SeqScanExec scan) {
+      this.scan = scan;
+      this.keyBatches = new List[partitions.length];
+      this.tupleBatches = new List[partitions.length];
+      for (int i = 0; i < partitions.length; i++) {
+        keyBatches[i] = new ArrayList<Tuple>(BATCH_SIZE);
+        tupleBatches[i] = new ArrayList<Tuple>(BATCH_SIZE);
+      }
+    }
+
+    @Override
+    public Void call() throws IOException {
+      Tuple tuple;
+      while (!context.isStopped() && (tuple = scan.next()) != null) {
+        Tuple keyTuple = new VTuple(groupingKeyIds.length);
+        for (int i = 0; i < groupingKeyIds.length; i++) {
+          keyTuple.put(i, tuple.get(groupingKeyIds[i]));
+        }
+
+        int partId = (keyTuple.hashCode() & Integer.MAX_VALUE) % partitions.length;
+        keyBatches[partId].add(keyTuple);
+        // a scanner may reuse the tuple for the next row, so the tuple is copied until the batch is flushed.
+        tupleBatches[partId].add(new VTuple(tuple));
+        if (tupleBatches[partId].size() >= BATCH_SIZE) {
+          flush(partId);
+        }
+      }
+
+      for (int i = 0; i < partitions.length; i++) {
+        flush(i);
+      }
+      return null;
+    }
+
+    private void flush(int partId) {
+      if (!tupleBatches[partId].isEmpty()) {
+        partitions[partId].aggregate(keyBatches[partId], tupleBatches[partId]);
+        keyBatches[partId].clear();
+        tupleBatches[partId].clear();
+      }
+    }
+  }
+
+  @Override
+  public void init() throws IOException {
+    super.init();
+    for (int i = 1; i < scans.length; i++) {
+      scans[i].init();
+    }
+  }
+
+  /**
+   * All scans are the children, although only the first one is consumed through {@link #child}.
+   */
+  @Override
+  public List<PhysicalExec> getChildren() {
+    return Arrays.<PhysicalExec>asList(scans);
+  }
+
+  private void compute() throws IOException {
+    executor = Executors.newFixedThreadPool(scans.length,
+        new ThreadFactoryBuilder().setNameFormat(context.getTaskId() + " aggregator #%d").setDaemon(true).build());
+
+    List<Future<Void>> futures = new ArrayList<Future<Void>>(scans.length);
+    for (SeqScanExec scan : scans) {
+      futures.add(executor.submit(new ScanAggregator(scan)));
+    }
+
+    try {
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      throw new IOException("Aggregation is interrupted", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else {
+        throw new IOException(cause);
+      }
+    } finally {
+      for (Future<Void> future : futures) {
+        future.cancel(true);
+      }
+      executor.shutdownNow();
+    }
+
+    // If there is no grouping key and no input tuple, it should return primitive values for NullDatum.
+    if (groupingKeyNum == 0 && aggFunctionsNum > 0) {
+      boolean empty = true;
+      for (Partition partition : partitions) {
+        empty &= partition.hashTable.isEmpty();
+      }
+      if (empty) {
+        FunctionContext [] contexts = new FunctionContext[aggFunctionsNum];
+        for (int i = 0; i < aggFunctionsNum; i++) {
+          contexts[i] = aggFunctions[i].newContext();
+        }
+        partitions[0].hashTable.put(null, contexts);
+      }
+    }
+  }
+
+  @Override
+  protected Tuple nextTuple() throws IOException {
+    if (!computed) {
+      compute();
+      computed = true;
+      rewind();
+    }
+
+    while (!iterator.hasNext()) {
+      if (++currentPartition >= partitions.length) {
+        return null;
+      }
+      iterator = partitions[currentPartition].hashTable.entrySet().iterator();
+    }
+
+    Entry<Tuple, FunctionContext []> entry = iterator.next();
+    Tuple keyTuple = entry.getKey();
+    FunctionContext [] contexts = entry.getValue();
+    AggregationFunctionCallEval [] functions = partitions[currentPartition].functions;
+
+    int tupleIdx = 0;
+    for (; tupleIdx < groupingKeyNum; tupleIdx++) {
+      outTuple.put(tupleIdx, keyTuple.get(tupleIdx));
+    }
+    for (int funcIdx = 0; funcIdx < aggFunctionsNum; funcIdx++, tupleIdx++) {
+      outTuple.put(tupleIdx, functions[funcIdx].terminate(contexts[funcIdx]));
+    }
+    return outTuple;
+  }
+
+  private void rewind() {
+    currentPartition = 0;
+    iterator = partitions[0].hashTable.entrySet().iterator();
+  }
+
+  @Override
+  public void rescan() throws IOException {
+    if (computed) {
+      rewind();
+    }
+  }
+
+  @Override
+  public float getProgress() {
+    if (computed) {
+      return 1.0f;
+    }
+    float progress = 0.0f;
+    for (SeqScanExec scan : scans) {
+      progress += scan.getProgress();
+    }
+    return progress / scans.length;
+  }
+
+  /**
+   * A scan keeps its stats after it is closed, so the stats of all scans are always available.
+   */
+  @Override
+  public TableStats getInputStats() {
+    TableStats stats = new TableStats();
+    for (SeqScanExec scan : scans) {
+      stats.merge(scan.getInputStats());
+    }
+    return stats;
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (int i = 1; i < scans.length; i++) {
+      scans[i].close();
+    }
+    super.close();
+    for (Partition partition : partitions) {
+      partition.hashTable.clear();
+    }
+    iterator = null;
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    memoryPool.close();
+  }
+}
@@ -67,7 +67,7 @@ public class PartitionMergeScanExec extends PhysicalExec {
   }
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     Tuple tuple;
     while (!context.isStopped() && currentScanner != null) {
       tuple = currentScanner.next();
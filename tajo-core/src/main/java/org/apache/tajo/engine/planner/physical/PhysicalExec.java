@@ -26,17 +26,45 @@ import org.apache.tajo.catalog.SchemaObject;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.engine.codegen.CompilationError;
 import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.worker.MemoryPool;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public abstract class PhysicalExec implements SchemaObject {
+  private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+  private static final boolean CPU_TIME_SUPPORTED = THREAD_BEAN.isCurrentThreadCpuTimeSupported();
+  /**
+   * the CPU time is measured at the first call of {@link #next()}, which may build a hash table or sort the input,
+   * and then sampled at the second call and every 256 calls after it
+   */
+  private static final long CPU_SAMPLE_MASK = 255;
+
   protected final TaskAttemptContext context;
   protected Schema inSchema;
   protected Schema outSchema;
   protected int outColumnNum;
 
+  private int planNodeId = -1;
+  private final List<MemoryPool> memoryPools = new ArrayList<MemoryPool>(1);
+  private long nextCalls;
+  private long outputRows;
+  private long wallTimeNanos;
+  private long sampledWallTimeNanos;
+  private long sampledCpuTimeNanos;
+  private long firstCallWallTimeNanos;
+  private long firstCallCpuTimeNanos;
+  private long firstCallChildWallTimeNanos;
+  private long firstCallChildCpuTimeNanos;
+
   public PhysicalExec(final TaskAttemptContext context, final Schema inSchema,
                       final Schema outSchema) {
     this.context = context;
@@ -58,7 +86,79 @@ public abstract class PhysicalExec implements SchemaObject {
   protected void compile() throws CompilationError {
   }
 
-  public abstract Tuple next() throws IOException;
+  /**
+   * Returns the next tuple, and it measures the rows and the times of this operator.
+   * The measured times include the times of the child operators.
+   */
+  public final Tuple next() throws IOException {
+    if (nextCalls == 0) {
+      return firstNext();
+    }
+
+    long startTime = System.nanoTime();
+    boolean sampled = CPU_TIME_SUPPORTED && (nextCalls++ & CPU_SAMPLE_MASK) == 1;
+    long startCpuTime = sampled ? THREAD_BEAN.getCurrentThreadCpuTime() : 0;
+
+    Tuple tuple = nextTuple();
+
+    long elapsed = System.nanoTime() - startTime;
+    wallTimeNanos += elapsed;
+    if (sampled) {
+      sampledCpuTimeNanos += THREAD_BEAN.getCurrentThreadCpuTime() - startCpuTime;
+      sampledWallTimeNanos += elapsed;
+    }
+    if (tuple != null) {
+      outputRows++;
+    }
+    return tuple;
+  }
+
+  /**
+   * Measures the first call separately, because it often does most of the work of a blocking operator.
+   * Its CPU time would skew the ratio of CPU time to wall time of the other calls if it were a sample.
+   */
+  private Tuple firstNext() throws IOException {
+    nextCalls++;
+    long childWallTime = getChildrenWallTime();
+    long childCpuTime = getChildrenCpuTime();
+    long startTime = System.nanoTime();
+    long startCpuTime = CPU_TIME_SUPPORTED ? THREAD_BEAN.getCurrentThreadCpuTime() : 0;
+
+    Tuple tuple = nextTuple();
+
+    firstCallWallTimeNanos = System.nanoTime() - startTime;
+    if (CPU_TIME_SUPPORTED) {
+      firstCallCpuTimeNanos = THREAD_BEAN.getCurrentThreadCpuTime() - startCpuTime;
+    }
+    wallTimeNanos += firstCallWallTimeNanos;
+    firstCallChildWallTimeNanos = getChildrenWallTime() - childWallTime;
+    firstCallChildCpuTimeNanos = getChildrenCpuTime() - childCpuTime;
+    if (tuple != null) {
+      outputRows++;
+    }
+    return tuple;
+  }
+
+  private long getChildrenWallTime() {
+    long wallTime = 0;
+    for (PhysicalExec child : getChildren()) {
+      wallTime += child.wallTimeNanos;
+    }
+    return wallTime;
+  }
+
+  private long getChildrenCpuTime() {
+    long cpuTime = 0;
+    for (PhysicalExec child : getChildren()) {
+      cpuTime += child.estimateCpuTime();
+    }
+    return cpuTime;
+  }
+
+  /**
+   * Returns the next tuple of this operator, or null if there is no more tuple.
+   */
+  protected abstract Tuple nextTuple() throws IOException;
 
   public abstract void rescan() throws IOException;
 
@@ -83,7 +183,109 @@ public abstract class PhysicalExec implements SchemaObject {
         UUID.randomUUID().toString());
   }
 
+  /**
+   * Creates a memory pool for this operator under the memory pool of its task.
+   * An operator which keeps tuples in memory should reserve memory from it and close it in {@link #close()}.
+   */
+  protected MemoryPool newMemoryPool() {
+    MemoryPool pool = context.getMemoryPool().newChild(getClass().getSimpleName());
+    memoryPools.add(pool);
+    return pool;
+  }
+
+  /**
+   * @return The bytes of the intermediate data which this operator has written to local disks
+   */
+  protected long getSpilledBytes() {
+    return 0;
+  }
+
   public TableStats getInputStats() {
     return null;
   }
+
+  /**
+   * @return The child operators whose tuples this operator consumes. They are unavailable after {@link #close()}.
+   */
+  public List<PhysicalExec> getChildren() {
+    return Collections.emptyList();
+  }
+
+  public int getPlanNodeId() {
+    return planNodeId;
+  }
+
+  /**
+   * Assigns the id of the logical node from which this operator is planned to this operator and to its
+   * descendants which do not have their own ids, such as the sort operators added for a merge join.
+   */
+  public void assignPlanNodeId(int pid) {
+    if (planNodeId < 0) {
+      planNodeId = pid;
+      for (PhysicalExec child : getChildren()) {
+        child.assignPlanNodeId(pid);
+      }
+    }
+  }
+
+  /**
+   * Collects the metrics of this operator and its descendants in pre-order.
+   * It must be called before {@link #close()}, because the child operators are released when closing.
+   */
+  public void collectMetrics(List<OperatorMetrics> metricsList) {
+    collectMetrics(metricsList, Collections.newSetFromMap(new IdentityHashMap<PhysicalExec, Boolean>()));
+  }
+
+  private void collectMetrics(List<OperatorMetrics> metricsList, Set<PhysicalExec> visited) {
+    if (!visited.add(this)) {
+      return; // an operator shared by several parents
+    }
+    OperatorMetrics metrics = new OperatorMetrics(planNodeId, getClass().getSimpleName());
+    metricsList.add(metrics);
+
+    long inputRows = 0;
+    long childWallTime = 0;
+    long childCpuTime = 0;
+    List<PhysicalExec> children = getChildren();
+    for (PhysicalExec child : children) {
+      inputRows += child.outputRows;
+      childWallTime += child.wallTimeNanos;
+      childCpuTime += child.estimateCpuTime();
+      child.collectMetrics(metricsList, visited);
+    }
+    if (children.isEmpty()) {
+      // a leaf operator reads rows from storages or fetched files
+      TableStats stats = getInputStats();
+      if (stats != null && stats.getNumRows() != null) {
+        inputRows = stats.getNumRows();
+      }
+    }
+
+    metrics.setInputRows(inputRows);
+    metrics.setOutputRows(outputRows);
+    metrics.setWallTimeNanos(Math.max(0, wallTimeNanos - childWallTime));
+    metrics.setCpuTimeNanos(Math.max(0, estimateCpuTime() - childCpuTime));
+    metrics.setFirstCallWallTimeNanos(Math.max(0, firstCallWallTimeNanos - firstCallChildWallTimeNanos));
+    metrics.setFirstCallCpuTimeNanos(Math.max(0, Math.min(firstCallWallTimeNanos, firstCallCpuTimeNanos)
+        - firstCallChildCpuTimeNanos));
+    long peakMemory = 0;
+    for (MemoryPool pool : memoryPools) {
+      peakMemory += pool.getPeak();
+    }
+    metrics.setPeakMemory(peakMemory);
+    metrics.setSpilledBytes(getSpilledBytes());
+  }
+
+  /**
+   * Estimates the CPU time. It is the measured CPU time of the first call plus the CPU time of the other calls,
+   * which is estimated from the ratio of CPU time to wall time in the sampled calls.
+   */
+  private long estimateCpuTime() {
+    long cpuTime = Math.min(firstCallWallTimeNanos, firstCallCpuTimeNanos);
+    if (sampledWallTimeNanos > 0) {
+      cpuTime += (long) ((wallTimeNanos - firstCallWallTimeNanos)
+          * Math.min(1.0d, (double) sampledCpuTimeNanos / sampledWallTimeNanos));
+    }
+    return cpuTime;
+  }
 }
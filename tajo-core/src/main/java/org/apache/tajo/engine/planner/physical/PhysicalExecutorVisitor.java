@@ -104,6 +104,9 @@ public interface PhysicalExecutorVisitor<CONTEXT, RESULT> {
                                          Stack<PhysicalExec> stack)
       throws PhysicalPlanningException;
 
+  RESULT visitSortedInputMerge(CONTEXT context, SortedInputMergeExec exec, Stack<PhysicalExec> stack)
+      throws PhysicalPlanningException;
+
   RESULT visitStoreTable(CONTEXT context, StoreTableExec exec, Stack<PhysicalExec> stack)
       throws PhysicalPlanningException;
 }
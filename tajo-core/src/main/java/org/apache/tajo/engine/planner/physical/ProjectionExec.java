@@ -50,7 +50,7 @@ public class ProjectionExec extends UnaryPhysicalExec {
   }
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     Tuple tuple = child.next();
 
     if (tuple ==  null) {
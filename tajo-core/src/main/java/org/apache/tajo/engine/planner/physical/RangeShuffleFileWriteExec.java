@@ -89,7 +89,7 @@ public class RangeShuffleFileWriteExec extends UnaryPhysicalExec {
   }
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     Tuple tuple;
     Tuple keyTuple;
     Tuple prevKeyTuple = null;
@@ -126,7 +126,7 @@ public class RightOuterMergeJoinExec extends BinaryPhysicalExec {
    * @return
    * @throws IOException
    */
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     Tuple previous;
 
     while (!context.isStopped()) {
@@ -0,0 +1,231 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import com.google.common.base.Preconditions;
+import com.google.protobuf.ByteString;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.proto.CatalogProtos.ColumnStatsProto;
+import org.apache.tajo.catalog.statistics.ColumnStats;
+import org.apache.tajo.common.ProtoObject;
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.ipc.TajoWorkerProtocol.RuntimeFilterProto;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.util.BloomFilter;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * A runtime join filter which is built from the join keys of the build side of an equi-join.
+ * It keeps the min/max value of each key column and a Bloom filter over the combined key hashes.
+ * The probe side uses it to drop rows that never match before they are shuffled or joined.
+ *
+ * A filter never yields false negatives, so it is always safe to evaluate it against inner and left semi joins.
+ */
+public class RuntimeFilter implements ProtoObject<RuntimeFilterProto> {
+  public static final int NUM_HASH_FUNCTIONS = 3;
+  /** If more than this ratio of bits are set, the filter is too dense to be worth evaluating. */
+  public static final double MAX_FILL_RATIO = 0.5;
+
+  private final Column [] keys;
+  private final boolean [] rangeComparable;
+  private final Datum [] minValues;
+  private final Datum [] maxValues;
+  private final BloomFilter bloomFilter;
+
+  public RuntimeFilter(Column [] keys, int numBits) {
+    Preconditions.checkArgument(keys.length > 0, "A runtime filter requires at least one key");
+    this.keys = keys;
+    this.rangeComparable = new boolean[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      rangeComparable[i] = isRangeComparable(keys[i].getDataType().getType());
+    }
+    this.minValues = new Datum[keys.length];
+    this.maxValues = new Datum[keys.length];
+    this.bloomFilter = new BloomFilter(numBits, NUM_HASH_FUNCTIONS);
+  }
+
+  public RuntimeFilter(RuntimeFilterProto proto) {
+    int keyNum = proto.getKeyStatsCount();
+    this.keys = new Column[keyNum];
+    this.rangeComparable = new boolean[keyNum];
+    this.minValues = new Datum[keyNum];
+    this.maxValues = new Datum[keyNum];
+    for (int i = 0; i < keyNum; i++) {
+      ColumnStats stats = new ColumnStats(proto.getKeyStats(i));
+      keys[i] = stats.getColumn();
+      rangeComparable[i] = isRangeComparable(keys[i].getDataType().getType());
+      minValues[i] = stats.getMinValue();
+      maxValues[i] = stats.getMaxValue();
+    }
+
+    // the words are random, so they are shipped as raw bytes instead of variable-length integers
+    LongBuffer words = proto.getBloomBits().asReadOnlyByteBuffer().asLongBuffer();
+    long [] bits = new long[words.remaining()];
+    words.get(bits);
+    this.bloomFilter = new BloomFilter(bits, proto.getNumHashFunctions());
+  }
+
+  private RuntimeFilter(Column [] keys, RuntimeFilter source) {
+    Preconditions.checkArgument(keys.length == source.keys.length, "The number of keys must be the same");
+    this.keys = keys;
+    this.rangeComparable = source.rangeComparable;
+    this.minValues = source.minValues;
+    this.maxValues = source.maxValues;
+    this.bloomFilter = source.bloomFilter;
+  }
+
+  /**
+   * The data types whose min/max values can be serialized and compared.
+   */
+  public static boolean isRangeComparable(TajoDataTypes.Type type) {
+    switch (type) {
+    case INT2:
+    case INT4:
+    case INT8:
+    case FLOAT4:
+    case FLOAT8:
+    case TEXT:
+    case DATE:
+    case TIME:
+    case TIMESTAMP:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  /**
+   * The data types whose hash values are consistent across the both sides of a join.
+   */
+  public static boolean isSupportedType(TajoDataTypes.Type type) {
+    return isRangeComparable(type) || type == TajoDataTypes.Type.BOOLEAN || type == TajoDataTypes.Type.INET4;
+  }
+
+  public Column [] getKeys() {
+    return keys;
+  }
+
+  /**
+   * Returns a filter sharing the same contents which is bound to the given key columns.
+   * It is used to apply a filter built from one side of a join to the other side.
+   */
+  public RuntimeFilter withKeys(Column [] otherKeys) {
+    return new RuntimeFilter(otherKeys, this);
+  }
+
+  public void add(Tuple tuple, int [] keyIds) {
+    int hash = 0;
+    for (int i = 0; i < keyIds.length; i++) {
+      Datum datum = tuple.get(keyIds[i]);
+      if (datum.isNull()) {
+        // a null key never matches in an equi-join
+        return;
+      }
+      hash = 31 * hash + datum.hashCode();
+    }
+
+    for (int i = 0; i < keyIds.length; i++) {
+      if (rangeComparable[i]) {
+        Datum datum = tuple.get(keyIds[i]);
+        if (minValues[i] == null || datum.compareTo(minValues[i]) < 0) {
+          minValues[i] = datum;
+        }
+        if (maxValues[i] == null || datum.compareTo(maxValues[i]) > 0) {
+          maxValues[i] = datum;
+        }
+      }
+    }
+    bloomFilter.add(hash);
+  }
+
+  /**
+   * @return False if the tuple definitely has no matched row in the other side.
+   */
+  public boolean mightContain(Tuple tuple, int [] keyIds) {
+    int hash = 0;
+    for (int i = 0; i < keyIds.length; i++) {
+      Datum datum = tuple.get(keyIds[i]);
+      if (datum.isNull()) {
+        return false;
+      }
+      if (rangeComparable[i]) {
+        if (minValues[i] == null) { // nothing was added
+          return false;
+        }
+        if (datum.compareTo(minValues[i]) < 0 || datum.compareTo(maxValues[i]) > 0) {
+          return false;
+        }
+      }
+      hash = 31 * hash + datum.hashCode();
+    }
+    return bloomFilter.mightContain(hash);
+  }
+
+  public void merge(RuntimeFilter other) {
+    Preconditions.checkArgument(keys.length == other.keys.length, "The number of keys must be the same");
+    for (int i = 0; i < keys.length; i++) {
+      if (rangeComparable[i] && other.minValues[i] != null) {
+        if (minValues[i] == null || other.minValues[i].compareTo(minValues[i]) < 0) {
+          minValues[i] = other.minValues[i];
+        }
+        if (maxValues[i] == null || other.maxValues[i].compareTo(maxValues[i]) > 0) {
+          maxValues[i] = other.maxValues[i];
+        }
+      }
+    }
+    bloomFilter.merge(other.bloomFilter);
+  }
+
+  /**
+   * @return True if the filter is expected to drop a meaningful fraction of probe rows.
+   */
+  public boolean isSelective() {
+    return bloomFilter.getFillRatio() <= MAX_FILL_RATIO;
+  }
+
+  @Override
+  public RuntimeFilterProto getProto() {
+    RuntimeFilterProto.Builder builder = RuntimeFilterProto.newBuilder();
+    for (int i = 0; i < keys.length; i++) {
+      ColumnStatsProto.Builder statsBuilder = ColumnStatsProto.newBuilder();
+      statsBuilder.setColumn(keys[i].getProto());
+      if (minValues[i] != null) {
+        statsBuilder.setMinValue(ByteString.copyFrom(minValues[i].asByteArray()));
+        statsBuilder.setMaxValue(ByteString.copyFrom(maxValues[i].asByteArray()));
+      }
+      builder.addKeyStats(statsBuilder);
+    }
+    builder.setNumHashFunctions(bloomFilter.getNumHashFunctions());
+    long [] bits = bloomFilter.getBits();
+    ByteBuffer words = ByteBuffer.allocate(bits.length * 8);
+    words.asLongBuffer().put(bits);
+    builder.setBloomBits(ByteString.copyFrom(words));
+    return builder.build();
+  }
+
+  @Override
+  public String toString() {
+    return "RuntimeFilter (keys=" + Arrays.toString(keys) + ", bits=" + bloomFilter.getNumBits()
+        + ", fill ratio=" + bloomFilter.getFillRatio() + ")";
+  }
+}
@@ -29,8 +29,12 @@ import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.datum.Datum;
 import org.apache.tajo.engine.codegen.CompilationError;
 import org.apache.tajo.engine.planner.Projector;
-import org.apache.tajo.engine.utils.TupleCache;
+import org.apache.tajo.engine.utils.BroadcastTableCache;
+import org.apache.tajo.engine.utils.CachedBroadcastTable;
+import org.apache.tajo.engine.utils.CachedTableScanner;
+import org.apache.tajo.engine.utils.TableFragmentCache;
 import org.apache.tajo.engine.utils.TupleCacheKey;
+import org.apache.tajo.engine.utils.TupleCacheScanner;
 import org.apache.tajo.catalog.SchemaUtil;
 import org.apache.tajo.plan.Target;
 import org.apache.tajo.plan.expr.ConstEval;
@@ -70,6 +74,14 @@ public class SeqScanExec extends PhysicalExec {
 
   private boolean cacheRead = false;
 
+  private CachedBroadcastTable cachedTable;
+
+  private Schema projected;
+
+  /** runtime join filters and the ids of their key columns in the input schema */
+  private List<RuntimeFilter> runtimeFilters = new ArrayList<RuntimeFilter>();
+  private List<int []> runtimeFilterKeyIds = new ArrayList<int []>();
+
   public SeqScanExec(TaskAttemptContext context, ScanNode plan,
                      CatalogProtos.FragmentProto [] fragments) throws IOException {
     super(context, plan.getInSchema(), plan.getOutSchema());
@@ -152,8 +164,6 @@ public class SeqScanExec extends PhysicalExec {
   }
 
   public void init() throws IOException {
-    Schema projected;
-
     if (plan.hasTargets()) {
       projected = new Schema();
       Set<Column> columnSet = new HashSet<Column>();
@@ -175,28 +185,28 @@ public class SeqScanExec extends PhysicalExec {
       projected = outSchema;
     }
 
-    if (cacheKey != null) {
-      TupleCache tupleCache = TupleCache.getInstance();
-      if (tupleCache.isBroadcastCacheReady(cacheKey)) {
-        openCacheScanner();
-      } else {
-        if (TupleCache.getInstance().lockBroadcastScan(cacheKey)) {
-          scanAndAddCache(projected);
-          openCacheScanner();
-        } else {
-          Object lockMonitor = tupleCache.getLockMonitor();
-          synchronized (lockMonitor) {
-            try {
-              lockMonitor.wait(20 * 1000);
-            } catch (InterruptedException e) {
-            }
-          }
-          if (tupleCache.isBroadcastCacheReady(cacheKey)) {
-            openCacheScanner();
-          } else {
-            initScanner(projected);
-          }
+    for (RuntimeFilter runtimeFilter : context.getRuntimeFilters()) {
+      addRuntimeFilter(runtimeFilter);
+    }
+
+    BroadcastTableCache cache = context.getBroadcastTableCache();
+    if (cacheKey != null && cache != null) {
+      initScanner(projected);
+      cachedTable = cache.acquire(cacheKey, outSchema, new BroadcastTableCache.Loader() {
+        @Override
+        public Tuple next() throws IOException {
+          return context.isStopped() ? null : SeqScanExec.this.nextTuple();
         }
+      });
+
+      if (cachedTable != null) {
+        IOUtils.cleanup(null, scanner);
+        scanner = new TupleCacheScanner(cachedTable.getTuples(), outSchema);
+        cacheRead = true;
+      } else {
+        // the scanner may be consumed by a failed load, so it reads the table again.
+        IOUtils.cleanup(null, scanner);
+        initScanner(projected);
       }
     } else {
       initScanner(projected);
@@ -212,6 +222,61 @@ public class SeqScanExec extends PhysicalExec {
     }
   }
 
+  /**
+   * Adds a runtime join filter which drops rows before they are evaluated by the qual and projected.
+   * A filter is ignored if one of its keys is not a column read by this scan. Broadcast tables are
+   * shared by many tasks, so they are never filtered.
+   *
+   * @return True if the filter is applied to this scan.
+   */
+  public boolean addRuntimeFilter(RuntimeFilter runtimeFilter) {
+    if (cacheKey != null || projected == null) {
+      return false;
+    }
+
+    Column [] keys = runtimeFilter.getKeys();
+    int [] keyIds = new int[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      keyIds[i] = findInputColumnId(keys[i]);
+      if (keyIds[i] < 0 || !keys[i].getDataType().equals(inSchema.getColumn(keyIds[i]).getDataType())) {
+        return false;
+      }
+    }
+    runtimeFilters.add(runtimeFilter);
+    runtimeFilterKeyIds.add(keyIds);
+    return true;
+  }
+
+  /**
+   * Finds the input column id of an output column which is a plain column reference.
+   */
+  private int findInputColumnId(Column column) {
+    String qualifiedName = column.getQualifiedName();
+    if (!inSchema.containsByQualifiedName(qualifiedName) || !projected.containsByQualifiedName(qualifiedName)) {
+      return -1;
+    }
+    int id = inSchema.getColumnId(qualifiedName);
+    if (!plan.hasTargets()) {
+      return id;
+    }
+    for (Target target : plan.getTargets()) {
+      if (target.getEvalTree() instanceof FieldEval && !target.hasAlias() &&
+          ((FieldEval) target.getEvalTree()).getColumnRef().getQualifiedName().equals(qualifiedName)) {
+        return id;
+      }
+    }
+    return -1;
+  }
+
+  private boolean passRuntimeFilters(Tuple tuple) {
+    for (int i = 0; i < runtimeFilters.size(); i++) {
+      if (!runtimeFilters.get(i).mightContain(tuple, runtimeFilterKeyIds.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private void initScanner(Schema projected) throws IOException {
     this.projector = new Projector(context, inSchema, outSchema, plan.getTargets());
     TableMeta meta = null;
@@ -225,7 +290,12 @@ public class SeqScanExec extends PhysicalExec {
     PlannerUtil.applySystemDefaultToTableProperties(context.getQueryContext(), meta);
 
     if (fragments != null) {
-      if (fragments.length > 1) {
+      Long tableCacheId = getTableCacheId();
+      if (tableCacheId != null) {
+        this.scanner = new CachedTableScanner(context.getTableFragmentCache(), plan.getTableName(), tableCacheId,
+            context.getConf(), meta, plan.getPhysicalSchema(), FragmentConvertor.convert(FileFragment.class, fragments),
+            projected);
+      } else if (fragments.length > 1) {
         this.scanner = new MergeScanner(context.getConf(), plan.getPhysicalSchema(), meta,
             FragmentConvertor.convert(context.getConf(), fragments), projected
         );
@@ -235,41 +305,35 @@ public class SeqScanExec extends PhysicalExec {
         this.scanner = storageManager.getScanner(meta,
             plan.getPhysicalSchema(), fragments[0], projected);
       }
+      if (plan.hasQual()) {
+        // a scanner may skip data by the qual, but the qual is still evaluated for every row.
+        scanner.setSearchCondition(plan.getQual());
+      }
       scanner.init();
     }
   }
 
-  private void openCacheScanner() throws IOException {
-    Scanner cacheScanner = TupleCache.getInstance().openCacheScanner(cacheKey, plan.getPhysicalSchema());
-    if (cacheScanner != null) {
-      scanner = cacheScanner;
-      cacheRead = true;
+  /**
+   * @return The cache id of the table if it is cached by CACHE TABLE. Null if the table is not cached,
+   * or this scan reads a broadcast table, which is cached per execution block.
+   */
+  private Long getTableCacheId() {
+    TableFragmentCache cache = context.getTableFragmentCache();
+    if (cacheKey != null || cache == null || cache.getCapacity() <= 0 || context.getQueryContext() == null) {
+      return null;
     }
+    return context.getQueryContext().getTableCacheId(plan.getTableName());
   }
 
-  private void scanAndAddCache(Schema projected) throws IOException {
-    initScanner(projected);
-
-    List<Tuple> broadcastTupleCacheList = new ArrayList<Tuple>();
-    while (!context.isStopped()) {
-      Tuple tuple = next();
-      if (tuple != null) {
-        broadcastTupleCacheList.add(tuple);
-      } else {
-        break;
-      }
-    }
-
-    if (scanner != null) {
-      scanner.close();
-      scanner = null;
-    }
-
-    TupleCache.getInstance().addBroadcastCache(cacheKey, broadcastTupleCacheList);
+  /**
+   * @return The shared broadcast table which this scan reads. Null if this scan does not read a cached table.
+   */
+  public CachedBroadcastTable getCachedTable() {
+    return cachedTable;
   }
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     if (fragments == null) {
       return null;
     }
@@ -278,21 +342,26 @@ public class SeqScanExec extends PhysicalExec {
     Tuple outTuple = new VTuple(outColumnNum);
 
     if (!plan.hasQual()) {
-      if ((tuple = scanner.next()) != null) {
+      while ((tuple = scanner.next()) != null) {
         if (cacheRead) {
           return tuple;
         }
+        if (!runtimeFilters.isEmpty() && !passRuntimeFilters(tuple)) {
+          continue;
+        }
         projector.eval(tuple, outTuple);
         outTuple.setOffset(tuple.getOffset());
         return outTuple;
-      } else {
-        return null;
       }
+      return null;
     } else {
       while ((tuple = scanner.next()) != null) {
         if (cacheRead) {
           return tuple;
         }
+        if (!runtimeFilters.isEmpty() && !passRuntimeFilters(tuple)) {
+          continue;
+        }
         if (qual.eval(inSchema, tuple).isTrue()) {
           projector.eval(tuple, outTuple);
           return outTuple;
@@ -321,15 +390,29 @@ public class SeqScanExec extends PhysicalExec {
       }
     }
     scanner = null;
+    if (cachedTable != null) {
+      cachedTable.release();
+      cachedTable = null;
+    }
     plan = null;
     qual = null;
     projector = null;
+    runtimeFilters.clear();
+    runtimeFilterKeyIds.clear();
   }
 
   public String getTableName() {
     return plan.getTableName();
   }
 
+  public ScanNode getScanNode() {
+    return plan;
+  }
+
+  public CatalogProtos.FragmentProto [] getFragments() {
+    return fragments;
+  }
+
   @Override
   public float getProgress() {
     if (scanner == null) {
@@ -52,7 +52,7 @@ public class SortAggregateExec extends AggregationExec {
   }
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     Tuple currentKey;
     Tuple tuple = null;
     Tuple outputTuple = null;
@@ -71,7 +71,7 @@ public class SortBasedColPartitionStoreExec extends ColPartitionStoreExec {
   }
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     Tuple tuple;
     while(!context.isStopped() && (tuple = child.next()) != null) {
 
@@ -48,5 +48,5 @@ public abstract class SortExec extends UnaryPhysicalExec {
   }
 
   @Override
-  abstract public Tuple next() throws IOException;
+  abstract protected Tuple nextTuple() throws IOException;
 }
@@ -0,0 +1,202 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.FragmentProto;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.plan.logical.SortNode;
+import org.apache.tajo.storage.RawFile.RawFileScanner;
+import org.apache.tajo.storage.Scanner;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.storage.fragment.FragmentConvertor;
+import org.apache.tajo.worker.TaskAttemptContext;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * It merges the fetched partitions of a range shuffle, each of which is already sorted by the producer task,
+ * into a sorted stream. All inputs are merged at once with a heap, so it reads each input only once
+ * and never writes intermediate runs to a disk unlike {@link ExternalSortExec}.
+ */
+public class SortedInputMergeExec extends SortExec {
+  private final SortNode plan;
+  private final TableMeta meta;
+  private final FileFragment [] fragments;
+
+  private Scanner [] scanners;
+  /** the current tuple of each input which is not exhausted */
+  private PriorityQueue<MergeEntry> heap;
+  private TableStats mergedInputStats;
+
+  public SortedInputMergeExec(TaskAttemptContext context, SortNode plan, FragmentProto [] fragmentProtos) {
+    super(context, plan.getInSchema(), plan.getOutSchema(), null, plan.getSortKeys());
+    this.plan = plan;
+    this.meta = CatalogUtil.newTableMeta(StoreType.RAW);
+    this.fragments = new FileFragment[fragmentProtos.length];
+    for (int i = 0; i < fragmentProtos.length; i++) {
+      fragments[i] = FragmentConvertor.convert(FileFragment.class, fragmentProtos[i]);
+    }
+  }
+
+  public SortNode getPlan() {
+    return plan;
+  }
+
+  @Override
+  public void init() throws IOException {
+    super.init();
+    openInputs();
+  }
+
+  private void openInputs() throws IOException {
+    scanners = new Scanner[fragments.length];
+    heap = new PriorityQueue<MergeEntry>(Math.max(1, fragments.length), new MergeEntryComparator(getComparator()));
+    for (int i = 0; i < fragments.length; i++) {
+      scanners[i] = new RawFileScanner(context.getConf(), inSchema, meta, fragments[i]);
+      scanners[i].init();
+      Tuple first = scanners[i].next();
+      if (first != null) {
+        heap.add(new MergeEntry(i, first));
+      }
+    }
+  }
+
+  @Override
+  protected Tuple nextTuple() throws IOException {
+    MergeEntry head = heap.poll();
+    if (head == null) {
+      return null;
+    }
+
+    Tuple current = head.tuple;
+    // a scanner returns a new tuple for each call, so the returned tuple is not overwritten by the next call.
+    Tuple next = scanners[head.inputId].next();
+    if (next != null) {
+      head.tuple = next;
+      heap.add(head);
+    }
+    return current;
+  }
+
+  @Override
+  public void rescan() throws IOException {
+    closeInputs();
+    openInputs();
+  }
+
+  private void closeInputs() throws IOException {
+    if (scanners == null) {
+      return;
+    }
+
+    for (Scanner scanner : scanners) {
+      if (scanner != null) {
+        scanner.close();
+      }
+    }
+    mergedInputStats = sumInputStats();
+
+    scanners = null;
+    heap = null;
+  }
+
+  @Override
+  public void close() throws IOException {
+    closeInputs();
+    super.close();
+  }
+
+  @Override
+  public float getProgress() {
+    if (scanners == null || scanners.length == 0) {
+      return progress;
+    }
+
+    float sum = 0.0f;
+    for (Scanner scanner : scanners) {
+      sum += scanner == null ? 0.0f : scanner.getProgress();
+    }
+    return sum / scanners.length;
+  }
+
+  @Override
+  public TableStats getInputStats() {
+    if (scanners == null) {
+      return mergedInputStats;
+    }
+
+    return sumInputStats();
+  }
+
+  private TableStats sumInputStats() {
+    TableStats stats = new TableStats();
+    long numRows = 0;
+    long numBytes = 0;
+    long readBytes = 0;
+    for (Scanner scanner : scanners) {
+      TableStats scannerStats = scanner == null ? null : scanner.getInputStats();
+      if (scannerStats != null) {
+        numRows += scannerStats.getNumRows();
+        numBytes += scannerStats.getNumBytes();
+        readBytes += scannerStats.getReadBytes();
+      }
+    }
+    stats.setNumRows(numRows);
+    stats.setNumBytes(numBytes);
+    stats.setReadBytes(readBytes);
+    return stats;
+  }
+
+  private static class MergeEntry {
+    private final int inputId;
+    private Tuple tuple;
+
+    MergeEntry(int inputId, Tuple tuple) {
+      this.inputId = inputId;
+      this.tuple = tuple;
+    }
+  }
+
+  /**
+   * The ties are broken by the input ids, so the tuples of the same key are returned in the order of the inputs.
+   */
+  private static class MergeEntryComparator implements Comparator<MergeEntry> {
+    private final Comparator<Tuple> tupleComparator;
+
+    MergeEntryComparator(Comparator<Tuple> tupleComparator) {
+      this.tupleComparator = tupleComparator;
+    }
+
+    @Override
+    public int compare(MergeEntry e1, MergeEntry e2) {
+      int cmp = tupleComparator.compare(e1.tuple, e2.tuple);
+      if (cmp != 0) {
+        return cmp;
+      }
+      return e1.inputId < e2.inputId ? -1 : (e1.inputId == e2.inputId ? 0 : 1);
+    }
+  }
+}
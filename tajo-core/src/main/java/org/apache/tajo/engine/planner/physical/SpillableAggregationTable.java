@@ -0,0 +1,452 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import com.google.common.base.Preconditions;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.LocalDirAllocator;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.SortSpec;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.conf.TajoConf.ConfVars;
+import org.apache.tajo.plan.expr.AggregationFunctionCallEval;
+import org.apache.tajo.plan.expr.EvalNode;
+import org.apache.tajo.plan.expr.FieldEval;
+import org.apache.tajo.plan.function.FunctionContext;
+import org.apache.tajo.storage.BaseTupleComparator;
+import org.apache.tajo.storage.MemoryUtil;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.TupleComparator;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.worker.MemoryPool;
+import org.apache.tajo.worker.TaskAttemptContext;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+import static org.apache.tajo.storage.RawFile.RawFileAppender;
+import static org.apache.tajo.storage.RawFile.RawFileScanner;
+
+/**
+ * A hash aggregation table whose keys are kept in a single flat open-addressing table instead of
+ * a map of maps. A key consists of the grouping key columns followed by the distinct key columns, if any.
+ *
+ * Each entry reserves memory from the given memory pool. When the pool is exhausted, all entries are sorted by
+ * their keys and spilled to a sorted run along with the partial results of their aggregation contexts.
+ * After all tuples are computed, the remaining entries and the runs are merged by key, so each key is
+ * returned only once in ascending order. Runs always keep partial results, even if the aggregation functions
+ * are final-phase ones, and the final results are computed only when the merged entries are returned.
+ */
+public class SpillableAggregationTable implements Closeable {
+  private static final Log LOG = LogFactory.getLog(SpillableAggregationTable.class);
+
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final float LOAD_FACTOR = 0.75f;
+  /** the estimated bytes of a slot and an aggregation context, excluding the key tuple */
+  static final long SLOT_SIZE = 24;
+  static final long CONTEXT_SIZE = 32;
+
+  private final TaskAttemptContext context;
+  private final Schema inSchema;
+  private final int [] keyIds;
+  private final AggregationFunctionCallEval [] aggFunctions;
+  /** the intermediate-phase aggregation functions which write and merge partial results in sorted runs */
+  private final AggregationFunctionCallEval [] mergers;
+  private final MemoryPool memoryPool;
+
+  /** key columns followed by partial results */
+  private final Schema runSchema;
+  private final TupleComparator keyComparator;
+
+  // a flat open-addressing table
+  private Tuple [] keys;
+  private FunctionContext [][] contexts;
+  private int [] hashes;
+  private int size = 0;
+
+  // sorted runs
+  private final Path spillDir;
+  private final LocalDirAllocator localDirAllocator;
+  private final RawLocalFileSystem localFS = new RawLocalFileSystem();
+  private final TableMeta runMeta = CatalogUtil.newTableMeta(StoreType.RAW);
+  private final List<Path> runPaths = new ArrayList<Path>();
+  private long spilledRowNum = 0;
+  private long spilledBytes = 0;
+
+  // read states
+  private boolean reading = false;
+  private Integer [] sortedSlots;
+  private int sortedIndex;
+  private PriorityQueue<RunSource> runQueue;
+
+  /**
+   * @param keyIds The column ids of key columns in the input schema
+   * @param memoryPool A memory pool which is dedicated to this table
+   * @param spillDir A directory name for sorted runs in the local temporal directories
+   */
+  public SpillableAggregationTable(TaskAttemptContext context, Schema inSchema, int [] keyIds,
+                                   AggregationFunctionCallEval [] aggFunctions, MemoryPool memoryPool,
+                                   Path spillDir) {
+    this.context = context;
+    this.inSchema = inSchema;
+    this.keyIds = keyIds;
+    this.aggFunctions = aggFunctions;
+    this.memoryPool = memoryPool;
+    this.spillDir = spillDir;
+    this.localDirAllocator = new LocalDirAllocator(ConfVars.WORKER_TEMPORAL_DIR.varname);
+
+    Schema keySchema = new Schema();
+    SortSpec [] sortSpecs = new SortSpec[keyIds.length];
+    for (int i = 0; i < keyIds.length; i++) {
+      Column column = inSchema.getColumn(keyIds[i]);
+      keySchema.addColumn(column);
+      sortSpecs[i] = new SortSpec(column);
+    }
+    this.keyComparator = keyIds.length > 0 ? new BaseTupleComparator(keySchema, sortSpecs) : null;
+
+    this.runSchema = new Schema(keySchema);
+    this.mergers = new AggregationFunctionCallEval[aggFunctions.length];
+    for (int i = 0; i < aggFunctions.length; i++) {
+      try {
+        mergers[i] = (AggregationFunctionCallEval) aggFunctions[i].clone();
+      } catch (CloneNotSupportedException e) {
+        throw new IllegalStateException(e);
+      }
+      mergers[i].setIntermediatePhase();
+      Column partialColumn = new Column("?partial_" + i, mergers[i].getValueType());
+      runSchema.addColumn(partialColumn);
+      mergers[i].setArgs(new EvalNode[] {new FieldEval(partialColumn)});
+    }
+
+    initTable(INITIAL_CAPACITY);
+  }
+
+  private void initTable(int capacity) {
+    keys = new Tuple[capacity];
+    contexts = new FunctionContext[capacity][];
+    hashes = new int[capacity];
+    size = 0;
+  }
+
+  private static int mix(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private int findSlot(Tuple key, int hash) {
+    int mask = keys.length - 1;
+    int slot = hash & mask;
+    while (keys[slot] != null && (hashes[slot] != hash || !keys[slot].equals(key))) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void resize() {
+    Tuple [] oldKeys = keys;
+    FunctionContext [][] oldContexts = contexts;
+    int [] oldHashes = hashes;
+    int oldSize = size;
+
+    initTable(oldKeys.length * 2);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != null) {
+        int slot = findSlot(oldKeys[i], oldHashes[i]);
+        keys[slot] = oldKeys[i];
+        contexts[slot] = oldContexts[i];
+        hashes[slot] = oldHashes[i];
+      }
+    }
+    size = oldSize;
+  }
+
+  /**
+   * Aggregates a tuple into the entry of its key.
+   */
+  public void compute(Tuple tuple) throws IOException {
+    Preconditions.checkState(!reading, "A tuple cannot be computed while the table is being read");
+
+    Tuple key = new VTuple(keyIds.length);
+    for (int i = 0; i < keyIds.length; i++) {
+      key.put(i, tuple.get(keyIds[i]));
+    }
+    int hash = mix(key.hashCode());
+    int slot = findSlot(key, hash);
+
+    if (keys[slot] == null) { // if the key occurs firstly
+      long entrySize = MemoryUtil.calculateMemorySize(key) + SLOT_SIZE + CONTEXT_SIZE * aggFunctions.length;
+      if (!memoryPool.tryReserve(entrySize)) {
+        if (size > 0) {
+          spill();
+          slot = findSlot(key, hash);
+        }
+        memoryPool.reserve(entrySize);
+      }
+
+      FunctionContext [] entryContexts = new FunctionContext[aggFunctions.length];
+      for (int i = 0; i < aggFunctions.length; i++) {
+        entryContexts[i] = aggFunctions[i].newContext();
+      }
+      keys[slot] = key;
+      contexts[slot] = entryContexts;
+      hashes[slot] = hash;
+      size++;
+    }
+
+    FunctionContext [] entryContexts = contexts[slot];
+    for (int i = 0; i < aggFunctions.length; i++) {
+      aggFunctions[i].merge(entryContexts[i], inSchema, tuple);
+    }
+
+    if (size > keys.length * LOAD_FACTOR) {
+      resize();
+    }
+  }
+
+  private Integer [] sortSlots() {
+    Integer [] slots = new Integer[size];
+    int index = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != null) {
+        slots[index++] = i;
+      }
+    }
+    if (keyComparator != null) {
+      Arrays.sort(slots, new Comparator<Integer>() {
+        @Override
+        public int compare(Integer o1, Integer o2) {
+          return keyComparator.compare(keys[o1], keys[o2]);
+        }
+      });
+    }
+    return slots;
+  }
+
+  private Tuple toRunRow(int slot) {
+    Tuple row = new VTuple(runSchema.size());
+    Tuple key = keys[slot];
+    for (int i = 0; i < keyIds.length; i++) {
+      row.put(i, key.get(i));
+    }
+    for (int i = 0; i < mergers.length; i++) {
+      row.put(keyIds.length + i, mergers[i].terminate(contexts[slot][i]));
+    }
+    return row;
+  }
+
+  /**
+   * Writes all entries to a sorted run, and then it empties the table.
+   */
+  private void spill() throws IOException {
+    long start = System.currentTimeMillis();
+    Path runPath = localDirAllocator.getLocalPathForWrite(spillDir + "/run_" + runPaths.size(), context.getConf());
+    RawFileAppender appender = new RawFileAppender(context.getConf(), null, runSchema, runMeta, runPath);
+    appender.init();
+    for (Integer slot : sortSlots()) {
+      appender.addTuple(toRunRow(slot));
+    }
+    appender.close();
+
+    runPaths.add(runPath);
+    spilledRowNum += size;
+    spilledBytes += appender.getOffset();
+    LOG.info("Memory budget is exhausted (" + memoryPool + "). " + size + " entries are spilled to " + runPath
+        + " (" + (System.currentTimeMillis() - start) + " msec)");
+
+    initTable(INITIAL_CAPACITY);
+    memoryPool.releaseAll();
+  }
+
+  public boolean isSpilled() {
+    return !runPaths.isEmpty();
+  }
+
+  /**
+   * @return The bytes written to sorted runs
+   */
+  public long getSpilledBytes() {
+    return spilledBytes;
+  }
+
+  /**
+   * @return The number of entries, which may count a key more than once if the table is spilled.
+   */
+  public long size() {
+    return size + spilledRowNum;
+  }
+
+  /**
+   * Starts to read entries from the smallest key. No more tuple can be computed after it is called.
+   */
+  public void rewind() throws IOException {
+    closeRuns();
+    reading = true;
+    if (sortedSlots == null) {
+      sortedSlots = sortSlots();
+    }
+    sortedIndex = 0;
+
+    if (!runPaths.isEmpty()) {
+      runQueue = new PriorityQueue<RunSource>(runPaths.size() + 1, new Comparator<RunSource>() {
+        @Override
+        public int compare(RunSource o1, RunSource o2) {
+          return keyComparator == null ? 0 : keyComparator.compare(o1.current, o2.current);
+        }
+      });
+      for (Path runPath : runPaths) {
+        RawFileScanner scanner = new RawFileScanner(context.getConf(), runSchema, runMeta,
+            new FileFragment("", runPath, 0, new File(localFS.makeQualified(runPath).toUri()).length()));
+        scanner.init();
+        addSource(new RunSource(scanner));
+      }
+    }
+  }
+
+  private void addSource(RunSource source) throws IOException {
+    if (source.advance()) {
+      runQueue.add(source);
+    } else {
+      source.close();
+    }
+  }
+
+  /**
+   * Returns the next entry, which consists of the key columns followed by the results of aggregation functions.
+   *
+   * @return The next entry, or null if all entries are read.
+   */
+  public Tuple next() throws IOException {
+    Preconditions.checkState(reading, "rewind() must be called before reading entries");
+
+    if (runQueue == null) { // all entries are in memory
+      if (sortedIndex >= sortedSlots.length) {
+        return null;
+      }
+      int slot = sortedSlots[sortedIndex++];
+      Tuple entry = new VTuple(keyIds.length + aggFunctions.length);
+      for (int i = 0; i < keyIds.length; i++) {
+        entry.put(i, keys[slot].get(i));
+      }
+      for (int i = 0; i < aggFunctions.length; i++) {
+        entry.put(keyIds.length + i, aggFunctions[i].terminate(contexts[slot][i]));
+      }
+      return entry;
+    }
+
+    // merge the smallest key of the in-memory entries and the runs
+    Tuple key = null;
+    if (sortedIndex < sortedSlots.length) {
+      key = keys[sortedSlots[sortedIndex]];
+    }
+    if (!runQueue.isEmpty() && (key == null || compareKey(runQueue.peek().current, key) < 0)) {
+      key = runQueue.peek().current;
+    }
+    if (key == null) {
+      return null;
+    }
+
+    FunctionContext [] merged = new FunctionContext[aggFunctions.length];
+    for (int i = 0; i < aggFunctions.length; i++) {
+      merged[i] = aggFunctions[i].newContext();
+    }
+    Tuple entry = new VTuple(keyIds.length + aggFunctions.length);
+    for (int i = 0; i < keyIds.length; i++) {
+      entry.put(i, key.get(i));
+    }
+
+    if (sortedIndex < sortedSlots.length && compareKey(keys[sortedSlots[sortedIndex]], key) == 0) {
+      mergeRunRow(merged, toRunRow(sortedSlots[sortedIndex++]));
+    }
+    while (!runQueue.isEmpty() && compareKey(runQueue.peek().current, entry) == 0) {
+      RunSource source = runQueue.poll();
+      mergeRunRow(merged, source.current);
+      addSource(source);
+    }
+
+    for (int i = 0; i < aggFunctions.length; i++) {
+      entry.put(keyIds.length + i, aggFunctions[i].terminate(merged[i]));
+    }
+    return entry;
+  }
+
+  private int compareKey(Tuple key1, Tuple key2) {
+    return keyComparator == null ? 0 : keyComparator.compare(key1, key2);
+  }
+
+  private void mergeRunRow(FunctionContext [] merged, Tuple runRow) {
+    for (int i = 0; i < mergers.length; i++) {
+      mergers[i].merge(merged[i], runSchema, runRow);
+    }
+  }
+
+  private void closeRuns() throws IOException {
+    if (runQueue != null) {
+      for (RunSource source : runQueue) {
+        source.close();
+      }
+      runQueue = null;
+    }
+  }
+
+  /**
+   * Removes all entries and runs, and releases their memory.
+   */
+  @Override
+  public void close() throws IOException {
+    closeRuns();
+    for (Path runPath : runPaths) {
+      localFS.delete(runPath, false);
+    }
+    runPaths.clear();
+    spilledRowNum = 0;
+    sortedSlots = null;
+    initTable(INITIAL_CAPACITY);
+    memoryPool.close();
+  }
+
+  private static class RunSource {
+    private final RawFileScanner scanner;
+    private Tuple current;
+
+    RunSource(RawFileScanner scanner) {
+      this.scanner = scanner;
+    }
+
+    boolean advance() throws IOException {
+      Tuple tuple = scanner.next();
+      // a scanner may reuse its tuple
+      current = tuple == null ? null : new VTuple(tuple);
+      return current != null;
+    }
+
+    void close() throws IOException {
+      scanner.close();
+    }
+  }
+}
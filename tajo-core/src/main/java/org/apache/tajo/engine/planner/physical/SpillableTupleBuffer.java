@@ -0,0 +1,267 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import com.google.common.base.Preconditions;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.LocalDirAllocator;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.conf.TajoConf.ConfVars;
+import org.apache.tajo.engine.utils.CachedBroadcastTable;
+import org.apache.tajo.storage.MemoryUtil;
+import org.apache.tajo.storage.RowStoreUtil;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.tuple.offheap.OffHeapRowBlock;
+import org.apache.tajo.tuple.offheap.OffHeapRowBlockReader;
+import org.apache.tajo.tuple.offheap.ResizableLimitSpec;
+import org.apache.tajo.tuple.offheap.ZeroCopyTuple;
+import org.apache.tajo.util.FileUtil;
+import org.apache.tajo.worker.MemoryPool;
+import org.apache.tajo.worker.TaskAttemptContext;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.apache.tajo.storage.RawFile.RawFileAppender;
+import static org.apache.tajo.storage.RawFile.RawFileScanner;
+
+/**
+ * An append-only buffer of tuples which are read back in the order in which they are added.
+ *
+ * Tuples are kept in an off-heap row block while the memory pool allows. Once the memory pool is exhausted,
+ * the following tuples are appended to a raw file in a local temporal directory. If the schema has a type
+ * which cannot be stored in a row block, tuples in memory are kept as heap tuples instead.
+ *
+ * A buffer can be reused for the next group of tuples after {@link #clear()}.
+ */
+public class SpillableTupleBuffer implements Closeable {
+  private static final Log LOG = LogFactory.getLog(SpillableTupleBuffer.class);
+  private static final int INITIAL_BLOCK_SIZE = 64 * 1024;
+
+  private final TaskAttemptContext context;
+  private final Schema schema;
+  private final MemoryPool memoryPool;
+  private final Path spillDir;
+  private final LocalDirAllocator localDirAllocator;
+  private final RawLocalFileSystem localFS = new RawLocalFileSystem();
+  private final TableMeta spillMeta = CatalogUtil.newTableMeta(StoreType.RAW);
+
+  // tuples in memory
+  private final boolean offHeap;
+  private OffHeapRowBlock rowBlock;
+  private final List<Tuple> heapTuples = new ArrayList<Tuple>();
+  private int memoryRowNum = 0;
+
+  // tuples in a file
+  private int spillNum = 0;
+  private Path spillPath;
+  private RawFileAppender spillAppender;
+  private long spilledRowNum = 0;
+  /** the bytes written to spill files since this buffer is created */
+  private long spilledBytes = 0;
+
+  // read states
+  private boolean reading = false;
+  private OffHeapRowBlockReader blockReader;
+  private Iterator<Tuple> heapIterator;
+  private RawFileScanner spillScanner;
+
+  public SpillableTupleBuffer(TaskAttemptContext context, Schema schema, MemoryPool memoryPool, Path spillDir) {
+    this.context = context;
+    this.schema = schema;
+    this.memoryPool = memoryPool;
+    this.spillDir = spillDir;
+    this.localDirAllocator = new LocalDirAllocator(ConfVars.WORKER_TEMPORAL_DIR.varname);
+    this.offHeap = CachedBroadcastTable.isCacheable(schema);
+  }
+
+  /**
+   * Appends a copy of a tuple. A tuple cannot be added while the buffer is being read.
+   */
+  public void add(Tuple tuple) throws IOException {
+    Preconditions.checkState(!reading, "A tuple cannot be added while the buffer is being read");
+
+    if (spillAppender == null) {
+      // each field of a row takes an offset of 4 bytes in addition to its value
+      long rowSize = MemoryUtil.calculateMemorySize(tuple) + (offHeap ? (schema.size() + 1) * 4 : 0);
+      if (memoryPool.tryReserve(rowSize)) {
+        if (offHeap) {
+          if (rowBlock == null) {
+            rowBlock = new OffHeapRowBlock(schema,
+                new ResizableLimitSpec(INITIAL_BLOCK_SIZE, ResizableLimitSpec.MAX_SIZE_BYTES));
+          }
+          RowStoreUtil.convert(tuple, rowBlock.getWriter());
+        } else {
+          heapTuples.add(new VTuple(tuple));
+        }
+        memoryRowNum++;
+        return;
+      }
+      startSpill();
+    }
+
+    spillAppender.addTuple(tuple);
+    spilledRowNum++;
+  }
+
+  private void startSpill() throws IOException {
+    spillPath = localDirAllocator.getLocalPathForWrite(spillDir + "/spill_" + (spillNum++), context.getConf());
+    spillAppender = new RawFileAppender(context.getConf(), null, schema, spillMeta, spillPath);
+    spillAppender.init();
+    LOG.info("Memory budget is exhausted (" + memoryPool + "). The following tuples are spilled to " + spillPath);
+  }
+
+  public long size() {
+    return memoryRowNum + spilledRowNum;
+  }
+
+  public boolean isSpilled() {
+    return spillPath != null;
+  }
+
+  public long getSpilledBytes() {
+    return spilledBytes;
+  }
+
+  private void closeSpillAppender() throws IOException {
+    spillAppender.close();
+    spilledBytes += spillAppender.getOffset();
+    spillAppender = null;
+  }
+
+  /**
+   * Starts to read tuples from the first one.
+   */
+  public void rewind() throws IOException {
+    if (spillAppender != null) {
+      closeSpillAppender();
+      LOG.info(FileUtil.humanReadableByteCount(getSpillFile().length(), false) + " ("
+          + spilledRowNum + " rows) are spilled to " + spillPath);
+    }
+    closeReaders();
+
+    reading = true;
+    if (offHeap) {
+      if (rowBlock != null) {
+        blockReader = rowBlock.getReader();
+      }
+    } else {
+      heapIterator = heapTuples.iterator();
+    }
+  }
+
+  /**
+   * Returns the next tuple. A tuple in memory is valid until this buffer is cleared.
+   *
+   * @return The next tuple, or null if all tuples are read.
+   */
+  public Tuple next() throws IOException {
+    Preconditions.checkState(reading, "rewind() must be called before reading tuples");
+
+    if (blockReader != null) {
+      ZeroCopyTuple tuple = new ZeroCopyTuple();
+      if (blockReader.next(tuple)) {
+        return tuple;
+      }
+      blockReader = null;
+    }
+
+    if (heapIterator != null) {
+      if (heapIterator.hasNext()) {
+        return heapIterator.next();
+      }
+      heapIterator = null;
+    }
+
+    if (spillPath != null) {
+      if (spillScanner == null) {
+        spillScanner = new RawFileScanner(context.getConf(), schema, spillMeta,
+            new FileFragment("", spillPath, 0, getSpillFile().length()));
+        spillScanner.init();
+      }
+      return spillScanner.next();
+    }
+
+    return null;
+  }
+
+  private File getSpillFile() {
+    return new File(localFS.makeQualified(spillPath).toUri());
+  }
+
+  private void closeReaders() throws IOException {
+    blockReader = null;
+    heapIterator = null;
+    if (spillScanner != null) {
+      spillScanner.close();
+      spillScanner = null;
+    }
+  }
+
+  /**
+   * Removes all tuples and releases their memory and files.
+   */
+  public void clear() throws IOException {
+    closeReaders();
+    reading = false;
+
+    if (rowBlock != null) {
+      if (rowBlock.size() > INITIAL_BLOCK_SIZE) { // do not keep a large block for the next group
+        rowBlock.release();
+        rowBlock = null;
+      } else {
+        rowBlock.clear();
+      }
+    }
+    heapTuples.clear();
+    memoryRowNum = 0;
+    memoryPool.releaseAll();
+
+    if (spillAppender != null) {
+      closeSpillAppender();
+    }
+    if (spillPath != null) {
+      localFS.delete(spillPath, false);
+      spillPath = null;
+    }
+    spilledRowNum = 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    clear();
+    if (rowBlock != null) {
+      rowBlock.release();
+      rowBlock = null;
+    }
+  }
+}
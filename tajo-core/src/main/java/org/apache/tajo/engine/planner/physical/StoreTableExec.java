@@ -111,10 +111,10 @@ public class StoreTableExec extends UnaryPhysicalExec {
   }
 
   /* (non-Javadoc)
-   * @see PhysicalExec#next()
+   * @see PhysicalExec#nextTuple()
    */
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     while(!context.isStopped() && (tuple = child.next()) != null) {
       appender.addTuple(tuple);
 
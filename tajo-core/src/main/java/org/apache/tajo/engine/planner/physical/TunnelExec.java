@@ -33,7 +33,7 @@ public class TunnelExec extends UnaryPhysicalExec {
   }
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     return child.next();
   }
   @Override
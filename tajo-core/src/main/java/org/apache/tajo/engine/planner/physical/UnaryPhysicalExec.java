@@ -24,6 +24,8 @@ import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 public abstract class UnaryPhysicalExec extends PhysicalExec {
   protected PhysicalExec child;
@@ -46,6 +48,11 @@ public abstract class UnaryPhysicalExec extends PhysicalExec {
     this.child = child;
   }
 
+  @Override
+  public List<PhysicalExec> getChildren() {
+    return child == null ? Collections.<PhysicalExec>emptyList() : Collections.singletonList(child);
+  }
+
   @Override
   public void init() throws IOException {
     progress = 0.0f;
@@ -40,7 +40,7 @@ public class UnionExec extends BinaryPhysicalExec {
   }
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
     if (nextOuter) {
       tuple = leftChild.next();
       if (tuple == null) {
@@ -23,24 +23,36 @@ import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.SortSpec;
 import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.NullDatum;
 import org.apache.tajo.plan.expr.WindowFunctionEval;
 import org.apache.tajo.plan.function.FunctionContext;
 import org.apache.tajo.plan.logical.WindowAggNode;
 import org.apache.tajo.plan.logical.WindowSpec;
 import org.apache.tajo.storage.BaseTupleComparator;
+import org.apache.tajo.storage.MemoryUtil;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.TupleComparator;
 import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.worker.MemoryPool;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
 /**
  * The sort-based window aggregation operator
+ *
+ * If all ordered functions have the same sort specs, the child is sorted by the partition keys and the sort specs
+ * (see {@link #getRequiredSortSpecs(WindowAggNode)}), and the window is evaluated in a streaming fashion.
+ * Window functions are evaluated over the running frame of each row, so no row is buffered. Aggregation functions
+ * are evaluated over a whole partition, so the rows of a partition are kept in a {@link SpillableTupleBuffer} until
+ * the end of the partition.
+ *
+ * Otherwise, all rows of a partition are kept in memory and sorted for each function.
  */
 public class WindowAggExec extends UnaryPhysicalExec {
   // plan information
@@ -69,6 +81,17 @@ public class WindowAggExec extends UnaryPhysicalExec {
 
   private boolean endCurrentRow = false;
 
+  // A window frame is kept in memory, so it fails if this pool is exhausted.
+  private final MemoryPool memoryPool;
+
+  // for streaming evaluation
+  private final boolean streaming;
+  private boolean hasAggFunctions = false;
+  private SpillableTupleBuffer partitionBuffer;
+  private Datum [] aggResults;
+  private Tuple pendingTuple;
+  private boolean replaying = false;
+
   // operator state
   enum WindowState {
     NEW_WINDOW,
@@ -89,6 +112,7 @@ public class WindowAggExec extends UnaryPhysicalExec {
 
   public WindowAggExec(TaskAttemptContext context, WindowAggNode plan, PhysicalExec child) throws IOException {
     super(context, plan.getInSchema(), plan.getOutSchema(), child);
+    this.memoryPool = newMemoryPool();
 
     if (plan.hasPartitionKeys()) {
       final Column[] keyColumns = plan.getPartitionKeys();
@@ -178,6 +202,61 @@ public class WindowAggExec extends UnaryPhysicalExec {
     }
 
     outputColumnNum = nonFunctionColumnNum + functionNum;
+
+    streaming = getCommonSortSpecs(plan) != null;
+    if (aggFuncFlags != null) {
+      for (boolean aggFunc : aggFuncFlags) {
+        hasAggFunctions |= aggFunc;
+      }
+    }
+    if (streaming && hasAggFunctions) {
+      partitionBuffer = new SpillableTupleBuffer(context, outSchema, memoryPool, getExecutorTmpDir());
+      aggResults = new Datum[functionNum];
+    }
+  }
+
+  /**
+   * @return The sort specs of ordered functions if all of them are the same, or an empty array if there is no
+   * ordered function. Null if ordered functions have different sort specs.
+   */
+  private static SortSpec [] getCommonSortSpecs(WindowAggNode plan) {
+    SortSpec [] common = new SortSpec[0];
+    if (plan.hasAggFunctions()) {
+      boolean found = false;
+      for (WindowFunctionEval function : plan.getWindowFunctions()) {
+        if (function.hasSortSpecs()) {
+          if (!found) {
+            common = function.getSortSpecs();
+            found = true;
+          } else if (!Arrays.equals(common, function.getSortSpecs())) {
+            return null;
+          }
+        }
+      }
+    }
+    return common;
+  }
+
+  /**
+   * Returns the order in which the child of a window aggregation must be sorted.
+   * The partition keys come first, and then the common sort specs of functions if any.
+   */
+  public static SortSpec [] getRequiredSortSpecs(WindowAggNode plan) {
+    List<SortSpec> sortSpecs = Lists.newArrayList();
+    if (plan.hasPartitionKeys()) {
+      for (Column key : plan.getPartitionKeys()) {
+        sortSpecs.add(new SortSpec(key, true, false));
+      }
+    }
+    SortSpec [] common = getCommonSortSpecs(plan);
+    if (common != null) {
+      for (SortSpec sortSpec : common) {
+        if (!sortSpecs.contains(sortSpec)) {
+          sortSpecs.add(sortSpec);
+        }
+      }
+    }
+    return sortSpecs.toArray(new SortSpec[sortSpecs.size()]);
   }
 
   private void transition(WindowState state) {
@@ -185,7 +264,11 @@ public class WindowAggExec extends UnaryPhysicalExec {
   }
 
   @Override
-  public Tuple next() throws IOException {
+  protected Tuple nextTuple() throws IOException {
+    if (streaming) {
+      return nextStreaming();
+    }
+
     Tuple currentKey = null;
     Tuple readTuple = null;
 
@@ -235,6 +318,120 @@ public class WindowAggExec extends UnaryPhysicalExec {
     return null;
   }
 
+  private Tuple nextStreaming() throws IOException {
+    if (contexts == null) {
+      resetContexts();
+    }
+
+    while (!context.isStopped()) {
+      if (replaying) { // return the buffered rows of a partition with the results of aggregation functions
+        Tuple buffered = partitionBuffer.next();
+        if (buffered != null) {
+          Tuple outTuple = new VTuple(buffered);
+          for (int idx = 0; idx < functionNum; idx++) {
+            if (aggFuncFlags[idx]) {
+              outTuple.put(nonFunctionColumnNum + idx, aggResults[idx]);
+            }
+          }
+          return outTuple;
+        }
+
+        replaying = false;
+        partitionBuffer.clear();
+        resetContexts();
+        lastKey = null;
+      }
+
+      if (noMoreTuples) {
+        return null;
+      }
+
+      Tuple inTuple;
+      if (pendingTuple != null) {
+        inTuple = pendingTuple;
+        pendingTuple = null;
+      } else {
+        inTuple = child.next();
+      }
+
+      if (inTuple == null) {
+        noMoreTuples = true;
+        if (hasAggFunctions && partitionBuffer.size() > 0) {
+          startReplay();
+        }
+        continue;
+      }
+
+      Tuple currentKey = getPartitionKey(inTuple);
+      if (lastKey != null && !lastKey.equals(currentKey)) { // the first row of the next partition
+        if (hasAggFunctions) {
+          // the row is evaluated after all rows of the current partition are returned
+          pendingTuple = inTuple;
+          startReplay();
+          continue;
+        }
+        resetContexts();
+      }
+      lastKey = currentKey;
+
+      Tuple outTuple = evaluateRunningFrame(inTuple);
+      if (!hasAggFunctions) {
+        return outTuple;
+      }
+      partitionBuffer.add(outTuple);
+    }
+
+    return null;
+  }
+
+  private Tuple getPartitionKey(Tuple inTuple) {
+    if (!hasPartitionKeys) {
+      return null;
+    }
+    Tuple key = new VTuple(partitionKeyIds.length);
+    for (int i = 0; i < partitionKeyIds.length; i++) {
+      key.put(i, inTuple.get(partitionKeyIds[i]));
+    }
+    return key;
+  }
+
+  /**
+   * Evaluates window functions over the frame which ends at the current row.
+   * The results of aggregation functions are filled after the end of the partition.
+   */
+  private Tuple evaluateRunningFrame(Tuple inTuple) {
+    Tuple outTuple = new VTuple(outSchema.size());
+    for (int c = 0; c < nonFunctionColumnNum; c++) {
+      outTuple.put(c, inTuple.get(nonFunctionColumns[c]));
+    }
+    for (int idx = 0; idx < functionNum; idx++) {
+      functions[idx].merge(contexts[idx], inSchema, inTuple);
+      if (windowFuncFlags[idx]) {
+        outTuple.put(nonFunctionColumnNum + idx, functions[idx].terminate(contexts[idx]));
+      } else {
+        outTuple.put(nonFunctionColumnNum + idx, NullDatum.get());
+      }
+    }
+    return outTuple;
+  }
+
+  private void startReplay() throws IOException {
+    for (int idx = 0; idx < functionNum; idx++) {
+      if (aggFuncFlags[idx]) {
+        aggResults[idx] = functions[idx].terminate(contexts[idx]);
+      }
+    }
+    partitionBuffer.rewind();
+    replaying = true;
+  }
+
+  private void resetContexts() {
+    contexts = new FunctionContext[functionNum];
+    for (int evalIdx = 0; evalIdx < functionNum; evalIdx++) {
+      contexts[evalIdx] = functions[evalIdx].newContext();
+    }
+  }
+
   private void initWindow() {
     if (firstTime) {
       accumulatedInTuples = Lists.newArrayList();
@@ -250,6 +447,7 @@ public class WindowAggExec extends UnaryPhysicalExec {
   private void accumulatingWindow(Tuple currentKey, Tuple inTuple) {
 
     if (lastKey == null || lastKey.equals(currentKey)) { // if the current key is same to the previous key
+      reserveWindowMemory(inTuple);
       accumulatedInTuples.add(new VTuple(inTuple));
 
     } else {
@@ -263,6 +461,13 @@ public class WindowAggExec extends UnaryPhysicalExec {
     lastKey = currentKey;
   }
 
+  /**
+   * Reserves the memory of an input tuple and its evaluated tuple.
+   */
+  private void reserveWindowMemory(Tuple inTuple) {
+    memoryPool.reserve(MemoryUtil.calculateMemorySize(inTuple) * 2);
+  }
+
   private void preAccumulatingNextWindow(Tuple inTuple) {
     Tuple projectedTuple = new VTuple(outSchema.size());
     for(int idx = 0; idx < nonFunctionColumnNum; idx++) {
@@ -326,11 +531,15 @@ public class WindowAggExec extends UnaryPhysicalExec {
   private void finalizeWindow() {
     evaluatedTuples.clear();
     accumulatedInTuples.clear();
+    memoryPool.releaseAll();
 
     if (noMoreTuples) {
       transition(WindowState.END_OF_TUPLE);
     } else {
       accumulatedInTuples = nextAccumulatedInTuples;
+      for (Tuple inTuple : accumulatedInTuples) {
+        reserveWindowMemory(inTuple);
+      }
 
       contexts = new FunctionContext[functionNum];
       for(int evalIdx = 0; evalIdx < functionNum; evalIdx++) {
@@ -346,5 +555,27 @@ public class WindowAggExec extends UnaryPhysicalExec {
 
     lastKey = null;
     noMoreTuples = false;
+    if (streaming) {
+      contexts = null;
+      pendingTuple = null;
+      replaying = false;
+      if (partitionBuffer != null) {
+        partitionBuffer.clear();
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    super.close();
+    if (partitionBuffer != null) {
+      partitionBuffer.close();
+    }
+    memoryPool.close();
+  }
+
+  @Override
+  protected long getSpilledBytes() {
+    return partitionBuffer == null ? 0 : partitionBuffer.getSpilledBytes();
   }
 }
@@ -166,4 +166,32 @@ public class QueryContext extends OverridableConf {
   public boolean isInsert() {
     return isCommandType(NodeType.INSERT.name());
   }
+
+  /**
+   * The query is executed by EXPLAIN ANALYZE, so its result is the plan annotated with the runtime statistics.
+   */
+  public void setExplainAnalyze() {
+    setBool(QueryVars.EXPLAIN_ANALYZE, true);
+  }
+
+  public boolean isExplainAnalyze() {
+    return getBool(QueryVars.EXPLAIN_ANALYZE, false);
+  }
+
+  /**
+   * Set the cache id of a scanned table which is cached in the memory of workers by CACHE TABLE.
+   *
+   * @param tableName The fully qualified table name
+   */
+  public void setTableCacheId(String tableName, long cacheId) {
+    setLong(QueryVars.TABLE_CACHE_ID.keyname() + "." + tableName, cacheId);
+  }
+
+  /**
+   * @return The cache id of a table. Null if the table is not cached.
+   */
+  public Long getTableCacheId(String tableName) {
+    String key = QueryVars.TABLE_CACHE_ID.keyname() + "." + tableName;
+    return containsKey(key) ? getLong(key) : null;
+  }
 }
@@ -24,11 +24,7 @@ package org.apache.tajo.engine.query;
 import org.apache.tajo.TaskAttemptId;
 import org.apache.tajo.catalog.proto.CatalogProtos;
 import org.apache.tajo.common.ProtoObject;
-import org.apache.tajo.conf.TajoConf;
-import org.apache.tajo.engine.planner.enforce.Enforcer;
-import org.apache.tajo.engine.planner.global.DataChannel;
 import org.apache.tajo.ipc.TajoWorkerProtocol;
-import org.apache.tajo.plan.serder.PlanProto;
 import org.apache.tajo.worker.FetchImpl;
 
 import java.util.List;
@@ -39,14 +35,14 @@ public interface TaskRequest extends ProtoObject<TajoWorkerProtocol.TaskRequestP
 	public List<CatalogProtos.FragmentProto> getFragments();
 	public String getOutputTableId();
 	public boolean isClusteredOutput();
-	public PlanProto.LogicalNodeTree getPlan();
 	public boolean isInterQuery();
 	public void setInterQuery();
 	public void addFetch(String name, FetchImpl fetch);
 	public List<FetchImpl> getFetches();
   public boolean shouldDie();
   public void setShouldDie();
-  public QueryContext getQueryContext(TajoConf conf);
-  public DataChannel getDataChannel();
-  public Enforcer getEnforcer();
+  public boolean isProduceRuntimeFilter();
+  public void setProduceRuntimeFilter();
+  public void addRuntimeFilter(TajoWorkerProtocol.RuntimeFilterProto runtimeFilter);
+  public List<TajoWorkerProtocol.RuntimeFilterProto> getRuntimeFilters();
 }
@@ -19,13 +19,10 @@
 package org.apache.tajo.engine.query;
 
 import org.apache.tajo.TaskAttemptId;
-import org.apache.tajo.conf.TajoConf;
-import org.apache.tajo.engine.planner.enforce.Enforcer;
-import org.apache.tajo.engine.planner.global.DataChannel;
 import org.apache.tajo.ipc.TajoWorkerProtocol;
+import org.apache.tajo.ipc.TajoWorkerProtocol.RuntimeFilterProto;
 import org.apache.tajo.ipc.TajoWorkerProtocol.TaskRequestProto;
 import org.apache.tajo.ipc.TajoWorkerProtocol.TaskRequestProtoOrBuilder;
-import org.apache.tajo.plan.serder.PlanProto;
 import org.apache.tajo.worker.FetchImpl;
 
 import java.util.ArrayList;
@@ -40,13 +37,11 @@ public class TaskRequestImpl implements TaskRequest {
   private String outputTable;
 	private boolean isUpdated;
 	private boolean clusteredOutput;
-	private PlanProto.LogicalNodeTree plan;     // logical node
 	private Boolean interQuery;
 	private List<FetchImpl> fetches;
   private Boolean shouldDie;
-  private QueryContext queryContext;
-  private DataChannel dataChannel;
-  private Enforcer enforcer;
+  private Boolean produceRuntimeFilter;
+  private List<RuntimeFilterProto> runtimeFilters;
 	
 	private TaskRequestProto proto = TajoWorkerProtocol.TaskRequestProto.getDefaultInstance();
 	private TajoWorkerProtocol.TaskRequestProto.Builder builder = null;
@@ -59,11 +54,9 @@ public class TaskRequestImpl implements TaskRequest {
 	}
 	
 	public TaskRequestImpl(TaskAttemptId id, List<FragmentProto> fragments,
-												 String outputTable, boolean clusteredOutput,
-												 PlanProto.LogicalNodeTree plan, QueryContext queryContext, DataChannel channel,
-												 Enforcer enforcer) {
+												 String outputTable, boolean clusteredOutput) {
 		this();
-		this.set(id, fragments, outputTable, clusteredOutput, plan, queryContext, channel, enforcer);
+		this.set(id, fragments, outputTable, clusteredOutput);
 	}
 	
 	public TaskRequestImpl(TaskRequestProto proto) {
@@ -74,18 +67,12 @@ public class TaskRequestImpl implements TaskRequest {
 	}
 	
 	public void set(TaskAttemptId id, List<FragmentProto> fragments,
-			String outputTable, boolean clusteredOutput,
-			PlanProto.LogicalNodeTree plan, QueryContext queryContext, DataChannel dataChannel, Enforcer enforcer) {
+			String outputTable, boolean clusteredOutput) {
 		this.id = id;
 		this.fragments = fragments;
 		this.outputTable = outputTable;
 		this.clusteredOutput = clusteredOutput;
-		this.plan = plan;
 		this.isUpdated = true;
-    this.queryContext = queryContext;
-    this.queryContext = queryContext;
-    this.dataChannel = dataChannel;
-    this.enforcer = enforcer;
 	}
 
 	@Override
@@ -151,19 +138,6 @@ public class TaskRequestImpl implements TaskRequest {
 		return this.clusteredOutput;
 	}
 
-	@Override
-	public PlanProto.LogicalNodeTree getPlan() {
-		TaskRequestProtoOrBuilder p = viaProto ? proto : builder;
-		if (this.plan != null) {
-			return this.plan;
-		}
-		if (!p.hasPlan()) {
-			return null;
-		}
-		this.plan = p.getPlan();
-		return this.plan;
-	}
-
 	public boolean isInterQuery() {
 	  TaskRequestProtoOrBuilder p = viaProto ? proto : builder;
     if (interQuery != null) {
@@ -188,54 +162,6 @@ public class TaskRequestImpl implements TaskRequest {
     fetches.add(fetch);
   }
 
-  public QueryContext getQueryContext(TajoConf conf) {
-    TaskRequestProtoOrBuilder p = viaProto ? proto : builder;
-    if (queryContext != null) {
-      return queryContext;
-    }
-    if (!p.hasQueryContext()) {
-      return null;
-    }
-    this.queryContext = new QueryContext(conf, p.getQueryContext());
-    return this.queryContext;
-  }
-
-  public void setQueryContext(QueryContext queryContext) {
-    maybeInitBuilder();
-    this.queryContext = queryContext;
-  }
-
-  public void setDataChannel(DataChannel dataChannel) {
-    maybeInitBuilder();
-    this.dataChannel = dataChannel;
-  }
-
-  @Override
-  public DataChannel getDataChannel() {
-    TaskRequestProtoOrBuilder p = viaProto ? proto : builder;
-    if (dataChannel != null) {
-      return dataChannel;
-    }
-    if (!p.hasDataChannel()) {
-      return null;
-    }
-    this.dataChannel = new DataChannel(p.getDataChannel());
-    return this.dataChannel;
-  }
-
-  @Override
-  public Enforcer getEnforcer() {
-    TaskRequestProtoOrBuilder p = viaProto ? proto : builder;
-    if (enforcer != null) {
-      return enforcer;
-    }
-    if (!p.hasEnforcer()) {
-      return null;
-    }
-    this.enforcer = new Enforcer(p.getEnforcer());
-    return this.enforcer;
-  }
-
   public List<FetchImpl> getFetches() {
 	  initFetches();    
 
@@ -272,6 +198,46 @@ public class TaskRequestImpl implements TaskRequest {
     shouldDie = true;
   }
 
+  @Override
+  public boolean isProduceRuntimeFilter() {
+    TaskRequestProtoOrBuilder p = viaProto ? proto : builder;
+    if (produceRuntimeFilter != null) {
+      return produceRuntimeFilter;
+    }
+    if (!p.hasProduceRuntimeFilter()) {
+      return false;
+    }
+    this.produceRuntimeFilter = p.getProduceRuntimeFilter();
+    return this.produceRuntimeFilter;
+  }
+
+  @Override
+  public void setProduceRuntimeFilter() {
+    maybeInitBuilder();
+    produceRuntimeFilter = true;
+  }
+
+  @Override
+  public void addRuntimeFilter(RuntimeFilterProto runtimeFilter) {
+    maybeInitBuilder();
+    initRuntimeFilters();
+    runtimeFilters.add(runtimeFilter);
+  }
+
+  @Override
+  public List<RuntimeFilterProto> getRuntimeFilters() {
+    initRuntimeFilters();
+    return this.runtimeFilters;
+  }
+
+  private void initRuntimeFilters() {
+    if (this.runtimeFilters != null) {
+      return;
+    }
+    TaskRequestProtoOrBuilder p = viaProto ? proto : builder;
+    this.runtimeFilters = new ArrayList<RuntimeFilterProto>(p.getRuntimeFiltersList());
+  }
+
   private void maybeInitBuilder() {
 		if (viaProto || builder == null) {
 			builder = TajoWorkerProtocol.TaskRequestProto.newBuilder(proto);
@@ -294,9 +260,6 @@ public class TaskRequestImpl implements TaskRequest {
 		if (this.isUpdated) {
 			builder.setClusteredOutput(this.clusteredOutput);
 		}
-		if (this.plan != null) {
-			builder.setPlan(this.plan);
-		}
 		if (this.interQuery != null) {
 		  builder.setInterQuery(this.interQuery);
 		}
@@ -308,14 +271,12 @@ public class TaskRequestImpl implements TaskRequest {
     if (this.shouldDie != null) {
       builder.setShouldDie(this.shouldDie);
     }
-    if (this.queryContext != null) {
-      builder.setQueryContext(queryContext.getProto());
-    }
-    if (this.dataChannel != null) {
-      builder.setDataChannel(dataChannel.getProto());
+    if (this.produceRuntimeFilter != null) {
+      builder.setProduceRuntimeFilter(this.produceRuntimeFilter);
     }
-    if (this.enforcer != null) {
-      builder.setEnforcer(enforcer.getProto());
+    if (this.runtimeFilters != null) {
+      builder.clearRuntimeFilters();
+      builder.addAllRuntimeFilters(this.runtimeFilters);
     }
 	}
 
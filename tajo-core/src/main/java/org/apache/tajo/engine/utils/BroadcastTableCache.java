@@ -0,0 +1,210 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.utils;
+
+import com.google.common.collect.Maps;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.util.FileUtil;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A worker-wide cache of broadcast tables. The first task that scans a broadcast table loads it
+ * into an off-heap row block, and the other tasks of the same execution block share the loaded table.
+ *
+ * The total bytes of cached tables are bounded. If the bound is exceeded, the least recently used tables
+ * which are not being read are evicted. A table which cannot fit into the cache is not cached,
+ * and it is only used by the task which loaded it.
+ */
+public class BroadcastTableCache {
+  private static final Log LOG = LogFactory.getLog(BroadcastTableCache.class);
+
+  /**
+   * It provides the tuples of a table to be cached.
+   */
+  public interface Loader {
+    /**
+     * @return The next tuple. Null if there is no more tuple.
+     */
+    Tuple next() throws IOException;
+  }
+
+  private final long capacity;
+  private final ConcurrentMap<TupleCacheKey, CachedBroadcastTable> tables = Maps.newConcurrentMap();
+  private final Object evictionLock = new Object();
+
+  private final AtomicLong usedBytes = new AtomicLong();
+  private final AtomicLong clock = new AtomicLong();
+  private final AtomicLong hitNum = new AtomicLong();
+  private final AtomicLong missNum = new AtomicLong();
+  private final AtomicLong evictionNum = new AtomicLong();
+
+  public BroadcastTableCache(long capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * Returns a cached table which is retained for the caller. If the table is not cached yet,
+   * the caller loads it with the given loader. If another task is loading the same table, it waits for the task.
+   *
+   * @return The retained table, which must be released after use. Null if the table cannot be cached, and then
+   * the caller must read the table by itself.
+   */
+  public CachedBroadcastTable acquire(TupleCacheKey key, Schema schema, Loader loader) throws IOException {
+    if (!CachedBroadcastTable.isCacheable(schema)) {
+      return null;
+    }
+
+    CachedBroadcastTable table = tables.get(key);
+    if (table == null) {
+      CachedBroadcastTable newTable = new CachedBroadcastTable(this, key, schema);
+      table = tables.putIfAbsent(key, newTable);
+      if (table == null) {
+        missNum.incrementAndGet();
+        return load(newTable, loader);
+      }
+    }
+
+    try {
+      if (table.awaitLoaded() && table.retain()) {
+        hitNum.incrementAndGet();
+        table.touch(clock.incrementAndGet());
+        return table;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return null;
+  }
+
+  private CachedBroadcastTable load(CachedBroadcastTable table, Loader loader) throws IOException {
+    boolean loaded = false;
+    try {
+      boolean fit = table.load(loader, capacity);
+      // the execution block may be finished while the table is being loaded
+      loaded = fit && table.retain();
+      if (loaded) {
+        table.touch(clock.incrementAndGet());
+        usedBytes.addAndGet(table.getMemorySize());
+        evictIfNecessary(table);
+        LOG.info("Broadcast table is cached: " + table + ", cache usage: " + this);
+      } else if (!fit) {
+        LOG.info("Broadcast table " + table.getKey() + " exceeds the cache capacity ("
+            + FileUtil.humanReadableByteCount(capacity, false) + ")");
+      }
+    } finally {
+      if (!loaded) {
+        tables.remove(table.getKey(), table);
+        table.evict();
+      }
+      table.markLoaded(loaded);
+    }
+    return loaded ? table : null;
+  }
+
+  /**
+   * Evicts the least recently used tables which are not being read until the used bytes fit into the capacity.
+   * If they are not enough, the given table is evicted from the cache, but it is still readable by its holder.
+   */
+  private void evictIfNecessary(CachedBroadcastTable loaded) {
+    synchronized (evictionLock) {
+      while (usedBytes.get() > capacity) {
+        CachedBroadcastTable victim = null;
+        for (CachedBroadcastTable table : tables.values()) {
+          if (table != loaded && table.isReady() && !table.isInUse() &&
+              (victim == null || table.getLastAccess() < victim.getLastAccess())) {
+            victim = table;
+          }
+        }
+
+        if (victim == null) {
+          victim = loaded;
+        }
+        evict(victim);
+        if (victim == loaded) {
+          break;
+        }
+      }
+    }
+  }
+
+  private void evict(CachedBroadcastTable table) {
+    if (tables.remove(table.getKey(), table)) {
+      usedBytes.addAndGet(-table.getMemorySize());
+      evictionNum.incrementAndGet();
+      table.evict();
+      LOG.info("Broadcast table is evicted: " + table);
+    }
+  }
+
+  /**
+   * Evicts all tables of an execution block. It is called when the execution block is finished in this worker.
+   */
+  public void removeExecutionBlock(ExecutionBlockId ebId) {
+    if (ebId == null) {
+      return;
+    }
+    for (CachedBroadcastTable table : tables.values()) {
+      if (table.getKey().ebId.equals(ebId.toString())) {
+        evict(table);
+      }
+    }
+  }
+
+  void addUsedBytes(long bytes) {
+    usedBytes.addAndGet(bytes);
+  }
+
+  public long getCapacity() {
+    return capacity;
+  }
+
+  public long getUsedBytes() {
+    return usedBytes.get();
+  }
+
+  public int getTableNum() {
+    return tables.size();
+  }
+
+  public long getHitNum() {
+    return hitNum.get();
+  }
+
+  public long getMissNum() {
+    return missNum.get();
+  }
+
+  public long getEvictionNum() {
+    return evictionNum.get();
+  }
+
+  @Override
+  public String toString() {
+    return FileUtil.humanReadableByteCount(getUsedBytes(), false) + " / "
+        + FileUtil.humanReadableByteCount(capacity, false) + " (tables: " + getTableNum() + ", hits: "
+        + getHitNum() + ", misses: " + getMissNum() + ", evictions: " + getEvictionNum() + ")";
+  }
+}
@@ -0,0 +1,281 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.utils;
+
+import com.google.common.base.Preconditions;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.storage.MemoryUtil;
+import org.apache.tajo.storage.RowStoreUtil;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.tuple.offheap.OffHeapRowBlock;
+import org.apache.tajo.tuple.offheap.OffHeapRowBlockReader;
+import org.apache.tajo.tuple.offheap.ResizableLimitSpec;
+import org.apache.tajo.tuple.offheap.ZeroCopyTuple;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A broadcast table which is cached in an off-heap row block. It is shared read-only by all tasks of
+ * an execution block in a worker. Hash indexes on join keys are built once and shared too.
+ *
+ * A task must retain a table before reading it and release it after use. If a table is evicted while
+ * some tasks are reading it, its memory is freed when the last task releases it.
+ */
+public class CachedBroadcastTable {
+  /** the estimated heap bytes of a hash index entry, excluding the key tuple */
+  private static final long INDEX_ENTRY_OVERHEAD = 64;
+  private static final int INITIAL_BLOCK_SIZE = 64 * 1024;
+
+  private final BroadcastTableCache cache;
+  private final TupleCacheKey key;
+  private final Schema schema;
+  private final CountDownLatch loadLatch = new CountDownLatch(1);
+  private final ConcurrentMap<String, Map<Tuple, List<Tuple>>> hashIndexes =
+      new ConcurrentHashMap<String, Map<Tuple, List<Tuple>>>();
+
+  private OffHeapRowBlock rowBlock;
+  private List<Tuple> rows;
+  private volatile boolean ready = false;
+  private volatile long lastAccess;
+  private long memorySize = 0;
+  private int refCount = 0;
+  private boolean evicted = false;
+
+  CachedBroadcastTable(BroadcastTableCache cache, TupleCacheKey key, Schema schema) {
+    this.cache = cache;
+    this.key = key;
+    this.schema = schema;
+  }
+
+  /**
+   * @return True if all columns of a schema can be stored in an off-heap row block.
+   */
+  public static boolean isCacheable(Schema schema) {
+    for (int i = 0; i < schema.size(); i++) {
+      TajoDataTypes.Type type = schema.getColumn(i).getDataType().getType();
+      switch (type) {
+      case BOOLEAN:
+      case INT1:
+      case INT2:
+      case INT4:
+      case INT8:
+      case FLOAT4:
+      case FLOAT8:
+      case TEXT:
+      case DATE:
+      case TIME:
+      case TIMESTAMP:
+      case INTERVAL:
+      case INET4:
+      case PROTOBUF:
+        break;
+      default:
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public TupleCacheKey getKey() {
+    return key;
+  }
+
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /**
+   * Loads all tuples of a loader into an off-heap row block.
+   *
+   * @param maxBytes The maximum bytes of the row block
+   * @return False if the tuples exceed the maximum bytes
+   */
+  boolean load(BroadcastTableCache.Loader loader, long maxBytes) throws IOException {
+    int limit = (int) Math.min(maxBytes, ResizableLimitSpec.MAX_SIZE_BYTES);
+    rowBlock = new OffHeapRowBlock(schema, new ResizableLimitSpec(Math.min(INITIAL_BLOCK_SIZE, limit), limit));
+
+    int rowNum = 0;
+    Tuple tuple;
+    while ((tuple = loader.next()) != null) {
+      // each field of a row takes an offset of 4 bytes in addition to its value
+      long rowSize = MemoryUtil.calculateMemorySize(tuple) + (schema.size() + 1) * 4;
+      if (rowBlock.position() + rowSize > limit) {
+        return false;
+      }
+      RowStoreUtil.convert(tuple, rowBlock.getWriter());
+      rowNum++;
+    }
+    rowBlock.setRows(rowNum);
+
+    // tuples are created once because they only point to the row block
+    rows = new ArrayList<Tuple>(rowNum);
+    OffHeapRowBlockReader reader = rowBlock.getReader();
+    ZeroCopyTuple zcTuple = new ZeroCopyTuple();
+    while (reader.next(zcTuple)) {
+      rows.add(zcTuple);
+      zcTuple = new ZeroCopyTuple();
+    }
+    memorySize = rowBlock.size();
+    return true;
+  }
+
+  void markLoaded(boolean success) {
+    ready = success;
+    loadLatch.countDown();
+  }
+
+  /**
+   * Waits until the table is loaded by another task.
+   *
+   * @return True if the table is ready to be read.
+   */
+  boolean awaitLoaded() throws InterruptedException {
+    loadLatch.await();
+    return ready;
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  void touch(long accessTime) {
+    this.lastAccess = accessTime;
+  }
+
+  long getLastAccess() {
+    return lastAccess;
+  }
+
+  /**
+   * @return False if the table is already evicted.
+   */
+  synchronized boolean retain() {
+    if (evicted) {
+      return false;
+    }
+    refCount++;
+    return true;
+  }
+
+  public synchronized void release() {
+    Preconditions.checkState(refCount > 0, "The cached table " + key + " is not retained");
+    refCount--;
+    if (evicted && refCount == 0) {
+      free();
+    }
+  }
+
+  synchronized boolean isInUse() {
+    return refCount > 0;
+  }
+
+  /**
+   * Marks this table as evicted. The memory is freed immediately if no task reads it.
+   */
+  synchronized void evict() {
+    if (!evicted) {
+      evicted = true;
+      if (refCount == 0) {
+        free();
+      }
+    }
+  }
+
+  private void free() {
+    rows = null;
+    hashIndexes.clear();
+    if (rowBlock != null) {
+      rowBlock.release();
+      rowBlock = null;
+    }
+  }
+
+  public synchronized long getMemorySize() {
+    return memorySize;
+  }
+
+  public int rows() {
+    return rows.size();
+  }
+
+  /**
+   * @return The tuples of the table. They must not be used after the table is released.
+   */
+  public List<Tuple> getTuples() {
+    return rows;
+  }
+
+  /**
+   * Returns a hash index which maps key tuples to the tuples of this table.
+   * It is built on the first call for the given key columns, and it must not be modified.
+   *
+   * @param keyIds The column ids of keys
+   */
+  public Map<Tuple, List<Tuple>> getHashIndex(int [] keyIds) {
+    String indexKey = Arrays.toString(keyIds);
+    Map<Tuple, List<Tuple>> index = hashIndexes.get(indexKey);
+    if (index != null) {
+      return index;
+    }
+
+    synchronized (this) {
+      index = hashIndexes.get(indexKey);
+      if (index == null) {
+        long indexBytes = 0;
+        index = new HashMap<Tuple, List<Tuple>>();
+        for (Tuple tuple : rows) {
+          Tuple keyTuple = new VTuple(keyIds.length);
+          for (int i = 0; i < keyIds.length; i++) {
+            keyTuple.put(i, tuple.get(keyIds[i]));
+          }
+
+          List<Tuple> matched = index.get(keyTuple);
+          if (matched == null) {
+            matched = new ArrayList<Tuple>();
+            index.put(keyTuple, matched);
+            indexBytes += MemoryUtil.calculateMemorySize(keyTuple);
+          }
+          matched.add(tuple);
+          indexBytes += INDEX_ENTRY_OVERHEAD;
+        }
+        hashIndexes.put(indexKey, index);
+        memorySize += indexBytes;
+        if (!evicted) { // the memory of an evicted table is no longer accounted by the cache
+          cache.addUsedBytes(indexBytes);
+        }
+      }
+    }
+    return index;
+  }
+
+  @Override
+  public String toString() {
+    return key + " (rows: " + (rows == null ? 0 : rows.size()) + ", bytes: " + getMemorySize() + ")";
+  }
+}
@@ -0,0 +1,250 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.utils;
+
+import com.google.common.base.Preconditions;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.storage.StorageConstants;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.cfile.CFile;
+import org.apache.tajo.storage.cfile.ColumnChunkReader;
+import org.apache.tajo.storage.cfile.ColumnChunkWriter;
+import org.apache.tajo.util.UnsafeUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A fragment of a cached table. Its rows are divided into stripes, and each column of a stripe is encoded into
+ * an off-heap chunk in the same way as a CFile column chunk. Repeated or low-cardinality values are compressed
+ * by run-length or dictionary encoding, and a scan decodes only the chunks of the projected columns.
+ *
+ * A task must retain a fragment before reading it and release it after use. If a fragment is evicted while
+ * some tasks are reading it, its memory is freed when the last task releases it.
+ */
+public class CachedTableFragment {
+  private static final int STRIPE_ROWS = 64 * 1024;
+  private static final int MAX_DICTIONARY_SIZE = Integer.parseInt(StorageConstants.DEFAULT_CFILE_DICTIONARY_MAX_SIZE);
+
+  private final String key;
+  private final long cacheId;
+  private final Schema schema;
+  private final CountDownLatch loadLatch = new CountDownLatch(1);
+
+  private List<ByteBuffer []> stripes = new ArrayList<ByteBuffer []>();
+  private List<Integer> stripeRowNums = new ArrayList<Integer>();
+  private long rowNum = 0;
+  private volatile boolean ready = false;
+  private volatile long lastAccess;
+  private long memorySize = 0;
+  private int refCount = 0;
+  private boolean evicted = false;
+
+  CachedTableFragment(String key, long cacheId, Schema schema) {
+    this.key = key;
+    this.cacheId = cacheId;
+    this.schema = schema;
+  }
+
+  /**
+   * @return True if all columns of a schema can be encoded into column chunks.
+   */
+  public static boolean isCacheable(Schema schema) {
+    for (int i = 0; i < schema.size(); i++) {
+      if (!CFile.isSupportedType(schema.getColumn(i).getDataType().getType())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public long getCacheId() {
+    return cacheId;
+  }
+
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /**
+   * Loads all tuples of a loader into off-heap column chunks. The bytes of each stripe are reserved from the cache
+   * before its chunks are allocated, and the reserved bytes are counted in {@link #getMemorySize()}.
+   *
+   * @param cache The cache which reserves the bytes of stripes
+   * @return False if a stripe cannot be reserved. Then the loading is aborted.
+   */
+  boolean load(TableFragmentCache.Loader loader, TableFragmentCache cache) throws IOException {
+    ColumnChunkWriter [] writers = new ColumnChunkWriter[schema.size()];
+    for (int i = 0; i < writers.length; i++) {
+      writers[i] = new ColumnChunkWriter(schema.getColumn(i).getDataType(), MAX_DICTIONARY_SIZE);
+    }
+
+    int stripeRowNum = 0;
+    Tuple tuple;
+    while ((tuple = loader.next()) != null) {
+      for (int i = 0; i < writers.length; i++) {
+        writers[i].add(tuple.get(i));
+      }
+      stripeRowNum++;
+      if (stripeRowNum == STRIPE_ROWS) {
+        if (!flushStripe(writers, stripeRowNum, cache)) {
+          return false;
+        }
+        stripeRowNum = 0;
+      }
+    }
+    return stripeRowNum == 0 || flushStripe(writers, stripeRowNum, cache);
+  }
+
+  private boolean flushStripe(ColumnChunkWriter [] writers, int stripeRowNum, TableFragmentCache cache)
+      throws IOException {
+    byte [][] encoded = new byte[writers.length][];
+    long stripeBytes = 0;
+    for (int i = 0; i < writers.length; i++) {
+      encoded[i] = writers[i].encode();
+      writers[i].reset();
+      stripeBytes += encoded[i].length;
+    }
+    if (!cache.reserve(this, stripeBytes)) {
+      return false;
+    }
+    memorySize += stripeBytes;
+
+    // the stripe is added first so that the chunks are freed even if an allocation fails
+    ByteBuffer [] chunks = new ByteBuffer[writers.length];
+    stripes.add(chunks);
+    stripeRowNums.add(stripeRowNum);
+    for (int i = 0; i < writers.length; i++) {
+      chunks[i] = ByteBuffer.allocateDirect(encoded[i].length);
+      chunks[i].put(encoded[i]);
+      chunks[i].flip();
+    }
+    rowNum += stripeRowNum;
+    return true;
+  }
+
+  void markLoaded(boolean success) {
+    ready = success;
+    loadLatch.countDown();
+  }
+
+  /**
+   * Waits until the fragment is loaded by another task.
+   *
+   * @return True if the fragment is ready to be read.
+   */
+  boolean awaitLoaded() throws InterruptedException {
+    loadLatch.await();
+    return ready;
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  void touch(long accessTime) {
+    this.lastAccess = accessTime;
+  }
+
+  long getLastAccess() {
+    return lastAccess;
+  }
+
+  /**
+   * @return False if the fragment is already evicted.
+   */
+  synchronized boolean retain() {
+    if (evicted) {
+      return false;
+    }
+    refCount++;
+    return true;
+  }
+
+  public synchronized void release() {
+    Preconditions.checkState(refCount > 0, "The cached fragment " + key + " is not retained");
+    refCount--;
+    if (evicted && refCount == 0) {
+      free();
+    }
+  }
+
+  synchronized boolean isInUse() {
+    return refCount > 0;
+  }
+
+  /**
+   * Marks this fragment as evicted. The memory is freed immediately if no task reads it.
+   */
+  synchronized void evict() {
+    if (!evicted) {
+      evicted = true;
+      if (refCount == 0) {
+        free();
+      }
+    }
+  }
+
+  private void free() {
+    for (ByteBuffer [] chunks : stripes) {
+      for (ByteBuffer chunk : chunks) {
+        if (chunk != null) {
+          UnsafeUtil.free(chunk);
+        }
+      }
+    }
+    stripes.clear();
+    stripeRowNums.clear();
+  }
+
+  public synchronized long getMemorySize() {
+    return memorySize;
+  }
+
+  public long rows() {
+    return rowNum;
+  }
+
+  public int getStripeNum() {
+    return stripes.size();
+  }
+
+  public int getStripeRowNum(int stripeId) {
+    return stripeRowNums.get(stripeId);
+  }
+
+  /**
+   * @return A reader of a column chunk. It must not be used after the fragment is released.
+   */
+  public ColumnChunkReader getColumnReader(int stripeId, int columnId) throws IOException {
+    return new ColumnChunkReader(schema.getColumn(columnId).getDataType(), stripes.get(stripeId)[columnId]);
+  }
+
+  @Override
+  public String toString() {
+    return key + " (rows: " + rowNum + ", stripes: " + stripes.size() + ", bytes: " + getMemorySize() + ")";
+  }
+}
@@ -0,0 +1,292 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.utils;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.storage.Scanner;
+import org.apache.tajo.storage.StorageManager;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.storage.cfile.ColumnChunkReader;
+import org.apache.tajo.storage.fragment.FileFragment;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A scanner over the fragments of a table which is cached by CACHE TABLE. Each fragment is read from
+ * the {@link TableFragmentCache}, and it is loaded into the cache by this scanner if it is not cached yet.
+ * A fragment which cannot be cached is read from the storage.
+ */
+public class CachedTableScanner implements Scanner {
+  private final TableFragmentCache cache;
+  private final String tableName;
+  private final long cacheId;
+  private final TajoConf conf;
+  private final TableMeta meta;
+  private final Schema schema;
+  private final List<FileFragment> fragments;
+  private Schema target;
+  private Object searchCondition;
+  private int [] projectedIds;
+
+  private Iterator<FileFragment> iterator;
+  private int fragmentIdx;
+  /** the fragment being read from the cache */
+  private CachedTableFragment currentFragment;
+  private int stripeIdx;
+  private int remainRows;
+  private ColumnChunkReader [] readers;
+  /** the scanner of the fragment being read from the storage */
+  private Scanner currentScanner;
+
+  private final TableStats tableStats = new TableStats();
+  private long numRows;
+  private long readBytes;
+
+  /**
+   * @param schema The physical schema of the table
+   * @param target The columns to be read
+   */
+  public CachedTableScanner(TableFragmentCache cache, String tableName, long cacheId, TajoConf conf,
+                            TableMeta meta, Schema schema, List<FileFragment> fragments, Schema target) {
+    this.cache = cache;
+    this.tableName = tableName;
+    this.cacheId = cacheId;
+    this.conf = conf;
+    this.meta = meta;
+    this.schema = schema;
+    this.fragments = fragments;
+    this.target = target;
+  }
+
+  @Override
+  public void init() throws IOException {
+    Column [] targets = target == null ? schema.toArray() : target.toArray();
+    projectedIds = new int[targets.length];
+    for (int i = 0; i < targets.length; i++) {
+      projectedIds[i] = schema.getColumnId(targets[i].getQualifiedName());
+    }
+    readers = new ColumnChunkReader[schema.size()];
+
+    long numBytes = 0;
+    for (FileFragment fragment : fragments) {
+      numBytes += fragment.getLength();
+    }
+    tableStats.setNumBytes(numBytes);
+    tableStats.setNumBlocks(fragments.size());
+    rewind();
+  }
+
+  private void rewind() throws IOException {
+    closeCurrentFragment();
+    iterator = fragments.iterator();
+    fragmentIdx = 0;
+    numRows = 0;
+    readBytes = 0;
+  }
+
+  @Override
+  public Tuple next() throws IOException {
+    while (true) {
+      if (currentScanner != null) {
+        Tuple tuple = currentScanner.next();
+        if (tuple != null) {
+          return tuple;
+        }
+        closeCurrentFragment();
+
+      } else if (remainRows > 0) {
+        remainRows--;
+        Tuple tuple = new VTuple(schema.size());
+        for (int columnId : projectedIds) {
+          tuple.put(columnId, readers[columnId].next());
+        }
+        numRows++;
+        return tuple;
+
+      } else if (currentFragment != null && stripeIdx < currentFragment.getStripeNum()) {
+        for (int columnId : projectedIds) {
+          readers[columnId] = currentFragment.getColumnReader(stripeIdx, columnId);
+        }
+        remainRows = currentFragment.getStripeRowNum(stripeIdx);
+        stripeIdx++;
+
+      } else if (!nextFragment()) {
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Moves to the next fragment. It reads the fragment from the cache, loading it if necessary,
+   * or it opens a scanner of the storage if the fragment cannot be cached.
+   *
+   * @return False if there is no more fragment.
+   */
+  private boolean nextFragment() throws IOException {
+    closeCurrentFragment();
+    if (!iterator.hasNext()) {
+      return false;
+    }
+    FileFragment fragment = iterator.next();
+    fragmentIdx++;
+
+    FragmentLoader loader = new FragmentLoader(fragment);
+    try {
+      currentFragment = cache.acquire(tableName, cacheId, fragment, schema, loader);
+    } finally {
+      loader.close();
+    }
+
+    if (currentFragment != null) {
+      stripeIdx = 0;
+      remainRows = 0;
+    } else {
+      currentScanner = openScanner(fragment, target, searchCondition);
+    }
+    return true;
+  }
+
+  private Scanner openScanner(FileFragment fragment, Schema target, Object searchCondition) throws IOException {
+    Scanner scanner = StorageManager.getStorageManager(conf, meta.getStoreType())
+        .getScanner(meta, schema, fragment, target);
+    if (searchCondition != null) {
+      scanner.setSearchCondition(searchCondition);
+    }
+    scanner.init();
+    return scanner;
+  }
+
+  private void closeScanner(Scanner scanner) throws IOException {
+    scanner.close();
+    TableStats stats = scanner.getInputStats();
+    if (stats != null) {
+      readBytes += stats.getReadBytes();
+      numRows += stats.getNumRows();
+    }
+  }
+
+  private void closeCurrentFragment() throws IOException {
+    if (currentScanner != null) {
+      closeScanner(currentScanner);
+      currentScanner = null;
+    }
+    if (currentFragment != null) {
+      currentFragment.release();
+      currentFragment = null;
+      remainRows = 0;
+    }
+  }
+
+  /**
+   * It reads all columns of a fragment from the storage in order to cache it.
+   */
+  private class FragmentLoader implements TableFragmentCache.Loader {
+    private final FileFragment fragment;
+    private Scanner scanner;
+
+    FragmentLoader(FileFragment fragment) {
+      this.fragment = fragment;
+    }
+
+    @Override
+    public Tuple next() throws IOException {
+      if (scanner == null) {
+        scanner = openScanner(fragment, schema, null);
+      }
+      return scanner.next();
+    }
+
+    void close() throws IOException {
+      if (scanner != null) {
+        // the rows read by the loader are counted by the cached fragment
+        scanner.close();
+        TableStats stats = scanner.getInputStats();
+        if (stats != null) {
+          readBytes += stats.getReadBytes();
+        }
+        scanner = null;
+      }
+    }
+  }
+
+  @Override
+  public void reset() throws IOException {
+    rewind();
+  }
+
+  @Override
+  public void close() throws IOException {
+    closeCurrentFragment();
+    tableStats.setReadBytes(readBytes);
+    tableStats.setNumRows(numRows);
+    iterator = null;
+  }
+
+  @Override
+  public boolean isProjectable() {
+    return true;
+  }
+
+  @Override
+  public void setTarget(Column[] targets) {
+    this.target = new Schema(targets);
+  }
+
+  @Override
+  public boolean isSelectable() {
+    return false;
+  }
+
+  @Override
+  public void setSearchCondition(Object expr) {
+    this.searchCondition = expr;
+  }
+
+  @Override
+  public boolean isSplittable() {
+    return false;
+  }
+
+  @Override
+  public float getProgress() {
+    if (fragments.isEmpty() || iterator == null) {
+      return 1.0f;
+    }
+    return (float) Math.max(0, fragmentIdx - 1) / fragments.size();
+  }
+
+  @Override
+  public TableStats getInputStats() {
+    tableStats.setReadBytes(readBytes);
+    tableStats.setNumRows(numRows);
+    return tableStats;
+  }
+
+  @Override
+  public Schema getSchema() {
+    return schema;
+  }
+}
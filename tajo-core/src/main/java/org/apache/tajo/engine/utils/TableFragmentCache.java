@@ -0,0 +1,255 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.utils;
+
+import com.google.common.collect.Maps;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.util.FileUtil;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A worker-wide cache of the fragments of tables which are cached by CACHE TABLE. The first scan of a fragment
+ * loads it into off-heap column chunks, and the following scans of the fragment read only the projected columns
+ * from memory.
+ *
+ * A fragment is cached with the cache id of its table. The master renews the cache id whenever the table is
+ * modified, so a scan never reads stale fragments, and the fragments of invalid cache ids are evicted when
+ * the master notifies the valid cache ids. The total bytes of cached fragments are bounded. The bytes of each stripe
+ * are reserved while a fragment is loaded, so concurrent loads cannot exceed the bound together. If a stripe does not
+ * fit, the least recently used fragments which are not being read are evicted, or the loading is aborted.
+ * A fragment which is larger than the whole capacity is remembered, and the following scans read it from storage
+ * without loading it again.
+ */
+public class TableFragmentCache {
+  private static final Log LOG = LogFactory.getLog(TableFragmentCache.class);
+
+  /**
+   * The command of a heartbeat response which notifies the valid cache ids. Its first parameter is the last cache id
+   * issued by the master, and the others are the valid cache ids.
+   */
+  public static final String RETAIN_COMMAND = "retainTableCache";
+
+  /**
+   * It provides the tuples of a fragment to be cached.
+   */
+  public interface Loader {
+    /**
+     * @return The next tuple. Null if there is no more tuple.
+     */
+    Tuple next() throws IOException;
+  }
+
+  private final long capacity;
+  private final ConcurrentMap<String, CachedTableFragment> fragments = Maps.newConcurrentMap();
+  /** the keys and the cache ids of the fragments which are larger than the capacity */
+  private final ConcurrentMap<String, Long> oversizedFragments = Maps.newConcurrentMap();
+  private final Object evictionLock = new Object();
+
+  private final AtomicLong usedBytes = new AtomicLong();
+  private final AtomicLong clock = new AtomicLong();
+  private final AtomicLong hitNum = new AtomicLong();
+  private final AtomicLong missNum = new AtomicLong();
+  private final AtomicLong evictionNum = new AtomicLong();
+
+  public TableFragmentCache(long capacity) {
+    this.capacity = capacity;
+  }
+
+  public static String getKey(String tableName, long cacheId, FileFragment fragment) {
+    return tableName + "," + cacheId + "," + fragment.getPath() + ":" + fragment.getStartKey() + ":"
+        + fragment.getLength();
+  }
+
+  /**
+   * Returns a cached fragment which is retained for the caller. If the fragment is not cached yet,
+   * the caller loads it with the given loader. If another task is loading the same fragment, it waits for the task.
+   *
+   * @param schema The physical schema of the table
+   * @return The retained fragment, which must be released after use. Null if the fragment cannot be cached,
+   * and then the caller must read the fragment by itself.
+   */
+  public CachedTableFragment acquire(String tableName, long cacheId, FileFragment fragment, Schema schema,
+                                     Loader loader) throws IOException {
+    if (capacity <= 0 || !CachedTableFragment.isCacheable(schema)) {
+      return null;
+    }
+
+    String key = getKey(tableName, cacheId, fragment);
+    if (oversizedFragments.containsKey(key)) {
+      return null;
+    }
+    CachedTableFragment cached = fragments.get(key);
+    if (cached == null) {
+      CachedTableFragment newFragment = new CachedTableFragment(key, cacheId, schema);
+      cached = fragments.putIfAbsent(key, newFragment);
+      if (cached == null) {
+        missNum.incrementAndGet();
+        return load(newFragment, loader);
+      }
+    }
+
+    try {
+      if (cached.awaitLoaded() && cached.retain()) {
+        hitNum.incrementAndGet();
+        cached.touch(clock.incrementAndGet());
+        return cached;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return null;
+  }
+
+  private CachedTableFragment load(CachedTableFragment fragment, Loader loader) throws IOException {
+    boolean loaded = false;
+    try {
+      boolean fit = fragment.load(loader, this);
+      loaded = fit && fragment.retain();
+      if (loaded) {
+        fragment.touch(clock.incrementAndGet());
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("Table fragment is cached: " + fragment + ", cache usage: " + this);
+        }
+      } else if (!fit) {
+        LOG.info("Table fragment " + fragment.getKey() + " does not fit into the cache, cache usage: " + this);
+      }
+    } finally {
+      if (!loaded) {
+        fragments.remove(fragment.getKey(), fragment);
+        usedBytes.addAndGet(-fragment.getMemorySize());
+        fragment.evict();
+      }
+      fragment.markLoaded(loaded);
+    }
+    return loaded ? fragment : null;
+  }
+
+  /**
+   * Reserves the bytes of a stripe for a loading fragment. The least recently used fragments which are not being read
+   * are evicted until the bytes fit into the capacity.
+   *
+   * @return False if the bytes do not fit even after all evictable fragments are evicted. The bytes which are
+   * reserved for the fragment so far are released by the caller.
+   */
+  boolean reserve(CachedTableFragment loading, long bytes) {
+    if (loading.getMemorySize() + bytes > capacity) {
+      oversizedFragments.put(loading.getKey(), loading.getCacheId());
+      return false;
+    }
+
+    synchronized (evictionLock) {
+      while (usedBytes.get() + bytes > capacity) {
+        CachedTableFragment victim = null;
+        for (CachedTableFragment fragment : fragments.values()) {
+          if (fragment.isReady() && !fragment.isInUse() &&
+              (victim == null || fragment.getLastAccess() < victim.getLastAccess())) {
+            victim = fragment;
+          }
+        }
+
+        if (victim == null) {
+          return false;
+        }
+        evict(victim);
+      }
+      usedBytes.addAndGet(bytes);
+      return true;
+    }
+  }
+
+  private void evict(CachedTableFragment fragment) {
+    if (fragments.remove(fragment.getKey(), fragment)) {
+      usedBytes.addAndGet(-fragment.getMemorySize());
+      evictionNum.incrementAndGet();
+      fragment.evict();
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Table fragment is evicted: " + fragment);
+      }
+    }
+  }
+
+  /**
+   * Evicts the fragments whose cache ids are no longer valid. The fragments being loaded are evicted
+   * by the next notification.
+   *
+   * @param lastCacheId The last cache id issued by the master. The fragments of later cache ids are kept because
+   *                    they are issued after the notification.
+   * @param validCacheIds The cache ids of the tables which are still cached
+   */
+  public void retain(long lastCacheId, Set<Long> validCacheIds) {
+    int evicted = 0;
+    for (CachedTableFragment fragment : fragments.values()) {
+      long cacheId = fragment.getCacheId();
+      if (fragment.isReady() && cacheId <= lastCacheId && !validCacheIds.contains(cacheId)) {
+        evict(fragment);
+        evicted++;
+      }
+    }
+    if (evicted > 0) {
+      LOG.info(evicted + " invalidated table fragments are evicted, cache usage: " + this);
+    }
+
+    for (Map.Entry<String, Long> entry : oversizedFragments.entrySet()) {
+      long cacheId = entry.getValue();
+      if (cacheId <= lastCacheId && !validCacheIds.contains(cacheId)) {
+        oversizedFragments.remove(entry.getKey(), cacheId);
+      }
+    }
+  }
+
+  public long getCapacity() {
+    return capacity;
+  }
+
+  public long getUsedBytes() {
+    return usedBytes.get();
+  }
+
+  public int getFragmentNum() {
+    return fragments.size();
+  }
+
+  public long getHitNum() {
+    return hitNum.get();
+  }
+
+  public long getMissNum() {
+    return missNum.get();
+  }
+
+  public long getEvictionNum() {
+    return evictionNum.get();
+  }
+
+  @Override
+  public String toString() {
+    return FileUtil.humanReadableByteCount(getUsedBytes(), false) + " / "
+        + FileUtil.humanReadableByteCount(capacity, false) + " (fragments: " + getFragmentNum() + ", hits: "
+        + getHitNum() + ", misses: " + getMissNum() + ", evictions: " + getEvictionNum() + ")";
+  }
+}
@@ -23,11 +23,16 @@ import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.storage.Scanner;
 import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
 
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
 
+/**
+ * A scanner over the tuples of a cached broadcast table. It returns a heap copy of each tuple
+ * because cached tuples are shared by tasks and they point to off-heap memory.
+ */
 public class TupleCacheScanner implements Scanner {
   List<Tuple> cacheData;
   Schema schema;
@@ -52,11 +57,7 @@ public class TupleCacheScanner implements Scanner {
     if (it.hasNext()) {
       count++;
       Tuple tuple = it.next();
-      try {
-        return (Tuple)tuple.clone();
-      } catch (CloneNotSupportedException e) {
-        throw new IOException(e.getMessage(), e);
-      }
+      return new VTuple(tuple.getValues());
     } else {
       return null;
     }
@@ -99,7 +100,7 @@ public class TupleCacheScanner implements Scanner {
     if (cacheData.size() == 0) {
       return 1.0f;
     }
-    return count / cacheData.size();
+    return (float) count / cacheData.size();
   }
 
   @Override
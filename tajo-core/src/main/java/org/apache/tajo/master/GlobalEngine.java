@@ -87,10 +87,10 @@ public class GlobalEngine extends AbstractService {
 
   public void start() {
     try  {
-      analyzer = new SQLAnalyzer();
+      analyzer = new SQLAnalyzer(context.getCatalog().getFunctions());
       preVerifier = new PreLogicalPlanVerifier(context.getCatalog());
       planner = new LogicalPlanner(context.getCatalog());
-      optimizer = new LogicalOptimizer(context.getConf());
+      optimizer = new LogicalOptimizer(context.getConf(), context.getCatalog());
       annotatedPlanVerifier = new LogicalPlanVerifier(context.getConf(), context.getCatalog());
     } catch (Throwable t) {
       LOG.error(t.getMessage(), t);
@@ -19,28 +19,13 @@
 package org.apache.tajo.master;
 
 import org.apache.tajo.ExecutionBlockId;
-import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.master.container.TajoContainer;
 
 import java.util.Collection;
 
 public class LaunchTaskRunnersEvent extends TaskRunnerGroupEvent {
-  private final QueryContext queryContext;
-  private final String planJson;
-
   public LaunchTaskRunnersEvent(ExecutionBlockId executionBlockId,
-                                Collection<TajoContainer> containers, QueryContext queryContext,
-                                String planJson) {
+                                Collection<TajoContainer> containers) {
     super(EventType.CONTAINER_REMOTE_LAUNCH, executionBlockId, containers);
-    this.queryContext = queryContext;
-    this.planJson = planJson;
-  }
-
-  public QueryContext getQueryContext() {
-    return queryContext;
-  }
-
-  public String getPlanJson() {
-    return planJson;
   }
 }
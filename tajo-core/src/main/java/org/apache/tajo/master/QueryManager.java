@@ -30,6 +30,7 @@ import org.apache.hadoop.yarn.event.AsyncDispatcher;
 import org.apache.hadoop.yarn.event.EventHandler;
 import org.apache.tajo.QueryId;
 import org.apache.tajo.QueryIdFactory;
+import org.apache.tajo.QueryVars;
 import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.ipc.QueryCoordinatorProtocol;
@@ -252,6 +253,12 @@ public class QueryManager extends CompositeService {
         historyCache.put(queryInfo.getQueryId(), queryInfo);
       }
 
+      // the fragments of the output table which are cached before this query ends are stale.
+      QueryContext queryContext = queryInfo.getQueryContext();
+      if (queryContext != null && queryContext.isInsert() && queryContext.containsKey(QueryVars.OUTPUT_TABLE_NAME)) {
+        masterContext.getTableCacheManager().refresh(queryContext.get(QueryVars.OUTPUT_TABLE_NAME));
+      }
+
       long executionTime = queryInfo.getFinishTime() - queryInfo.getStartTime();
       if (executionTime < minExecutionTime.get()) {
         minExecutionTime.set(executionTime);
@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master;
+
+import com.google.common.collect.Lists;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.catalog.CatalogUtil;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * It keeps the tables which are cached in the memory of workers by CACHE TABLE.
+ *
+ * Each cached table has a cache id which is unique in a cluster, and workers cache the fragments of a table
+ * with its cache id. When a table is modified, its cache id is renewed, and the fragments cached with the old id
+ * are never read again even if some workers have not been notified yet. Workers learn the valid cache ids
+ * from heartbeat responses, and they evict the fragments of the other cache ids.
+ *
+ * The cached tables are kept only in the memory of the master. When the master restarts or fails over,
+ * every table is uncached, and the tables must be cached again by CACHE TABLE.
+ */
+public class TableCacheManager {
+  private static final Log LOG = LogFactory.getLog(TableCacheManager.class);
+
+  private final Map<String, Long> cacheIds = new HashMap<String, Long>();
+  private long lastCacheId;
+
+  public TableCacheManager() {
+    // cache ids must not be reused after a restart of master, while workers may still have old fragments
+    this.lastCacheId = System.currentTimeMillis() * 1000;
+    LOG.info("Table cache is initialized. The tables cached by CACHE TABLE before a restart or a failover of master "
+        + "are not cached anymore, so they must be cached again.");
+  }
+
+  /**
+   * Marks a table as cached. Its fragments are cached by the first scans of them.
+   *
+   * @param tableName The fully qualified table name
+   * @return The cache id of the table
+   */
+  public synchronized long cache(String tableName) {
+    Long cacheId = cacheIds.get(tableName);
+    if (cacheId == null) {
+      cacheId = ++lastCacheId;
+      cacheIds.put(tableName, cacheId);
+      LOG.info("Table " + tableName + " is cached (cache id: " + cacheId + ")");
+    }
+    return cacheId;
+  }
+
+  /**
+   * @return True if the table was cached.
+   */
+  public synchronized boolean uncache(String tableName) {
+    if (cacheIds.remove(tableName) != null) {
+      LOG.info("Table " + tableName + " is uncached");
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Uncaches all tables of a database.
+   */
+  public synchronized void uncacheDatabase(String databaseName) {
+    Iterator<String> it = cacheIds.keySet().iterator();
+    while (it.hasNext()) {
+      String tableName = it.next();
+      if (CatalogUtil.isFQTableName(tableName) && CatalogUtil.extractQualifier(tableName).equals(databaseName)) {
+        it.remove();
+        LOG.info("Table " + tableName + " is uncached");
+      }
+    }
+  }
+
+  /**
+   * Invalidates the cached fragments of a table because its data are modified. The table is still cached,
+   * and the new data are cached by the next scans.
+   */
+  public synchronized void refresh(String tableName) {
+    if (cacheIds.containsKey(tableName)) {
+      cacheIds.put(tableName, ++lastCacheId);
+      LOG.info("Cached fragments of " + tableName + " are invalidated (cache id: " + lastCacheId + ")");
+    }
+  }
+
+  /**
+   * @return The cache id of a table. Null if the table is not cached.
+   */
+  public synchronized Long getCacheId(String tableName) {
+    return cacheIds.get(tableName);
+  }
+
+  public synchronized boolean isEmpty() {
+    return cacheIds.isEmpty();
+  }
+
+  /**
+   * @return The cache id which was issued last. Every cache id that is issued so far is less than or equal to it.
+   */
+  public synchronized long getLastCacheId() {
+    return lastCacheId;
+  }
+
+  /**
+   * @return The cache ids of all cached tables
+   */
+  public synchronized List<Long> getValidCacheIds() {
+    return Lists.newArrayList(cacheIds.values());
+  }
+}
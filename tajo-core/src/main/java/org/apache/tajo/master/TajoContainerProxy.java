@@ -24,7 +24,6 @@ import org.apache.hadoop.yarn.api.records.ContainerLaunchContext;
 import org.apache.tajo.ExecutionBlockId;
 import org.apache.tajo.TaskAttemptId;
 import org.apache.tajo.conf.TajoConf;
-import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.ha.HAServiceUtil;
 import org.apache.tajo.ipc.ContainerProtocol;
 import org.apache.tajo.ipc.QueryCoordinatorProtocol;
@@ -44,15 +43,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class TajoContainerProxy extends ContainerProxy {
-  private final QueryContext queryContext;
-  private final String planJson;
 
   public TajoContainerProxy(QueryMasterTask.QueryMasterTaskContext context,
                             Configuration conf, TajoContainer container,
-                            QueryContext queryContext, ExecutionBlockId executionBlockId, String planJson) {
+                            ExecutionBlockId executionBlockId) {
     super(context, conf, executionBlockId, container);
-    this.queryContext = queryContext;
-    this.planJson = planJson;
   }
 
   @Override
@@ -108,8 +103,6 @@ public class TajoContainerProxy extends ContainerProxy {
               .setNodeId(container.getNodeId().toString())
               .setContainerId(container.getId().toString())
               .setQueryOutputPath(context.getStagingDir().toString())
-              .setQueryContext(queryContext.getProto())
-              .setPlanJson(planJson)
               .build();
 
       tajoWorkerRpcClient.startExecutionBlock(null, request, NullCallback.get());
@@ -135,6 +135,8 @@ public class TajoMaster extends CompositeService {
 
   private HistoryReader historyReader;
 
+  private TableCacheManager tableCacheManager;
+
   public TajoMaster() throws Exception {
     super(TajoMaster.class.getName());
   }
@@ -162,6 +164,7 @@ public class TajoMaster extends CompositeService {
     try {
       RackResolver.init(systemConf);
 
+      tableCacheManager = new TableCacheManager();
       initResourceManager();
       initWebServer();
 
@@ -488,6 +491,10 @@ public class TajoMaster extends CompositeService {
     public HistoryReader getHistoryReader() {
       return historyReader;
     }
+
+    public TableCacheManager getTableCacheManager() {
+      return tableCacheManager;
+    }
   }
 
   String getThreadTaskName(long id, String name) {
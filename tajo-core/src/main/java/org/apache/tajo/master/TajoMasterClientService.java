@@ -477,7 +477,8 @@ public class TajoMasterClientService extends AbstractService {
 
             boolean isCreateTable = queryInfo.getQueryContext().isCreateTable();
             boolean isInsert = queryInfo.getQueryContext().isInsert();
-            builder.setHasResult(!(isCreateTable || isInsert));
+            boolean isExplainAnalyze = queryInfo.getQueryContext().isExplainAnalyze();
+            builder.setHasResult(isExplainAnalyze || !(isCreateTable || isInsert));
 
             builder.setProgress(queryInfo.getProgress());
             builder.setSubmitTime(queryInfo.getStartTime());
@@ -21,11 +21,14 @@ package org.apache.tajo.master.event;
 import com.google.protobuf.RpcCallback;
 import org.apache.hadoop.yarn.event.AbstractEvent;
 import org.apache.tajo.ExecutionBlockId;
-import org.apache.tajo.ipc.TajoWorkerProtocol;
 import org.apache.tajo.ipc.TajoWorkerProtocol.TaskRequestProto;
+import org.apache.tajo.ipc.TajoWorkerProtocol.TaskRequestsProto;
 import org.apache.tajo.master.event.TaskRequestEvent.TaskRequestEventType;
 import org.apache.tajo.master.container.TajoContainerId;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class TaskRequestEvent extends AbstractEvent<TaskRequestEventType> {
 
   public enum TaskRequestEventType {
@@ -35,17 +38,22 @@ public class TaskRequestEvent extends AbstractEvent<TaskRequestEventType> {
   private final int workerId;
   private final TajoContainerId containerId;
   private final ExecutionBlockId executionBlockId;
+  private final int maxTaskNum;
 
-  private final RpcCallback<TaskRequestProto> callback;
+  private final RpcCallback<TaskRequestsProto> callback;
+  /** the tasks assigned to this request, which are sent together by {@link #respond()} */
+  private final List<TaskRequestProto> assignedTasks = new ArrayList<TaskRequestProto>();
 
   public TaskRequestEvent(int workerId,
                           TajoContainerId containerId,
                           ExecutionBlockId executionBlockId,
-                          RpcCallback<TaskRequestProto> callback) {
+                          int maxTaskNum,
+                          RpcCallback<TaskRequestsProto> callback) {
     super(TaskRequestEventType.TASK_REQ);
     this.workerId = workerId;
     this.containerId = containerId;
     this.executionBlockId = executionBlockId;
+    this.maxTaskNum = Math.max(1, maxTaskNum);
     this.callback = callback;
   }
 
@@ -61,7 +69,41 @@ public class TaskRequestEvent extends AbstractEvent<TaskRequestEventType> {
     return executionBlockId;
   }
 
-  public RpcCallback<TajoWorkerProtocol.TaskRequestProto> getCallback() {
+  public int getMaxTaskNum() {
+    return maxTaskNum;
+  }
+
+  public RpcCallback<TaskRequestsProto> getCallback() {
     return this.callback;
   }
+
+  public void addAssignedTask(TaskRequestProto task) {
+    assignedTasks.add(task);
+  }
+
+  public boolean hasAssignedTask() {
+    return !assignedTasks.isEmpty();
+  }
+
+  /**
+   * @return True if this request can receive more tasks.
+   */
+  public boolean canAssignMore() {
+    return assignedTasks.size() < maxTaskNum;
+  }
+
+  /**
+   * Sends the assigned tasks to the task runner.
+   */
+  public void respond() {
+    callback.run(TaskRequestsProto.newBuilder().addAllTaskRequests(assignedTasks).build());
+    assignedTasks.clear();
+  }
+
+  /**
+   * Sends a single task or signal to the task runner.
+   */
+  public void respond(TaskRequestProto task) {
+    callback.run(TaskRequestsProto.newBuilder().addTaskRequests(task).build());
+  }
 }
@@ -33,16 +33,22 @@ import org.apache.tajo.catalog.proto.CatalogProtos;
 import org.apache.tajo.catalog.proto.CatalogProtos.AlterTablespaceProto;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.master.TableCacheManager;
 import org.apache.tajo.master.TajoMaster;
 import org.apache.tajo.plan.LogicalPlan;
 import org.apache.tajo.plan.logical.*;
 import org.apache.tajo.plan.util.PlannerUtil;
+import org.apache.tajo.storage.StorageConstants;
 import org.apache.tajo.storage.StorageManager;
 import org.apache.tajo.storage.StorageUtil;
+import org.apache.tajo.util.StringUtils;
+import org.apache.tajo.util.TUtil;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import static org.apache.tajo.TajoConstants.DEFAULT_TABLESPACE_NAME;
 
@@ -55,11 +61,13 @@ public class DDLExecutor {
   private final TajoMaster.MasterContext context;
   private final CatalogService catalog;
   private final StorageManager storageManager;
+  private final TableCacheManager tableCacheManager;
 
   public DDLExecutor(TajoMaster.MasterContext context) {
     this.context = context;
     this.catalog = context.getCatalog();
     this.storageManager = context.getStorageManager();
+    this.tableCacheManager = context.getTableCacheManager();
   }
 
   public boolean execute(QueryContext queryContext, LogicalPlan plan) throws IOException {
@@ -95,6 +103,10 @@ public class DDLExecutor {
       TruncateTableNode truncateTable = (TruncateTableNode) root;
       truncateTable(queryContext, truncateTable);
       return true;
+    case CACHE_TABLE:
+      CacheTableNode cacheTable = (CacheTableNode) root;
+      cacheTable(cacheTable);
+      return true;
 
     case ALTER_TABLE:
       AlterTableNode alterTable = (AlterTableNode) root;
@@ -183,6 +195,7 @@ public class DDLExecutor {
     }
 
     boolean result = catalog.dropDatabase(databaseName);
+    tableCacheManager.uncacheDatabase(databaseName);
     LOG.info("database " + databaseName + " is dropped.");
     return result;
   }
@@ -236,6 +249,12 @@ public class DDLExecutor {
       }
     }
 
+    if (!isExternal && partitionDesc != null
+        && partitionDesc.getPartitionType() == CatalogProtos.PartitionType.COLUMN) {
+      // a new table has no partition, and all partitions written by queries are registered in the catalog.
+      meta.putOption(StorageConstants.PARTITIONS_REGISTERED, "true");
+    }
+
     TableDesc desc = new TableDesc(CatalogUtil.buildFQName(databaseName, simpleTableName),
         schema, meta, (path != null ? path.toUri(): null), isExternal);
 
@@ -287,6 +306,7 @@ public class DDLExecutor {
 
     TableDesc tableDesc = catalog.getTableDesc(qualifiedName);
     catalog.dropTable(qualifiedName);
+    tableCacheManager.uncache(qualifiedName);
 
     if (purge) {
       try {
@@ -342,6 +362,7 @@ public class DDLExecutor {
     for (TableDesc eachTable: tableDescList) {
       Path path = new Path(eachTable.getPath());
       LOG.info("Truncate table: " + eachTable.getName() + ", delete all data files in " + path);
+      tableCacheManager.refresh(eachTable.getName());
       FileSystem fs = path.getFileSystem(context.getConf());
 
       FileStatus[] files = fs.listStatus(path);
@@ -350,6 +371,18 @@ public class DDLExecutor {
           fs.delete(eachFile.getPath(), true);
         }
       }
+
+      // the partitions are registered again when the table is written next time
+      if (eachTable.hasPartition()) {
+        String[] split = CatalogUtil.splitFQTableName(eachTable.getName());
+        List<String> partitionNames = new ArrayList<String>();
+        for (CatalogProtos.PartitionDescProto partition : catalog.getPartitions(split[0], split[1], null)) {
+          partitionNames.add(partition.getPartitionName());
+        }
+        if (!partitionNames.isEmpty()) {
+          catalog.dropPartitions(split[0], split[1], partitionNames);
+        }
+      }
     }
   }
 
@@ -407,6 +440,10 @@ public class DDLExecutor {
       }
       catalog.alterTable(CatalogUtil.renameTable(qualifiedName, alterTable.getNewTableName(),
           AlterTableType.RENAME_TABLE));
+
+      if (!desc.isExternal() && desc.hasPartition()) {
+        relocatePartitions(databaseName, alterTable.getNewTableName(), new Path(desc.getPath()));
+      }
       break;
     case RENAME_COLUMN:
       if (existColumnName(qualifiedName, alterTable.getNewColumnName())) {
@@ -421,9 +458,192 @@ public class DDLExecutor {
       }
       catalog.alterTable(CatalogUtil.addNewColumn(qualifiedName, alterTable.getAddNewColumn(), AlterTableType.ADD_COLUMN));
       break;
+    case ADD_PARTITION:
+    case DROP_PARTITION:
+    case REPAIR_PARTITION:
+      alterPartition(context, databaseName, simpleTableName, alterTable);
+      break;
     default:
       //TODO
     }
+
+    switch (alterTable.getAlterTableOpType()) {
+    case ADD_PARTITION:
+    case DROP_PARTITION:
+    case REPAIR_PARTITION:
+      // the table is still cached, but the partitions to be scanned are changed.
+      tableCacheManager.refresh(qualifiedName);
+      break;
+    default:
+      // the cached fragments no longer match the name or the schema of the table
+      tableCacheManager.uncache(qualifiedName);
+    }
+  }
+
+  /**
+   * CACHE TABLE or UNCACHE TABLE. The fragments of a cached table are loaded into the memory of workers
+   * by the first scans of them.
+   */
+  public void cacheTable(final CacheTableNode cacheTable) throws IOException {
+    String qualifiedName = cacheTable.getTableName();
+
+    if (cacheTable.isCache()) {
+      if (!catalog.existsTable(qualifiedName)) {
+        throw new NoSuchTableException(qualifiedName);
+      }
+      TableDesc desc = catalog.getTableDesc(qualifiedName);
+      if (!PlannerUtil.isFileStorageType(desc.getMeta().getStoreType())) {
+        throw new IOException("Only a table on a file storage can be cached: " + qualifiedName);
+      }
+      tableCacheManager.cache(qualifiedName);
+    } else {
+      tableCacheManager.uncache(qualifiedName);
+    }
+  }
+
+  /**
+   * ALTER TABLE ADD PARTITION, DROP PARTITION, and REPAIR PARTITION
+   *
+   * DROP PARTITION only removes the partition from the catalog, and its data are kept like DROP TABLE without PURGE.
+   * REPAIR PARTITION synchronizes the catalog with the partition directories of the table.
+   */
+  private void alterPartition(TajoMaster.MasterContext context, String databaseName, String simpleTableName,
+                              AlterTableNode alterTable) throws IOException {
+    TableDesc desc = catalog.getTableDesc(databaseName, simpleTableName);
+    if (!desc.hasPartition() || desc.getPartitionMethod().getPartitionType() != CatalogProtos.PartitionType.COLUMN) {
+      throw new CatalogException(CatalogUtil.buildFQName(databaseName, simpleTableName)
+          + " is not a column-partitioned table");
+    }
+
+    Path tablePath = new Path(desc.getPath());
+    FileSystem fs = tablePath.getFileSystem(context.getConf());
+    Schema partitionSchema = desc.getPartitionMethod().getExpressionSchema();
+
+    switch (alterTable.getAlterTableOpType()) {
+    case ADD_PARTITION: {
+      String partitionName = buildPartitionName(partitionSchema, alterTable);
+      Path partitionPath = alterTable.hasLocation() ?
+          new Path(alterTable.getLocation()) : new Path(tablePath, partitionName);
+      if (!fs.exists(partitionPath)) {
+        fs.mkdirs(partitionPath);
+      }
+      catalog.addPartitions(databaseName, simpleTableName,
+          TUtil.newList(newPartitionDesc(partitionName, partitionPath)));
+      break;
+    }
+    case DROP_PARTITION: {
+      String partitionName = buildPartitionName(partitionSchema, alterTable);
+      catalog.dropPartitions(databaseName, simpleTableName, TUtil.newList(partitionName));
+      break;
+    }
+    case REPAIR_PARTITION: {
+      Map<String, Path> partitionDirs = new TreeMap<String, Path>();
+      if (fs.exists(tablePath)) {
+        findPartitionDirs(fs, tablePath, partitionSchema, 0, "", partitionDirs);
+      }
+
+      List<String> stalePartitions = new ArrayList<String>();
+      for (CatalogProtos.PartitionDescProto partition : catalog.getPartitions(databaseName, simpleTableName, null)) {
+        if (partitionDirs.remove(partition.getPartitionName()) == null && !fs.exists(new Path(partition.getPath()))) {
+          stalePartitions.add(partition.getPartitionName());
+        }
+      }
+
+      List<CatalogProtos.PartitionDescProto> newPartitions = new ArrayList<CatalogProtos.PartitionDescProto>();
+      for (Map.Entry<String, Path> entry : partitionDirs.entrySet()) {
+        newPartitions.add(newPartitionDesc(entry.getKey(), entry.getValue()));
+      }
+
+      if (!newPartitions.isEmpty()) {
+        catalog.addPartitions(databaseName, simpleTableName, newPartitions);
+      }
+      if (!stalePartitions.isEmpty()) {
+        catalog.dropPartitions(databaseName, simpleTableName, stalePartitions);
+      }
+      LOG.info("Repaired partitions of " + desc.getName() + " (added: " + newPartitions.size() + ", dropped: "
+          + stalePartitions.size() + ")");
+      break;
+    }
+    default:
+      throw new IllegalStateException("Unknown partition operation: " + alterTable.getAlterTableOpType());
+    }
+  }
+
+  /**
+   * Updates the paths of the registered partitions which were located in the directory of a renamed table.
+   */
+  private void relocatePartitions(String databaseName, String newTableName, Path oldTablePath) {
+    Path newTablePath = new Path(oldTablePath.getParent(), newTableName);
+    List<CatalogProtos.PartitionDescProto> partitions = catalog.getPartitions(databaseName, newTableName, null);
+    if (partitions == null || partitions.isEmpty()) {
+      return;
+    }
+
+    List<String> movedNames = new ArrayList<String>();
+    List<CatalogProtos.PartitionDescProto> movedPartitions = new ArrayList<CatalogProtos.PartitionDescProto>();
+    for (CatalogProtos.PartitionDescProto partition : partitions) {
+      String name = partition.getPartitionName();
+      if (new Path(oldTablePath, name).toString().equals(partition.getPath())) {
+        movedNames.add(name);
+        movedPartitions.add(newPartitionDesc(name, new Path(newTablePath, name)));
+      }
+    }
+
+    if (!movedNames.isEmpty()) {
+      catalog.dropPartitions(databaseName, newTableName, movedNames);
+      catalog.addPartitions(databaseName, newTableName, movedPartitions);
+    }
+  }
+
+  /**
+   * Builds a partition name like 'col1=a/col2=b' in the same way as the column partitioned store operators do.
+   * All partition columns must be specified in their order.
+   */
+  private static String buildPartitionName(Schema partitionSchema, AlterTableNode alterTable) {
+    String[] columnNames = alterTable.getPartitionColumns();
+    String[] values = alterTable.getPartitionValues();
+    if (columnNames.length != partitionSchema.size()) {
+      throw new CatalogException("All partition columns " + partitionSchema.getColumns() + " must be specified");
+    }
+
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < columnNames.length; i++) {
+      String expected = partitionSchema.getColumn(i).getSimpleName();
+      if (!expected.equalsIgnoreCase(columnNames[i])) {
+        throw new CatalogException("Partition column " + columnNames[i] + " does not match " + expected);
+      }
+      if (i > 0) {
+        sb.append("/");
+      }
+      sb.append(expected).append("=").append(StringUtils.escapePathName(values[i]));
+    }
+    return sb.toString();
+  }
+
+  private static void findPartitionDirs(FileSystem fs, Path path, Schema partitionSchema, int level,
+                                        String parentName, Map<String, Path> found) throws IOException {
+    String prefix = partitionSchema.getColumn(level).getSimpleName() + "=";
+    for (FileStatus status : fs.listStatus(path)) {
+      String dirName = status.getPath().getName();
+      if (!status.isDirectory() || !dirName.startsWith(prefix)) {
+        continue;
+      }
+
+      String partitionName = level == 0 ? dirName : parentName + "/" + dirName;
+      if (level == partitionSchema.size() - 1) {
+        found.put(partitionName, status.getPath());
+      } else {
+        findPartitionDirs(fs, status.getPath(), partitionSchema, level + 1, partitionName, found);
+      }
+    }
+  }
+
+  private static CatalogProtos.PartitionDescProto newPartitionDesc(String partitionName, Path path) {
+    CatalogProtos.PartitionDescProto.Builder builder = CatalogProtos.PartitionDescProto.newBuilder();
+    builder.setPartitionName(partitionName);
+    builder.setOrdinalPosition(0);
+    builder.setPath(path.toString());
+    return builder.build();
   }
 
   private boolean existColumnName(String tableName, String columnName) {
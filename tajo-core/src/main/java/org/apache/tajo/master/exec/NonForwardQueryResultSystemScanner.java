@@ -543,7 +543,7 @@ public class NonForwardQueryResultSystemScanner implements NonForwardQueryResult
     }
 
     @Override
-    public Tuple next() throws IOException {
+    protected Tuple nextTuple() throws IOException {
       Tuple aTuple = null;
       Tuple outTuple = new VTuple(outColumnNum);
       
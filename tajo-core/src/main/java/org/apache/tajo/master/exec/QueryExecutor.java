@@ -45,6 +45,7 @@ import org.apache.tajo.master.*;
 import org.apache.tajo.master.exec.prehook.CreateTableHook;
 import org.apache.tajo.master.exec.prehook.DistributedQueryHookManager;
 import org.apache.tajo.master.exec.prehook.InsertIntoHook;
+import org.apache.tajo.master.exec.prehook.TableCacheHook;
 import org.apache.tajo.querymaster.*;
 import org.apache.tajo.session.Session;
 import org.apache.tajo.plan.LogicalPlan;
@@ -78,6 +79,7 @@ public class QueryExecutor {
     this.hookManager = new DistributedQueryHookManager();
     this.hookManager.addHook(new CreateTableHook());
     this.hookManager.addHook(new InsertIntoHook());
+    this.hookManager.addHook(new TableCacheHook(context.getTableCacheManager()));
   }
 
   public SubmitQueryResponse execute(QueryContext queryContext, Session session, String sql, String jsonExpr,
@@ -100,7 +102,13 @@ public class QueryExecutor {
       response.setResultCode(ClientProtos.ResultCode.OK);
 
 
+    } else if (plan.isExplainAnalyze() && !checkIfExecutedInMaster(plan)) {
+      // the query is executed by a query master, which collects the runtime statistics of execution blocks.
+      queryContext.setExplainAnalyze();
+      executeDistributedQuery(queryContext, session, plan, sql, jsonExpr, response);
+
     } else if (plan.isExplain()) { // explain query
+      // a query which is executed in the master without execution blocks is explained without runtime statistics.
       execExplain(plan, response);
 
     } else if (PlannerUtil.checkIfQueryTargetIsVirtualTable(plan)) {
@@ -125,6 +133,14 @@ public class QueryExecutor {
     return response.build();
   }
 
+  /**
+   * @return True if the query is executed in the master without a query master.
+   */
+  private static boolean checkIfExecutedInMaster(LogicalPlan plan) {
+    return PlannerUtil.checkIfQueryTargetIsVirtualTable(plan) || PlannerUtil.checkIfSimpleQuery(plan)
+        || PlannerUtil.checkIfNonFromQuery(plan);
+  }
+
   public void execSetSession(Session session, LogicalPlan plan,
                              SubmitQueryResponse.Builder response) {
     SetSessionNode setSessionNode = ((LogicalRootNode)plan.getRootBlock().getRoot()).getChild();
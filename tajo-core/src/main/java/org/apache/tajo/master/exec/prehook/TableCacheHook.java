@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master.exec.prehook;
+
+import org.apache.tajo.QueryVars;
+import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.master.TableCacheManager;
+import org.apache.tajo.plan.LogicalPlan;
+import org.apache.tajo.plan.logical.LogicalNode;
+import org.apache.tajo.plan.logical.NodeType;
+import org.apache.tajo.plan.logical.ScanNode;
+import org.apache.tajo.plan.util.PlannerUtil;
+
+/**
+ * It lets a query know the cache ids of the cached tables which the query scans. Since an insert modifies
+ * the data of its target table, the cached fragments of the target table are invalidated, and they are not cached
+ * by the query itself.
+ */
+public class TableCacheHook implements DistributedQueryHook {
+  private final TableCacheManager cacheManager;
+
+  public TableCacheHook(TableCacheManager cacheManager) {
+    this.cacheManager = cacheManager;
+  }
+
+  @Override
+  public boolean isEligible(QueryContext queryContext, LogicalPlan plan) {
+    return !cacheManager.isEmpty();
+  }
+
+  @Override
+  public void hook(QueryContext queryContext, LogicalPlan plan) throws Exception {
+    String outputTable = null;
+    if (queryContext.isInsert() && queryContext.containsKey(QueryVars.OUTPUT_TABLE_NAME)) {
+      outputTable = queryContext.get(QueryVars.OUTPUT_TABLE_NAME);
+      cacheManager.refresh(outputTable);
+    }
+
+    LogicalNode [] scanNodes = PlannerUtil.findAllNodes(plan.getRootBlock().getRoot(),
+        NodeType.SCAN, NodeType.PARTITIONS_SCAN);
+    for (LogicalNode node : scanNodes) {
+      String tableName = ((ScanNode) node).getTableName();
+      Long cacheId = cacheManager.getCacheId(tableName);
+      if (cacheId != null && !tableName.equals(outputTable)) {
+        queryContext.setTableCacheId(tableName, cacheId);
+      }
+    }
+  }
+}
@@ -26,9 +26,11 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.service.AbstractService;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.utils.TableFragmentCache;
 import org.apache.tajo.ipc.QueryCoordinatorProtocol.ClusterResourceSummary;
 import org.apache.tajo.ipc.QueryCoordinatorProtocol.TajoHeartbeatResponse;
 import org.apache.tajo.ipc.TajoResourceTrackerProtocol;
+import org.apache.tajo.master.TableCacheManager;
 import org.apache.tajo.master.cluster.WorkerConnectionInfo;
 import org.apache.tajo.rpc.AsyncRpcServer;
 import org.apache.tajo.util.NetUtils;
@@ -62,6 +64,8 @@ public class TajoResourceTracker extends AbstractService implements TajoResource
   private final TajoRMContext rmContext;
   /** Liveliness monitor which checks ping expiry times of workers */
   private final WorkerLivelinessMonitor workerLivelinessMonitor;
+  /** The tables cached in workers by CACHE TABLE. It can be null. */
+  private final TableCacheManager tableCacheManager;
 
   /** RPC server for worker resource tracker */
   private AsyncRpcServer server;
@@ -69,9 +73,15 @@ public class TajoResourceTracker extends AbstractService implements TajoResource
   private InetSocketAddress bindAddress;
 
   public TajoResourceTracker(TajoRMContext rmContext, WorkerLivelinessMonitor workerLivelinessMonitor) {
+    this(rmContext, workerLivelinessMonitor, null);
+  }
+
+  public TajoResourceTracker(TajoRMContext rmContext, WorkerLivelinessMonitor workerLivelinessMonitor,
+                             TableCacheManager tableCacheManager) {
     super(TajoResourceTracker.class.getSimpleName());
     this.rmContext = rmContext;
     this.workerLivelinessMonitor = workerLivelinessMonitor;
+    this.tableCacheManager = tableCacheManager;
   }
 
   @Override
@@ -108,9 +118,24 @@ public class TajoResourceTracker extends AbstractService implements TajoResource
     super.stop();
   }
 
-  /** The response builder */
-  private static final TajoHeartbeatResponse.Builder builder =
-      TajoHeartbeatResponse.newBuilder().setHeartbeatResult(ProtoUtil.TRUE);
+  /**
+   * @return The command which makes a worker evict the fragments of tables which are no longer cached.
+   * Null if this tracker does not know the cached tables.
+   */
+  private TajoHeartbeatResponse.ResponseCommand createTableCacheCommand() {
+    if (tableCacheManager == null) {
+      return null;
+    }
+
+    TajoHeartbeatResponse.ResponseCommand.Builder command = TajoHeartbeatResponse.ResponseCommand.newBuilder()
+        .setCommand(TableFragmentCache.RETAIN_COMMAND);
+    // the last cache id is read before the valid ones, so a cache id issued in between is kept by workers.
+    command.addParams(Long.toString(tableCacheManager.getLastCacheId()));
+    for (Long cacheId : tableCacheManager.getValidCacheIds()) {
+      command.addParams(cacheId.toString());
+    }
+    return command.build();
+  }
 
   private static WorkerStatusEvent createStatusEvent(int workerId, NodeHeartbeat heartbeat) {
     return new WorkerStatusEvent(
@@ -174,7 +199,13 @@ public class TajoResourceTracker extends AbstractService implements TajoResource
       }
 
     } finally {
-      builder.setClusterResourceSummary(getClusterResourceSummary());
+      TajoHeartbeatResponse.Builder builder = TajoHeartbeatResponse.newBuilder()
+          .setHeartbeatResult(ProtoUtil.TRUE)
+          .setClusterResourceSummary(getClusterResourceSummary());
+      TajoHeartbeatResponse.ResponseCommand command = createTableCacheCommand();
+      if (command != null) {
+        builder.setResponseCommand(command);
+      }
       done.run(builder.build());
     }
   }
@@ -116,7 +116,8 @@ public class TajoWorkerResourceManager extends CompositeService implements Worke
     // Register event handler for Workers
     rmContext.getDispatcher().register(WorkerEventType.class, new WorkerEventDispatcher(rmContext));
 
-    resourceTracker = new TajoResourceTracker(rmContext, workerLivelinessMonitor);
+    resourceTracker = new TajoResourceTracker(rmContext, workerLivelinessMonitor,
+        masterContext != null ? masterContext.getTableCacheManager() : null);
     addIfService(resourceTracker);
 
     super.serviceInit(systemConf);
@@ -31,17 +31,18 @@ import org.apache.tajo.QueryIdFactory;
 import org.apache.tajo.TaskAttemptId;
 import org.apache.tajo.engine.planner.global.ExecutionBlock;
 import org.apache.tajo.engine.planner.global.MasterPlan;
+import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.engine.query.TaskRequest;
 import org.apache.tajo.engine.query.TaskRequestImpl;
 import org.apache.tajo.ipc.TajoWorkerProtocol;
+import org.apache.tajo.ipc.TajoWorkerProtocol.RuntimeFilterProto;
 import org.apache.tajo.master.ContainerProxy;
 import org.apache.tajo.master.cluster.WorkerConnectionInfo;
 import org.apache.tajo.master.container.TajoContainerId;
 import org.apache.tajo.master.event.*;
 import org.apache.tajo.master.event.TaskAttemptToSchedulerEvent.TaskAttemptScheduleContext;
 import org.apache.tajo.master.event.TaskSchedulerEvent.EventType;
-import org.apache.tajo.plan.serder.LogicalNodeSerializer;
-import org.apache.tajo.plan.serder.PlanProto;
+import org.apache.tajo.plan.logical.ScanNode;
 import org.apache.tajo.storage.DataLocation;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.storage.fragment.Fragment;
@@ -70,6 +71,7 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
 
   private int nextTaskId = 0;
   private int scheduledObjectNum = 0;
+  private RuntimeFilterProto appliedRuntimeFilterProto;
 
   public DefaultTaskScheduler(TaskSchedulerContext context, Stage stage) {
     super(DefaultTaskScheduler.class.getName());
@@ -125,7 +127,6 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
     builder.setId(NULL_ATTEMPT_ID.getProto());
     builder.setShouldDie(true);
     builder.setOutputTable("");
-    builder.setPlan(PlanProto.LogicalNodeTree.newBuilder());
     builder.setClusteredOutput(false);
     stopTaskRunnerReq = builder.build();
   }
@@ -145,7 +146,7 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
     // Return all of request callbacks instantly.
     if(taskRequests != null){
       for (TaskRequestEvent req : taskRequests.taskRequestQueue) {
-        req.getCallback().run(stopTaskRunnerReq);
+        req.respond(stopTaskRunnerReq);
       }
     }
 
@@ -153,6 +154,40 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
     super.stop();
   }
 
+  /**
+   * A request receives more tasks only if there are more tasks than the waiting requests,
+   * so that batching does not starve the other task runners.
+   */
+  static boolean canAssignMore(TaskRequestEvent taskRequest, int remainingTaskNum, int waitingRequestNum) {
+    return taskRequest.canAssignMore() && remainingTaskNum > waitingRequestNum;
+  }
+
+  /**
+   * A task runner which already received some tasks by this request gets them instead of the stop signal.
+   */
+  static void stopTaskRunner(TaskRequestEvent taskRequest) {
+    if (taskRequest.hasAssignedTask()) {
+      taskRequest.respond();
+    } else {
+      taskRequest.respond(stopTaskRunnerReq);
+    }
+  }
+
+  /**
+   * Sends the tasks assigned so far to the requests which are not filled up,
+   * and puts the requests without any task back to the queue for the next scheduling.
+   */
+  static void respondOrRequeue(Collection<TaskRequestEvent> remainingRequests, EventHandler<TaskRequestEvent> queue) {
+    for (TaskRequestEvent request : remainingRequests) {
+      if (request.hasAssignedTask()) {
+        request.respond();
+      } else {
+        queue.handle(request);
+      }
+    }
+    remainingRequests.clear();
+  }
+
   private Fragment[] fragmentsForNonLeafTask;
   private Fragment[] broadcastFragmentsForNonLeafTask;
 
@@ -187,6 +222,27 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
     }
   }
 
+  private boolean isCachedFragment(Fragment fragment) {
+    return isCachedFragment(stage.getContext().getQueryContext(), stage.getBlock().getScanNodes(), fragment);
+  }
+
+  /**
+   * @param scans The scans of the execution block which the fragment is scanned by
+   * @return True if a fragment belongs to a table which is cached by CACHE TABLE.
+   */
+  static boolean isCachedFragment(QueryContext queryContext, ScanNode [] scans, Fragment fragment) {
+    if (queryContext == null) {
+      return false;
+    }
+    // the table name of a fragment is the canonical name of its scan
+    for (ScanNode scan : scans) {
+      if (scan.getCanonicalName().equals(fragment.getTableName())) {
+        return queryContext.getTableCacheId(scan.getTableName()) != null;
+      }
+    }
+    return false;
+  }
+
   @Override
   public void handle(TaskSchedulerEvent event) {
     if (event.getType() == EventType.T_SCHEDULE) {
@@ -195,7 +251,11 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
         if (context.isLeafQuery()) {
           TaskAttemptScheduleContext taskContext = new TaskAttemptScheduleContext();
           Task task = Stage.newEmptyTask(context, taskContext, stage, nextTaskId++);
-          task.addFragment(castEvent.getLeftFragment(), true);
+          if (isCachedFragment(castEvent.getLeftFragment())) {
+            task.addCachedFragment(castEvent.getLeftFragment());
+          } else {
+            task.addFragment(castEvent.getLeftFragment(), true);
+          }
           scheduledObjectNum++;
           if (castEvent.hasRightFragments()) {
             task.addFragments(castEvent.getRightFragments());
@@ -282,7 +342,7 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
       }
 
       if(stopEventHandling.get()) {
-        event.getCallback().run(stopTaskRunnerReq);
+        event.respond(stopTaskRunnerReq);
         return;
       }
       int qSize = taskRequestQueue.size();
@@ -760,7 +820,7 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
         ContainerProxy container = context.getMasterContext().getResourceAllocator()
             .getContainer(taskRequest.getContainerId());
         if(container == null) {
-          taskRequest.getCallback().run(stopTaskRunnerReq);
+          stopTaskRunner(taskRequest);
           continue;
         }
 
@@ -807,7 +867,7 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
             if(hostVolumeMapping.getRemoteConcurrency() > tailLimit){
               //release container
               hostVolumeMapping.decreaseConcurrency(containerId);
-              taskRequest.getCallback().run(stopTaskRunnerReq);
+              stopTaskRunner(taskRequest);
               continue;
             }
           }
@@ -839,24 +899,42 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
               attemptId,
               new ArrayList<FragmentProto>(task.getAllFragments()),
               "",
-              false,
-              LogicalNodeSerializer.serialize(task.getLogicalPlan()),
-              context.getMasterContext().getQueryContext(),
-              stage.getDataChannel(), stage.getBlock().getEnforcer());
+              false);
           if (checkIfInterQuery(stage.getMasterPlan(), stage.getBlock())) {
             taskAssign.setInterQuery();
           }
+          setRuntimeFilters(taskAssign);
 
           context.getMasterContext().getEventHandler().handle(new TaskAttemptAssignedEvent(attemptId,
               taskRequest.getContainerId(), connectionInfo));
           assignedRequest.add(attemptId);
 
           scheduledObjectNum--;
-          taskRequest.getCallback().run(taskAssign.getProto());
+          taskRequest.addAssignedTask(taskAssign.getProto());
+          if (canAssignMore(taskRequest, leafTaskNum(), taskRequests.size() + remoteTaskRequests.size())) {
+            taskRequests.addFirst(taskRequest);
+          } else {
+            taskRequest.respond();
+          }
         } else {
           throw new RuntimeException("Illegal State!!!!!!!!!!!!!!!!!!!!!");
         }
       }
+
+      respondOrRequeue(taskRequests, DefaultTaskScheduler.this.taskRequests);
+      respondOrRequeue(remoteTaskRequests, DefaultTaskScheduler.this.taskRequests);
+    }
+
+    private void setRuntimeFilters(TaskRequest taskAssign) {
+      if (stage.isProduceRuntimeFilter()) {
+        taskAssign.setProduceRuntimeFilter();
+      }
+      if (stage.hasAppliedRuntimeFilter()) {
+        if (appliedRuntimeFilterProto == null) {
+          appliedRuntimeFilterProto = stage.getAppliedRuntimeFilter().getProto();
+        }
+        taskAssign.addRuntimeFilter(appliedRuntimeFilterProto);
+      }
     }
 
     private boolean checkIfInterQuery(MasterPlan masterPlan, ExecutionBlock block) {
@@ -895,14 +973,11 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
               attemptId,
               Lists.newArrayList(task.getAllFragments()),
               "",
-              false,
-              LogicalNodeSerializer.serialize(task.getLogicalPlan()),
-              context.getMasterContext().getQueryContext(),
-              stage.getDataChannel(),
-              stage.getBlock().getEnforcer());
+              false);
           if (checkIfInterQuery(stage.getMasterPlan(), stage.getBlock())) {
             taskAssign.setInterQuery();
           }
+          setRuntimeFilters(taskAssign);
           for(Map.Entry<String, Set<FetchImpl>> entry: task.getFetchMap().entrySet()) {
             Collection<FetchImpl> fetches = entry.getValue();
             if (fetches != null) {
@@ -916,11 +991,21 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
               getWorkerConnectionInfo(taskRequest.getWorkerId());
           context.getMasterContext().getEventHandler().handle(new TaskAttemptAssignedEvent(attemptId,
               taskRequest.getContainerId(), connectionInfo));
-          taskRequest.getCallback().run(taskAssign.getProto());
           totalAssigned++;
           scheduledObjectNum--;
+          taskRequest.addAssignedTask(taskAssign.getProto());
+          if (canAssignMore(taskRequest, nonLeafTaskNum(), taskRequests.size())) {
+            taskRequests.addFirst(taskRequest);
+          } else {
+            taskRequest.respond();
+          }
+        } else {
+          taskRequests.addFirst(taskRequest);
+          break;
         }
       }
+
+      respondOrRequeue(taskRequests, DefaultTaskScheduler.this.taskRequests);
     }
   }
 }
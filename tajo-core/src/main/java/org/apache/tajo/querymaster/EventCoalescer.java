@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.querymaster;
+
+import com.google.common.collect.Maps;
+
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Coalesces the events of the same key when only the latest one matters, such as the status updates of a task
+ * attempt. At most one event of a key is dispatched at a time, and it applies the latest event of the key which
+ * arrives until it is handled. An event which arrives while the dispatched one is being handled is dispatched again.
+ */
+public class EventCoalescer<K, E> {
+  private final ConcurrentMap<K, E> latestEvents = Maps.newConcurrentMap();
+
+  /**
+   * Records an event as the latest one of its key.
+   *
+   * @return true if no event of the key is pending, so the caller must dispatch the event.
+   * Otherwise, the pending event will apply this event instead of itself.
+   */
+  public boolean offer(K key, E event) {
+    return latestEvents.put(key, event) == null;
+  }
+
+  /**
+   * Takes the latest event of a key. It must be called when a dispatched event starts to be handled.
+   *
+   * @return The latest event of the key, or the dispatched event if there is no pending event
+   */
+  public E poll(K key, E dispatched) {
+    E latest = latestEvents.remove(key);
+    return latest != null ? latest : dispatched;
+  }
+
+  /**
+   * @return The number of keys which have a pending event
+   */
+  public int size() {
+    return latestEvents.size();
+  }
+}
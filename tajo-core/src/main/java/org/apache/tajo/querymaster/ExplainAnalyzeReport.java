@@ -0,0 +1,255 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.querymaster;
+
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.engine.planner.global.DataChannel;
+import org.apache.tajo.engine.planner.physical.OperatorMetrics;
+import org.apache.tajo.ipc.TajoWorkerProtocol.ShuffleFileOutput;
+import org.apache.tajo.master.TaskState;
+import org.apache.tajo.plan.LogicalPlan;
+import org.apache.tajo.plan.joinorder.GreedyHeuristicJoinOrderAlgorithm;
+import org.apache.tajo.plan.logical.LogicalNode;
+import org.apache.tajo.querymaster.Task.IntermediateEntry;
+import org.apache.tajo.util.FileUtil;
+
+import java.util.*;
+
+/**
+ * Builds the output of EXPLAIN ANALYZE from a finished query. For each execution block, it shows the task
+ * statistics, the shuffle volumes, and the plan annotated with the actual rows and times of the operators
+ * next to the costs estimated by the optimizer.
+ */
+public class ExplainAnalyzeReport {
+  private static final String INDENT = "  ";
+
+  private final Query query;
+  /** the nodes of the logical plan, which have the table statistics used by the cost estimation */
+  private final Map<Integer, LogicalNode> logicalNodes = new HashMap<Integer, LogicalNode>();
+  private final StringBuilder sb = new StringBuilder();
+
+  public ExplainAnalyzeReport(Query query) {
+    this.query = query;
+    LogicalPlan logicalPlan = query.getPlan().getLogicalPlan();
+    for (LogicalPlan.QueryBlock block : logicalPlan.getQueryBlocks()) {
+      if (block.getRoot() != null) {
+        collectLogicalNodes(block.getRoot());
+      }
+    }
+  }
+
+  private void collectLogicalNodes(LogicalNode node) {
+    logicalNodes.put(node.getPID(), node);
+    for (int i = 0; i < node.childNum(); i++) {
+      if (node.getChild(i) != null) {
+        collectLogicalNodes(node.getChild(i));
+      }
+    }
+  }
+
+  public String build() {
+    sb.setLength(0);
+    long elapsed = System.currentTimeMillis() - query.getStartTime();
+    sb.append("Query ").append(query.getId()).append(" (elapsed: ").append(elapsed).append(" ms)\n");
+
+    List<Stage> stages = new ArrayList<Stage>(query.getStages());
+    Collections.sort(stages, new Comparator<Stage>() {
+      @Override
+      public int compare(Stage s1, Stage s2) {
+        return s1.getId().compareTo(s2.getId());
+      }
+    });
+    for (Stage stage : stages) {
+      sb.append("\n");
+      appendStage(stage);
+    }
+    return sb.toString();
+  }
+
+  private void appendStage(Stage stage) {
+    sb.append("Execution Block ").append(stage.getId()).append(" (").append(stage.getState()).append(")\n");
+    appendTasks(stage);
+    appendStats(stage);
+    appendShuffle(stage);
+
+    List<OperatorMetrics> metricsList = stage.getStageHistory().getOperatorMetrics();
+    Map<Integer, OperatorMetrics> nodeMetrics = new HashMap<Integer, OperatorMetrics>();
+    List<OperatorMetrics> unmatched = new ArrayList<OperatorMetrics>();
+    if (metricsList != null) {
+      for (OperatorMetrics metrics : metricsList) {
+        // the metrics are in pre-order, so the first one of a plan node is the top operator of the node
+        if (metrics.getPlanNodeId() < 0 || nodeMetrics.containsKey(metrics.getPlanNodeId())) {
+          unmatched.add(metrics);
+        } else {
+          nodeMetrics.put(metrics.getPlanNodeId(), metrics);
+        }
+      }
+    }
+
+    if (stage.getBlock().getPlan() != null) {
+      sb.append(INDENT).append("Plan:\n");
+      appendNode(stage.getBlock().getPlan(), nodeMetrics, 2);
+    }
+    if (!unmatched.isEmpty()) {
+      sb.append(INDENT).append("Other operators:\n");
+      for (OperatorMetrics metrics : unmatched) {
+        sb.append(INDENT).append(INDENT).append(metrics).append("\n");
+      }
+    }
+  }
+
+  private void appendTasks(Stage stage) {
+    List<Long> runningTimes = new ArrayList<Long>();
+    long totalTime = 0;
+    for (Task task : stage.getTasks()) {
+      if (task.getState() == TaskState.SUCCEEDED) {
+        runningTimes.add(task.getRunningTime());
+        totalTime += task.getRunningTime();
+      }
+    }
+    sb.append(INDENT).append("Tasks: ").append(stage.getTasks().length).append(" (succeeded: ")
+        .append(runningTimes.size()).append("), elapsed: ")
+        .append(Math.max(0, stage.getFinishTime() - stage.getStartTime())).append(" ms\n");
+
+    if (!runningTimes.isEmpty()) {
+      Collections.sort(runningTimes);
+      long min = runningTimes.get(0);
+      long median = runningTimes.get(runningTimes.size() / 2);
+      long max = runningTimes.get(runningTimes.size() - 1);
+      sb.append(INDENT).append("Task time: total ").append(totalTime).append(" ms, min ").append(min)
+          .append(" ms, median ").append(median).append(" ms, max ").append(max).append(" ms")
+          .append(", skew (max/median): ").append(ratio(max, median)).append("\n");
+    }
+  }
+
+  private void appendStats(Stage stage) {
+    TableStats inputStats = stage.getInputStats();
+    TableStats resultStats = stage.getResultStats();
+    if (inputStats != null) {
+      sb.append(INDENT).append("Input: ").append(rows(inputStats)).append(" rows, ")
+          .append(FileUtil.humanReadableByteCount(inputStats.getNumBytes(), false)).append("\n");
+    }
+    if (resultStats != null) {
+      sb.append(INDENT).append("Output: ").append(rows(resultStats)).append(" rows, ")
+          .append(FileUtil.humanReadableByteCount(resultStats.getNumBytes(), false)).append("\n");
+    }
+  }
+
+  private static long rows(TableStats stats) {
+    return stats.getNumRows() == null ? 0 : stats.getNumRows();
+  }
+
+  private void appendShuffle(Stage stage) {
+    DataChannel channel = stage.getDataChannel();
+    if (channel == null) {
+      return;
+    }
+
+    // the volumes of hash shuffles are reported by the workers at the end of a stage,
+    // and the others are reported by each task.
+    Map<Integer, Long> partitionVolumes = new TreeMap<Integer, Long>();
+    List<IntermediateEntry> entries = stage.getHashShuffleIntermediateEntries();
+    if (entries != null && !entries.isEmpty()) {
+      for (IntermediateEntry entry : entries) {
+        addVolume(partitionVolumes, entry.getPartId(), entry.getVolume());
+      }
+    } else {
+      for (Task task : stage.getTasks()) {
+        for (ShuffleFileOutput output : task.getShuffleFileOutputs()) {
+          addVolume(partitionVolumes, output.getPartId(), output.hasVolume() ? output.getVolume() : 0);
+        }
+      }
+    }
+    if (partitionVolumes.isEmpty()) {
+      return;
+    }
+
+    long total = 0;
+    long max = 0;
+    for (long volume : partitionVolumes.values()) {
+      total += volume;
+      max = Math.max(max, volume);
+    }
+    long average = total / partitionVolumes.size();
+    sb.append(INDENT).append("Shuffle: ").append(channel.getShuffleType()).append(" to ")
+        .append(channel.getTargetId()).append(", ").append(partitionVolumes.size()).append(" partitions, ")
+        .append(FileUtil.humanReadableByteCount(total, false)).append(", largest partition ")
+        .append(FileUtil.humanReadableByteCount(max, false)).append(", skew (max/avg): ")
+        .append(ratio(max, average)).append("\n");
+  }
+
+  private static void addVolume(Map<Integer, Long> volumes, int partId, long volume) {
+    Long current = volumes.get(partId);
+    volumes.put(partId, current == null ? volume : current + volume);
+  }
+
+  private void appendNode(LogicalNode node, Map<Integer, OperatorMetrics> nodeMetrics, int depth) {
+    for (int i = 0; i < depth; i++) {
+      sb.append(INDENT);
+    }
+    sb.append(node.getPlanString().getTitle());
+
+    sb.append(" (est. cost: ").append(estimateCost(node.getPID()));
+    OperatorMetrics metrics = nodeMetrics.get(node.getPID());
+    if (metrics != null) {
+      sb.append(", actual rows: ").append(metrics.getInputRows()).append(" -> ").append(metrics.getOutputRows())
+          .append(", wall: ").append(metrics.getWallTimeNanos() / 1000000).append(" ms")
+          .append(", cpu: ").append(metrics.getCpuTimeNanos() / 1000000).append(" ms")
+          // the first call includes building a hash table or sorting, so it is shown separately
+          .append(" (first call wall: ").append(metrics.getFirstCallWallTimeNanos() / 1000000).append(" ms")
+          .append(", cpu: ").append(metrics.getFirstCallCpuTimeNanos() / 1000000).append(" ms)");
+      if (metrics.getPeakMemory() > 0) {
+        sb.append(", peak memory: ").append(FileUtil.humanReadableByteCount(metrics.getPeakMemory(), false));
+      }
+      if (metrics.getSpilledBytes() > 0) {
+        sb.append(", spilled: ").append(FileUtil.humanReadableByteCount(metrics.getSpilledBytes(), false));
+      }
+      sb.append(", operator: ").append(metrics.getName());
+    }
+    sb.append(")\n");
+
+    for (int i = 0; i < node.childNum(); i++) {
+      if (node.getChild(i) != null) {
+        appendNode(node.getChild(i), nodeMetrics, depth + 1);
+      }
+    }
+  }
+
+  private String estimateCost(int pid) {
+    LogicalNode node = logicalNodes.get(pid);
+    if (node == null) {
+      return "-"; // a node added by the global planner, such as a scan of intermediate data
+    }
+    try {
+      double cost = GreedyHeuristicJoinOrderAlgorithm.getCost(node);
+      return cost >= Long.MAX_VALUE ? "unknown" : String.valueOf((long) cost);
+    } catch (RuntimeException e) {
+      // the cost model does not support some operators yet
+      return "-";
+    }
+  }
+
+  private static String ratio(long value, long base) {
+    if (base <= 0) {
+      return "-";
+    }
+    return String.format("%.2f", (double) value / base);
+  }
+}
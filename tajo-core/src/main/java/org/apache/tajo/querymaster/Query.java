@@ -32,13 +32,19 @@ import org.apache.tajo.ExecutionBlockId;
 import org.apache.tajo.QueryId;
 import org.apache.tajo.SessionVars;
 import org.apache.tajo.TajoProtos.QueryState;
+import org.apache.tajo.catalog.proto.CatalogProtos.PartitionDescProto;
+import org.apache.tajo.catalog.proto.CatalogProtos.PartitionType;
 import org.apache.tajo.catalog.proto.CatalogProtos.UpdateTableStatsProto;
 import org.apache.tajo.catalog.CatalogService;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.CatalogUtil;
 import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.catalog.TableMeta;
 import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
 import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.common.TajoDataTypes.Type;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.engine.planner.global.ExecutionBlock;
 import org.apache.tajo.engine.planner.global.ExecutionBlockCursor;
 import org.apache.tajo.engine.planner.global.MasterPlan;
@@ -46,8 +52,12 @@ import org.apache.tajo.plan.logical.*;
 import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.master.event.*;
 import org.apache.tajo.plan.util.PlannerUtil;
+import org.apache.tajo.storage.Appender;
+import org.apache.tajo.storage.FileStorageManager;
 import org.apache.tajo.storage.StorageManager;
 import org.apache.tajo.storage.StorageConstants;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
 import org.apache.tajo.util.TUtil;
 import org.apache.tajo.util.history.QueryHistory;
 import org.apache.tajo.util.history.StageHistory;
@@ -472,6 +482,7 @@ public class Query implements EventHandler<QueryEvent> {
         hookList.add(new MaterializedResultHook());
         hookList.add(new CreateTableHook());
         hookList.add(new InsertTableHook());
+        hookList.add(new ExplainAnalyzeHook());
       }
 
       public void execute(QueryContext queryContext, Query query,
@@ -539,6 +550,11 @@ public class Query implements EventHandler<QueryEvent> {
 
         CreateTableNode createTableNode = (CreateTableNode) lastStage.getBlock().getPlan();
         TableMeta meta = new TableMeta(createTableNode.getStorageType(), createTableNode.getOptions());
+        if (createTableNode.hasPartition()
+            && createTableNode.getPartitionMethod().getPartitionType() == PartitionType.COLUMN) {
+          // all partitions of the new table are registered below
+          meta.putOption(StorageConstants.PARTITIONS_REGISTERED, "true");
+        }
 
         TableDesc tableDescTobeCreated =
             new TableDesc(
@@ -557,6 +573,7 @@ public class Query implements EventHandler<QueryEvent> {
         query.setResultDesc(tableDescTobeCreated);
 
         catalog.createTable(tableDescTobeCreated);
+        registerPartitions(catalog, tableDescTobeCreated, lastStage.getWrittenPartitions());
       }
     }
 
@@ -600,11 +617,83 @@ public class Query implements EventHandler<QueryEvent> {
           builder.setStats(stats.getProto());
 
           catalog.updateTableStats(builder.build());
+          registerPartitions(catalog, finalTable, lastStage.getWrittenPartitions());
         }
 
         query.setResultDesc(finalTable);
       }
     }
+
+    /**
+     * Replaces the result of EXPLAIN ANALYZE with the report of the executed query.
+     * It must be the last hook because the query has to be completely finished.
+     */
+    private class ExplainAnalyzeHook implements QueryHook {
+
+      @Override
+      public boolean isEligible(QueryContext queryContext, Query query, ExecutionBlockId finalExecBlockId,
+                                Path finalOutputDir) {
+        return queryContext.isExplainAnalyze();
+      }
+
+      @Override
+      public void execute(QueryMaster.QueryMasterContext context, QueryContext queryContext,
+                          Query query, ExecutionBlockId finalExecBlockId, Path finalOutputDir)
+          throws Exception {
+        Schema schema = new Schema();
+        schema.addColumn("explain", Type.TEXT);
+        TableMeta meta = CatalogUtil.newTableMeta(StoreType.CSV);
+        // a report line may contain commas, which must not be split into columns
+        meta.putOption(StorageConstants.TEXT_DELIMITER, "\u0001");
+
+        Path reportDir = new Path(queryContext.getStagingDir(), "EXPLAIN_ANALYZE");
+        Appender appender = ((FileStorageManager) StorageManager.getFileStorageManager(query.systemConf))
+            .getAppender(meta, schema, new Path(reportDir, "report"));
+        appender.enableStats();
+        appender.init();
+        try {
+          String report = new ExplainAnalyzeReport(query).build();
+          for (String line : report.split("\n")) {
+            Tuple tuple = new VTuple(1);
+            tuple.put(0, DatumFactory.createText(line));
+            appender.addTuple(tuple);
+          }
+        } finally {
+          appender.close();
+        }
+
+        TableDesc reportDesc = new TableDesc(query.getId().toString(), schema, meta, reportDir.toUri());
+        reportDesc.setExternal(true);
+        reportDesc.setStats(appender.getStats());
+        query.setResultDesc(reportDesc);
+      }
+    }
+  }
+
+  /**
+   * Registers the column partitions written by a query into the catalog.
+   * Partitions which are already registered are left as they are.
+   */
+  private static void registerPartitions(CatalogService catalog, TableDesc table, Collection<String> partitionNames) {
+    if (!table.hasPartition() || table.getPartitionMethod().getPartitionType() != PartitionType.COLUMN
+        || partitionNames.isEmpty()) {
+      return;
+    }
+
+    Path tablePath = new Path(table.getPath());
+    List<PartitionDescProto> partitions = new ArrayList<PartitionDescProto>(partitionNames.size());
+    for (String partitionName : partitionNames) {
+      PartitionDescProto.Builder builder = PartitionDescProto.newBuilder();
+      builder.setPartitionName(partitionName);
+      builder.setOrdinalPosition(0);
+      builder.setPath(new Path(tablePath, partitionName).toString());
+      partitions.add(builder.build());
+    }
+
+    String [] split = CatalogUtil.splitFQTableName(table.getName());
+    if (!catalog.addPartitions(split[0], split[1], partitions)) {
+      LOG.warn("Failed to register " + partitions.size() + " partitions of " + table.getName() + " into the catalog");
+    }
   }
 
   public static long getTableVolume(TajoConf systemConf, Path tablePath) throws IOException {
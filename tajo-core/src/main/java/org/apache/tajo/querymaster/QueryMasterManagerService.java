@@ -34,6 +34,7 @@ import org.apache.tajo.master.container.TajoContainerId;
 import org.apache.tajo.master.event.*;
 import org.apache.tajo.session.Session;
 import org.apache.tajo.rpc.AsyncRpcServer;
+import org.apache.tajo.rpc.RpcWriteStats;
 import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos;
 import org.apache.tajo.util.NetUtils;
 import org.apache.tajo.worker.TajoWorker;
@@ -63,6 +64,10 @@ public class QueryMasterManagerService extends CompositeService
     return queryMaster;
   }
 
+  public RpcWriteStats getRpcWriteStats() {
+    return rpcServer != null ? rpcServer.getWriteStats() : null;
+  }
+
   @Override
   public void init(Configuration conf) {
     Preconditions.checkArgument(conf instanceof TajoConf);
@@ -121,24 +126,50 @@ public class QueryMasterManagerService extends CompositeService
 
   @Override
   public void getTask(RpcController controller, TajoWorkerProtocol.GetTaskRequestProto request,
-                      RpcCallback<TajoWorkerProtocol.TaskRequestProto> done) {
+                      RpcCallback<TajoWorkerProtocol.TaskRequestsProto> done) {
     try {
       ExecutionBlockId ebId = new ExecutionBlockId(request.getExecutionBlockId());
       QueryMasterTask queryMasterTask = workerContext.getQueryMaster().getQueryMasterTask(ebId.getQueryId());
 
       if(queryMasterTask == null || queryMasterTask.isStopped()) {
-        done.run(DefaultTaskScheduler.stopTaskRunnerReq);
+        done.run(TajoWorkerProtocol.TaskRequestsProto.newBuilder()
+            .addTaskRequests(DefaultTaskScheduler.stopTaskRunnerReq).build());
       } else {
         TajoContainerId cid =
             queryMasterTask.getQueryTaskContext().getResourceAllocator().makeContainerId(request.getContainerId());
         LOG.debug("getTask:" + cid + ", ebId:" + ebId);
-        queryMasterTask.handleTaskRequestEvent(new TaskRequestEvent(request.getWorkerId(), cid, ebId, done));
+        queryMasterTask.handleTaskRequestEvent(
+            new TaskRequestEvent(request.getWorkerId(), cid, ebId, request.getMaxTaskNum(), done));
       }
     } catch (Exception e) {
       LOG.error(e.getMessage(), e);
     }
   }
 
+  @Override
+  public void getExecutionBlockPlan(RpcController controller, TajoIdProtos.ExecutionBlockIdProto request,
+                                    RpcCallback<TajoWorkerProtocol.ExecutionBlockPlanProto> done) {
+    ExecutionBlockId ebId = new ExecutionBlockId(request);
+    try {
+      QueryMasterTask queryMasterTask = workerContext.getQueryMaster().getQueryMasterTask(ebId.getQueryId());
+      Stage stage = null;
+      if (queryMasterTask != null && !queryMasterTask.isStopped() && queryMasterTask.getQuery() != null) {
+        stage = queryMasterTask.getQuery().getStage(ebId);
+      }
+
+      if (stage == null) {
+        controller.setFailed("No running execution block: " + ebId);
+        done.run(null);
+      } else {
+        done.run(stage.getBlockPlanProto());
+      }
+    } catch (Throwable t) {
+      LOG.error(t.getMessage(), t);
+      controller.setFailed(t.getMessage());
+      done.run(null);
+    }
+  }
+
   @Override
   public void statusUpdate(RpcController controller, TajoWorkerProtocol.TaskStatusProto request,
                            RpcCallback<PrimitiveProtos.BoolProto> done) {
@@ -162,7 +193,7 @@ public class QueryMasterManagerService extends CompositeService
         attempt.handle(
             new TaskAttemptEvent(new TaskAttemptId(request.getId()), TaskAttemptEventType.TA_LOCAL_KILLED));
       } else {
-        queryMasterTask.getEventHandler().handle(
+        queryMasterTask.handleTaskStatusUpdate(
             new TaskAttemptStatusUpdateEvent(new TaskAttemptId(request.getId()), request));
       }
       done.run(TajoWorker.TRUE_PROTO);
@@ -18,6 +18,7 @@
 
 package org.apache.tajo.querymaster;
 
+import com.codahale.metrics.Gauge;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
@@ -29,6 +30,7 @@ import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.hadoop.service.CompositeService;
 import org.apache.hadoop.util.StringUtils;
 import org.apache.hadoop.yarn.event.AsyncDispatcher;
+import org.apache.hadoop.yarn.event.Event;
 import org.apache.hadoop.yarn.event.EventHandler;
 import org.apache.hadoop.yarn.util.Clock;
 import org.apache.tajo.*;
@@ -96,6 +98,13 @@ public class QueryMasterTask extends CompositeService {
 
   private AsyncDispatcher dispatcher;
 
+  // handles the task and task attempt events, which are sharded by tasks
+  private StripedEventDispatcher taskEventDispatcher;
+
+  // the latest status update of each task attempt, which is not handled yet
+  private final EventCoalescer<TaskAttemptId, TaskAttemptStatusUpdateEvent> statusUpdates =
+      new EventCoalescer<TaskAttemptId, TaskAttemptStatusUpdateEvent>();
+
   private final long querySubmitTime;
 
   private Map<String, TableDesc> tableDescMap = new HashMap<String, TableDesc>();
@@ -145,9 +154,14 @@ public class QueryMasterTask extends CompositeService {
       dispatcher = new AsyncDispatcher();
       addService(dispatcher);
 
+      taskEventDispatcher = new StripedEventDispatcher(queryId.toString(),
+          systemConf.getIntVar(TajoConf.ConfVars.QUERYMASTER_TASK_EVENT_DISPATCHER_NUM), new TaskEventHandler());
+      addService(taskEventDispatcher);
+
+      EventHandler taskEventRouter = new TaskEventRouter(dispatcher.getEventHandler());
       dispatcher.register(StageEventType.class, new StageEventDispatcher());
-      dispatcher.register(TaskEventType.class, new TaskEventDispatcher());
-      dispatcher.register(TaskAttemptEventType.class, new TaskAttemptEventDispatcher());
+      dispatcher.register(TaskEventType.class, taskEventRouter);
+      dispatcher.register(TaskAttemptEventType.class, taskEventRouter);
       dispatcher.register(QueryMasterQueryCompletedEvent.EventType.class, new QueryFinishEventHandler());
       dispatcher.register(TaskSchedulerEvent.EventType.class, new TaskSchedulerDispatcher());
       dispatcher.register(LocalTaskEventType.class, new LocalTaskEventHandler());
@@ -155,6 +169,19 @@ public class QueryMasterTask extends CompositeService {
       initStagingDir();
 
       queryMetrics = new TajoMetrics(queryId.toString());
+      queryMetrics.register("events", "task-event-queue-depth", new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+          return taskEventDispatcher.getQueueDepth();
+        }
+      });
+      queryMetrics.register("events", "pending-status-updates", new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+          return statusUpdates.size();
+        }
+      });
+      taskEventDispatcher.setLatencyHistogram(queryMetrics.histogram("events", "task-event-latency-micros"));
 
       super.init(systemConf);
     } catch (Throwable t) {
@@ -211,6 +238,16 @@ public class QueryMasterTask extends CompositeService {
     getEventHandler().handle(new TaskFatalErrorEvent(report));
   }
 
+  /**
+   * Only the latest status of a task attempt matters. So, an attempt has at most one status update in the queue,
+   * and the queued update applies the latest status which arrives until it is handled.
+   */
+  public void handleTaskStatusUpdate(TaskAttemptStatusUpdateEvent event) {
+    if (statusUpdates.offer(event.getTaskAttemptId(), event)) {
+      getEventHandler().handle(event);
+    }
+  }
+
   public Collection<TajoWorkerProtocol.TaskFatalErrorReport> getDiagnostics() {
     synchronized(diagnostics) {
       return Collections.unmodifiableCollection(diagnostics);
@@ -223,7 +260,13 @@ public class QueryMasterTask extends CompositeService {
       if(LOG.isDebugEnabled()) {
         LOG.debug("StageEventDispatcher:" + id + "," + event.getType());
       }
-      query.getStage(id).handle(event);
+      Stage stage = query.getStage(id);
+      if (event instanceof StageTaskEvent) {
+        // the first one of the task completions queued by TaskEventRouter
+        stage.handleTaskCompletions();
+      } else {
+        stage.handle(event);
+      }
     }
   }
 
@@ -244,6 +287,9 @@ public class QueryMasterTask extends CompositeService {
       implements EventHandler<TaskAttemptEvent> {
     public void handle(TaskAttemptEvent event) {
       TaskAttemptId attemptId = event.getTaskAttemptId();
+      if (event instanceof TaskAttemptStatusUpdateEvent) {
+        event = statusUpdates.poll(attemptId, (TaskAttemptStatusUpdateEvent) event);
+      }
       Stage stage = query.getStage(attemptId.getTaskId().getExecutionBlockId());
       Task task = stage.getTask(attemptId.getTaskId());
       TaskAttempt attempt = task.getAttempt(attemptId);
@@ -251,6 +297,53 @@ public class QueryMasterTask extends CompositeService {
     }
   }
 
+  /**
+   * Handles the events of the stripes of the task event dispatcher.
+   */
+  private class TaskEventHandler implements EventHandler<Event> {
+    private final TaskEventDispatcher taskEventHandler = new TaskEventDispatcher();
+    private final TaskAttemptEventDispatcher attemptEventHandler = new TaskAttemptEventDispatcher();
+
+    @Override
+    public void handle(Event event) {
+      if (event instanceof TaskEvent) {
+        taskEventHandler.handle((TaskEvent) event);
+      } else {
+        attemptEventHandler.handle((TaskAttemptEvent) event);
+      }
+    }
+  }
+
+  /**
+   * Routes the task and task attempt events to the stripe of their task, and the other events to the query-wide
+   * dispatcher. Since the events of a task and its attempts are in the same stripe, they are handled in order,
+   * while the tasks of a stage are handled in parallel. The completions of tasks are queued in their stage,
+   * and only the first one of those queued together is dispatched, so that the stage handles them in a batch.
+   */
+  private class TaskEventRouter implements EventHandler<Event> {
+    private final EventHandler<Event> queryEventHandler;
+
+    TaskEventRouter(EventHandler<Event> queryEventHandler) {
+      this.queryEventHandler = queryEventHandler;
+    }
+
+    @Override
+    public void handle(Event event) {
+      if (event instanceof TaskEvent) {
+        taskEventDispatcher.dispatch(((TaskEvent) event).getTaskId(), event);
+      } else if (event instanceof TaskAttemptEvent) {
+        taskEventDispatcher.dispatch(((TaskAttemptEvent) event).getTaskAttemptId().getTaskId(), event);
+      } else if (event instanceof StageTaskEvent) {
+        StageTaskEvent completion = (StageTaskEvent) event;
+        if (query.getStage(completion.getStageId()).queueTaskCompletion(completion)) {
+          queryEventHandler.handle(event);
+        }
+      } else {
+        queryEventHandler.handle(event);
+      }
+    }
+  }
+
   private class TaskSchedulerDispatcher
       implements EventHandler<TaskSchedulerEvent> {
     public void handle(TaskSchedulerEvent event) {
@@ -308,7 +401,7 @@ public class QueryMasterTask extends CompositeService {
       }
       CatalogService catalog = getQueryTaskContext().getQueryMasterContext().getWorkerContext().getCatalog();
       LogicalPlanner planner = new LogicalPlanner(catalog);
-      LogicalOptimizer optimizer = new LogicalOptimizer(systemConf);
+      LogicalOptimizer optimizer = new LogicalOptimizer(systemConf, catalog);
       Expr expr = JsonHelper.fromJson(jsonExpr, Expr.class);
       jsonExpr = null; // remove the possible OOM
       plan = planner.createPlan(queryContext, expr);
@@ -562,7 +655,7 @@ public class QueryMasterTask extends CompositeService {
 
     public synchronized EventHandler getEventHandler() {
       if(eventHandler == null) {
-        eventHandler = dispatcher.getEventHandler();
+        eventHandler = new TaskEventRouter(dispatcher.getEventHandler());
       }
       return eventHandler;
     }
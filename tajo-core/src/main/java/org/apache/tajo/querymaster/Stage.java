@@ -30,24 +30,29 @@ import org.apache.hadoop.yarn.event.EventHandler;
 import org.apache.hadoop.yarn.state.*;
 import org.apache.hadoop.yarn.util.Records;
 import org.apache.tajo.*;
+import org.apache.tajo.algebra.JoinType;
+import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.CatalogUtil;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.OperatorMetricsProto;
 import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
 import org.apache.tajo.catalog.statistics.ColumnStats;
 import org.apache.tajo.catalog.statistics.StatisticsUtil;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.conf.TajoConf;
-import org.apache.tajo.engine.json.CoreGsonHelper;
 import org.apache.tajo.engine.planner.PhysicalPlannerImpl;
 import org.apache.tajo.engine.planner.enforce.Enforcer;
 import org.apache.tajo.engine.planner.global.DataChannel;
 import org.apache.tajo.engine.planner.global.ExecutionBlock;
 import org.apache.tajo.engine.planner.global.MasterPlan;
+import org.apache.tajo.engine.planner.physical.OperatorMetrics;
+import org.apache.tajo.engine.planner.physical.RuntimeFilter;
 import org.apache.tajo.ipc.TajoWorkerProtocol;
 import org.apache.tajo.ipc.TajoWorkerProtocol.DistinctGroupbyEnforcer.MultipleAggregationStage;
 import org.apache.tajo.ipc.TajoWorkerProtocol.EnforceProperty;
+import org.apache.tajo.ipc.TajoWorkerProtocol.ExecutionBlockPlanProto;
 import org.apache.tajo.ipc.TajoWorkerProtocol.IntermediateEntryProto;
 import org.apache.tajo.master.LaunchTaskRunnersEvent;
 import org.apache.tajo.master.TaskRunnerGroupEvent;
@@ -58,6 +63,7 @@ import org.apache.tajo.master.container.TajoContainerId;
 import org.apache.tajo.master.event.*;
 import org.apache.tajo.master.event.TaskAttemptToSchedulerEvent.TaskAttemptScheduleContext;
 import org.apache.tajo.plan.logical.*;
+import org.apache.tajo.plan.serder.LogicalNodeSerializer;
 import org.apache.tajo.plan.util.PlannerUtil;
 import org.apache.tajo.querymaster.Task.IntermediateEntry;
 import org.apache.tajo.storage.FileStorageManager;
@@ -72,6 +78,7 @@ import org.apache.tajo.worker.FetchImpl;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
@@ -308,9 +315,22 @@ public class Stage implements EventHandler<StageEvent> {
   private TaskSchedulerContext schedulerContext;
   private List<IntermediateEntry> hashShuffleIntermediateEntries = Lists.newArrayList();
   private AtomicInteger completedShuffleTasks = new AtomicInteger(0);
+  /** the completions of tasks which are not handled yet. They are handled in a batch under a single lock. */
+  private final Queue<StageTaskEvent> pendingTaskCompletions = new ConcurrentLinkedQueue<StageTaskEvent>();
+  private final AtomicInteger pendingTaskCompletionNum = new AtomicInteger(0);
   private AtomicBoolean stopShuffleReceiver = new AtomicBoolean();
   private StageHistory finalStageHistory;
 
+  /** If true, each task builds a runtime join filter from its shuffle keys. */
+  private boolean produceRuntimeFilter = false;
+  /** a runtime join filter merged from the filters of all succeeded tasks */
+  private RuntimeFilter runtimeFilter;
+  private boolean runtimeFilterInvalid = false;
+  /** a runtime join filter, built by the sibling stage, which is applied to the scan of this stage */
+  private RuntimeFilter appliedRuntimeFilter;
+  /** the plan shared by all tasks, which is serialized lazily */
+  private ExecutionBlockPlanProto blockPlanProto;
+
   public Stage(QueryMasterTask.QueryMasterTaskContext context, MasterPlan masterPlan, ExecutionBlock block) {
     this.context = context;
     this.masterPlan = masterPlan;
@@ -340,6 +360,25 @@ public class Stage implements EventHandler<StageEvent> {
     return masterPlan.getOutgoingChannels(getId()).iterator().next();
   }
 
+  /**
+   * @return The plan, the query context, and the enforcer shared by all tasks of this stage.
+   * It is serialized only once, and each worker fetches it once when the stage starts on the worker.
+   */
+  public synchronized ExecutionBlockPlanProto getBlockPlanProto() {
+    if (blockPlanProto == null) {
+      ExecutionBlockPlanProto.Builder builder = ExecutionBlockPlanProto.newBuilder()
+          .setPlan(LogicalNodeSerializer.serialize(block.getPlan()))
+          .setQueryContext(context.getQueryContext().getProto())
+          .setEnforcer(block.getEnforcer().getProto());
+      List<DataChannel> channels = masterPlan.getOutgoingChannels(getId());
+      if (channels != null && !channels.isEmpty()) {
+        builder.setDataChannel(channels.get(0).getProto());
+      }
+      blockPlanProto = builder.build();
+    }
+    return blockPlanProto;
+  }
+
   public EventHandler<Event> getEventHandler() {
     return eventHandler;
   }
@@ -489,9 +528,29 @@ public class Stage implements EventHandler<StageEvent> {
     stageHistory.setTotalWriteRows(totalWriteRows);
     stageHistory.setNumShuffles(numShuffles);
     stageHistory.setProgress(getProgress());
+    stageHistory.setOperatorMetrics(aggregateOperatorMetrics());
     return stageHistory;
   }
 
+  /**
+   * Combines the operator metrics of the succeeded tasks by the operator, in the order of the plan.
+   */
+  private List<OperatorMetrics> aggregateOperatorMetrics() {
+    Map<String, OperatorMetrics> aggregated = new LinkedHashMap<String, OperatorMetrics>();
+    for (Task eachTask : getTasks()) {
+      for (OperatorMetricsProto proto : eachTask.getOperatorMetrics()) {
+        OperatorMetrics metrics = new OperatorMetrics(proto);
+        OperatorMetrics found = aggregated.get(metrics.getKey());
+        if (found == null) {
+          aggregated.put(metrics.getKey(), metrics);
+        } else {
+          found.merge(metrics);
+        }
+      }
+    }
+    return new ArrayList<OperatorMetrics>(aggregated.values());
+  }
+
   /**
    * It finalizes this stage. It is only invoked when the stage is finalizing.
    */
@@ -504,6 +563,7 @@ public class Stage implements EventHandler<StageEvent> {
    */
   public void complete() {
     finalizeStats();
+    finalizeRuntimeFilter();
     setFinishTime();
     eventHandler.handle(new StageCompletedEvent(getId(), StageState.SUCCEEDED));
   }
@@ -546,6 +606,17 @@ public class Stage implements EventHandler<StageEvent> {
     return tasks.values().toArray(new Task[tasks.size()]);
   }
   
+  /**
+   * @return The names of the column partitions which are written by the tasks of this stage
+   */
+  public Set<String> getWrittenPartitions() {
+    Set<String> partitions = new TreeSet<String>();
+    for (Task task : getTasks()) {
+      partitions.addAll(task.getWrittenPartitions());
+    }
+    return partitions;
+  }
+
   public Task getTask(TaskId qid) {
     return tasks.get(qid);
   }
@@ -558,6 +629,59 @@ public class Stage implements EventHandler<StageEvent> {
     return meta;
   }
 
+  public boolean isProduceRuntimeFilter() {
+    return produceRuntimeFilter;
+  }
+
+  /**
+   * @return A runtime join filter over the shuffle keys of this stage's output. It is null if this stage
+   * did not produce a filter or the filter is not selective enough.
+   */
+  public RuntimeFilter getRuntimeFilter() {
+    return runtimeFilter;
+  }
+
+  public boolean hasAppliedRuntimeFilter() {
+    return appliedRuntimeFilter != null;
+  }
+
+  public RuntimeFilter getAppliedRuntimeFilter() {
+    return appliedRuntimeFilter;
+  }
+
+  private void mergeRuntimeFilter(Task task) {
+    if (runtimeFilterInvalid) {
+      return;
+    }
+    if (!task.hasRuntimeFilter()) {
+      // Without the keys of a task, the merged filter would drop rows which can be matched.
+      runtimeFilterInvalid = true;
+      runtimeFilter = null;
+      return;
+    }
+
+    RuntimeFilter taskFilter = new RuntimeFilter(task.getRuntimeFilter());
+    if (runtimeFilter == null) {
+      runtimeFilter = taskFilter;
+    } else {
+      runtimeFilter.merge(taskFilter);
+    }
+    // the filter is not necessary any more after being merged
+    task.setRuntimeFilter(null);
+  }
+
+  private void finalizeRuntimeFilter() {
+    if (!produceRuntimeFilter) {
+      return;
+    }
+    if (runtimeFilterInvalid || runtimeFilter == null || !runtimeFilter.isSelective()) {
+      LOG.info(getId() + ", a runtime join filter is discarded because it is incomplete or not selective");
+      runtimeFilter = null;
+    } else {
+      LOG.info(getId() + " produced " + runtimeFilter);
+    }
+  }
+
   public TableStats getResultStats() {
     return resultStatistics;
   }
@@ -719,36 +843,76 @@ public class Stage implements EventHandler<StageEvent> {
   @Override
   public void handle(StageEvent event) {
     lastContactTime = System.currentTimeMillis();
+    try {
+      writeLock.lock();
+      doTransition(event);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Queues the completion of a task, which is handled by {@link #handleTaskCompletions()}.
+   *
+   * @return true if no other completion is pending, so the caller must schedule {@link #handleTaskCompletions()}.
+   * Otherwise, the scheduled one will handle this completion too.
+   */
+  public boolean queueTaskCompletion(StageTaskEvent event) {
+    pendingTaskCompletions.add(event);
+    return pendingTaskCompletionNum.getAndIncrement() == 0;
+  }
+
+  /**
+   * Handles the queued completions of tasks in a batch under a single lock,
+   * including the completions which are queued while handling them.
+   */
+  public void handleTaskCompletions() {
+    lastContactTime = System.currentTimeMillis();
+    int handled = 0;
+    try {
+      writeLock.lock();
+      do {
+        // a completion is queued before it is counted, so it is always available here
+        doTransition(pendingTaskCompletions.poll());
+        handled++;
+      } while (pendingTaskCompletionNum.decrementAndGet() > 0);
+    } finally {
+      writeLock.unlock();
+    }
+    if (LOG.isDebugEnabled()) {
+      LOG.debug(getId() + " handled " + handled + " task completions in a batch");
+    }
+  }
+
+  /**
+   * Applies an event to the state machine. The write lock must be held.
+   */
+  private void doTransition(StageEvent event) {
     if (LOG.isDebugEnabled()) {
       LOG.debug("Processing " + event.getStageId() + " of type " + event.getType() + ", preState="
           + getSynchronizedState());
     }
 
+    StageState oldState = getSynchronizedState();
     try {
-      writeLock.lock();
-      StageState oldState = getSynchronizedState();
-      try {
-        getStateMachine().doTransition(event.getType(), event);
-        stageState = getSynchronizedState();
-      } catch (InvalidStateTransitonException e) {
-        LOG.error("Can't handle this event at current state"
-            + ", eventType:" + event.getType().name()
-            + ", oldState:" + oldState.name()
-            + ", nextState:" + getSynchronizedState().name()
-            , e);
-        eventHandler.handle(new StageEvent(getId(),
-            StageEventType.SQ_INTERNAL_ERROR));
-      }
+      getStateMachine().doTransition(event.getType(), event);
+      stageState = getSynchronizedState();
+    } catch (InvalidStateTransitonException e) {
+      LOG.error("Can't handle this event at current state"
+          + ", eventType:" + event.getType().name()
+          + ", oldState:" + oldState.name()
+          + ", nextState:" + getSynchronizedState().name()
+          , e);
+      eventHandler.handle(new StageEvent(getId(),
+          StageEventType.SQ_INTERNAL_ERROR));
+    }
 
-      // notify the eventhandler of state change
-      if (LOG.isDebugEnabled()) {
-        if (oldState != getSynchronizedState()) {
-          LOG.debug(getId() + " Stage Transitioned from " + oldState + " to "
-              + getSynchronizedState());
-        }
+    // notify the eventhandler of state change
+    if (LOG.isDebugEnabled()) {
+      if (oldState != getSynchronizedState()) {
+        LOG.debug(getId() + " Stage Transitioned from " + oldState + " to "
+            + getSynchronizedState());
       }
-    } finally {
-      writeLock.unlock();
     }
   }
 
@@ -774,6 +938,7 @@ public class Stage implements EventHandler<StageEvent> {
           ExecutionBlock parent = stage.getMasterPlan().getParent(stage.getBlock());
           DataChannel channel = stage.getMasterPlan().getChannel(stage.getId(), parent.getId());
           setShuffleIfNecessary(stage, channel);
+          initRuntimeFilter(stage, parent, channel);
           initTaskScheduler(stage);
           // execute pre-processing asyncronously
           stage.getContext().getQueryMasterContext().getEventExecutor()
@@ -818,6 +983,65 @@ public class Stage implements EventHandler<StageEvent> {
       return state;
     }
 
+    /**
+     * Decides whether this stage produces or consumes a runtime join filter. If the parent block is
+     * an inner equi-join of two hash-shuffled blocks, the stage which runs first builds a Bloom filter over
+     * its shuffle keys. If this stage runs after its sibling, it applies the sibling's filter to its scan.
+     */
+    private static void initRuntimeFilter(Stage stage, ExecutionBlock parent, DataChannel channel) {
+      MasterPlan masterPlan = stage.getMasterPlan();
+      if (!stage.getContext().getQueryContext().getBool(SessionVars.RUNTIME_FILTER_ENABLED)
+          || channel.getShuffleType() != ShuffleType.HASH_SHUFFLE || !channel.hasShuffleKeys()
+          || parent.getPlan() == null || parent.getScanNodes().length != 2 || parent.hasUnion()
+          || !parent.getBroadcastTables().isEmpty() || !parent.getUnionScanMap().isEmpty()) {
+        return;
+      }
+
+      LogicalNode [] joinNodes = PlannerUtil.findAllNodes(parent.getPlan(), NodeType.JOIN);
+      if (joinNodes.length != 1 || ((JoinNode) joinNodes[0]).getJoinType() != JoinType.INNER) {
+        return;
+      }
+
+      List<ExecutionBlock> children = masterPlan.getChilds(parent);
+      if (children.size() != 2) {
+        return;
+      }
+      ExecutionBlock sibling = children.get(0).getId().equals(stage.getId()) ? children.get(1) : children.get(0);
+      DataChannel siblingChannel = masterPlan.getChannel(sibling.getId(), parent.getId());
+      if (siblingChannel.getShuffleType() != ShuffleType.HASH_SHUFFLE || !siblingChannel.hasShuffleKeys()
+          || siblingChannel.getShuffleKeys().length != channel.getShuffleKeys().length) {
+        return;
+      }
+
+      Column [] keys = channel.getShuffleKeys();
+      Column [] siblingKeys = siblingChannel.getShuffleKeys();
+      for (int i = 0; i < keys.length; i++) {
+        if (!keys[i].getDataType().equals(siblingKeys[i].getDataType())
+            || !RuntimeFilter.isSupportedType(keys[i].getDataType().getType())) {
+          return;
+        }
+      }
+
+      Stage siblingStage = stage.getContext().getStage(sibling.getId());
+      if (siblingStage == null) {
+        stage.produceRuntimeFilter = true;
+      } else if (siblingStage.getSynchronizedState() == StageState.SUCCEEDED && siblingStage.getRuntimeFilter() != null
+          && isRuntimeFilterApplicable(stage)) {
+        stage.appliedRuntimeFilter = siblingStage.getRuntimeFilter().withKeys(keys);
+        LOG.info(stage.getId() + " applies " + stage.appliedRuntimeFilter + " from " + sibling.getId());
+      }
+    }
+
+    /**
+     * A runtime filter is pushed into the scan. It is only safe if the scan is the only operator of this stage.
+     */
+    private static boolean isRuntimeFilterApplicable(Stage stage) {
+      ExecutionBlock execBlock = stage.getBlock();
+      LogicalNode plan = execBlock.getPlan();
+      return stage.getMasterPlan().isLeaf(execBlock) && execBlock.getScanNodes().length == 1 && plan != null
+          && (plan.getType() == NodeType.SCAN || plan.getType() == NodeType.PARTITIONS_SCAN);
+    }
+
     private void initTaskScheduler(Stage stage) throws IOException {
       TajoConf conf = stage.context.getConf();
       stage.schedulerContext = new TaskSchedulerContext(stage.context,
@@ -1073,6 +1297,12 @@ public class Stage implements EventHandler<StageEvent> {
         fragments = storageManager.getSplits(scan.getCanonicalName(), table, scan);
       }
 
+      // pack small files into combined fragments, so that each task reads enough data
+      long combineSize = stage.getContext().getQueryContext().getLong(SessionVars.SCAN_COMBINE_SIZE) * 1024 * 1024;
+      if (combineSize > 0 && !scan.isBroadcastTable()) {
+        fragments = FileStorageManager.combineSplits(new ArrayList<Fragment>(fragments), combineSize);
+      }
+
       Stage.scheduleFragments(stage, fragments);
       if (stage.getTaskScheduler() instanceof DefaultTaskScheduler) {
         //Leaf task of DefaultTaskScheduler should be fragment size
@@ -1150,10 +1380,7 @@ public class Stage implements EventHandler<StageEvent> {
         }
         LOG.info("Stage (" + stage.getId() + ") has " + stage.containers.size() + " containers!");
         stage.eventHandler.handle(
-            new LaunchTaskRunnersEvent(stage.getId(), allocationEvent.getAllocatedContainer(),
-                stage.getContext().getQueryContext(),
-                CoreGsonHelper.toJson(stage.getBlock().getPlan(), LogicalNode.class))
-        );
+            new LaunchTaskRunnersEvent(stage.getId(), allocationEvent.getAllocatedContainer()));
 
         stage.eventHandler.handle(new StageEvent(stage.getId(), StageEventType.SQ_START));
       } catch (Throwable t) {
@@ -1204,6 +1431,9 @@ public class Stage implements EventHandler<StageEvent> {
 
         if (taskEvent.getState() == TaskState.SUCCEEDED) {
           stage.succeededObjectCount++;
+          if (stage.produceRuntimeFilter) {
+            stage.mergeRuntimeFilter(task);
+          }
         } else if (task.getState() == TaskState.KILLED) {
           stage.killedObjectCount++;
         } else if (task.getState() == TaskState.FAILED) {
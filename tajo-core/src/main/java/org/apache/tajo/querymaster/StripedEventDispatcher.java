@@ -0,0 +1,158 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.querymaster;
+
+import com.codahale.metrics.Histogram;
+import com.google.common.base.Preconditions;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.service.AbstractService;
+import org.apache.hadoop.yarn.event.Event;
+import org.apache.hadoop.yarn.event.EventHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An event dispatcher which handles events with multiple threads, called stripes.
+ * An event is assigned to a stripe by its key, and each stripe handles its events in the arrival order.
+ * So, the events of the same key are never handled concurrently or out of order.
+ *
+ * A stripe takes all of its queued events at once, up to <code>MAX_BATCH_SIZE</code>, and handles them in a batch.
+ * A burst of events is therefore handled back-to-back without waking up the thread for each event.
+ */
+public class StripedEventDispatcher extends AbstractService {
+  private static final Log LOG = LogFactory.getLog(StripedEventDispatcher.class);
+  public static final int MAX_BATCH_SIZE = 1024;
+
+  private final EventHandler<Event> handler;
+  private final Stripe [] stripes;
+  private final AtomicBoolean stopped = new AtomicBoolean(false);
+  /** the microseconds from the arrival of each event until it is handled */
+  private volatile Histogram latencyHistogram;
+
+  public StripedEventDispatcher(String name, int stripeNum, EventHandler<Event> handler) {
+    super(StripedEventDispatcher.class.getName() + ":" + name);
+    Preconditions.checkArgument(stripeNum > 0, "The number of stripes must be positive");
+    this.handler = handler;
+    this.stripes = new Stripe[stripeNum];
+    for (int i = 0; i < stripeNum; i++) {
+      stripes[i] = new Stripe(name + "-events-" + i);
+    }
+  }
+
+  public void setLatencyHistogram(Histogram latencyHistogram) {
+    this.latencyHistogram = latencyHistogram;
+  }
+
+  @Override
+  public void serviceStart() throws Exception {
+    for (Stripe stripe : stripes) {
+      stripe.start();
+    }
+    super.serviceStart();
+  }
+
+  @Override
+  public void serviceStop() throws Exception {
+    if (stopped.getAndSet(true)) {
+      return;
+    }
+
+    for (Stripe stripe : stripes) {
+      stripe.interrupt();
+    }
+    for (Stripe stripe : stripes) {
+      try {
+        stripe.join();
+      } catch (InterruptedException e) {
+        LOG.warn("Interrupted while stopping " + stripe.getName());
+      }
+    }
+    super.serviceStop();
+  }
+
+  /**
+   * Queues an event to the stripe of the key.
+   */
+  public void dispatch(Object key, Event event) {
+    int index = (key.hashCode() & Integer.MAX_VALUE) % stripes.length;
+    stripes[index].queue.add(new QueuedEvent(event));
+  }
+
+  /**
+   * @return The number of events which are queued but not handled yet
+   */
+  public int getQueueDepth() {
+    int depth = 0;
+    for (Stripe stripe : stripes) {
+      depth += stripe.queue.size();
+    }
+    return depth;
+  }
+
+  private static class QueuedEvent {
+    private final Event event;
+    private final long arrivalNanos;
+
+    QueuedEvent(Event event) {
+      this.event = event;
+      this.arrivalNanos = System.nanoTime();
+    }
+  }
+
+  private class Stripe extends Thread {
+    private final LinkedBlockingQueue<QueuedEvent> queue = new LinkedBlockingQueue<QueuedEvent>();
+
+    Stripe(String name) {
+      super(name);
+      setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      List<QueuedEvent> batch = new ArrayList<QueuedEvent>();
+      while (!stopped.get() && !isInterrupted()) {
+        try {
+          batch.add(queue.take());
+        } catch (InterruptedException e) {
+          break;
+        }
+        queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+        for (QueuedEvent queued : batch) {
+          Histogram histogram = latencyHistogram;
+          if (histogram != null) {
+            histogram.update((System.nanoTime() - queued.arrivalNanos) / 1000);
+          }
+
+          try {
+            handler.handle(queued.event);
+          } catch (Throwable t) {
+            LOG.fatal("Error in " + getName() + " while handling " + queued.event, t);
+          }
+        }
+        batch.clear();
+      }
+      LOG.info(getName() + " is stopped");
+    }
+  }
+}
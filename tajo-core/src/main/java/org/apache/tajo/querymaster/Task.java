@@ -33,14 +33,17 @@ import org.apache.tajo.QueryIdFactory;
 import org.apache.tajo.TajoProtos.TaskAttemptState;
 import org.apache.tajo.TaskAttemptId;
 import org.apache.tajo.TaskId;
+import org.apache.tajo.catalog.proto.CatalogProtos.OperatorMetricsProto;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.ipc.TajoWorkerProtocol.FailureIntermediateProto;
 import org.apache.tajo.ipc.TajoWorkerProtocol.IntermediateEntryProto;
+import org.apache.tajo.ipc.TajoWorkerProtocol.RuntimeFilterProto;
 import org.apache.tajo.master.TaskState;
 import org.apache.tajo.master.event.*;
 import org.apache.tajo.master.event.TaskAttemptToSchedulerEvent.TaskAttemptScheduleContext;
 import org.apache.tajo.plan.logical.*;
 import org.apache.tajo.storage.DataLocation;
+import org.apache.tajo.storage.fragment.CombinedFileFragment;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.storage.fragment.Fragment;
 import org.apache.tajo.storage.fragment.FragmentConvertor;
@@ -77,6 +80,9 @@ public class Task implements EventHandler<TaskEvent> {
 
   private List<ShuffleFileOutput> shuffleFileOutputs;
 	private TableStats stats;
+  private RuntimeFilterProto runtimeFilter;
+  private List<String> writtenPartitions = Collections.emptyList();
+  private List<OperatorMetricsProto> operatorMetrics = Collections.emptyList();
   private final boolean isLeafTask;
   private List<IntermediateEntry> intermediateData;
 
@@ -321,15 +327,48 @@ public class Task implements EventHandler<TaskEvent> {
 	  }
 	}
 
-  private void addDataLocation(Fragment fragment) {
+  /**
+   * @param hostIdx The index of the only host to be added. -1 if all hosts are added.
+   */
+  private void addDataLocation(Fragment fragment, int hostIdx) {
     String[] hosts = fragment.getHosts();
     int[] diskIds = null;
     if (fragment instanceof FileFragment) {
       diskIds = ((FileFragment)fragment).getDiskIds();
+    } else if (fragment instanceof CombinedFileFragment) {
+      diskIds = ((CombinedFileFragment)fragment).getDiskIds();
     }
     for (int i = 0; i < hosts.length; i++) {
-      dataLocations.add(new DataLocation(hosts[i], diskIds == null ? -1 : diskIds[i]));
+      if (hostIdx < 0 || i == hostIdx) {
+        dataLocations.add(new DataLocation(hosts[i], diskIds == null ? -1 : diskIds[i]));
+      }
+    }
+  }
+
+  /**
+   * Chooses one of the hosts of a fragment by rendezvous hashing. The choice only depends on the fragment and
+   * its hosts, so every scan of the fragment chooses the same host.
+   *
+   * @return The index of the chosen host. -1 if the fragment has no host.
+   */
+  static int chooseCachingHost(Fragment fragment) {
+    String[] hosts = fragment.getHosts();
+    int chosen = -1;
+    int maxHash = 0;
+    for (int i = 0; i < hosts.length; i++) {
+      int hash = (fragment.getKey() + "@" + hosts[i]).hashCode();
+      // String.hashCode() is linear, so it is mixed not to choose the same host for all fragments
+      hash ^= hash >>> 16;
+      hash *= 0x85ebca6b;
+      hash ^= hash >>> 13;
+      hash *= 0xc2b2ae35;
+      hash ^= hash >>> 16;
+      if (chosen < 0 || hash > maxHash) {
+        chosen = i;
+        maxHash = hash;
+      }
     }
+    return chosen;
   }
 
   public void addFragment(Fragment fragment, boolean useDataLocation) {
@@ -337,16 +376,32 @@ public class Task implements EventHandler<TaskEvent> {
     if (fragMap.containsKey(fragment.getTableName())) {
       fragmentProtos = fragMap.get(fragment.getTableName());
     } else {
-      fragmentProtos = new HashSet<FragmentProto>();
+      fragmentProtos = new LinkedHashSet<FragmentProto>();
       fragMap.put(fragment.getTableName(), fragmentProtos);
     }
-    fragmentProtos.add(fragment.getProto());
+    if (fragment instanceof CombinedFileFragment) {
+      // workers read the packed file fragments of a scan one by one
+      for (FileFragment eachFragment : ((CombinedFileFragment) fragment).getFragments()) {
+        fragmentProtos.add(eachFragment.getProto());
+      }
+    } else {
+      fragmentProtos.add(fragment.getProto());
+    }
     if (useDataLocation) {
-      addDataLocation(fragment);
+      addDataLocation(fragment, -1);
     }
     totalFragmentNum++;
   }
 
+  /**
+   * Adds a fragment of a table cached by CACHE TABLE. Only one of its hosts is used as the data location,
+   * so repeated scans of the fragment are assigned to the worker which has cached it while the worker is available.
+   */
+  public void addCachedFragment(Fragment fragment) {
+    addFragment(fragment, false);
+    addDataLocation(fragment, chooseCachingHost(fragment));
+  }
+
   public void addFragments(Collection<Fragment> fragments) {
     for (Fragment eachFragment: fragments) {
       addFragment(eachFragment, false);
@@ -378,7 +433,7 @@ public class Task implements EventHandler<TaskEvent> {
 	}
 
   public Collection<FragmentProto> getAllFragments() {
-    Set<FragmentProto> fragmentProtos = new HashSet<FragmentProto>();
+    Set<FragmentProto> fragmentProtos = new LinkedHashSet<FragmentProto>();
     for (Set<FragmentProto> eachFragmentSet : fragMap.values()) {
       fragmentProtos.addAll(eachFragmentSet);
     }
@@ -446,6 +501,34 @@ public class Task implements EventHandler<TaskEvent> {
 	public TableStats getStats() {
 	  return this.stats;
 	}
+
+  public void setRuntimeFilter(RuntimeFilterProto runtimeFilter) {
+    this.runtimeFilter = runtimeFilter;
+  }
+
+  public boolean hasRuntimeFilter() {
+    return runtimeFilter != null;
+  }
+
+  public RuntimeFilterProto getRuntimeFilter() {
+    return runtimeFilter;
+  }
+
+  public void setWrittenPartitions(List<String> writtenPartitions) {
+    this.writtenPartitions = Collections.unmodifiableList(writtenPartitions);
+  }
+
+  public List<String> getWrittenPartitions() {
+    return writtenPartitions;
+  }
+
+  public void setOperatorMetrics(List<OperatorMetricsProto> operatorMetrics) {
+    this.operatorMetrics = Collections.unmodifiableList(operatorMetrics);
+  }
+
+  public List<OperatorMetricsProto> getOperatorMetrics() {
+    return operatorMetrics;
+  }
 	
 	public List<ShuffleFileOutput> getShuffleFileOutputs() {
 	  return this.shuffleFileOutputs;
@@ -69,6 +69,10 @@ public class TaskAttempt implements EventHandler<TaskAttemptEvent> {
   private float progress;
   private CatalogProtos.TableStatsProto inputStats;
   private CatalogProtos.TableStatsProto resultStats;
+  /** the bytes reserved by this attempt, and the peak of them after it completes */
+  private long memoryUsage;
+  /** the bytes reserved by all tasks of the query in the worker running this attempt */
+  private long queryMemoryUsage;
 
   protected static final StateMachineFactory
       <TaskAttempt, TaskAttemptState, TaskAttemptEventType, TaskAttemptEvent>
@@ -238,6 +242,14 @@ public class TaskAttempt implements EventHandler<TaskAttemptEvent> {
     return progress;
   }
 
+  public long getMemoryUsage() {
+    return memoryUsage;
+  }
+
+  public long getQueryMemoryUsage() {
+    return queryMemoryUsage;
+  }
+
   public TableStats getInputStats() {
     if (inputStats == null) {
       return null;
@@ -277,6 +289,15 @@ public class TaskAttempt implements EventHandler<TaskAttemptEvent> {
       this.resultStats = report.getResultStats();
       this.getTask().setStats(new TableStats(resultStats));
     }
+    if (report.hasRuntimeFilter()) {
+      this.getTask().setRuntimeFilter(report.getRuntimeFilter());
+    }
+    this.getTask().setWrittenPartitions(report.getWrittenPartitionsList());
+    this.getTask().setOperatorMetrics(report.getOperatorMetricsList());
+    if (report.hasPeakMemoryUsage()) {
+      this.memoryUsage = report.getPeakMemoryUsage();
+    }
+    this.queryMemoryUsage = 0;
   }
 
   private static class TaskAttemptScheduleTransition implements
@@ -338,6 +359,8 @@ public class TaskAttempt implements EventHandler<TaskAttemptEvent> {
       taskAttempt.progress = updateEvent.getStatus().getProgress();
       taskAttempt.inputStats = updateEvent.getStatus().getInputStats();
       taskAttempt.resultStats = updateEvent.getStatus().getResultStats();
+      taskAttempt.memoryUsage = updateEvent.getStatus().getMemoryUsage();
+      taskAttempt.queryMemoryUsage = updateEvent.getStatus().getQueryMemoryUsage();
 
       return TaskAttemptState.TA_RUNNING;
     }
@@ -23,6 +23,7 @@ import org.apache.tajo.catalog.FunctionDesc;
 import org.apache.tajo.catalog.proto.CatalogProtos;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.planner.physical.OperatorMetrics;
 import org.apache.tajo.master.TajoMaster.MasterContext;
 import org.apache.tajo.ha.HAService;
 import org.apache.tajo.master.QueryInProgress;
@@ -391,6 +392,40 @@ public class JSPUtil {
     return sb.toString();
   }
 
+  /**
+   * Renders the operator metrics of a stage as a table. Times are the sums over the tasks.
+   * The first call times, which include building hash tables or sorting, are part of the total times.
+   */
+  public static String getOperatorMetricsTable(List<OperatorMetrics> metricsList) {
+    if (metricsList == null || metricsList.isEmpty()) {
+      return "";
+    }
+
+    StringBuilder sb = new StringBuilder();
+    sb.append("<table border=\"1\" width=\"100%\" class=\"border_table\">");
+    sb.append("<tr><th>Operator</th><th>PID</th><th># Tasks</th><th>Input Rows</th><th>Output Rows</th>")
+        .append("<th>Wall Time</th><th>CPU Time</th><th>First Call Wall Time</th><th>First Call CPU Time</th>")
+        .append("<th>Peak Memory</th><th>Spilled</th></tr>");
+    for (OperatorMetrics metrics : metricsList) {
+      sb.append("<tr><td>").append(metrics.getName()).append("</td>")
+          .append("<td>").append(metrics.getPlanNodeId() >= 0 ? String.valueOf(metrics.getPlanNodeId()) : "-")
+          .append("</td>")
+          .append("<td align='right'>").append(metrics.getTaskNum()).append("</td>")
+          .append("<td align='right'>").append(metrics.getInputRows()).append("</td>")
+          .append("<td align='right'>").append(metrics.getOutputRows()).append("</td>")
+          .append("<td align='right'>").append(metrics.getWallTimeNanos() / 1000000).append(" ms</td>")
+          .append("<td align='right'>").append(metrics.getCpuTimeNanos() / 1000000).append(" ms</td>")
+          .append("<td align='right'>").append(metrics.getFirstCallWallTimeNanos() / 1000000).append(" ms</td>")
+          .append("<td align='right'>").append(metrics.getFirstCallCpuTimeNanos() / 1000000).append(" ms</td>")
+          .append("<td align='right'>").append(FileUtil.humanReadableByteCount(metrics.getPeakMemory(), false))
+          .append("</td>")
+          .append("<td align='right'>").append(FileUtil.humanReadableByteCount(metrics.getSpilledBytes(), false))
+          .append("</td></tr>");
+    }
+    sb.append("</table>");
+    return sb.toString();
+  }
+
   public static <T extends Object> List<T> getPageNavigationList(List<T> originList, int page, int pageSize) {
     if (originList == null) {
       return new ArrayList<T>();
@@ -21,6 +21,7 @@ package org.apache.tajo.util.history;
 import com.google.gson.annotations.Expose;
 import com.google.gson.reflect.TypeToken;
 import org.apache.tajo.engine.json.CoreGsonHelper;
+import org.apache.tajo.engine.planner.physical.OperatorMetrics;
 import org.apache.tajo.ipc.ClientProtos.StageHistoryProto;
 import org.apache.tajo.json.GsonObject;
 
@@ -66,6 +67,8 @@ public class StageHistory implements GsonObject {
   private int hostLocalAssigned;
   @Expose
   private int rackLocalAssigned;
+  @Expose
+  private List<OperatorMetrics> operatorMetrics;
 
   private List<TaskHistory> tasks;
 
@@ -213,6 +216,17 @@ public class StageHistory implements GsonObject {
     this.killedObjectCount = killedObjectCount;
   }
 
+  /**
+   * @return The runtime metrics of the operators which are combined over the succeeded tasks
+   */
+  public List<OperatorMetrics> getOperatorMetrics() {
+    return operatorMetrics;
+  }
+
+  public void setOperatorMetrics(List<OperatorMetrics> operatorMetrics) {
+    this.operatorMetrics = operatorMetrics;
+  }
+
   public List<TaskHistory> getTasks() {
     return tasks;
   }
@@ -265,6 +279,11 @@ public class StageHistory implements GsonObject {
       .setHostLocalAssigned(hostLocalAssigned)
       .setRackLocalAssigned(rackLocalAssigned);
 
+    if (operatorMetrics != null) {
+      for (OperatorMetrics metrics : operatorMetrics) {
+        builder.addOperatorMetrics(metrics.getProto());
+      }
+    }
     return builder.build();
   }
 }
@@ -20,6 +20,8 @@ package org.apache.tajo.worker;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.channel.EventLoopGroup;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.fs.FileSystem;
@@ -28,24 +30,26 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.hadoop.util.ReflectionUtils;
 import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.SessionVars;
 import org.apache.tajo.TaskAttemptId;
 import org.apache.tajo.TajoProtos;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.planner.enforce.Enforcer;
+import org.apache.tajo.engine.planner.global.DataChannel;
 import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.ipc.QueryMasterProtocol;
 import org.apache.tajo.master.cluster.WorkerConnectionInfo;
+import org.apache.tajo.rpc.CallFuture;
 import org.apache.tajo.rpc.NettyClientBase;
 import org.apache.tajo.rpc.NullCallback;
 import org.apache.tajo.rpc.RpcChannelFactory;
 import org.apache.tajo.rpc.RpcConnectionPool;
 import org.apache.tajo.storage.HashShuffleAppenderManager;
 import org.apache.tajo.storage.StorageUtil;
+import org.apache.tajo.unit.StorageUnit;
 import org.apache.tajo.util.NetUtils;
 import org.apache.tajo.util.Pair;
 import org.apache.tajo.worker.event.TaskRunnerStartEvent;
-import org.jboss.netty.channel.ConnectTimeoutException;
-import org.jboss.netty.channel.socket.ClientSocketChannelFactory;
-import org.jboss.netty.util.Timer;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
@@ -53,6 +57,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -61,6 +66,7 @@ import static org.apache.tajo.ipc.TajoWorkerProtocol.*;
 public class ExecutionBlockContext {
   /** class logger */
   private static final Log LOG = LogFactory.getLog(ExecutionBlockContext.class);
+  private static final int BLOCK_PLAN_FETCH_TIMEOUT_SEC = 30;
 
   private TaskRunnerManager manager;
   public AtomicInteger completedTasksNum = new AtomicInteger();
@@ -68,16 +74,20 @@ public class ExecutionBlockContext {
   public AtomicInteger killedTasksNum = new AtomicInteger();
   public AtomicInteger failedTasksNum = new AtomicInteger();
 
-  private ClientSocketChannelFactory channelFactory;
+  private EventLoopGroup loopGroup;
   // for temporal or intermediate files
   private FileSystem localFS;
   // for input files
   private FileSystem defaultFS;
   private ExecutionBlockId executionBlockId;
+  // the plan, the context, and the enforcer are fetched once and shared by all tasks of this block
   private QueryContext queryContext;
-  private String plan;
+  private Enforcer enforcer;
+  private DataChannel dataChannel;
 
   private ExecutionBlockSharedResource resource;
+  // the memory budget of the query which this execution block belongs to
+  private MemoryPool queryMemoryPool;
 
   private TajoQueryEngine queryEngine;
   private RpcConnectionPool connPool;
@@ -110,11 +120,12 @@ public class ExecutionBlockContext {
     // Setup QueryEngine according to the query plan
     // Here, we can setup row-based query engine or columnar query engine.
     this.queryEngine = new TajoQueryEngine(systemConf);
-    this.queryContext = event.getQueryContext();
-    this.plan = event.getPlan();
     this.resource = new ExecutionBlockSharedResource();
 
     init();
+
+    this.queryMemoryPool = manager.getWorkerContext().getMemoryManager().acquireQueryPool(
+        executionBlockId.getQueryId(), queryContext.getLong(SessionVars.QUERY_MEMORY_LIMIT) * StorageUnit.MB);
   }
 
   public void init() throws Throwable {
@@ -136,17 +147,46 @@ public class ExecutionBlockContext {
 
     // resource intiailization
     try{
-      this.resource.initialize(queryContext, plan);
+      ExecutionBlockPlanProto blockPlan = fetchBlockPlan();
+      this.queryContext = new QueryContext(systemConf, blockPlan.getQueryContext());
+      this.enforcer = new Enforcer(blockPlan.getEnforcer());
+      if (blockPlan.hasDataChannel()) {
+        this.dataChannel = new DataChannel(blockPlan.getDataChannel());
+      }
+      this.resource.initialize(queryContext, blockPlan.getPlan());
     } catch (Throwable e) {
       getQueryMasterStub().killQuery(null, executionBlockId.getQueryId().getProto(), NullCallback.get());
       throw e;
     }
   }
 
+  private ExecutionBlockPlanProto fetchBlockPlan() throws Exception {
+    CallFuture<ExecutionBlockPlanProto> callFuture = new CallFuture<ExecutionBlockPlanProto>();
+    getQueryMasterStub().getExecutionBlockPlan(callFuture.getController(), executionBlockId.getProto(), callFuture);
+    ExecutionBlockPlanProto blockPlan = callFuture.get(BLOCK_PLAN_FETCH_TIMEOUT_SEC, TimeUnit.SECONDS);
+    if (blockPlan == null) {
+      throw new IOException("Cannot get the plan of " + executionBlockId + ": "
+          + callFuture.getController().errorText());
+    }
+    return blockPlan;
+  }
+
   public ExecutionBlockSharedResource getSharedResource() {
     return resource;
   }
 
+  public QueryContext getQueryContext() {
+    return queryContext;
+  }
+
+  public Enforcer getEnforcer() {
+    return enforcer;
+  }
+
+  public DataChannel getDataChannel() {
+    return dataChannel;
+  }
+
   public QueryMasterProtocol.QueryMasterProtocolService.Interface getQueryMasterStub()
       throws NoSuchMethodException, ConnectTimeoutException, ClassNotFoundException {
     NettyClientBase clientBase = null;
@@ -184,6 +224,9 @@ public class ExecutionBlockContext {
     tasks.clear();
 
     resource.release();
+    if (queryMemoryPool != null) {
+      manager.getWorkerContext().getMemoryManager().releaseQueryPool(executionBlockId.getQueryId());
+    }
 
     try {
       releaseShuffleChannelFactory();
@@ -196,6 +239,10 @@ public class ExecutionBlockContext {
     return manager.getTajoConf();
   }
 
+  public MemoryPool getQueryMemoryPool() {
+    return queryMemoryPool;
+  }
+
   public FileSystem getLocalFS() {
     return localFS;
   }
@@ -271,23 +318,18 @@ public class ExecutionBlockContext {
     return manager.getWorkerContext();
   }
 
-  protected ClientSocketChannelFactory getShuffleChannelFactory(){
-    if(channelFactory == null) {
+  protected EventLoopGroup getShuffleChannelFactory(){
+    if(loopGroup == null) {
       int workerNum = getConf().getIntVar(TajoConf.ConfVars.SHUFFLE_RPC_CLIENT_WORKER_THREAD_NUM);
-      channelFactory = RpcChannelFactory.createClientChannelFactory("Fetcher", workerNum);
+      loopGroup = RpcChannelFactory.createClientEventloopGroup("Fetcher", workerNum);
     }
-    return channelFactory;
-  }
-
-  public Timer getRPCTimer() {
-    return manager.getRPCTimer();
+    return loopGroup;
   }
 
   protected void releaseShuffleChannelFactory(){
-    if(channelFactory != null) {
-      channelFactory.shutdown();
-      channelFactory.releaseExternalResources();
-      channelFactory = null;
+    if(loopGroup != null) {
+      loopGroup.shutdownGracefully();
+      loopGroup = null;
     }
   }
 
@@ -25,11 +25,12 @@ import org.apache.tajo.SessionVars;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.engine.codegen.ExecutorPreCompiler;
 import org.apache.tajo.engine.codegen.TajoClassLoader;
-import org.apache.tajo.engine.json.CoreGsonHelper;
 import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.plan.PlanningException;
 import org.apache.tajo.plan.expr.EvalNode;
 import org.apache.tajo.plan.logical.LogicalNode;
+import org.apache.tajo.plan.serder.LogicalNodeDeserializer;
+import org.apache.tajo.plan.serder.PlanProto;
 import org.apache.tajo.util.Pair;
 
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -45,15 +46,16 @@ public class ExecutionBlockSharedResource {
   // Resources
   private TajoClassLoader classLoader;
   private ExecutorPreCompiler.CompilationContext compilationContext;
+  private PlanProto.LogicalNodeTree planProto;
   private LogicalNode plan;
   private boolean codeGenEnabled = false;
 
-  public void initialize(final QueryContext context, final String planJson) {
+  public void initialize(final QueryContext context, final PlanProto.LogicalNodeTree planProto) {
 
     if (!initializing.getAndSet(true)) {
       try {
         ExecutionBlockSharedResource.this.context = context;
-        initPlan(planJson);
+        initPlan(planProto);
         initCodeGeneration();
         resourceInitSuccess = true;
       } catch (Throwable t) {
@@ -67,8 +69,9 @@ public class ExecutionBlockSharedResource {
     }
   }
 
-  private void initPlan(String planJson) {
-    plan = CoreGsonHelper.fromJson(planJson, LogicalNode.class);
+  private void initPlan(PlanProto.LogicalNodeTree planProto) {
+    this.planProto = planProto;
+    this.plan = LogicalNodeDeserializer.deserialize(context, planProto);
   }
 
   private void initCodeGeneration() throws PlanningException {
@@ -84,6 +87,15 @@ public class ExecutionBlockSharedResource {
     return this.plan;
   }
 
+  /**
+   * Each task needs its own plan instance because physical operators bind the evals of the plan.
+   *
+   * @return A new instance of the plan decoded from the cached plan tree
+   */
+  public LogicalNode newPlanInstance() {
+    return LogicalNodeDeserializer.deserialize(context, planProto);
+  }
+
   public EvalNode compileEval(Schema schema, EvalNode eval) {
     return compilationContext.getCompiler().compile(schema, eval);
   }
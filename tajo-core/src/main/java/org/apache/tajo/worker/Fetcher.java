@@ -18,20 +18,21 @@
 
 package org.apache.tajo.worker;
 
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.*;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.timeout.ReadTimeoutException;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.util.ReferenceCountUtil;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.io.IOUtils;
 import org.apache.tajo.TajoProtos;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.pullserver.retriever.FileChunk;
-import org.jboss.netty.bootstrap.ClientBootstrap;
-import org.jboss.netty.buffer.ChannelBuffer;
-import org.jboss.netty.channel.*;
-import org.jboss.netty.channel.socket.ClientSocketChannelFactory;
-import org.jboss.netty.handler.codec.http.*;
-import org.jboss.netty.handler.timeout.ReadTimeoutException;
-import org.jboss.netty.handler.timeout.ReadTimeoutHandler;
-import org.jboss.netty.util.Timer;
+import org.apache.tajo.rpc.RpcChannelFactory;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -41,8 +42,6 @@ import java.net.InetSocketAddress;
 import java.net.URI;
 import java.nio.channels.FileChannel;
 
-import static org.jboss.netty.channel.Channels.pipeline;
-
 /**
  * Fetcher fetches data from a given uri via HTTP protocol and stores them into
  * a specific file. It aims at asynchronous and efficient data transmit.
@@ -64,17 +63,15 @@ public class Fetcher {
   private long fileLen;
   private int messageReceiveCount;
   private TajoProtos.FetcherState state;
-  private Timer timer;
 
-  private ClientBootstrap bootstrap;
+  private Bootstrap bootstrap;
 
-  public Fetcher(TajoConf conf, URI uri, FileChunk chunk, ClientSocketChannelFactory factory, Timer timer) {
+  public Fetcher(TajoConf conf, URI uri, FileChunk chunk, EventLoopGroup loopGroup) {
     this.uri = uri;
     this.fileChunk = chunk;
     this.useLocalFile = !chunk.fromRemote();
     this.state = TajoProtos.FetcherState.FETCH_INIT;
     this.conf = conf;
-    this.timer = timer;
 
     String scheme = uri.getScheme() == null ? "http" : uri.getScheme();
     this.host = uri.getHost() == null ? "localhost" : uri.getHost();
@@ -88,13 +85,14 @@ public class Fetcher {
     }
 
     if (!useLocalFile) {
-      bootstrap = new ClientBootstrap(factory);
-      bootstrap.setOption("connectTimeoutMillis", 5000L); // set 5 sec
-      bootstrap.setOption("receiveBufferSize", 1048576); // set 1M
-      bootstrap.setOption("tcpNoDelay", true);
-
-      ChannelPipelineFactory pipelineFactory = new HttpClientPipelineFactory(fileChunk.getFile());
-      bootstrap.setPipelineFactory(pipelineFactory);
+      bootstrap = new Bootstrap()
+          .group(loopGroup)
+          .channel(RpcChannelFactory.getClientChannelClass(loopGroup))
+          .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+          .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000) // set 5 sec
+          .option(ChannelOption.SO_RCVBUF, 1048576) // set 1M
+          .option(ChannelOption.TCP_NODELAY, true)
+          .handler(new HttpClientPipelineFactory(fileChunk.getFile()));
     }
   }
 
@@ -135,27 +133,27 @@ public class Fetcher {
       future = bootstrap.connect(new InetSocketAddress(host, port));
 
       // Wait until the connection attempt succeeds or fails.
-      Channel channel = future.awaitUninterruptibly().getChannel();
+      Channel channel = future.awaitUninterruptibly().channel();
       if (!future.isSuccess()) {
-        future.getChannel().close();
+        future.channel().close();
         state = TajoProtos.FetcherState.FETCH_FAILED;
-        throw new IOException(future.getCause());
+        throw new IOException(future.cause());
       }
 
       String query = uri.getPath()
           + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
       // Prepare the HTTP request.
-      HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, query);
-      request.setHeader(HttpHeaders.Names.HOST, host);
-      request.setHeader(HttpHeaders.Names.CONNECTION, HttpHeaders.Values.CLOSE);
-      request.setHeader(HttpHeaders.Names.ACCEPT_ENCODING, HttpHeaders.Values.GZIP);
+      HttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, query);
+      request.headers().set(HttpHeaders.Names.HOST, host);
+      request.headers().set(HttpHeaders.Names.CONNECTION, HttpHeaders.Values.CLOSE);
+      request.headers().set(HttpHeaders.Names.ACCEPT_ENCODING, HttpHeaders.Values.GZIP);
 
       LOG.info("Status: " + getState() + ", URI:" + uri);
       // Send the HTTP request.
-      ChannelFuture channelFuture = channel.write(request);
+      ChannelFuture channelFuture = channel.writeAndFlush(request);
 
       // Wait for the server to close the connection.
-      channel.getCloseFuture().awaitUninterruptibly();
+      channel.closeFuture().awaitUninterruptibly();
 
       channelFuture.addListener(ChannelFutureListener.CLOSE);
 
@@ -164,7 +162,7 @@ public class Fetcher {
     } finally {
       if(future != null){
         // Close the channel to exit.
-        future.getChannel().close();
+        future.channel().close();
       }
 
       this.finishTime = System.currentTimeMillis();
@@ -176,8 +174,7 @@ public class Fetcher {
     return this.uri;
   }
 
-  class HttpClientHandler extends SimpleChannelUpstreamHandler {
-    private volatile boolean readingChunks;
+  class HttpClientHandler extends ChannelInboundHandlerAdapter {
     private final File file;
     private RandomAccessFile raf;
     private FileChannel fc;
@@ -188,14 +185,14 @@ public class Fetcher {
     }
 
     @Override
-    public void messageReceived(ChannelHandlerContext ctx, MessageEvent e)
+    public void channelRead(ChannelHandlerContext ctx, Object msg)
         throws Exception {
 
       messageReceiveCount++;
       try {
-        if (!readingChunks && e.getMessage() instanceof HttpResponse) {
+        if (msg instanceof HttpResponse) {
 
-          HttpResponse response = (HttpResponse) e.getMessage();
+          HttpResponse response = (HttpResponse) msg;
 
           StringBuilder sb = new StringBuilder();
           if (LOG.isDebugEnabled()) {
@@ -203,9 +200,9 @@ public class Fetcher {
                 .append(", VERSION: ").append(response.getProtocolVersion())
                 .append(", HEADER: ");
           }
-          if (!response.getHeaderNames().isEmpty()) {
-            for (String name : response.getHeaderNames()) {
-              for (String value : response.getHeaders(name)) {
+          if (!response.headers().isEmpty()) {
+            for (String name : response.headers().names()) {
+              for (String value : response.headers().getAll(name)) {
                 if (LOG.isDebugEnabled()) {
                   sb.append(name).append(" = ").append(value);
                 }
@@ -219,31 +216,28 @@ public class Fetcher {
             LOG.debug(sb.toString());
           }
 
-          if (response.getStatus().getCode() == HttpResponseStatus.NO_CONTENT.getCode()) {
+          if (response.getStatus().code() == HttpResponseStatus.NO_CONTENT.code()) {
             LOG.warn("There are no data corresponding to the request");
             length = 0;
             return;
-          } else if (response.getStatus().getCode() != HttpResponseStatus.OK.getCode()){
-            LOG.error(response.getStatus().getReasonPhrase());
+          } else if (response.getStatus().code() != HttpResponseStatus.OK.code()){
+            LOG.error(response.getStatus().reasonPhrase());
             state = TajoProtos.FetcherState.FETCH_FAILED;
             return;
           }
 
           this.raf = new RandomAccessFile(file, "rw");
           this.fc = raf.getChannel();
+        }
 
-          if (response.isChunked()) {
-            readingChunks = true;
-          } else {
-            ChannelBuffer content = response.getContent();
-            if (content.readable()) {
-              fc.write(content.toByteBuffer());
-            }
+        // the content of a response always follows it, and the last content ends it
+        if (msg instanceof HttpContent) {
+          ByteBuf content = ((HttpContent) msg).content();
+          if (fc != null && content.isReadable()) {
+            content.readBytes(fc, content.readableBytes());
           }
-        } else {
-          HttpChunk chunk = (HttpChunk) e.getMessage();
-          if (chunk.isLast()) {
-            readingChunks = false;
+
+          if (msg instanceof LastHttpContent && fc != null) {
             long fileLength = file.length();
             if (fileLength == length) {
               LOG.info("Data fetch is done (total received bytes: " + fileLength
@@ -252,13 +246,11 @@ public class Fetcher {
               LOG.info("Data fetch is done, but cannot get all data "
                   + "(received/total: " + fileLength + "/" + length + ")");
             }
-          } else {
-            if(fc != null){
-              fc.write(chunk.getContent().toByteBuffer());
-            }
           }
         }
       } finally {
+        ReferenceCountUtil.release(msg);
+
         if(raf != null) {
           fileLen = file.length();
         }
@@ -272,26 +264,26 @@ public class Fetcher {
     }
 
     @Override
-    public void exceptionCaught(ChannelHandlerContext ctx, ExceptionEvent e)
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause)
         throws Exception {
-      if (e.getCause() instanceof ReadTimeoutException) {
-        LOG.warn(e.getCause());
+      if (cause instanceof ReadTimeoutException) {
+        LOG.warn(cause);
       } else {
-        LOG.error("Fetch failed :", e.getCause());
+        LOG.error("Fetch failed :", cause);
       }
 
       // this fetching will be retry
       IOUtils.cleanup(LOG, fc, raf);
-      if(ctx.getChannel().isConnected()){
-        ctx.getChannel().close();
+      if(ctx.channel().isActive()){
+        ctx.channel().close();
       }
       finishTime = System.currentTimeMillis();
       state = TajoProtos.FetcherState.FETCH_FAILED;
     }
 
     @Override
-    public void channelDisconnected(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
-      super.channelDisconnected(ctx, e);
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+      super.channelInactive(ctx);
 
       if(getState() != TajoProtos.FetcherState.FETCH_FINISHED){
         //channel is closed, but cannot complete fetcher
@@ -302,8 +294,7 @@ public class Fetcher {
     }
   }
 
-  class HttpClientPipelineFactory implements
-      ChannelPipelineFactory {
+  class HttpClientPipelineFactory extends ChannelInitializer<Channel> {
     private final File file;
 
     public HttpClientPipelineFactory(File file) {
@@ -311,17 +302,16 @@ public class Fetcher {
     }
 
     @Override
-    public ChannelPipeline getPipeline() throws Exception {
-      ChannelPipeline pipeline = pipeline();
+    protected void initChannel(Channel channel) throws Exception {
+      ChannelPipeline pipeline = channel.pipeline();
 
       int maxChunkSize = conf.getIntVar(TajoConf.ConfVars.SHUFFLE_FETCHER_CHUNK_MAX_SIZE);
       int readTimeout = conf.getIntVar(TajoConf.ConfVars.SHUFFLE_FETCHER_READ_TIMEOUT);
 
       pipeline.addLast("codec", new HttpClientCodec(4096, 8192, maxChunkSize));
       pipeline.addLast("inflater", new HttpContentDecompressor());
-      pipeline.addLast("timeout", new ReadTimeoutHandler(timer, readTimeout));
+      pipeline.addLast("timeout", new ReadTimeoutHandler(readTimeout));
       pipeline.addLast("handler", new HttpClientHandler(file));
-      return pipeline;
     }
   }
 }
@@ -0,0 +1,179 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import com.google.common.base.Preconditions;
+import org.apache.tajo.engine.exception.MemoryExhaustedException;
+import org.apache.tajo.util.FileUtil;
+
+/**
+ * A memory budget which forms a hierarchy of worker, query, task, and operator.
+ *
+ * A pool grants memory to its children from its own budget. In order to avoid contention on the upper pools,
+ * a pool borrows memory from its parent in units of <code>grantUnit</code> bytes, and it returns the surplus
+ * when the usage decreases. As a result, the usage of a pool includes up to one unit of memory
+ * which is borrowed but not used yet by each child.
+ *
+ * Locks are always acquired from a child to its parent, so concurrent reservations cannot deadlock.
+ */
+public class MemoryPool {
+  public static final long UNLIMITED = Long.MAX_VALUE;
+  public static final long DEFAULT_GRANT_UNIT = 1024 * 1024;
+
+  private final String name;
+  private final MemoryPool parent;
+  private final long limit;
+  private final long grantUnit;
+
+  /** the bytes used by this pool, including the bytes granted to its children */
+  private long used;
+  /** the bytes borrowed from the parent. It is always larger than or equal to <code>used</code>. */
+  private long granted;
+  private long peak;
+  private boolean closed = false;
+
+  public MemoryPool(String name, long limit) {
+    this(name, null, limit, DEFAULT_GRANT_UNIT);
+  }
+
+  private MemoryPool(String name, MemoryPool parent, long limit, long grantUnit) {
+    Preconditions.checkArgument(limit > 0, "The memory limit must be positive");
+    this.name = name;
+    this.parent = parent;
+    this.limit = limit;
+    this.grantUnit = grantUnit;
+  }
+
+  /**
+   * Creates a child pool which is bounded only by this pool.
+   */
+  public MemoryPool newChild(String childName) {
+    return newChild(childName, UNLIMITED);
+  }
+
+  public MemoryPool newChild(String childName, long childLimit) {
+    return new MemoryPool(name + "/" + childName, this, childLimit, grantUnit);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getLimit() {
+    return limit;
+  }
+
+  public synchronized long getUsed() {
+    return used;
+  }
+
+  public synchronized long getPeak() {
+    return peak;
+  }
+
+  /**
+   * Reserves memory if this pool and all of its ancestors have enough room.
+   * Operators which can spill use it to decide when they should spill.
+   *
+   * @return True if the memory is reserved. Otherwise, nothing is reserved.
+   */
+  public synchronized boolean tryReserve(long bytes) {
+    Preconditions.checkArgument(bytes >= 0, "The reserved bytes must not be negative");
+    Preconditions.checkState(!closed, name + " is already closed");
+
+    long newUsed = used + bytes;
+    if (newUsed > limit || newUsed < 0) { // newUsed < 0 means an overflow
+      return false;
+    }
+
+    if (parent != null && newUsed > granted) {
+      long required = newUsed - granted;
+      long grant = Math.max(required, Math.min(grantUnit, limit - granted));
+      if (!parent.tryReserve(grant)) {
+        if (grant == required || !parent.tryReserve(required)) {
+          return false;
+        }
+        grant = required;
+      }
+      granted += grant;
+    }
+
+    used = newUsed;
+    peak = Math.max(peak, used);
+    return true;
+  }
+
+  /**
+   * Reserves memory. Operators which cannot spill use it to fail fast instead of running out of the heap.
+   *
+   * @throws MemoryExhaustedException If this pool or one of its ancestors does not have enough room.
+   */
+  public void reserve(long bytes) {
+    if (!tryReserve(bytes)) {
+      // report the pool which lacks the room, which may be an ancestor of this pool
+      MemoryPool exhausted = this;
+      for (MemoryPool pool = parent; pool != null; pool = pool.parent) {
+        if (pool.limit - pool.getUsed() < exhausted.limit - exhausted.getUsed()) {
+          exhausted = pool;
+        }
+      }
+      throw new MemoryExhaustedException(exhausted.name, bytes, exhausted.getUsed(), exhausted.limit);
+    }
+  }
+
+  public synchronized void release(long bytes) {
+    Preconditions.checkArgument(bytes >= 0, "The released bytes must not be negative");
+    used = Math.max(0, used - bytes);
+
+    // keep one unit for the next reservation and return the rest to the parent
+    if (parent != null && granted - used > grantUnit) {
+      long surplus = granted - used - grantUnit;
+      granted -= surplus;
+      parent.release(surplus);
+    }
+  }
+
+  /**
+   * Releases all memory of this pool. The pool can be used again.
+   */
+  public synchronized void releaseAll() {
+    used = 0;
+    if (parent != null && granted > 0) {
+      parent.release(granted);
+      granted = 0;
+    }
+  }
+
+  /**
+   * Releases all memory of this pool, and then it does not allow any more reservation.
+   */
+  public synchronized void close() {
+    if (!closed) {
+      releaseAll();
+      closed = true;
+    }
+  }
+
+  @Override
+  public synchronized String toString() {
+    return name + " (used: " + FileUtil.humanReadableByteCount(used, false) + ", peak: "
+        + FileUtil.humanReadableByteCount(peak, false)
+        + (limit == UNLIMITED ? "" : ", limit: " + FileUtil.humanReadableByteCount(limit, false)) + ")";
+  }
+}
@@ -160,7 +160,7 @@ public class TajoResourceAllocator extends AbstractResourceAllocator {
     // But, Assign ExecutionBlock to assigned tajo worker
     for(TajoContainer eachContainer: event.getContainers()) {
       TajoContainerProxy containerProxy = new TajoContainerProxy(queryTaskContext, tajoConf,
-        eachContainer, event.getQueryContext(), event.getExecutionBlockId(), event.getPlanJson());
+        eachContainer, event.getExecutionBlockId());
       executorService.submit(new LaunchRunner(eachContainer.getId(), containerProxy));
     }
   }
@@ -34,6 +34,8 @@ import org.apache.tajo.TajoConstants;
 import org.apache.tajo.catalog.CatalogClient;
 import org.apache.tajo.catalog.CatalogService;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.utils.BroadcastTableCache;
+import org.apache.tajo.engine.utils.TableFragmentCache;
 import org.apache.tajo.ha.HAServiceUtil;
 import org.apache.tajo.ha.TajoMasterInfo;
 import org.apache.tajo.ipc.QueryCoordinatorProtocol.ClusterResourceSummary;
@@ -43,6 +45,8 @@ import org.apache.tajo.pullserver.TajoPullServerService;
 import org.apache.tajo.querymaster.QueryMaster;
 import org.apache.tajo.querymaster.QueryMasterManagerService;
 import org.apache.tajo.rpc.RpcChannelFactory;
+import org.apache.tajo.rpc.RpcConnectionPool;
+import org.apache.tajo.rpc.RpcWriteStats;
 import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos;
 import org.apache.tajo.rule.EvaluationContext;
 import org.apache.tajo.rule.EvaluationFailedException;
@@ -50,6 +54,7 @@ import org.apache.tajo.rule.SelfDiagnosisRuleEngine;
 import org.apache.tajo.rule.SelfDiagnosisRuleSession;
 import org.apache.tajo.storage.HashShuffleAppenderManager;
 import org.apache.tajo.storage.StorageManager;
+import org.apache.tajo.unit.StorageUnit;
 import org.apache.tajo.util.CommonTestingUtil;
 import org.apache.tajo.util.JvmPauseMonitor;
 import org.apache.tajo.util.NetUtils;
@@ -132,6 +137,12 @@ public class TajoWorker extends CompositeService {
 
   private HashShuffleAppenderManager hashShuffleAppenderManager;
 
+  private WorkerMemoryManager memoryManager;
+
+  private BroadcastTableCache broadcastTableCache;
+
+  private TableFragmentCache tableFragmentCache;
+
   private AsyncDispatcher dispatcher;
 
   private LocalDirAllocator lDirAllocator;
@@ -259,6 +270,12 @@ public class TajoWorker extends CompositeService {
     LOG.info("Tajo Worker is initialized. \r\nQueryMaster=" + queryMasterMode + " TaskRunner=" + taskRunnerMode
         + " connection :" + connectionInfo.toString());
 
+    memoryManager = new WorkerMemoryManager(systemConf);
+    broadcastTableCache = new BroadcastTableCache(
+        (long) systemConf.getIntVar(ConfVars.WORKER_BROADCAST_CACHE_SIZE) * StorageUnit.MB);
+    tableFragmentCache = new TableFragmentCache(
+        (long) systemConf.getIntVar(ConfVars.WORKER_TABLE_CACHE_SIZE) * StorageUnit.MB);
+
     try {
       hashShuffleAppenderManager = new HashShuffleAppenderManager(systemConf);
     } catch (IOException e) {
@@ -300,6 +317,123 @@ public class TajoWorker extends CompositeService {
         }
       }
     });
+
+    workerSystemMetrics.register("memory", "usedBytes", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return memoryManager != null ? memoryManager.getRootPool().getUsed() : 0L;
+      }
+    });
+
+    workerSystemMetrics.register("memory", "peakBytes", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return memoryManager != null ? memoryManager.getRootPool().getPeak() : 0L;
+      }
+    });
+
+    workerSystemMetrics.register("memory", "runningQueries", new Gauge<Integer>() {
+      @Override
+      public Integer getValue() {
+        return memoryManager != null ? memoryManager.getNumQueries() : 0;
+      }
+    });
+
+    workerSystemMetrics.register("broadcastCache", "usedBytes", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return broadcastTableCache != null ? broadcastTableCache.getUsedBytes() : 0L;
+      }
+    });
+
+    workerSystemMetrics.register("broadcastCache", "hits", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return broadcastTableCache != null ? broadcastTableCache.getHitNum() : 0L;
+      }
+    });
+
+    workerSystemMetrics.register("broadcastCache", "misses", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return broadcastTableCache != null ? broadcastTableCache.getMissNum() : 0L;
+      }
+    });
+
+    workerSystemMetrics.register("broadcastCache", "evictions", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return broadcastTableCache != null ? broadcastTableCache.getEvictionNum() : 0L;
+      }
+    });
+
+    workerSystemMetrics.register("tableCache", "usedBytes", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return tableFragmentCache != null ? tableFragmentCache.getUsedBytes() : 0L;
+      }
+    });
+
+    workerSystemMetrics.register("tableCache", "hits", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return tableFragmentCache != null ? tableFragmentCache.getHitNum() : 0L;
+      }
+    });
+
+    workerSystemMetrics.register("tableCache", "misses", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return tableFragmentCache != null ? tableFragmentCache.getMissNum() : 0L;
+      }
+    });
+
+    workerSystemMetrics.register("tableCache", "evictions", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return tableFragmentCache != null ? tableFragmentCache.getEvictionNum() : 0L;
+      }
+    });
+
+    // rpc responses of the query master to workers and clients
+    workerSystemMetrics.register("rpc", "queryMasterAverageBatchSize", new Gauge<Double>() {
+      @Override
+      public Double getValue() {
+        RpcWriteStats stats = queryMasterManagerService != null ? queryMasterManagerService.getRpcWriteStats() : null;
+        return stats != null ? stats.getAverageBatchSize() : 0.0d;
+      }
+    });
+
+    workerSystemMetrics.register("rpc", "queryMasterUnwritableFlushes", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        RpcWriteStats stats = queryMasterManagerService != null ? queryMasterManagerService.getRpcWriteStats() : null;
+        return stats != null ? stats.getUnwritableFlushes() : 0L;
+      }
+    });
+
+    // rpc requests of this worker, such as status updates and heartbeats
+    workerSystemMetrics.register("rpc", "clientPendingMessages", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        long pending = 0;
+        for (RpcWriteStats eachStats : RpcConnectionPool.getPool().getWriteStats().values()) {
+          pending += eachStats.getPendingMessages();
+        }
+        return pending;
+      }
+    });
+
+    workerSystemMetrics.register("rpc", "clientUnwritableFlushes", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        long flushes = 0;
+        for (RpcWriteStats eachStats : RpcConnectionPool.getPool().getWriteStats().values()) {
+          flushes += eachStats.getUnwritableFlushes();
+        }
+        return flushes;
+      }
+    });
   }
 
   private int initWebServer() {
@@ -573,6 +707,18 @@ public class TajoWorker extends CompositeService {
       return hashShuffleAppenderManager;
     }
 
+    public WorkerMemoryManager getMemoryManager() {
+      return memoryManager;
+    }
+
+    public BroadcastTableCache getBroadcastTableCache() {
+      return broadcastTableCache;
+    }
+
+    public TableFragmentCache getTableFragmentCache() {
+      return tableFragmentCache;
+    }
+
     public HistoryWriter getTaskHistoryWriter() {
       return taskHistoryWriter;
     }
@@ -30,7 +30,6 @@ import org.apache.tajo.QueryId;
 import org.apache.tajo.TaskAttemptId;
 import org.apache.tajo.TajoIdProtos;
 import org.apache.tajo.conf.TajoConf;
-import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.ipc.TajoWorkerProtocol;
 import org.apache.tajo.master.cluster.WorkerConnectionInfo;
 import org.apache.tajo.rpc.AsyncRpcServer;
@@ -120,8 +119,6 @@ public class TajoWorkerManagerService extends CompositeService
           new WorkerConnectionInfo(request.getQueryMaster())
           , new ExecutionBlockId(request.getExecutionBlockId())
           , request.getContainerId()
-          , new QueryContext(workerContext.getConf(), request.getQueryContext()),
-          request.getPlanJson()
       ));
       done.run(TajoWorker.TRUE_PROTO);
     } catch (Throwable t) {
@@ -148,8 +145,7 @@ public class TajoWorkerManagerService extends CompositeService
   @Override
   public void killTaskAttempt(RpcController controller, TajoIdProtos.TaskAttemptIdProto request,
                               RpcCallback<PrimitiveProtos.BoolProto> done) {
-    Task task = workerContext.getTaskRunnerManager().getTaskByTaskAttemptId(new TaskAttemptId(request));
-    if(task != null) task.kill();
+    workerContext.getTaskRunnerManager().killTaskAttempt(new TaskAttemptId(request));
 
     done.run(TajoWorker.TRUE_PROTO);
   }
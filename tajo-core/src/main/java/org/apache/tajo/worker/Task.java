@@ -21,6 +21,8 @@ package org.apache.tajo.worker;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import io.netty.channel.EventLoopGroup;
+import io.netty.handler.codec.http.QueryStringDecoder;
 
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.commons.logging.Log;
@@ -40,9 +42,10 @@ import org.apache.tajo.catalog.proto.CatalogProtos;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.master.cluster.WorkerConnectionInfo;
-import org.apache.tajo.plan.serder.LogicalNodeDeserializer;
 import org.apache.tajo.plan.util.PlannerUtil;
+import org.apache.tajo.engine.planner.physical.OperatorMetrics;
 import org.apache.tajo.engine.planner.physical.PhysicalExec;
+import org.apache.tajo.engine.planner.physical.RuntimeFilter;
 import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.engine.query.TaskRequest;
 import org.apache.tajo.ipc.QueryMasterProtocol;
@@ -55,9 +58,6 @@ import org.apache.tajo.rpc.NullCallback;
 import org.apache.tajo.storage.*;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.util.NetUtils;
-import org.jboss.netty.channel.socket.ClientSocketChannelFactory;
-import org.jboss.netty.handler.codec.http.QueryStringDecoder;
-import org.jboss.netty.util.Timer;
 
 import java.io.File;
 import java.io.IOException;
@@ -92,6 +92,9 @@ public class Task {
 
   private long startTime;
   private long finishTime;
+  private long fetchWaitTimeNanos;
+  /** the runtime metrics of operators, which are collected before the operators are closed */
+  private final List<OperatorMetrics> operatorMetrics = new ArrayList<OperatorMetrics>();
 
   private final TableStats inputStats;
   private List<FileChunk> localChunks;
@@ -111,18 +114,22 @@ public class Task {
     this.taskId = taskId;
 
     this.systemConf = executionBlockContext.getConf();
-    this.queryContext = request.getQueryContext(systemConf);
+    this.queryContext = executionBlockContext.getQueryContext();
     this.executionBlockContext = executionBlockContext;
     this.taskDir = StorageUtil.concatPath(baseDir,
         taskId.getTaskId().getId() + "_" + taskId.getId());
 
     this.context = new TaskAttemptContext(queryContext, executionBlockContext, taskId,
         request.getFragments().toArray(new FragmentProto[request.getFragments().size()]), taskDir);
-    this.context.setDataChannel(request.getDataChannel());
-    this.context.setEnforcer(request.getEnforcer());
+    this.context.setDataChannel(executionBlockContext.getDataChannel());
+    this.context.setEnforcer(executionBlockContext.getEnforcer());
+    this.context.setProduceRuntimeFilter(request.isProduceRuntimeFilter());
+    for (RuntimeFilterProto runtimeFilter : request.getRuntimeFilters()) {
+      this.context.addRuntimeFilter(new RuntimeFilter(runtimeFilter));
+    }
     this.inputStats = new TableStats();
 
-    plan = LogicalNodeDeserializer.deserialize(queryContext, request.getPlan());
+    plan = executionBlockContext.getSharedResource().newPlanInstance();
     LogicalNode [] scanNode = PlannerUtil.findAllNodes(plan, NodeType.SCAN);
     if (scanNode != null) {
       for (LogicalNode node : scanNode) {
@@ -283,6 +290,10 @@ public class Task {
     if (context.getResultStats() != null) {
       builder.setResultStats(context.getResultStats().getProto());
     }
+
+    builder.setMemoryUsage(context.getMemoryPool().getUsed());
+    builder.setQueryMemoryUsage(executionBlockContext.getWorkerContext().getMemoryManager()
+        .getQueryMemoryUsage(taskId.getTaskId().getExecutionBlockId().getQueryId()));
     return builder.build();
   }
 
@@ -352,9 +363,37 @@ public class Task {
       } while (it.hasNext());
     }
 
+    if (context.hasProducedRuntimeFilter()) {
+      builder.setRuntimeFilter(context.getProducedRuntimeFilter().getProto());
+    }
+
+    builder.addAllWrittenPartitions(context.getWrittenPartitions());
+    builder.setPeakMemoryUsage(context.getMemoryPool().getPeak());
+    for (OperatorMetrics metrics : operatorMetrics) {
+      builder.addOperatorMetrics(metrics.getProto());
+    }
+
     return builder.build();
   }
 
+  private void collectOperatorMetrics() {
+    operatorMetrics.clear();
+    if (context.hasFetchPhase()) {
+      // the time blocked on fetches is reported as a pseudo operator
+      OperatorMetrics fetchMetrics = new OperatorMetrics(-1, "Fetch");
+      fetchMetrics.setWallTimeNanos(fetchWaitTimeNanos);
+      operatorMetrics.add(fetchMetrics);
+    }
+    if (executor != null) {
+      try {
+        executor.collectMetrics(operatorMetrics);
+      } catch (Throwable t) {
+        // the metrics must not affect the result of a task
+        LOG.warn("Failed to collect the operator metrics of " + getId() + ": " + t.getMessage(), t);
+      }
+    }
+  }
+
   private void waitForFetch() throws InterruptedException, IOException {
     context.getFetchLatch().await();
     LOG.info(context.getTaskId() + " All fetches are done!");
@@ -384,12 +423,18 @@ public class Task {
     startTime = System.currentTimeMillis();
     Throwable error = null;
     try {
+      if (context.getState() == TaskAttemptState.TA_KILLED) {
+        // killed before running, e.g., while it is fetching as the next task of a task runner
+        return;
+      }
       context.setState(TaskAttemptState.TA_RUNNING);
 
       if (context.hasFetchPhase()) {
         // If the fetch is still in progress, the query unit must wait for
         // complete.
+        long fetchWaitStart = System.nanoTime();
         waitForFetch();
+        fetchWaitTimeNanos = System.nanoTime() - fetchWaitStart;
         context.setFetcherProgress(FETCHER_PROGRESS);
         context.setProgressChanged(true);
         updateProgress();
@@ -406,6 +451,7 @@ public class Task {
       LOG.error(e.getMessage(), e);
       context.stop();
     } finally {
+      collectOperatorMetrics();
       if (executor != null) {
         try {
           executor.close();
@@ -477,6 +523,9 @@ public class Task {
       LOG.fatal(e.getMessage(), e);
     }
 
+    // return the memory which operators did not release to the query
+    context.getMemoryPool().close();
+
     executionBlockContext.getWorkerContext().getTaskHistoryWriter().appendHistory(taskHistory);
   }
 
@@ -517,6 +566,10 @@ public class Task {
         }
         taskHistory.setFinishedFetchCount(i);
       }
+
+      for (OperatorMetrics metrics : operatorMetrics) {
+        taskHistory.addOperatorMetrics(metrics.getProto());
+      }
     } catch (Exception e) {
       LOG.warn(e.getMessage(), e);
     }
@@ -658,8 +711,7 @@ public class Task {
                                         List<FetchImpl> fetches) throws IOException {
 
     if (fetches.size() > 0) {
-      ClientSocketChannelFactory channelFactory = executionBlockContext.getShuffleChannelFactory();
-      Timer timer = executionBlockContext.getRPCTimer();
+      EventLoopGroup loopGroup = executionBlockContext.getShuffleChannelFactory();
       Path inputDir = executionBlockContext.getLocalDirAllocator().
           getLocalPathToRead(getTaskAttemptDir(ctx.getTaskId()).toString(), systemConf);
 
@@ -710,7 +762,7 @@ public class Task {
           // If we decide that intermediate data should be really fetched from a remote host, storeChunk
           // represents a complete file. Otherwise, storeChunk may represent a complete file or only a part of it
           storeChunk.setEbId(f.getName());
-          Fetcher fetcher = new Fetcher(systemConf, uri, storeChunk, channelFactory, timer);
+          Fetcher fetcher = new Fetcher(systemConf, uri, storeChunk, loopGroup);
           LOG.info("Create a new Fetcher with storeChunk:" + storeChunk.toString());
           runnerList.add(fetcher);
           i++;
@@ -726,7 +778,7 @@ public class Task {
   private FileChunk getLocalStoredFileChunk(URI fetchURI, TajoConf conf) throws IOException {
     // Parse the URI
     LOG.info("getLocalStoredFileChunk starts");
-    final Map<String, List<String>> params = new QueryStringDecoder(fetchURI.toString()).getParameters();
+    final Map<String, List<String>> params = new QueryStringDecoder(fetchURI.toString()).parameters();
     final List<String> types = params.get("type");
     final List<String> qids = params.get("qid");
     final List<String> taskIdList = params.get("ta");
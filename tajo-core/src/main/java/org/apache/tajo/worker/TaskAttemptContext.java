@@ -31,7 +31,10 @@ import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.engine.planner.enforce.Enforcer;
 import org.apache.tajo.engine.planner.global.DataChannel;
+import org.apache.tajo.engine.planner.physical.RuntimeFilter;
 import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.engine.utils.BroadcastTableCache;
+import org.apache.tajo.engine.utils.TableFragmentCache;
 import org.apache.tajo.plan.expr.EvalNode;
 import org.apache.tajo.storage.HashShuffleAppenderManager;
 import org.apache.tajo.storage.fragment.FileFragment;
@@ -59,7 +62,7 @@ public class TaskAttemptContext {
 
   private TaskAttemptState state;
   private TableStats resultStats;
-  private TaskAttemptId queryId;
+  private TaskAttemptId taskAttemptId;
   private final Path workDir;
   private boolean needFetch = false;
   private CountDownLatch doneFetchPhaseSignal;
@@ -78,13 +81,24 @@ public class TaskAttemptContext {
   private QueryContext queryContext;
   private WorkerContext workerContext;
   private ExecutionBlockSharedResource sharedResource;
+  /** the memory budget of this task, from which operators reserve memory */
+  private MemoryPool memoryPool;
+
+  /** runtime join filters which are applied to the scans of this task */
+  private List<RuntimeFilter> runtimeFilters = new ArrayList<RuntimeFilter>();
+  private boolean produceRuntimeFilter = false;
+  /** a runtime join filter built from the shuffle keys of this task's output */
+  private RuntimeFilter producedRuntimeFilter;
+
+  /** the names of the column partitions (e.g., 'col1=a/col2=b') which this task has written to */
+  private Set<String> writtenPartitions = new TreeSet<String>();
 
   /** a output volume for each partition */
   private Map<Integer, Long> partitionOutputVolume;
   private HashShuffleAppenderManager hashShuffleAppenderManager;
 
   public TaskAttemptContext(QueryContext queryContext, final ExecutionBlockContext executionBlockContext,
-                            final TaskAttemptId queryId,
+                            final TaskAttemptId taskAttemptId,
                             final FragmentProto[] fragments,
                             final Path workDir) {
     this.queryContext = queryContext;
@@ -94,7 +108,15 @@ public class TaskAttemptContext {
       this.sharedResource = executionBlockContext.getSharedResource();
     }
 
-    this.queryId = queryId;
+    // each task attempt takes its own child pool of the query memory pool, e.g., <query pool>/ta_<attempt id>
+    String poolName = "ta_" + taskAttemptId;
+    if (executionBlockContext != null && executionBlockContext.getQueryMemoryPool() != null) {
+      this.memoryPool = executionBlockContext.getQueryMemoryPool().newChild(poolName);
+    } else {
+      this.memoryPool = new MemoryPool(poolName, MemoryPool.UNLIMITED);
+    }
+
+    this.taskAttemptId = taskAttemptId;
 
     if (fragments != null) {
       for (FragmentProto t : fragments) {
@@ -127,9 +149,9 @@ public class TaskAttemptContext {
   }
 
   @VisibleForTesting
-  public TaskAttemptContext(final QueryContext queryContext, final TaskAttemptId queryId,
+  public TaskAttemptContext(final QueryContext queryContext, final TaskAttemptId taskAttemptId,
                             final Fragment [] fragments,  final Path workDir) {
-    this(queryContext, null, queryId, FragmentConvertor.toFragmentProtoArray(fragments), workDir);
+    this(queryContext, null, taskAttemptId, FragmentConvertor.toFragmentProtoArray(fragments), workDir);
   }
 
   public TajoConf getConf() {
@@ -161,6 +183,60 @@ public class TaskAttemptContext {
     return this.enforcer;
   }
 
+  public void addRuntimeFilter(RuntimeFilter runtimeFilter) {
+    runtimeFilters.add(runtimeFilter);
+  }
+
+  public List<RuntimeFilter> getRuntimeFilters() {
+    return runtimeFilters;
+  }
+
+  public void setProduceRuntimeFilter(boolean produceRuntimeFilter) {
+    this.produceRuntimeFilter = produceRuntimeFilter;
+  }
+
+  public boolean isProduceRuntimeFilter() {
+    return produceRuntimeFilter;
+  }
+
+  public void setProducedRuntimeFilter(RuntimeFilter runtimeFilter) {
+    this.producedRuntimeFilter = runtimeFilter;
+  }
+
+  public boolean hasProducedRuntimeFilter() {
+    return producedRuntimeFilter != null;
+  }
+
+  public RuntimeFilter getProducedRuntimeFilter() {
+    return producedRuntimeFilter;
+  }
+
+  public void addWrittenPartition(String partitionName) {
+    writtenPartitions.add(partitionName);
+  }
+
+  public Set<String> getWrittenPartitions() {
+    return writtenPartitions;
+  }
+
+  public MemoryPool getMemoryPool() {
+    return memoryPool;
+  }
+
+  /**
+   * @return The broadcast table cache of this worker. Null if this task does not run in a worker.
+   */
+  public BroadcastTableCache getBroadcastTableCache() {
+    return workerContext != null ? workerContext.getBroadcastTableCache() : null;
+  }
+
+  /**
+   * @return The cache of the tables cached by CACHE TABLE. Null if this task does not run in a worker.
+   */
+  public TableFragmentCache getTableFragmentCache() {
+    return workerContext != null ? workerContext.getTableFragmentCache() : null;
+  }
+
   public ExecutionBlockSharedResource getSharedResource() {
     return sharedResource;
   }
@@ -307,7 +383,7 @@ public class TaskAttemptContext {
   }
   
   public TaskAttemptId getTaskId() {
-    return this.queryId;
+    return this.taskAttemptId;
   }
   
   public float getProgress() {
@@ -380,13 +456,13 @@ public class TaskAttemptContext {
   }
   
   public int hashCode() {
-    return Objects.hashCode(queryId);
+    return Objects.hashCode(taskAttemptId);
   }
   
   public boolean equals(Object obj) {
     if (obj instanceof TaskAttemptContext) {
       TaskAttemptContext other = (TaskAttemptContext) obj;
-      return queryId.equals(other.getTaskId());
+      return taskAttemptId.equals(other.getTaskId());
     } else {
       return false;
     }
@@ -397,7 +473,7 @@ public class TaskAttemptContext {
   }
 
   public TaskAttemptId getQueryId() {
-    return queryId;
+    return taskAttemptId;
   }
 
   public HashShuffleAppenderManager getHashShuffleAppenderManager() {
@@ -29,6 +29,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.apache.tajo.TajoProtos.TaskAttemptState;
+import static org.apache.tajo.catalog.proto.CatalogProtos.OperatorMetricsProto;
 import static org.apache.tajo.ipc.TajoWorkerProtocol.FetcherHistoryProto;
 import static org.apache.tajo.ipc.TajoWorkerProtocol.TaskHistoryProto;
 
@@ -50,6 +51,7 @@ public class TaskHistory implements ProtoObject<TaskHistoryProto>, History {
   private int finishedFetchCount;
   private int totalFetchCount;
   private List<FetcherHistoryProto> fetcherHistories;
+  private List<OperatorMetricsProto> operatorMetrics;
 
   public TaskHistory(TaskAttemptId taskAttemptId, TaskAttemptState state, float progress,
                      long startTime, long finishTime, CatalogProtos.TableStatsProto inputStats) {
@@ -91,10 +93,12 @@ public class TaskHistory implements ProtoObject<TaskHistoryProto>, History {
     }
 
     this.fetcherHistories = proto.getFetcherHistoriesList();
+    this.operatorMetrics = proto.getOperatorMetricsList();
   }
 
   private void init() {
     this.fetcherHistories = Lists.newArrayList();
+    this.operatorMetrics = Lists.newArrayList();
   }
 
   @Override
@@ -135,6 +139,7 @@ public class TaskHistory implements ProtoObject<TaskHistoryProto>, History {
     }
 
     builder.addAllFetcherHistories(fetcherHistories);
+    builder.addAllOperatorMetrics(operatorMetrics);
     return builder.build();
   }
 
@@ -158,6 +163,14 @@ public class TaskHistory implements ProtoObject<TaskHistoryProto>, History {
     fetcherHistories.add(fetcherHistory);
   }
 
+  public List<OperatorMetricsProto> getOperatorMetrics() {
+    return Collections.unmodifiableList(operatorMetrics);
+  }
+
+  public void addOperatorMetrics(OperatorMetricsProto metrics) {
+    operatorMetrics.add(metrics);
+  }
+
   public TaskAttemptId getTaskAttemptId() {
     return taskAttemptId;
   }
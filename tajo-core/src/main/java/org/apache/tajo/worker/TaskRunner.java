@@ -18,13 +18,16 @@
 
 package org.apache.tajo.worker;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.channel.ConnectTimeoutException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.service.AbstractService;
 import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.TajoProtos.TaskAttemptState;
 import org.apache.tajo.TaskAttemptId;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.conf.TajoConf.ConfVars;
@@ -35,8 +38,12 @@ import org.apache.tajo.master.container.TajoContainerIdPBImpl;
 import org.apache.tajo.master.container.TajoConverterUtils;
 import org.apache.tajo.rpc.CallFuture;
 import org.apache.tajo.rpc.NullCallback;
-import org.jboss.netty.channel.ConnectTimeoutException;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.*;
 
 import static org.apache.tajo.ipc.TajoWorkerProtocol.*;
@@ -68,6 +75,10 @@ public class TaskRunner extends AbstractService {
 
   private TaskRunnerHistory history;
 
+  // the assigned tasks which are not launched yet. A task is moved from here to the tasks of
+  // ExecutionBlockContext while holding the lock of this list, so a kill request always finds it in one of them.
+  private final LinkedList<TaskRequestProto> assignedTasks = new LinkedList<TaskRequestProto>();
+
   public TaskRunner(ExecutionBlockContext executionBlockContext, String containerId) {
     super(TaskRunner.class.getName());
 
@@ -185,8 +196,11 @@ public class TaskRunner extends AbstractService {
         @Override
         public void run() {
           int receivedNum = 0;
-          CallFuture<TaskRequestProto> callFuture = null;
-          TaskRequestProto taskRequest = null;
+          int maxAssignedTaskNum = systemConf.getIntVar(ConfVars.WORKER_TASK_RUNNER_MAX_ASSIGNED_TASKS);
+          CallFuture<TaskRequestsProto> callFuture = null;
+          TaskRequestsProto taskRequests = null;
+          // the next task whose fetch is performed during the execution of the current task
+          Task prefetchedTask = null;
 
           while(!stopped) {
             QueryMasterProtocolService.Interface qmClientService;
@@ -206,91 +220,95 @@ public class TaskRunner extends AbstractService {
             }
 
             try {
-              if (callFuture == null) {
-                callFuture = new CallFuture<TaskRequestProto>();
-                LOG.info("Request GetTask: " + getId());
-                GetTaskRequestProto request = GetTaskRequestProto.newBuilder()
-                    .setExecutionBlockId(getExecutionBlockId().getProto())
-                    .setContainerId(((TajoContainerIdPBImpl) containerId).getProto())
-                    .setWorkerId(getContext().getWorkerContext().getConnectionInfo().getId())
-                    .build();
-
-                qmClientService.getTask(callFuture.getController(), request, callFuture);
-              }
-              try {
-                // wait for an assigning task for 3 seconds
-                taskRequest = callFuture.get(3, TimeUnit.SECONDS);
-              } catch (InterruptedException e) {
-                if(stopped) {
-                  break;
-                }
-              } catch (TimeoutException te) {
-                if(stopped) {
-                  break;
+              if (prefetchedTask == null && !hasAssignedTasks()) {
+                if (callFuture == null) {
+                  callFuture = new CallFuture<TaskRequestsProto>();
+                  LOG.info("Request GetTask: " + getId());
+                  GetTaskRequestProto request = GetTaskRequestProto.newBuilder()
+                      .setExecutionBlockId(getExecutionBlockId().getProto())
+                      .setContainerId(((TajoContainerIdPBImpl) containerId).getProto())
+                      .setWorkerId(getContext().getWorkerContext().getConnectionInfo().getId())
+                      .setMaxTaskNum(maxAssignedTaskNum)
+                      .build();
+
+                  qmClientService.getTask(callFuture.getController(), request, callFuture);
                 }
+                try {
+                  // wait for assigning tasks for 3 seconds
+                  taskRequests = callFuture.get(3, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                  if(stopped) {
+                    break;
+                  }
+                } catch (TimeoutException te) {
+                  if(stopped) {
+                    break;
+                  }
 
-                if(callFuture.getController().failed()){
-                  LOG.error(callFuture.getController().errorText());
-                  break;
-                }
-                // if there has been no assigning task for a given period,
-                // TaskRunner will retry to request an assigning task.
-                if (LOG.isDebugEnabled()) {
-                  LOG.info("Retry assigning task:" + getId());
+                  if(callFuture.getController().failed()){
+                    LOG.error(callFuture.getController().errorText());
+                    break;
+                  }
+                  // if there has been no assigning task for a given period,
+                  // TaskRunner will retry to request an assigning task.
+                  if (LOG.isDebugEnabled()) {
+                    LOG.info("Retry assigning task:" + getId());
+                  }
+                  continue;
                 }
-                continue;
-              }
+                callFuture = null;
 
-              if (taskRequest != null) {
-                // QueryMaster can send the terminal signal to TaskRunner.
-                // If TaskRunner receives the terminal signal, TaskRunner will be terminated
-                // immediately.
-                if (taskRequest.getShouldDie()) {
-                  LOG.info("Received ShouldDie flag:" + getId());
+                if (taskRequests == null) {
                   stop();
                   //notify to TaskRunnerManager
                   getContext().stopTaskRunner(getId());
-                } else {
-                  getContext().getWorkerContext().getWorkerSystemMetrics().counter("query", "task").inc();
-                  LOG.info("Accumulated Received Task: " + (++receivedNum));
+                  continue;
+                }
 
-                  TaskAttemptId taskAttemptId = new TaskAttemptId(taskRequest.getId());
-                  if (getContext().getTasks().containsKey(taskAttemptId)) {
-                    LOG.error("Duplicate Task Attempt: " + taskAttemptId);
-                    fatalError(qmClientService, taskAttemptId, "Duplicate Task Attempt: " + taskAttemptId);
-                    continue;
+                for (TaskRequestProto taskRequest : taskRequests.getTaskRequestsList()) {
+                  // QueryMaster can send the terminal signal to TaskRunner.
+                  // If TaskRunner receives the terminal signal, TaskRunner will be terminated
+                  // immediately.
+                  if (taskRequest.getShouldDie()) {
+                    LOG.info("Received ShouldDie flag:" + getId());
+                    stop();
+                    //notify to TaskRunnerManager
+                    getContext().stopTaskRunner(getId());
+                    break;
                   }
-
-                  LOG.info("Initializing: " + taskAttemptId);
-                  Task task;
-                  try {
-                    task = new Task(getId(), getTaskBaseDir(), taskAttemptId, executionBlockContext,
-                        new TaskRequestImpl(taskRequest));
-                    getContext().getTasks().put(taskAttemptId, task);
-
-                    task.init();
-                    if (task.hasFetchPhase()) {
-                      task.fetch(); // The fetch is performed in an asynchronous way.
-                    }
-                    // task.run() is a blocking call.
-                    task.run();
-                  } catch (Throwable t) {
-                    LOG.error(t.getMessage(), t);
-                    fatalError(qmClientService, taskAttemptId, t.getMessage());
-                  } finally {
-                    callFuture = null;
-                    taskRequest = null;
+                  getContext().getWorkerContext().getWorkerSystemMetrics().counter("query", "task").inc();
+                  synchronized (assignedTasks) {
+                    assignedTasks.add(taskRequest);
                   }
+                  receivedNum++;
                 }
-              } else {
-                stop();
-                //notify to TaskRunnerManager
-                getContext().stopTaskRunner(getId());
+                LOG.info("Accumulated Received Task: " + receivedNum);
+                taskRequests = null;
+                continue;
+              }
+
+              Task task = prefetchedTask != null ? prefetchedTask : launchTask(qmClientService);
+              prefetchedTask = null;
+              if (task == null) {
+                continue;
+              }
+
+              // the fetch of the next task overlaps the execution of this task.
+              prefetchedTask = launchTask(qmClientService);
+
+              try {
+                // task.run() is a blocking call.
+                task.run();
+              } catch (Throwable t) {
+                LOG.error(t.getMessage(), t);
+                fatalError(qmClientService, task.getId(), t.getMessage());
               }
             } catch (Throwable t) {
               LOG.fatal(t.getMessage(), t);
             }
           }
+
+          killRemainingTasks(prefetchedTask);
         }
       });
       taskLauncher.start();
@@ -299,6 +317,122 @@ public class TaskRunner extends AbstractService {
     }
   }
 
+  private boolean hasAssignedTasks() {
+    synchronized (assignedTasks) {
+      return !assignedTasks.isEmpty();
+    }
+  }
+
+  /**
+   * Takes the next assigned task, initializes it and starts its fetch, which is performed asynchronously.
+   *
+   * @return The initialized task, or null if there is no assigned task or it fails
+   */
+  private Task launchTask(QueryMasterProtocolService.Interface qmClientService) {
+    TaskAttemptId taskAttemptId;
+    Task task;
+    synchronized (assignedTasks) {
+      TaskRequestProto taskRequest = assignedTasks.poll();
+      if (taskRequest == null) {
+        return null;
+      }
+
+      taskAttemptId = new TaskAttemptId(taskRequest.getId());
+      if (getContext().getTasks().containsKey(taskAttemptId)) {
+        LOG.error("Duplicate Task Attempt: " + taskAttemptId);
+        fatalError(qmClientService, taskAttemptId, "Duplicate Task Attempt: " + taskAttemptId);
+        return null;
+      }
+
+      try {
+        task = newTask(taskAttemptId, taskRequest);
+        getContext().getTasks().put(taskAttemptId, task);
+      } catch (Throwable t) {
+        LOG.error(t.getMessage(), t);
+        fatalError(qmClientService, taskAttemptId, t.getMessage());
+        return null;
+      }
+    }
+
+    LOG.info("Initializing: " + taskAttemptId);
+    try {
+      task.init();
+      if (task.hasFetchPhase()) {
+        task.fetch(); // The fetch is performed in an asynchronous way.
+      }
+      return task;
+    } catch (Throwable t) {
+      LOG.error(t.getMessage(), t);
+      fatalError(qmClientService, taskAttemptId, t.getMessage());
+      return null;
+    }
+  }
+
+  @VisibleForTesting
+  Task newTask(TaskAttemptId taskAttemptId, TaskRequestProto taskRequest) throws IOException {
+    return new Task(getId(), getTaskBaseDir(), taskAttemptId, executionBlockContext, new TaskRequestImpl(taskRequest));
+  }
+
+  /**
+   * Removes a task attempt from the assigned tasks which are not launched yet, and reports it as killed.
+   *
+   * @return true if the task attempt was waiting in this task runner
+   */
+  public boolean killAssignedTask(TaskAttemptId taskAttemptId) {
+    synchronized (assignedTasks) {
+      Iterator<TaskRequestProto> it = assignedTasks.iterator();
+      while (it.hasNext()) {
+        if (taskAttemptId.getProto().equals(it.next().getId())) {
+          it.remove();
+          reportKilled(taskAttemptId);
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Kills the tasks which this task runner has received but not run when it stops,
+   * so that the query master does not wait for them.
+   */
+  private void killRemainingTasks(Task prefetchedTask) {
+    if (prefetchedTask != null) {
+      prefetchedTask.kill();
+      try {
+        // a killed task only reports its state and cleans up itself
+        prefetchedTask.run();
+      } catch (Throwable t) {
+        LOG.error(t.getMessage(), t);
+      }
+    }
+
+    List<TaskRequestProto> remainingTasks;
+    synchronized (assignedTasks) {
+      remainingTasks = new ArrayList<TaskRequestProto>(assignedTasks);
+      assignedTasks.clear();
+    }
+    for (TaskRequestProto taskRequest : remainingTasks) {
+      reportKilled(new TaskAttemptId(taskRequest.getId()));
+    }
+  }
+
+  private void reportKilled(TaskAttemptId taskAttemptId) {
+    LOG.info("Killed before launching: " + taskAttemptId);
+    TaskStatusProto status = TaskStatusProto.newBuilder()
+        .setId(taskAttemptId.getProto())
+        .setWorkerName(getContext().getWorkerContext().getConnectionInfo().getHostAndPeerRpcPort())
+        .setProgress(0.0f)
+        .setState(TaskAttemptState.TA_KILLED)
+        .build();
+    try {
+      getContext().getQueryMasterStub().statusUpdate(null, status, NullCallback.get());
+      getContext().killedTasksNum.incrementAndGet();
+    } catch (Throwable t) {
+      LOG.error("Cannot report the killed task " + taskAttemptId + ": " + t.getMessage(), t);
+    }
+  }
+
   /**
    * @return true if a stop has been requested.
    */
@@ -18,6 +18,7 @@
 
 package org.apache.tajo.worker;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
 import org.apache.commons.logging.Log;
@@ -29,12 +30,9 @@ import org.apache.hadoop.yarn.event.EventHandler;
 import org.apache.tajo.ExecutionBlockId;
 import org.apache.tajo.TaskAttemptId;
 import org.apache.tajo.conf.TajoConf;
-import org.apache.tajo.engine.utils.TupleCache;
 import org.apache.tajo.worker.event.TaskRunnerEvent;
 import org.apache.tajo.worker.event.TaskRunnerStartEvent;
 import org.apache.tajo.worker.event.TaskRunnerStopEvent;
-import org.jboss.netty.util.HashedWheelTimer;
-import org.jboss.netty.util.Timer;
 
 import java.io.IOException;
 import java.util.*;
@@ -52,7 +50,6 @@ public class TaskRunnerManager extends CompositeService implements EventHandler<
   private AtomicBoolean stop = new AtomicBoolean(false);
   private FinishedTaskCleanThread finishedTaskCleanThread;
   private Dispatcher dispatcher;
-  private HashedWheelTimer rpcTimer;
 
   public TaskRunnerManager(TajoWorker.WorkerContext workerContext, Dispatcher dispatcher) {
     super(TaskRunnerManager.class.getName());
@@ -77,7 +74,6 @@ public class TaskRunnerManager extends CompositeService implements EventHandler<
   public void start() {
     finishedTaskCleanThread = new FinishedTaskCleanThread();
     finishedTaskCleanThread.start();
-    rpcTimer = new HashedWheelTimer();
     super.start();
   }
 
@@ -102,10 +98,6 @@ public class TaskRunnerManager extends CompositeService implements EventHandler<
       finishedTaskCleanThread.interrupted();
     }
 
-    if(rpcTimer != null){
-      rpcTimer.stop();
-    }
-
     super.stop();
     if(workerContext.isYarnContainerMode()) {
       workerContext.stopWorker(true);
@@ -137,6 +129,24 @@ public class TaskRunnerManager extends CompositeService implements EventHandler<
     return taskRunnerMap.get(taskRunnerId);
   }
 
+  /**
+   * Kills a task attempt which is either running or waiting in a task runner.
+   */
+  public void killTaskAttempt(TaskAttemptId taskAttemptId) {
+    // a task runner moves a waiting task to the running tasks atomically, so the waiting tasks are checked first.
+    ExecutionBlockId ebId = taskAttemptId.getTaskId().getExecutionBlockId();
+    for (TaskRunner taskRunner : taskRunnerMap.values()) {
+      if (ebId.equals(taskRunner.getExecutionBlockId()) && taskRunner.killAssignedTask(taskAttemptId)) {
+        return;
+      }
+    }
+
+    Task task = getTaskByTaskAttemptId(taskAttemptId);
+    if (task != null) {
+      task.kill();
+    }
+  }
+
   public Task getTaskByTaskAttemptId(TaskAttemptId taskAttemptId) {
     ExecutionBlockContext context = executionBlockContextMap.get(taskAttemptId.getTaskId().getExecutionBlockId());
     if (context != null) {
@@ -156,6 +166,13 @@ public class TaskRunnerManager extends CompositeService implements EventHandler<
     return null;
   }
 
+  @VisibleForTesting
+  void addTaskRunner(ExecutionBlockContext context, TaskRunner taskRunner) {
+    executionBlockContextMap.putIfAbsent(taskRunner.getExecutionBlockId(), context);
+    taskRunnerMap.put(taskRunner.getId(), taskRunner);
+    taskRunnerHistoryMap.put(taskRunner.getId(), taskRunner.getHistory());
+  }
+
   public int getNumTasks() {
     return taskRunnerMap.size();
   }
@@ -179,8 +196,7 @@ public class TaskRunnerManager extends CompositeService implements EventHandler<
 
       TaskRunner taskRunner = new TaskRunner(context, startEvent.getContainerId());
       LOG.info("Start TaskRunner:" + taskRunner.getId());
-      taskRunnerMap.put(taskRunner.getId(), taskRunner);
-      taskRunnerHistoryMap.put(taskRunner.getId(), taskRunner.getHistory());
+      addTaskRunner(context, taskRunner);
 
       taskRunner.init(context.getConf());
       taskRunner.start();
@@ -189,7 +205,7 @@ public class TaskRunnerManager extends CompositeService implements EventHandler<
       ExecutionBlockContext executionBlockContext =  executionBlockContextMap.remove(event.getExecutionBlockId());
       if(executionBlockContext != null){
         try {
-          TupleCache.getInstance().removeBroadcastCache(event.getExecutionBlockId());
+          workerContext.getBroadcastTableCache().removeExecutionBlock(event.getExecutionBlockId());
           executionBlockContext.reportExecutionBlock(event.getExecutionBlockId());
           workerContext.getHashShuffleAppenderManager().close(event.getExecutionBlockId());
           workerContext.getTaskHistoryWriter().flushTaskHistories();
@@ -212,10 +228,6 @@ public class TaskRunnerManager extends CompositeService implements EventHandler<
     return tajoConf;
   }
 
-  public Timer getRPCTimer(){
-    return rpcTimer;
-  }
-
   class FinishedTaskCleanThread extends Thread {
     //TODO if history size is large, the historyMap should remove immediately
     public void run() {
@@ -26,6 +26,7 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.service.AbstractService;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.utils.TableFragmentCache;
 import org.apache.tajo.ha.HAServiceUtil;
 import org.apache.tajo.ipc.QueryCoordinatorProtocol.ClusterResourceSummary;
 import org.apache.tajo.ipc.QueryCoordinatorProtocol.ServerStatusProto;
@@ -40,7 +41,9 @@ import org.apache.tajo.storage.DiskMountInfo;
 import org.apache.tajo.storage.DiskUtil;
 
 import java.io.File;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -209,6 +212,9 @@ public class WorkerHeartbeatService extends AbstractService {
               context.setNumClusterNodes(clusterResourceSummary.getNumWorkers());
             }
             context.setClusterResource(clusterResourceSummary);
+            if (response.hasResponseCommand()) {
+              handleCommand(response.getResponseCommand());
+            }
           } else {
             if(callBack.getController().failed()) {
               throw new ServiceException(callBack.getController().errorText());
@@ -243,6 +249,21 @@ public class WorkerHeartbeatService extends AbstractService {
       LOG.info("Worker Resource Heartbeat Thread stopped.");
     }
 
+    private void handleCommand(TajoHeartbeatResponse.ResponseCommand command) {
+      if (TableFragmentCache.RETAIN_COMMAND.equals(command.getCommand())) {
+        TableFragmentCache cache = context.getTableFragmentCache();
+        if (cache != null && command.getParamsCount() > 0) {
+          Set<Long> validCacheIds = new HashSet<Long>();
+          for (int i = 1; i < command.getParamsCount(); i++) {
+            validCacheIds.add(Long.parseLong(command.getParams(i)));
+          }
+          cache.retain(Long.parseLong(command.getParams(0)), validCacheIds);
+        }
+      } else {
+        LOG.warn("Unknown heartbeat response command: " + command.getCommand());
+      }
+    }
+
     private void getDiskUsageInfos() {
       diskInfos.clear();
       for(DiskDeviceInfo eachDevice: diskDeviceInfos) {
@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import com.google.common.collect.Maps;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.conf.TajoConf.ConfVars;
+
+import java.util.Map;
+
+/**
+ * It manages the root memory pool of a worker and a memory pool for each query running on the worker.
+ * Each execution block running on a worker acquires the pool of its query, and the pool is removed
+ * when all of them release it.
+ */
+public class WorkerMemoryManager {
+  private static final Log LOG = LogFactory.getLog(WorkerMemoryManager.class);
+
+  private final MemoryPool rootPool;
+  private final Map<QueryId, QueryMemoryPool> queryPools = Maps.newHashMap();
+
+  private static class QueryMemoryPool {
+    final MemoryPool pool;
+    int refCount = 0;
+
+    QueryMemoryPool(MemoryPool pool) {
+      this.pool = pool;
+    }
+  }
+
+  public WorkerMemoryManager(TajoConf conf) {
+    this((long) (Runtime.getRuntime().maxMemory() * conf.getFloatVar(ConfVars.WORKER_MEMORY_MANAGER_HEAP_RATIO)));
+  }
+
+  public WorkerMemoryManager(long limit) {
+    this.rootPool = new MemoryPool("worker", limit);
+    LOG.info("Worker memory manager is initialized: " + rootPool);
+  }
+
+  public MemoryPool getRootPool() {
+    return rootPool;
+  }
+
+  /**
+   * Returns the memory pool of a query, and it creates the pool if it does not exist.
+   *
+   * @param queryId The query id
+   * @param limit The maximum bytes which the query can use in this worker. If it is not positive,
+   *              the query is bounded only by the worker.
+   */
+  public synchronized MemoryPool acquireQueryPool(QueryId queryId, long limit) {
+    QueryMemoryPool queryPool = queryPools.get(queryId);
+    if (queryPool == null) {
+      queryPool = new QueryMemoryPool(
+          rootPool.newChild(queryId.toString(), limit > 0 ? limit : MemoryPool.UNLIMITED));
+      queryPools.put(queryId, queryPool);
+    }
+    queryPool.refCount++;
+    return queryPool.pool;
+  }
+
+  public synchronized void releaseQueryPool(QueryId queryId) {
+    QueryMemoryPool queryPool = queryPools.get(queryId);
+    if (queryPool != null && --queryPool.refCount <= 0) {
+      queryPools.remove(queryId);
+      LOG.info("Memory usage of " + queryPool.pool);
+      queryPool.pool.close();
+    }
+  }
+
+  /**
+   * @return The bytes which are currently used by the query in this worker. 0 if the query is not running.
+   */
+  public synchronized long getQueryMemoryUsage(QueryId queryId) {
+    QueryMemoryPool queryPool = queryPools.get(queryId);
+    return queryPool == null ? 0 : queryPool.pool.getUsed();
+  }
+
+  public synchronized int getNumQueries() {
+    return queryPools.size();
+  }
+}
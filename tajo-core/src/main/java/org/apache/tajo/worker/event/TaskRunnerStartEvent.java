@@ -19,26 +19,19 @@
 package org.apache.tajo.worker.event;
 
 import org.apache.tajo.ExecutionBlockId;
-import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.master.cluster.WorkerConnectionInfo;
 
 public class TaskRunnerStartEvent extends TaskRunnerEvent {
 
-  private final QueryContext queryContext;
   private final WorkerConnectionInfo queryMaster;
   private final String containerId;
-  private final String plan;
 
   public TaskRunnerStartEvent(WorkerConnectionInfo queryMaster,
                               ExecutionBlockId executionBlockId,
-                              String containerId,
-                              QueryContext context,
-                              String plan) {
+                              String containerId) {
     super(EventType.START, executionBlockId);
     this.queryMaster = queryMaster;
     this.containerId = containerId;
-    this.queryContext = context;
-    this.plan = plan;
   }
 
   public WorkerConnectionInfo getQueryMaster() {
@@ -48,12 +41,4 @@ public class TaskRunnerStartEvent extends TaskRunnerEvent {
   public String getContainerId() {
     return containerId;
   }
-
-  public QueryContext getQueryContext() {
-    return queryContext;
-  }
-
-  public String getPlan() {
-    return plan;
-  }
 }
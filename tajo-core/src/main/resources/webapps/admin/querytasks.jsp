@@ -165,6 +165,11 @@
     <tr><td align='right'>Output Rows:</td><td><%=nf.format(totalWriteRows)%></td></tr>
   </table>
   <hr/>
+<% if (stage.getOperatorMetrics() != null && !stage.getOperatorMetrics().isEmpty()) { %>
+  <h3>Operators</h3>
+  <%=JSPUtil.getOperatorMetricsTable(stage.getOperatorMetrics())%>
+  <hr/>
+<% } %>
 
   <form action='querytasks.jsp' method='GET'>
   Status:
@@ -24,6 +24,7 @@
 <%@ page import="org.apache.tajo.TaskAttemptId" %>
 <%@ page import="org.apache.tajo.catalog.statistics.TableStats" %>
 <%@ page import="org.apache.tajo.plan.util.PlannerUtil" %>
+<%@ page import="org.apache.tajo.engine.planner.physical.OperatorMetrics" %>
 <%@ page import="org.apache.tajo.ipc.QueryCoordinatorProtocol" %>
 <%@ page import="org.apache.tajo.querymaster.*" %>
 <%@ page import="org.apache.tajo.webapp.StaticHttpServer" %>
@@ -179,6 +180,15 @@
     <tr><td align='right'>Output Rows:</td><td><%=nf.format(totalWriteRows)%></td></tr>
   </table>
   <hr/>
+<%
+  List<OperatorMetrics> operatorMetrics =
+      stage.getStageHistory().getOperatorMetrics();
+  if (operatorMetrics != null && !operatorMetrics.isEmpty()) {
+%>
+  <h3>Operators</h3>
+  <%=JSPUtil.getOperatorMetricsTable(operatorMetrics)%>
+  <hr/>
+<% } %>
 
   <form action='querytasks.jsp' method='GET'>
   Status:
@@ -352,4 +352,61 @@ public class TestBuiltinFunctions extends QueryTestCaseBase {
     assertResultSet(res);
     cleanupQuery(res);
   }
+
+  @Test
+  public void testApproxAggregationFunctions() throws Exception {
+    ResultSet res = executeString("select approx_count_distinct(l_orderkey) as cnt, approx_median(l_quantity) as med, " +
+        "approx_percentile(l_quantity, 0.0) as p0, approx_percentile(l_quantity, 1.0) as p100 from lineitem");
+    String expected = "cnt,med,p0,p100\n" +
+        "-------------------------------\n" +
+        "3,38.0,17.0,49.0\n";
+    assertEquals(expected, resultSetToString(res));
+    res.close();
+  }
+
+  @Test
+  public void testApproxCountDistinctWithGroupBy() throws Exception {
+    ResultSet res = executeString("select l_returnflag, approx_count_distinct(l_partkey) as cnt from lineitem " +
+        "group by l_returnflag order by l_returnflag");
+    String expected = "l_returnflag,cnt\n" +
+        "-------------------------------\n" +
+        "N,2\n" +
+        "R,2\n";
+    assertEquals(expected, resultSetToString(res));
+    res.close();
+  }
+
+  @Test
+  public void testApproxTopK() throws Exception {
+    ResultSet res = executeString("select approx_top_k(l_orderkey, 2) as top2, approx_top_k(l_returnflag, 1) as top1 " +
+        "from lineitem");
+    String expected = "top2,top1\n" +
+        "-------------------------------\n" +
+        "{\"1\": 2, \"3\": 2},{\"N\": 3}\n";
+    assertEquals(expected, resultSetToString(res));
+    res.close();
+  }
+
+  @Test
+  public void testApproxTopKWithControlCharacters() throws Exception {
+    KeyValueSet tableOptions = new KeyValueSet();
+    tableOptions.set(StorageConstants.TEXT_DELIMITER, StorageConstants.DEFAULT_FIELD_DELIMITER);
+
+    Schema schema = new Schema();
+    schema.addColumn("id", TajoDataTypes.Type.INT4);
+    schema.addColumn("name", TajoDataTypes.Type.TEXT);
+    String[] data = new String[]{ "1|a\tb\"c", "2|a\tb\"c", "3|d\u0001" };
+    TajoTestingCluster.createTable("table_top_k", schema, tableOptions, data, 1);
+
+    try {
+      ResultSet res = executeString("select approx_top_k(name, 2) as top2 from table_top_k");
+      String expected = "top2\n" +
+          "-------------------------------\n" +
+          "{\"a\\tb\\\"c\": 2, \"d\\u0001\": 1}\n";
+      assertEquals(expected, resultSetToString(res));
+      res.close();
+    } finally {
+      executeString("DROP TABLE table_top_k PURGE");
+    }
+  }
 }
@@ -20,6 +20,9 @@ package org.apache.tajo.engine.parser;
 
 import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.apache.tajo.algebra.AlterTable;
+import org.apache.tajo.algebra.AlterTableOpType;
+import org.apache.tajo.algebra.CacheTable;
 import org.apache.tajo.algebra.CreateTable;
 import org.apache.tajo.algebra.Expr;
 import org.apache.tajo.algebra.LiteralValue;
@@ -33,6 +36,7 @@ import java.io.IOException;
 import java.util.Iterator;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -592,4 +596,38 @@ public class TestSQLAnalyzer {
   public void testSetSession7() throws IOException {
     assertParseResult("setsession7.sql", "setsession7.result");
   }
+
+  @Test
+  public void testAlterTablePartition() throws IOException {
+    AlterTable addPartition = (AlterTable) parseQuery(
+        "ALTER TABLE table1 ADD PARTITION (col1 = 1, col2 = 'abc') LOCATION 'hdfs://xxx.com/warehouse/table1/p1'");
+    assertEquals(AlterTableOpType.ADD_PARTITION, addPartition.getAlterTableOpType());
+    assertEquals("col1", addPartition.getPartitionColumns()[0]);
+    assertEquals("col2", addPartition.getPartitionColumns()[1]);
+    assertEquals("1", addPartition.getPartitionValues()[0]);
+    assertEquals("abc", addPartition.getPartitionValues()[1]);
+    assertEquals("hdfs://xxx.com/warehouse/table1/p1", addPartition.getLocation());
+
+    AlterTable dropPartition = (AlterTable) parseQuery("ALTER TABLE table1 DROP PARTITION (col1 = -1)");
+    assertEquals(AlterTableOpType.DROP_PARTITION, dropPartition.getAlterTableOpType());
+    assertEquals("-1", dropPartition.getPartitionValues()[0]);
+
+    AlterTable repairPartition = (AlterTable) parseQuery("ALTER TABLE table1 REPAIR PARTITION");
+    assertEquals(AlterTableOpType.REPAIR_PARTITION, repairPartition.getAlterTableOpType());
+  }
+
+  @Test
+  public void testCacheTable() throws IOException {
+    CacheTable cache = (CacheTable) parseQuery("CACHE TABLE db1.table1");
+    assertEquals(OpType.CacheTable, cache.getType());
+    assertEquals("db1.table1", cache.getTableName());
+    assertTrue(cache.isCache());
+
+    CacheTable uncache = (CacheTable) parseQuery("uncache table table1");
+    assertEquals("table1", uncache.getTableName());
+    assertFalse(uncache.isCache());
+
+    // CACHE and UNCACHE are not reserved
+    assertEquals(OpType.Projection, parseQuery("SELECT cache, uncache FROM table1").getType());
+  }
 }
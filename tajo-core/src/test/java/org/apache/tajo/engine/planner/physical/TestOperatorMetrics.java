@@ -0,0 +1,221 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestOperatorMetrics {
+  private static final Schema SCHEMA = new Schema();
+  static {
+    SCHEMA.addColumn("id", Type.INT4);
+  }
+
+  /** produces the rows from 0 to rowNum - 1 */
+  private static class RangeExec extends PhysicalExec {
+    private final int rowNum;
+    private int current = 0;
+
+    RangeExec(int rowNum) {
+      super(null, SCHEMA, SCHEMA);
+      this.rowNum = rowNum;
+    }
+
+    @Override
+    protected Tuple nextTuple() throws IOException {
+      if (current >= rowNum) {
+        return null;
+      }
+      Tuple tuple = new VTuple(1);
+      tuple.put(0, DatumFactory.createInt4(current++));
+      return tuple;
+    }
+
+    @Override
+    public void rescan() throws IOException {
+      current = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+    }
+
+    @Override
+    public float getProgress() {
+      return 0;
+    }
+  }
+
+  /** drops the odd rows */
+  private static class EvenFilterExec extends UnaryPhysicalExec {
+    EvenFilterExec(PhysicalExec child) {
+      super(null, SCHEMA, SCHEMA, child);
+    }
+
+    @Override
+    protected Tuple nextTuple() throws IOException {
+      Tuple tuple;
+      while ((tuple = child.next()) != null) {
+        if (tuple.get(0).asInt4() % 2 == 0) {
+          return tuple;
+        }
+      }
+      return null;
+    }
+  }
+
+  /** consumes all rows of the child at the first call and returns their number, like a blocking operator */
+  private static class CountExec extends UnaryPhysicalExec {
+    private boolean done = false;
+
+    CountExec(PhysicalExec child) {
+      super(null, SCHEMA, SCHEMA, child);
+    }
+
+    @Override
+    protected Tuple nextTuple() throws IOException {
+      if (done) {
+        return null;
+      }
+      int count = 0;
+      while (child.next() != null) {
+        count++;
+      }
+      done = true;
+      Tuple tuple = new VTuple(1);
+      tuple.put(0, DatumFactory.createInt4(count));
+      return tuple;
+    }
+  }
+
+  @Test
+  public final void testCollectMetrics() throws IOException {
+    PhysicalExec leaf = new RangeExec(1000);
+    leaf.assignPlanNodeId(1);
+    PhysicalExec root = new EvenFilterExec(leaf);
+    root.assignPlanNodeId(2);
+
+    int count = 0;
+    while (root.next() != null) {
+      count++;
+    }
+    assertEquals(500, count);
+
+    List<OperatorMetrics> metricsList = new ArrayList<OperatorMetrics>();
+    root.collectMetrics(metricsList);
+    assertEquals(2, metricsList.size());
+
+    OperatorMetrics filterMetrics = metricsList.get(0);
+    assertEquals(2, filterMetrics.getPlanNodeId());
+    assertEquals("EvenFilterExec", filterMetrics.getName());
+    assertEquals(1000, filterMetrics.getInputRows());
+    assertEquals(500, filterMetrics.getOutputRows());
+
+    OperatorMetrics leafMetrics = metricsList.get(1);
+    assertEquals(1, leafMetrics.getPlanNodeId());
+    assertEquals(1000, leafMetrics.getOutputRows());
+    assertTrue(leafMetrics.getWallTimeNanos() > 0);
+    assertTrue(leafMetrics.getCpuTimeNanos() <= leafMetrics.getWallTimeNanos());
+  }
+
+  @Test
+  public final void testFirstCallMetrics() throws IOException {
+    PhysicalExec leaf = new RangeExec(100000);
+    leaf.assignPlanNodeId(1);
+    PhysicalExec root = new CountExec(leaf);
+    root.assignPlanNodeId(2);
+
+    assertEquals(100000, root.next().get(0).asInt4());
+    assertNull(root.next());
+
+    List<OperatorMetrics> metricsList = new ArrayList<OperatorMetrics>();
+    root.collectMetrics(metricsList);
+    assertEquals(2, metricsList.size());
+
+    // the first call of the root consumes all rows of the leaf, but it excludes the time spent in the leaf
+    OperatorMetrics countMetrics = metricsList.get(0);
+    assertEquals(100000, countMetrics.getInputRows());
+    assertEquals(1, countMetrics.getOutputRows());
+    assertTrue(countMetrics.getFirstCallWallTimeNanos() <= countMetrics.getWallTimeNanos());
+    assertTrue(countMetrics.getFirstCallCpuTimeNanos() <= countMetrics.getFirstCallWallTimeNanos());
+    assertTrue(countMetrics.getCpuTimeNanos() <= countMetrics.getWallTimeNanos());
+
+    OperatorMetrics leafMetrics = metricsList.get(1);
+    assertTrue(leafMetrics.getWallTimeNanos() > 0);
+    assertTrue(leafMetrics.getFirstCallWallTimeNanos() <= leafMetrics.getWallTimeNanos());
+    assertTrue(leafMetrics.getCpuTimeNanos() <= leafMetrics.getWallTimeNanos());
+  }
+
+  @Test
+  public final void testAssignPlanNodeIdToHelperOperators() {
+    PhysicalExec leaf = new RangeExec(10);
+    leaf.assignPlanNodeId(1);
+    // an operator added by the planner without its own logical node
+    PhysicalExec helper = new EvenFilterExec(leaf);
+    PhysicalExec root = new EvenFilterExec(helper);
+    root.assignPlanNodeId(3);
+
+    assertEquals(3, root.getPlanNodeId());
+    assertEquals(3, helper.getPlanNodeId());
+    assertEquals(1, leaf.getPlanNodeId());
+  }
+
+  @Test
+  public final void testMergeAndSerialize() {
+    OperatorMetrics metrics1 = new OperatorMetrics(4, "HashAggregateExec");
+    metrics1.setInputRows(100);
+    metrics1.setOutputRows(10);
+    metrics1.setWallTimeNanos(2000);
+    metrics1.setFirstCallWallTimeNanos(1500);
+    metrics1.setPeakMemory(4096);
+    metrics1.setSpilledBytes(0);
+
+    OperatorMetrics metrics2 = new OperatorMetrics(4, "HashAggregateExec");
+    metrics2.setInputRows(50);
+    metrics2.setOutputRows(5);
+    metrics2.setWallTimeNanos(1000);
+    metrics2.setFirstCallWallTimeNanos(500);
+    metrics2.setPeakMemory(1024);
+    metrics2.setSpilledBytes(512);
+
+    OperatorMetrics merged = new OperatorMetrics(metrics1.getProto());
+    merged.merge(new OperatorMetrics(metrics2.getProto()));
+    assertEquals(metrics1.getKey(), merged.getKey());
+    assertEquals(150, merged.getInputRows());
+    assertEquals(15, merged.getOutputRows());
+    assertEquals(3000, merged.getWallTimeNanos());
+    assertEquals(2000, merged.getFirstCallWallTimeNanos());
+    assertEquals(4096, merged.getPeakMemory());
+    assertEquals(512, merged.getSpilledBytes());
+    assertEquals(2, merged.getTaskNum());
+  }
+}
@@ -326,6 +326,48 @@ public class TestPhysicalPlanner {
     assertEquals(10, i);
   }
 
+  @Test
+  public final void testParallelGroupByPlan() throws IOException, PlanningException {
+    // split the table into small fragments so that they are read by multiple threads
+    FileFragment[] frags = FileStorageManager.splitNG(conf, "default.score", score.getMeta(), new Path(score.getPath()),
+        100);
+    assertTrue(frags.length > 1);
+    Path workDir = CommonTestingUtil.getTestDir("target/test-data/testParallelGroupByPlan");
+    QueryContext queryContext = new QueryContext(conf);
+    queryContext.setInt(SessionVars.INTRA_TASK_PARALLELISM, 4);
+    TaskAttemptContext ctx = new TaskAttemptContext(queryContext,
+        LocalTajoTestingUtility.newTaskAttemptId(masterPlan), frags, workDir);
+    ctx.setEnforcer(new Enforcer());
+    Expr context = analyzer.parse(QUERIES[7]);
+    LogicalPlan plan = planner.createPlan(defaultContext, context);
+    optimizer.optimize(plan);
+    LogicalNode rootNode = plan.getRootBlock().getRoot();
+
+    PhysicalPlanner phyPlanner = new PhysicalPlannerImpl(conf);
+    PhysicalExec exec = phyPlanner.createPlan(ctx, rootNode);
+    PhysicalExec groupbyExec = exec;
+    while (!(groupbyExec instanceof AggregationExec)) {
+      groupbyExec = ((UnaryPhysicalExec) groupbyExec).getChild();
+    }
+    assertTrue(groupbyExec instanceof ParallelHashAggregateExec);
+    assertTrue(groupbyExec.getChildren().size() > 1);
+    for (PhysicalExec scan : groupbyExec.getChildren()) {
+      assertTrue(scan instanceof SeqScanExec);
+    }
+
+    int i = 0;
+    Tuple tuple;
+    exec.init();
+    while ((tuple = exec.next()) != null) {
+      assertEquals(6, tuple.get(2).asInt4()); // sum
+      assertEquals(3, tuple.get(3).asInt4()); // max
+      assertEquals(1, tuple.get(4).asInt4()); // min
+      i++;
+    }
+    exec.close();
+    assertEquals(10, i);
+  }
+
   @Test
   public final void testHashGroupByPlanWithALLField() throws IOException, PlanningException {
     // TODO - currently, this query does not use hash-based group operator.
@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestRuntimeFilter {
+  private static final int [] KEY_IDS = {0, 1};
+
+  private static Tuple createTuple(int id, String name) {
+    Tuple tuple = new VTuple(2);
+    tuple.put(0, DatumFactory.createInt4(id));
+    tuple.put(1, DatumFactory.createText(name));
+    return tuple;
+  }
+
+  private static Column [] createKeys(String qualifier) {
+    return new Column[] {
+        new Column(qualifier + ".id", Type.INT4),
+        new Column(qualifier + ".name", Type.TEXT)
+    };
+  }
+
+  @Test
+  public final void testMightContain() {
+    RuntimeFilter filter = new RuntimeFilter(createKeys("default.t1"), 1 << 16);
+    for (int i = 100; i < 200; i++) {
+      filter.add(createTuple(i, "name_" + i), KEY_IDS);
+    }
+
+    for (int i = 100; i < 200; i++) {
+      assertTrue(filter.mightContain(createTuple(i, "name_" + i), KEY_IDS));
+    }
+    // out of the min/max range
+    assertFalse(filter.mightContain(createTuple(99, "name_150"), KEY_IDS));
+    assertFalse(filter.mightContain(createTuple(200, "name_150"), KEY_IDS));
+
+    Tuple nullKey = new VTuple(2);
+    nullKey.put(0, NullDatum.get());
+    nullKey.put(1, DatumFactory.createText("name_150"));
+    assertFalse(filter.mightContain(nullKey, KEY_IDS));
+    assertTrue(filter.isSelective());
+  }
+
+  @Test
+  public final void testEmptyFilter() {
+    RuntimeFilter filter = new RuntimeFilter(createKeys("default.t1"), 1 << 10);
+    assertFalse(filter.mightContain(createTuple(1, "name_1"), KEY_IDS));
+  }
+
+  @Test
+  public final void testMergeAndSerialize() {
+    RuntimeFilter filter1 = new RuntimeFilter(createKeys("default.t1"), 1 << 12);
+    RuntimeFilter filter2 = new RuntimeFilter(createKeys("default.t1"), 1 << 12);
+    for (int i = 0; i < 50; i++) {
+      filter1.add(createTuple(i, "name_" + i), KEY_IDS);
+      filter2.add(createTuple(i + 50, "name_" + (i + 50)), KEY_IDS);
+    }
+    filter1.merge(filter2);
+
+    RuntimeFilter deserialized = new RuntimeFilter(filter1.getProto()).withKeys(createKeys("default.t2"));
+    assertEquals("default.t2.id", deserialized.getKeys()[0].getQualifiedName());
+    for (int i = 0; i < 100; i++) {
+      assertTrue(deserialized.mightContain(createTuple(i, "name_" + i), KEY_IDS));
+    }
+    assertFalse(deserialized.mightContain(createTuple(100, "name_100"), KEY_IDS));
+  }
+}
@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.LocalTajoTestingUtility;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.SortSpec;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.FragmentProto;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.plan.LogicalPlan;
+import org.apache.tajo.plan.logical.SortNode;
+import org.apache.tajo.storage.RawFile.RawFileAppender;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.apache.tajo.worker.TaskAttemptContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestSortedInputMergeExec {
+  private static final String TEST_PATH = "target/test-data/TestSortedInputMergeExec";
+  private static final int INPUT_NUM = 5;
+  private static final int ROWS_PER_INPUT = 1000;
+
+  private TajoConf conf;
+  private TaskAttemptContext context;
+  private Path testDir;
+  private Schema schema;
+
+  @Before
+  public void setUp() throws Exception {
+    conf = new TajoConf();
+    testDir = CommonTestingUtil.getTestDir(TEST_PATH);
+    conf.setVar(TajoConf.ConfVars.WORKER_TEMPORAL_DIR, testDir.toString());
+    context = new TaskAttemptContext(new QueryContext(conf), LocalTajoTestingUtility.newTaskAttemptId(),
+        new FileFragment[0], testDir);
+
+    schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    schema.addColumn("input", Type.INT4);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    CommonTestingUtil.cleanupTestDir(TEST_PATH);
+  }
+
+  /**
+   * Writes a sorted input whose ids are interleaved with the other inputs. The last input is empty.
+   */
+  private FragmentProto writeInput(int inputId) throws IOException {
+    TableMeta meta = CatalogUtil.newTableMeta(StoreType.RAW);
+    Path path = new Path(testDir, "input_" + inputId);
+    RawFileAppender appender = new RawFileAppender(conf, null, schema, meta, path);
+    appender.init();
+    if (inputId < INPUT_NUM - 1) {
+      for (int i = 0; i < ROWS_PER_INPUT; i++) {
+        Tuple tuple = new VTuple(2);
+        // every input has the duplicated ids
+        tuple.put(0, DatumFactory.createInt4((i / 2) * INPUT_NUM + inputId));
+        tuple.put(1, DatumFactory.createInt4(inputId));
+        appender.addTuple(tuple);
+      }
+    }
+    appender.close();
+
+    long length = new File(path.toString()).length();
+    return new FileFragment("input", path, 0, length).getProto();
+  }
+
+  @Test
+  public void testMerge() throws IOException {
+    FragmentProto [] fragments = new FragmentProto[INPUT_NUM];
+    for (int i = 0; i < INPUT_NUM; i++) {
+      fragments[i] = writeInput(i);
+    }
+
+    SortNode sortNode = LogicalPlan.createNodeWithoutPID(SortNode.class);
+    sortNode.setSortSpecs(new SortSpec[] {new SortSpec(new Column("id", Type.INT4), true, false)});
+    sortNode.setInSchema(schema);
+    sortNode.setOutSchema(schema);
+
+    SortedInputMergeExec exec = new SortedInputMergeExec(context, sortNode, fragments);
+    exec.init();
+
+    int rowNum = 0;
+    Tuple previous = null;
+    Tuple tuple;
+    while ((tuple = exec.next()) != null) {
+      if (previous != null) {
+        int cmp = previous.getInt4(0) - tuple.getInt4(0);
+        assertTrue(cmp <= 0);
+        if (cmp == 0) {
+          // the tuples of the same key keep the order of inputs
+          assertTrue(previous.getInt4(1) <= tuple.getInt4(1));
+        }
+      }
+      previous = tuple;
+      rowNum++;
+    }
+    assertEquals((INPUT_NUM - 1) * ROWS_PER_INPUT, rowNum);
+
+    // it reads the inputs again after rescan
+    exec.rescan();
+    rowNum = 0;
+    while (exec.next() != null) {
+      rowNum++;
+    }
+    assertEquals((INPUT_NUM - 1) * ROWS_PER_INPUT, rowNum);
+
+    exec.close();
+    assertEquals((INPUT_NUM - 1) * ROWS_PER_INPUT, exec.getInputStats().getNumRows().longValue());
+  }
+}
@@ -0,0 +1,240 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.LocalTajoTestingUtility;
+import org.apache.tajo.InternalTypes.AvgDoubleProto;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.FunctionDesc;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.proto.CatalogProtos.FunctionType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.datum.ProtobufDatum;
+import org.apache.tajo.engine.function.builtin.AvgDouble;
+import org.apache.tajo.engine.function.builtin.CountRows;
+import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.plan.expr.AggregationFunctionCallEval;
+import org.apache.tajo.plan.expr.EvalNode;
+import org.apache.tajo.plan.expr.FieldEval;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.apache.tajo.worker.MemoryPool;
+import org.apache.tajo.worker.TaskAttemptContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class TestSpillableAggregationTable {
+  private static final String TEST_PATH = "target/test-data/TestSpillableAggregationTable";
+  private static final int [] KEY_IDS = {0, 1};
+  private TaskAttemptContext context;
+
+  @Before
+  public void setUp() throws Exception {
+    TajoConf conf = new TajoConf();
+    Path testDir = CommonTestingUtil.getTestDir(TEST_PATH);
+    conf.setVar(TajoConf.ConfVars.WORKER_TEMPORAL_DIR, testDir.toString());
+    context = new TaskAttemptContext(new QueryContext(conf), LocalTajoTestingUtility.newTaskAttemptId(),
+        new FileFragment[0], testDir);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    CommonTestingUtil.cleanupTestDir(TEST_PATH);
+  }
+
+  private static Schema createSchema() {
+    Schema schema = new Schema();
+    schema.addColumn("day", Type.INT4);
+    schema.addColumn("user_id", Type.TEXT);
+    schema.addColumn("score", Type.FLOAT8);
+    return schema;
+  }
+
+  /**
+   * 10 days and 100 users per day. Each (day, user) pair occurs three times, and null users occur on day 0.
+   */
+  private static Tuple createTuple(int i) {
+    Tuple tuple = new VTuple(3);
+    int day = (i / 100) % 10;
+    tuple.put(0, DatumFactory.createInt4(day));
+    tuple.put(1, day == 0 && i % 100 == 0 ? NullDatum.get() : DatumFactory.createText("user_" + (i % 100)));
+    tuple.put(2, DatumFactory.createFloat8(i));
+    return tuple;
+  }
+
+  private static AggregationFunctionCallEval createCountRows() {
+    FunctionDesc desc = new FunctionDesc("count", CountRows.class, FunctionType.AGGREGATION,
+        CatalogUtil.newSimpleDataType(Type.INT8), CatalogUtil.newSimpleDataTypeArray());
+    AggregationFunctionCallEval countRows = new AggregationFunctionCallEval(desc, new CountRows(), new EvalNode[0]);
+    countRows.setFirstPhase();
+    return countRows;
+  }
+
+  /**
+   * The input of a final-phase stage: each tuple carries the partial results of count(*) and avg(day),
+   * which are computed from two rows of the same day.
+   */
+  private static Schema createPartialSchema() {
+    Schema schema = new Schema();
+    schema.addColumn("day", Type.INT4);
+    schema.addColumn("user_id", Type.TEXT);
+    schema.addColumn("partial_count", Type.INT8);
+    schema.addColumn("partial_avg", CatalogUtil.newDataType(Type.PROTOBUF, AvgDoubleProto.class.getName()));
+    return schema;
+  }
+
+  private static Tuple createPartialTuple(int i) {
+    Tuple tuple = new VTuple(4);
+    Tuple source = createTuple(i);
+    int day = source.get(0).asInt4();
+    tuple.put(0, source.get(0));
+    tuple.put(1, source.get(1));
+    tuple.put(2, DatumFactory.createInt8(2));
+    tuple.put(3, new ProtobufDatum(AvgDoubleProto.newBuilder().setSum(day * 2).setCount(2).build()));
+    return tuple;
+  }
+
+  private static AggregationFunctionCallEval [] createFinalFunctions(Schema partialSchema) {
+    FunctionDesc countDesc = new FunctionDesc("count", CountRows.class, FunctionType.AGGREGATION,
+        CatalogUtil.newSimpleDataType(Type.INT8), CatalogUtil.newSimpleDataTypeArray());
+    AggregationFunctionCallEval countRows = new AggregationFunctionCallEval(countDesc, new CountRows(),
+        new EvalNode[] {new FieldEval(partialSchema.getColumn(2))});
+    countRows.setFinalPhase();
+
+    FunctionDesc avgDesc = new FunctionDesc("avg", AvgDouble.class, FunctionType.AGGREGATION,
+        CatalogUtil.newSimpleDataType(Type.FLOAT8), CatalogUtil.newSimpleDataTypeArray(Type.FLOAT8));
+    AggregationFunctionCallEval avg = new AggregationFunctionCallEval(avgDesc, new AvgDouble(),
+        new EvalNode[] {new FieldEval(partialSchema.getColumn(3))});
+    avg.setFinalPhase();
+
+    return new AggregationFunctionCallEval[] {countRows, avg};
+  }
+
+  private static void assertSortedEntries(SpillableAggregationTable table) throws IOException {
+    table.rewind();
+    Tuple entry;
+    Tuple prev = null;
+    int num = 0;
+    while ((entry = table.next()) != null) {
+      if (prev != null) {
+        int prevDay = prev.get(0).asInt4();
+        int day = entry.get(0).asInt4();
+        assertTrue(prevDay < day || (prevDay == day && (entry.get(1).isNull() ||
+            (!prev.get(1).isNull() && prev.get(1).compareTo(entry.get(1)) < 0))));
+      }
+      assertEquals(3, entry.get(2).asInt8());
+      prev = entry;
+      num++;
+    }
+    assertEquals(1000, num);
+  }
+
+  @Test
+  public void testInMemory() throws IOException {
+    MemoryPool pool = new MemoryPool("test", MemoryPool.UNLIMITED);
+    SpillableAggregationTable table = new SpillableAggregationTable(context, createSchema(), KEY_IDS,
+        new AggregationFunctionCallEval[] {createCountRows()}, pool, new Path("test"));
+    for (int i = 0; i < 3000; i++) {
+      table.compute(createTuple(i));
+    }
+    assertFalse(table.isSpilled());
+    assertEquals(1000, table.size());
+
+    // entries can be read more than once
+    assertSortedEntries(table);
+    assertSortedEntries(table);
+    table.close();
+    assertEquals(0, pool.getUsed());
+  }
+
+  @Test
+  public void testSpill() throws IOException {
+    MemoryPool pool = new MemoryPool("test", 8192);
+    SpillableAggregationTable table = new SpillableAggregationTable(context, createSchema(), KEY_IDS,
+        new AggregationFunctionCallEval[] {createCountRows()}, pool, new Path("test"));
+    for (int i = 0; i < 3000; i++) {
+      table.compute(createTuple(i));
+    }
+    assertTrue(table.isSpilled());
+    assertTrue(table.size() > 1000);
+
+    // the entries of the same key in the runs are merged
+    assertSortedEntries(table);
+    assertSortedEntries(table);
+    table.close();
+    assertEquals(0, pool.getUsed());
+  }
+
+  @Test
+  public void testSpillFinalPhase() throws IOException {
+    Schema partialSchema = createPartialSchema();
+    MemoryPool pool = new MemoryPool("test", 8192);
+    SpillableAggregationTable table = new SpillableAggregationTable(context, partialSchema, KEY_IDS,
+        createFinalFunctions(partialSchema), pool, new Path("test"));
+    for (int i = 0; i < 3000; i++) {
+      table.compute(createPartialTuple(i));
+    }
+    assertTrue(table.isSpilled());
+    assertTrue(table.size() > 1000);
+
+    // runs keep partial results, and the final results are computed from the merged partial results
+    table.rewind();
+    Tuple entry;
+    int num = 0;
+    while ((entry = table.next()) != null) {
+      assertEquals(6, entry.get(2).asInt8());
+      assertEquals(entry.get(0).asInt4(), entry.get(3).asFloat8(), 0.0);
+      num++;
+    }
+    assertEquals(1000, num);
+    table.close();
+    assertEquals(0, pool.getUsed());
+  }
+
+  @Test
+  public void testDistinctPairs() throws IOException {
+    MemoryPool pool = new MemoryPool("test", 4096);
+    SpillableAggregationTable table = new SpillableAggregationTable(context, createSchema(), KEY_IDS,
+        new AggregationFunctionCallEval[0], pool, new Path("test"));
+    for (int i = 0; i < 3000; i++) {
+      table.compute(createTuple(i));
+    }
+    assertTrue(table.isSpilled());
+
+    table.rewind();
+    int num = 0;
+    while (table.next() != null) {
+      num++;
+    }
+    assertEquals(1000, num);
+    table.close();
+  }
+}
@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.LocalTajoTestingUtility;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.apache.tajo.worker.MemoryPool;
+import org.apache.tajo.worker.TaskAttemptContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class TestSpillableTupleBuffer {
+  private static final String TEST_PATH = "target/test-data/TestSpillableTupleBuffer";
+  private TaskAttemptContext context;
+  private Path testDir;
+
+  @Before
+  public void setUp() throws Exception {
+    TajoConf conf = new TajoConf();
+    testDir = CommonTestingUtil.getTestDir(TEST_PATH);
+    conf.setVar(TajoConf.ConfVars.WORKER_TEMPORAL_DIR, testDir.toString());
+    context = new TaskAttemptContext(new QueryContext(conf), LocalTajoTestingUtility.newTaskAttemptId(),
+        new FileFragment[0], testDir);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    CommonTestingUtil.cleanupTestDir(TEST_PATH);
+  }
+
+  private static Schema createSchema() {
+    Schema schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    schema.addColumn("name", Type.TEXT);
+    schema.addColumn("score", Type.FLOAT8);
+    return schema;
+  }
+
+  private static Tuple createTuple(int i) {
+    Tuple tuple = new VTuple(3);
+    tuple.put(0, DatumFactory.createInt4(i));
+    tuple.put(1, DatumFactory.createText("name_" + i));
+    tuple.put(2, i % 10 == 0 ? NullDatum.get() : DatumFactory.createFloat8(i * 0.5));
+    return tuple;
+  }
+
+  private static void assertTuples(SpillableTupleBuffer buffer, int num) throws IOException {
+    buffer.rewind();
+    Tuple tuple;
+    int i = 0;
+    while ((tuple = buffer.next()) != null) {
+      assertEquals(createTuple(i), new VTuple(tuple));
+      i++;
+    }
+    assertEquals(num, i);
+  }
+
+  @Test
+  public void testInMemory() throws IOException {
+    MemoryPool pool = new MemoryPool("test", MemoryPool.UNLIMITED);
+    SpillableTupleBuffer buffer = new SpillableTupleBuffer(context, createSchema(), pool, new Path("test"));
+    for (int i = 0; i < 1000; i++) {
+      buffer.add(createTuple(i));
+    }
+    assertEquals(1000, buffer.size());
+    assertFalse(buffer.isSpilled());
+    assertTrue(pool.getUsed() > 0);
+
+    // tuples can be read more than once
+    assertTuples(buffer, 1000);
+    assertTuples(buffer, 1000);
+
+    buffer.clear();
+    assertEquals(0, pool.getUsed());
+    assertEquals(0, buffer.size());
+    buffer.close();
+  }
+
+  @Test
+  public void testSpill() throws IOException {
+    MemoryPool pool = new MemoryPool("test", 4096);
+    SpillableTupleBuffer buffer = new SpillableTupleBuffer(context, createSchema(), pool, new Path("test"));
+    for (int i = 0; i < 10000; i++) {
+      buffer.add(createTuple(i));
+    }
+    assertTrue(buffer.isSpilled());
+    assertEquals(10000, buffer.size());
+    assertTuples(buffer, 10000);
+
+    // the buffer is reused for the next group
+    buffer.clear();
+    assertFalse(buffer.isSpilled());
+    for (int i = 0; i < 10; i++) {
+      buffer.add(createTuple(i));
+    }
+    assertFalse(buffer.isSpilled());
+    assertTuples(buffer, 10);
+    buffer.close();
+    assertEquals(0, pool.getUsed());
+  }
+}
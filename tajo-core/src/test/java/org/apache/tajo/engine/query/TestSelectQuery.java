@@ -104,6 +104,47 @@ public class TestSelectQuery extends QueryTestCaseBase {
     cleanupQuery(res);
   }
 
+  @Test
+  public final void testExplainAnalyzeSelect() throws Exception {
+    ResultSet res = executeString("explain analyze select l_orderkey, count(*) from lineitem group by l_orderkey");
+    StringBuilder report = new StringBuilder();
+    while (res.next()) {
+      report.append(res.getString(1)).append("\n");
+    }
+    cleanupQuery(res);
+
+    // the times vary, so only the structure of the report is verified.
+    String result = report.toString();
+    assertTrue(result, result.contains("Execution Block"));
+    assertTrue(result, result.contains("SCAN("));
+    assertTrue(result, result.contains("GROUP_BY("));
+    assertTrue(result, result.contains("actual rows: 5 -> "));
+    assertTrue(result, result.contains("(first call wall: "));
+  }
+
+  @Test
+  public final void testExplainAnalyzeQueryExecutedInMaster() throws Exception {
+    // these queries are not executed by a query master, so they are explained without runtime statistics.
+    String[] queries = new String[] {
+        "explain analyze select 1 + 1",
+        "explain analyze select * from lineitem",
+        "explain analyze select * from information_schema.tables"
+    };
+    for (String query : queries) {
+      ResultSet res = executeString(query);
+      StringBuilder report = new StringBuilder();
+      while (res.next()) {
+        report.append(res.getString(1)).append("\n");
+      }
+      cleanupQuery(res);
+
+      String result = report.toString();
+      assertFalse(query, result.isEmpty());
+      assertFalse(result, result.contains("Execution Block"));
+      assertFalse(result, result.contains("actual rows"));
+    }
+  }
+
   @Test
   public final void testSelect() throws Exception {
     // select l_orderkey, l_partkey from lineitem;
@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.query;
+
+import org.apache.tajo.IntegrationTest;
+import org.apache.tajo.QueryTestCaseBase;
+import org.apache.tajo.TajoConstants;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.master.TableCacheManager;
+import org.apache.tajo.worker.TajoWorker;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.sql.ResultSet;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class TestTableCache extends QueryTestCaseBase {
+  private static final String SCAN_QUERY = "select l_orderkey, l_partkey from %s order by l_orderkey, l_partkey";
+
+  public TestTableCache() {
+    super(TajoConstants.DEFAULT_DATABASE_NAME);
+  }
+
+  private static TableCacheManager getCacheManager() {
+    return testingCluster.getMaster().getContext().getTableCacheManager();
+  }
+
+  private Long getCacheId(String tableName) {
+    return getCacheManager().getCacheId(CatalogUtil.buildFQName(getCurrentDatabase(), tableName));
+  }
+
+  private static long getCacheHitNum() {
+    long hitNum = 0;
+    for (TajoWorker worker : testingCluster.getTajoWorkers()) {
+      hitNum += worker.getWorkerContext().getTableFragmentCache().getHitNum();
+    }
+    return hitNum;
+  }
+
+  private String scan(String tableName) throws Exception {
+    ResultSet res = executeString(String.format(SCAN_QUERY, tableName));
+    try {
+      return resultSetToString(res);
+    } finally {
+      res.close();
+    }
+  }
+
+  private int count(String tableName) throws Exception {
+    ResultSet res = executeString("select count(*) from " + tableName);
+    try {
+      assertTrue(res.next());
+      return res.getInt(1);
+    } finally {
+      res.close();
+    }
+  }
+
+  @Test
+  public final void testCacheScanInsertScan() throws Exception {
+    executeString("create table cache_table1 as select l_orderkey, l_partkey from lineitem").close();
+    try {
+      String expected = scan("lineitem");
+      int rowNum = count("lineitem");
+
+      executeString("cache table cache_table1").close();
+      Long cacheId = getCacheId("cache_table1");
+      assertNotNull(cacheId);
+
+      // the first scan loads the fragments, and the second one reads them from the cache
+      assertEquals(expected, scan("cache_table1"));
+      long hitNum = getCacheHitNum();
+      assertEquals(expected, scan("cache_table1"));
+      assertTrue(getCacheHitNum() > hitNum);
+
+      // an insert invalidates the cached fragments, and the table is still cached
+      executeString("insert into cache_table1 select l_orderkey, l_partkey from lineitem").close();
+      Long renewed = getCacheId("cache_table1");
+      assertNotNull(renewed);
+      assertTrue(renewed > cacheId);
+      assertEquals(rowNum * 2, count("cache_table1"));
+      assertEquals(rowNum * 2, count("cache_table1"));
+
+      cacheId = renewed;
+      executeString("truncate table cache_table1").close();
+      renewed = getCacheId("cache_table1");
+      assertTrue(renewed > cacheId);
+      assertEquals(0, count("cache_table1"));
+
+      executeString("insert into cache_table1 select l_orderkey, l_partkey from lineitem").close();
+      assertEquals(expected, scan("cache_table1"));
+      hitNum = getCacheHitNum();
+      assertEquals(expected, scan("cache_table1"));
+      assertTrue(getCacheHitNum() > hitNum);
+
+      // an uncached table is read from the storage
+      executeString("uncache table cache_table1").close();
+      assertNull(getCacheId("cache_table1"));
+      hitNum = getCacheHitNum();
+      assertEquals(expected, scan("cache_table1"));
+      assertEquals(hitNum, getCacheHitNum());
+    } finally {
+      executeString("drop table cache_table1 purge").close();
+    }
+  }
+
+  @Test
+  public final void testUncacheByDDL() throws Exception {
+    executeString("create table cache_table2 as select l_orderkey, l_partkey from lineitem").close();
+    try {
+      executeString("cache table cache_table2").close();
+      assertNotNull(getCacheId("cache_table2"));
+
+      // the cached fragments no longer match the renamed table
+      executeString("alter table cache_table2 rename to cache_table3").close();
+      assertNull(getCacheId("cache_table2"));
+      assertNull(getCacheId("cache_table3"));
+
+      executeString("cache table cache_table3").close();
+      assertNotNull(getCacheId("cache_table3"));
+    } finally {
+      executeString("drop table if exists cache_table2 purge").close();
+      executeString("drop table if exists cache_table3 purge").close();
+    }
+    assertNull(getCacheId("cache_table3"));
+  }
+
+  @Test
+  public final void testCacheNonExistentTable() throws Exception {
+    try {
+      executeString("cache table cache_no_such_table").close();
+      fail("A table which does not exist cannot be cached");
+    } catch (Exception e) {
+      assertNull(getCacheId("cache_no_such_table"));
+    }
+  }
+}
@@ -1003,4 +1003,77 @@ public class TestTablePartitions extends QueryTestCaseBase {
     assertFalse(res.next());
     res.close();
   }
+
+  @Test
+  public final void testPruningWithUnregisteredPartitions() throws Exception {
+    // A partition written by another system is not registered in the catalog,
+    // so partitions must be found from directories even if some of them are registered.
+    String tableName = CatalogUtil.normalizeIdentifier("testPruningWithUnregisteredPartitions");
+    Path testDir = CommonTestingUtil.getTestDir();
+
+    FileSystem fs = testDir.getFileSystem(conf);
+    FSDataOutputStream fos = fs.create(new Path(testDir, "col2=a/data.csv"));
+    fos.write("1\n2\n".getBytes());
+    fos.close();
+
+    executeString(
+      "CREATE EXTERNAL TABLE " + tableName + " (col1 int) USING CSV PARTITION BY COLUMN (col2 text) " +
+        "LOCATION '" + testDir + "'").close();
+    executeString(
+      "INSERT INTO " + tableName + " SELECT l_orderkey, 'b' FROM lineitem WHERE l_orderkey = 3").close();
+
+    assertEquals(1, catalog.getPartitions(getCurrentDatabase(), tableName, null).size());
+
+    ResultSet res = executeString("select * from " + tableName + " order by col1");
+    String expected = "col1,col2\n" +
+        "-------------------------------\n" +
+        "1,a\n" +
+        "2,a\n" +
+        "3,b\n" +
+        "3,b\n";
+    assertEquals(expected, resultSetToString(res));
+    res.close();
+
+    res = executeString("select col1 from " + tableName + " where col2 = 'a' order by col1");
+    expected = "col1\n" +
+        "-------------------------------\n" +
+        "1\n" +
+        "2\n";
+    assertEquals(expected, resultSetToString(res));
+    res.close();
+
+    executeString("DROP TABLE " + tableName + " PURGE").close();
+  }
+
+  @Test
+  public final void testTruncatePartitionedTable() throws Exception {
+    String tableName = CatalogUtil.normalizeIdentifier("testTruncatePartitionedTable");
+    executeString(
+      "CREATE TABLE " + tableName + " (col1 int4) USING CSV PARTITION BY COLUMN (key int4)").close();
+    executeString(
+      "INSERT OVERWRITE INTO " + tableName + " SELECT l_partkey, l_orderkey FROM lineitem").close();
+    assertEquals(3, catalog.getPartitions(getCurrentDatabase(), tableName, null).size());
+
+    // truncated partitions must not be found from the catalog any more
+    executeString("TRUNCATE TABLE " + tableName).close();
+    assertEquals(0, catalog.getPartitions(getCurrentDatabase(), tableName, null).size());
+
+    ResultSet res = executeString("select * from " + tableName + " where key = 1 order by col1");
+    assertFalse(res.next());
+    res.close();
+
+    executeString(
+      "INSERT INTO " + tableName + " SELECT l_partkey, l_orderkey FROM lineitem WHERE l_orderkey = 3").close();
+    assertEquals(1, catalog.getPartitions(getCurrentDatabase(), tableName, null).size());
+
+    res = executeString("select * from " + tableName + " order by col1");
+    String expected = "col1,key\n" +
+        "-------------------------------\n" +
+        "2,3\n" +
+        "3,3\n";
+    assertEquals(expected, resultSetToString(res));
+    res.close();
+
+    executeString("DROP TABLE " + tableName + " PURGE").close();
+  }
 }
@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.util;
+
+import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.QueryIdFactory;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.engine.utils.BroadcastTableCache;
+import org.apache.tajo.engine.utils.CachedBroadcastTable;
+import org.apache.tajo.engine.utils.TupleCacheKey;
+import org.apache.tajo.engine.utils.TupleCacheScanner;
+import org.apache.tajo.storage.Scanner;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TestBroadcastTableCache {
+  private static final Schema SCHEMA = new Schema();
+  static {
+    SCHEMA.addColumn("id", Type.INT8);
+    SCHEMA.addColumn("name", Type.TEXT);
+  }
+
+  private static class TestLoader implements BroadcastTableCache.Loader {
+    private final int rowNum;
+    private int current = 0;
+
+    TestLoader(int rowNum) {
+      this.rowNum = rowNum;
+    }
+
+    @Override
+    public Tuple next() throws IOException {
+      if (current >= rowNum) {
+        return null;
+      }
+      Tuple tuple = new VTuple(2);
+      tuple.put(0, DatumFactory.createInt8(current % 10));
+      tuple.put(1, DatumFactory.createText("name_" + current));
+      current++;
+      return tuple;
+    }
+  }
+
+  private static ExecutionBlockId newExecutionBlockId() {
+    return QueryIdFactory.newExecutionBlockId(QueryIdFactory.newQueryId(System.currentTimeMillis(), 0));
+  }
+
+  @Test
+  public void testAcquireAndScan() throws Exception {
+    BroadcastTableCache cache = new BroadcastTableCache(1024 * 1024);
+    ExecutionBlockId ebId = newExecutionBlockId();
+    TupleCacheKey key = new TupleCacheKey(ebId.toString(), "TestTable", "test");
+
+    CachedBroadcastTable table = cache.acquire(key, SCHEMA, new TestLoader(100));
+    assertNotNull(table);
+    assertEquals(1, cache.getMissNum());
+    assertEquals(100, table.rows());
+    assertTrue(cache.getUsedBytes() > 0);
+
+    // the second task shares the loaded table without loading it again
+    CachedBroadcastTable shared = cache.acquire(key, SCHEMA, new TestLoader(0));
+    assertSame(table, shared);
+    assertEquals(1, cache.getHitNum());
+
+    Scanner scanner = new TupleCacheScanner(shared.getTuples(), SCHEMA);
+    int count = 0;
+    Tuple tuple;
+    while ((tuple = scanner.next()) != null) {
+      assertEquals(count % 10, tuple.getInt8(0));
+      assertEquals("name_" + count, tuple.getText(1));
+      count++;
+    }
+    assertEquals(100, count);
+
+    Map<Tuple, List<Tuple>> index = table.getHashIndex(new int[] {0});
+    assertSame(index, shared.getHashIndex(new int[] {0}));
+    assertEquals(10, index.size());
+    Tuple keyTuple = new VTuple(1);
+    keyTuple.put(0, DatumFactory.createInt8(3));
+    assertEquals(10, index.get(keyTuple).size());
+
+    table.release();
+    shared.release();
+    cache.removeExecutionBlock(ebId);
+    assertEquals(0, cache.getTableNum());
+    assertEquals(0, cache.getUsedBytes());
+  }
+
+  @Test
+  public void testLruEviction() throws Exception {
+    BroadcastTableCache cache = new BroadcastTableCache(64 * 1024);
+    ExecutionBlockId ebId = newExecutionBlockId();
+
+    CachedBroadcastTable table1 = cache.acquire(new TupleCacheKey(ebId.toString(), "t1", "p1"), SCHEMA,
+        new TestLoader(100));
+    assertNotNull(table1);
+    table1.release();
+    long tableSize = table1.getMemorySize();
+    assertTrue(tableSize * 2 > cache.getCapacity());
+
+    // the unused table is evicted to make room for the new one
+    CachedBroadcastTable table2 = cache.acquire(new TupleCacheKey(ebId.toString(), "t2", "p2"), SCHEMA,
+        new TestLoader(100));
+    assertNotNull(table2);
+    assertEquals(1, cache.getEvictionNum());
+    assertEquals(1, cache.getTableNum());
+    assertEquals(table2.getMemorySize(), cache.getUsedBytes());
+
+    // a table larger than the capacity is not cached
+    assertNull(cache.acquire(new TupleCacheKey(ebId.toString(), "t3", "p3"), SCHEMA, new TestLoader(10000)));
+    assertEquals(1, cache.getTableNum());
+
+    table2.release();
+    cache.removeExecutionBlock(ebId);
+    assertEquals(0, cache.getUsedBytes());
+  }
+}
@@ -0,0 +1,293 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.util;
+
+import com.google.common.collect.Sets;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.utils.CachedTableFragment;
+import org.apache.tajo.engine.utils.CachedTableScanner;
+import org.apache.tajo.engine.utils.TableFragmentCache;
+import org.apache.tajo.storage.Appender;
+import org.apache.tajo.storage.FileStorageManager;
+import org.apache.tajo.storage.StorageManager;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.storage.cfile.ColumnChunkReader;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestTableFragmentCache {
+  private static final Schema SCHEMA = new Schema();
+  static {
+    SCHEMA.addColumn("id", Type.INT8);
+    SCHEMA.addColumn("name", Type.TEXT);
+  }
+
+  private static class TestLoader implements TableFragmentCache.Loader {
+    private final int rowNum;
+    private int current = 0;
+
+    TestLoader(int rowNum) {
+      this.rowNum = rowNum;
+    }
+
+    @Override
+    public Tuple next() throws IOException {
+      if (current >= rowNum) {
+        return null;
+      }
+      Tuple tuple = new VTuple(2);
+      tuple.put(0, DatumFactory.createInt8(current / 10));
+      tuple.put(1, current % 7 == 0 ? NullDatum.get() : DatumFactory.createText("name_" + current));
+      current++;
+      return tuple;
+    }
+  }
+
+  private static FileFragment newFragment(String fileName) {
+    return new FileFragment("t1", new Path("file:///tmp/t1/" + fileName), 0, 1024);
+  }
+
+  @Test
+  public void testAcquireAndRead() throws Exception {
+    TableFragmentCache cache = new TableFragmentCache(8 * 1024 * 1024);
+    FileFragment fragment = newFragment("f1");
+
+    CachedTableFragment cached = cache.acquire("default.t1", 1, fragment, SCHEMA, new TestLoader(100000));
+    assertNotNull(cached);
+    assertEquals(1, cache.getMissNum());
+    assertEquals(100000, cached.rows());
+    assertEquals(2, cached.getStripeNum());
+    assertEquals(cached.getMemorySize(), cache.getUsedBytes());
+
+    // the second scan reads the loaded fragment without loading it again
+    CachedTableFragment shared = cache.acquire("default.t1", 1, fragment, SCHEMA, new TestLoader(0));
+    assertSame(cached, shared);
+    assertEquals(1, cache.getHitNum());
+
+    int row = 0;
+    for (int stripeId = 0; stripeId < shared.getStripeNum(); stripeId++) {
+      ColumnChunkReader ids = shared.getColumnReader(stripeId, 0);
+      ColumnChunkReader names = shared.getColumnReader(stripeId, 1);
+      for (int i = 0; i < shared.getStripeRowNum(stripeId); i++, row++) {
+        assertEquals(row / 10, ids.next().asInt8());
+        if (row % 7 == 0) {
+          assertTrue(names.next().isNull());
+        } else {
+          assertEquals("name_" + row, names.next().asChars());
+        }
+      }
+    }
+    assertEquals(100000, row);
+
+    // a fragment of another cache id is a different entry
+    CachedTableFragment renewed = cache.acquire("default.t1", 2, fragment, SCHEMA, new TestLoader(10));
+    assertNotSame(cached, renewed);
+    assertEquals(2, cache.getFragmentNum());
+
+    cached.release();
+    shared.release();
+    renewed.release();
+  }
+
+  @Test
+  public void testRetainValidCacheIds() throws Exception {
+    TableFragmentCache cache = new TableFragmentCache(1024 * 1024);
+    cache.acquire("default.t1", 1, newFragment("f1"), SCHEMA, new TestLoader(100)).release();
+    cache.acquire("default.t1", 2, newFragment("f1"), SCHEMA, new TestLoader(100)).release();
+    cache.acquire("default.t2", 3, newFragment("f2"), SCHEMA, new TestLoader(100)).release();
+    cache.acquire("default.t3", 5, newFragment("f3"), SCHEMA, new TestLoader(100)).release();
+    assertEquals(4, cache.getFragmentNum());
+
+    // the cache id 1 is renewed to 2, and the table of the cache id 3 is uncached.
+    // the cache id 5 is issued after the notification, so it is kept.
+    cache.retain(4, Sets.newHashSet(2L));
+    assertEquals(2, cache.getFragmentNum());
+    assertEquals(2, cache.getEvictionNum());
+
+    cache.retain(5, Collections.<Long>emptySet());
+    assertEquals(0, cache.getFragmentNum());
+    assertEquals(0, cache.getUsedBytes());
+  }
+
+  @Test
+  public void testCapacity() throws Exception {
+    TableFragmentCache cache = new TableFragmentCache(14 * 1024);
+
+    CachedTableFragment fragment1 = cache.acquire("default.t1", 1, newFragment("f1"), SCHEMA, new TestLoader(1000));
+    assertNotNull(fragment1);
+    long fragmentSize = fragment1.getMemorySize();
+    assertTrue(fragmentSize * 2 > cache.getCapacity());
+
+    // a fragment being read is not evicted, so the new one cannot be reserved
+    assertNull(cache.acquire("default.t1", 1, newFragment("f2"), SCHEMA, new TestLoader(1000)));
+    assertEquals(1, cache.getFragmentNum());
+    assertEquals(fragmentSize, cache.getUsedBytes());
+    fragment1.release();
+
+    // the least recently used fragment is evicted if it is not being read
+    CachedTableFragment fragment2 = cache.acquire("default.t1", 1, newFragment("f2"), SCHEMA, new TestLoader(1000));
+    assertNotNull(fragment2);
+    assertEquals(1, cache.getFragmentNum());
+    assertEquals(1, cache.getEvictionNum());
+    assertEquals(fragment2.getMemorySize(), cache.getUsedBytes());
+    fragment2.release();
+
+    // a fragment larger than the capacity is not cached, and it is not loaded again
+    long missNum = cache.getMissNum();
+    assertNull(cache.acquire("default.t1", 1, newFragment("f3"), SCHEMA, new TestLoader(100000)));
+    assertNull(cache.acquire("default.t1", 1, newFragment("f3"), SCHEMA, new TestLoader(100000)));
+    assertEquals(missNum + 1, cache.getMissNum());
+    assertEquals(1, cache.getFragmentNum());
+    assertEquals(fragment2.getMemorySize(), cache.getUsedBytes());
+
+    // the oversized fragments of invalid cache ids are forgotten
+    cache.retain(1, Collections.<Long>emptySet());
+    assertNull(cache.acquire("default.t1", 1, newFragment("f3"), SCHEMA, new TestLoader(100000)));
+    assertEquals(missNum + 2, cache.getMissNum());
+
+    // a disabled cache does not cache anything
+    assertNull(new TableFragmentCache(0).acquire("default.t1", 1, newFragment("f1"), SCHEMA, new TestLoader(10)));
+  }
+
+  @Test
+  public void testConcurrentLoads() throws Exception {
+    final TableFragmentCache cache = new TableFragmentCache(14 * 1024);
+    final List<CachedTableFragment> nested = new ArrayList<CachedTableFragment>();
+
+    // another fragment is loaded while the first one is being loaded
+    CachedTableFragment fragment1 = cache.acquire("default.t1", 1, newFragment("f1"), SCHEMA, new TestLoader(1000) {
+      @Override
+      public Tuple next() throws IOException {
+        if (nested.isEmpty()) {
+          nested.add(cache.acquire("default.t1", 1, newFragment("f2"), SCHEMA, new TestLoader(1000)));
+        }
+        return super.next();
+      }
+    });
+
+    // the loads share the capacity, so the first one is aborted instead of exceeding it
+    CachedTableFragment fragment2 = nested.get(0);
+    assertNotNull(fragment2);
+    assertNull(fragment1);
+    assertEquals(1, cache.getFragmentNum());
+    assertEquals(fragment2.getMemorySize(), cache.getUsedBytes());
+    assertTrue(cache.getUsedBytes() <= cache.getCapacity());
+    fragment2.release();
+  }
+
+  private static List<FileFragment> writeFragments(TajoConf conf, TableMeta meta, int fileNum, int rowNum)
+      throws IOException {
+    Path testDir = CommonTestingUtil.getTestDir();
+    FileStorageManager sm = (FileStorageManager) StorageManager.getFileStorageManager(conf);
+    List<FileFragment> fragments = new ArrayList<FileFragment>();
+    for (int i = 0; i < fileNum; i++) {
+      Path path = new Path(testDir, "file_" + i + ".csv");
+      Appender appender = sm.getAppender(meta, SCHEMA, path);
+      appender.init();
+      Tuple tuple = new VTuple(SCHEMA.size());
+      for (int j = 0; j < rowNum; j++) {
+        int row = i * rowNum + j;
+        tuple.put(0, DatumFactory.createInt8(row));
+        tuple.put(1, DatumFactory.createText("name_" + row));
+        appender.addTuple(tuple);
+      }
+      appender.flush();
+      appender.close();
+      long length = path.getFileSystem(conf).getFileStatus(path).getLen();
+      fragments.add(new FileFragment("t1", path, 0, length));
+    }
+    return fragments;
+  }
+
+  /**
+   * @return The number of rows, each of which has only the projected name column.
+   */
+  private static int scanNames(CachedTableScanner scanner, boolean projected) throws IOException {
+    scanner.init();
+    int row = 0;
+    Tuple tuple;
+    while ((tuple = scanner.next()) != null) {
+      if (projected) {
+        // the columns out of the target are not decoded from the cache
+        assertNull(tuple.get(0));
+      }
+      assertEquals("name_" + row, tuple.get(1).asChars());
+      row++;
+    }
+    scanner.close();
+    return row;
+  }
+
+  @Test
+  public void testCachedTableScanner() throws Exception {
+    TajoConf conf = new TajoConf();
+    TableMeta meta = CatalogUtil.newTableMeta(StoreType.CSV);
+    List<FileFragment> fragments = writeFragments(conf, meta, 2, 1000);
+    TableFragmentCache cache = new TableFragmentCache(8 * 1024 * 1024);
+
+    Schema target = new Schema();
+    target.addColumn(SCHEMA.getColumn("name"));
+    for (int i = 0; i < 2; i++) {
+      CachedTableScanner scanner = new CachedTableScanner(cache, "default.t1", 1, conf, meta, SCHEMA, fragments,
+          target);
+      assertEquals(2000, scanNames(scanner, true));
+      assertEquals(2000, scanner.getInputStats().getNumRows());
+    }
+
+    // the first scan loads both fragments, and the second one reads them from the cache
+    assertEquals(2, cache.getMissNum());
+    assertEquals(2, cache.getHitNum());
+    assertEquals(2, cache.getFragmentNum());
+  }
+
+  @Test
+  public void testCachedTableScannerFallback() throws Exception {
+    TajoConf conf = new TajoConf();
+    TableMeta meta = CatalogUtil.newTableMeta(StoreType.CSV);
+    List<FileFragment> fragments = writeFragments(conf, meta, 2, 1000);
+    // no fragment fits into the cache, so they are read from the storage
+    TableFragmentCache cache = new TableFragmentCache(1024);
+
+    Schema target = new Schema();
+    target.addColumn(SCHEMA.getColumn("name"));
+    CachedTableScanner scanner = new CachedTableScanner(cache, "default.t1", 1, conf, meta, SCHEMA, fragments,
+        target);
+    assertEquals(2000, scanNames(scanner, false));
+    assertEquals(2000, scanner.getInputStats().getNumRows());
+    assertEquals(0, cache.getFragmentNum());
+    assertEquals(0, cache.getUsedBytes());
+  }
+}
@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master;
+
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestTableCacheManager {
+
+  @Test
+  public void testCacheAndUncache() {
+    TableCacheManager manager = new TableCacheManager();
+    assertTrue(manager.isEmpty());
+    long lastCacheId = manager.getLastCacheId();
+
+    long cacheId = manager.cache("default.t1");
+    assertTrue(cacheId > lastCacheId);
+    // caching a cached table again keeps its cache id
+    assertEquals(cacheId, manager.cache("default.t1"));
+    assertEquals(cacheId, manager.getCacheId("default.t1").longValue());
+    assertEquals(cacheId, manager.getLastCacheId());
+    assertNull(manager.getCacheId("default.t2"));
+
+    assertTrue(manager.uncache("default.t1"));
+    assertFalse(manager.uncache("default.t1"));
+    assertNull(manager.getCacheId("default.t1"));
+    assertTrue(manager.isEmpty());
+  }
+
+  @Test
+  public void testRefresh() {
+    TableCacheManager manager = new TableCacheManager();
+    long cacheId1 = manager.cache("default.t1");
+    long cacheId2 = manager.cache("default.t2");
+
+    manager.refresh("default.t1");
+    long renewed = manager.getCacheId("default.t1");
+    assertTrue(renewed > cacheId2);
+    assertEquals(renewed, manager.getLastCacheId());
+    assertEquals(Sets.newHashSet(renewed, cacheId2), Sets.newHashSet(manager.getValidCacheIds()));
+    assertFalse(manager.getValidCacheIds().contains(cacheId1));
+
+    // refreshing a table which is not cached does not cache it
+    manager.refresh("default.t3");
+    assertNull(manager.getCacheId("default.t3"));
+    assertEquals(renewed, manager.getLastCacheId());
+  }
+
+  @Test
+  public void testUncacheDatabase() {
+    TableCacheManager manager = new TableCacheManager();
+    manager.cache("db1.t1");
+    manager.cache("db1.t2");
+    long cacheId = manager.cache("db2.t1");
+
+    manager.uncacheDatabase("db1");
+    assertNull(manager.getCacheId("db1.t1"));
+    assertNull(manager.getCacheId("db1.t2"));
+    assertEquals(cacheId, manager.getCacheId("db2.t1").longValue());
+  }
+
+  @Test
+  public void testCacheIdsAfterRestart() throws Exception {
+    long lastCacheId = new TableCacheManager().cache("default.t1");
+    Thread.sleep(2);
+    // a new master never reissues the cache ids which workers may still hold
+    assertTrue(new TableCacheManager().cache("default.t1") > lastCacheId);
+  }
+}
@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.querymaster;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableDesc;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.plan.logical.ScanNode;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestCachedFragmentScheduling {
+  private static final String [] HOSTS = {"host1", "host2", "host3"};
+
+  private static FileFragment newFragment(String tableName, int fileId, String... hosts) {
+    return new FileFragment(tableName, new Path("file:///tmp/" + tableName + "/file_" + fileId), 0, 1024, hosts);
+  }
+
+  @Test
+  public void testChooseCachingHost() {
+    int [] chosenNums = new int[HOSTS.length];
+    for (int i = 0; i < 300; i++) {
+      FileFragment fragment = newFragment("default.t1", i, HOSTS);
+      int chosen = Task.chooseCachingHost(fragment);
+      assertTrue(chosen >= 0 && chosen < HOSTS.length);
+      chosenNums[chosen]++;
+
+      // every scan of the fragment chooses the same host regardless of the order of its hosts
+      assertEquals(chosen, Task.chooseCachingHost(newFragment("default.t1", i, HOSTS)));
+      FileFragment reordered = newFragment("default.t1", i, HOSTS[2], HOSTS[0], HOSTS[1]);
+      assertEquals(HOSTS[chosen], reordered.getHosts()[Task.chooseCachingHost(reordered)]);
+
+      // losing another host does not move the fragment
+      String [] remaining = new String[HOSTS.length - 1];
+      for (int j = 0, k = 0; j < HOSTS.length; j++) {
+        if (j != (chosen + 1) % HOSTS.length) {
+          remaining[k++] = HOSTS[j];
+        }
+      }
+      FileFragment shrunk = newFragment("default.t1", i, remaining);
+      assertEquals(HOSTS[chosen], remaining[Task.chooseCachingHost(shrunk)]);
+    }
+
+    // the fragments are spread over the hosts
+    for (int chosenNum : chosenNums) {
+      assertTrue(chosenNum > 50);
+    }
+
+    assertEquals(-1, Task.chooseCachingHost(newFragment("default.t1", 0)));
+  }
+
+  @Test
+  public void testIsCachedFragment() {
+    Schema schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    ScanNode scan1 = new ScanNode(1);
+    scan1.init(new TableDesc("default.t1", schema, CatalogUtil.newTableMeta(StoreType.CSV),
+        new Path("file:///tmp/default.t1").toUri()));
+    ScanNode scan2 = new ScanNode(2);
+    scan2.init(new TableDesc("default.t2", schema, CatalogUtil.newTableMeta(StoreType.CSV),
+        new Path("file:///tmp/default.t2").toUri()), "b");
+    ScanNode [] scans = {scan1, scan2};
+
+    QueryContext queryContext = new QueryContext(new TajoConf());
+    queryContext.setTableCacheId("default.t1", 1);
+
+    assertTrue(DefaultTaskScheduler.isCachedFragment(queryContext, scans, newFragment("default.t1", 0, HOSTS)));
+    // a fragment is named after the alias of its scan, and the scan is resolved to its table
+    assertFalse(DefaultTaskScheduler.isCachedFragment(queryContext, scans, newFragment("default.b", 0, HOSTS)));
+    queryContext.setTableCacheId("default.t2", 2);
+    assertTrue(DefaultTaskScheduler.isCachedFragment(queryContext, scans, newFragment("default.b", 0, HOSTS)));
+
+    assertFalse(DefaultTaskScheduler.isCachedFragment(queryContext, scans, newFragment("default.t3", 0, HOSTS)));
+    assertFalse(DefaultTaskScheduler.isCachedFragment(null, scans, newFragment("default.t1", 0, HOSTS)));
+  }
+}
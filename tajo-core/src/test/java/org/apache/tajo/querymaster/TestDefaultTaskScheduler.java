@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.querymaster;
+
+import com.google.protobuf.RpcCallback;
+import org.apache.hadoop.yarn.event.EventHandler;
+import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.QueryIdFactory;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.conf.TajoConf.ConfVars;
+import org.apache.tajo.ipc.TajoWorkerProtocol.TaskRequestProto;
+import org.apache.tajo.ipc.TajoWorkerProtocol.TaskRequestsProto;
+import org.apache.tajo.master.container.TajoConverterUtils;
+import org.apache.tajo.master.event.TaskRequestEvent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests how {@link DefaultTaskScheduler} fills up a task request with a batch of tasks and answers it.
+ */
+public class TestDefaultTaskScheduler {
+  private final ExecutionBlockId ebId = QueryIdFactory.newExecutionBlockId(QueryIdFactory.newQueryId(0, 1), 1);
+  private int nextTaskId = 0;
+
+  private TaskRequestEvent newRequest(int maxTaskNum, final List<TaskRequestsProto> responses) {
+    return new TaskRequestEvent(1, TajoConverterUtils.toTajoContainerId("container_1411700000000_0001_01_000001"),
+        ebId, maxTaskNum, new RpcCallback<TaskRequestsProto>() {
+      @Override
+      public void run(TaskRequestsProto parameter) {
+        responses.add(parameter);
+      }
+    });
+  }
+
+  private TaskRequestProto newTask() {
+    return TaskRequestProto.newBuilder()
+        .setId(QueryIdFactory.newTaskAttemptId(QueryIdFactory.newTaskId(ebId, nextTaskId++), 0).getProto())
+        .setOutputTable("")
+        .setClusteredOutput(false)
+        .build();
+  }
+
+  @Test
+  public final void testBatchLimit() {
+    TajoConf conf = new TajoConf();
+    conf.setIntVar(ConfVars.WORKER_TASK_RUNNER_MAX_ASSIGNED_TASKS, 3);
+    List<TaskRequestsProto> responses = new ArrayList<TaskRequestsProto>();
+    TaskRequestEvent request = newRequest(conf.getIntVar(ConfVars.WORKER_TASK_RUNNER_MAX_ASSIGNED_TASKS), responses);
+
+    int remainingTaskNum = 10;
+    do {
+      request.addAssignedTask(newTask());
+      remainingTaskNum--;
+    } while (DefaultTaskScheduler.canAssignMore(request, remainingTaskNum, 0));
+    request.respond();
+
+    // the request is filled up to the limit although more tasks remain
+    assertEquals(7, remainingTaskNum);
+    assertEquals(1, responses.size());
+    assertEquals(3, responses.get(0).getTaskRequestsCount());
+    assertFalse(request.hasAssignedTask());
+  }
+
+  @Test
+  public final void testBatchDoesNotStarveWaitingRequests() {
+    List<TaskRequestsProto> responses = new ArrayList<TaskRequestsProto>();
+    TaskRequestEvent request = newRequest(3, responses);
+    request.addAssignedTask(newTask());
+
+    // two tasks remain for two waiting requests, so this request must not take them
+    assertFalse(DefaultTaskScheduler.canAssignMore(request, 2, 2));
+    assertTrue(DefaultTaskScheduler.canAssignMore(request, 3, 2));
+
+    // a request of an old task runner receives a single task
+    TaskRequestEvent single = newRequest(0, responses);
+    assertEquals(1, single.getMaxTaskNum());
+    single.addAssignedTask(newTask());
+    assertFalse(DefaultTaskScheduler.canAssignMore(single, 10, 0));
+  }
+
+  @Test
+  public final void testRequeueRequestsWithoutTasks() {
+    List<TaskRequestsProto> filledResponses = new ArrayList<TaskRequestsProto>();
+    List<TaskRequestsProto> emptyResponses = new ArrayList<TaskRequestsProto>();
+    TaskRequestEvent filled = newRequest(3, filledResponses);
+    TaskRequestEvent empty = newRequest(3, emptyResponses);
+    filled.addAssignedTask(newTask());
+
+    final List<TaskRequestEvent> requeued = new ArrayList<TaskRequestEvent>();
+    List<TaskRequestEvent> remaining = new ArrayList<TaskRequestEvent>();
+    remaining.add(filled);
+    remaining.add(empty);
+    DefaultTaskScheduler.respondOrRequeue(remaining, new EventHandler<TaskRequestEvent>() {
+      @Override
+      public void handle(TaskRequestEvent event) {
+        requeued.add(event);
+      }
+    });
+
+    // a partially filled request gets what it has, and a request without any task waits for the next scheduling
+    assertTrue(remaining.isEmpty());
+    assertEquals(1, filledResponses.size());
+    assertEquals(1, filledResponses.get(0).getTaskRequestsCount());
+    assertTrue(emptyResponses.isEmpty());
+    assertEquals(1, requeued.size());
+    assertSame(empty, requeued.get(0));
+  }
+
+  @Test
+  public final void testStopTaskRunner() {
+    List<TaskRequestsProto> responses = new ArrayList<TaskRequestsProto>();
+    TaskRequestEvent request = newRequest(3, responses);
+    TaskRequestProto task = newTask();
+    request.addAssignedTask(task);
+
+    // the tasks already assigned to a released container are sent instead of the stop signal
+    DefaultTaskScheduler.stopTaskRunner(request);
+    assertEquals(1, responses.size());
+    assertEquals(1, responses.get(0).getTaskRequestsCount());
+    assertEquals(task, responses.get(0).getTaskRequests(0));
+    assertFalse(responses.get(0).getTaskRequests(0).getShouldDie());
+
+    DefaultTaskScheduler.stopTaskRunner(request);
+    assertEquals(2, responses.size());
+    assertTrue(responses.get(1).getTaskRequests(0).getShouldDie());
+  }
+}
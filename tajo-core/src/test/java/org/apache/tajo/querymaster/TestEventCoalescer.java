@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.querymaster;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.yarn.event.Event;
+import org.apache.hadoop.yarn.event.EventHandler;
+import org.apache.tajo.querymaster.TestStripedEventDispatcher.SeqEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the coalescing of status updates in the way of {@link QueryMasterTask#handleTaskStatusUpdate}.
+ */
+public class TestEventCoalescer {
+  private static final int KEY = 1;
+
+  private final EventCoalescer<Integer, SeqEvent> coalescer = new EventCoalescer<Integer, SeqEvent>();
+  private final List<Integer> applied = Collections.synchronizedList(new ArrayList<Integer>());
+  private volatile CountDownLatch blocking;
+  private volatile CountDownLatch handling;
+  private volatile CountDownLatch resume;
+  private StripedEventDispatcher dispatcher;
+
+  @Before
+  public void setUp() {
+    dispatcher = new StripedEventDispatcher("test", 1, new EventHandler<Event>() {
+      @Override
+      public void handle(Event event) {
+        SeqEvent seqEvent = (SeqEvent) event;
+        if (seqEvent.key != KEY) {
+          // a blocker which keeps the stripe busy
+          blocking.countDown();
+          waitFor(resume);
+          return;
+        }
+        SeqEvent latest = coalescer.poll(seqEvent.key, seqEvent);
+        applied.add(latest.seq);
+        if (handling != null) {
+          handling.countDown();
+          waitFor(resume);
+        }
+      }
+    });
+    dispatcher.init(new Configuration());
+    dispatcher.start();
+  }
+
+  @After
+  public void tearDown() {
+    dispatcher.stop();
+  }
+
+  private static void waitFor(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void update(int seq) {
+    SeqEvent event = new SeqEvent(KEY, seq);
+    if (coalescer.offer(KEY, event)) {
+      dispatcher.dispatch(KEY, event);
+    }
+  }
+
+  private void waitForApplied(int num) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10000;
+    while (applied.size() < num && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    // no more update is applied
+    Thread.sleep(100);
+  }
+
+  @Test
+  public final void testCoalesceQueuedUpdates() throws Exception {
+    blocking = new CountDownLatch(1);
+    resume = new CountDownLatch(1);
+    dispatcher.dispatch(KEY + 1, new SeqEvent(KEY + 1, 0));
+    assertTrue(blocking.await(10, TimeUnit.SECONDS));
+
+    // while the stripe is busy, only the first update is dispatched and it applies the latest one
+    for (int seq = 0; seq < 5; seq++) {
+      update(seq);
+    }
+    assertEquals(1, coalescer.size());
+    assertEquals(1, dispatcher.getQueueDepth());
+
+    resume.countDown();
+    waitForApplied(1);
+    assertEquals(Collections.singletonList(4), applied);
+    assertEquals(0, coalescer.size());
+  }
+
+  @Test
+  public final void testUpdateWhileHandling() throws Exception {
+    handling = new CountDownLatch(1);
+    resume = new CountDownLatch(1);
+
+    update(0);
+    assertTrue(handling.await(10, TimeUnit.SECONDS));
+
+    // the dispatched update has taken its status, so a new update must be dispatched again
+    SeqEvent event = new SeqEvent(KEY, 1);
+    assertTrue(coalescer.offer(KEY, event));
+    dispatcher.dispatch(KEY, event);
+    // but the next one is applied by the dispatched one
+    assertFalse(coalescer.offer(KEY, new SeqEvent(KEY, 2)));
+
+    handling = null;
+    resume.countDown();
+    waitForApplied(2);
+    assertEquals(2, applied.size());
+    assertEquals(0, applied.get(0).intValue());
+    assertEquals(2, applied.get(1).intValue());
+    assertEquals(0, coalescer.size());
+  }
+}
@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.querymaster;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.service.Service;
+import org.apache.hadoop.yarn.event.AbstractEvent;
+import org.apache.hadoop.yarn.event.Event;
+import org.apache.hadoop.yarn.event.EventHandler;
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TestStripedEventDispatcher {
+  enum TestEventType {
+    SEQ
+  }
+
+  static class SeqEvent extends AbstractEvent<TestEventType> {
+    final int key;
+    final int seq;
+
+    SeqEvent(int key, int seq) {
+      super(TestEventType.SEQ);
+      this.key = key;
+      this.seq = seq;
+    }
+  }
+
+  private static StripedEventDispatcher startDispatcher(int stripeNum, EventHandler<Event> handler) {
+    StripedEventDispatcher dispatcher = new StripedEventDispatcher("test", stripeNum, handler);
+    dispatcher.init(new Configuration());
+    dispatcher.start();
+    return dispatcher;
+  }
+
+  @Test
+  public final void testOrderPerKey() throws Exception {
+    final int keyNum = 16;
+    final int eventNumPerKey = 1000;
+    final ConcurrentMap<Integer, Integer> lastSeqs = new ConcurrentHashMap<Integer, Integer>();
+    final ConcurrentMap<Integer, AtomicInteger> inFlights = new ConcurrentHashMap<Integer, AtomicInteger>();
+    for (int key = 0; key < keyNum; key++) {
+      lastSeqs.put(key, -1);
+      inFlights.put(key, new AtomicInteger());
+    }
+    final AtomicBoolean violated = new AtomicBoolean(false);
+    final CountDownLatch handled = new CountDownLatch(keyNum * eventNumPerKey);
+
+    StripedEventDispatcher dispatcher = startDispatcher(4, new EventHandler<Event>() {
+      @Override
+      public void handle(Event event) {
+        SeqEvent seqEvent = (SeqEvent) event;
+        if (inFlights.get(seqEvent.key).incrementAndGet() > 1) {
+          violated.set(true); // the events of a key are handled concurrently
+        }
+        if (lastSeqs.put(seqEvent.key, seqEvent.seq) != seqEvent.seq - 1) {
+          violated.set(true); // the events of a key are handled out of order
+        }
+        inFlights.get(seqEvent.key).decrementAndGet();
+        handled.countDown();
+      }
+    });
+
+    try {
+      for (int seq = 0; seq < eventNumPerKey; seq++) {
+        for (int key = 0; key < keyNum; key++) {
+          dispatcher.dispatch(key, new SeqEvent(key, seq));
+        }
+      }
+      assertTrue(handled.await(30, TimeUnit.SECONDS));
+      assertFalse(violated.get());
+      assertEquals(0, dispatcher.getQueueDepth());
+      for (int key = 0; key < keyNum; key++) {
+        assertEquals(eventNumPerKey - 1, lastSeqs.get(key).intValue());
+      }
+    } finally {
+      dispatcher.stop();
+    }
+  }
+
+  @Test
+  public final void testStop() throws Exception {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicInteger handledNum = new AtomicInteger();
+
+    final StripedEventDispatcher dispatcher = startDispatcher(2, new EventHandler<Event>() {
+      @Override
+      public void handle(Event event) {
+        started.countDown();
+        // an event in progress is finished even if the stripe is interrupted
+        while (true) {
+          try {
+            release.await();
+            break;
+          } catch (InterruptedException e) {
+            // keep waiting
+          }
+        }
+        handledNum.incrementAndGet();
+      }
+    });
+
+    dispatcher.dispatch(0, new SeqEvent(0, 0));
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+
+    Thread stopper = new Thread() {
+      @Override
+      public void run() {
+        dispatcher.stop();
+      }
+    };
+    stopper.start();
+    // stop() waits for the event in progress
+    stopper.join(200);
+    assertTrue(stopper.isAlive());
+
+    release.countDown();
+    stopper.join(10000);
+    assertFalse(stopper.isAlive());
+    assertEquals(1, handledNum.get());
+    assertEquals(Service.STATE.STOPPED, dispatcher.getServiceState());
+
+    // no event is handled after stopping
+    dispatcher.dispatch(1, new SeqEvent(1, 0));
+    Thread.sleep(200);
+    assertEquals(1, handledNum.get());
+
+    // stopping again has no effect
+    dispatcher.stop();
+  }
+}
@@ -18,6 +18,7 @@
 
 package org.apache.tajo.worker;
 
+import io.netty.channel.EventLoopGroup;
 import org.apache.hadoop.fs.*;
 import org.apache.tajo.QueryId;
 import org.apache.tajo.QueryIdFactory;
@@ -29,9 +30,6 @@ import org.apache.tajo.pullserver.retriever.FileChunk;
 import org.apache.tajo.rpc.RpcChannelFactory;
 import org.apache.tajo.storage.HashShuffleAppenderManager;
 import org.apache.tajo.util.CommonTestingUtil;
-import org.jboss.netty.channel.socket.ClientSocketChannelFactory;
-import org.jboss.netty.util.HashedWheelTimer;
-import org.jboss.netty.util.Timer;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -49,8 +47,7 @@ public class TestFetcher {
   private String OUTPUT_DIR = TEST_DATA+"/out/";
   private TajoConf conf = new TajoConf();
   private TajoPullServerService pullServerService;
-  private ClientSocketChannelFactory channelFactory;
-  private Timer timer;
+  private EventLoopGroup loopGroup;
 
   @Before
   public void setUp() throws Exception {
@@ -65,15 +62,13 @@ public class TestFetcher {
     pullServerService.init(conf);
     pullServerService.start();
 
-    channelFactory = RpcChannelFactory.createClientChannelFactory("Fetcher", 1);
-    timer = new HashedWheelTimer();
+    loopGroup = RpcChannelFactory.createClientEventloopGroup("Fetcher", 1);
   }
 
   @After
   public void tearDown(){
     pullServerService.stop();
-    channelFactory.releaseExternalResources();
-    timer.stop();
+    loopGroup.shutdownGracefully();
   }
 
   @Test
@@ -101,7 +96,7 @@ public class TestFetcher {
     URI uri = URI.create("http://127.0.0.1:" + pullServerService.getPort() + "/?" + params);
     FileChunk storeChunk = new FileChunk(new File(OUTPUT_DIR + "data"), 0, 0);
     storeChunk.setFromRemote(true);
-    final Fetcher fetcher = new Fetcher(conf, uri, storeChunk, channelFactory, timer);
+    final Fetcher fetcher = new Fetcher(conf, uri, storeChunk, loopGroup);
     FileChunk chunk = fetcher.get();
     assertNotNull(chunk);
     assertNotNull(chunk.getFile());
@@ -147,7 +142,7 @@ public class TestFetcher {
     URI uri = URI.create("http://127.0.0.1:" + pullServerService.getPort() + "/?" + params);
     FileChunk storeChunk = new FileChunk(new File(OUTPUT_DIR + "data"), 0, 0);
     storeChunk.setFromRemote(true);
-    final Fetcher fetcher = new Fetcher(conf, uri, storeChunk, channelFactory, timer);
+    final Fetcher fetcher = new Fetcher(conf, uri, storeChunk, loopGroup);
     assertEquals(TajoProtos.FetcherState.FETCH_INIT, fetcher.getState());
 
     fetcher.get();
@@ -177,7 +172,7 @@ public class TestFetcher {
     URI uri = URI.create("http://127.0.0.1:" + pullServerService.getPort() + "/?" + params);
     FileChunk storeChunk = new FileChunk(new File(OUTPUT_DIR + "data"), 0, 0);
     storeChunk.setFromRemote(true);
-    final Fetcher fetcher = new Fetcher(conf, uri, storeChunk, channelFactory, timer);
+    final Fetcher fetcher = new Fetcher(conf, uri, storeChunk, loopGroup);
     assertEquals(TajoProtos.FetcherState.FETCH_INIT, fetcher.getState());
 
     fetcher.get();
@@ -211,7 +206,7 @@ public class TestFetcher {
     URI uri = URI.create("http://127.0.0.1:" + pullServerService.getPort() + "/?" + params);
     FileChunk storeChunk = new FileChunk(new File(OUTPUT_DIR + "data"), 0, 0);
     storeChunk.setFromRemote(true);
-    final Fetcher fetcher = new Fetcher(conf, uri, storeChunk, channelFactory, timer);
+    final Fetcher fetcher = new Fetcher(conf, uri, storeChunk, loopGroup);
     assertEquals(TajoProtos.FetcherState.FETCH_INIT, fetcher.getState());
 
     fetcher.get();
@@ -231,7 +226,7 @@ public class TestFetcher {
     URI uri = URI.create("http://127.0.0.1:" + pullServerService.getPort() + "/?" + params);
     FileChunk storeChunk = new FileChunk(new File(OUTPUT_DIR + "data"), 0, 0);
     storeChunk.setFromRemote(true);
-    final Fetcher fetcher = new Fetcher(conf, uri, storeChunk, channelFactory, timer);
+    final Fetcher fetcher = new Fetcher(conf, uri, storeChunk, loopGroup);
     assertEquals(TajoProtos.FetcherState.FETCH_INIT, fetcher.getState());
 
     pullServerService.stop();
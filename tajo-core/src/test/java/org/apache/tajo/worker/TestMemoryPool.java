@@ -0,0 +1,112 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import org.apache.tajo.LocalTajoTestingUtility;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.engine.exception.MemoryExhaustedException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestMemoryPool {
+  private static final long UNIT = MemoryPool.DEFAULT_GRANT_UNIT;
+
+  @Test
+  public void testReserveAndRelease() {
+    MemoryPool worker = new MemoryPool("worker", 10 * UNIT);
+    MemoryPool query = worker.newChild("query", 4 * UNIT);
+    MemoryPool task = query.newChild("task");
+    MemoryPool operator = task.newChild("operator");
+
+    assertTrue(operator.tryReserve(100));
+    assertEquals(100, operator.getUsed());
+    // the upper pools grant memory in units
+    assertEquals(UNIT, task.getUsed());
+    assertEquals(UNIT, query.getUsed());
+    assertEquals(UNIT, worker.getUsed());
+
+    assertTrue(operator.tryReserve(3 * UNIT));
+    assertFalse(operator.tryReserve(UNIT)); // exceeds the limit of the query
+    assertEquals(3 * UNIT + 100, operator.getUsed());
+
+    operator.release(3 * UNIT);
+    assertEquals(100, operator.getUsed());
+    // each pool keeps at most one unit which is not used yet
+    assertTrue(query.getUsed() < 3 * UNIT);
+
+    operator.close();
+    assertEquals(0, operator.getUsed());
+    assertEquals(3 * UNIT + 100, operator.getPeak());
+    assertEquals(0, task.getUsed());
+
+    task.close();
+    query.close();
+    assertEquals(0, worker.getUsed());
+  }
+
+  @Test
+  public void testSiblingsShareParentLimit() {
+    MemoryPool worker = new MemoryPool("worker", 4 * UNIT);
+    MemoryPool query1 = worker.newChild("query1");
+    MemoryPool query2 = worker.newChild("query2");
+
+    assertTrue(query1.tryReserve(3 * UNIT));
+    assertFalse(query2.tryReserve(2 * UNIT));
+    assertTrue(query2.tryReserve(UNIT));
+
+    query1.close();
+    assertTrue(query2.tryReserve(2 * UNIT));
+  }
+
+  @Test
+  public void testReserveFailsFast() {
+    MemoryPool worker = new MemoryPool("worker", 2 * UNIT);
+    MemoryPool operator = worker.newChild("query").newChild("task").newChild("operator");
+    operator.reserve(UNIT);
+
+    try {
+      operator.reserve(2 * UNIT);
+      fail("reserve() must fail if the worker does not have enough memory");
+    } catch (MemoryExhaustedException e) {
+      assertTrue(e.getMessage(), e.getMessage().startsWith("Memory exhausted in worker:"));
+    }
+    assertEquals(UNIT, operator.getUsed());
+  }
+
+  @Test
+  public void testQueryPoolOfWorkerMemoryManager() {
+    WorkerMemoryManager manager = new WorkerMemoryManager(8 * UNIT);
+    QueryId queryId = LocalTajoTestingUtility.newQueryId();
+
+    MemoryPool pool1 = manager.acquireQueryPool(queryId, 2 * UNIT);
+    MemoryPool pool2 = manager.acquireQueryPool(queryId, 2 * UNIT);
+    assertSame(pool1, pool2);
+    assertEquals(2 * UNIT, pool1.getLimit());
+
+    pool1.newChild("task").reserve(UNIT);
+    assertEquals(UNIT, manager.getQueryMemoryUsage(queryId));
+
+    manager.releaseQueryPool(queryId);
+    assertEquals(1, manager.getNumQueries());
+    manager.releaseQueryPool(queryId);
+    assertEquals(0, manager.getNumQueries());
+    assertEquals(0, manager.getRootPool().getUsed());
+  }
+}
@@ -0,0 +1,268 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import com.codahale.metrics.Counter;
+import com.google.common.collect.Maps;
+import com.google.protobuf.RpcCallback;
+import com.google.protobuf.RpcController;
+import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.QueryIdFactory;
+import org.apache.tajo.TajoProtos.TaskAttemptState;
+import org.apache.tajo.TaskAttemptId;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.conf.TajoConf.ConfVars;
+import org.apache.tajo.ipc.QueryMasterProtocol.QueryMasterProtocolService;
+import org.apache.tajo.ipc.TajoWorkerProtocol.GetTaskRequestProto;
+import org.apache.tajo.ipc.TajoWorkerProtocol.TaskRequestProto;
+import org.apache.tajo.ipc.TajoWorkerProtocol.TaskRequestsProto;
+import org.apache.tajo.ipc.TajoWorkerProtocol.TaskStatusProto;
+import org.apache.tajo.master.cluster.WorkerConnectionInfo;
+import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos.BoolProto;
+import org.apache.tajo.util.metrics.TajoSystemMetrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests how {@link TaskRunner} receives a batch of tasks, prefetches the next task and kills the tasks
+ * which are not launched yet. The query master and the tasks are mocked.
+ */
+public class TestTaskRunner {
+  private static final String CONTAINER_ID = "container_1411700000000_0001_01_000001";
+  private static final long TIMEOUT = 10000;
+
+  private final ExecutionBlockId ebId = QueryIdFactory.newExecutionBlockId(QueryIdFactory.newQueryId(0, 1), 1);
+  private final Map<TaskAttemptId, Task> tasks = Maps.newConcurrentMap();
+  private final Map<TaskAttemptId, Task> createdTasks = Maps.newConcurrentMap();
+  private final List<Integer> requestedTaskNums = Collections.synchronizedList(new ArrayList<Integer>());
+  // the number of finished tasks when each task request is sent
+  private final List<Integer> finishedNumsOnRequest = Collections.synchronizedList(new ArrayList<Integer>());
+  private final LinkedBlockingQueue<TaskRequestsProto> batches = new LinkedBlockingQueue<TaskRequestsProto>();
+  private final AtomicInteger finishedNum = new AtomicInteger();
+  private final CountDownLatch firstTaskRunning = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private TajoConf conf;
+  private ExecutionBlockContext context;
+  private TajoWorker.WorkerContext workerContext;
+  private QueryMasterProtocolService.Interface queryMaster;
+  private TaskRunner taskRunner;
+
+  @Before
+  public void setUp() throws Exception {
+    conf = new TajoConf();
+    conf.setIntVar(ConfVars.WORKER_TASK_RUNNER_MAX_ASSIGNED_TASKS, 3);
+
+    queryMaster = mock(QueryMasterProtocolService.Interface.class);
+    doAnswer(new Answer<Void>() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        GetTaskRequestProto request = (GetTaskRequestProto) invocation.getArguments()[1];
+        requestedTaskNums.add(request.getMaxTaskNum());
+        finishedNumsOnRequest.add(finishedNum.get());
+        TaskRequestsProto batch = batches.poll();
+        if (batch != null) {
+          ((RpcCallback<TaskRequestsProto>) invocation.getArguments()[2]).run(batch);
+        }
+        return null;
+      }
+    }).when(queryMaster).getTask(any(RpcController.class), any(GetTaskRequestProto.class),
+        Matchers.<RpcCallback<TaskRequestsProto>>any());
+
+    TajoSystemMetrics metrics = mock(TajoSystemMetrics.class);
+    when(metrics.counter(anyString(), anyString())).thenReturn(new Counter());
+    workerContext = mock(TajoWorker.WorkerContext.class);
+    when(workerContext.getConnectionInfo()).thenReturn(
+        new WorkerConnectionInfo("localhost", 28091, 28092, 28093, 28094, 28080));
+    when(workerContext.getWorkerSystemMetrics()).thenReturn(metrics);
+
+    context = mock(ExecutionBlockContext.class);
+    context.killedTasksNum = new AtomicInteger();
+    when(context.getConf()).thenReturn(conf);
+    when(context.getExecutionBlockId()).thenReturn(ebId);
+    when(context.getWorkerContext()).thenReturn(workerContext);
+    when(context.getQueryMasterStub()).thenReturn(queryMaster);
+    when(context.getTasks()).thenReturn(tasks);
+    when(context.getTask(any(TaskAttemptId.class))).thenAnswer(new Answer<Task>() {
+      @Override
+      public Task answer(InvocationOnMock invocation) throws Throwable {
+        return tasks.get(invocation.getArguments()[0]);
+      }
+    });
+    when(context.createTaskRunnerHistory(any(TaskRunner.class))).thenAnswer(new Answer<TaskRunnerHistory>() {
+      @Override
+      public TaskRunnerHistory answer(InvocationOnMock invocation) throws Throwable {
+        return new TaskRunnerHistory(((TaskRunner) invocation.getArguments()[0]).getContainerId(), ebId);
+      }
+    });
+
+    taskRunner = new TaskRunner(context, CONTAINER_ID) {
+      @Override
+      Task newTask(TaskAttemptId taskAttemptId, TaskRequestProto taskRequest) {
+        Task task = mockTask(taskAttemptId);
+        createdTasks.put(taskAttemptId, task);
+        return task;
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    taskRunner.stop();
+  }
+
+  /**
+   * The first task blocks until it is released, so that the second task stays prefetched
+   * and the others stay assigned during its run.
+   */
+  private Task mockTask(TaskAttemptId taskAttemptId) {
+    Task task = mock(Task.class);
+    when(task.getId()).thenReturn(taskAttemptId);
+    try {
+      doAnswer(new Answer<Void>() {
+        @Override
+        public Void answer(InvocationOnMock invocation) throws Throwable {
+          firstTaskRunning.countDown();
+          assertTrue(release.await(TIMEOUT, TimeUnit.MILLISECONDS));
+          finishedNum.incrementAndGet();
+          return null;
+        }
+      }).when(task).run();
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+    return task;
+  }
+
+  private TaskAttemptId[] addBatch(int taskNum) {
+    TaskAttemptId[] attemptIds = new TaskAttemptId[taskNum];
+    TaskRequestsProto.Builder builder = TaskRequestsProto.newBuilder();
+    for (int i = 0; i < taskNum; i++) {
+      attemptIds[i] = QueryIdFactory.newTaskAttemptId(QueryIdFactory.newTaskId(ebId, i), 0);
+      builder.addTaskRequests(TaskRequestProto.newBuilder()
+          .setId(attemptIds[i].getProto())
+          .setOutputTable("")
+          .setClusteredOutput(false));
+    }
+    batches.add(builder.build());
+    return attemptIds;
+  }
+
+  private void startTaskRunner() throws InterruptedException {
+    taskRunner.init(conf);
+    taskRunner.start();
+    assertTrue(firstTaskRunning.await(TIMEOUT, TimeUnit.MILLISECONDS));
+  }
+
+  private List<TaskStatusProto> reportedStatuses(int num) {
+    ArgumentCaptor<TaskStatusProto> captor = ArgumentCaptor.forClass(TaskStatusProto.class);
+    verify(queryMaster, timeout(TIMEOUT).times(num)).statusUpdate(any(RpcController.class), captor.capture(),
+        Matchers.<RpcCallback<BoolProto>>any());
+    return captor.getAllValues();
+  }
+
+  @Test
+  public final void testBatchLimit() throws Exception {
+    TaskAttemptId[] attemptIds = addBatch(3);
+    startTaskRunner();
+
+    // the first task runs, the second one is prefetched and the third one waits
+    assertEquals(1, requestedTaskNums.size());
+    assertEquals(3, requestedTaskNums.get(0).intValue());
+    assertTrue(createdTasks.containsKey(attemptIds[1]));
+    assertFalse(createdTasks.containsKey(attemptIds[2]));
+
+    release.countDown();
+    verify(queryMaster, timeout(TIMEOUT).times(2)).getTask(any(RpcController.class),
+        any(GetTaskRequestProto.class), Matchers.<RpcCallback<TaskRequestsProto>>any());
+
+    // the next request is sent only after all of the received tasks are done
+    assertEquals(3, finishedNumsOnRequest.get(1).intValue());
+    assertEquals(3, requestedTaskNums.get(1).intValue());
+    for (TaskAttemptId attemptId : attemptIds) {
+      verify(createdTasks.get(attemptId)).run();
+    }
+  }
+
+  @Test
+  public final void testKillPrefetchedAndAssignedTasks() throws Exception {
+    TaskAttemptId[] attemptIds = addBatch(3);
+    startTaskRunner();
+
+    TaskRunnerManager manager = new TaskRunnerManager(workerContext, null);
+    manager.addTaskRunner(context, taskRunner);
+
+    // the prefetched task is killed through the running tasks
+    Task prefetched = createdTasks.get(attemptIds[1]);
+    manager.killTaskAttempt(attemptIds[1]);
+    verify(prefetched).kill();
+
+    // the waiting task is reported as killed without being launched
+    manager.killTaskAttempt(attemptIds[2]);
+    List<TaskStatusProto> statuses = reportedStatuses(1);
+    assertEquals(attemptIds[2].getProto(), statuses.get(0).getId());
+    assertEquals(TaskAttemptState.TA_KILLED, statuses.get(0).getState());
+    assertEquals(1, context.killedTasksNum.get());
+
+    release.countDown();
+    // a killed task is still run to report its state
+    verify(prefetched, timeout(TIMEOUT)).run();
+    verify(queryMaster, timeout(TIMEOUT).times(2)).getTask(any(RpcController.class),
+        any(GetTaskRequestProto.class), Matchers.<RpcCallback<TaskRequestsProto>>any());
+    assertFalse(createdTasks.containsKey(attemptIds[2]));
+  }
+
+  @Test
+  public final void testKillRemainingTasksOnStop() throws Exception {
+    TaskAttemptId[] attemptIds = addBatch(3);
+    startTaskRunner();
+
+    taskRunner.stop();
+    release.countDown();
+
+    Task prefetched = createdTasks.get(attemptIds[1]);
+    verify(prefetched, timeout(TIMEOUT)).kill();
+    verify(prefetched, timeout(TIMEOUT)).run();
+
+    List<TaskStatusProto> statuses = reportedStatuses(1);
+    assertEquals(attemptIds[2].getProto(), statuses.get(0).getId());
+    assertEquals(TaskAttemptState.TA_KILLED, statuses.get(0).getState());
+    assertFalse(createdTasks.containsKey(attemptIds[2]));
+    assertEquals(1, requestedTaskNums.size());
+  }
+}
@@ -655,11 +655,13 @@ public class ExprAnnotator extends BaseAlgebraVisitor<ExprAnnotator.Context, Eva
 
     FunctionType functionType = setFunction.isDistinct() ?
         FunctionType.DISTINCT_AGGREGATION : FunctionType.AGGREGATION;
-    givenArgs[0] = visit(ctx, stack, params[0]);
-    if (setFunction.getSignature().equalsIgnoreCase("count")) {
-      paramTypes[0] = CatalogUtil.newSimpleDataType(Type.ANY);
-    } else {
-      paramTypes[0] = givenArgs[0].getValueType();
+    for (int i = 0; i < params.length; i++) {
+      givenArgs[i] = visit(ctx, stack, params[i]);
+      if (i == 0 && setFunction.getSignature().equalsIgnoreCase("count")) {
+        paramTypes[i] = CatalogUtil.newSimpleDataType(Type.ANY);
+      } else {
+        paramTypes[i] = givenArgs[i].getValueType();
+      }
     }
 
     if (!catalog.containFunction(setFunction.getSignature(), functionType, paramTypes)) {
@@ -28,6 +28,8 @@ import org.apache.tajo.ConfigKey;
 import org.apache.tajo.OverridableConf;
 import org.apache.tajo.SessionVars;
 import org.apache.tajo.algebra.JoinType;
+import org.apache.tajo.annotation.Nullable;
+import org.apache.tajo.catalog.CatalogService;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.conf.TajoConf.ConfVars;
 import org.apache.tajo.util.ReflectionUtil;
@@ -40,6 +42,7 @@ import org.apache.tajo.plan.joinorder.JoinGraph;
 import org.apache.tajo.plan.joinorder.JoinOrderAlgorithm;
 import org.apache.tajo.plan.logical.*;
 import org.apache.tajo.plan.rewrite.*;
+import org.apache.tajo.plan.rewrite.rules.PartitionedTableRewriter;
 import org.apache.tajo.plan.util.PlannerUtil;
 import org.apache.tajo.plan.visitor.BasicLogicalPlanVisitor;
 
@@ -62,6 +65,15 @@ public class LogicalOptimizer {
   private JoinOrderAlgorithm joinOrderAlgorithm = new GreedyHeuristicJoinOrderAlgorithm();
 
   public LogicalOptimizer(TajoConf conf) {
+    this(conf, null);
+  }
+
+  /**
+   * @param conf The system configuration
+   * @param catalog If it is given, the rewrite rules can use the metadata in the catalog
+   *                (e.g., partitions of partitioned tables).
+   */
+  public LogicalOptimizer(TajoConf conf, @Nullable CatalogService catalog) {
 
     Class clazz = conf.getClassVar(ConfVars.LOGICAL_PLAN_REWRITE_RULE_PROVIDER_CLASS);
     LogicalPlanRewriteRuleProvider provider = (LogicalPlanRewriteRuleProvider) ReflectionUtil.newInstance(clazz, conf);
@@ -70,6 +82,10 @@ public class LogicalOptimizer {
     rulesBeforeJoinOpt.addRewriteRule(provider.getPreRules());
     rulesAfterToJoinOpt = new BaseLogicalPlanRewriteEngine();
     rulesAfterToJoinOpt.addRewriteRule(provider.getPostRules());
+
+    if (catalog != null) {
+      rulesAfterToJoinOpt.replaceRewriteRule(new PartitionedTableRewriter(catalog));
+    }
   }
 
   public void addRuleAfterToJoinOpt(LogicalPlanRewriteRule rewriteRule) {
@@ -70,6 +70,7 @@ public class LogicalPlan {
   LogicalPlanner planner;
 
   private boolean isExplain;
+  private boolean isExplainAnalyze;
 
   public LogicalPlan(LogicalPlanner planner) {
     this.planner = planner;
@@ -107,13 +108,25 @@ public class LogicalPlan {
   }
 
   public void setExplain() {
+    setExplain(false);
+  }
+
+  /**
+   * @param analyze If true, the query is executed, and its plan is explained with the runtime statistics.
+   */
+  public void setExplain(boolean analyze) {
     isExplain = true;
+    isExplainAnalyze = analyze;
   }
 
   public boolean isExplain() {
     return isExplain;
   }
 
+  public boolean isExplainAnalyze() {
+    return isExplainAnalyze;
+  }
+
   /**
    * Create a new {@link QueryBlock} and Get
    *
@@ -474,6 +474,13 @@ public class LogicalPlanPreprocessor extends BaseAlgebraVisitor<LogicalPlanner.P
     return truncateTableNode;
   }
 
+  @Override
+  public LogicalNode visitCacheTable(LogicalPlanner.PlanContext ctx, Stack<Expr> stack, CacheTable expr)
+      throws PlanningException {
+    CacheTableNode cacheTableNode = ctx.plan.createNode(CacheTableNode.class);
+    return cacheTableNode;
+  }
+
   ///////////////////////////////////////////////////////////////////////////////////////////////////////////
   // Insert or Update Section
   ///////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -201,7 +201,7 @@ public class LogicalPlanner extends BaseAlgebraVisitor<LogicalPlanner.PlanContex
   }
 
   public LogicalNode visitExplain(PlanContext ctx, Stack<Expr> stack, Explain expr) throws PlanningException {
-    ctx.plan.setExplain();
+    ctx.plan.setExplain(expr.isAnalyze());
     return visit(ctx, stack, expr.getChild());
   }
 
@@ -1918,6 +1918,9 @@ public class LogicalPlanner extends BaseAlgebraVisitor<LogicalPlanner.PlanContex
     if (null != alterTable.getAddNewColumn()) {
       alterTableNode.setAddNewColumn(convertColumn(alterTable.getAddNewColumn()));
     }
+    alterTableNode.setPartitionColumns(alterTable.getPartitionColumns());
+    alterTableNode.setPartitionValues(alterTable.getPartitionValues());
+    alterTableNode.setLocation(alterTable.getLocation());
     alterTableNode.setAlterTableOpType(alterTable.getAlterTableOpType());
     return alterTableNode;
   }
@@ -1930,6 +1933,21 @@ public class LogicalPlanner extends BaseAlgebraVisitor<LogicalPlanner.PlanContex
     return truncateTableNode;
   }
 
+  @Override
+  public LogicalNode visitCacheTable(PlanContext context, Stack<Expr> stack, CacheTable cacheTable)
+      throws PlanningException {
+    CacheTableNode cacheTableNode = context.queryBlock.getNodeFromExpr(cacheTable);
+    String qualified;
+    if (CatalogUtil.isFQTableName(cacheTable.getTableName())) {
+      qualified = cacheTable.getTableName();
+    } else {
+      qualified = CatalogUtil.buildFQName(
+          context.queryContext.get(SessionVars.CURRENT_DATABASE), cacheTable.getTableName());
+    }
+    cacheTableNode.init(qualified, cacheTable.isCache());
+    return cacheTableNode;
+  }
+
   /*===============================================================================================
     Util SECTION
   ===============================================================================================*/
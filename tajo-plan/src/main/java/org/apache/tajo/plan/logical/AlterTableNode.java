@@ -37,6 +37,12 @@ public class AlterTableNode extends LogicalNode {
   @Expose
   private Column addNewColumn;
   @Expose
+  private String[] partitionColumns;
+  @Expose
+  private String[] partitionValues;
+  @Expose
+  private String location;
+  @Expose
   private AlterTableOpType alterTableOpType;
 
   public AlterTableNode(int pid) {
@@ -93,6 +99,34 @@ public class AlterTableNode extends LogicalNode {
     this.addNewColumn = addNewColumn;
   }
 
+  public String[] getPartitionColumns() {
+    return partitionColumns;
+  }
+
+  public void setPartitionColumns(String[] partitionColumns) {
+    this.partitionColumns = partitionColumns;
+  }
+
+  public String[] getPartitionValues() {
+    return partitionValues;
+  }
+
+  public void setPartitionValues(String[] partitionValues) {
+    this.partitionValues = partitionValues;
+  }
+
+  public boolean hasLocation() {
+    return location != null;
+  }
+
+  public String getLocation() {
+    return location;
+  }
+
+  public void setLocation(String location) {
+    this.location = location;
+  }
+
   public AlterTableOpType getAlterTableOpType() {
     return alterTableOpType;
   }
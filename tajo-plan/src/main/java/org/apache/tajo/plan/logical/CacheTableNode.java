@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.plan.logical;
+
+import com.google.common.base.Objects;
+import org.apache.tajo.plan.PlanString;
+
+public class CacheTableNode extends LogicalNode implements Cloneable {
+  private String tableName;
+  private boolean cache;
+
+  public CacheTableNode(int pid) {
+    super(pid, NodeType.CACHE_TABLE);
+  }
+
+  @Override
+  public int childNum() {
+    return 0;
+  }
+
+  @Override
+  public LogicalNode getChild(int idx) {
+    return null;
+  }
+
+  public void init(String tableName, boolean cache) {
+    this.tableName = tableName;
+    this.cache = cache;
+  }
+
+  public String getTableName() {
+    return tableName;
+  }
+
+  /**
+   * @return True if the table is cached, and false if the table is uncached.
+   */
+  public boolean isCache() {
+    return cache;
+  }
+
+  @Override
+  public PlanString getPlanString() {
+    return new PlanString(this).appendTitle(" " + tableName);
+  }
+
+  public int hashCode() {
+    return Objects.hashCode(tableName, cache);
+  }
+
+  public boolean equals(Object obj) {
+    if (obj instanceof CacheTableNode) {
+      CacheTableNode other = (CacheTableNode) obj;
+      return super.equals(other) &&
+          this.tableName.equals(other.tableName) &&
+          this.cache == other.cache;
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public Object clone() throws CloneNotSupportedException {
+    CacheTableNode cacheTableNode = (CacheTableNode) super.clone();
+    cacheTableNode.tableName = tableName;
+    cacheTableNode.cache = cache;
+    return cacheTableNode;
+  }
+
+  @Override
+  public String toString() {
+    return (cache ? "CACHE TABLE " : "UNCACHE TABLE ") + tableName;
+  }
+
+  @Override
+  public void preOrder(LogicalNodeVisitor visitor) {
+    visitor.visit(this);
+  }
+
+  @Override
+  public void postOrder(LogicalNodeVisitor visitor) {
+    visitor.visit(this);
+  }
+}
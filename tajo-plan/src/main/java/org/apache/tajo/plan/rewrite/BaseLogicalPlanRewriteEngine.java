@@ -66,6 +66,18 @@ public class BaseLogicalPlanRewriteEngine implements LogicalPlanRewriteEngine {
     }
   }
 
+  /**
+   * Replace a query rewrite rule which has the same name as a given rule.
+   * The order of the rules is kept. If there is no such a rule, nothing happens.
+   *
+   * @param rule The rule to replace the existing one
+   */
+  public void replaceRewriteRule(LogicalPlanRewriteRule rule) {
+    if (rewriteRules.containsKey(rule.getName())) {
+      rewriteRules.put(rule.getName(), rule);
+    }
+  }
+
   /**
    * Rewrite a logical plan with all query rewrite rules added to this engine.
    *
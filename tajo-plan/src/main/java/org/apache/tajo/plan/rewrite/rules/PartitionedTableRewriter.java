@@ -24,10 +24,16 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.fs.*;
 import org.apache.tajo.OverridableConf;
+import org.apache.tajo.SessionVars;
+import org.apache.tajo.annotation.Nullable;
+import org.apache.tajo.catalog.CatalogService;
+import org.apache.tajo.catalog.CatalogUtil;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.catalog.partition.PartitionMethodDesc;
+import org.apache.tajo.catalog.proto.CatalogProtos.PartitionDescProto;
+import org.apache.tajo.datum.Datum;
 import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.datum.NullDatum;
 import org.apache.tajo.plan.LogicalPlan;
@@ -37,6 +43,7 @@ import org.apache.tajo.plan.PlanningException;
 import org.apache.tajo.plan.expr.*;
 import org.apache.tajo.plan.logical.*;
 import org.apache.tajo.plan.visitor.BasicLogicalPlanVisitor;
+import org.apache.tajo.storage.StorageConstants;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
 import org.apache.tajo.util.StringUtils;
@@ -51,6 +58,16 @@ public class PartitionedTableRewriter implements LogicalPlanRewriteRule {
 
   private static final String NAME = "Partitioned Table Rewriter";
   private final Rewriter rewriter = new Rewriter();
+  /** If it is given, partitions registered in the catalog are used instead of listing partition directories. */
+  private final CatalogService catalog;
+
+  public PartitionedTableRewriter() {
+    this(null);
+  }
+
+  public PartitionedTableRewriter(@Nullable CatalogService catalog) {
+    this.catalog = catalog;
+  }
 
   @Override
   public String getName() {
@@ -114,10 +131,22 @@ public class PartitionedTableRewriter implements LogicalPlanRewriteRule {
    * @return
    * @throws IOException
    */
-  private Path [] findFilteredPaths(OverridableConf queryContext, Schema partitionColumns, EvalNode [] conjunctiveForms,
-                                    Path tablePath)
+  private Path [] findFilteredPaths(OverridableConf queryContext, TableDesc table, Schema partitionColumns,
+                                    EvalNode [] conjunctiveForms)
       throws IOException {
 
+    // Partitions written outside of Tajo are not registered, so the catalog is used only if it has all partitions.
+    // Otherwise, a single registered partition would hide all unregistered ones.
+    if (catalog != null && queryContext.getBool(SessionVars.PARTITION_PRUNING_FROM_CATALOG)
+        && Boolean.parseBoolean(table.getMeta().getOption(StorageConstants.PARTITIONS_REGISTERED, "false"))) {
+      Path [] filteredPaths = findFilteredPathsFromCatalog(table, partitionColumns, conjunctiveForms);
+      if (filteredPaths != null) {
+        LOG.info("Filtered partitions from catalog: " + filteredPaths.length);
+        return filteredPaths;
+      }
+    }
+
+    Path tablePath = new Path(table.getPath());
     FileSystem fs = tablePath.getFileSystem(queryContext.getConf());
 
     PathFilter [] filters;
@@ -139,6 +168,97 @@ public class PartitionedTableRewriter implements LogicalPlanRewriteRule {
     return filteredPaths;
   }
 
+  /**
+   * Find the partitions matched to the search condition among the partitions registered in the catalog.
+   * If there is an equality condition on the first partition column, only partitions prefixed with it are
+   * retrieved from the catalog.
+   *
+   * @return The paths of the filtered partitions. If the catalog does not have any partition of the table,
+   * it returns NULL.
+   */
+  private Path [] findFilteredPathsFromCatalog(TableDesc table, Schema partitionColumns, EvalNode [] conjunctiveForms) {
+    if (!CatalogUtil.isFQTableName(table.getName())) {
+      return null;
+    }
+
+    String [] split = CatalogUtil.splitFQTableName(table.getName());
+    String prefix = conjunctiveForms == null ? null : buildPartitionNamePrefix(partitionColumns, conjunctiveForms);
+
+    List<PartitionDescProto> partitions = catalog.getPartitions(split[0], split[1], prefix);
+    if (partitions != null && partitions.isEmpty() && prefix != null) {
+      // Nothing is matched to the prefix. But, it is not known yet if the table has any registered partition.
+      partitions = catalog.getPartitions(split[0], split[1], null);
+    }
+    if (partitions == null || partitions.isEmpty()) {
+      return null;
+    }
+
+    EvalNode filter = conjunctiveForms == null ? null : AlgebraicUtil.createSingletonExprFromCNF(conjunctiveForms);
+    List<Path> filteredPaths = Lists.newArrayList();
+    for (PartitionDescProto partition : partitions) {
+      if (filter != null) {
+        Tuple tuple = buildTupleFromPartitionName(partitionColumns, partition.getPartitionName());
+        if (tuple == null || !filter.eval(partitionColumns, tuple).asBool()) {
+          continue;
+        }
+      }
+      filteredPaths.add(new Path(partition.getPath()));
+    }
+    return filteredPaths.toArray(new Path[filteredPaths.size()]);
+  }
+
+  /**
+   * Build a partition name prefix (e.g., 'col1=abc/') from an equality condition on the first partition column.
+   * The prefix is built only for the data types whose string representations are the same as partition names.
+   *
+   * @return The prefix of matched partition names. If it cannot be built, it returns NULL.
+   */
+  private static String buildPartitionNamePrefix(Schema partitionColumns, EvalNode [] conjunctiveForms) {
+    Column firstColumn = partitionColumns.getColumn(0);
+    switch (firstColumn.getDataType().getType()) {
+    case INT2:
+    case INT4:
+    case INT8:
+    case TEXT:
+    case DATE:
+      break;
+    default:
+      return null;
+    }
+
+    for (EvalNode expr : conjunctiveForms) {
+      if (expr.getType() != EvalType.EQUAL) {
+        continue;
+      }
+      BinaryEval equal = (BinaryEval) expr;
+      EvalNode field;
+      EvalNode constant;
+      if (equal.getRightExpr().getType() == EvalType.CONST) {
+        field = equal.getLeftExpr();
+        constant = equal.getRightExpr();
+      } else {
+        field = equal.getRightExpr();
+        constant = equal.getLeftExpr();
+      }
+
+      if (field.getType() == EvalType.FIELD && constant.getType() == EvalType.CONST &&
+          ((FieldEval) field).getColumnRef().equals(firstColumn) &&
+          constant.getValueType().getType() == firstColumn.getDataType().getType()) {
+        Datum value = ((ConstEval) constant).getValue();
+        if (value.isNull()) {
+          return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(firstColumn.getSimpleName()).append("=").append(StringUtils.escapePathName(value.asChars()));
+        if (partitionColumns.size() > 1) {
+          sb.append("/");
+        }
+        return sb.toString();
+      }
+    }
+    return null;
+  }
+
   /**
    * Build path filters for all levels with a list of filter conditions.
    *
@@ -257,10 +377,10 @@ public class PartitionedTableRewriter implements LogicalPlanRewriteRule {
     }
 
     if (indexablePredicateSet.size() > 0) { // There are at least one indexable predicates
-      return findFilteredPaths(queryContext, paritionValuesSchema,
-          indexablePredicateSet.toArray(new EvalNode[indexablePredicateSet.size()]), new Path(table.getPath()));
+      return findFilteredPaths(queryContext, table, paritionValuesSchema,
+          indexablePredicateSet.toArray(new EvalNode[indexablePredicateSet.size()]));
     } else { // otherwise, we will get all partition paths.
-      return findFilteredPaths(queryContext, paritionValuesSchema, null, new Path(table.getPath()));
+      return findFilteredPaths(queryContext, table, paritionValuesSchema, null);
     }
   }
 
@@ -362,6 +482,21 @@ public class PartitionedTableRewriter implements LogicalPlanRewriteRule {
       return null;
     }
 
+    return buildTupleFromColumnValues(partitionColumnSchema, columnValues);
+  }
+
+  /**
+   * Transforms a partition name (e.g., col1=abc/col2=def/col3=ghi) into a tuple with a given partition column schema.
+   *
+   * @param partitionColumnSchema The partition column schema
+   * @param partitionName The partition name
+   * @return The tuple transformed from a partition name
+   */
+  public static Tuple buildTupleFromPartitionName(Schema partitionColumnSchema, String partitionName) {
+    return buildTupleFromColumnValues(partitionColumnSchema, partitionName.split("/"));
+  }
+
+  private static Tuple buildTupleFromColumnValues(Schema partitionColumnSchema, String [] columnValues) {
     Tuple tuple = new VTuple(partitionColumnSchema.size());
     int i = 0;
     for (; i < columnValues.length && i < partitionColumnSchema.size(); i++) {
@@ -370,6 +505,9 @@ public class PartitionedTableRewriter implements LogicalPlanRewriteRule {
         return null;
       }
       int columnId = partitionColumnSchema.getColumnIdByName(parts[0]);
+      if (columnId == -1) {
+        return null;
+      }
       Column keyColumn = partitionColumnSchema.getColumn(columnId);
       tuple.put(columnId, DatumFactory.createFromString(keyColumn.getDataType(), StringUtils.unescapePathName(parts[1])));
     }
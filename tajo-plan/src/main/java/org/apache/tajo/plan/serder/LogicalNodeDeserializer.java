@@ -22,6 +22,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.apache.hadoop.fs.Path;
 import org.apache.tajo.OverridableConf;
+import org.apache.tajo.algebra.AlterTableOpType;
 import org.apache.tajo.algebra.JoinType;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.Schema;
@@ -156,6 +157,9 @@ public class LogicalNodeDeserializer {
       case TRUNCATE_TABLE:
         current = convertTruncateTable(protoNode);
         break;
+      case CACHE_TABLE:
+        current = convertCacheTable(protoNode);
+        break;
 
       default:
         throw new RuntimeException("Unknown NodeType: " + protoNode.getType().name());
@@ -580,9 +584,23 @@ public class LogicalNodeDeserializer {
       alterTable.setColumnName(alterTableProto.getRenameColumn().getOldName());
       alterTable.setNewColumnName(alterTableProto.getRenameColumn().getNewName());
       break;
+    case ADD_PARTITION:
+    case DROP_PARTITION:
+      PlanProto.AlterTableNode.AlterPartition partitionProto = alterTableProto.getAlterPartition();
+      alterTable.setPartitionColumns(partitionProto.getColumnNamesList().toArray(
+          new String[partitionProto.getColumnNamesCount()]));
+      alterTable.setPartitionValues(partitionProto.getColumnValuesList().toArray(
+          new String[partitionProto.getColumnValuesCount()]));
+      if (partitionProto.hasLocation()) {
+        alterTable.setLocation(partitionProto.getLocation());
+      }
+      break;
+    case REPAIR_PARTITION:
+      break;
     default:
       throw new UnimplementedException("Unknown SET type in ALTER TABLE: " + alterTableProto.getSetType().name());
     }
+    alterTable.setAlterTableOpType(AlterTableOpType.valueOf(alterTableProto.getSetType().name()));
 
     return alterTable;
   }
@@ -596,6 +614,15 @@ public class LogicalNodeDeserializer {
     return truncateTable;
   }
 
+  private static CacheTableNode convertCacheTable(PlanProto.LogicalNode protoNode) {
+    CacheTableNode cacheTable = new CacheTableNode(protoNode.getNodeId());
+
+    PlanProto.CacheTableNode cacheTableProto = protoNode.getCacheTable();
+    cacheTable.init(cacheTableProto.getTableName(), cacheTableProto.getCache());
+
+    return cacheTable;
+  }
+
   private static AggregationFunctionCallEval [] convertAggFuncCallEvals(OverridableConf context,
                                                                        List<PlanProto.EvalNodeTree> evalTrees) {
     AggregationFunctionCallEval [] aggFuncs = new AggregationFunctionCallEval[evalTrees.size()];
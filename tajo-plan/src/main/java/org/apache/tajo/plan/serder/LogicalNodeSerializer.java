@@ -28,6 +28,7 @@ import org.apache.tajo.plan.PlanningException;
 import org.apache.tajo.plan.Target;
 import org.apache.tajo.plan.logical.*;
 import org.apache.tajo.plan.serder.PlanProto.AlterTableNode.AddColumn;
+import org.apache.tajo.plan.serder.PlanProto.AlterTableNode.AlterPartition;
 import org.apache.tajo.plan.serder.PlanProto.AlterTableNode.RenameColumn;
 import org.apache.tajo.plan.serder.PlanProto.AlterTableNode.RenameTable;
 import org.apache.tajo.plan.serder.PlanProto.AlterTablespaceNode.SetLocation;
@@ -565,6 +566,20 @@ public class LogicalNodeSerializer extends BasicLogicalPlanVisitor<LogicalNodeSe
           .setOldName(node.getColumnName())
           .setNewName(node.getNewColumnName()));
       break;
+    case ADD_PARTITION:
+    case DROP_PARTITION:
+      alterTableBuilder.setSetType(PlanProto.AlterTableNode.Type.valueOf(node.getAlterTableOpType().name()));
+      AlterPartition.Builder partitionBuilder = AlterPartition.newBuilder();
+      partitionBuilder.addAllColumnNames(TUtil.newList(node.getPartitionColumns()));
+      partitionBuilder.addAllColumnValues(TUtil.newList(node.getPartitionValues()));
+      if (node.hasLocation()) {
+        partitionBuilder.setLocation(node.getLocation());
+      }
+      alterTableBuilder.setAlterPartition(partitionBuilder);
+      break;
+    case REPAIR_PARTITION:
+      alterTableBuilder.setSetType(PlanProto.AlterTableNode.Type.REPAIR_PARTITION);
+      break;
     default:
       throw new UnimplementedException("Unknown SET type in ALTER TABLE: " + node.getAlterTableOpType().name());
     }
@@ -589,6 +604,20 @@ public class LogicalNodeSerializer extends BasicLogicalPlanVisitor<LogicalNodeSe
     return node;
   }
 
+  @Override
+  public LogicalNode visitCacheTable(SerializeContext context, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                                     CacheTableNode node, Stack<LogicalNode> stack) throws PlanningException {
+    PlanProto.CacheTableNode.Builder cacheTableBuilder = PlanProto.CacheTableNode.newBuilder();
+    cacheTableBuilder.setTableName(node.getTableName());
+    cacheTableBuilder.setCache(node.isCache());
+
+    PlanProto.LogicalNode.Builder nodeBuilder = createNodeBuilder(context, node);
+    nodeBuilder.setCacheTable(cacheTableBuilder);
+    context.treeBuilder.addNodes(nodeBuilder);
+
+    return node;
+  }
+
   public LogicalNode visitInsert(SerializeContext context, LogicalPlan plan, LogicalPlan.QueryBlock block,
                                  InsertNode node, Stack<LogicalNode> stack) throws PlanningException {
     super.visitInsert(context, plan, block, node, stack);
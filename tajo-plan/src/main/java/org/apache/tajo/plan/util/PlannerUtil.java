@@ -74,7 +74,8 @@ public class PlannerUtil {
             baseNode.getType() == NodeType.DROP_TABLE ||
             baseNode.getType() == NodeType.ALTER_TABLESPACE ||
             baseNode.getType() == NodeType.ALTER_TABLE ||
-            baseNode.getType() == NodeType.TRUNCATE_TABLE;
+            baseNode.getType() == NodeType.TRUNCATE_TABLE ||
+            baseNode.getType() == NodeType.CACHE_TABLE;
   }
 
   /**
@@ -267,6 +267,15 @@ public class PreLogicalPlanVerifier extends BaseAlgebraVisitor<PreLogicalPlanVer
     return expr;
   }
 
+  @Override
+  public Expr visitCacheTable(Context context, Stack<Expr> stack, CacheTable expr) throws PlanningException {
+    super.visitCacheTable(context, stack, expr);
+    if (expr.isCache()) {
+      assertRelationExistence(context, expr.getTableName());
+    }
+    return expr;
+  }
+
   ///////////////////////////////////////////////////////////////////////////////////////////////////////////
   // Insert or Update Section
   ///////////////////////////////////////////////////////////////////////////////////////////////////////////
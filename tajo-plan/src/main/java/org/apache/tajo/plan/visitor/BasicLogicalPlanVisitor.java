@@ -137,6 +137,9 @@ public class BasicLogicalPlanVisitor<CONTEXT, RESULT> implements LogicalPlanVisi
       case TRUNCATE_TABLE:
         current = visitTruncateTable(context, plan, block, (TruncateTableNode) node, stack);
         break;
+      case CACHE_TABLE:
+        current = visitCacheTable(context, plan, block, (CacheTableNode) node, stack);
+        break;
       default:
         throw new PlanningException("Unknown logical node type: " + node.getType());
     }
@@ -378,4 +381,10 @@ public class BasicLogicalPlanVisitor<CONTEXT, RESULT> implements LogicalPlanVisi
                                    TruncateTableNode node, Stack<LogicalNode> stack) throws PlanningException {
     return null;
   }
+
+  @Override
+  public RESULT visitCacheTable(CONTEXT context, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                                CacheTableNode node, Stack<LogicalNode> stack) throws PlanningException {
+    return null;
+  }
 }
@@ -104,4 +104,7 @@ public interface LogicalPlanVisitor<CONTEXT, RESULT> {
 
   RESULT visitTruncateTable(CONTEXT context, LogicalPlan plan, LogicalPlan.QueryBlock block, TruncateTableNode node,
                          Stack<LogicalNode> stack) throws PlanningException;
+
+  RESULT visitCacheTable(CONTEXT context, LogicalPlan plan, LogicalPlan.QueryBlock block, CacheTableNode node,
+                         Stack<LogicalNode> stack) throws PlanningException;
 }
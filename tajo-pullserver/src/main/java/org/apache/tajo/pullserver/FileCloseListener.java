@@ -18,8 +18,8 @@
 
 package org.apache.tajo.pullserver;
 
-import org.jboss.netty.channel.ChannelFuture;
-import org.jboss.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 
 public class FileCloseListener implements ChannelFutureListener {
 
@@ -45,7 +45,8 @@ public class FileCloseListener implements ChannelFutureListener {
     if(future.isSuccess()){
       filePart.transferSuccessful();
     }
-    filePart.releaseExternalResources();
+    // releases the reference retained before the write, which closes the file
+    filePart.release();
     if (pullServerService != null) {
       pullServerService.completeFileChunk(filePart, requestUri, startTime);
     }
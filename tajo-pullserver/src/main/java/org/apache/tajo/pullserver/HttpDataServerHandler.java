@@ -19,19 +19,19 @@
 package org.apache.tajo.pullserver;
 
 import com.google.common.collect.Lists;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.*;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedFile;
+import io.netty.util.CharsetUtil;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.yarn.server.nodemanager.containermanager.localizer.ContainerLocalizer;
 import org.apache.tajo.ExecutionBlockId;
 import org.apache.tajo.pullserver.retriever.DataRetriever;
 import org.apache.tajo.pullserver.retriever.FileChunk;
-import org.jboss.netty.buffer.ChannelBuffers;
-import org.jboss.netty.channel.*;
-import org.jboss.netty.handler.codec.frame.TooLongFrameException;
-import org.jboss.netty.handler.codec.http.*;
-import org.jboss.netty.handler.ssl.SslHandler;
-import org.jboss.netty.handler.stream.ChunkedFile;
-import org.jboss.netty.util.CharsetUtil;
 
 import java.io.*;
 import java.net.URLDecoder;
@@ -41,14 +41,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
-import static org.jboss.netty.handler.codec.http.HttpHeaders.Names.CONTENT_TYPE;
-import static org.jboss.netty.handler.codec.http.HttpHeaders.isKeepAlive;
-import static org.jboss.netty.handler.codec.http.HttpHeaders.setContentLength;
-import static org.jboss.netty.handler.codec.http.HttpMethod.GET;
-import static org.jboss.netty.handler.codec.http.HttpResponseStatus.*;
-import static org.jboss.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+import static io.netty.handler.codec.http.HttpHeaders.Names.CONTENT_TYPE;
+import static io.netty.handler.codec.http.HttpHeaders.isKeepAlive;
+import static io.netty.handler.codec.http.HttpHeaders.setContentLength;
+import static io.netty.handler.codec.http.HttpMethod.GET;
+import static io.netty.handler.codec.http.HttpResponseStatus.*;
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
 
-public class HttpDataServerHandler extends SimpleChannelUpstreamHandler {
+public class HttpDataServerHandler extends SimpleChannelInboundHandler<HttpRequest> {
   private final static Log LOG = LogFactory.getLog(HttpDataServerHandler.class);
 
   Map<ExecutionBlockId, DataRetriever> retrievers =
@@ -62,9 +62,8 @@ public class HttpDataServerHandler extends SimpleChannelUpstreamHandler {
   }
 
   @Override
-  public void messageReceived(ChannelHandlerContext ctx, MessageEvent e)
+  public void channelRead0(ChannelHandlerContext ctx, HttpRequest request)
       throws Exception {
-    HttpRequest request = (HttpRequest) e.getMessage();
     if (request.getMethod() != GET) {
       sendError(ctx, METHOD_NOT_ALLOWED);
       return;
@@ -76,7 +75,7 @@ public class HttpDataServerHandler extends SimpleChannelUpstreamHandler {
             + appId + "/output" + "/";
 
     final Map<String, List<String>> params =
-        new QueryStringDecoder(request.getUri()).getParameters();
+        new QueryStringDecoder(request.getUri()).parameters();
 
     List<FileChunk> chunks = Lists.newArrayList();
     List<String> taskIds = splitMaps(params.get("ta"));
@@ -111,12 +110,12 @@ public class HttpDataServerHandler extends SimpleChannelUpstreamHandler {
 //    }
 
     // Write the content.
-    Channel ch = e.getChannel();
+    Channel ch = ctx.channel();
     if (file == null) {
-      HttpResponse response = new DefaultHttpResponse(HTTP_1_1, NO_CONTENT);
-      ch.write(response);
+      HttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, NO_CONTENT);
+      ChannelFuture writeFuture = ch.writeAndFlush(response);
       if (!isKeepAlive(request)) {
-        ch.close();
+        writeFuture.addListener(ChannelFutureListener.CLOSE);
       }
     }  else {
       HttpResponse response = new DefaultHttpResponse(HTTP_1_1, OK);
@@ -138,6 +137,7 @@ public class HttpDataServerHandler extends SimpleChannelUpstreamHandler {
           return;
         }
       }
+      writeFuture = ch.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
 
       // Decide whether to close the connection or not.
       if (!isKeepAlive(request)) {
@@ -158,37 +158,31 @@ public class HttpDataServerHandler extends SimpleChannelUpstreamHandler {
     }
 
     ChannelFuture writeFuture;
-    if (ch.getPipeline().get(SslHandler.class) != null) {
+    if (ch.pipeline().get(SslHandler.class) != null) {
       // Cannot use zero-copy with HTTPS.
       writeFuture = ch.write(new ChunkedFile(raf, file.startOffset(),
           file.length(), 8192));
     } else {
-      // No encryption - use zero-copy.
+      // No encryption - use zero-copy. The region is released after it is written.
       final FileRegion region = new DefaultFileRegion(raf.getChannel(),
           file.startOffset(), file.length());
       writeFuture = ch.write(region);
-      writeFuture.addListener(new ChannelFutureListener() {
-        public void operationComplete(ChannelFuture future) {
-          region.releaseExternalResources();
-        }
-      });
     }
 
     return writeFuture;
   }
 
   @Override
-  public void exceptionCaught(ChannelHandlerContext ctx, ExceptionEvent e)
+  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause)
       throws Exception {
-    Channel ch = e.getChannel();
-    Throwable cause = e.getCause();
+    Channel ch = ctx.channel();
     if (cause instanceof TooLongFrameException) {
       sendError(ctx, BAD_REQUEST);
       return;
     }
 
     cause.printStackTrace();
-    if (ch.isConnected()) {
+    if (ch.isActive()) {
       sendError(ctx, INTERNAL_SERVER_ERROR);
     }
   }
@@ -221,13 +215,12 @@ public class HttpDataServerHandler extends SimpleChannelUpstreamHandler {
   }
 
   private void sendError(ChannelHandlerContext ctx, HttpResponseStatus status) {
-    HttpResponse response = new DefaultHttpResponse(HTTP_1_1, status);
-    response.setHeader(CONTENT_TYPE, "text/plain; charset=UTF-8");
-    response.setContent(ChannelBuffers.copiedBuffer(
+    FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, status, Unpooled.copiedBuffer(
         "Failure: " + status.toString() + "\r\n", CharsetUtil.UTF_8));
+    response.headers().set(CONTENT_TYPE, "text/plain; charset=UTF-8");
 
     // Close the connection as soon as the error message is sent.
-    ctx.getChannel().write(response).addListener(ChannelFutureListener.CLOSE);
+    ctx.channel().writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
   }
 
   private List<String> splitMaps(List<String> qids) {
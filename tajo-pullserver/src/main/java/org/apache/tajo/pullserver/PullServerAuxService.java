@@ -20,6 +20,20 @@ package org.apache.tajo.pullserver;
 
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.*;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.util.CharsetUtil;
+import io.netty.util.concurrent.GlobalEventExecutor;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -53,18 +67,8 @@ import org.apache.tajo.storage.RowStoreUtil.RowStoreDecoder;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.TupleComparator;
 import org.apache.tajo.storage.index.bst.BSTIndex;
+import org.apache.tajo.rpc.RpcChannelFactory;
 import org.apache.tajo.util.TajoIdUtils;
-import org.jboss.netty.bootstrap.ServerBootstrap;
-import org.jboss.netty.buffer.ChannelBuffers;
-import org.jboss.netty.channel.*;
-import org.jboss.netty.channel.group.ChannelGroup;
-import org.jboss.netty.channel.group.DefaultChannelGroup;
-import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
-import org.jboss.netty.handler.codec.frame.TooLongFrameException;
-import org.jboss.netty.handler.codec.http.*;
-import org.jboss.netty.handler.ssl.SslHandler;
-import org.jboss.netty.handler.stream.ChunkedWriteHandler;
-import org.jboss.netty.util.CharsetUtil;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -78,16 +82,15 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
-import static org.jboss.netty.handler.codec.http.HttpHeaders.Names.CONTENT_TYPE;
-import static org.jboss.netty.handler.codec.http.HttpHeaders.isKeepAlive;
-import static org.jboss.netty.handler.codec.http.HttpHeaders.setContentLength;
-import static org.jboss.netty.handler.codec.http.HttpMethod.GET;
-import static org.jboss.netty.handler.codec.http.HttpResponseStatus.*;
-import static org.jboss.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+import static io.netty.handler.codec.http.HttpHeaders.Names.CONTENT_TYPE;
+import static io.netty.handler.codec.http.HttpHeaders.isKeepAlive;
+import static io.netty.handler.codec.http.HttpHeaders.setContentLength;
+import static io.netty.handler.codec.http.HttpMethod.GET;
+import static io.netty.handler.codec.http.HttpResponseStatus.*;
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
 
 public class PullServerAuxService extends AuxiliaryService {
 
@@ -100,8 +103,8 @@ public class PullServerAuxService extends AuxiliaryService {
   public static final int DEFAULT_SHUFFLE_READAHEAD_BYTES = 4 * 1024 * 1024;
 
   private int port;
-  private ChannelFactory selector;
-  private final ChannelGroup accepted = new DefaultChannelGroup();
+  private ServerBootstrap selector;
+  private final ChannelGroup accepted = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
   private HttpPipelineFactory pipelineFact;
   private int sslFileBufferSize;
 
@@ -218,9 +221,11 @@ public class PullServerAuxService extends AuxiliaryService {
           .setNameFormat("PullServerAuxService Netty Worker #%d")
           .build();
 
-      selector = new NioServerSocketChannelFactory(
-          Executors.newCachedThreadPool(bossFactory),
-          Executors.newCachedThreadPool(workerFactory));
+      // zero threads means the default number of threads, which is twice the number of cores
+      selector = new ServerBootstrap()
+          .group(new NioEventLoopGroup(1, bossFactory), new NioEventLoopGroup(0, workerFactory))
+          .channel(NioServerSocketChannel.class)
+          .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
 
       localFS = new LocalFileSystem();
       super.init(new Configuration(conf));
@@ -233,18 +238,17 @@ public class PullServerAuxService extends AuxiliaryService {
   @Override
   public synchronized void start() {
     Configuration conf = getConfig();
-    ServerBootstrap bootstrap = new ServerBootstrap(selector);
     try {
       pipelineFact = new HttpPipelineFactory(conf);
     } catch (Exception ex) {
       throw new RuntimeException(ex);
     }
-    bootstrap.setPipelineFactory(pipelineFact);
+    selector.childHandler(pipelineFact);
     port = conf.getInt(ConfVars.PULLSERVER_PORT.varname,
         ConfVars.PULLSERVER_PORT.defaultIntVal);
-    Channel ch = bootstrap.bind(new InetSocketAddress(port));
+    Channel ch = selector.bind(new InetSocketAddress(port)).syncUninterruptibly().channel();
     accepted.add(ch);
-    port = ((InetSocketAddress)ch.getLocalAddress()).getPort();
+    port = ((InetSocketAddress)ch.localAddress()).getPort();
     conf.set(ConfVars.PULLSERVER_PORT.varname, Integer.toString(port));
     pipelineFact.PullServer.setPort(port);
     LOG.info(getName() + " listening on port " + port);
@@ -262,8 +266,7 @@ public class PullServerAuxService extends AuxiliaryService {
   public synchronized void stop() {
     try {
       accepted.close().awaitUninterruptibly(10, TimeUnit.SECONDS);
-      ServerBootstrap bootstrap = new ServerBootstrap(selector);
-      bootstrap.releaseExternalResources();
+      RpcChannelFactory.shutdown(selector);
       pipelineFact.destroy();
 
       localFS.close();
@@ -285,7 +288,7 @@ public class PullServerAuxService extends AuxiliaryService {
     }
   }
 
-  class HttpPipelineFactory implements ChannelPipelineFactory {
+  class HttpPipelineFactory extends ChannelInitializer<Channel> {
 
     final PullServer PullServer;
     private SSLFactory sslFactory;
@@ -306,24 +309,24 @@ public class PullServerAuxService extends AuxiliaryService {
     }
 
     @Override
-    public ChannelPipeline getPipeline() throws Exception {
-      ChannelPipeline pipeline = Channels.pipeline();
+    protected void initChannel(Channel channel) throws Exception {
+      ChannelPipeline pipeline = channel.pipeline();
       if (sslFactory != null) {
         pipeline.addLast("ssl", new SslHandler(sslFactory.createSSLEngine()));
       }
       pipeline.addLast("decoder", new HttpRequestDecoder());
-      pipeline.addLast("aggregator", new HttpChunkAggregator(1 << 16));
+      pipeline.addLast("aggregator", new HttpObjectAggregator(1 << 16));
       pipeline.addLast("encoder", new HttpResponseEncoder());
       pipeline.addLast("chunking", new ChunkedWriteHandler());
       pipeline.addLast("shuffle", PullServer);
-      return pipeline;
       // TODO factor security manager into pipeline
       // TODO factor out encode/decode to permit binary shuffle
       // TODO factor out decode of index to permit alt. models
     }
   }
 
-  class PullServer extends SimpleChannelUpstreamHandler {
+  @ChannelHandler.Sharable
+  class PullServer extends SimpleChannelInboundHandler<FullHttpRequest> {
     private final Configuration conf;
     private final LocalDirAllocator lDirAlloc = new LocalDirAllocator(ConfVars.WORKER_TEMPORAL_DIR.varname);
     private int port;
@@ -349,10 +352,9 @@ public class PullServerAuxService extends AuxiliaryService {
     }
 
     @Override
-    public void messageReceived(ChannelHandlerContext ctx, MessageEvent e)
+    public void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request)
         throws Exception {
 
-      HttpRequest request = (HttpRequest) e.getMessage();
       if (request.getMethod() != GET) {
         sendError(ctx, METHOD_NOT_ALLOWED);
         return;
@@ -360,7 +362,7 @@ public class PullServerAuxService extends AuxiliaryService {
 
       // Parsing the URL into key-values
       final Map<String, List<String>> params =
-          new QueryStringDecoder(request.getUri()).getParameters();
+          new QueryStringDecoder(request.getUri()).parameters();
       final List<String> types = params.get("type");
       final List<String> taskIdList = params.get("ta");
       final List<String> stageIds = params.get("sid");
@@ -438,12 +440,12 @@ public class PullServerAuxService extends AuxiliaryService {
       }
 
       // Write the content.
-      Channel ch = e.getChannel();
+      Channel ch = ctx.channel();
       if (chunks.size() == 0) {
-        HttpResponse response = new DefaultHttpResponse(HTTP_1_1, NO_CONTENT);
-        ch.write(response);
+        HttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, NO_CONTENT);
+        ChannelFuture writeFuture = ch.writeAndFlush(response);
         if (!isKeepAlive(request)) {
-          ch.close();
+          writeFuture.addListener(ChannelFutureListener.CLOSE);
         }
       }  else {
         FileChunk[] file = chunks.toArray(new FileChunk[chunks.size()]);
@@ -466,6 +468,7 @@ public class PullServerAuxService extends AuxiliaryService {
             return;
           }
         }
+        writeFuture = ch.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
 
         // Decide whether to close the connection or not.
         if (!isKeepAlive(request)) {
@@ -486,10 +489,11 @@ public class PullServerAuxService extends AuxiliaryService {
         return null;
       }
       ChannelFuture writeFuture;
-      if (ch.getPipeline().get(SslHandler.class) == null) {
+      if (ch.pipeline().get(SslHandler.class) == null) {
         final FadvisedFileRegion partition = new FadvisedFileRegion(spill,
             file.startOffset(), file.length(), manageOsCache, readaheadLength,
             readaheadPool, file.getFile().getAbsolutePath());
+        partition.retain();
         writeFuture = ch.write(partition);
         writeFuture.addListener(new FileCloseListener(partition, null, 0, null));
       } else {
@@ -512,28 +516,26 @@ public class PullServerAuxService extends AuxiliaryService {
 
     private void sendError(ChannelHandlerContext ctx, String message,
         HttpResponseStatus status) {
-      HttpResponse response = new DefaultHttpResponse(HTTP_1_1, status);
-      response.setHeader(CONTENT_TYPE, "text/plain; charset=UTF-8");
-      response.setContent(
-        ChannelBuffers.copiedBuffer(message, CharsetUtil.UTF_8));
+      FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, status,
+        Unpooled.copiedBuffer(message, CharsetUtil.UTF_8));
+      response.headers().set(CONTENT_TYPE, "text/plain; charset=UTF-8");
 
       // Close the connection as soon as the error message is sent.
-      ctx.getChannel().write(response).addListener(ChannelFutureListener.CLOSE);
+      ctx.channel().writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
     }
 
     @Override
-    public void exceptionCaught(ChannelHandlerContext ctx, ExceptionEvent e)
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause)
         throws Exception {
-      Channel ch = e.getChannel();
-      Throwable cause = e.getCause();
+      Channel ch = ctx.channel();
       if (cause instanceof TooLongFrameException) {
         sendError(ctx, BAD_REQUEST);
         return;
       }
 
       LOG.error("PullServer error: ", cause);
-      if (ch.isConnected()) {
-        LOG.error("PullServer error " + e);
+      if (ch.isActive()) {
+        LOG.error("PullServer error " + cause);
         sendError(ctx, INTERNAL_SERVER_ERROR);
       }
     }
@@ -24,8 +24,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.tajo.rpc.RpcProtos.RpcRequest;
 import org.apache.tajo.rpc.RpcProtos.RpcResponse;
-import org.jboss.netty.channel.*;
-import org.jboss.netty.channel.socket.ClientSocketChannelFactory;
+import io.netty.channel.*;
 
 import java.lang.reflect.Method;
 import java.net.InetSocketAddress;
@@ -38,9 +37,10 @@ import static org.apache.tajo.rpc.RpcConnectionPool.RpcConnectionKey;
 public class AsyncRpcClient extends NettyClientBase {
   private static final Log LOG = LogFactory.getLog(AsyncRpcClient.class);
 
-  private final ChannelUpstreamHandler handler;
-  private final ChannelPipelineFactory pipeFactory;
+  private final ChannelInboundHandler handler;
+  private final ChannelInitializer<Channel> pipeFactory;
   private final ProxyRpcChannel rpcChannel;
+  private final RpcWriteStats writeStats = new RpcWriteStats();
 
   private final AtomicInteger sequence = new AtomicInteger(0);
   private final Map<Integer, ResponseCallback> requests =
@@ -56,7 +56,7 @@ public class AsyncRpcClient extends NettyClientBase {
    * new an instance through this constructor.
    */
   AsyncRpcClient(final Class<?> protocol,
-                        final InetSocketAddress addr, ClientSocketChannelFactory factory, int retries)
+                        final InetSocketAddress addr, EventLoopGroup factory, int retries)
       throws ClassNotFoundException, NoSuchMethodException, ConnectTimeoutException {
 
     this.protocol = protocol;
@@ -65,9 +65,9 @@ public class AsyncRpcClient extends NettyClientBase {
     Class<?> serviceClass = Class.forName(serviceClassName);
     stubMethod = serviceClass.getMethod("newStub", RpcChannel.class);
 
-    this.handler = new ClientChannelUpstreamHandler();
+    this.handler = new ClientChannelInboundHandler();
     pipeFactory = new ProtoPipelineFactory(handler,
-        RpcResponse.getDefaultInstance());
+        RpcResponse.getDefaultInstance(), writeStats);
     super.init(addr, pipeFactory, factory, retries);
     rpcChannel = new ProxyRpcChannel();
     this.key = new RpcConnectionKey(addr, protocol, true);
@@ -87,16 +87,23 @@ public class AsyncRpcClient extends NettyClientBase {
     }
   }
 
+  /**
+   * @return The statistics of the requests written to this connection
+   */
+  public RpcWriteStats getWriteStats() {
+    return writeStats;
+  }
+
   public RpcChannel getRpcChannel() {
     return this.rpcChannel;
   }
 
   private class ProxyRpcChannel implements RpcChannel {
-    private final ClientChannelUpstreamHandler handler;
+    private final ClientChannelInboundHandler handler;
 
     public ProxyRpcChannel() {
-      this.handler = getChannel().getPipeline()
-          .get(ClientChannelUpstreamHandler.class);
+      this.handler = getChannel().pipeline()
+          .get(ClientChannelInboundHandler.class);
 
       if (handler == null) {
         throw new IllegalArgumentException("Channel does not have " +
@@ -117,7 +124,7 @@ public class AsyncRpcClient extends NettyClientBase {
       handler.registerCallback(nextSeqId,
           new ResponseCallback(controller, responseType, done));
 
-      getChannel().write(rpcRequest);
+      getChannel().writeAndFlush(rpcRequest);
     }
 
     private Message buildRequest(int seqId,
@@ -180,10 +187,11 @@ public class AsyncRpcClient extends NettyClientBase {
   private String getErrorMessage(String message) {
     return "Exception [" + protocol.getCanonicalName() +
         "(" + RpcUtils.normalizeInetSocketAddress((InetSocketAddress)
-        getChannel().getRemoteAddress()) + ")]: " + message;
+        getChannel().remoteAddress()) + ")]: " + message;
   }
 
-  private class ClientChannelUpstreamHandler extends SimpleChannelUpstreamHandler {
+  @ChannelHandler.Sharable
+  private class ClientChannelInboundHandler extends ChannelInboundHandlerAdapter {
 
     synchronized void registerCallback(int seqId, ResponseCallback callback) {
 
@@ -196,9 +204,9 @@ public class AsyncRpcClient extends NettyClientBase {
     }
 
     @Override
-    public void messageReceived(ChannelHandlerContext ctx, MessageEvent e)
+    public void channelRead(ChannelHandlerContext ctx, Object msg)
         throws Exception {
-      RpcResponse response = (RpcResponse) e.getMessage();
+      RpcResponse response = (RpcResponse) msg;
       ResponseCallback callback = requests.remove(response.getId());
 
       if (callback == null) {
@@ -209,24 +217,24 @@ public class AsyncRpcClient extends NettyClientBase {
     }
 
     @Override
-    public void exceptionCaught(ChannelHandlerContext ctx, ExceptionEvent e)
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause)
         throws Exception {
-      LOG.error(getRemoteAddress() + "," + protocol + "," + e.getCause().getMessage(), e.getCause());
+      LOG.error(getRemoteAddress() + "," + protocol + "," + cause.getMessage(), cause);
 
       for(Map.Entry<Integer, ResponseCallback> callbackEntry: requests.entrySet()) {
         ResponseCallback callback = callbackEntry.getValue();
         Integer id = callbackEntry.getKey();
 
         RpcResponse.Builder responseBuilder = RpcResponse.newBuilder()
-            .setErrorMessage(e.toString())
+            .setErrorMessage(cause.toString())
             .setId(id);
 
         callback.run(responseBuilder.build());
       }
       if(LOG.isDebugEnabled()) {
-        LOG.error("" + e.getCause(), e.getCause());
+        LOG.error("" + cause, cause);
       } else {
-        LOG.error("RPC Exception:" + e.getCause());
+        LOG.error("RPC Exception:" + cause);
       }
     }
   }
@@ -27,7 +27,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.tajo.rpc.RpcProtos.RpcRequest;
 import org.apache.tajo.rpc.RpcProtos.RpcResponse;
-import org.jboss.netty.channel.*;
+import io.netty.channel.*;
 
 import java.lang.reflect.Method;
 import java.net.InetSocketAddress;
@@ -36,7 +36,8 @@ public class AsyncRpcServer extends NettyServerBase {
   private static final Log LOG = LogFactory.getLog(AsyncRpcServer.class);
 
   private final Service service;
-  private final ChannelPipelineFactory pipeline;
+  private final ChannelInitializer<Channel> pipeline;
+  private final RpcWriteStats writeStats = new RpcWriteStats();
 
   public AsyncRpcServer(final Class<?> protocol,
                         final Object instance,
@@ -54,28 +55,34 @@ public class AsyncRpcServer extends NettyServerBase {
 
     ServerHandler handler = new ServerHandler();
     this.pipeline = new ProtoPipelineFactory(handler,
-        RpcRequest.getDefaultInstance());
+        RpcRequest.getDefaultInstance(), writeStats);
     super.init(this.pipeline, workerNum);
   }
 
-  private class ServerHandler extends SimpleChannelUpstreamHandler {
+  /**
+   * @return The statistics of the responses written to all accepted connections
+   */
+  public RpcWriteStats getWriteStats() {
+    return writeStats;
+  }
 
-    @Override
-    public void channelOpen(ChannelHandlerContext ctx, ChannelStateEvent evt)
-        throws Exception {
+  @ChannelHandler.Sharable
+  private class ServerHandler extends ChannelInboundHandlerAdapter {
 
-      accepted.add(evt.getChannel());
+    @Override
+    public void channelRegistered(ChannelHandlerContext ctx) throws Exception {
+      accepted.add(ctx.channel());
       if(LOG.isDebugEnabled()){
         LOG.debug(String.format(serviceName + " accepted number of connections (%d)", accepted.size()));
       }
-      super.channelOpen(ctx, evt);
+      super.channelRegistered(ctx);
     }
 
     @Override
-    public void messageReceived(ChannelHandlerContext ctx, MessageEvent e)
+    public void channelRead(ChannelHandlerContext ctx, Object msg)
         throws Exception {
 
-      final RpcRequest request = (RpcRequest) e.getMessage();
+      final RpcRequest request = (RpcRequest) msg;
 
       String methodName = request.getMethodName();
       MethodDescriptor methodDescriptor = service.getDescriptorForType().
@@ -97,7 +104,7 @@ public class AsyncRpcServer extends NettyServerBase {
         }
       }
 
-      final Channel channel = e.getChannel();
+      final Channel channel = ctx.channel();
       final RpcController controller = new NettyRpcController();
 
       RpcCallback<Message> callback =
@@ -116,7 +123,7 @@ public class AsyncRpcServer extends NettyServerBase {
             builder.setErrorMessage(controller.errorText());
           }
 
-          channel.write(builder.build());
+          channel.writeAndFlush(builder.build());
         }
       };
 
@@ -124,14 +131,14 @@ public class AsyncRpcServer extends NettyServerBase {
     }
 
     @Override
-    public void exceptionCaught(ChannelHandlerContext ctx, ExceptionEvent e)
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause)
         throws Exception{
 
-      if (e.getCause() instanceof RemoteCallException) {
-        RemoteCallException callException = (RemoteCallException) e.getCause();
-        e.getChannel().write(callException.getResponse());
+      if (cause instanceof RemoteCallException) {
+        RemoteCallException callException = (RemoteCallException) cause;
+        ctx.channel().writeAndFlush(callException.getResponse());
       } else {
-        LOG.error(e.getCause());
+        LOG.error(cause);
       }
     }
   }
@@ -27,8 +27,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.tajo.rpc.RpcProtos.RpcRequest;
 import org.apache.tajo.rpc.RpcProtos.RpcResponse;
-import org.jboss.netty.channel.*;
-import org.jboss.netty.channel.socket.ClientSocketChannelFactory;
+import io.netty.channel.*;
 
 import java.lang.reflect.Method;
 import java.net.InetSocketAddress;
@@ -41,8 +40,8 @@ import static org.apache.tajo.rpc.RpcConnectionPool.RpcConnectionKey;
 public class BlockingRpcClient extends NettyClientBase {
   private static final Log LOG = LogFactory.getLog(RpcProtos.class);
 
-  private final ChannelUpstreamHandler handler;
-  private final ChannelPipelineFactory pipeFactory;
+  private final ChannelInboundHandler handler;
+  private final ChannelInitializer<Channel> pipeFactory;
   private final ProxyRpcChannel rpcChannel;
 
   private final AtomicInteger sequence = new AtomicInteger(0);
@@ -59,7 +58,7 @@ public class BlockingRpcClient extends NettyClientBase {
    * new an instance through this constructor.
    */
   BlockingRpcClient(final Class<?> protocol,
-                           final InetSocketAddress addr, ClientSocketChannelFactory factory, int retries)
+                           final InetSocketAddress addr, EventLoopGroup factory, int retries)
       throws ClassNotFoundException, NoSuchMethodException, ConnectTimeoutException {
 
     this.protocol = protocol;
@@ -69,7 +68,7 @@ public class BlockingRpcClient extends NettyClientBase {
     stubMethod = serviceClass.getMethod("newBlockingStub",
         BlockingRpcChannel.class);
 
-    this.handler = new ClientChannelUpstreamHandler();
+    this.handler = new ClientChannelInboundHandler();
     pipeFactory = new ProtoPipelineFactory(handler,
         RpcResponse.getDefaultInstance());
     super.init(addr, pipeFactory, factory, retries);
@@ -98,12 +97,12 @@ public class BlockingRpcClient extends NettyClientBase {
 
   private class ProxyRpcChannel implements BlockingRpcChannel {
 
-    private final ClientChannelUpstreamHandler handler;
+    private final ClientChannelInboundHandler handler;
 
     public ProxyRpcChannel() {
 
-      this.handler = getChannel().getPipeline().
-          get(ClientChannelUpstreamHandler.class);
+      this.handler = getChannel().pipeline().
+          get(ClientChannelInboundHandler.class);
 
       if (handler == null) {
         throw new IllegalArgumentException("Channel does not have " +
@@ -125,7 +124,7 @@ public class BlockingRpcClient extends NettyClientBase {
       ProtoCallFuture callFuture =
           new ProtoCallFuture(controller, responsePrototype);
       requests.put(nextSeqId, callFuture);
-      getChannel().write(rpcRequest);
+      getChannel().writeAndFlush(rpcRequest);
 
       try {
         return callFuture.get();
@@ -159,7 +158,7 @@ public class BlockingRpcClient extends NettyClientBase {
     if(protocol != null && getChannel() != null) {
       return protocol.getName() +
           "(" + RpcUtils.normalizeInetSocketAddress((InetSocketAddress)
-          getChannel().getRemoteAddress()) + "): " + message;
+          getChannel().remoteAddress()) + "): " + message;
     } else {
       return "Exception " + message;
     }
@@ -168,19 +167,20 @@ public class BlockingRpcClient extends NettyClientBase {
   private TajoServiceException makeTajoServiceException(RpcResponse response, Throwable cause) {
     if(protocol != null && getChannel() != null) {
       return new TajoServiceException(response.getErrorMessage(), cause, protocol.getName(),
-          RpcUtils.normalizeInetSocketAddress((InetSocketAddress)getChannel().getRemoteAddress()));
+          RpcUtils.normalizeInetSocketAddress((InetSocketAddress)getChannel().remoteAddress()));
     } else {
       return new TajoServiceException(response.getErrorMessage());
     }
   }
 
-  private class ClientChannelUpstreamHandler extends SimpleChannelUpstreamHandler {
+  @ChannelHandler.Sharable
+  private class ClientChannelInboundHandler extends ChannelInboundHandlerAdapter {
 
     @Override
-    public void messageReceived(ChannelHandlerContext ctx, MessageEvent e)
+    public void channelRead(ChannelHandlerContext ctx, Object msg)
         throws Exception {
 
-      RpcResponse rpcResponse = (RpcResponse) e.getMessage();
+      RpcResponse rpcResponse = (RpcResponse) msg;
       ProtoCallFuture callback = requests.remove(rpcResponse.getId());
 
       if (callback == null) {
@@ -207,16 +207,16 @@ public class BlockingRpcClient extends NettyClientBase {
     }
 
     @Override
-    public void exceptionCaught(ChannelHandlerContext ctx, ExceptionEvent e)
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause)
         throws Exception {
-      e.getChannel().close();
+      ctx.channel().close();
       for(ProtoCallFuture callback: requests.values()) {
-        callback.setFailed(e.getCause().getMessage(), e.getCause());
+        callback.setFailed(cause.getMessage(), cause);
       }
       if(LOG.isDebugEnabled()) {
-        LOG.error("" + e.getCause().getMessage(), e.getCause());
+        LOG.error("" + cause.getMessage(), cause);
       } else {
-        LOG.error("RPC Exception:" + e.getCause().getMessage());
+        LOG.error("RPC Exception:" + cause.getMessage());
       }
     }
   }
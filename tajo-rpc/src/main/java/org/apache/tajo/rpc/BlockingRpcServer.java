@@ -24,7 +24,7 @@ import com.google.protobuf.Message;
 import com.google.protobuf.RpcController;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.jboss.netty.channel.*;
+import io.netty.channel.*;
 import org.apache.tajo.rpc.RpcProtos.RpcRequest;
 import org.apache.tajo.rpc.RpcProtos.RpcResponse;
 
@@ -34,7 +34,7 @@ import java.net.InetSocketAddress;
 public class BlockingRpcServer extends NettyServerBase {
   private static Log LOG = LogFactory.getLog(BlockingRpcServer.class);
   private final BlockingService service;
-  private final ChannelPipelineFactory pipeline;
+  private final ChannelInitializer<Channel> pipeline;
 
   public BlockingRpcServer(final Class<?> protocol,
                            final Object instance,
@@ -59,23 +59,22 @@ public class BlockingRpcServer extends NettyServerBase {
     super.init(this.pipeline, workerNum);
   }
 
-  private class ServerHandler extends SimpleChannelUpstreamHandler {
+  @ChannelHandler.Sharable
+  private class ServerHandler extends ChannelInboundHandlerAdapter {
 
     @Override
-    public void channelOpen(ChannelHandlerContext ctx, ChannelStateEvent evt)
-        throws Exception {
-
-      accepted.add(evt.getChannel());
+    public void channelRegistered(ChannelHandlerContext ctx) throws Exception {
+      accepted.add(ctx.channel());
       if(LOG.isDebugEnabled()){
         LOG.debug(String.format(serviceName + " accepted number of connections (%d)", accepted.size()));
       }
-      super.channelOpen(ctx, evt);
+      super.channelRegistered(ctx);
     }
 
     @Override
-    public void messageReceived(ChannelHandlerContext ctx, MessageEvent e)
+    public void channelRead(ChannelHandlerContext ctx, Object msg)
         throws Exception {
-      final RpcRequest request = (RpcRequest) e.getMessage();
+      final RpcRequest request = (RpcRequest) msg;
 
       String methodName = request.getMethodName();
       MethodDescriptor methodDescriptor =
@@ -116,14 +115,14 @@ public class BlockingRpcServer extends NettyServerBase {
       if (controller.failed()) {
         builder.setErrorMessage(controller.errorText());
       }
-      e.getChannel().write(builder.build());
+      ctx.channel().writeAndFlush(builder.build());
     }
 
     @Override
-    public void exceptionCaught(ChannelHandlerContext ctx, ExceptionEvent e) {
-      if (e.getCause() instanceof RemoteCallException) {
-        RemoteCallException callException = (RemoteCallException) e.getCause();
-        e.getChannel().write(callException.getResponse());
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      if (cause instanceof RemoteCallException) {
+        RemoteCallException callException = (RemoteCallException) cause;
+        ctx.channel().writeAndFlush(callException.getResponse());
       }
     }
   }
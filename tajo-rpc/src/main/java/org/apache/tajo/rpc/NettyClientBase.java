@@ -21,9 +21,9 @@ package org.apache.tajo.rpc;
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.jboss.netty.bootstrap.ClientBootstrap;
-import org.jboss.netty.channel.*;
-import org.jboss.netty.channel.socket.ClientSocketChannelFactory;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.*;
 
 import java.io.Closeable;
 import java.net.InetSocketAddress;
@@ -37,8 +37,8 @@ public abstract class NettyClientBase implements Closeable {
   private static final long PAUSE = 1000; // 1 sec
   private int numRetries;
 
-  protected ClientBootstrap bootstrap;
-  private ChannelFuture channelFuture;
+  protected Bootstrap bootstrap;
+  private volatile ChannelFuture channelFuture;
 
   public NettyClientBase() {
   }
@@ -46,23 +46,26 @@ public abstract class NettyClientBase implements Closeable {
   public abstract <T> T getStub();
   public abstract RpcConnectionPool.RpcConnectionKey getKey();
   
-  public void init(InetSocketAddress addr, ChannelPipelineFactory pipeFactory, ClientSocketChannelFactory factory, 
+  public void init(InetSocketAddress addr, ChannelInitializer<Channel> initializer, EventLoopGroup eventLoopGroup,
       int numRetries) throws ConnectTimeoutException {
     this.numRetries = numRetries;
     
-    init(addr, pipeFactory, factory);
+    init(addr, initializer, eventLoopGroup);
   }
 
-  public void init(InetSocketAddress addr, ChannelPipelineFactory pipeFactory, ClientSocketChannelFactory factory)
+  public void init(InetSocketAddress addr, ChannelInitializer<Channel> initializer, EventLoopGroup eventLoopGroup)
       throws ConnectTimeoutException {
-    this.bootstrap = new ClientBootstrap(factory);
-    this.bootstrap.setPipelineFactory(pipeFactory);
-    // TODO - should be configurable
-    this.bootstrap.setOption("connectTimeoutMillis", 10000);
-    this.bootstrap.setOption("connectResponseTimeoutMillis", 10000);
-    this.bootstrap.setOption("receiveBufferSize", 1048576 * 10);
-    this.bootstrap.setOption("tcpNoDelay", true);
-    this.bootstrap.setOption("keepAlive", true);
+    this.bootstrap = new Bootstrap();
+    this.bootstrap
+        .group(eventLoopGroup)
+        .channel(RpcChannelFactory.getClientChannelClass(eventLoopGroup))
+        .handler(initializer)
+        .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+        // TODO - should be configurable
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000)
+        .option(ChannelOption.SO_RCVBUF, 1048576 * 10)
+        .option(ChannelOption.TCP_NODELAY, true)
+        .option(ChannelOption.SO_KEEPALIVE, true);
 
     connect(addr);
   }
@@ -103,7 +106,7 @@ public abstract class NettyClientBase implements Closeable {
 
     if (!channelFuture.isSuccess()) {
       throw new ConnectTimeoutException("Connect error to " + addr +
-          " caused by " + ExceptionUtils.getMessage(channelFuture.getCause()));
+          " caused by " + ExceptionUtils.getMessage(channelFuture.cause()));
     }
   }
 
@@ -116,25 +119,29 @@ public abstract class NettyClientBase implements Closeable {
   }
 
   public boolean isConnected() {
-    return getChannel().isConnected();
+    return getChannel().isActive();
   }
 
   public InetSocketAddress getRemoteAddress() {
-    if (channelFuture == null || channelFuture.getChannel() == null) {
+    if (channelFuture == null || channelFuture.channel() == null) {
       return null;
     }
-    return (InetSocketAddress) channelFuture.getChannel().getRemoteAddress();
+    return (InetSocketAddress) channelFuture.channel().remoteAddress();
   }
 
   public Channel getChannel() {
-    return channelFuture.getChannel();
+    return channelFuture.channel();
   }
 
   @Override
   public void close() {
     if(this.channelFuture != null && getChannel().isOpen()) {
       try {
-        getChannel().close().awaitUninterruptibly();
+        ChannelFuture closeFuture = getChannel().close();
+        // an event loop cannot wait for its own channel
+        if (!getChannel().eventLoop().inEventLoop()) {
+          closeFuture.awaitUninterruptibly();
+        }
       } catch (Throwable ce) {
         LOG.warn(ce);
       }
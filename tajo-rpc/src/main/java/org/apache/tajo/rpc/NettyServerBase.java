@@ -20,12 +20,13 @@ package org.apache.tajo.rpc;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.jboss.netty.bootstrap.ServerBootstrap;
-import org.jboss.netty.channel.Channel;
-import org.jboss.netty.channel.ChannelFactory;
-import org.jboss.netty.channel.ChannelPipelineFactory;
-import org.jboss.netty.channel.group.ChannelGroup;
-import org.jboss.netty.channel.group.DefaultChannelGroup;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.concurrent.GlobalEventExecutor;
 
 import java.io.IOException;
 import java.net.DatagramSocket;
@@ -43,10 +44,10 @@ public class NettyServerBase {
   protected String serviceName;
   protected InetSocketAddress serverAddr;
   protected InetSocketAddress bindAddress;
-  protected ChannelPipelineFactory pipelineFactory;
+  protected ChannelInitializer<Channel> pipelineFactory;
   protected ServerBootstrap bootstrap;
   protected Channel channel;
-  protected ChannelGroup accepted = new DefaultChannelGroup();
+  protected ChannelGroup accepted = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
 
   private InetSocketAddress initIsa;
 
@@ -63,19 +64,16 @@ public class NettyServerBase {
     this.serviceName = name;
   }
 
-  public void init(ChannelPipelineFactory pipeline, int workerNum) {
-    ChannelFactory factory = RpcChannelFactory.createServerChannelFactory(serviceName, workerNum);
-
+  public void init(ChannelInitializer<Channel> pipeline, int workerNum) {
     pipelineFactory = pipeline;
-    bootstrap = new ServerBootstrap(factory);
-    bootstrap.setPipelineFactory(pipelineFactory);
+    bootstrap = RpcChannelFactory.createServerChannelFactory(serviceName, workerNum);
+    bootstrap.childHandler(pipelineFactory);
     // TODO - should be configurable
-    bootstrap.setOption("reuseAddress", true);
-    bootstrap.setOption("child.tcpNoDelay", true);
-    bootstrap.setOption("child.keepAlive", true);
-    bootstrap.setOption("child.connectTimeoutMillis", 10000);
-    bootstrap.setOption("child.connectResponseTimeoutMillis", 10000);
-    bootstrap.setOption("child.receiveBufferSize", 1048576 * 10);
+    bootstrap.option(ChannelOption.SO_REUSEADDR, true);
+    bootstrap.childOption(ChannelOption.TCP_NODELAY, true);
+    bootstrap.childOption(ChannelOption.SO_KEEPALIVE, true);
+    bootstrap.childOption(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000);
+    bootstrap.childOption(ChannelOption.SO_RCVBUF, 1048576 * 10);
   }
 
   public InetSocketAddress getListenAddress() {
@@ -98,8 +96,8 @@ public class NettyServerBase {
       serverAddr = initIsa;
     }
 
-    this.channel = bootstrap.bind(serverAddr);
-    this.bindAddress = (InetSocketAddress) channel.getLocalAddress();
+    this.channel = bootstrap.bind(serverAddr).syncUninterruptibly().channel();
+    this.bindAddress = (InetSocketAddress) channel.localAddress();
 
     LOG.info("Rpc (" + serviceName + ") listens on " + this.bindAddress);
   }
@@ -119,7 +117,7 @@ public class NettyServerBase {
       LOG.error(t.getMessage(), t);
     }
     if(bootstrap != null) {
-      bootstrap.releaseExternalResources();
+      RpcChannelFactory.shutdown(bootstrap);
     }
 
     if (bindAddress != null) {
@@ -19,32 +19,47 @@
 package org.apache.tajo.rpc;
 
 import com.google.protobuf.MessageLite;
-import org.jboss.netty.channel.ChannelPipeline;
-import org.jboss.netty.channel.ChannelPipelineFactory;
-import org.jboss.netty.channel.ChannelUpstreamHandler;
-import org.jboss.netty.channel.Channels;
-import org.jboss.netty.handler.codec.protobuf.ProtobufDecoder;
-import org.jboss.netty.handler.codec.protobuf.ProtobufEncoder;
-import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
-import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInboundHandler;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.protobuf.ProtobufDecoder;
+import io.netty.handler.codec.protobuf.ProtobufEncoder;
+import io.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
+import io.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
 
-public class ProtoPipelineFactory implements ChannelPipelineFactory {
-  private final ChannelUpstreamHandler handler;
+public class ProtoPipelineFactory extends ChannelInitializer<Channel> {
+  private final ChannelInboundHandler handler;
   private final MessageLite defaultInstance;
+  private final RpcWriteStats writeStats;
 
-  public ProtoPipelineFactory(ChannelUpstreamHandler handlerFactory,
+  public ProtoPipelineFactory(ChannelInboundHandler handlerFactory,
       MessageLite defaultInstance) {
+    this(handlerFactory, defaultInstance, null);
+  }
+
+  /**
+   * @param handlerFactory It is shared by all channels, so it must be sharable.
+   * @param writeStats If it is not null, the flushes of encoded messages are coalesced by {@link RpcWriteCoalescer}.
+   */
+  public ProtoPipelineFactory(ChannelInboundHandler handlerFactory,
+      MessageLite defaultInstance, RpcWriteStats writeStats) {
     this.handler = handlerFactory;
     this.defaultInstance = defaultInstance;
+    this.writeStats = writeStats;
   }
 
-  public ChannelPipeline getPipeline() throws Exception {
-    ChannelPipeline p = Channels.pipeline();
+  @Override
+  protected void initChannel(Channel channel) throws Exception {
+    ChannelPipeline p = channel.pipeline();
     p.addLast("frameDecoder", new ProtobufVarint32FrameDecoder());
     p.addLast("protobufDecoder", new ProtobufDecoder(defaultInstance));
     p.addLast("frameEncoder", new ProtobufVarint32LengthFieldPrepender());
     p.addLast("protobufEncoder", new ProtobufEncoder());
     p.addLast("handler", handler);
-    return p;
+    if (writeStats != null && RpcWriteCoalescer.isEnabled()) {
+      // the closest handler to the socket, so that it receives the encoded frames
+      p.addFirst("writeCoalescer", new RpcWriteCoalescer(writeStats));
+    }
   }
 }
@@ -19,96 +19,168 @@
 package org.apache.tajo.rpc;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.jboss.netty.channel.socket.ClientSocketChannelFactory;
-import org.jboss.netty.channel.socket.ServerSocketChannelFactory;
-import org.jboss.netty.channel.socket.nio.*;
-import org.jboss.netty.util.HashedWheelTimer;
-import org.jboss.netty.util.ThreadNameDeterminer;
 
-import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Creates the event loop groups of rpc clients and servers.
+ *
+ * All channels allocate their buffers from the pooled direct allocator. If the system property
+ * <code>tajo.rpc.native-epoll.enabled</code> is true, the groups use the native epoll transport,
+ * and they fall back to NIO when the native library cannot be loaded, for example on non-Linux hosts.
+ */
 public final class RpcChannelFactory {
   private static final Log LOG = LogFactory.getLog(RpcChannelFactory.class);
 
+  public static final String NATIVE_EPOLL_KEY = "tajo.rpc.native-epoll.enabled";
+
   private static final int DEFAULT_WORKER_NUM = Runtime.getRuntime().availableProcessors() * 2;
 
-  private static ClientSocketChannelFactory factory;
+  private static EventLoopGroup loopGroup;
   private static AtomicInteger clientCount = new AtomicInteger(0);
   private static AtomicInteger serverCount = new AtomicInteger(0);
+  private static Boolean epollAvailable;
 
   private RpcChannelFactory(){
   }
 
   /**
-   * make this factory static thus all clients can share its thread pool.
-   * NioClientSocketChannelFactory has only one method newChannel() visible for user, which is thread-safe
+   * make this group static thus all clients can share its thread pool.
+   * EventLoopGroup is thread-safe, so a bootstrap can be created from it anywhere
    */
-  public static synchronized ClientSocketChannelFactory getSharedClientChannelFactory() {
-    return getSharedClientChannelFactory(DEFAULT_WORKER_NUM);
+  public static synchronized EventLoopGroup getSharedClientEventloopGroup() {
+    return getSharedClientEventloopGroup(DEFAULT_WORKER_NUM);
   }
 
   /**
-   * make this factory static thus all clients can share its thread pool.
-   * NioClientSocketChannelFactory has only one method newChannel() visible for user, which is thread-safe
+   * make this group static thus all clients can share its thread pool.
+   * EventLoopGroup is thread-safe, so a bootstrap can be created from it anywhere
    *
    * @param workerNum The number of workers
    */
-  public static synchronized ClientSocketChannelFactory getSharedClientChannelFactory(int workerNum){
-    //shared woker and boss pool
-    if(factory == null){
-      factory = createClientChannelFactory("Internal-Client", workerNum);
+  public static synchronized EventLoopGroup getSharedClientEventloopGroup(int workerNum){
+    //shared woker pool
+    if(loopGroup == null){
+      loopGroup = createClientEventloopGroup("Internal-Client", workerNum);
     }
-    return factory;
+    return loopGroup;
   }
 
   // Client must release the external resources
-  public static synchronized ClientSocketChannelFactory createClientChannelFactory(String name, int workerNum) {
+  public static synchronized EventLoopGroup createClientEventloopGroup(String name, int workerNum) {
     name = name + "-" + clientCount.incrementAndGet();
     if(LOG.isDebugEnabled()){
-      LOG.debug("Create " + name + " ClientSocketChannelFactory. Worker:" + workerNum);
+      LOG.debug("Create " + name + " ClientEventLoopGroup. Worker:" + workerNum);
     }
 
-    ThreadFactoryBuilder builder = new ThreadFactoryBuilder();
-    ThreadFactory bossFactory = builder.setNameFormat(name + " Boss #%d").build();
-    ThreadFactory workerFactory = builder.setNameFormat(name + " Worker #%d").build();
-
-    NioClientBossPool bossPool = new NioClientBossPool(Executors.newCachedThreadPool(bossFactory), 1,
-        new HashedWheelTimer(), ThreadNameDeterminer.CURRENT);
-    NioWorkerPool workerPool = new NioWorkerPool(Executors.newCachedThreadPool(workerFactory), workerNum,
-        ThreadNameDeterminer.CURRENT);
-
-    return new NioClientSocketChannelFactory(bossPool, workerPool);
+    ThreadFactory workerFactory = new ThreadFactoryBuilder().setNameFormat(name + " Worker #%d").build();
+    return createEventLoopGroup(workerNum, workerFactory);
   }
 
-  // Client must release the external resources
-  public static synchronized ServerSocketChannelFactory createServerChannelFactory(String name, int workerNum) {
+  /**
+   * Creates a server bootstrap which has its own boss and worker groups.
+   * {@link #shutdown(ServerBootstrap)} releases them.
+   */
+  public static synchronized ServerBootstrap createServerChannelFactory(String name, int workerNum) {
     name = name + "-" + serverCount.incrementAndGet();
     if(LOG.isInfoEnabled()){
-      LOG.info("Create " + name + " ServerSocketChannelFactory. Worker:" + workerNum);
+      LOG.info("Create " + name + " ServerEventLoopGroup. Worker:" + workerNum);
     }
     ThreadFactoryBuilder builder = new ThreadFactoryBuilder();
     ThreadFactory bossFactory = builder.setNameFormat(name + " Server Boss #%d").build();
     ThreadFactory workerFactory = builder.setNameFormat(name + " Server Worker #%d").build();
 
-    NioServerBossPool bossPool =
-        new NioServerBossPool(Executors.newCachedThreadPool(bossFactory), 1, ThreadNameDeterminer.CURRENT);
-    NioWorkerPool workerPool =
-        new NioWorkerPool(Executors.newCachedThreadPool(workerFactory), workerNum, ThreadNameDeterminer.CURRENT);
+    EventLoopGroup bossGroup = createEventLoopGroup(1, bossFactory);
+    EventLoopGroup workerGroup = createEventLoopGroup(workerNum, workerFactory);
+
+    return new ServerBootstrap()
+        .group(bossGroup, workerGroup)
+        .channel(getServerChannelClass(workerGroup))
+        .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+        .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+  }
+
+  /**
+   * @return The socket channel class which matches the transport of the given group
+   */
+  public static Class<? extends SocketChannel> getClientChannelClass(EventLoopGroup group) {
+    if (group instanceof EpollEventLoopGroup) {
+      return EpollSocketChannel.class;
+    } else {
+      return NioSocketChannel.class;
+    }
+  }
+
+  /**
+   * @return The server socket channel class which matches the transport of the given group
+   */
+  public static Class<? extends ServerChannel> getServerChannelClass(EventLoopGroup group) {
+    if (group instanceof EpollEventLoopGroup) {
+      return EpollServerSocketChannel.class;
+    } else {
+      return NioServerSocketChannel.class;
+    }
+  }
+
+  private static EventLoopGroup createEventLoopGroup(int threadNum, ThreadFactory threadFactory) {
+    if (isEpollAvailable()) {
+      return new EpollEventLoopGroup(threadNum, threadFactory);
+    } else {
+      return new NioEventLoopGroup(threadNum, threadFactory);
+    }
+  }
 
-    return new NioServerSocketChannelFactory(bossPool, workerPool);
+  private static synchronized boolean isEpollAvailable() {
+    if (epollAvailable == null) {
+      epollAvailable = false;
+      if (Boolean.getBoolean(NATIVE_EPOLL_KEY)) {
+        try {
+          // loads the native library, which only exists for Linux
+          new EpollEventLoopGroup(1).shutdownGracefully();
+          epollAvailable = true;
+        } catch (Throwable t) {
+          LOG.warn("Native epoll transport is not available, falling back to NIO: " + t.getMessage());
+        }
+      }
+    }
+    return epollAvailable;
   }
 
   public static synchronized void shutdown(){
     if(LOG.isDebugEnabled()) {
       LOG.debug("Shutdown Shared RPC Pool");
     }
-    if (factory != null) {
-      factory.releaseExternalResources();
+    if (loopGroup != null) {
+      loopGroup.shutdownGracefully();
+    }
+    loopGroup = null;
+  }
+
+  /**
+   * Releases the boss and worker groups of a bootstrap created by {@link #createServerChannelFactory}.
+   */
+  public static void shutdown(ServerBootstrap bootstrap) {
+    if (bootstrap.group() != null) {
+      bootstrap.group().shutdownGracefully(0, 5, TimeUnit.SECONDS);
+    }
+    if (bootstrap.childGroup() != null) {
+      bootstrap.childGroup().shutdownGracefully(0, 5, TimeUnit.SECONDS);
     }
-    factory = null;
   }
 }
@@ -21,14 +21,17 @@ package org.apache.tajo.rpc;
 import com.google.common.base.Objects;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.jboss.netty.channel.ConnectTimeoutException;
-import org.jboss.netty.channel.group.ChannelGroup;
-import org.jboss.netty.channel.group.DefaultChannelGroup;
-import org.jboss.netty.channel.socket.ClientSocketChannelFactory;
-import org.jboss.netty.logging.CommonsLoggerFactory;
-import org.jboss.netty.logging.InternalLoggerFactory;
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.internal.logging.CommonsLoggerFactory;
+import io.netty.util.internal.logging.InternalLoggerFactory;
 
 import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
@@ -38,36 +41,36 @@ public class RpcConnectionPool {
 
   private ConcurrentMap<RpcConnectionKey, NettyClientBase> connections =
       new ConcurrentHashMap<RpcConnectionKey, NettyClientBase>();
-  private ChannelGroup accepted = new DefaultChannelGroup();
+  private ChannelGroup accepted = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
 
   private static RpcConnectionPool instance;
-  private final ClientSocketChannelFactory channelFactory;
+  private final EventLoopGroup loopGroup;
 
   public final static int RPC_RETRIES = 3;
 
-  private RpcConnectionPool(ClientSocketChannelFactory channelFactory) {
-    this.channelFactory =  channelFactory;
+  private RpcConnectionPool(EventLoopGroup loopGroup) {
+    this.loopGroup =  loopGroup;
   }
 
   public synchronized static RpcConnectionPool getPool() {
     if(instance == null) {
       InternalLoggerFactory.setDefaultFactory(new CommonsLoggerFactory());
-      instance = new RpcConnectionPool(RpcChannelFactory.getSharedClientChannelFactory());
+      instance = new RpcConnectionPool(RpcChannelFactory.getSharedClientEventloopGroup());
     }
     return instance;
   }
 
   public synchronized static RpcConnectionPool newPool(String poolName, int workerNum) {
-    return new RpcConnectionPool(RpcChannelFactory.createClientChannelFactory(poolName, workerNum));
+    return new RpcConnectionPool(RpcChannelFactory.createClientEventloopGroup(poolName, workerNum));
   }
 
   private NettyClientBase makeConnection(RpcConnectionKey rpcConnectionKey)
       throws NoSuchMethodException, ClassNotFoundException, ConnectTimeoutException {
     NettyClientBase client;
     if(rpcConnectionKey.asyncMode) {
-      client = new AsyncRpcClient(rpcConnectionKey.protocolClass, rpcConnectionKey.addr, channelFactory, RPC_RETRIES);
+      client = new AsyncRpcClient(rpcConnectionKey.protocolClass, rpcConnectionKey.addr, loopGroup, RPC_RETRIES);
     } else {
-      client = new BlockingRpcClient(rpcConnectionKey.protocolClass, rpcConnectionKey.addr, channelFactory, RPC_RETRIES);
+      client = new BlockingRpcClient(rpcConnectionKey.protocolClass, rpcConnectionKey.addr, loopGroup, RPC_RETRIES);
     }
     accepted.add(client.getChannel());
     return client;
@@ -93,13 +96,26 @@ public class RpcConnectionPool {
       }
     }
 
-    if (!client.getChannel().isOpen() || !client.getChannel().isConnected()) {
+    if (!client.getChannel().isOpen() || !client.getChannel().isActive()) {
       LOG.warn("Try to reconnect : " + addr);
       client.connect(addr);
     }
     return client;
   }
 
+  /**
+   * @return The write statistics of each asynchronous connection in this pool
+   */
+  public Map<String, RpcWriteStats> getWriteStats() {
+    Map<String, RpcWriteStats> statsMap = new HashMap<String, RpcWriteStats>();
+    for (NettyClientBase eachClient : connections.values()) {
+      if (eachClient instanceof AsyncRpcClient) {
+        statsMap.put(eachClient.getKey().toString(), ((AsyncRpcClient) eachClient).getWriteStats());
+      }
+    }
+    return statsMap;
+  }
+
   public void releaseConnection(NettyClientBase client) {
     if (client == null) return;
 
@@ -160,8 +176,8 @@ public class RpcConnectionPool {
 
   public synchronized void shutdown(){
     close();
-    if(channelFactory != null){
-      channelFactory.releaseExternalResources();
+    if(loopGroup != null){
+      loopGroup.shutdownGracefully();
     }
   }
 
@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.rpc;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces the flushes of the encoded frames written to a connection within a short time window into a single flush.
+ *
+ * The frames written before a flush stay in the outbound buffer of the channel, and the channel writes all of them
+ * with a single gathering write when it is flushed. Each frame keeps its own length prefix, so the frame decoder
+ * of the remote peer splits them into the same frames, and the peer dispatches all frames of a read in one pass.
+ * A deferred flush is done when the window expires, when the pending bytes exceed the batch size, or before
+ * the connection is closed.
+ *
+ * The window and the batch size can be changed by the system properties
+ * <code>tajo.rpc.write-coalescing.window-us</code> and <code>tajo.rpc.write-coalescing.max-bytes</code>.
+ * A window of zero disables the coalescing.
+ *
+ * All methods are called in the event loop of the channel, so the pending state does not need any lock.
+ */
+public class RpcWriteCoalescer extends ChannelOutboundHandlerAdapter {
+  public static final String WINDOW_MICROS_KEY = "tajo.rpc.write-coalescing.window-us";
+  public static final String MAX_BATCH_BYTES_KEY = "tajo.rpc.write-coalescing.max-bytes";
+  public static final long DEFAULT_WINDOW_MICROS = 500;
+  public static final int DEFAULT_MAX_BATCH_BYTES = 64 * 1024;
+
+  private static final long WINDOW_MICROS = Long.getLong(WINDOW_MICROS_KEY, DEFAULT_WINDOW_MICROS);
+  private static final int MAX_BATCH_BYTES = Integer.getInteger(MAX_BATCH_BYTES_KEY, DEFAULT_MAX_BATCH_BYTES);
+
+  private final RpcWriteStats stats;
+  private int pendingMessages = 0;
+  private int pendingBytes = 0;
+  private ScheduledFuture<?> flushTask;
+
+  public RpcWriteCoalescer(RpcWriteStats stats) {
+    this.stats = stats;
+  }
+
+  public static boolean isEnabled() {
+    return WINDOW_MICROS > 0;
+  }
+
+  @Override
+  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+    if (msg instanceof ByteBuf) {
+      pendingMessages++;
+      pendingBytes += ((ByteBuf) msg).readableBytes();
+      stats.messageQueued();
+    }
+    ctx.write(msg, promise);
+  }
+
+  @Override
+  public void flush(final ChannelHandlerContext ctx) throws Exception {
+    if (pendingMessages == 0 || pendingBytes >= MAX_BATCH_BYTES) {
+      flushNow(ctx);
+    } else if (flushTask == null) {
+      flushTask = ctx.executor().schedule(new Runnable() {
+        @Override
+        public void run() {
+          flushTask = null;
+          flushNow(ctx);
+        }
+      }, WINDOW_MICROS, TimeUnit.MICROSECONDS);
+    }
+  }
+
+  @Override
+  public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+    // keep the order of writes and close
+    flushNow(ctx);
+    ctx.close(promise);
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+    if (flushTask != null) {
+      flushTask.cancel(false);
+      flushTask = null;
+    }
+  }
+
+  private void flushNow(ChannelHandlerContext ctx) {
+    if (flushTask != null) {
+      flushTask.cancel(false);
+      flushTask = null;
+    }
+    if (pendingMessages > 0) {
+      stats.batchWritten(pendingMessages, pendingBytes, ctx.channel().isWritable());
+      pendingMessages = 0;
+      pendingBytes = 0;
+    }
+    ctx.flush();
+  }
+}
@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.rpc;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the messages which {@link RpcWriteCoalescer}s write to their connections.
+ * A client has its own counters, and a server shares its counters among its accepted connections.
+ */
+public class RpcWriteStats {
+  private final AtomicLong queuedMessages = new AtomicLong();
+  private final AtomicLong writtenMessages = new AtomicLong();
+  private final AtomicLong writtenBatches = new AtomicLong();
+  private final AtomicLong writtenBytes = new AtomicLong();
+  private final AtomicLong unwritableFlushes = new AtomicLong();
+
+  void messageQueued() {
+    queuedMessages.incrementAndGet();
+  }
+
+  void batchWritten(int messageNum, long bytes, boolean writable) {
+    writtenMessages.addAndGet(messageNum);
+    writtenBatches.incrementAndGet();
+    writtenBytes.addAndGet(bytes);
+    if (!writable) {
+      unwritableFlushes.incrementAndGet();
+    }
+  }
+
+  /**
+   * @return The number of messages which are waiting for the next flush
+   */
+  public long getPendingMessages() {
+    return Math.max(0, queuedMessages.get() - writtenMessages.get());
+  }
+
+  public long getWrittenMessages() {
+    return writtenMessages.get();
+  }
+
+  public long getWrittenBatches() {
+    return writtenBatches.get();
+  }
+
+  public long getWrittenBytes() {
+    return writtenBytes.get();
+  }
+
+  /**
+   * @return The number of flushes which found the outbound buffer of the connection above its high water mark.
+   * It increases when the remote peer does not read messages as fast as they are written.
+   */
+  public long getUnwritableFlushes() {
+    return unwritableFlushes.get();
+  }
+
+  public double getAverageBatchSize() {
+    long batches = writtenBatches.get();
+    return batches == 0 ? 0.0d : (double) writtenMessages.get() / batches;
+  }
+
+  @Override
+  public String toString() {
+    return "written messages=" + getWrittenMessages() + ", batches=" + getWrittenBatches() +
+        ", bytes=" + getWrittenBytes() + ", pending messages=" + getPendingMessages() +
+        ", unwritable flushes=" + getUnwritableFlushes();
+  }
+}
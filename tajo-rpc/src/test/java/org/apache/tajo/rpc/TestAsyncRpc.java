@@ -19,6 +19,8 @@
 package org.apache.tajo.rpc;
 
 import com.google.protobuf.RpcCallback;
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.channel.EventLoopGroup;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.tajo.rpc.test.DummyProtocol;
@@ -27,8 +29,6 @@ import org.apache.tajo.rpc.test.TestProtos.EchoMessage;
 import org.apache.tajo.rpc.test.TestProtos.SumRequest;
 import org.apache.tajo.rpc.test.TestProtos.SumResponse;
 import org.apache.tajo.rpc.test.impl.DummyProtocolAsyncImpl;
-import org.jboss.netty.channel.ConnectTimeoutException;
-import org.jboss.netty.channel.socket.ClientSocketChannelFactory;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -37,6 +37,7 @@ import java.net.InetSocketAddress;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -51,20 +52,20 @@ public class TestAsyncRpc {
   static AsyncRpcClient client;
   static Interface stub;
   static DummyProtocolAsyncImpl service;
-  ClientSocketChannelFactory clientChannelFactory;
+  EventLoopGroup clientLoopGroup;
   int retries;
 
   @Before
   public void setUp() throws Exception {
     retries = 1;
 
-    clientChannelFactory = RpcChannelFactory.createClientChannelFactory("TestAsyncRpc", 2);
+    clientLoopGroup = RpcChannelFactory.createClientEventloopGroup("TestAsyncRpc", 2);
     service = new DummyProtocolAsyncImpl();
     server = new AsyncRpcServer(DummyProtocol.class,
         service, new InetSocketAddress("127.0.0.1", 0), 2);
     server.start();
     client = new AsyncRpcClient(DummyProtocol.class,
-        RpcUtils.getConnectAddress(server.getListenAddress()), clientChannelFactory, retries);
+        RpcUtils.getConnectAddress(server.getListenAddress()), clientLoopGroup, retries);
     stub = client.getStub();
   }
 
@@ -78,8 +79,8 @@ public class TestAsyncRpc {
       server.shutdown();
     }
 
-    if (clientChannelFactory != null) {
-      clientChannelFactory.releaseExternalResources();
+    if (clientLoopGroup != null) {
+      clientLoopGroup.shutdownGracefully();
     }
   }
 
@@ -117,6 +118,49 @@ public class TestAsyncRpc {
     assertTrue(calledMarker);
   }
 
+  @Test
+  public void testCoalescedCalls() throws Exception {
+    final int callNum = 200;
+    final CountDownLatch latch = new CountDownLatch(callNum);
+    final AtomicInteger matched = new AtomicInteger();
+
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; i++) {
+      final int threadId = i;
+      threads[i] = new Thread() {
+        public void run() {
+          for (int j = 0; j < callNum / 4; j++) {
+            final String message = MESSAGE + "_" + threadId + "_" + j;
+            stub.echo(null, EchoMessage.newBuilder().setMessage(message).build(), new RpcCallback<EchoMessage>() {
+              @Override
+              public void run(EchoMessage parameter) {
+                if (parameter != null && message.equals(parameter.getMessage())) {
+                  matched.incrementAndGet();
+                }
+                latch.countDown();
+              }
+            });
+          }
+        }
+      };
+      threads[i].start();
+    }
+    for (Thread eachThread : threads) {
+      eachThread.join();
+    }
+
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    assertEquals(callNum, matched.get());
+
+    if (RpcWriteCoalescer.isEnabled()) {
+      RpcWriteStats clientStats = client.getWriteStats();
+      assertEquals(callNum, clientStats.getWrittenMessages());
+      assertTrue(clientStats.getWrittenBatches() <= clientStats.getWrittenMessages());
+      assertEquals(0, clientStats.getPendingMessages());
+      assertEquals(callNum, server.getWriteStats().getWrittenMessages());
+    }
+  }
+
   private CountDownLatch testNullLatch;
 
   @Test
@@ -225,8 +269,8 @@ public class TestAsyncRpc {
     });
     serverThread.start();
 
-    clientChannelFactory = RpcChannelFactory.createClientChannelFactory(MESSAGE, 2);
-    client = new AsyncRpcClient(DummyProtocol.class, address, clientChannelFactory, retries);
+    clientLoopGroup = RpcChannelFactory.createClientEventloopGroup(MESSAGE, 2);
+    client = new AsyncRpcClient(DummyProtocol.class, address, clientLoopGroup, retries);
     stub = client.getStub();
     stub.echo(future.getController(), echoMessage, future);
 
@@ -240,7 +284,7 @@ public class TestAsyncRpc {
     InetSocketAddress address = new InetSocketAddress("test", 0);
     boolean expected = false;
     try {
-      new AsyncRpcClient(DummyProtocol.class, address, clientChannelFactory, retries);
+      new AsyncRpcClient(DummyProtocol.class, address, clientLoopGroup, retries);
       fail();
     } catch (ConnectTimeoutException e) {
       expected = true;
@@ -257,7 +301,7 @@ public class TestAsyncRpc {
 
     String hostAndPort = RpcUtils.normalizeInetSocketAddress(server.getListenAddress());
     client = new AsyncRpcClient(DummyProtocol.class,
-        RpcUtils.createUnresolved(hostAndPort), clientChannelFactory, retries);
+        RpcUtils.createUnresolved(hostAndPort), clientLoopGroup, retries);
     Interface stub = client.getStub();
     EchoMessage echoMessage = EchoMessage.newBuilder()
         .setMessage(MESSAGE).build();
@@ -18,13 +18,13 @@
 
 package org.apache.tajo.rpc;
 
+import io.netty.channel.EventLoopGroup;
 import org.apache.tajo.rpc.test.DummyProtocol;
 import org.apache.tajo.rpc.test.DummyProtocol.DummyProtocolService.BlockingInterface;
 import org.apache.tajo.rpc.test.TestProtos.EchoMessage;
 import org.apache.tajo.rpc.test.TestProtos.SumRequest;
 import org.apache.tajo.rpc.test.TestProtos.SumResponse;
 import org.apache.tajo.rpc.test.impl.DummyProtocolBlockingImpl;
-import org.jboss.netty.channel.socket.ClientSocketChannelFactory;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -44,20 +44,20 @@ public class TestBlockingRpc {
   private BlockingInterface stub;
   private DummyProtocolBlockingImpl service;
   private int retries;
-  private ClientSocketChannelFactory clientChannelFactory;
+  private EventLoopGroup clientLoopGroup;
 
   @Before
   public void setUp() throws Exception {
     retries = 1;
 
-    clientChannelFactory = RpcChannelFactory.createClientChannelFactory(MESSAGE, 2);
+    clientLoopGroup = RpcChannelFactory.createClientEventloopGroup(MESSAGE, 2);
 
     service = new DummyProtocolBlockingImpl();
     server = new BlockingRpcServer(DummyProtocol.class, service,
         new InetSocketAddress("127.0.0.1", 0), 2);
     server.start();
     client = new BlockingRpcClient(DummyProtocol.class,
-        RpcUtils.getConnectAddress(server.getListenAddress()), clientChannelFactory, retries);
+        RpcUtils.getConnectAddress(server.getListenAddress()), clientLoopGroup, retries);
     stub = client.getStub();
   }
 
@@ -71,8 +71,8 @@ public class TestBlockingRpc {
       server.shutdown();
     }
 
-    if(clientChannelFactory != null){
-      clientChannelFactory.releaseExternalResources();
+    if(clientLoopGroup != null){
+      clientLoopGroup.shutdownGracefully();
     }
   }
 
@@ -171,8 +171,8 @@ public class TestBlockingRpc {
     });
     serverThread.start();
 
-    clientChannelFactory = RpcChannelFactory.createClientChannelFactory(MESSAGE, 2);
-    client = new BlockingRpcClient(DummyProtocol.class, address, clientChannelFactory, retries);
+    clientLoopGroup = RpcChannelFactory.createClientEventloopGroup(MESSAGE, 2);
+    client = new BlockingRpcClient(DummyProtocol.class, address, clientLoopGroup, retries);
     stub = client.getStub();
 
     EchoMessage response = stub.echo(null, message);
@@ -185,7 +185,7 @@ public class TestBlockingRpc {
     try {
       int port = server.getListenAddress().getPort() + 1;
       new BlockingRpcClient(DummyProtocol.class,
-          RpcUtils.getConnectAddress(new InetSocketAddress("127.0.0.1", port)), clientChannelFactory, retries);
+          RpcUtils.getConnectAddress(new InetSocketAddress("127.0.0.1", port)), clientLoopGroup, retries);
       fail("Connection should be failed.");
     } catch (ConnectException ce) {
       expected = true;
@@ -260,7 +260,7 @@ public class TestBlockingRpc {
 
     String hostAndPort = RpcUtils.normalizeInetSocketAddress(server.getListenAddress());
     client = new BlockingRpcClient(DummyProtocol.class,
-        RpcUtils.createUnresolved(hostAndPort), clientChannelFactory, retries);
+        RpcUtils.createUnresolved(hostAndPort), clientLoopGroup, retries);
     BlockingInterface stub = client.getStub();
 
     EchoMessage message = EchoMessage.newBuilder()
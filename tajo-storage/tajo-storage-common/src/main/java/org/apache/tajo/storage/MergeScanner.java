@@ -40,10 +40,13 @@ public class MergeScanner implements Scanner {
   private Iterator<Fragment> iterator;
   private Fragment currentFragment;
   private Scanner currentScanner;
+  /** the scanner of the first fragment, which is created in the constructor but is not opened yet */
+  private Scanner firstScanner;
   private Tuple tuple;
   private boolean projectable = false;
   private boolean selectable = false;
   private Schema target;
+  private Object searchCondition;
   private float progress;
   protected TableStats tableStats;
 
@@ -72,11 +75,13 @@ public class MergeScanner implements Scanner {
     }
 
     // it should keep the input order. Otherwise, it causes wrong result of sort queries.
-    this.reset();
+    this.iterator = fragments.iterator();
 
-    if (currentScanner != null) {
-      this.projectable = currentScanner.isProjectable();
-      this.selectable = currentScanner.isSelectable();
+    // The first scanner tells the capabilities of the scanners. It is opened in init() after a search condition is set.
+    if (!fragments.isEmpty()) {
+      firstScanner = createScanner(fragments.get(0));
+      this.projectable = firstScanner.isProjectable();
+      this.selectable = firstScanner.isSelectable();
     }
 
     tableStats = new TableStats();
@@ -93,6 +98,7 @@ public class MergeScanner implements Scanner {
   @Override
   public void init() throws IOException {
     progress = 0.0f;
+    reset();
   }
 
   @Override
@@ -131,8 +137,15 @@ public class MergeScanner implements Scanner {
   private Scanner getNextScanner() throws IOException {
     if (iterator.hasNext()) {
       currentFragment = iterator.next();
-      currentScanner = StorageManager.getStorageManager((TajoConf)conf, meta.getStoreType()).getScanner(meta, schema,
-          currentFragment, target);
+      if (firstScanner != null) {
+        currentScanner = firstScanner;
+        firstScanner = null;
+      } else {
+        currentScanner = createScanner(currentFragment);
+      }
+      if (searchCondition != null) {
+        currentScanner.setSearchCondition(searchCondition);
+      }
       currentScanner.init();
       return currentScanner;
     } else {
@@ -140,8 +153,14 @@ public class MergeScanner implements Scanner {
     }
   }
 
+  private Scanner createScanner(Fragment fragment) throws IOException {
+    return StorageManager.getStorageManager((TajoConf)conf, meta.getStoreType()).getScanner(meta, schema,
+        fragment, target);
+  }
+
   @Override
   public void close() throws IOException {
+    firstScanner = null;
     if(currentScanner != null) {
       currentScanner.close();
       currentScanner = null;
@@ -158,6 +177,7 @@ public class MergeScanner implements Scanner {
   @Override
   public void setTarget(Column[] targets) {
     this.target = new Schema(targets);
+    firstScanner = null; // it is created again with the new target
   }
 
   @Override
@@ -167,6 +187,7 @@ public class MergeScanner implements Scanner {
 
   @Override
   public void setSearchCondition(Object expr) {
+    this.searchCondition = expr;
   }
 
   @Override
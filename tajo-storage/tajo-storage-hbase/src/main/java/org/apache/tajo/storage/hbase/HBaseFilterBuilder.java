@@ -0,0 +1,304 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage.hbase;
+
+import org.apache.hadoop.hbase.filter.BinaryComparator;
+import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.PrefixFilter;
+import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.plan.expr.*;
+
+import java.io.IOException;
+
+/**
+ * Translates a search condition into HBase filters, so region servers drop rows before they are sent to a scanner.
+ *
+ * A pushed filter accepts every row which may satisfy the condition, but it may accept more rows than the condition.
+ * Thus, the condition must be still evaluated for each row. The predicates which cannot be translated are
+ * left out of conjunctions, and disjunctions are pushed only if all of their predicates can be translated.
+ */
+public class HBaseFilterBuilder {
+  private final Schema schema;
+  private final ColumnMapping columnMapping;
+  private final boolean[] isScanned;
+
+  /**
+   * @param targetIndexes The ids of columns which a scan reads. Column values which are not read are
+   *                      missing in the scanned rows, so predicates on them are not pushed.
+   */
+  public HBaseFilterBuilder(Schema schema, ColumnMapping columnMapping, int[] targetIndexes) {
+    this.schema = schema;
+    this.columnMapping = columnMapping;
+    this.isScanned = new boolean[schema.size()];
+    for (int eachIndex : targetIndexes) {
+      isScanned[eachIndex] = true;
+    }
+  }
+
+  /**
+   * @return A filter for the condition. Null if no predicate can be pushed.
+   */
+  public Filter build(EvalNode condition) throws IOException {
+    if (condition == null) {
+      return null;
+    }
+
+    switch (condition.getType()) {
+    case AND: {
+      BinaryEval andEval = (BinaryEval) condition;
+      Filter left = build(andEval.getLeftExpr());
+      Filter right = build(andEval.getRightExpr());
+      if (left == null) {
+        return right;
+      } else if (right == null) {
+        return left;
+      }
+      return new FilterList(FilterList.Operator.MUST_PASS_ALL, left, right);
+    }
+    case OR: {
+      BinaryEval orEval = (BinaryEval) condition;
+      Filter left = build(orEval.getLeftExpr());
+      Filter right = build(orEval.getRightExpr());
+      if (left == null || right == null) {
+        return null;
+      }
+      return new FilterList(FilterList.Operator.MUST_PASS_ONE, left, right);
+    }
+    case EQUAL:
+    case NOT_EQUAL:
+    case LTH:
+    case LEQ:
+    case GTH:
+    case GEQ:
+      return buildComparisonFilter((BinaryEval) condition);
+    case IN:
+      return buildInFilter((InEval) condition);
+    case LIKE:
+      return buildPrefixFilter((LikePredicateEval) condition);
+    default:
+      return null;
+    }
+  }
+
+  private Filter buildComparisonFilter(BinaryEval comparison) throws IOException {
+    EvalNode left = comparison.getLeftExpr();
+    EvalNode right = comparison.getRightExpr();
+    CompareOp op = toCompareOp(comparison.getType());
+
+    FieldEval field;
+    Datum value;
+    if (left.getType() == EvalType.FIELD && right.getType() == EvalType.CONST) {
+      field = (FieldEval) left;
+      value = ((ConstEval) right).getValue();
+    } else if (left.getType() == EvalType.CONST && right.getType() == EvalType.FIELD) {
+      field = (FieldEval) right;
+      value = ((ConstEval) left).getValue();
+      op = reverse(op);
+    } else {
+      return null;
+    }
+
+    int columnId = getColumnId(field);
+    if (columnId < 0 || value.isNull()) {
+      return null;
+    }
+
+    if (columnMapping.getIsRowKeyMappings()[columnId]) {
+      // the row key range of each fragment is already narrowed by the predicates on the row key.
+      // the first field of a composite row key can still narrow the rows within the range.
+      if (op == CompareOp.EQUAL && isFirstRowKeyField(columnId) && isByteOrdered(columnId)) {
+        return new PrefixFilter(serialize(columnId, value));
+      }
+      return null;
+    }
+
+    if (!isValueColumn(columnId)) {
+      return null;
+    }
+    if (op != CompareOp.EQUAL && op != CompareOp.NOT_EQUAL) {
+      if (!isByteOrdered(columnId)) {
+        return null;
+      }
+    } else if (!isByteOrdered(columnId) && !isFixedWidthBinary(columnId)) {
+      return null;
+    }
+
+    return newValueFilter(columnId, op, value);
+  }
+
+  private Filter buildInFilter(InEval inEval) throws IOException {
+    if (inEval.isNot() || inEval.getLeftExpr().getType() != EvalType.FIELD) {
+      return null;
+    }
+
+    int columnId = getColumnId((FieldEval) inEval.getLeftExpr());
+    if (columnId < 0 || !isValueColumn(columnId) || !(isByteOrdered(columnId) || isFixedWidthBinary(columnId))) {
+      return null;
+    }
+
+    FilterList filters = new FilterList(FilterList.Operator.MUST_PASS_ONE);
+    for (Datum eachValue : ((RowConstantEval) inEval.getRightExpr()).getValues()) {
+      if (!eachValue.isNull()) {
+        filters.addFilter(newValueFilter(columnId, CompareOp.EQUAL, eachValue));
+      }
+    }
+    return filters.getFilters().isEmpty() ? null : filters;
+  }
+
+  /**
+   * Translates LIKE 'prefix%' on the row key or the first field of a composite row key into a prefix filter.
+   */
+  private Filter buildPrefixFilter(LikePredicateEval likeEval) throws IOException {
+    if (likeEval.isNot() || likeEval.isCaseInsensitive() ||
+        likeEval.getLeftExpr().getType() != EvalType.FIELD || likeEval.getRightExpr().getType() != EvalType.CONST) {
+      return null;
+    }
+
+    int columnId = getColumnId((FieldEval) likeEval.getLeftExpr());
+    if (columnId < 0 || !columnMapping.getIsRowKeyMappings()[columnId] ||
+        !isFirstRowKeyField(columnId) || !isByteOrdered(columnId)) {
+      return null;
+    }
+
+    String pattern = ((ConstEval) likeEval.getRightExpr()).getValue().asChars();
+    int wildcardIndex = indexOfWildcard(pattern);
+    if (wildcardIndex <= 0) {
+      return null;
+    }
+    return new PrefixFilter(serialize(columnId, DatumFactory.createText(pattern.substring(0, wildcardIndex))));
+  }
+
+  private static int indexOfWildcard(String pattern) {
+    int percent = pattern.indexOf('%');
+    int underscore = pattern.indexOf('_');
+    if (percent < 0) {
+      return underscore;
+    } else if (underscore < 0) {
+      return percent;
+    } else {
+      return Math.min(percent, underscore);
+    }
+  }
+
+  private Filter newValueFilter(int columnId, CompareOp op, Datum value) throws IOException {
+    byte[][] mappingColumn = columnMapping.getMappingColumns()[columnId];
+    SingleColumnValueFilter filter = new SingleColumnValueFilter(mappingColumn[0], mappingColumn[1], op,
+        new BinaryComparator(serialize(columnId, value)));
+    // a missing cell is null, which never satisfies a comparison
+    filter.setFilterIfMissing(true);
+    return filter;
+  }
+
+  private int getColumnId(FieldEval field) {
+    Column column = field.getColumnRef();
+    int columnId;
+    if (column.hasQualifier()) {
+      columnId = schema.getColumnId(column.getQualifiedName());
+    } else {
+      columnId = schema.getColumnIdByName(column.getSimpleName());
+    }
+    if (columnId < 0 || !isScanned[columnId]) {
+      return -1;
+    }
+    return columnId;
+  }
+
+  /**
+   * @return True if a column is mapped to a single cell of a column family.
+   */
+  private boolean isValueColumn(int columnId) {
+    return !columnMapping.getIsRowKeyMappings()[columnId] &&
+        !columnMapping.getIsColumnKeys()[columnId] &&
+        !columnMapping.getIsColumnValues()[columnId] &&
+        columnMapping.getMappingColumns()[columnId][1] != null;
+  }
+
+  private boolean isFirstRowKeyField(int columnId) {
+    int rowKeyFieldIndex = columnMapping.getRowKeyFieldIndexes()[columnId];
+    return rowKeyFieldIndex < 0 || (rowKeyFieldIndex == 0 && !columnMapping.getIsBinaryColumns()[columnId]);
+  }
+
+  /**
+   * @return True if the order of the serialized bytes is the same as the order of values.
+   */
+  private boolean isByteOrdered(int columnId) {
+    return schema.getColumn(columnId).getDataType().getType() == Type.TEXT;
+  }
+
+  /**
+   * @return True if each value has only one binary form, so the equality of bytes is the equality of values.
+   */
+  private boolean isFixedWidthBinary(int columnId) {
+    if (!columnMapping.getIsBinaryColumns()[columnId]) {
+      return false;
+    }
+    Type type = schema.getColumn(columnId).getDataType().getType();
+    return type == Type.INT1 || type == Type.INT2 || type == Type.INT4 || type == Type.INT8;
+  }
+
+  private byte[] serialize(int columnId, Datum value) throws IOException {
+    if (columnMapping.getIsBinaryColumns()[columnId]) {
+      return HBaseBinarySerializerDeserializer.serialize(schema.getColumn(columnId), value);
+    } else {
+      return HBaseTextSerializerDeserializer.serialize(schema.getColumn(columnId), value);
+    }
+  }
+
+  private static CompareOp toCompareOp(EvalType type) {
+    switch (type) {
+    case EQUAL:
+      return CompareOp.EQUAL;
+    case NOT_EQUAL:
+      return CompareOp.NOT_EQUAL;
+    case LTH:
+      return CompareOp.LESS;
+    case LEQ:
+      return CompareOp.LESS_OR_EQUAL;
+    case GTH:
+      return CompareOp.GREATER;
+    case GEQ:
+      return CompareOp.GREATER_OR_EQUAL;
+    default:
+      throw new IllegalArgumentException("Not a comparison: " + type);
+    }
+  }
+
+  private static CompareOp reverse(CompareOp op) {
+    switch (op) {
+    case LESS:
+      return CompareOp.GREATER;
+    case LESS_OR_EQUAL:
+      return CompareOp.GREATER_OR_EQUAL;
+    case GREATER:
+      return CompareOp.LESS;
+    case GREATER_OR_EQUAL:
+      return CompareOp.LESS_OR_EQUAL;
+    default:
+      return op;
+    }
+  }
+}
@@ -18,10 +18,12 @@
 
 package org.apache.tajo.storage.hbase;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.client.*;
+import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.FilterList;
 import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
 import org.apache.hadoop.hbase.filter.InclusiveStopFilter;
@@ -36,6 +38,7 @@ import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.datum.Datum;
 import org.apache.tajo.datum.NullDatum;
 import org.apache.tajo.datum.TextDatum;
+import org.apache.tajo.plan.expr.EvalNode;
 import org.apache.tajo.storage.Scanner;
 import org.apache.tajo.storage.StorageManager;
 import org.apache.tajo.storage.Tuple;
@@ -47,6 +50,7 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.NavigableMap;
 import java.util.Set;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class HBaseScanner implements Scanner {
@@ -54,6 +58,10 @@ public class HBaseScanner implements Scanner {
   private static final int DEFAULT_FETCH_SIZE = 1000;
   private static final int MAX_LIST_SIZE = 100;
 
+  // fetches the next batch of each scanner while the current batch is being deserialized
+  private static final ExecutorService PREFETCH_EXECUTOR = Executors.newCachedThreadPool(
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("HBaseScanner Prefetch #%d").build());
+
   protected boolean inited = false;
   private TajoConf conf;
   private Schema schema;
@@ -70,7 +78,10 @@ public class HBaseScanner implements Scanner {
   private int scanFetchSize;
   private Result[] scanResults;
   private int scanResultIndex = -1;
+  private boolean prefetchEnabled;
+  private Future<Result[]> prefetchedResults;
   private Column[] schemaColumns;
+  private EvalNode searchCondition;
 
   private ColumnMapping columnMapping;
   private int[] targetIndexes;
@@ -111,6 +122,7 @@ public class HBaseScanner implements Scanner {
 
     scanFetchSize = Integer.parseInt(
         meta.getOption(HBaseStorageConstants.META_FETCH_ROWNUM_KEY, "" + DEFAULT_FETCH_SIZE));
+    prefetchEnabled = Boolean.parseBoolean(meta.getOption(HBaseStorageConstants.META_SCAN_PREFETCH_KEY, "true"));
     if (targets == null) {
       targets = schema.toArray();
     }
@@ -138,7 +150,6 @@ public class HBaseScanner implements Scanner {
 
   private void initScanner() throws IOException {
     scan = new Scan();
-    scan.setBatch(scanFetchSize);
     scan.setCacheBlocks(false);
     scan.setCaching(scanFetchSize);
 
@@ -174,10 +185,21 @@ public class HBaseScanner implements Scanner {
       scan.setStopRow(fragment.getStopRow());
     }
 
-    if (filters != null) {
-      scan.setFilter(filters);
+    if (searchCondition != null) {
+      Filter pushedFilter = new HBaseFilterBuilder(schema, columnMapping, targetIndexes).build(searchCondition);
+      if (pushedFilter != null) {
+        if (filters == null) {
+          filters = new FilterList();
+        }
+        filters.addFilter(pushedFilter);
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("Pushed down filter to " + fragment.getHbaseTableName() + ": " + pushedFilter);
+        }
+      }
     }
 
+    setFilterAndBatch(scan, filters, scanFetchSize);
+
     if (htable == null) {
       HConnection hconn = ((HBaseStorageManager)StorageManager.getStorageManager(conf, StoreType.HBASE))
           .getConnection(hbaseConf);
@@ -186,6 +208,20 @@ public class HBaseScanner implements Scanner {
     scanner = htable.getScanner(scan);
   }
 
+  /**
+   * Sets the filter and the batch size of a scan. A filter which filters whole rows, such as
+   * SingleColumnValueFilter, cannot be used with a batch which may split a row into several results,
+   * so the batch is not set with such a filter. Otherwise, HBase throws IncompatibleFilterException.
+   */
+  static void setFilterAndBatch(Scan scan, Filter filter, int batch) {
+    if (filter != null) {
+      scan.setFilter(filter);
+    }
+    if (filter == null || !filter.hasFilterRow()) {
+      scan.setBatch(batch);
+    }
+  }
+
   @Override
   public Tuple next() throws IOException {
     if (finished.get()) {
@@ -193,7 +229,7 @@ public class HBaseScanner implements Scanner {
     }
 
     if (scanResults == null || scanResultIndex >= scanResults.length) {
-      scanResults = scanner.next(scanFetchSize);
+      scanResults = fetchResults();
       if (scanResults == null || scanResults.length == 0) {
         finished.set(true);
         progress = 1.0f;
@@ -211,6 +247,54 @@ public class HBaseScanner implements Scanner {
     return resultTuple;
   }
 
+  private Result[] fetchResults() throws IOException {
+    Result[] results;
+    if (prefetchedResults != null) {
+      results = waitForPrefetch();
+    } else {
+      results = scanner.next(scanFetchSize);
+    }
+
+    if (prefetchEnabled && results != null && results.length > 0) {
+      final ResultScanner currentScanner = scanner;
+      prefetchedResults = PREFETCH_EXECUTOR.submit(new Callable<Result[]>() {
+        @Override
+        public Result[] call() throws Exception {
+          return currentScanner.next(scanFetchSize);
+        }
+      });
+    }
+    return results;
+  }
+
+  private Result[] waitForPrefetch() throws IOException {
+    try {
+      return prefetchedResults.get();
+    } catch (InterruptedException e) {
+      throw new IOException(e.getMessage(), e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause().getMessage(), e.getCause());
+    } finally {
+      prefetchedResults = null;
+    }
+  }
+
+  /**
+   * A scanner must not be closed while it is fetching the next batch.
+   */
+  private void cancelPrefetch() {
+    if (prefetchedResults != null) {
+      try {
+        waitForPrefetch();
+      } catch (IOException e) {
+        LOG.warn("Error while prefetching hbase scan results: " + e.getMessage(), e);
+      }
+    }
+  }
+
   private Datum getDatum(Result result, int fieldId) throws IOException {
     byte[] value = null;
     if (isRowKeyMappings[fieldId]) {
@@ -377,6 +461,7 @@ public class HBaseScanner implements Scanner {
     finished.set(false);
     tableStats = new TableStats();
 
+    cancelPrefetch();
     if (scanner != null) {
       scanner.close();
       scanner = null;
@@ -389,6 +474,7 @@ public class HBaseScanner implements Scanner {
   public void close() throws IOException {
     progress = 1.0f;
     finished.set(true);
+    cancelPrefetch();
     if (scanner != null) {
       try {
         scanner.close();
@@ -423,7 +509,10 @@ public class HBaseScanner implements Scanner {
 
   @Override
   public void setSearchCondition(Object expr) {
-    // TODO implements adding column filter to scanner.
+    // the condition is translated into hbase filters, but it must be evaluated again for each row.
+    if (expr instanceof EvalNode) {
+      searchCondition = (EvalNode) expr;
+    }
   }
 
   @Override
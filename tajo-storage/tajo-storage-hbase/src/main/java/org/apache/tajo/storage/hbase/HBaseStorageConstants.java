@@ -22,6 +22,7 @@ public interface HBaseStorageConstants {
   public static final String KEY_COLUMN_MAPPING = "key";
   public static final String VALUE_COLUMN_MAPPING = "value";
   public static final String META_FETCH_ROWNUM_KEY = "fetch.rownum";
+  public static final String META_SCAN_PREFETCH_KEY = "hbase.scan.prefetch";
   public static final String META_TABLE_KEY = "table";
   public static final String META_COLUMNS_KEY = "columns";
   public static final String META_SPLIT_ROW_KEYS_KEY = "hbase.split.rowkeys";
@@ -30,4 +31,6 @@ public interface HBaseStorageConstants {
   public static final String META_ROWKEY_DELIMITER = "hbase.rowkey.delimiter";
 
   public static final String INSERT_PUT_MODE = "tajo.hbase.insert.put.mode";
+  /** the number of threads which hand the HFiles of an insert over to the regions */
+  public static final String BULK_LOAD_THREADS = "tajo.hbase.bulkload.threads.max";
 }
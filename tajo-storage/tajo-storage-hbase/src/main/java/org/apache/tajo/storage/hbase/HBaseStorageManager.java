@@ -50,6 +50,7 @@ import org.apache.tajo.plan.logical.LogicalNode;
 import org.apache.tajo.plan.logical.NodeType;
 import org.apache.tajo.plan.logical.ScanNode;
 import org.apache.tajo.plan.rewrite.LogicalPlanRewriteRule;
+import org.apache.tajo.plan.util.PlannerUtil;
 import org.apache.tajo.storage.*;
 import org.apache.tajo.storage.fragment.Fragment;
 import org.apache.tajo.util.Bytes;
@@ -939,7 +940,9 @@ public class HBaseStorageManager extends StorageManager {
     Path stagingResultDir = new Path(stagingDir, TajoConstants.RESULT_DIR_NAME);
 
     Configuration hbaseConf = HBaseStorageManager.getHBaseConfiguration(queryContext.getConf(), tableDesc.getMeta());
-    hbaseConf.set("hbase.loadincremental.threads.max", "2");
+    // each task writes the HFiles of a region, so the regions can load them in parallel
+    hbaseConf.setInt("hbase.loadincremental.threads.max",
+        queryContext.getInt(HBaseStorageConstants.BULK_LOAD_THREADS, Runtime.getRuntime().availableProcessors()));
 
     JobContextImpl jobContext = new JobContextImpl(hbaseConf,
         new JobID(finalEbId.getQueryId().toString(), finalEbId.getId()));
@@ -1000,10 +1003,16 @@ public class HBaseStorageManager extends StorageManager {
         }
         List<TupleRange> tupleRanges = new ArrayList<TupleRange>(endKeys.length);
 
-        TupleComparator comparator = new BaseTupleComparator(inputSchema, sortSpecs);
+        // range tuples consist of only the sort keys
+        TupleComparator comparator = new BaseTupleComparator(PlannerUtil.sortSpecsToSchema(sortSpecs), sortSpecs);
         Tuple previousTuple = dataRange.getStart();
 
         for (byte[] eachEndKey : endKeys) {
+          if (eachEndKey.length > 0 && comparator.compare(previousTuple, dataRange.getEnd()) > 0) {
+            // the remaining regions except the last one are beyond the data, so they do not need any task
+            continue;
+          }
+
           Tuple endTuple = new VTuple(sortSpecs.length);
           byte[][] rowKeyFields;
           if (sortSpecs.length > 1) {
@@ -1037,6 +1046,10 @@ public class HBaseStorageManager extends StorageManager {
                       rowKeyFields[i]));
             }
           }
+          if (eachEndKey.length > 0 && comparator.compare(endTuple, dataRange.getStart()) <= 0) {
+            // the region is ahead of the data
+            continue;
+          }
           tupleRanges.add(new TupleRange(sortSpecs, previousTuple, endTuple));
           previousTuple = endTuple;
         }
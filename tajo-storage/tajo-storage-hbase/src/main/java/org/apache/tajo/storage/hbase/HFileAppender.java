@@ -23,7 +23,11 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
 import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.TableNotFoundException;
+import org.apache.hadoop.hbase.client.HConnection;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.mapreduce.HFileOutputFormat2;
 import org.apache.hadoop.mapreduce.RecordWriter;
@@ -38,16 +42,27 @@ import org.apache.tajo.TaskAttemptId;
 import org.apache.tajo.TajoConstants;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.datum.Datum;
+import org.apache.tajo.storage.StorageManager;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.util.Bytes;
 
 import java.io.IOException;
+import java.net.URLEncoder;
 import java.util.TreeSet;
 
 public class HFileAppender extends AbstractHBaseAppender {
   private static final Log LOG = LogFactory.getLog(HFileAppender.class);
 
+  // The per-family settings which HFileOutputFormat2 reads from the job configuration
+  private static final String COMPRESSION_FAMILIES_CONF_KEY = "hbase.hfileoutputformat.families.compression";
+  private static final String BLOOM_TYPE_FAMILIES_CONF_KEY = "hbase.hfileoutputformat.families.bloomtype";
+  private static final String BLOCK_SIZE_FAMILIES_CONF_KEY = "hbase.mapreduce.hfileoutputformat.blocksize";
+  private static final String DATABLOCK_ENCODING_FAMILIES_CONF_KEY =
+      "hbase.mapreduce.hfileoutputformat.families.datablock.encoding";
+
   private RecordWriter<ImmutableBytesWritable, Cell> writer;
   private TaskAttemptContext writerContext;
   private Path workingFilePath;
@@ -65,6 +80,7 @@ public class HFileAppender extends AbstractHBaseAppender {
     Configuration taskConf = new Configuration();
     Path stagingResultDir = new Path(stagingDir, TajoConstants.RESULT_DIR_NAME);
     taskConf.set(FileOutputFormat.OUTDIR, stagingResultDir.toString());
+    configureColumnFamilies(taskConf);
 
     ExecutionBlockId ebId = taskAttemptId.getTaskId().getExecutionBlockId();
     writerContext = new TaskAttemptContextImpl(taskConf,
@@ -84,6 +100,52 @@ public class HFileAppender extends AbstractHBaseAppender {
     LOG.info("Created hbase file writer: " + workingFilePath);
   }
 
+  /**
+   * Writes HFiles with the compression, bloom filter, block size and encoding of the target column families.
+   * Otherwise, the bulk loaded files are rewritten by the next major compaction.
+   */
+  private void configureColumnFamilies(Configuration taskConf) throws IOException {
+    String tableName = columnMapping.getHbaseTableName();
+    if (tableName == null) {
+      return;
+    }
+
+    HTableDescriptor tableDesc;
+    try {
+      Configuration hbaseConf = HBaseStorageManager.getHBaseConfiguration(conf, meta);
+      HConnection hconn = ((HBaseStorageManager) StorageManager.getStorageManager((TajoConf)conf, StoreType.HBASE))
+          .getConnection(hbaseConf);
+      tableDesc = hconn.getHTableDescriptor(Bytes.toBytes(tableName));
+    } catch (TableNotFoundException e) {
+      LOG.warn("Can't find HBase table " + tableName + ", HFiles are written with the default settings");
+      return;
+    }
+
+    StringBuilder compressions = new StringBuilder();
+    StringBuilder bloomTypes = new StringBuilder();
+    StringBuilder blockSizes = new StringBuilder();
+    StringBuilder encodings = new StringBuilder();
+    for (HColumnDescriptor family : tableDesc.getFamilies()) {
+      String familyName = family.getNameAsString();
+      appendFamilyValue(compressions, familyName, family.getCompression().getName());
+      appendFamilyValue(bloomTypes, familyName, family.getBloomFilterType().toString());
+      appendFamilyValue(blockSizes, familyName, String.valueOf(family.getBlocksize()));
+      appendFamilyValue(encodings, familyName, family.getDataBlockEncoding().toString());
+    }
+
+    taskConf.set(COMPRESSION_FAMILIES_CONF_KEY, compressions.toString());
+    taskConf.set(BLOOM_TYPE_FAMILIES_CONF_KEY, bloomTypes.toString());
+    taskConf.set(BLOCK_SIZE_FAMILIES_CONF_KEY, blockSizes.toString());
+    taskConf.set(DATABLOCK_ENCODING_FAMILIES_CONF_KEY, encodings.toString());
+  }
+
+  private static void appendFamilyValue(StringBuilder sb, String familyName, String value) throws IOException {
+    if (sb.length() > 0) {
+      sb.append('&');
+    }
+    sb.append(URLEncoder.encode(familyName, "UTF-8")).append('=').append(URLEncoder.encode(value, "UTF-8"));
+  }
+
   long totalNumBytes = 0;
   ImmutableBytesWritable keyWritable = new ImmutableBytesWritable();
   boolean first = true;
@@ -141,7 +203,7 @@ public class HFileAppender extends AbstractHBaseAppender {
       try {
         for (KeyValue kv : kvSet) {
           writer.write(keyWritable, kv);
-          totalNumBytes += keyWritable.getLength() + keyWritable.getLength();
+          totalNumBytes += keyWritable.getLength() + kv.getLength();
         }
         kvSet.clear();
         // Statistical section
@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage.hbase;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.PrefixFilter;
+import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.plan.expr.*;
+import org.apache.tajo.util.Bytes;
+import org.apache.tajo.util.KeyValueSet;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestHBaseFilterBuilder {
+  private Schema schema;
+  private HBaseFilterBuilder builder;
+
+  @Before
+  public void setUp() throws Exception {
+    KeyValueSet keyValueSet = new KeyValueSet();
+    keyValueSet.set(HBaseStorageConstants.META_TABLE_KEY, "test");
+    keyValueSet.set(HBaseStorageConstants.META_COLUMNS_KEY, ":key,col1:a,col1:b#b,col2:c,col3:");
+
+    schema = new Schema();
+    schema.addColumn("rk", Type.TEXT);
+    schema.addColumn("c1", Type.TEXT);
+    schema.addColumn("c2", Type.INT4);
+    schema.addColumn("c3", Type.INT4);
+    schema.addColumn("c4", Type.TEXT);
+
+    ColumnMapping columnMapping = new ColumnMapping(schema, new TableMeta(StoreType.HBASE, keyValueSet));
+    builder = new HBaseFilterBuilder(schema, columnMapping, new int[]{0, 1, 2, 3, 4});
+  }
+
+  private FieldEval field(int columnId) {
+    return new FieldEval(schema.getColumn(columnId));
+  }
+
+  private static ConstEval constant(Datum datum) {
+    return new ConstEval(datum);
+  }
+
+  @Test
+  public void testComparison() throws Exception {
+    Filter filter = builder.build(new BinaryEval(EvalType.GEQ, field(1), constant(DatumFactory.createText("a-10"))));
+    assertTrue(filter instanceof SingleColumnValueFilter);
+    SingleColumnValueFilter valueFilter = (SingleColumnValueFilter) filter;
+    assertEquals("col1", Bytes.toString(valueFilter.getFamily()));
+    assertEquals("a", Bytes.toString(valueFilter.getQualifier()));
+    assertEquals(CompareOp.GREATER_OR_EQUAL, valueFilter.getOperator());
+    assertTrue(valueFilter.getFilterIfMissing());
+
+    // the operator is reversed if the constant is on the left side
+    filter = builder.build(new BinaryEval(EvalType.LTH, constant(DatumFactory.createText("a-10")), field(1)));
+    assertEquals(CompareOp.GREATER, ((SingleColumnValueFilter) filter).getOperator());
+
+    // the equality of binary integers
+    filter = builder.build(new BinaryEval(EvalType.EQUAL, field(2), constant(DatumFactory.createInt4(10))));
+    assertTrue(filter instanceof SingleColumnValueFilter);
+  }
+
+  @Test
+  public void testNotPushedPredicates() throws Exception {
+    // the byte order of binary integers is not the order of values
+    assertNull(builder.build(new BinaryEval(EvalType.LTH, field(2), constant(DatumFactory.createInt4(10)))));
+    // a text integer may have several forms
+    assertNull(builder.build(new BinaryEval(EvalType.EQUAL, field(3), constant(DatumFactory.createInt4(10)))));
+    // a whole column family
+    assertNull(builder.build(new BinaryEval(EvalType.EQUAL, field(4), constant(DatumFactory.createText("a")))));
+    // a disjunction with an untranslatable predicate
+    assertNull(builder.build(new BinaryEval(EvalType.OR,
+        new BinaryEval(EvalType.EQUAL, field(1), constant(DatumFactory.createText("a-1"))),
+        new BinaryEval(EvalType.LTH, field(2), constant(DatumFactory.createInt4(10))))));
+  }
+
+  @Test
+  public void testConjunctionAndDisjunction() throws Exception {
+    // an untranslatable predicate is left out of a conjunction
+    Filter filter = builder.build(new BinaryEval(EvalType.AND,
+        new BinaryEval(EvalType.EQUAL, field(1), constant(DatumFactory.createText("a-1"))),
+        new BinaryEval(EvalType.LTH, field(2), constant(DatumFactory.createInt4(10)))));
+    assertTrue(filter instanceof SingleColumnValueFilter);
+
+    filter = builder.build(new BinaryEval(EvalType.OR,
+        new BinaryEval(EvalType.EQUAL, field(1), constant(DatumFactory.createText("a-1"))),
+        new BinaryEval(EvalType.EQUAL, field(2), constant(DatumFactory.createInt4(10)))));
+    assertTrue(filter instanceof FilterList);
+    assertEquals(FilterList.Operator.MUST_PASS_ONE, ((FilterList) filter).getOperator());
+    assertEquals(2, ((FilterList) filter).getFilters().size());
+  }
+
+  @Test
+  public void testInAndLike() throws Exception {
+    Filter filter = builder.build(new InEval(field(1), new RowConstantEval(new Datum[]{
+        DatumFactory.createText("a-1"), DatumFactory.createText("a-2"), DatumFactory.createText("a-3")}), false));
+    assertTrue(filter instanceof FilterList);
+    assertEquals(3, ((FilterList) filter).getFilters().size());
+
+    assertNull(builder.build(new InEval(field(1), new RowConstantEval(new Datum[]{
+        DatumFactory.createText("a-1")}), true)));
+
+    filter = builder.build(new LikePredicateEval(false, field(0), constant(DatumFactory.createText("02%"))));
+    assertTrue(filter instanceof PrefixFilter);
+    assertEquals("02", Bytes.toString(((PrefixFilter) filter).getPrefix()));
+
+    assertNull(builder.build(new LikePredicateEval(false, field(0), constant(DatumFactory.createText("%2")))));
+    assertNull(builder.build(new LikePredicateEval(false, field(1), constant(DatumFactory.createText("a%")))));
+  }
+
+  @Test
+  public void testBatchWithPushedFilter() throws Exception {
+    // a value filter filters whole rows, so a scan with it must not split a row into batches
+    Filter filter = builder.build(new BinaryEval(EvalType.EQUAL, field(1), constant(DatumFactory.createText("a-1"))));
+    FilterList filters = new FilterList();
+    filters.addFilter(filter);
+    Scan scan = new Scan();
+    HBaseScanner.setFilterAndBatch(scan, filters, 100);
+    assertSame(filters, scan.getFilter());
+    assertTrue(scan.getBatch() <= 0);
+
+    filter = builder.build(new LikePredicateEval(false, field(0), constant(DatumFactory.createText("02%"))));
+    scan = new Scan();
+    HBaseScanner.setFilterAndBatch(scan, filter, 100);
+    assertEquals(100, scan.getBatch());
+
+    scan = new Scan();
+    HBaseScanner.setFilterAndBatch(scan, null, 100);
+    assertNull(scan.getFilter());
+    assertEquals(100, scan.getBatch());
+  }
+}
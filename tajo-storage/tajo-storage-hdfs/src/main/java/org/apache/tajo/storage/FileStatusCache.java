@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage;
+
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A cache of the block locations of files which are used to generate splits.
+ * It is kept by a storage manager, so it is shared by all queries of a query master.
+ *
+ * Directories are always listed again, because a listing re-stats all children of a directory by a single request
+ * while the directory modification time does not change on an append. The cached block locations of a file are valid
+ * only while the modification time and the length of the freshly listed file are unchanged, and at most for the TTL,
+ * because some object stores report a constant modification time. A file without a modification time is not cached.
+ * The cache is bounded by the number of cached files, and the least recently used entries are evicted first.
+ */
+public class FileStatusCache {
+  private final long maxEntries;
+  private final long ttlMillis;
+
+  private final LinkedHashMap<Path, Entry> blockLocations = new LinkedHashMap<Path, Entry>(16, 0.75f, true);
+
+  private long hitNum = 0;
+  private long missNum = 0;
+
+  private static class Entry {
+    final long modificationTime;
+    final long length;
+    final long cachedTime;
+    final BlockLocation [] value;
+
+    Entry(FileStatus status, BlockLocation [] value) {
+      this.modificationTime = status.getModificationTime();
+      this.length = status.getLen();
+      this.cachedTime = System.currentTimeMillis();
+      this.value = value;
+    }
+
+    boolean isValid(FileStatus status, long ttlMillis) {
+      return modificationTime == status.getModificationTime() && length == status.getLen() &&
+          System.currentTimeMillis() - cachedTime < ttlMillis;
+    }
+  }
+
+  /**
+   * @param maxEntries The maximum number of cached files
+   * @param ttlMillis The time to live of a cached entry in milliseconds
+   */
+  public FileStatusCache(long maxEntries, long ttlMillis) {
+    this.maxEntries = maxEntries;
+    this.ttlMillis = ttlMillis;
+  }
+
+  /**
+   * @return The cached block locations of a whole file, or null if they are not cached or outdated.
+   */
+  public synchronized BlockLocation [] getBlockLocations(FileStatus file) {
+    Entry entry = blockLocations.get(file.getPath());
+    if (entry != null && entry.isValid(file, ttlMillis)) {
+      hitNum++;
+      return entry.value;
+    }
+
+    if (entry != null) {
+      blockLocations.remove(file.getPath());
+    }
+    missNum++;
+    return null;
+  }
+
+  public synchronized void putBlockLocations(FileStatus file, BlockLocation [] locations) {
+    if (maxEntries == 0 || ttlMillis == 0 || file.getModificationTime() <= 0) {
+      return;
+    }
+
+    blockLocations.put(file.getPath(), new Entry(file, locations));
+    Iterator<Entry> it = blockLocations.values().iterator();
+    while (blockLocations.size() > maxEntries && it.hasNext()) {
+      it.next();
+      it.remove();
+    }
+  }
+
+  public synchronized long getCachedEntries() {
+    return blockLocations.size();
+  }
+
+  public synchronized long getHitNum() {
+    return hitNum;
+  }
+
+  public synchronized long getMissNum() {
+    return missNum;
+  }
+
+  public synchronized void clear() {
+    blockLocations.clear();
+  }
+}
@@ -20,7 +20,9 @@ package org.apache.tajo.storage;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
@@ -36,13 +38,16 @@ import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.plan.logical.LogicalNode;
 import org.apache.tajo.plan.logical.ScanNode;
+import org.apache.tajo.storage.fragment.CombinedFileFragment;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.storage.fragment.Fragment;
 import org.apache.tajo.util.Bytes;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.text.NumberFormat;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class FileStorageManager extends StorageManager {
@@ -86,6 +91,11 @@ public class FileStorageManager extends StorageManager {
   protected boolean blocksMetadataEnabled;
   private static final HdfsVolumeId zeroVolumeId = new HdfsVolumeId(Bytes.toBytes(0));
 
+  /** the listings and block locations shared by all queries which use this storage manager */
+  private FileStatusCache fileStatusCache;
+  /** the threads which list directories and fetch block locations */
+  private ExecutorService splitExecutor;
+
   public FileStorageManager(StoreType storeType) {
     super(storeType);
   }
@@ -98,6 +108,51 @@ public class FileStorageManager extends StorageManager {
         DFSConfigKeys.DFS_HDFS_BLOCKS_METADATA_ENABLED_DEFAULT);
     if (!this.blocksMetadataEnabled)
       LOG.warn("does not support block metadata. ('dfs.datanode.hdfs-blocks-metadata.enabled')");
+
+    this.fileStatusCache = new FileStatusCache(conf.getIntVar(TajoConf.ConfVars.STORAGE_SPLIT_CACHE_MAX_ENTRIES),
+        conf.getLongVar(TajoConf.ConfVars.STORAGE_SPLIT_CACHE_TTL) * 1000);
+  }
+
+  @VisibleForTesting
+  FileStatusCache getFileStatusCache() {
+    return fileStatusCache;
+  }
+
+  private synchronized ExecutorService getSplitExecutor() {
+    if (splitExecutor == null) {
+      splitExecutor = Executors.newFixedThreadPool(conf.getIntVar(TajoConf.ConfVars.STORAGE_SPLIT_THREAD_NUM),
+          new ThreadFactoryBuilder().setDaemon(true).setNameFormat("Split Generator #%d").build());
+    }
+    return splitExecutor;
+  }
+
+  /**
+   * Runs tasks with the split generator threads, and returns their results in the order of the tasks.
+   * A single task is run in the calling thread.
+   */
+  private <T> List<T> runAll(List<Callable<T>> tasks) throws IOException {
+    List<T> results = new ArrayList<T>(tasks.size());
+    try {
+      if (tasks.size() == 1) {
+        results.add(tasks.get(0).call());
+        return results;
+      }
+
+      for (Future<T> future : getSplitExecutor().invokeAll(tasks)) {
+        results.add(future.get());
+      }
+      return results;
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Split generation is interrupted");
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), IOException.class);
+      throw new IOException(e.getCause());
+    } catch (Exception e) {
+      Throwables.propagateIfPossible(e, IOException.class);
+      throw new IOException(e);
+    }
   }
 
   public Scanner getFileScanner(TableMeta meta, Schema schema, Path path)
@@ -342,10 +397,7 @@ public class FileStorageManager extends StorageManager {
       } else {
         for (FileStatus globStat : matches) {
           if (globStat.isDirectory()) {
-            for (FileStatus stat : fs.listStatus(globStat.getPath(),
-                inputFilter)) {
-              result.add(stat);
-            }
+            result.addAll(Arrays.asList(fs.listStatus(globStat.getPath(), inputFilter)));
           } else {
             result.add(globStat);
           }
@@ -356,10 +408,21 @@ public class FileStorageManager extends StorageManager {
     if (!errors.isEmpty()) {
       throw new InvalidInputException(errors);
     }
-    LOG.info("Total input paths to process : " + result.size());
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Total input paths to process : " + result.size());
+    }
     return result;
   }
 
+  private BlockLocation [] getFileBlockLocations(FileSystem fs, FileStatus file) throws IOException {
+    BlockLocation [] locations = fileStatusCache.getBlockLocations(file);
+    if (locations == null) {
+      locations = fs.getFileBlockLocations(file, 0, file.getLen());
+      fileStatusCache.putBlockLocations(file, locations);
+    }
+    return locations;
+  }
+
   /**
    * Is the given filename splitable? Usually, true, but if the file is
    * stream compressed, it will not be.
@@ -502,32 +565,67 @@ public class FileStorageManager extends StorageManager {
    *
    * @throws IOException
    */
-  public List<Fragment> getSplits(String tableName, TableMeta meta, Schema schema, Path... inputs)
-      throws IOException {
+  public List<Fragment> getSplits(final String tableName, final TableMeta meta, final Schema schema,
+                                  Path... inputs) throws IOException {
     // generate splits'
 
     List<Fragment> splits = Lists.newArrayList();
     List<Fragment> volumeSplits = Lists.newArrayList();
     List<BlockLocation> blockLocations = Lists.newArrayList();
 
-    for (Path p : inputs) {
-      FileSystem fs = p.getFileSystem(conf);
-
-      ArrayList<FileStatus> files = Lists.newArrayList();
-      if (fs.isFile(p)) {
-        files.addAll(Lists.newArrayList(fs.getFileStatus(p)));
-      } else {
-        files.addAll(listStatus(p));
+    // list the input paths in parallel
+    List<Callable<List<FileStatus>>> listingTasks = new ArrayList<Callable<List<FileStatus>>>(inputs.length);
+    for (final Path p : inputs) {
+      listingTasks.add(new Callable<List<FileStatus>>() {
+        @Override
+        public List<FileStatus> call() throws IOException {
+          FileSystem fs = p.getFileSystem(conf);
+          if (fs.isFile(p)) {
+            return Lists.newArrayList(fs.getFileStatus(p));
+          } else {
+            return listStatus(p);
+          }
+        }
+      });
+    }
+    List<List<FileStatus>> listings = runAll(listingTasks);
+
+    // fetch the block locations of non-empty files in parallel
+    List<Callable<BlockLocation []>> locationTasks = new ArrayList<Callable<BlockLocation[]>>();
+    List<Callable<Boolean>> splittableTasks = new ArrayList<Callable<Boolean>>();
+    for (int i = 0; i < inputs.length; i++) {
+      final FileSystem fs = inputs[i].getFileSystem(conf);
+      for (final FileStatus file : listings.get(i)) {
+        if (file.getLen() > 0) {
+          locationTasks.add(new Callable<BlockLocation[]>() {
+            @Override
+            public BlockLocation[] call() throws IOException {
+              return getFileBlockLocations(fs, file);
+            }
+          });
+          splittableTasks.add(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws IOException {
+              return isSplittable(meta, schema, file.getPath(), file);
+            }
+          });
+        }
       }
+    }
+    Iterator<BlockLocation []> locationIt = runAll(locationTasks).iterator();
+    Iterator<Boolean> splittableIt = runAll(splittableTasks).iterator();
+
+    for (int i = 0; i < inputs.length; i++) {
+      FileSystem fs = inputs[i].getFileSystem(conf);
 
       int previousSplitSize = splits.size();
-      for (FileStatus file : files) {
+      for (FileStatus file : listings.get(i)) {
         Path path = file.getPath();
         long length = file.getLen();
         if (length > 0) {
           // Get locations of blocks of file
-          BlockLocation[] blkLocations = fs.getFileBlockLocations(file, 0, length);
-          boolean splittable = isSplittable(meta, schema, path, file);
+          BlockLocation[] blkLocations = locationIt.next();
+          boolean splittable = splittableIt.next();
           if (blocksMetadataEnabled && fs instanceof DistributedFileSystem) {
 
             if (splittable) {
@@ -590,6 +688,75 @@ public class FileStorageManager extends StorageManager {
     return splits;
   }
 
+  /**
+   * Packs file fragments which are smaller than the target size into combined fragments,
+   * so that a task reads a number of small files instead of a single small file.
+   *
+   * Only the fragments in the same directory and in the same host and disk are packed together.
+   * It keeps the locality of fragments, and a task of a column-partitioned table reads a single partition.
+   *
+   * @param splits The splits generated by {@link #getSplits}
+   * @param targetSize The target length of a combined fragment. If it is zero or less, splits are not combined.
+   * @return The large fragments in the original order, followed by the combined fragments
+   */
+  public static List<Fragment> combineSplits(List<Fragment> splits, long targetSize) {
+    if (targetSize <= 0 || splits.size() < 2) {
+      return splits;
+    }
+
+    List<Fragment> combined = Lists.newArrayList();
+    Map<String, List<FileFragment>> groups = new LinkedHashMap<String, List<FileFragment>>();
+    for (Fragment split : splits) {
+      if (split instanceof FileFragment && split.getLength() < targetSize) {
+        FileFragment fragment = (FileFragment) split;
+        String host = fragment.getHosts().length > 0 ? fragment.getHosts()[0] : "";
+        int diskId = fragment.getHosts().length > 0 ? fragment.getDiskIds()[0] : -1;
+        String groupKey = fragment.getPath().getParent() + "|" + host + "|" + diskId;
+
+        List<FileFragment> group = groups.get(groupKey);
+        if (group == null) {
+          group = Lists.newArrayList();
+          groups.put(groupKey, group);
+        }
+        group.add(fragment);
+      } else {
+        combined.add(split);
+      }
+    }
+
+    for (List<FileFragment> group : groups.values()) {
+      List<FileFragment> packed = Lists.newArrayList();
+      long packedLength = 0;
+      for (FileFragment fragment : group) {
+        packed.add(fragment);
+        packedLength += fragment.getLength();
+        if (packedLength >= targetSize) {
+          combined.add(newCombinedFragment(packed));
+          packed = Lists.newArrayList();
+          packedLength = 0;
+        }
+      }
+      if (!packed.isEmpty()) {
+        combined.add(newCombinedFragment(packed));
+      }
+    }
+
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("# of splits after combining small files: " + splits.size() + " => " + combined.size());
+    }
+    return combined;
+  }
+
+  private static Fragment newCombinedFragment(List<FileFragment> fragments) {
+    FileFragment first = fragments.get(0);
+    if (fragments.size() == 1) {
+      return first;
+    }
+    String [] hosts = first.getHosts().length > 0 ? new String[] {first.getHosts()[0]} : new String[0];
+    int [] diskIds = first.getHosts().length > 0 ? new int[] {first.getDiskIds()[0]} : new int[0];
+    return new CombinedFileFragment(first.getTableName(), fragments, hosts, diskIds);
+  }
+
   private void setVolumeMeta(List<Fragment> splits, final List<BlockLocation> blockLocations)
       throws IOException {
 
@@ -843,6 +1010,15 @@ public class FileStorageManager extends StorageManager {
 
   @Override
   public void closeStorageManager() {
+    synchronized (this) {
+      if (splitExecutor != null) {
+        splitExecutor.shutdownNow();
+        splitExecutor = null;
+      }
+    }
+    if (fileStatusCache != null) {
+      fileStatusCache.clear();
+    }
   }
 
   @Override
@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage.cfile;
+
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * CFile is a Tajo-native columnar file format. A file consists of stripes, and each stripe keeps the values of
+ * a fixed number of rows column by column.
+ *
+ * <pre>
+ *   MAGIC
+ *   stripe 1: column chunk 1, column chunk 2, ... column chunk n
+ *   ...
+ *   stripe m
+ *   footer: the number of columns, the number of stripes, and a {@link StripeInfo} per stripe
+ *   footer length (int), MAGIC
+ * </pre>
+ *
+ * Each column chunk is encoded with one of {@link Encoding}s, which is chosen by the writer for the smallest size.
+ * The footer keeps the offsets and a {@link ZoneMap} of every column chunk, so a reader can read only projected
+ * columns and skip stripes which never satisfy a search condition.
+ */
+public class CFile {
+  public static final int MAGIC = 0x54434631; // "TCF1"
+  public static final int TAIL_SIZE = 8; // footer length and magic
+
+  public enum Encoding {
+    /** length-prefixed values */
+    PLAIN,
+    /** pairs of a run length and a value */
+    RLE,
+    /** distinct values and run-length encoded ids into them */
+    DICTIONARY;
+
+    public static Encoding fromCode(int code) throws IOException {
+      Encoding [] values = values();
+      if (code < 0 || code >= values.length) {
+        throw new IOException("Unknown CFile encoding: " + code);
+      }
+      return values[code];
+    }
+  }
+
+  /**
+   * The data types which can be stored. They are serialized by {@link Datum#asByteArray()}, and
+   * deserialized by {@link DatumFactory#createFromBytes(DataType, byte[])}.
+   */
+  public static boolean isSupportedType(Type type) {
+    switch (type) {
+    case BOOLEAN:
+    case BIT:
+    case CHAR:
+    case INT2:
+    case INT4:
+    case INT8:
+    case FLOAT4:
+    case FLOAT8:
+    case TEXT:
+    case BLOB:
+    case DATE:
+    case TIME:
+    case TIMESTAMP:
+    case INET4:
+    case PROTOBUF:
+    case NULL_TYPE:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  /**
+   * The data types whose values are ordered consistently by {@link Datum#compareTo(Datum)},
+   * so their zone maps keep the min/max values.
+   */
+  public static boolean isRangeComparable(Type type) {
+    switch (type) {
+    case INT2:
+    case INT4:
+    case INT8:
+    case FLOAT4:
+    case FLOAT8:
+    case CHAR:
+    case TEXT:
+    case DATE:
+    case TIME:
+    case TIMESTAMP:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  static void checkSchema(Schema schema) {
+    for (int i = 0; i < schema.size(); i++) {
+      DataType dataType = schema.getColumn(i).getDataType();
+      if (!isSupportedType(dataType.getType())) {
+        throw new UnsupportedOperationException("CFile does not support " + dataType.getType().name()
+            + " of column " + schema.getColumn(i).getQualifiedName());
+      }
+    }
+  }
+
+  static void writeBytes(DataOutput out, byte [] bytes) throws IOException {
+    WritableUtils.writeVInt(out, bytes.length);
+    out.write(bytes);
+  }
+
+  static byte [] readBytes(DataInput in) throws IOException {
+    byte [] bytes = new byte[WritableUtils.readVInt(in)];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  static Datum readDatum(DataInput in, DataType dataType) throws IOException {
+    return DatumFactory.createFromBytes(dataType, readBytes(in));
+  }
+}
@@ -0,0 +1,191 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage.cfile;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.IOUtils;
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.tajo.TaskAttemptId;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.storage.FileAppender;
+import org.apache.tajo.storage.StorageConstants;
+import org.apache.tajo.storage.TableStatistics;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.exception.AlreadyExistsStorageException;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * It writes rows into a CFile. Rows are buffered column by column, and every <code>cfile.stripe.rows</code> rows
+ * are written as a stripe which consists of one encoded chunk and one zone map per column.
+ * The footer keeps the offsets of all stripes, and it is written when the appender is closed.
+ */
+public class CFileAppender extends FileAppender {
+  private static final Log LOG = LogFactory.getLog(CFileAppender.class);
+
+  private FSDataOutputStream out;
+  private int stripeRows;
+  private ColumnChunkWriter [] writers;
+  private int bufferedRows = 0;
+  private final List<StripeInfo> stripes = new ArrayList<StripeInfo>();
+
+  // statistics
+  private TableStatistics stats;
+
+  public CFileAppender(Configuration conf, TaskAttemptId taskAttemptId,
+                       Schema schema, TableMeta meta, Path workDir) {
+    super(conf, taskAttemptId, schema, meta, workDir);
+  }
+
+  @Override
+  public void init() throws IOException {
+    CFile.checkSchema(schema);
+
+    FileSystem fs = path.getFileSystem(conf);
+    if (!fs.exists(path.getParent())) {
+      throw new FileNotFoundException(path.toString());
+    }
+    if (fs.exists(path)) {
+      throw new AlreadyExistsStorageException(path);
+    }
+
+    stripeRows = Integer.parseInt(
+        meta.getOption(StorageConstants.CFILE_STRIPE_ROWS, StorageConstants.DEFAULT_CFILE_STRIPE_ROWS));
+    int maxDictionarySize = Integer.parseInt(meta.getOption(StorageConstants.CFILE_DICTIONARY_MAX_SIZE,
+        StorageConstants.DEFAULT_CFILE_DICTIONARY_MAX_SIZE));
+
+    writers = new ColumnChunkWriter[schema.size()];
+    for (int i = 0; i < schema.size(); i++) {
+      writers[i] = new ColumnChunkWriter(schema.getColumn(i).getDataType(), maxDictionarySize);
+    }
+
+    out = fs.create(path);
+    out.writeInt(CFile.MAGIC);
+
+    if (enabledStats) {
+      this.stats = new TableStatistics(this.schema);
+    }
+
+    super.init();
+  }
+
+  @Override
+  public void addTuple(Tuple t) throws IOException {
+    for (int i = 0; i < schema.size(); i++) {
+      writers[i].add(t.get(i));
+      if (enabledStats) {
+        stats.analyzeField(i, t.get(i));
+      }
+    }
+    bufferedRows++;
+
+    if (enabledStats) {
+      stats.incrementRow();
+    }
+
+    if (bufferedRows >= stripeRows) {
+      writeStripe();
+    }
+  }
+
+  private void writeStripe() throws IOException {
+    if (bufferedRows == 0) {
+      return;
+    }
+
+    long stripeOffset = out.getPos();
+    long [] chunkOffsets = new long[writers.length];
+    int [] chunkLengths = new int[writers.length];
+    ZoneMap [] zoneMaps = new ZoneMap[writers.length];
+    for (int i = 0; i < writers.length; i++) {
+      byte [] chunk = writers[i].encode();
+      chunkOffsets[i] = out.getPos();
+      chunkLengths[i] = chunk.length;
+      zoneMaps[i] = writers[i].getZoneMap();
+      out.write(chunk);
+      writers[i].reset();
+    }
+    stripes.add(new StripeInfo(stripeOffset, bufferedRows, chunkOffsets, chunkLengths, zoneMaps));
+    bufferedRows = 0;
+  }
+
+  private void writeFooter() throws IOException {
+    DataOutputBuffer footer = new DataOutputBuffer();
+    WritableUtils.writeVInt(footer, schema.size());
+    WritableUtils.writeVInt(footer, stripes.size());
+    for (StripeInfo stripe : stripes) {
+      stripe.write(footer);
+    }
+    out.write(footer.getData(), 0, footer.getLength());
+    out.writeInt(footer.getLength());
+    out.writeInt(CFile.MAGIC);
+  }
+
+  @Override
+  public long getOffset() throws IOException {
+    long offset = out.getPos();
+    for (ColumnChunkWriter writer : writers) {
+      offset += writer.getBufferedBytes();
+    }
+    return offset;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (out != null) {
+      try {
+        writeStripe();
+        writeFooter();
+        if (enabledStats) {
+          stats.setNumBytes(out.getPos());
+        }
+        out.flush();
+      } finally {
+        IOUtils.cleanup(LOG, out);
+        out = null;
+      }
+    }
+  }
+
+  @Override
+  public TableStats getStats() {
+    if (enabledStats) {
+      return stats.getTableStat();
+    } else {
+      return null;
+    }
+  }
+}
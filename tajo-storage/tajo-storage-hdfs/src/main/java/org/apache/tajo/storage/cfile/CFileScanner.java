@@ -0,0 +1,231 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage.cfile;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.io.IOUtils;
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.plan.expr.EvalNode;
+import org.apache.tajo.storage.FileScanner;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.storage.fragment.Fragment;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * It reads the stripes of a CFile whose offsets are in the range of the fragment.
+ * Only the column chunks of projected columns are read, and a stripe is skipped entirely
+ * if its zone maps show that no row satisfies the search condition.
+ */
+public class CFileScanner extends FileScanner {
+  private static final Log LOG = LogFactory.getLog(CFileScanner.class);
+
+  private FSDataInputStream in;
+  private int [] projectedIds;
+  private StripeFilter filter;
+  private EvalNode searchCondition;
+
+  private List<StripeInfo> stripes;
+  private int stripeIdx;
+  private int skippedStripeNum;
+  private ColumnChunkReader [] readers;
+  private int remainRows = 0;
+  private long readBytes;
+  private long numRows;
+
+  public CFileScanner(Configuration conf, Schema schema, TableMeta meta, Fragment fragment) {
+    super(conf, schema, meta, fragment);
+  }
+
+  @Override
+  public void init() throws IOException {
+    CFile.checkSchema(schema);
+
+    if (targets == null) {
+      targets = schema.toArray();
+    }
+    projectedIds = new int[targets.length];
+    for (int i = 0; i < targets.length; i++) {
+      projectedIds[i] = schema.getColumnId(targets[i].getQualifiedName());
+    }
+    if (searchCondition != null) {
+      filter = new StripeFilter(schema, searchCondition);
+    }
+
+    FileSystem fs = fragment.getPath().getFileSystem(conf);
+    long fileLength = fs.getFileStatus(fragment.getPath()).getLen();
+    in = fs.open(fragment.getPath());
+    stripes = readStripes(fileLength);
+    readers = new ColumnChunkReader[schema.size()];
+
+    super.init();
+    rewind();
+  }
+
+  private List<StripeInfo> readStripes(long fileLength) throws IOException {
+    if (fileLength < 4 + CFile.TAIL_SIZE) {
+      throw new IOException(fragment.getPath() + " is not a CFile");
+    }
+    in.seek(fileLength - CFile.TAIL_SIZE);
+    int footerLength = in.readInt();
+    if (in.readInt() != CFile.MAGIC) {
+      throw new IOException(fragment.getPath() + " is not a CFile");
+    }
+
+    byte [] footer = new byte[footerLength];
+    in.seek(fileLength - CFile.TAIL_SIZE - footerLength);
+    in.readFully(footer);
+    DataInputStream footerIn = new DataInputStream(new ByteArrayInputStream(footer));
+    int columnNum = WritableUtils.readVInt(footerIn);
+    if (columnNum != schema.size()) {
+      throw new IOException(fragment.getPath() + " has " + columnNum + " columns, but the schema has "
+          + schema.size() + " columns");
+    }
+
+    long start = fragment.getStartKey();
+    long end = start + fragment.getLength();
+    int stripeNum = WritableUtils.readVInt(footerIn);
+    List<StripeInfo> stripesInFragment = new ArrayList<StripeInfo>();
+    for (int i = 0; i < stripeNum; i++) {
+      StripeInfo stripe = StripeInfo.read(footerIn, schema);
+      // a stripe belongs to the fragment which contains the beginning of the stripe
+      if (stripe.getOffset() >= start && stripe.getOffset() < end) {
+        stripesInFragment.add(stripe);
+      }
+    }
+    return stripesInFragment;
+  }
+
+  private void rewind() {
+    stripeIdx = 0;
+    skippedStripeNum = 0;
+    remainRows = 0;
+    readBytes = 0;
+    numRows = 0;
+    progress = 0.0f;
+  }
+
+  /**
+   * Moves to the next stripe which may have matched rows, and reads the chunks of projected columns in it.
+   *
+   * @return False if there is no more stripe.
+   */
+  private boolean nextStripe() throws IOException {
+    while (stripeIdx < stripes.size()) {
+      StripeInfo stripe = stripes.get(stripeIdx++);
+      if (filter != null && !filter.mightMatch(stripe)) {
+        skippedStripeNum++;
+        continue;
+      }
+
+      for (int columnId : projectedIds) {
+        byte [] chunk = new byte[stripe.getChunkLength(columnId)];
+        in.seek(stripe.getChunkOffset(columnId));
+        in.readFully(chunk);
+        readBytes += chunk.length;
+        readers[columnId] = new ColumnChunkReader(schema.getColumn(columnId).getDataType(), chunk);
+      }
+      remainRows = stripe.getRowNum();
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public Tuple next() throws IOException {
+    while (remainRows == 0) {
+      progress = stripes.isEmpty() ? 1.0f : (float) stripeIdx / stripes.size();
+      if (!nextStripe()) {
+        progress = 1.0f;
+        return null;
+      }
+    }
+    remainRows--;
+
+    Tuple tuple = new VTuple(columnNum);
+    for (int columnId : projectedIds) {
+      tuple.put(columnId, readers[columnId].next());
+    }
+    numRows++;
+    return tuple;
+  }
+
+  @Override
+  public void reset() throws IOException {
+    rewind();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (in != null) {
+      tableStats.setReadBytes(readBytes);
+      tableStats.setNumRows(numRows);
+      if (LOG.isDebugEnabled() && skippedStripeNum > 0) {
+        LOG.debug(skippedStripeNum + " of " + stripes.size() + " stripes are skipped in " + fragment);
+      }
+      IOUtils.cleanup(LOG, in);
+      in = null;
+    }
+    readers = null;
+  }
+
+  @Override
+  public boolean isProjectable() {
+    return true;
+  }
+
+  @Override
+  public boolean isSelectable() {
+    // the search condition is only used to skip stripes, so it must be evaluated again for each row.
+    return false;
+  }
+
+  @Override
+  public void setSearchCondition(Object expr) {
+    super.setSearchCondition(expr);
+    if (expr instanceof EvalNode) {
+      this.searchCondition = (EvalNode) expr;
+    }
+  }
+
+  @Override
+  public boolean isSplittable() {
+    return true;
+  }
+
+  /**
+   * @return The number of stripes skipped by the search condition so far
+   */
+  public int getSkippedStripeNum() {
+    return skippedStripeNum;
+  }
+}
@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage.cfile;
+
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.storage.cfile.CFile.Encoding;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * It decodes the values of a column chunk one by one. A value is decoded only when it is read, and
+ * a value of a run or a dictionary entry is decoded only once.
+ */
+public class ColumnChunkReader {
+  private final DataType dataType;
+  private final DataInputStream in;
+  private final Encoding encoding;
+
+  private final int [] presenceRuns;
+  private int presenceRunIdx = -1;
+  private int presenceRemain = 0;
+
+  private Datum [] dictionary;
+  private Datum runValue;
+  private int runRemain = 0;
+
+  public ColumnChunkReader(DataType dataType, byte [] chunk) throws IOException {
+    this(dataType, ByteBuffer.wrap(chunk));
+  }
+
+  /**
+   * Reads a column chunk in a byte buffer, which may be a direct buffer. The position of the buffer is not changed,
+   * so a buffer can be read by multiple readers at the same time.
+   */
+  public ColumnChunkReader(DataType dataType, ByteBuffer chunk) throws IOException {
+    this.dataType = dataType;
+    this.in = new DataInputStream(new ByteBufferInputStream(chunk.duplicate()));
+    this.encoding = Encoding.fromCode(in.readByte());
+
+    presenceRuns = new int[WritableUtils.readVInt(in)];
+    for (int i = 0; i < presenceRuns.length; i++) {
+      presenceRuns[i] = WritableUtils.readVInt(in);
+    }
+
+    if (encoding == Encoding.DICTIONARY) {
+      dictionary = new Datum[WritableUtils.readVInt(in)];
+      for (int i = 0; i < dictionary.length; i++) {
+        dictionary[i] = CFile.readDatum(in, dataType);
+      }
+    }
+    if (encoding != Encoding.PLAIN) {
+      WritableUtils.readVInt(in); // the number of runs
+    }
+  }
+
+  /**
+   * @return The value of the next row
+   */
+  public Datum next() throws IOException {
+    while (presenceRemain == 0) {
+      if (++presenceRunIdx >= presenceRuns.length) {
+        throw new IOException("No more values in the column chunk");
+      }
+      presenceRemain = presenceRuns[presenceRunIdx];
+    }
+    presenceRemain--;
+
+    // even runs are non-null rows, and odd runs are null rows
+    if (presenceRunIdx % 2 == 1) {
+      return NullDatum.get();
+    }
+
+    switch (encoding) {
+    case PLAIN:
+      return CFile.readDatum(in, dataType);
+
+    case RLE:
+      if (runRemain == 0) {
+        runRemain = WritableUtils.readVInt(in);
+        runValue = CFile.readDatum(in, dataType);
+      }
+      runRemain--;
+      return runValue;
+
+    case DICTIONARY:
+      if (runRemain == 0) {
+        runRemain = WritableUtils.readVInt(in);
+        runValue = dictionary[WritableUtils.readVInt(in)];
+      }
+      runRemain--;
+      return runValue;
+
+    default:
+      throw new IOException("Unknown CFile encoding: " + encoding);
+    }
+  }
+
+  private static class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte [] bytes, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int readLen = Math.min(len, buffer.remaining());
+      buffer.get(bytes, off, readLen);
+      return readLen;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+}
@@ -0,0 +1,227 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage.cfile;
+
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.storage.cfile.CFile.Encoding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * It buffers the values of a column in a stripe, and then encodes them into a column chunk.
+ *
+ * <pre>
+ *   encoding (byte)
+ *   presence runs: the number of runs, and then the lengths of runs which alternate non-null and null rows
+ *   non-null values encoded by the encoding
+ * </pre>
+ */
+public class ColumnChunkWriter {
+  private final DataType dataType;
+  private final int maxDictionarySize;
+  private ZoneMap zoneMap;
+
+  private final List<byte []> values = new ArrayList<byte[]>();
+  private int [] presenceRuns = new int[16];
+  private int presenceRunNum = 0;
+  private boolean lastNull = false;
+  private int valueRunNum = 0;
+  private long valueBytes = 0;
+
+  private Map<ByteBuffer, Integer> dictionary = new HashMap<ByteBuffer, Integer>();
+  private final List<byte []> dictionaryValues = new ArrayList<byte[]>();
+  private int [] ids = new int[16];
+  private long dictionaryBytes = 0;
+
+  public ColumnChunkWriter(DataType dataType, int maxDictionarySize) {
+    this.dataType = dataType;
+    this.zoneMap = new ZoneMap(dataType);
+    this.maxDictionarySize = maxDictionarySize;
+  }
+
+  public void add(Datum datum) {
+    zoneMap.update(datum);
+
+    boolean isNull = datum.isNull();
+    if (presenceRunNum == 0 && isNull) {
+      // runs always start with a run of non-null rows, which may be empty
+      addPresenceRun();
+    }
+    if (presenceRunNum == 0 || isNull != lastNull) {
+      addPresenceRun();
+      lastNull = isNull;
+    }
+    presenceRuns[presenceRunNum - 1]++;
+    if (isNull) {
+      return;
+    }
+
+    byte [] bytes = datum.asByteArray();
+    if (values.isEmpty() || !Arrays.equals(values.get(values.size() - 1), bytes)) {
+      valueRunNum++;
+    }
+    values.add(bytes);
+    valueBytes += bytes.length;
+
+    if (dictionary != null) {
+      Integer id = dictionary.get(ByteBuffer.wrap(bytes));
+      if (id == null) {
+        if (dictionary.size() >= maxDictionarySize) {
+          // too many distinct values to benefit from a dictionary
+          dictionary = null;
+          return;
+        }
+        id = dictionaryValues.size();
+        dictionary.put(ByteBuffer.wrap(bytes), id);
+        dictionaryValues.add(bytes);
+        dictionaryBytes += bytes.length;
+      }
+      if (ids.length == values.size() - 1) {
+        ids = Arrays.copyOf(ids, ids.length * 2);
+      }
+      ids[values.size() - 1] = id;
+    }
+  }
+
+  private void addPresenceRun() {
+    if (presenceRunNum == presenceRuns.length) {
+      presenceRuns = Arrays.copyOf(presenceRuns, presenceRuns.length * 2);
+    }
+    presenceRuns[presenceRunNum++] = 0;
+    lastNull = presenceRunNum % 2 == 0;
+  }
+
+  public ZoneMap getZoneMap() {
+    return zoneMap;
+  }
+
+  /**
+   * @return The approximate bytes of the buffered values
+   */
+  public long getBufferedBytes() {
+    return valueBytes + values.size() + presenceRunNum;
+  }
+
+  /**
+   * Chooses the encoding which is expected to produce the smallest chunk. Each length or run length is
+   * assumed to take about one byte of a variable-length integer.
+   */
+  Encoding chooseEncoding() {
+    long plainSize = valueBytes + values.size();
+    // the values of runs are as large as the values on average
+    long rleSize = values.isEmpty() ? 0 : valueRunNum * (2 + valueBytes / values.size());
+    long dictionarySize = dictionary == null ? Long.MAX_VALUE :
+        dictionaryBytes + dictionaryValues.size() + valueRunNum * (1 + idBytes(dictionaryValues.size()));
+
+    if (dictionarySize < rleSize && dictionarySize < plainSize) {
+      return Encoding.DICTIONARY;
+    } else if (rleSize < plainSize) {
+      return Encoding.RLE;
+    } else {
+      return Encoding.PLAIN;
+    }
+  }
+
+  private static int idBytes(int dictionarySize) {
+    return dictionarySize <= 0x7f ? 1 : (dictionarySize <= 0x3fff ? 2 : 3);
+  }
+
+  /**
+   * Encodes the buffered values into a column chunk.
+   */
+  public byte [] encode() throws IOException {
+    Encoding encoding = chooseEncoding();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE, getBufferedBytes()));
+    DataOutputStream out = new DataOutputStream(bytes);
+
+    out.writeByte(encoding.ordinal());
+    WritableUtils.writeVInt(out, presenceRunNum);
+    for (int i = 0; i < presenceRunNum; i++) {
+      WritableUtils.writeVInt(out, presenceRuns[i]);
+    }
+
+    switch (encoding) {
+    case PLAIN:
+      for (byte [] value : values) {
+        CFile.writeBytes(out, value);
+      }
+      break;
+
+    case RLE:
+      WritableUtils.writeVInt(out, valueRunNum);
+      for (int start = 0; start < values.size(); ) {
+        int end = start + 1;
+        while (end < values.size() && Arrays.equals(values.get(start), values.get(end))) {
+          end++;
+        }
+        WritableUtils.writeVInt(out, end - start);
+        CFile.writeBytes(out, values.get(start));
+        start = end;
+      }
+      break;
+
+    case DICTIONARY:
+      WritableUtils.writeVInt(out, dictionaryValues.size());
+      for (byte [] value : dictionaryValues) {
+        CFile.writeBytes(out, value);
+      }
+      WritableUtils.writeVInt(out, valueRunNum);
+      for (int start = 0; start < values.size(); ) {
+        int end = start + 1;
+        while (end < values.size() && ids[start] == ids[end]) {
+          end++;
+        }
+        WritableUtils.writeVInt(out, end - start);
+        WritableUtils.writeVInt(out, ids[start]);
+        start = end;
+      }
+      break;
+    }
+
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Clears the buffered values for the next stripe.
+   */
+  public void reset() {
+    // the zone map of the flushed stripe is kept by its StripeInfo
+    zoneMap = new ZoneMap(dataType);
+    values.clear();
+    presenceRunNum = 0;
+    lastNull = false;
+    valueRunNum = 0;
+    valueBytes = 0;
+    dictionary = new HashMap<ByteBuffer, Integer>();
+    dictionaryValues.clear();
+    dictionaryBytes = 0;
+  }
+}
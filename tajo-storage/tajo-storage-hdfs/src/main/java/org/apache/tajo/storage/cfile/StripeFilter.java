@@ -0,0 +1,192 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage.cfile;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.plan.expr.BinaryEval;
+import org.apache.tajo.plan.expr.ConstEval;
+import org.apache.tajo.plan.expr.EvalNode;
+import org.apache.tajo.plan.expr.EvalType;
+import org.apache.tajo.plan.expr.FieldEval;
+import org.apache.tajo.plan.expr.IsNullEval;
+
+/**
+ * It decides whether a stripe may contain rows satisfying a search condition by the zone maps of the stripe.
+ * A predicate which cannot be decided by zone maps is always regarded as satisfiable,
+ * so a skipped stripe never has a matched row.
+ */
+public class StripeFilter {
+  private final Schema schema;
+  private final EvalNode condition;
+
+  public StripeFilter(Schema schema, EvalNode condition) {
+    this.schema = schema;
+    this.condition = condition;
+  }
+
+  public boolean mightMatch(StripeInfo stripe) {
+    return mightMatch(condition, stripe);
+  }
+
+  private boolean mightMatch(EvalNode eval, StripeInfo stripe) {
+    switch (eval.getType()) {
+    case AND:
+      return mightMatch(((BinaryEval) eval).getLeftExpr(), stripe) &&
+          mightMatch(((BinaryEval) eval).getRightExpr(), stripe);
+    case OR:
+      return mightMatch(((BinaryEval) eval).getLeftExpr(), stripe) ||
+          mightMatch(((BinaryEval) eval).getRightExpr(), stripe);
+    case IS_NULL:
+      return mightMatchIsNull((IsNullEval) eval, stripe);
+    case EQUAL:
+    case NOT_EQUAL:
+    case LTH:
+    case LEQ:
+    case GTH:
+    case GEQ:
+      return mightMatchComparison((BinaryEval) eval, stripe);
+    default:
+      return true;
+    }
+  }
+
+  private boolean mightMatchIsNull(IsNullEval eval, StripeInfo stripe) {
+    int columnId = findColumnId(eval.getChild(0));
+    if (columnId < 0) {
+      return true;
+    }
+    long nullCount = stripe.getZoneMap(columnId).getNullCount();
+    return eval.isNot() ? nullCount < stripe.getRowNum() : nullCount > 0;
+  }
+
+  private boolean mightMatchComparison(BinaryEval eval, StripeInfo stripe) {
+    EvalType type = eval.getType();
+    EvalNode left = eval.getLeftExpr();
+    EvalNode right = eval.getRightExpr();
+
+    // normalize the predicate into 'column op constant'
+    if (left.getType() == EvalType.CONST && right.getType() == EvalType.FIELD) {
+      EvalNode tmp = left;
+      left = right;
+      right = tmp;
+      type = commute(type);
+    }
+    if (left.getType() != EvalType.FIELD || right.getType() != EvalType.CONST) {
+      return true;
+    }
+
+    int columnId = findColumnId(left);
+    if (columnId < 0) {
+      return true;
+    }
+    ZoneMap zoneMap = stripe.getZoneMap(columnId);
+    if (zoneMap.getNullCount() == stripe.getRowNum()) {
+      // a comparison with null is never true
+      return false;
+    }
+
+    Datum value = ((ConstEval) right).getValue();
+    if (!zoneMap.hasMinMax() || value.isNull() || !isComparable(zoneMap.getMin().type(), value.type())) {
+      return true;
+    }
+
+    int minCmp = compare(zoneMap.getMin(), value);
+    int maxCmp = compare(zoneMap.getMax(), value);
+    switch (type) {
+    case EQUAL:
+      return minCmp <= 0 && maxCmp >= 0;
+    case NOT_EQUAL:
+      return !(minCmp == 0 && maxCmp == 0);
+    case LTH:
+      return minCmp < 0;
+    case LEQ:
+      return minCmp <= 0;
+    case GTH:
+      return maxCmp > 0;
+    case GEQ:
+      return maxCmp >= 0;
+    default:
+      return true;
+    }
+  }
+
+  private static EvalType commute(EvalType type) {
+    switch (type) {
+    case LTH:
+      return EvalType.GTH;
+    case LEQ:
+      return EvalType.GEQ;
+    case GTH:
+      return EvalType.LTH;
+    case GEQ:
+      return EvalType.LEQ;
+    default:
+      return type;
+    }
+  }
+
+  private int findColumnId(EvalNode eval) {
+    if (eval.getType() != EvalType.FIELD) {
+      return -1;
+    }
+    Column column = ((FieldEval) eval).getColumnRef();
+    int columnId = -1;
+    if (column.hasQualifier()) {
+      columnId = schema.getColumnId(column.getQualifiedName());
+    }
+    // a scan reads only one table, so a simple name is enough to find a column even if the table has an alias.
+    return columnId < 0 ? schema.getColumnIdByName(column.getSimpleName()) : columnId;
+  }
+
+  private static boolean isNumeric(Type type) {
+    switch (type) {
+    case INT2:
+    case INT4:
+    case INT8:
+    case FLOAT4:
+    case FLOAT8:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  private static boolean isIntegral(Type type) {
+    return type == Type.INT2 || type == Type.INT4 || type == Type.INT8;
+  }
+
+  private static boolean isComparable(Type columnType, Type valueType) {
+    return columnType == valueType || (isNumeric(columnType) && isNumeric(valueType));
+  }
+
+  private static int compare(Datum datum, Datum value) {
+    if (datum.type() == value.type()) {
+      return datum.compareTo(value);
+    } else if (isIntegral(datum.type()) && isIntegral(value.type())) {
+      long l = datum.asInt8(), r = value.asInt8();
+      return l < r ? -1 : (l > r ? 1 : 0);
+    } else {
+      return Double.compare(datum.asFloat8(), value.asFloat8());
+    }
+  }
+}
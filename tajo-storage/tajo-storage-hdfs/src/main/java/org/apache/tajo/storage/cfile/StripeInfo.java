@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage.cfile;
+
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.tajo.catalog.Schema;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The location and the zone maps of the column chunks in a stripe. It is stored in the footer of a file.
+ */
+public class StripeInfo {
+  private final long offset;
+  private final int rowNum;
+  private final long [] chunkOffsets;
+  private final int [] chunkLengths;
+  private final ZoneMap [] zoneMaps;
+
+  public StripeInfo(long offset, int rowNum, long [] chunkOffsets, int [] chunkLengths, ZoneMap [] zoneMaps) {
+    this.offset = offset;
+    this.rowNum = rowNum;
+    this.chunkOffsets = chunkOffsets;
+    this.chunkLengths = chunkLengths;
+    this.zoneMaps = zoneMaps;
+  }
+
+  /**
+   * @return The file offset where this stripe starts. A stripe belongs to the fragment which contains it.
+   */
+  public long getOffset() {
+    return offset;
+  }
+
+  public int getRowNum() {
+    return rowNum;
+  }
+
+  public long getChunkOffset(int columnId) {
+    return chunkOffsets[columnId];
+  }
+
+  public int getChunkLength(int columnId) {
+    return chunkLengths[columnId];
+  }
+
+  public ZoneMap getZoneMap(int columnId) {
+    return zoneMaps[columnId];
+  }
+
+  public void write(DataOutput out) throws IOException {
+    WritableUtils.writeVLong(out, offset);
+    WritableUtils.writeVInt(out, rowNum);
+    for (int i = 0; i < zoneMaps.length; i++) {
+      WritableUtils.writeVLong(out, chunkOffsets[i]);
+      WritableUtils.writeVInt(out, chunkLengths[i]);
+      zoneMaps[i].write(out);
+    }
+  }
+
+  public static StripeInfo read(DataInput in, Schema schema) throws IOException {
+    long offset = WritableUtils.readVLong(in);
+    int rowNum = WritableUtils.readVInt(in);
+    int columnNum = schema.size();
+    long [] chunkOffsets = new long[columnNum];
+    int [] chunkLengths = new int[columnNum];
+    ZoneMap [] zoneMaps = new ZoneMap[columnNum];
+    for (int i = 0; i < columnNum; i++) {
+      chunkOffsets[i] = WritableUtils.readVLong(in);
+      chunkLengths[i] = WritableUtils.readVInt(in);
+      zoneMaps[i] = ZoneMap.read(in, schema.getColumn(i).getDataType());
+    }
+    return new StripeInfo(offset, rowNum, chunkOffsets, chunkLengths, zoneMaps);
+  }
+}
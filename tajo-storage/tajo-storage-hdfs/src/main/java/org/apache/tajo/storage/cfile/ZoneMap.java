@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage.cfile;
+
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.datum.Datum;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The statistics of a column chunk. The min/max values are kept only for range comparable types.
+ */
+public class ZoneMap {
+  private final DataType dataType;
+  private final boolean rangeComparable;
+  private long nullCount = 0;
+  private Datum min;
+  private Datum max;
+
+  public ZoneMap(DataType dataType) {
+    this.dataType = dataType;
+    this.rangeComparable = CFile.isRangeComparable(dataType.getType());
+  }
+
+  public void update(Datum datum) {
+    if (datum.isNull()) {
+      nullCount++;
+    } else if (rangeComparable) {
+      if (min == null || datum.compareTo(min) < 0) {
+        min = datum;
+      }
+      if (max == null || datum.compareTo(max) > 0) {
+        max = datum;
+      }
+    }
+  }
+
+  public void reset() {
+    nullCount = 0;
+    min = null;
+    max = null;
+  }
+
+  public DataType getDataType() {
+    return dataType;
+  }
+
+  public long getNullCount() {
+    return nullCount;
+  }
+
+  /**
+   * @return True if the min/max values are available.
+   */
+  public boolean hasMinMax() {
+    return min != null;
+  }
+
+  public Datum getMin() {
+    return min;
+  }
+
+  public Datum getMax() {
+    return max;
+  }
+
+  public void write(DataOutput out) throws IOException {
+    WritableUtils.writeVLong(out, nullCount);
+    out.writeBoolean(hasMinMax());
+    if (hasMinMax()) {
+      CFile.writeBytes(out, min.asByteArray());
+      CFile.writeBytes(out, max.asByteArray());
+    }
+  }
+
+  public static ZoneMap read(DataInput in, DataType dataType) throws IOException {
+    ZoneMap zoneMap = new ZoneMap(dataType);
+    zoneMap.nullCount = WritableUtils.readVLong(in);
+    if (in.readBoolean()) {
+      zoneMap.min = CFile.readDatum(in, dataType);
+      zoneMap.max = CFile.readDatum(in, dataType);
+    }
+    return zoneMap;
+  }
+
+  @Override
+  public String toString() {
+    return "nulls=" + nullCount + (hasMinMax() ? ", min=" + min + ", max=" + max : "");
+  }
+}
@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage.fragment;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.apache.tajo.storage.StorageFragmentProtos.CombinedFileFragmentProto;
+import org.apache.tajo.storage.StorageFragmentProtos.FileFragmentProto;
+import org.apache.tajo.util.TUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.tajo.catalog.proto.CatalogProtos.FragmentProto;
+
+/**
+ * A fragment which packs several small file fragments of a table into a single task.
+ * The packed fragments are located in the same host and disk, so the combined fragment keeps their locality.
+ *
+ * A task reads the packed fragments one by one. When a task is built, a combined fragment is unpacked into
+ * its file fragments, and a scan reads them sequentially with a MergeScanner.
+ */
+public class CombinedFileFragment implements Fragment {
+  public static final String STORE_TYPE = "COMBINED";
+
+  private final String tableName;
+  private final List<FileFragment> fragments;
+  private final String [] hosts;
+  private final int [] diskIds;
+  private final long length;
+
+  public CombinedFileFragment(ByteString raw) throws InvalidProtocolBufferException {
+    this(CombinedFileFragmentProto.parseFrom(raw));
+  }
+
+  public CombinedFileFragment(CombinedFileFragmentProto proto) {
+    this.tableName = proto.getId();
+    this.fragments = new ArrayList<FileFragment>(proto.getFragmentsCount());
+    for (FileFragmentProto eachProto : proto.getFragmentsList()) {
+      fragments.add(new FileFragment(eachProto));
+    }
+    this.hosts = proto.getHostsList().toArray(new String[proto.getHostsCount()]);
+    this.diskIds = new int[proto.getDiskIdsCount()];
+    for (int i = 0; i < diskIds.length; i++) {
+      diskIds[i] = proto.getDiskIds(i);
+    }
+    this.length = sumLength(fragments);
+  }
+
+  /**
+   * @param fragments The file fragments of the same table
+   * @param hosts The hosts which have all of the fragments
+   * @param diskIds The disk id of each host. Unknown disk is -1.
+   */
+  public CombinedFileFragment(String tableName, List<FileFragment> fragments, String [] hosts, int [] diskIds) {
+    Preconditions.checkArgument(!fragments.isEmpty(), "A combined fragment requires at least one fragment");
+    Preconditions.checkArgument(hosts.length == diskIds.length, "Each host must have a disk id");
+    this.tableName = tableName;
+    this.fragments = new ArrayList<FileFragment>(fragments);
+    this.hosts = hosts;
+    this.diskIds = diskIds;
+    this.length = sumLength(fragments);
+  }
+
+  private static long sumLength(List<FileFragment> fragments) {
+    long sum = 0;
+    for (FileFragment fragment : fragments) {
+      sum += fragment.getLength();
+    }
+    return sum;
+  }
+
+  public List<FileFragment> getFragments() {
+    return Collections.unmodifiableList(fragments);
+  }
+
+  @Override
+  public String getTableName() {
+    return tableName;
+  }
+
+  @Override
+  public long getLength() {
+    return length;
+  }
+
+  @Override
+  public String getKey() {
+    StringBuilder sb = new StringBuilder();
+    for (FileFragment fragment : fragments) {
+      sb.append(fragment.getKey());
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public String [] getHosts() {
+    return hosts;
+  }
+
+  /**
+   * Get the list of Disk Ids
+   * Unknown disk is -1. Others 0 ~ N
+   */
+  public int [] getDiskIds() {
+    return diskIds;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return length <= 0;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof CombinedFileFragment) {
+      CombinedFileFragment other = (CombinedFileFragment) o;
+      return tableName.equals(other.tableName) && fragments.equals(other.fragments);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(tableName, fragments);
+  }
+
+  @Override
+  public String toString() {
+    return "\"fragment\": {\"id\": \"" + tableName + "\", \"combined\": " + fragments.size()
+        + ", \"length\": " + length + "}";
+  }
+
+  @Override
+  public FragmentProto getProto() {
+    CombinedFileFragmentProto.Builder builder = CombinedFileFragmentProto.newBuilder();
+    builder.setId(tableName);
+    for (FileFragment fragment : fragments) {
+      builder.addFragments(fragment.getFileFragmentProto());
+    }
+    builder.addAllHosts(TUtil.newList(hosts));
+    for (int diskId : diskIds) {
+      builder.addDiskIds(diskId);
+    }
+
+    FragmentProto.Builder fragmentBuilder = FragmentProto.newBuilder();
+    fragmentBuilder.setId(tableName);
+    fragmentBuilder.setStoreType(STORE_TYPE);
+    fragmentBuilder.setContents(builder.build().toByteString());
+    return fragmentBuilder.build();
+  }
+}
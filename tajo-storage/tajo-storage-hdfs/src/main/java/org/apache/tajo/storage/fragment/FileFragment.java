@@ -211,7 +211,7 @@ public class FileFragment implements Fragment, Comparable<FileFragment>, Cloneab
         + getLength() + "}" ;
   }
 
-  public FragmentProto getProto() {
+  public FileFragmentProto getFileFragmentProto() {
     FileFragmentProto.Builder builder = FileFragmentProto.newBuilder();
     builder.setId(this.tableName);
     builder.setStartOffset(this.startOffset);
@@ -228,11 +228,14 @@ public class FileFragment implements Fragment, Comparable<FileFragment>, Cloneab
     if(hosts != null) {
       builder.addAllHosts(TUtil.newList(hosts));
     }
+    return builder.buildPartial();
+  }
 
+  public FragmentProto getProto() {
     FragmentProto.Builder fragmentBuilder = FragmentProto.newBuilder();
     fragmentBuilder.setId(this.tableName);
     fragmentBuilder.setStoreType(CatalogUtil.getStoreTypeString(StoreType.CSV));
-    fragmentBuilder.setContents(builder.buildPartial().toByteString());
+    fragmentBuilder.setContents(getFileFragmentProto().toByteString());
     return fragmentBuilder.build();
   }
 }
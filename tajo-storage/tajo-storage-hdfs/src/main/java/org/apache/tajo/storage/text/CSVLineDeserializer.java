@@ -62,7 +62,7 @@ public class CSVLineDeserializer extends TextLineDeserializer {
     int currentIndex = 0;
 
     while (end != -1) {
-      end = lineBuf.forEachByte(start, rowLength - start, processor);
+      end = processor.findDelimiter(lineBuf, start, rowLength);
 
       if (end < 0) {
         fieldLength = rowLength - start;
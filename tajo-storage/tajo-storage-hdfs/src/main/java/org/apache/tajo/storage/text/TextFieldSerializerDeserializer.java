@@ -32,6 +32,7 @@ import org.apache.tajo.datum.protobuf.ProtobufJsonFormat;
 import org.apache.tajo.storage.FieldSerializerDeserializer;
 import org.apache.tajo.storage.StorageConstants;
 import org.apache.tajo.util.NumberUtil;
+import org.apache.tajo.util.datetime.DateTimeUtil;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -163,12 +164,10 @@ public class TextFieldSerializerDeserializer implements FieldSerializerDeseriali
           datum = DatumFactory.createBool(bool == 't' || bool == 'T');
           break;
         case BIT:
-          datum = DatumFactory.createBit(Byte.parseByte(
-              decoder.decode(buf.nioBuffer(buf.readerIndex(), buf.readableBytes())).toString()));
+          datum = DatumFactory.createBit(parseByte(buf));
           break;
         case CHAR:
-          datum = DatumFactory.createChar(
-              decoder.decode(buf.nioBuffer(buf.readerIndex(), buf.readableBytes())).toString().trim());
+          datum = DatumFactory.createChar(trimmedBytes(buf));
           break;
         case INT1:
         case INT2:
@@ -181,8 +180,7 @@ public class TextFieldSerializerDeserializer implements FieldSerializerDeseriali
           datum = DatumFactory.createInt8(NumberUtil.parseLong(buf));
           break;
         case FLOAT4:
-          datum = DatumFactory.createFloat4(
-              decoder.decode(buf.nioBuffer(buf.readerIndex(), buf.readableBytes())).toString());
+          datum = DatumFactory.createFloat4(NumberUtil.parseFloat(buf));
           break;
         case FLOAT8:
           datum = DatumFactory.createFloat8(NumberUtil.parseDouble(buf));
@@ -194,8 +192,7 @@ public class TextFieldSerializerDeserializer implements FieldSerializerDeseriali
           break;
         }
         case DATE:
-          datum = DatumFactory.createDate(
-              decoder.decode(buf.nioBuffer(buf.readerIndex(), buf.readableBytes())).toString());
+          datum = DatumFactory.createDate(parseDate(buf));
           break;
         case TIME:
           if (hasTimezone) {
@@ -250,4 +247,63 @@ public class TextFieldSerializerDeserializer implements FieldSerializerDeseriali
     }
     return datum;
   }
+
+  /**
+   * @return The bytes of a field without the leading and trailing whitespaces, including the zero bytes which
+   * pad a CHAR value. It is the same as {@link String#trim()} because all trimmed characters are ASCII.
+   */
+  private static byte[] trimmedBytes(ByteBuf buf) {
+    int start = buf.readerIndex();
+    int end = buf.writerIndex();
+    while (start < end && (buf.getByte(start) & 0xFF) <= ' ') {
+      start++;
+    }
+    while (end > start && (buf.getByte(end - 1) & 0xFF) <= ' ') {
+      end--;
+    }
+    byte[] bytes = new byte[end - start];
+    buf.getBytes(start, bytes);
+    return bytes;
+  }
+
+  private static byte parseByte(ByteBuf buf) {
+    int value = NumberUtil.parseInt(buf);
+    if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+      throw new NumberFormatException("Value out of range. Value:\"" + buf.toString(CharsetUtil.UTF_8) + "\"");
+    }
+    return (byte) value;
+  }
+
+  /**
+   * Parses a date into a julian date. A valid date in the form of 'yyyy-MM-dd' is parsed without creating a string,
+   * and the others are parsed by {@link DateTimeUtil#toJulianDate(String)}.
+   */
+  private int parseDate(ByteBuf buf) throws IOException {
+    int start = buf.readerIndex();
+    if (buf.readableBytes() == 10 && buf.getByte(start + 4) == '-' && buf.getByte(start + 7) == '-') {
+      int year = parseDigits(buf, start, 4);
+      int month = parseDigits(buf, start + 5, 2);
+      int day = parseDigits(buf, start + 8, 2);
+      // an invalid date, such as '2015-02-30', is reported by the slow path.
+      if (year >= 1 && month >= 1 && month <= 12 && day >= 1 && day <= DateTimeUtil.getDaysInYearMonth(year, month)) {
+        return DateTimeUtil.date2j(year, month, day);
+      }
+    }
+    return DateTimeUtil.toJulianDate(decoder.decode(buf.nioBuffer(start, buf.readableBytes())).toString());
+  }
+
+  /**
+   * @return The number of the digits, or -1 if there is a non-digit character.
+   */
+  private static int parseDigits(ByteBuf buf, int start, int length) {
+    int value = 0;
+    for (int i = start; i < start + length; i++) {
+      int digit = buf.getByte(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
 }
@@ -21,16 +21,16 @@ package org.apache.tajo;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.net.NetUtils;
-import org.jboss.netty.bootstrap.ServerBootstrap;
-import org.jboss.netty.channel.Channel;
-import org.jboss.netty.channel.ChannelFactory;
-import org.jboss.netty.channel.group.ChannelGroup;
-import org.jboss.netty.channel.group.ChannelGroupFuture;
-import org.jboss.netty.channel.group.DefaultChannelGroup;
-import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.ChannelGroupFuture;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.concurrent.GlobalEventExecutor;
 
 import java.net.InetSocketAddress;
-import java.util.concurrent.Executors;
 
 public class HttpFileServer {
   private final static Log LOG = LogFactory.getLog(HttpFileServer.class);
@@ -38,20 +38,18 @@ public class HttpFileServer {
   private final InetSocketAddress addr;
   private InetSocketAddress bindAddr;
   private ServerBootstrap bootstrap = null;
-  private ChannelFactory factory = null;
   private ChannelGroup channelGroup = null;
 
   public HttpFileServer(final InetSocketAddress addr) {
     this.addr = addr;
-    this.factory = new NioServerSocketChannelFactory(
-        Executors.newCachedThreadPool(), Executors.newCachedThreadPool(),
-        2);
 
     // Configure the server.
-    this.bootstrap = new ServerBootstrap(factory);
+    this.bootstrap = new ServerBootstrap()
+        .group(new NioEventLoopGroup(1), new NioEventLoopGroup(2))
+        .channel(NioServerSocketChannel.class);
     // Set up the event pipeline factory.
-    this.bootstrap.setPipelineFactory(new HttpFileServerPipelineFactory());
-    this.channelGroup = new DefaultChannelGroup();
+    this.bootstrap.childHandler(new HttpFileServerPipelineFactory());
+    this.channelGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
   }
 
   public HttpFileServer(String bindaddr) {
@@ -60,9 +58,9 @@ public class HttpFileServer {
 
   public void start() {
     // Bind and start to accept incoming connections.
-    Channel channel = bootstrap.bind(addr);
-    channelGroup.add(channel);    
-    this.bindAddr = (InetSocketAddress) channel.getLocalAddress();
+    Channel channel = bootstrap.bind(addr).syncUninterruptibly().channel();
+    channelGroup.add(channel);
+    this.bindAddr = (InetSocketAddress) channel.localAddress();
     LOG.info("HttpFileServer starts up ("
         + this.bindAddr.getAddress().getHostAddress() + ":" + this.bindAddr.getPort()
         + ")");
@@ -75,7 +73,8 @@ public class HttpFileServer {
   public void stop() {
     ChannelGroupFuture future = channelGroup.close();
     future.awaitUninterruptibly();
-    factory.releaseExternalResources();
+    bootstrap.group().shutdownGracefully();
+    bootstrap.childGroup().shutdownGracefully();
 
     LOG.info("HttpFileServer shutdown ("
         + this.bindAddr.getAddress().getHostAddress() + ":"
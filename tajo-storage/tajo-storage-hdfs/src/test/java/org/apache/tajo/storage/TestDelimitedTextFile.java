@@ -31,7 +31,9 @@ import org.apache.tajo.common.TajoDataTypes.Type;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.datum.Datum;
 import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
 import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.util.CommonTestingUtil;
 import org.apache.tajo.util.FileUtil;
 import org.junit.Test;
 
@@ -177,4 +179,56 @@ public class TestDelimitedTextFile {
       scanner.close();
     }
   }
+
+  @Test
+  public void testCharBitBlob() throws IOException {
+    TajoConf conf = new TajoConf();
+    Schema schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    schema.addColumn("code", Type.CHAR, 5);
+    schema.addColumn("flag", Type.BIT);
+    schema.addColumn("data", Type.BLOB);
+
+    TableMeta meta = CatalogUtil.newTableMeta(CatalogProtos.StoreType.TEXTFILE);
+    Path testDir = CommonTestingUtil.getTestDir("target/test-data/TestDelimitedTextFile");
+    Path tablePath = new Path(testDir, "testCharBitBlob.data");
+    FileStorageManager sm = (FileStorageManager) StorageManager.getFileStorageManager(conf);
+    Appender appender = sm.getAppender(meta, schema, tablePath);
+    appender.init();
+
+    int tupleNum = 100;
+    for (int i = 0; i < tupleNum; i++) {
+      appender.addTuple(createCharBitBlobTuple(i));
+    }
+    appender.close();
+
+    FileStatus status = tablePath.getFileSystem(conf).getFileStatus(tablePath);
+    FileFragment fragment = new FileFragment("table", tablePath, 0, status.getLen());
+    Scanner scanner = sm.getScanner(meta, schema, fragment);
+    scanner.init();
+
+    Tuple tuple;
+    int i = 0;
+    while ((tuple = scanner.next()) != null) {
+      Tuple expected = createCharBitBlobTuple(i);
+      for (int j = 0; j < expected.size(); j++) {
+        assertEquals(expected.get(j), tuple.get(j));
+      }
+      i++;
+    }
+    scanner.close();
+    assertEquals(tupleNum, i);
+  }
+
+  /**
+   * A CHAR value shorter than its length is padded when it is written. Each column is null in some tuples.
+   */
+  private static Tuple createCharBitBlobTuple(int i) {
+    Tuple tuple = new VTuple(4);
+    tuple.put(0, DatumFactory.createInt4(i));
+    tuple.put(1, i % 10 == 1 ? NullDatum.get() : DatumFactory.createChar("c" + (i % 7)));
+    tuple.put(2, i % 10 == 2 ? NullDatum.get() : DatumFactory.createBit((byte) (i * 5 - 128)));
+    tuple.put(3, i % 10 == 3 ? NullDatum.get() : DatumFactory.createBlob(("blob_" + i).getBytes()));
+    return tuple;
+  }
 }
@@ -20,6 +20,7 @@ package org.apache.tajo.storage;
 
 import com.google.common.collect.Lists;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hdfs.*;
@@ -31,8 +32,10 @@ import org.apache.tajo.common.TajoDataTypes.Type;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.datum.Datum;
 import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.storage.fragment.CombinedFileFragment;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.storage.fragment.Fragment;
+import org.apache.tajo.storage.fragment.FragmentConvertor;
 import org.apache.tajo.util.CommonTestingUtil;
 import org.junit.After;
 import org.junit.Before;
@@ -155,6 +158,77 @@ public class TestFileStorageManager {
     }
   }
 
+  @Test
+  public void testGetSplitWithFileStatusCache() throws Exception {
+    final Configuration conf = new HdfsConfiguration();
+    String testDataPath = TEST_PATH + "/" + UUID.randomUUID().toString();
+    conf.set(MiniDFSCluster.HDFS_MINIDFS_BASEDIR, testDataPath);
+    conf.setLong(DFSConfigKeys.DFS_NAMENODE_MIN_BLOCK_SIZE_KEY, 0);
+    conf.setBoolean(DFSConfigKeys.DFS_HDFS_BLOCKS_METADATA_ENABLED, false);
+
+    final MiniDFSCluster cluster = new MiniDFSCluster.Builder(conf)
+        .numDataNodes(1).build();
+
+    int testCount = 10;
+    Path tablePath = new Path("/testGetSplitWithFileStatusCache");
+    try {
+      DistributedFileSystem fs = cluster.getFileSystem();
+
+      List<Path> partitions = Lists.newArrayList();
+      for (int i = 0; i < testCount; i++) {
+        Path partition = new Path(tablePath, String.valueOf(i));
+        DFSTestUtil.createFile(fs, new Path(partition, "tmpfile.dat"), 10, (short) 1, 0xDEADDEADl);
+        partitions.add(partition);
+      }
+      FileStorageManager sm = (FileStorageManager)StorageManager.getFileStorageManager(new TajoConf(conf), tablePath);
+
+      Schema schema = new Schema();
+      schema.addColumn("id", Type.INT4);
+      schema.addColumn("name", Type.TEXT);
+      TableMeta meta = CatalogUtil.newTableMeta(StoreType.CSV);
+      Path [] inputs = partitions.toArray(new Path[partitions.size()]);
+
+      List<Fragment> first = sm.getSplits("data", meta, schema, inputs);
+      long hitNum = sm.getFileStatusCache().getHitNum();
+      List<Fragment> second = sm.getSplits("data", meta, schema, inputs);
+
+      // every block location is served from the cache in the second time
+      assertEquals(hitNum + testCount, sm.getFileStatusCache().getHitNum());
+      assertEquals(testCount, second.size());
+      for (int i = 0; i < testCount; i++) {
+        // splits keep the order of inputs
+        assertEquals(((FileFragment)first.get(i)).getPath(), ((FileFragment)second.get(i)).getPath());
+        assertEquals(partitions.get(i).toString(),
+            ((FileFragment)second.get(i)).getPath().getParent().toUri().getPath());
+      }
+
+      // a new file is found
+      DFSTestUtil.createFile(fs, new Path(partitions.get(0), "tmpfile2.dat"), 10, (short) 1, 0xDEADDEADl);
+      assertEquals(testCount + 1, sm.getSplits("data", meta, schema, inputs).size());
+
+      // an appended file is read to its new length, although its directory is not modified
+      Path appended = new Path(partitions.get(1), "tmpfile.dat");
+      long dirModificationTime = fs.getFileStatus(partitions.get(1)).getModificationTime();
+      FSDataOutputStream out = fs.append(appended);
+      out.write(new byte[10]);
+      out.close();
+      assertEquals(dirModificationTime, fs.getFileStatus(partitions.get(1)).getModificationTime());
+      long length = 0;
+      for (Fragment fragment : sm.getSplits("data", meta, schema, inputs)) {
+        if (((FileFragment) fragment).getPath().equals(fs.makeQualified(appended))) {
+          length += ((FileFragment) fragment).getLength();
+        }
+      }
+      assertEquals(20, length);
+      fs.close();
+    } finally {
+      cluster.shutdown();
+
+      File dir = new File(testDataPath);
+      dir.delete();
+    }
+  }
+
   @Test
   public void testGetSplitWithBlockStorageLocationsBatching() throws Exception {
     final Configuration conf = new HdfsConfiguration();
@@ -200,4 +274,49 @@ public class TestFileStorageManager {
       dir.delete();
     }
   }
+
+  @Test
+  public void testCombineSplits() throws Exception {
+    List<Fragment> splits = Lists.newArrayList();
+    // a large file in host1
+    splits.add(new FileFragment("data", new Path("/table/large.dat"), 0, 100, new String[] {"host1"}, new int[] {0}));
+    // small files in two hosts
+    for (int i = 0; i < 10; i++) {
+      String host = i % 2 == 0 ? "host1" : "host2";
+      splits.add(new FileFragment("data", new Path("/table/small" + i + ".dat"), 0, 10, new String[] {host},
+          new int[] {0}));
+    }
+    // a small file in other directory
+    splits.add(new FileFragment("data", new Path("/table/part=1/small.dat"), 0, 10, new String[] {"host1"},
+        new int[] {0}));
+
+    List<Fragment> combined = FileStorageManager.combineSplits(splits, 30);
+    // large.dat, [small0, small2, small4], [small6, small8], [small1, small3, small5], [small7, small9], part=1
+    assertEquals(6, combined.size());
+    assertEquals(splits.get(0), combined.get(0));
+
+    long totalLength = 0;
+    for (Fragment fragment : combined) {
+      totalLength += fragment.getLength();
+    }
+    assertEquals(100 + 11 * 10, totalLength);
+
+    CombinedFileFragment first = (CombinedFileFragment) combined.get(1);
+    assertEquals(3, first.getFragments().size());
+    assertEquals(30, first.getLength());
+    assertArrayEquals(new String[] {"host1"}, first.getHosts());
+    for (FileFragment fragment : first.getFragments()) {
+      assertEquals("host1", fragment.getHosts()[0]);
+    }
+    assertEquals("host2", combined.get(3).getHosts()[0]);
+    assertTrue(combined.get(5) instanceof FileFragment);
+
+    // a combined fragment is converted via its proto
+    CombinedFileFragment converted = FragmentConvertor.convert(conf, first.getProto());
+    assertEquals(first, converted);
+    assertArrayEquals(first.getDiskIds(), converted.getDiskIds());
+
+    // disabled
+    assertEquals(splits.size(), FileStorageManager.combineSplits(splits, 0).size());
+  }
 }
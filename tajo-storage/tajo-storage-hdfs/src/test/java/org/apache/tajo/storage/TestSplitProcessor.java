@@ -26,6 +26,7 @@ import org.apache.tajo.storage.text.LineSplitProcessor;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.ByteOrder;
 
 import static io.netty.util.ReferenceCountUtil.releaseLater;
 import static org.junit.Assert.assertEquals;
@@ -48,6 +49,25 @@ public class TestSplitProcessor {
 
   }
 
+  @Test
+  public void testFindDelimiter() throws IOException {
+    String data = "a|bcdefghijkl||m|nopqrstuvwxyz0123|";
+    final ByteBuf buf = releaseLater(
+        Unpooled.copiedBuffer(data, CharsetUtil.ISO_8859_1));
+
+    final int len = buf.readableBytes();
+    FieldSplitProcessor processor = new FieldSplitProcessor('|');
+
+    for (int start = 0; start < len; start++) {
+      for (int end = start; end <= len; end++) {
+        assertEquals(buf.forEachByte(start, end - start, processor), processor.findDelimiter(buf, start, end));
+        assertEquals(buf.forEachByte(start, end - start, processor),
+            processor.findDelimiter(buf.order(ByteOrder.LITTLE_ENDIAN), start, end));
+      }
+    }
+    assertEquals(-1, new FieldSplitProcessor('x').findDelimiter(buf, 0, len));
+  }
+
   @Test
   public void testLineSplitProcessor() throws IOException {
     String data = "abc\r\n\n";
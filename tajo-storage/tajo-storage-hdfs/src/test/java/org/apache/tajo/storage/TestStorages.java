@@ -143,6 +143,7 @@ public class TestStorages {
         {StoreType.AVRO, false, false, false},
         {StoreType.TEXTFILE, true, true, false},
         {StoreType.JSON, true, true, false},
+        {StoreType.CFILE, true, true, false},
     });
   }
 
@@ -301,7 +302,8 @@ public class TestStorages {
           || storeType == StoreType.CSV
           || storeType == StoreType.PARQUET
           || storeType == StoreType.SEQUENCEFILE
-          || storeType == StoreType.AVRO) {
+          || storeType == StoreType.AVRO
+          || storeType == StoreType.CFILE) {
         assertTrue(tuple.get(0) == null);
       }
       assertTrue(tupleCnt + 2 == tuple.get(1).asInt8());
@@ -773,7 +775,7 @@ public class TestStorages {
 
   @Test
   public void testTime() throws IOException {
-    if (storeType == StoreType.CSV || storeType == StoreType.RAW) {
+    if (storeType == StoreType.CSV || storeType == StoreType.RAW || storeType == StoreType.CFILE) {
       Schema schema = new Schema();
       schema.addColumn("col1", Type.DATE);
       schema.addColumn("col2", Type.TIME);
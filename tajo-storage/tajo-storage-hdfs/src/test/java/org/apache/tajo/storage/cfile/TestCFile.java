@@ -0,0 +1,262 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage.cfile;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.plan.expr.BinaryEval;
+import org.apache.tajo.plan.expr.ConstEval;
+import org.apache.tajo.plan.expr.EvalNode;
+import org.apache.tajo.plan.expr.EvalType;
+import org.apache.tajo.plan.expr.FieldEval;
+import org.apache.tajo.plan.expr.IsNullEval;
+import org.apache.tajo.storage.Appender;
+import org.apache.tajo.storage.FileStorageManager;
+import org.apache.tajo.storage.StorageConstants;
+import org.apache.tajo.storage.StorageManager;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class TestCFile {
+  private static final String TEST_PATH = "target/test-data/TestCFile";
+  private static final int ROW_NUM = 1000;
+  private static final int STRIPE_ROWS = 100;
+
+  private TajoConf conf;
+  private Path testDir;
+  private Schema schema;
+  private TableMeta meta;
+
+  @Before
+  public void setUp() throws Exception {
+    conf = new TajoConf();
+    testDir = CommonTestingUtil.getTestDir(TEST_PATH);
+
+    schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    schema.addColumn("name", Type.TEXT);
+    schema.addColumn("score", Type.INT8);
+
+    meta = CatalogUtil.newTableMeta(StoreType.CFILE);
+    meta.putOption(StorageConstants.CFILE_STRIPE_ROWS, String.valueOf(STRIPE_ROWS));
+  }
+
+  private FileFragment writeTable(String name) throws IOException {
+    FileStorageManager sm = (FileStorageManager) StorageManager.getFileStorageManager(conf);
+    Path tablePath = new Path(testDir, name);
+    Appender appender = sm.getAppender(meta, schema, tablePath);
+    appender.enableStats();
+    appender.init();
+    for (int i = 0; i < ROW_NUM; i++) {
+      Tuple tuple = new VTuple(3);
+      tuple.put(0, DatumFactory.createInt4(i));
+      tuple.put(1, DatumFactory.createText("name_" + (i % 3)));
+      // every 10th row has a null score
+      tuple.put(2, i % 10 == 0 ? NullDatum.get() : DatumFactory.createInt8(i / STRIPE_ROWS));
+      appender.addTuple(tuple);
+    }
+    appender.close();
+    assertEquals(ROW_NUM, appender.getStats().getNumRows().longValue());
+
+    FileStatus status = tablePath.getFileSystem(conf).getFileStatus(tablePath);
+    return new FileFragment(name, tablePath, 0, status.getLen());
+  }
+
+  private CFileScanner openScanner(FileFragment fragment, Column [] targets, EvalNode condition)
+      throws IOException {
+    CFileScanner scanner = new CFileScanner(conf, schema, meta, fragment);
+    if (targets != null) {
+      scanner.setTarget(targets);
+    }
+    if (condition != null) {
+      scanner.setSearchCondition(condition);
+    }
+    scanner.init();
+    return scanner;
+  }
+
+  @Test
+  public void testReadWrite() throws IOException {
+    FileFragment fragment = writeTable("testReadWrite.cfile");
+    CFileScanner scanner = openScanner(fragment, null, null);
+
+    int i = 0;
+    Tuple tuple;
+    while ((tuple = scanner.next()) != null) {
+      assertEquals(i, tuple.get(0).asInt4());
+      assertEquals("name_" + (i % 3), tuple.get(1).asChars());
+      if (i % 10 == 0) {
+        assertTrue(tuple.get(2).isNull());
+      } else {
+        assertEquals(i / STRIPE_ROWS, tuple.get(2).asInt8());
+      }
+      i++;
+    }
+    assertEquals(ROW_NUM, i);
+
+    // it reads again after reset
+    scanner.reset();
+    for (i = 0; scanner.next() != null; i++) {
+    }
+    assertEquals(ROW_NUM, i);
+    scanner.close();
+    assertEquals(ROW_NUM, scanner.getInputStats().getNumRows().longValue());
+  }
+
+  @Test
+  public void testProjection() throws IOException {
+    FileFragment fragment = writeTable("testProjection.cfile");
+    CFileScanner scanner = openScanner(fragment, new Column[] {schema.getColumn("name")}, null);
+
+    int i = 0;
+    Tuple tuple;
+    while ((tuple = scanner.next()) != null) {
+      assertNull(tuple.get(0));
+      assertEquals("name_" + (i % 3), tuple.get(1).asChars());
+      i++;
+    }
+    scanner.close();
+    assertEquals(ROW_NUM, i);
+    // only the chunks of the projected column are read
+    assertTrue(scanner.getInputStats().getReadBytes() < fragment.getLength() / 2);
+  }
+
+  @Test
+  public void testSkipStripes() throws IOException {
+    FileFragment fragment = writeTable("testSkipStripes.cfile");
+    FieldEval id = new FieldEval(new Column("default.t1.id", Type.INT4));
+    EvalNode condition = new BinaryEval(EvalType.GEQ, id, new ConstEval(DatumFactory.createInt4(950)));
+
+    CFileScanner scanner = openScanner(fragment, null, condition);
+    int count = 0;
+    while (scanner.next() != null) {
+      count++;
+    }
+    scanner.close();
+    // the exact condition is evaluated by the caller, so all rows of the last stripe are returned
+    assertEquals(STRIPE_ROWS, count);
+    assertEquals(ROW_NUM / STRIPE_ROWS - 1, scanner.getSkippedStripeNum());
+
+    // 5 < id is normalized into id > 5, and no stripe has an id less than 0.
+    condition = new BinaryEval(EvalType.OR,
+        new BinaryEval(EvalType.LTH, new ConstEval(DatumFactory.createInt4(5)), id),
+        new BinaryEval(EvalType.LTH, id, new ConstEval(DatumFactory.createInt4(0))));
+    scanner = openScanner(fragment, null, condition);
+    while (scanner.next() != null) {
+    }
+    scanner.close();
+    assertEquals(0, scanner.getSkippedStripeNum());
+  }
+
+  @Test
+  public void testStripeFilter() {
+    FieldEval score = new FieldEval(new Column("score", Type.INT8));
+    FieldEval name = new FieldEval(new Column("name", Type.TEXT));
+
+    ZoneMap scoreMap = new ZoneMap(CatalogUtil.newSimpleDataType(Type.INT8));
+    scoreMap.update(NullDatum.get());
+    scoreMap.update(DatumFactory.createInt8(10));
+    scoreMap.update(DatumFactory.createInt8(20));
+    ZoneMap nameMap = new ZoneMap(CatalogUtil.newSimpleDataType(Type.TEXT));
+    for (int i = 0; i < 3; i++) {
+      nameMap.update(NullDatum.get());
+    }
+    ZoneMap idMap = new ZoneMap(CatalogUtil.newSimpleDataType(Type.INT4));
+    StripeInfo stripe = new StripeInfo(4, 3, new long[3], new int[3], new ZoneMap[] {idMap, nameMap, scoreMap});
+
+    // an integer constant is compared with a column of another integer type
+    assertTrue(mightMatch(new BinaryEval(EvalType.EQUAL, score, new ConstEval(DatumFactory.createInt4(15))), stripe));
+    assertFalse(mightMatch(new BinaryEval(EvalType.GTH, score, new ConstEval(DatumFactory.createInt4(20))), stripe));
+    assertFalse(mightMatch(new BinaryEval(EvalType.LTH, score, new ConstEval(DatumFactory.createFloat8(9.5))),
+        stripe));
+    assertTrue(mightMatch(new IsNullEval(false, score), stripe));
+    assertTrue(mightMatch(new IsNullEval(true, score), stripe));
+
+    // all names are null
+    assertFalse(mightMatch(new BinaryEval(EvalType.EQUAL, name, new ConstEval(DatumFactory.createText("a"))),
+        stripe));
+    assertFalse(mightMatch(new IsNullEval(true, name), stripe));
+    assertFalse(mightMatch(new BinaryEval(EvalType.AND, new IsNullEval(false, name),
+        new BinaryEval(EvalType.GTH, score, new ConstEval(DatumFactory.createInt8(30)))), stripe));
+
+    // a predicate which cannot be decided by zone maps never skips a stripe
+    assertTrue(mightMatch(new BinaryEval(EvalType.EQUAL, score, name), stripe));
+  }
+
+  private boolean mightMatch(EvalNode condition, StripeInfo stripe) {
+    return new StripeFilter(schema, condition).mightMatch(stripe);
+  }
+
+  @Test
+  public void testEncodings() throws IOException {
+    ColumnChunkWriter writer = new ColumnChunkWriter(CatalogUtil.newSimpleDataType(Type.TEXT), 16);
+    Datum [] expected = new Datum[100];
+
+    // a few distinct values without runs
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = DatumFactory.createText("value_" + (i % 4));
+    }
+    assertEncoding(writer, expected, CFile.Encoding.DICTIONARY);
+
+    // sorted values with nulls form long runs
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = i % 7 == 0 ? NullDatum.get() : DatumFactory.createText("value_" + (i / 50));
+    }
+    assertEncoding(writer, expected, CFile.Encoding.RLE);
+
+    // too many distinct values for the dictionary
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = DatumFactory.createText("value_" + i);
+    }
+    assertEncoding(writer, expected, CFile.Encoding.PLAIN);
+  }
+
+  private static void assertEncoding(ColumnChunkWriter writer, Datum [] values, CFile.Encoding encoding)
+      throws IOException {
+    for (Datum value : values) {
+      writer.add(value);
+    }
+    assertEquals(encoding, writer.chooseEncoding());
+
+    ColumnChunkReader reader = new ColumnChunkReader(CatalogUtil.newSimpleDataType(Type.TEXT), writer.encode());
+    for (Datum value : values) {
+      assertEquals(value, reader.next());
+    }
+    writer.reset();
+  }
+}